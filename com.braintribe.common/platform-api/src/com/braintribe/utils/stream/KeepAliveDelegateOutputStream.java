@@ -31,4 +31,17 @@ public class KeepAliveDelegateOutputStream extends DelegateOutputStream {
 	public void close() throws IOException {
 		// ignore as it is a keep alive wrapper
 	}
+
+	/** Returns the wrapped stream, e.g. to check whether it supports a more efficient way of writing than the {@link OutputStream} methods. */
+	public OutputStream getWrappedStream() {
+		return out;
+	}
+
+	/** Returns the given stream, or the innermost stream wrapped by it in case it is a (possibly nested) {@link KeepAliveDelegateOutputStream}. */
+	public static OutputStream unwrap(OutputStream out) {
+		while (out instanceof KeepAliveDelegateOutputStream)
+			out = ((KeepAliveDelegateOutputStream) out).getWrappedStream();
+
+		return out;
+	}
 }
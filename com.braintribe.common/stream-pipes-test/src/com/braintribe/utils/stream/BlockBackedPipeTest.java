@@ -242,4 +242,29 @@ public class BlockBackedPipeTest {
 		}
 	}
 
+	@Test
+	public void testOffHeapBlocks() throws Exception {
+		File mappedBlocksDir = Files.createTempDirectory(BlockBackedPipeTest.class.getSimpleName()).toFile();
+
+		// 12 bytes are spread over a direct memory block, a mapped file block and a file block
+		blockPool = CompoundBlockPoolBuilder.start() //
+				.appendDirectMemoryBlockPool(5, 1) //
+				.appendMappedFileBlockPool(mappedBlocksDir, 5, 1) //
+				.appendFileBlockPool(null, 1) //
+				.build();
+
+		StreamPipe pipe = blockPool.newPipe("test");
+
+		try (OutputStream os = pipe.openOutputStream()) {
+			os.write(HELLO_WORLD.getBytes(StandardCharsets.UTF_8));
+		}
+
+		try (InputStream in = pipe.openInputStream()) {
+			String result = new String(IOTools.inputStreamToByteArray(in), StandardCharsets.UTF_8);
+			assertThat(result).isEqualTo(HELLO_WORLD);
+		}
+
+		pipe.close();
+	}
+
 }
@@ -33,8 +33,10 @@ import org.junit.runners.Parameterized.Parameters;
 import com.braintribe.exception.Exceptions;
 import com.braintribe.utils.stream.NullOutputStream;
 import com.braintribe.utils.stream.blocks.Block;
+import com.braintribe.utils.stream.blocks.DirectMemoryBlock;
 import com.braintribe.utils.stream.blocks.FileBlock;
 import com.braintribe.utils.stream.blocks.InMemoryBlock;
+import com.braintribe.utils.stream.blocks.MappedFileBlock;
 
 @RunWith(Parameterized.class)
 public abstract class AbstractBlockPoolTest {
@@ -51,7 +53,9 @@ public abstract class AbstractBlockPoolTest {
 		return blockSuppliers( //
 				() -> new TestBlock(), //
 				() -> new InMemoryBlock(1), //
-				() -> new FileBlock(CompoundBlockPoolBuilder.createNewFileForBlock(dir))); //
+				() -> new FileBlock(CompoundBlockPoolBuilder.createNewFileForBlock(dir)), //
+				() -> new DirectMemoryBlock(1), //
+				() -> new MappedFileBlock(CompoundBlockPoolBuilder.createNewFileForBlock(dir), 1)); //
 	}
 
 	private static List<Object[]> blockSuppliers(Supplier<Block>... s) {
@@ -79,6 +83,18 @@ public abstract class AbstractBlockPoolTest {
 				return !fileBlock.getFile().exists();
 			}
 
+			if (block instanceof MappedFileBlock) {
+				MappedFileBlock mappedFileBlock = (MappedFileBlock) block;
+
+				return mappedFileBlock.getBuffer() == null && !mappedFileBlock.getFile().exists();
+			}
+
+			if (block instanceof DirectMemoryBlock) {
+				DirectMemoryBlock directMemoryBlock = (DirectMemoryBlock) block;
+
+				return directMemoryBlock.getBuffer() == null;
+			}
+
 			throw new IllegalArgumentException("Unknow block type: " + block.getClass());
 		} catch (Exception e) {
 			throw Exceptions.unchecked(e, "Could not inspect blocks during test.");
@@ -0,0 +1,60 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.utils.stream.blocks;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link Block} that persists in a {@link ByteBuffer} of fixed size. Other than with {@link InMemoryBlock} the buffer
+ * doesn't have to live on the heap, see {@link DirectMemoryBlock} and {@link MappedFileBlock}.
+ * <p>
+ * Every stream works on its own view of the buffer, so any number of input streams can read concurrently while the
+ * output stream is writing.
+ */
+public abstract class ByteBufferBlock extends Block {
+
+	/** @return the buffer of this block, with position 0 and limit equal to its capacity */
+	public abstract ByteBuffer getBuffer();
+
+	@Override
+	public OutputStream openOutputStream() {
+		return new ByteBufferOutputStream(getBuffer().duplicate());
+	}
+
+	@Override
+	protected InputStream openRawInputStream() {
+		return new ByteBufferInputStream(getBuffer().asReadOnlyBuffer());
+	}
+
+	@Override
+	public int getTreshold() {
+		return getBuffer().capacity();
+	}
+
+	@Override
+	public void autoBufferInputStreams(int bufferSize) {
+		// Ignore - no additional buffering needed.
+	}
+
+	@Override
+	public boolean isAutoBuffered() {
+		return false;
+	}
+
+	@Override
+	public long getBytesAllocated() {
+		return getBuffer().capacity();
+	}
+
+}
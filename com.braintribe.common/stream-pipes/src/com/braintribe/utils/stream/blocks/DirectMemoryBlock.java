@@ -0,0 +1,40 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.utils.stream.blocks;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link ByteBufferBlock} that persists in a {@link ByteBuffer#allocateDirect(int) direct} buffer of given size, i.e.
+ * in memory outside of the Java heap. Large blocks of this kind don't put any pressure on the garbage collector.
+ * <p>
+ * Note that the memory is only released once the block is garbage collected after {@link #destroy()}. The total amount
+ * of direct memory is limited by the JVM (see <tt>-XX:MaxDirectMemorySize</tt>).
+ */
+public class DirectMemoryBlock extends ByteBufferBlock {
+	private ByteBuffer buffer;
+
+	public DirectMemoryBlock(int size) {
+		buffer = ByteBuffer.allocateDirect(size);
+	}
+
+	@Override
+	public ByteBuffer getBuffer() {
+		return buffer;
+	}
+
+	@Override
+	public void destroy() {
+		buffer = null;
+	}
+
+}
@@ -0,0 +1,135 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.utils.stream.blocks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.function.Consumer;
+
+import com.braintribe.logging.Logger;
+
+/**
+ * A {@link ByteBufferBlock} that persists in a memory-mapped {@link File} of given size. The data lives in the page
+ * cache of the operating system, which writes it to the disk only when it needs the memory for something else.
+ * <p>
+ * Unlike a {@link FileBlock} this block has a fixed size. {@link #destroy()} releases the mapping and then deletes the
+ * file.
+ */
+public class MappedFileBlock extends ByteBufferBlock {
+	private static final Logger logger = Logger.getLogger(MappedFileBlock.class);
+
+	private static final Consumer<MappedByteBuffer> unmapper = resolveUnmapper();
+
+	private final File file;
+	private MappedByteBuffer buffer;
+
+	/**
+	 * @param file
+	 *            File to be used as buffer file for this block. Parent folder MUST exist. If the file exists already, it is
+	 *            reused and resized to given size.
+	 */
+	public MappedFileBlock(File file, int size) {
+		this.file = file;
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(size);
+			// the mapping stays valid after the channel is closed
+			buffer = raf.getChannel().map(MapMode.READ_WRITE, 0, size);
+
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not map block file: " + file.getAbsolutePath(), e);
+		}
+	}
+
+	@Override
+	public ByteBuffer getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * Releases the mapping before deleting the file, as otherwise the memory (and on some systems the file itself) would
+	 * only be released once the buffer is garbage collected. Must only be called when no stream of this block is open
+	 * anymore, which is ensured by the {@link com.braintribe.utils.stream.pools.BlockPool}.
+	 */
+	@Override
+	public void destroy() {
+		MappedByteBuffer mappedBuffer = buffer;
+		buffer = null;
+
+		if (mappedBuffer != null)
+			unmap(mappedBuffer);
+
+		file.delete();
+	}
+
+	private void unmap(MappedByteBuffer mappedBuffer) {
+		try {
+			unmapper.accept(mappedBuffer);
+
+		} catch (RuntimeException e) {
+			logger.warn("Could not release the mapping of block file: " + file.getAbsolutePath()
+					+ ". It will be released once the buffer is garbage collected.", e);
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * There is no public API to release a mapping. Since Java 9 there is {@code sun.misc.Unsafe.invokeCleaner}, before that
+	 * the buffer itself has a {@code cleaner()}. If neither is accessible, the mapping is only released by the garbage
+	 * collector.
+	 */
+	private static Consumer<MappedByteBuffer> resolveUnmapper() {
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			Object unsafe = theUnsafe.get(null);
+
+			try {
+				Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+				return buffer -> invoke(invokeCleaner, unsafe, buffer);
+
+			} catch (NoSuchMethodException e) {
+				Method cleanerMethod = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+				Method cleanMethod = Class.forName("sun.misc.Cleaner").getMethod("clean");
+				return buffer -> invoke(cleanMethod, invoke(cleanerMethod, buffer));
+			}
+
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			logger.warn("Memory-mapped block files cannot be unmapped explicitly, their mappings will be released by the"
+					+ " garbage collector.", e);
+			return buffer -> {
+				// NOOP
+			};
+		}
+	}
+
+	private static Object invoke(Method method, Object target, Object... args) {
+		try {
+			return method.invoke(target, args);
+
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Could not invoke " + method, e);
+		}
+	}
+
+}
@@ -27,8 +27,10 @@ import com.braintribe.logging.Logger;
 import com.braintribe.utils.FileTools;
 import com.braintribe.utils.stream.api.StreamPipeManager;
 import com.braintribe.utils.stream.blocks.Block;
+import com.braintribe.utils.stream.blocks.DirectMemoryBlock;
 import com.braintribe.utils.stream.blocks.FileBlock;
 import com.braintribe.utils.stream.blocks.InMemoryBlock;
+import com.braintribe.utils.stream.blocks.MappedFileBlock;
 
 /**
  * Builder for {@link CompoundBlockPool}s
@@ -130,6 +132,47 @@ public class CompoundBlockPoolBuilder implements StreamPipeManager {
 		return this;
 	}
 
+	/**
+	 * Appends a new {@link GrowingBlockPool} - pool which guarantees to keep all it's Blocks' resources available until
+	 * {@link CompoundBlockPool#shutdown()}. This pool uses {@link DirectMemoryBlock}s, i.e. buffers outside of the Java
+	 * heap, and thus is almost as fast as an in-memory pool but large blocks don't cause any garbage collection pauses.
+	 * <p>
+	 * Should the JVM's direct memory be exhausted, this pool doesn't create further blocks and the next pool is used
+	 * instead.
+	 * 
+	 * @param blockSize
+	 *            Fixed Block buffer size in bytes
+	 * @param number
+	 *            Max number of blocks that this pool can create
+	 */
+	public CompoundBlockPoolBuilder appendDirectMemoryBlockPool(int blockSize, int number) {
+		BlockPool blockPool = new GrowingBlockPool(new DirectMemoryBlockSupplier(blockSize), number);
+		pools.add(blockPool);
+		return this;
+	}
+
+	/**
+	 * Appends a new {@link GrowingBlockPool} - pool which guarantees to keep all it's Blocks' resources available until
+	 * {@link CompoundBlockPool#shutdown()}. This pool uses {@link MappedFileBlock}s - memory-mapped files of fixed size,
+	 * which are read and written without any system calls and don't occupy the Java heap.
+	 * 
+	 * @param rootDir
+	 *            Root directory inside which the block files are stored. The same restrictions as for
+	 *            {@link #appendFileBlockPool(File, int)} apply, it especially must not be shared with a FileBlock backed
+	 *            pool. Files found there on startup are deleted.
+	 * @param blockSize
+	 *            Fixed Block size in bytes
+	 * @param maxNumBlocks
+	 *            Max number of blocks that this pool can create
+	 */
+	public CompoundBlockPoolBuilder appendMappedFileBlockPool(File rootDir, int blockSize, int maxNumBlocks) {
+		deletePresentFiles(rootDir);
+
+		BlockPool blockPool = new GrowingBlockPool(new MappedFileBlockSupplier(rootDir, blockSize), maxNumBlocks);
+		pools.add(blockPool);
+		return this;
+	}
+
 	public CompoundBlockPool build() {
 		CompoundBlockPool compoundBlockPool = new CompoundBlockPool(pools);
 
@@ -190,6 +233,54 @@ public class CompoundBlockPoolBuilder implements StreamPipeManager {
 		}
 	}
 
+	/* package-private */ static class DirectMemoryBlockSupplier implements Supplier<Block> {
+
+		private final int size;
+
+		public DirectMemoryBlockSupplier(int size) {
+			this.size = size;
+		}
+
+		/** @return a new block or <code>null</code> if the JVM ran out of direct memory */
+		@Override
+		public DirectMemoryBlock get() {
+			try {
+				return new DirectMemoryBlock(size);
+			} catch (OutOfMemoryError e) {
+				logger.warn("Could not allocate a direct memory block of " + size + " bytes: " + e.getMessage());
+				return null;
+			}
+		}
+
+		public int getBlockSize() {
+			return size;
+		}
+	}
+
+	/* package-private */ static class MappedFileBlockSupplier implements Supplier<Block> {
+
+		private final File blockFileRootDir;
+		private final int size;
+
+		public MappedFileBlockSupplier(File blockFileRootDir, int size) {
+			this.blockFileRootDir = blockFileRootDir;
+			this.size = size;
+		}
+
+		@Override
+		public MappedFileBlock get() {
+			return new MappedFileBlock(createNewFileForBlock(blockFileRootDir), size);
+		}
+
+		public File getBlockFileRootDir() {
+			return blockFileRootDir;
+		}
+
+		public int getBlockSize() {
+			return size;
+		}
+	}
+
 	/* package-private */ class FileBlockSupplier implements Supplier<Block> {
 		Iterator<FileBlock> recycledBlocks;
 		File blockFileRootDir;
@@ -244,6 +335,18 @@ public class CompoundBlockPoolBuilder implements StreamPipeManager {
 		return new File(subDir, filename);
 	}
 
+	private static void deletePresentFiles(File blockFileRootDir) {
+		if (!blockFileRootDir.exists()) {
+			return;
+		}
+
+		try {
+			FileTools.deleteDirectoryRecursively(blockFileRootDir);
+		} catch (IOException e) {
+			logger.warn("Could not delete old block files in: " + blockFileRootDir.getAbsolutePath(), e);
+		}
+	}
+
 	private static Iterable<FileBlock> recyclePresentFiles(File blockFileRootDir) {
 		if (!blockFileRootDir.exists()) {
 			return Collections.EMPTY_SET;
@@ -19,8 +19,10 @@ import java.util.stream.Collectors;
 
 import com.braintribe.utils.FileTools;
 import com.braintribe.utils.stream.blocks.Block;
+import com.braintribe.utils.stream.pools.CompoundBlockPoolBuilder.DirectMemoryBlockSupplier;
 import com.braintribe.utils.stream.pools.CompoundBlockPoolBuilder.FileBlockSupplier;
 import com.braintribe.utils.stream.pools.CompoundBlockPoolBuilder.InMemoryBlockSupplier;
+import com.braintribe.utils.stream.pools.CompoundBlockPoolBuilder.MappedFileBlockSupplier;
 import com.braintribe.utils.stream.stats.BlockKind;
 import com.braintribe.utils.stream.stats.PoolKind;
 
@@ -60,6 +62,10 @@ public class GrowingBlockPool extends BlockPool {
 			}
 			
 			block = blockSupplier.get();
+			if (block == null) {
+				return null;
+			}
+
 			block.setReturnConsumer(this::giveBack);
 			totalBlockCounter.increment();
 		}
@@ -101,8 +107,9 @@ public class GrowingBlockPool extends BlockPool {
 			File blockFileRootDir = ((FileBlockSupplier) blockSupplier).getBlockFileRootDir();
 			return FileTools.getFolderSizeInBytes(blockFileRootDir.toPath());
 		} 
-		else if (blockSupplier instanceof InMemoryBlockSupplier) {
-			return getNumTotal() * getBlockSize();
+		else if (blockSupplier instanceof InMemoryBlockSupplier || blockSupplier instanceof DirectMemoryBlockSupplier
+				|| blockSupplier instanceof MappedFileBlockSupplier) {
+			return (long) getNumTotal() * getBlockSize();
 		}
 		
 		return 0;
@@ -120,6 +127,10 @@ public class GrowingBlockPool extends BlockPool {
 				return -1;
 			case inMemory:
 				return ((InMemoryBlockSupplier) blockSupplier).getBlockSize();
+			case directMemory:
+				return ((DirectMemoryBlockSupplier) blockSupplier).getBlockSize();
+			case mappedFile:
+				return ((MappedFileBlockSupplier) blockSupplier).getBlockSize();
 			default:
 				throw new IllegalStateException("Unexpected block type: " + getBlockKind());
 		}
@@ -133,6 +144,12 @@ public class GrowingBlockPool extends BlockPool {
 		else if (blockSupplier instanceof InMemoryBlockSupplier) {
 			return BlockKind.inMemory;
 		}
+		else if (blockSupplier instanceof DirectMemoryBlockSupplier) {
+			return BlockKind.directMemory;
+		}
+		else if (blockSupplier instanceof MappedFileBlockSupplier) {
+			return BlockKind.mappedFile;
+		}
 		
 		throw new IllegalStateException("Unexpected block supplier: " + blockSupplier);
 	}
@@ -142,6 +159,9 @@ public class GrowingBlockPool extends BlockPool {
 		if (blockSupplier instanceof FileBlockSupplier) {
 			return ((FileBlockSupplier) blockSupplier).getBlockFileRootDir().getAbsolutePath();
 		} 
+		else if (blockSupplier instanceof MappedFileBlockSupplier) {
+			return ((MappedFileBlockSupplier) blockSupplier).getBlockFileRootDir().getAbsolutePath();
+		}
 		
 		return null;
 	}
@@ -40,6 +40,12 @@ public class SmartBlockPoolFactory {
 	
 	private long totalMemory = 100 * SIZE_1M; // in bytes
 	
+	private boolean largeBlocksOffHeap = false;
+
+	private int mappedBlocksSize = 16 * SIZE_1M;
+	private int mappedBlocksAmount = 0;
+	private File mappedBlocksFolder;
+
 	private File streamPipeFolder;
 	
 	public static SmartBlockPoolFactory usingAvailableMemory(double percent) {
@@ -78,10 +84,19 @@ public class SmartBlockPoolFactory {
 //		System.out.println("Medium Blocks: " + numMediumBlocks + " totaling " + numMediumBlocks * mediumBlocksSize/ IOTools.SIZE_1M + "MB");
 //		System.out.println("Large Blocks: " + numLargeBlocks + " totaling " + numLargeBlocks * largeBlocksSize/ IOTools.SIZE_1M + "MB");
 
-		return CompoundBlockPoolBuilder.start() //
+		CompoundBlockPoolBuilder builder = CompoundBlockPoolBuilder.start() //
 				.appendInMemoryBlockPool(smallBlocksSize, numSmallBlocks)
-				.appendInMemoryBlockPool(mediumBlocksSize, numMediumBlocks)
-				.appendSoftReferencedInMemoryBlockPool(largeBlocksSize, numLargeBlocks)
+				.appendInMemoryBlockPool(mediumBlocksSize, numMediumBlocks);
+
+		if (largeBlocksOffHeap)
+			builder.appendDirectMemoryBlockPool(largeBlocksSize, numLargeBlocks);
+		else
+			builder.appendSoftReferencedInMemoryBlockPool(largeBlocksSize, numLargeBlocks);
+
+		if (mappedBlocksAmount > 0 && mappedBlocksFolder != null)
+			builder.appendMappedFileBlockPool(mappedBlocksFolder, mappedBlocksSize, mappedBlocksAmount);
+
+		return builder //
 				.appendDynamicFileBlockPool(streamPipeFolder) //
 				.build();
 	}
@@ -142,6 +157,45 @@ public class SmartBlockPoolFactory {
 		this.totalMemory = totalMemory;
 	}
 
+	public boolean isLargeBlocksOffHeap() {
+		return largeBlocksOffHeap;
+	}
+
+	/**
+	 * If <code>true</code>, the large blocks are allocated in direct memory rather than on the heap, which avoids long
+	 * garbage collection pauses under heavy streaming load. Note that the JVM's direct memory limit must leave room for
+	 * the large blocks' share of the {@link #getTotalMemory() total memory}.
+	 */
+	public void setLargeBlocksOffHeap(boolean largeBlocksOffHeap) {
+		this.largeBlocksOffHeap = largeBlocksOffHeap;
+	}
+
+	public int getMappedBlocksSize() {
+		return mappedBlocksSize;
+	}
+
+	public void setMappedBlocksSize(int mappedBlocksSize) {
+		this.mappedBlocksSize = mappedBlocksSize;
+	}
+
+	public int getMappedBlocksAmount() {
+		return mappedBlocksAmount;
+	}
+
+	/**
+	 * Max number of memory-mapped file blocks, which are used once all the in-memory blocks are taken, before falling back
+	 * to regular file blocks. Default is 0, i.e. no memory-mapped blocks. Requires the
+	 * {@link #setMappedBlocksFolder(File) mapped blocks folder} to be set.
+	 */
+	public void setMappedBlocksAmount(int mappedBlocksAmount) {
+		this.mappedBlocksAmount = mappedBlocksAmount;
+	}
+
+	/** Folder for the memory-mapped block files. Must not be the {@link #setStreamPipeFolder(File) stream pipe folder}. */
+	public void setMappedBlocksFolder(File mappedBlocksFolder) {
+		this.mappedBlocksFolder = mappedBlocksFolder;
+	}
+
 	public void setStreamPipeFolder(File streamPipeFolder) {
 		this.streamPipeFolder = streamPipeFolder;
 	}
@@ -13,5 +13,7 @@ package com.braintribe.utils.stream.stats;
 
 public enum BlockKind {
 	file,
-	inMemory
+	inMemory,
+	directMemory,
+	mappedFile
 }
@@ -157,6 +157,11 @@ public class InternalizingAccessRequestProcessor<P extends AccessRequest,R> impl
 			
 			return !(instanceToBeCloned == hasInducedManipulation && property.getName().equals("inducedManipulation"));
 		}
+
+		@Override
+		protected boolean isTraversingStackUsedByCallbacks() {
+			return false;
+		}
 	}
 	
 	private static class SessionDataCloningContext extends StandardCloningContext {
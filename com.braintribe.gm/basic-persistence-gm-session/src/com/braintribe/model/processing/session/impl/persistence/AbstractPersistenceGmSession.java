@@ -1450,6 +1450,11 @@ public abstract class AbstractPersistenceGmSession extends AbstractManagedGmSess
 
 					return clonedEntity;
 				}
+
+				@Override
+				protected boolean isTraversingStackUsedByCallbacks() {
+					return false;
+				}
 			});
 			
 		}
@@ -0,0 +1,131 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.cmd.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.braintribe.model.processing.meta.cmd.index.AdmissionCacheMap;
+import com.braintribe.model.processing.meta.cmd.index.CacheStatistics;
+
+/**
+ * Tests for {@link AdmissionCacheMap}.
+ */
+public class AdmissionCacheMapTests {
+
+	private static final int MAX_SIZE = 16;
+
+	private final AdmissionCacheMap<String, String> cache = new AdmissionCacheMap<>(MAX_SIZE);
+
+	@Test
+	public void cachesValues() {
+		assertThat(acquire("a")).isEqualTo("A");
+		assertThat(acquire("a")).isEqualTo("A");
+
+		assertThat(cache.containsKey("a")).isTrue();
+		assertThat(cache.size()).isEqualTo(1);
+
+		CacheStatistics stats = cache.getStatistics();
+		assertThat(stats.getHits()).isEqualTo(1);
+		assertThat(stats.getMisses()).isEqualTo(1);
+		assertThat(stats.getSize()).isEqualTo(1);
+	}
+
+	@Test
+	public void neverExceedsMaxSize() {
+		for (int i = 0; i < 10 * MAX_SIZE; i++)
+			acquire("key" + i);
+
+		assertThat(cache.size()).isEqualTo(MAX_SIZE);
+	}
+
+	@Test
+	public void frequentlyUsedEntriesSurviveScan() {
+		for (int round = 0; round < 5; round++)
+			for (int i = 0; i < MAX_SIZE; i++)
+				acquire("hot" + i);
+
+		for (int i = 0; i < 5 * MAX_SIZE; i++)
+			acquire("scan" + i);
+
+		for (int i = 0; i < MAX_SIZE; i++)
+			assertThat(cache.containsKey("hot" + i)).as("hot%s", i).isTrue();
+
+		CacheStatistics stats = cache.getStatistics();
+		assertThat(stats.getEvictions()).isZero();
+		assertThat(stats.getRejections()).isEqualTo(5 * MAX_SIZE);
+	}
+
+	@Test
+	public void repeatedlyRequestedEntryIsAdmitted() {
+		for (int i = 0; i < MAX_SIZE; i++)
+			acquire("key" + i);
+
+		acquire("new");
+		assertThat(cache.containsKey("new")).isFalse();
+
+		acquire("new");
+		assertThat(cache.containsKey("new")).isTrue();
+		assertThat(cache.containsKey("key0")).isFalse(); // least recently used among the least frequently used
+
+		CacheStatistics stats = cache.getStatistics();
+		assertThat(stats.getEvictions()).isEqualTo(1);
+		assertThat(stats.getRejections()).isEqualTo(1);
+		assertThat(stats.getSize()).isEqualTo(MAX_SIZE);
+	}
+
+	@Test
+	public void segmentedCacheRespectsMaxSize() throws Exception {
+		AdmissionCacheMap<Integer, Integer> segmentedCache = new AdmissionCacheMap<>(64, 8);
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				int offset = t;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 10_000; i++) {
+						Integer key = (i * 31 + offset) % 500;
+						if (segmentedCache.get(key) == null)
+							segmentedCache.put(key, key);
+					}
+				}));
+			}
+
+			for (Future<?> future : futures)
+				future.get();
+
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(segmentedCache.size()).isLessThanOrEqualTo(64);
+		assertThat(segmentedCache.getStatistics().getMisses()).isPositive();
+	}
+
+	private String acquire(String key) {
+		String value = cache.get(key);
+		if (value == null) {
+			value = key.toUpperCase();
+			cache.put(key, value);
+		}
+		return value;
+	}
+
+}
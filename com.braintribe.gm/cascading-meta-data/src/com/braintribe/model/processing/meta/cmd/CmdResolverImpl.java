@@ -24,6 +24,7 @@ import com.braintribe.model.processing.meta.cmd.context.MutableSelectorContext;
 import com.braintribe.model.processing.meta.cmd.context.ResolutionContext;
 import com.braintribe.model.processing.meta.cmd.context.SelectorContextAspect;
 import com.braintribe.model.processing.meta.cmd.context.SelectorContextImpl;
+import com.braintribe.model.processing.meta.cmd.index.CacheStatistics;
 import com.braintribe.model.processing.meta.cmd.index.MetaDataIndexStructure;
 import com.braintribe.model.processing.meta.cmd.index.MetaDataIndexStructure.ModelMdIndex;
 import com.braintribe.model.processing.meta.cmd.resolvers.ModelMdAggregator;
@@ -88,6 +89,14 @@ public class CmdResolverImpl implements CmdResolver {
 		return resolutionContext.mdSelectorResolver;
 	}
 
+	/**
+	 * Returns the aggregated statistics of all the session-scoped caches of this resolver, i.e. caches of meta data whose selectors only depend
+	 * on the session (see {@link ResolutionContextInfo#setMaxSessionCacheSize(int)}).
+	 */
+	public CacheStatistics getSessionCacheStatistics() {
+		return resolutionContext.getSessionCacheStatistics();
+	}
+
 	/**
 	 * Method that starts new resolution process for this resolver. This method returns a {@link ModelMdResolverImpl}, which is a first of a cascade
 	 * of builders that together provide a convenient fluent interface to specify the context of resolution (i.e. where to look for meta data
@@ -17,7 +17,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Supplier;
 
 import com.braintribe.model.generic.reflection.EntityType;
@@ -28,6 +30,9 @@ import com.braintribe.model.processing.meta.cmd.CmdResolverImpl;
 import com.braintribe.model.processing.meta.cmd.ResolutionContextInfo;
 import com.braintribe.model.processing.meta.cmd.context.experts.SelectorExpert;
 import com.braintribe.model.processing.meta.cmd.context.scope.ScopeUtils;
+import com.braintribe.model.processing.meta.cmd.index.AdmissionCacheMap;
+import com.braintribe.model.processing.meta.cmd.index.CacheStatistics;
+import com.braintribe.model.processing.meta.cmd.tools.CmdGwtUtils;
 import com.braintribe.model.processing.meta.cmd.tools.CmdTools;
 import com.braintribe.model.processing.meta.oracle.ModelOracle;
 import com.braintribe.model.processing.meta.oracle.QualifiedMetaData;
@@ -46,6 +51,7 @@ public class ResolutionContext {
 	private final Supplier<?> sessionProvider; // nullable
 	private final ScopeUtils scopeUtils = new ScopeUtils();
 	private final int maxSessionCacheSize;
+	private final Queue<AdmissionCacheMap<?, ?>> sessionCaches = new ConcurrentLinkedQueue<>();
 
 	private Map<EntityType<? extends MetaData>, MetaData> defaultMetaData = Collections.emptyMap();
 
@@ -82,6 +88,21 @@ public class ResolutionContext {
 		return maxSessionCacheSize;
 	}
 
+	/** Creates a new cache for session-scoped values, whose size is bounded by {@link #getMaxSessionCacheSize()}. */
+	public <K, V> Map<K, V> newSessionCache() {
+		AdmissionCacheMap<K, V> result = CmdGwtUtils.newWeakCacheMap(maxSessionCacheSize);
+		sessionCaches.add(result);
+		return result;
+	}
+
+	public CacheStatistics getSessionCacheStatistics() {
+		CacheStatistics result = CacheStatistics.EMPTY;
+		for (AdmissionCacheMap<?, ?> cache : sessionCaches)
+			result = result.plus(cache.getStatistics());
+
+		return result;
+	}
+
 	public Collection<Class<? extends SelectorContextAspect<?>>> getRelevantAspects(MetaDataSelector mds) {
 		return mdSelectorResolver.getRelevantAspects(mds);
 	}
@@ -0,0 +1,271 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.meta.cmd.index;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import com.braintribe.model.processing.meta.cmd.tools.CmdGwtUtils;
+
+/**
+ * Size-bounded cache map with frequency-based admission (TinyLFU). The size of the map never grows more than {@code maxSize} value provided via
+ * constructor.
+ * <p>
+ * The map is split into segments, each responsible for a part of the keys. Reading an entry is lock-free - the access is only recorded in the
+ * (cached) entry itself, without any synchronization. Only a miss and a {@link #put(Object, Object) put} synchronize on the corresponding
+ * segment, which records the access in its {@link FrequencySketch} and, if the segment is full, picks the least frequently used entry (least
+ * recently used among equals) as a victim. The new entry replaces the victim only if it was accessed more frequently, otherwise it is not cached
+ * at all. This way a burst of one-time accesses (e.g. iterating over many sessions) cannot push out the entries which are used all the time.
+ * <p>
+ * Hits, misses, evictions and rejections are counted and available via {@link #getStatistics()}.
+ * <p>
+ * This implementation is thread-safe and GWT compatible.
+ */
+public final class AdmissionCacheMap<K, V> implements Map<K, V> {
+
+	private static final int MIN_SEGMENT_SIZE = 16;
+
+	private final Segment<K, V>[] segments;
+	private final int segmentMask;
+
+	private static class Node<V> {
+		final V value;
+		// written without synchronization, thus only approximate
+		int frequency;
+		int lastAccess;
+		long hits;
+
+		Node(V value, int frequency, int lastAccess) {
+			this.value = value;
+			this.frequency = frequency;
+			this.lastAccess = lastAccess;
+		}
+	}
+
+	/** Equivalent of calling {@link #AdmissionCacheMap(int, int)} with params: (maxSize, 1) */
+	public AdmissionCacheMap(int maxSize) {
+		this(maxSize, 1);
+	}
+
+	/**
+	 * @param maxSize
+	 *            maximum size this map can have
+	 * @param concurrencyLevel
+	 *            estimated number of threads writing to this map at the same time. Determines the number of segments, but every segment has
+	 *            room for at least 16 entries, so small maps consist of a single segment.
+	 */
+	@SuppressWarnings("unchecked")
+	public AdmissionCacheMap(int maxSize, int concurrencyLevel) {
+		int capacity = Math.max(maxSize, 1);
+		int segmentCount = floorPowerOfTwo(Math.max(1, Math.min(concurrencyLevel, capacity / MIN_SEGMENT_SIZE)));
+
+		this.segments = new Segment[segmentCount];
+		this.segmentMask = segmentCount - 1;
+
+		for (int i = 0; i < segmentCount; i++) {
+			int segmentCapacity = capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0);
+			segments[i] = new Segment<>(segmentCapacity);
+		}
+	}
+
+	@Override
+	public int size() {
+		int result = 0;
+		for (Segment<K, V> segment : segments)
+			result += segment.data.size();
+
+		return result;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return segmentFor(key).data.containsKey(key);
+	}
+
+	@Override
+	public V get(Object key) {
+		return segmentFor(key).get(key);
+	}
+
+	/**
+	 * Caches given value, unless the map is full and the least frequently used entry was used more often than given key. In such case the value is
+	 * simply not cached, and {@code null} is returned.
+	 */
+	@Override
+	public V put(K key, V value) {
+		return segmentFor(key).put(key, value);
+	}
+
+	public CacheStatistics getStatistics() {
+		CacheStatistics result = CacheStatistics.EMPTY;
+		for (Segment<K, V> segment : segments)
+			result = result.plus(segment.statistics());
+
+		return result;
+	}
+
+	private Segment<K, V> segmentFor(Object key) {
+		int h = key.hashCode();
+		return segments[(h ^ (h >>> 16)) & segmentMask];
+	}
+
+	private static class Segment<K, V> {
+		final Map<K, Node<V>> data = CmdGwtUtils.newCacheMap();
+		final FrequencySketch sketch;
+		final int capacity;
+
+		int ticks; // written without synchronization, only used to compare recency of nodes
+
+		// guarded by this
+		long misses;
+		long evictions;
+		long rejections;
+		long retiredHits;
+
+		Segment(int capacity) {
+			this.capacity = capacity;
+			this.sketch = new FrequencySketch(capacity);
+		}
+
+		V get(Object key) {
+			Node<V> node = data.get(key);
+			if (node == null) {
+				recordMiss(key);
+				return null;
+			}
+
+			if (node.frequency < FrequencySketch.MAX_FREQUENCY)
+				node.frequency++;
+			node.lastAccess = ++ticks;
+			node.hits++;
+
+			return node.value;
+		}
+
+		synchronized void recordMiss(Object key) {
+			misses++;
+			if (sketch.increment(key))
+				ageNodes();
+		}
+
+		synchronized V put(K key, V value) {
+			Node<V> oldNode = data.get(key);
+			if (oldNode != null) {
+				Node<V> newNode = new Node<>(value, oldNode.frequency, ++ticks);
+				retiredHits += oldNode.hits;
+				data.put(key, newNode);
+				return oldNode.value;
+			}
+
+			if (data.size() >= capacity && !evictFor(key)) {
+				rejections++;
+				return null;
+			}
+
+			data.put(key, new Node<>(value, sketch.frequency(key), ++ticks));
+			return null;
+		}
+
+		/** Evicts the least frequently used node, unless it is used more frequently than given candidate. */
+		private boolean evictFor(K candidate) {
+			K victimKey = null;
+			Node<V> victim = null;
+
+			for (Map.Entry<K, Node<V>> entry : data.entrySet()) {
+				Node<V> node = entry.getValue();
+				if (victim == null || isColder(node, victim)) {
+					victimKey = entry.getKey();
+					victim = node;
+				}
+			}
+
+			if (victim == null || sketch.frequency(candidate) <= victim.frequency)
+				return false;
+
+			data.remove(victimKey);
+			retiredHits += victim.hits;
+			evictions++;
+			return true;
+		}
+
+		private static boolean isColder(Node<?> node, Node<?> other) {
+			if (node.frequency != other.frequency)
+				return node.frequency < other.frequency;
+			else
+				return node.lastAccess - other.lastAccess < 0;
+		}
+
+		/** Keeps frequencies of cached nodes in line with the {@link FrequencySketch}, which has just halved its counters. */
+		private void ageNodes() {
+			for (Node<V> node : data.values())
+				node.frequency >>>= 1;
+		}
+
+		synchronized CacheStatistics statistics() {
+			long hits = retiredHits;
+			for (Node<V> node : data.values())
+				hits += node.hits;
+
+			return new CacheStatistics(hits, misses, evictions, rejections, data.size());
+		}
+	}
+
+	private static int floorPowerOfTwo(int value) {
+		int result = 1;
+		while (result << 1 <= value)
+			result <<= 1;
+
+		return result;
+	}
+
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException("Method 'AdmissionCacheMap.clear' is not supported!");
+	}
+
+	@Override
+	public V remove(Object key) {
+		throw new UnsupportedOperationException("Method 'AdmissionCacheMap.remove' is not supported!");
+	}
+
+	@Override
+	public void putAll(Map<? extends K, ? extends V> m) {
+		throw new UnsupportedOperationException("Method 'AdmissionCacheMap.putAll' is not supported!");
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		throw new UnsupportedOperationException("Method 'AdmissionCacheMap.containsValue' is not supported!");
+	}
+
+	@Override
+	public Set<K> keySet() {
+		throw new UnsupportedOperationException("Method 'AdmissionCacheMap.keySet' is not supported!");
+	}
+
+	@Override
+	public Collection<V> values() {
+		throw new UnsupportedOperationException("Method 'AdmissionCacheMap.values' is not supported!");
+	}
+
+	@Override
+	public Set<java.util.Map.Entry<K, V>> entrySet() {
+		throw new UnsupportedOperationException("Method 'AdmissionCacheMap.entrySet' is not supported!");
+	}
+
+}
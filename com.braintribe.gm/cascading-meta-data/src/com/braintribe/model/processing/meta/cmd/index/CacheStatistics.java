@@ -0,0 +1,82 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.meta.cmd.index;
+
+/**
+ * Immutable snapshot of the counters of an {@link AdmissionCacheMap}, or an aggregation of such snapshots (see {@link #plus(CacheStatistics)}).
+ * <p>
+ * Note that the number of hits is an estimate, as hits are counted without any synchronization so that they do not slow down the read path.
+ */
+public final class CacheStatistics {
+
+	public static final CacheStatistics EMPTY = new CacheStatistics(0, 0, 0, 0, 0);
+
+	private final long hits;
+	private final long misses;
+	private final long evictions;
+	private final long rejections;
+	private final long size;
+
+	public CacheStatistics(long hits, long misses, long evictions, long rejections, long size) {
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.rejections = rejections;
+		this.size = size;
+	}
+
+	/** Number of lookups that found a cached value. */
+	public long getHits() {
+		return hits;
+	}
+
+	/** Number of lookups that did not find a cached value. */
+	public long getMisses() {
+		return misses;
+	}
+
+	/** Number of entries removed from the cache to make room for a more frequently used one. */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/** Number of entries which were not cached at all, because they were used less frequently than the entry they would replace. */
+	public long getRejections() {
+		return rejections;
+	}
+
+	/** Number of entries cached at the moment the snapshot was taken. */
+	public long getSize() {
+		return size;
+	}
+
+	public double getHitRate() {
+		long requests = hits + misses;
+		return requests == 0 ? 1.0 : (double) hits / requests;
+	}
+
+	public CacheStatistics plus(CacheStatistics other) {
+		return new CacheStatistics( //
+				hits + other.hits, //
+				misses + other.misses, //
+				evictions + other.evictions, //
+				rejections + other.rejections, //
+				size + other.size);
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStatistics[hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + ", rejections=" + rejections + ", size=" + size
+				+ "]";
+	}
+
+}
@@ -25,7 +25,6 @@ import com.braintribe.model.processing.meta.cmd.context.SelectorContext;
 import com.braintribe.model.processing.meta.cmd.context.SelectorContextAspect;
 import com.braintribe.model.processing.meta.cmd.context.scope.CmdScope;
 import com.braintribe.model.processing.meta.cmd.context.scope.ScopeUtils;
-import com.braintribe.model.processing.meta.cmd.tools.CmdGwtUtils;
 import com.braintribe.model.processing.meta.oracle.QualifiedMetaData;
 
 /**
@@ -130,7 +129,7 @@ abstract class AbstractMetaDataDescriptor<T> {
 	}
 
 	private class ScopedMdIndex {
-		protected Map<Object, T> index = newWeakCacheMap();
+		protected Map<Object, T> index = resolutionContext.newSessionCache();
 
 		public T acquireIndexedValue(Object scopedValue, SelectorContext selectorContext) {
 			T value = index.get(scopedValue);
@@ -141,11 +140,6 @@ abstract class AbstractMetaDataDescriptor<T> {
 
 			return value;
 		}
-
-		private <K, V> Map<K, V> newWeakCacheMap() {
-			return CmdGwtUtils.newWeakCacheMap(resolutionContext.getMaxSessionCacheSize());
-		}
-
 	}
 
 	protected abstract T ignoreSelectorsValue();
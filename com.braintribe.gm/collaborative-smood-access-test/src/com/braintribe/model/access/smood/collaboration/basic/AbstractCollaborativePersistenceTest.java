@@ -11,6 +11,7 @@
 // ============================================================================
 package com.braintribe.model.access.smood.collaboration.basic;
 
+import static com.braintribe.model.access.smood.collaboration.tools.CollaborativePersistenceRequestBuilder.compactCollaborativePersistence;
 import static com.braintribe.model.access.smood.collaboration.tools.CollaborativePersistenceRequestBuilder.getInitializersRequest;
 import static com.braintribe.model.access.smood.collaboration.tools.CollaborativePersistenceRequestBuilder.getStageStatsRequest;
 import static com.braintribe.model.access.smood.collaboration.tools.CollaborativePersistenceRequestBuilder.mergeStageRequest;
@@ -83,6 +84,7 @@ public abstract class AbstractCollaborativePersistenceTest {
 				.baseFolder(baseFolder) //
 				.cortex(useCortexSetup()) //
 				.mergeModelAndData(mergeModelAndData()) //
+				.snapshots(useSnapshots()).snapshotKey(snapshotKey()) //
 				.configurationSupplier(this::prepareNewConfiguration) //
 				.staticInitializers(preInitializers()).staticPostInitializers(postInitializers()) //
 				.errorHandler(errorHandler()).model(model()) //
@@ -136,6 +138,14 @@ public abstract class AbstractCollaborativePersistenceTest {
 		return false;
 	}
 
+	protected boolean useSnapshots() {
+		return false;
+	}
+
+	protected String snapshotKey() {
+		return null;
+	}
+
 	@After
 	public void cleanup() {
 		csaUnit.cleanup();
@@ -169,6 +179,10 @@ public abstract class AbstractCollaborativePersistenceTest {
 		eval(resetCollaborativePersistence());
 	}
 
+	protected void compactPersistence() {
+		eval(compactCollaborativePersistence());
+	}
+
 	protected <T> T eval(CollaborativePersistenceRequest request) {
 		return csaUnit.eval(request);
 	}
@@ -28,6 +28,7 @@ import com.braintribe.codec.marshaller.json.JsonStreamMarshaller;
 import com.braintribe.exception.Exceptions;
 import com.braintribe.model.access.collaboration.CollaborativeAccessManager;
 import com.braintribe.model.access.collaboration.CollaborativeSmoodAccess;
+import com.braintribe.model.access.collaboration.CsaSnapshotPersistence;
 import com.braintribe.model.access.collaboration.CsaStatePersistence;
 import com.braintribe.model.access.collaboration.CsaStatePersistenceImpl;
 import com.braintribe.model.access.collaboration.persistence.AbstractManipulationPersistence;
@@ -95,6 +96,8 @@ public abstract class AbstractCsaBuilder<//
 
 	protected boolean cortex;
 	protected boolean mergeModelAndData;
+	protected boolean snapshots;
+	protected String snapshotKey;
 
 	protected GmMetaModel model;
 	protected String selfModelName;
@@ -169,6 +172,16 @@ public abstract class AbstractCsaBuilder<//
 		return self;
 	}
 
+	public B snapshots(boolean snapshots) {
+		this.snapshots = snapshots;
+		return self;
+	}
+
+	public B snapshotKey(String snapshotKey) {
+		this.snapshotKey = snapshotKey;
+		return self;
+	}
+
 	public B skipPostConstruct(boolean skipPostConstruct) {
 		this.skipPostConstruct = skipPostConstruct;
 		return self;
@@ -208,6 +221,8 @@ public abstract class AbstractCsaBuilder<//
 		csa.setSelfModelName(selfModelName);
 		csa.setModelAccessory(modelAccessory);
 		csa.setCollaborativeRequestProcessor(collaborativeAccessManager());
+		if (snapshots)
+			csa.setSnapshotPersistence(snapshotPersistence());
 
 		deployedUnit = newUnit();
 		deployedUnit.baseFolder = baseFolder;
@@ -243,6 +258,15 @@ public abstract class AbstractCsaBuilder<//
 		return accessId != null ? accessId : baseFolder.getName();
 	}
 
+	private CsaSnapshotPersistence snapshotPersistence() {
+		CsaSnapshotPersistence bean = new CsaSnapshotPersistence();
+		bean.setSnapshotFile(new File(baseFolder, "snapshot.bin"));
+		if (snapshotKey != null)
+			bean.setSnapshotKey(snapshotKey);
+
+		return bean;
+	}
+
 	private CsaStatePersistence csaStatePersistence() {
 		CsaStatePersistenceImpl result = new CsaStatePersistenceImpl();
 		result.setPathValueStore(fileBasedKeyValueStore());
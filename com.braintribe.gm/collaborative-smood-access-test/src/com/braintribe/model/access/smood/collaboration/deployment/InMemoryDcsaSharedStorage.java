@@ -24,6 +24,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -51,9 +52,12 @@ public class InMemoryDcsaSharedStorage implements DcsaSharedStorage {
 
 	private final Map<String, Lock> accessToLock = new ConcurrentHashMap<>();
 	private final Map<String, List<CsaOperation>> accessToOperations = newMap();
+	private final Map<String, List<Runnable>> accessToListeners = new ConcurrentHashMap<>();
 	private final Lock readLock;
 	private final Lock writeLock;
 
+	private volatile boolean notifying;
+
 	public static boolean TMP_ENABLE_LAZY_LOADING = true;
 
 	public InMemoryDcsaSharedStorage() {
@@ -68,16 +72,46 @@ public class InMemoryDcsaSharedStorage implements DcsaSharedStorage {
 		return accessToLock.computeIfAbsent(accessId, a -> new ReentrantLock());
 	}
 
+	/**
+	 * Makes this storage support {@link #addOperationsListener(String, Runnable) notifications}, which are then delivered synchronously. Turning
+	 * this off later means the notifications are lost for listeners registered before.
+	 */
+	public void setNotifying(boolean notifying) {
+		this.notifying = notifying;
+	}
+
+	@Override
+	public boolean addOperationsListener(String accessId, Runnable listener) {
+		if (!notifying)
+			return false;
+
+		accessToListeners.computeIfAbsent(accessId, k -> new CopyOnWriteArrayList<>()).add(listener);
+		return true;
+	}
+
+	@Override
+	public void removeOperationsListener(String accessId, Runnable listener) {
+		List<Runnable> listeners = accessToListeners.get(accessId);
+		if (listeners != null)
+			listeners.remove(listener);
+	}
+
 	@Override
 	public String storeOperation(String accessId, CsaOperation csaOperation) {
-		writeLock.lock();
+		String result;
 
+		writeLock.lock();
 		try {
-			return w_storeOperation(accessId, csaOperation);
+			result = w_storeOperation(accessId, csaOperation);
 
 		} finally {
 			writeLock.unlock();
 		}
+
+		if (notifying)
+			accessToListeners.getOrDefault(accessId, newList()).forEach(Runnable::run);
+
+		return result;
 	}
 
 	private String w_storeOperation(String accessId, CsaOperation csaOperation) {
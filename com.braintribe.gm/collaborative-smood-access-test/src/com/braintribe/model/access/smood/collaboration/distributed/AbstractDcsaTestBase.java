@@ -35,7 +35,11 @@ import com.braintribe.testing.tools.TestTools;
  */
 public class AbstractDcsaTestBase {
 
-	private final DcsaSharedStorage sharedStorage = new InMemoryDcsaSharedStorage();
+	protected final DcsaSharedStorage sharedStorage = newSharedStorage();
+
+	protected DcsaSharedStorage newSharedStorage() {
+		return new InMemoryDcsaSharedStorage();
+	}
 
 	protected DcsaDeployedUnit deployDcsa(String accessId, int id) {
 		return deployDcsa(accessId, baseFolder("" + id));
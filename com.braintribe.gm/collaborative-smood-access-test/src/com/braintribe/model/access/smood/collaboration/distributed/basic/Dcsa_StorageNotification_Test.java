@@ -0,0 +1,135 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.access.smood.collaboration.distributed.basic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.braintribe.model.access.collaboration.distributed.DcsaUpdateStatistics;
+import com.braintribe.model.access.collaboration.distributed.api.DcsaSharedStorage;
+import com.braintribe.model.access.smood.collaboration.deployment.DcsaDeployedUnit;
+import com.braintribe.model.access.smood.collaboration.deployment.InMemoryDcsaSharedStorage;
+import com.braintribe.model.access.smood.collaboration.distributed.AbstractDcsaTestBase;
+import com.braintribe.model.access.smood.collaboration.distributed.model.DcsaEntity;
+import com.braintribe.model.processing.query.fluent.EntityQueryBuilder;
+import com.braintribe.model.processing.session.api.persistence.PersistenceGmSession;
+
+/**
+ * Tests that with a shared storage which notifies about new operations, the storage is only checked when such notification arrives.
+ */
+public class Dcsa_StorageNotification_Test extends AbstractDcsaTestBase {
+
+	private DcsaDeployedUnit dcsaUnit1;
+	private DcsaDeployedUnit dcsaUnit2;
+
+	private PersistenceGmSession session1;
+	private PersistenceGmSession session2;
+
+	@Override
+	protected DcsaSharedStorage newSharedStorage() {
+		InMemoryDcsaSharedStorage result = new InMemoryDcsaSharedStorage();
+		result.setNotifying(true);
+		return result;
+	}
+
+	@Before
+	public void setup() {
+		dcsaUnit1 = deployDcsa("access.dcsa", 1);
+		session1 = dcsaUnit1.session;
+
+		dcsaUnit2 = deployDcsa("access.dcsa", 2);
+		session2 = dcsaUnit2.session;
+	}
+
+	@After
+	public void cleanup() {
+		cleanup(dcsaUnit1);
+		cleanup(dcsaUnit2);
+	}
+
+	@Test
+	public void checksStorageOnlyWhenNotified() throws Exception {
+		queryAllEntities(session2);
+		long storageReads = stats(dcsaUnit2).getStorageReads();
+
+		queryAllEntities(session2);
+		queryAllEntities(session2);
+
+		assertThat(stats(dcsaUnit2).getStorageReads()).isEqualTo(storageReads);
+		assertThat(stats(dcsaUnit2).getSkippedUpdateChecks()).isGreaterThanOrEqualTo(2);
+
+		DcsaEntity dcsaEntity1 = createEntity("DCSA");
+
+		assertThat(stats(dcsaUnit2).getStorageNotifications()).isGreaterThan(0);
+
+		DcsaEntity dcsaEntity2 = session2.findEntityByGlobalId(dcsaEntity1.getGlobalId());
+		assertThat(dcsaEntity2).isNotNull();
+		assertThat(dcsaEntity2.getName()).isEqualTo("DCSA");
+
+		DcsaUpdateStatistics stats = stats(dcsaUnit2);
+		assertThat(stats.getStorageReads()).isGreaterThan(storageReads);
+		assertThat(stats.getUpdates()).isGreaterThan(0);
+		assertThat(stats.getOperations()).containsKey("CsaAppendDataManipulation");
+	}
+
+	@Test
+	public void checksStorageAfterMaxIntervalIfNotificationLost() throws Exception {
+		queryAllEntities(session2);
+
+		((InMemoryDcsaSharedStorage) sharedStorage).setNotifying(false);
+		DcsaEntity dcsaEntity1 = createEntity("DCSA");
+
+		// notification was lost, so the entity is not visible yet
+		assertThat(session2.findEntityByGlobalId(dcsaEntity1.getGlobalId())).isNull();
+
+		dcsaUnit2.csa.setMaxUpdateCheckIntervalMs(0);
+
+		assertThat(session2.findEntityByGlobalId(dcsaEntity1.getGlobalId())).isNotNull();
+	}
+
+	@Test
+	public void writeIsDoneOnUpToDateStateEvenWithoutNotification() throws Exception {
+		queryAllEntities(session2);
+
+		((InMemoryDcsaSharedStorage) sharedStorage).setNotifying(false);
+		createEntity("DCSA1");
+
+		// the write must see the entity created by unit1, even though unit2 was not notified
+		DcsaEntity dcsaEntity2 = session2.create(DcsaEntity.T);
+		dcsaEntity2.setName("DCSA2");
+		session2.commit();
+
+		assertThat(queryAllEntities(dcsaUnit2.newSession())).hasSize(2);
+	}
+
+	private DcsaEntity createEntity(String name) {
+		DcsaEntity result = session1.create(DcsaEntity.T);
+		result.setName(name);
+		session1.commit();
+
+		return result;
+	}
+
+	private List<DcsaEntity> queryAllEntities(PersistenceGmSession session) {
+		return session.query().entities(EntityQueryBuilder.from(DcsaEntity.T).done()).list();
+	}
+
+	private DcsaUpdateStatistics stats(DcsaDeployedUnit dcsaUnit) {
+		return dcsaUnit.csa.getUpdateStatistics();
+	}
+
+}
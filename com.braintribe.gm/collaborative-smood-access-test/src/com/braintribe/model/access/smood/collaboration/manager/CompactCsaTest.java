@@ -0,0 +1,227 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.access.smood.collaboration.manager;
+
+import static com.braintribe.utils.lcd.CollectionTools2.asList;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.braintribe.model.access.collaboration.CsaSnapshotPersistence;
+import com.braintribe.model.access.smood.collaboration.manager.model.StagedEntity;
+import com.braintribe.model.processing.session.api.collaboration.CollaborativeAccess;
+import com.braintribe.model.processing.session.api.collaboration.ManipulationPersistenceException;
+import com.braintribe.model.processing.session.api.collaboration.PersistenceInitializationContext;
+import com.braintribe.model.processing.session.api.collaboration.PersistenceInitializer;
+import com.braintribe.model.processing.session.api.collaboration.SimplePersistenceInitializer;
+import com.braintribe.testing.junit.assertions.assertj.core.api.Assertions;
+
+/**
+ * @see CollaborativeAccess#compact()
+ * @see CsaSnapshotPersistence
+ */
+public class CompactCsaTest extends AbstractCollaborativeAccessManagerTest {
+
+	private static final String newStageName = "newStage";
+	private static final String staticEntityGlobalId = "static.StagedEntity";
+
+	private static int staticInitializerRuns;
+
+	// our static initializer is not loaded from a jar, so snapshots are only used with a snapshot key
+	private String snapshotKey = "test";
+
+	@Override
+	protected boolean useSnapshots() {
+		return true;
+	}
+
+	@Override
+	protected String snapshotKey() {
+		return snapshotKey;
+	}
+
+	@Override
+	protected List<PersistenceInitializer> preInitializers() {
+		return asList(new CountingStaticInitializer());
+	}
+
+	@Test
+	public void startsFromSnapshotAndAppliesAppendedGmml() {
+		createEntity("e1", "one");
+		session.commit();
+
+		redeployAndExpectStaticInitializerRuns(0);
+
+		assertEntity("e1", "one", trunkStageName);
+		assertEntity(staticEntityGlobalId, "static", CountingStaticInitializer.class.getName());
+	}
+
+	@Test
+	public void compactedStateSurvivesRedeploy() {
+		StagedEntity e1 = createEntity("e1", "one");
+		StagedEntity e2 = createEntity("e2", "two");
+		session.commit();
+
+		pushNewStage(newStageName);
+
+		StagedEntity e3 = createEntity("e3", "three");
+		e3.setEntity(e1);
+		e1.setName("one-changed");
+		session.deleteEntity(e2);
+		session.commit();
+
+		csa.compact();
+
+		StagedEntity e4 = createEntity("e4", "four");
+		e4.setEntity(e3);
+		session.commit();
+
+		redeployAndExpectStaticInitializerRuns(0);
+
+		assertEntity("e1", "one-changed", trunkStageName);
+		assertEntity("e3", "three", newStageName);
+		assertEntity("e4", "four", newStageName);
+		Assertions.assertThat((Object) session.findEntityByGlobalId("e2")).isNull();
+
+		StagedEntity loadedE4 = session.findEntityByGlobalId("e4");
+		Assertions.assertThat(loadedE4.getEntity().getEntity().getGlobalId()).isEqualTo("e1");
+
+		GetStageStatsCsaTest.assertStats(getStageStats(newStageName), 2, 7, 1);
+
+		// the variables of the snapshot are still usable for further appends
+		StagedEntity loadedE3 = session.findEntityByGlobalId("e3");
+		loadedE3.setName("three-changed");
+		session.commit();
+
+		redeployAndExpectStaticInitializerRuns(0);
+
+		assertEntity("e3", "three-changed", newStageName);
+	}
+
+	@Test
+	public void compactFoldsGmml() {
+		StagedEntity e1 = createEntity("e1", "one");
+		session.commit();
+
+		for (int i = 0; i < 10; i++) {
+			e1.setName("one-" + i);
+			session.commit();
+		}
+
+		StagedEntity e2 = createEntity("e2", "two");
+		session.commit();
+		session.deleteEntity(e2);
+		session.commit();
+
+		File trunkDataFile = csaUnit.stageManFile(trunkStageName);
+		long originalLength = trunkDataFile.length();
+
+		compactPersistence();
+
+		Assertions.assertThat(trunkDataFile.length()).isLessThan(originalLength);
+		Assertions.assertThat(getTrunkFileContent(false)).doesNotContain("'e2'").doesNotContain("one-0").contains("one-9");
+
+		// further appends use the variables of the folded file
+		e1.setName("one-changed");
+		createEntity("e3", "three").setEntity(e1);
+		session.commit();
+
+		// the snapshot is ignored, i.e. the folded GMML is replayed
+		snapshotKey = "test-changed";
+		redeployAndExpectStaticInitializerRuns(1);
+
+		assertEntity("e1", "one-changed", trunkStageName);
+		assertEntity("e3", "three", trunkStageName);
+		Assertions.assertThat((Object) session.findEntityByGlobalId("e2")).isNull();
+
+		StagedEntity loadedE3 = session.findEntityByGlobalId("e3");
+		Assertions.assertThat(loadedE3.getEntity().getGlobalId()).isEqualTo("e1");
+	}
+
+	@Test
+	public void ignoresSnapshotIfStageWasRewritten() {
+		createEntity("e1", "one");
+		session.commit();
+
+		pushNewStage(newStageName);
+		csa.compact();
+
+		mergeStage(trunkStageName, newStageName);
+
+		redeployAndExpectStaticInitializerRuns(1);
+
+		assertEntity("e1", "one", newStageName);
+	}
+
+	@Test
+	public void ignoresSnapshotIfSnapshotKeyChanged() {
+		createEntity("e1", "one");
+		session.commit();
+
+		snapshotKey = "test-changed";
+		redeployAndExpectStaticInitializerRuns(1);
+
+		assertEntity("e1", "one", trunkStageName);
+
+		redeployAndExpectStaticInitializerRuns(0);
+	}
+
+	@Test
+	public void ignoresSnapshotWithoutKeyIfInitializerVersionIsUnknown() {
+		snapshotKey = null;
+		redeploy();
+
+		createEntity("e1", "one");
+		session.commit();
+		csa.compact();
+
+		redeployAndExpectStaticInitializerRuns(1);
+
+		assertEntity("e1", "one", trunkStageName);
+	}
+
+	private StagedEntity createEntity(String globalId, String name) {
+		StagedEntity result = session.create(StagedEntity.T);
+		result.setGlobalId(globalId);
+		result.setName(name);
+
+		return result;
+	}
+
+	private void redeployAndExpectStaticInitializerRuns(int expectedRuns) {
+		staticInitializerRuns = 0;
+		redeploy();
+
+		Assertions.assertThat(staticInitializerRuns).isEqualTo(expectedRuns);
+	}
+
+	private void assertEntity(String globalId, String name, String stageName) {
+		StagedEntity entity = session.findEntityByGlobalId(globalId);
+		Assertions.assertThat(entity).isNotNull();
+		Assertions.assertThat(entity.getName()).isEqualTo(name);
+
+		assertEntityStage(entity, stageName);
+	}
+
+	private static class CountingStaticInitializer extends SimplePersistenceInitializer {
+		@Override
+		public void initializeData(PersistenceInitializationContext context) throws ManipulationPersistenceException {
+			staticInitializerRuns++;
+
+			StagedEntity entity = context.getSession().create(StagedEntity.T, staticEntityGlobalId);
+			entity.setName("static");
+		}
+	}
+
+}
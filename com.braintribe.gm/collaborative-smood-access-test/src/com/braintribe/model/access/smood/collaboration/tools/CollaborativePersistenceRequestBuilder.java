@@ -11,6 +11,7 @@
 // ============================================================================
 package com.braintribe.model.access.smood.collaboration.tools;
 
+import com.braintribe.model.cortexapi.access.collaboration.CompactCollaborativePersistence;
 import com.braintribe.model.cortexapi.access.collaboration.GetCollaborativeInitializers;
 import com.braintribe.model.cortexapi.access.collaboration.GetCollaborativeStageStats;
 import com.braintribe.model.cortexapi.access.collaboration.MergeCollaborativeStage;
@@ -50,6 +51,10 @@ public class CollaborativePersistenceRequestBuilder {
 		return ResetCollaborativePersistence.T.create();
 	}
 
+	public static CompactCollaborativePersistence compactCollaborativePersistence() {
+		return CompactCollaborativePersistence.T.create();
+	}
+
 	public static GetCollaborativeStageStats getStageStatsRequest(String name) {
 		GetCollaborativeStageStats result = GetCollaborativeStageStats.T.create();
 		result.setName(name);
@@ -36,6 +36,7 @@ import com.braintribe.model.access.IncrementalAccess;
 import com.braintribe.model.cortexapi.access.collaboration.CollaborativePersistenceRequest;
 import com.braintribe.model.cortexapi.access.collaboration.CollaborativeStageData;
 import com.braintribe.model.cortexapi.access.collaboration.CollaborativeStageStats;
+import com.braintribe.model.cortexapi.access.collaboration.CompactCollaborativePersistence;
 import com.braintribe.model.cortexapi.access.collaboration.GetCollaborativeStageData;
 import com.braintribe.model.cortexapi.access.collaboration.GetCollaborativeStageStats;
 import com.braintribe.model.cortexapi.access.collaboration.GetModifiedModelsForStage;
@@ -129,6 +130,16 @@ public class CollaborativeAccessManager implements ServiceProcessor<Collaborativ
 		return configuration;
 	}
 
+	/**
+	 * Folds the GMML of each stage into its normalized form and the current state of all the stages into a fresh snapshot, so that the next startup
+	 * only replays what is persisted afterwards. Also available as {@link CompactCollaborativePersistence} request.
+	 * 
+	 * @see CollaborativeAccess#compact()
+	 */
+	public void compact() {
+		access.compact();
+	}
+
 	// #############################################################
 	// ## . . . . . . ServiceProcessor implementation . . . . . . ##
 	// #############################################################
@@ -152,6 +163,8 @@ public class CollaborativeAccessManager implements ServiceProcessor<Collaborativ
 				return renameStage((RenameCollaborativeStage) request);
 			case Reset:
 				return reset();
+			case Compact:
+				return compactPersistence();
 			case MergeStage:
 				return mergeStage((MergeCollaborativeStage) request);
 			case MergeStageToPredecessor:
@@ -463,6 +476,12 @@ public class CollaborativeAccessManager implements ServiceProcessor<Collaborativ
 		access.reset();
 	}
 
+	private Boolean compactPersistence() {
+		compact();
+
+		return Boolean.TRUE;
+	}
+
 	private Object mergeStage(MergeCollaborativeStage request) {
 		return mergeStage(request.getSource(), request.getTarget());
 	}
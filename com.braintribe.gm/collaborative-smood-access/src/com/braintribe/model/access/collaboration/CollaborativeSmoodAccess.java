@@ -13,17 +13,21 @@ package com.braintribe.model.access.collaboration;
 
 import static com.braintribe.model.generic.manipulation.util.ManipulationBuilder.compound;
 import static com.braintribe.model.processing.manipulation.basic.tools.ManipulationTools.asManipulation;
+import static com.braintribe.utils.lcd.CollectionTools2.asList;
 import static com.braintribe.utils.lcd.CollectionTools2.isEmpty;
+import static com.braintribe.utils.lcd.CollectionTools2.newLinkedMap;
 import static com.braintribe.utils.lcd.CollectionTools2.newList;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.braintribe.cfg.Configurable;
@@ -33,6 +37,8 @@ import com.braintribe.common.lcd.EmptyReadWriteLock;
 import com.braintribe.exception.Exceptions;
 import com.braintribe.logging.Logger;
 import com.braintribe.model.access.ModelAccessException;
+import com.braintribe.model.access.collaboration.persistence.AbstractGmmlManipulationPersistence;
+import com.braintribe.model.access.collaboration.persistence.AbstractManipulationPersistence;
 import com.braintribe.model.access.smood.basic.AbstractSmoodAccess;
 import com.braintribe.model.accessapi.ManipulationRequest;
 import com.braintribe.model.accessapi.ManipulationResponse;
@@ -90,6 +96,8 @@ public class CollaborativeSmoodAccess extends AbstractSmoodAccess implements Col
 
 	private Map<String, Object> initializerAttributes;
 
+	private CsaSnapshotPersistence snapshotPersistence;
+
 	@Required
 	public void setManipulationPersistence(CollaborativeManipulationPersistence manipulationPersistence) {
 		this.manipulationPersistence = manipulationPersistence;
@@ -117,6 +125,18 @@ public class CollaborativeSmoodAccess extends AbstractSmoodAccess implements Col
 		this.initializerAttributes = initializerAttributes;
 	}
 
+	/**
+	 * Enables snapshots of the state of this access, which make the startup only replay the GMML persisted after the snapshot was written. Only
+	 * supported with an {@link AbstractManipulationPersistence}.
+	 * 
+	 * @see CsaSnapshotPersistence
+	 * @see #compact()
+	 */
+	@Configurable
+	public void setSnapshotPersistence(CsaSnapshotPersistence snapshotPersistence) {
+		this.snapshotPersistence = snapshotPersistence;
+	}
+
 	/** @see com.braintribe.model.access.IncrementalAccess#getMetaModel() */
 	@Override
 	public GmMetaModel getMetaModel() {
@@ -262,6 +282,9 @@ public class CollaborativeSmoodAccess extends AbstractSmoodAccess implements Col
 		initData_WithTimer(smood);
 		appender = manipulationPersistence.getPersistenceAppender();
 		smood.setLock(readWriteLock);
+		smood.setUseSnapshotReads(snapshotReads);
+		smood.setQueryPlanCacheSize(queryPlanCacheSize);
+		smood.setQueryEvaluationBatchSize(queryEvaluationBatchSize);
 
 		database = smood;
 
@@ -285,6 +308,17 @@ public class CollaborativeSmoodAccess extends AbstractSmoodAccess implements Col
 	}
 
 	private void initData(Smood smood) {
+		String snapshotFingerprint = snapshotFingerprint();
+		if (snapshotFingerprint != null && initDataFromSnapshot(smood, snapshotFingerprint))
+			return;
+
+		initDataFromInitializers(smood);
+
+		if (snapshotFingerprint != null)
+			writeSnapshotSafe(smood, snapshotFingerprint);
+	}
+
+	private void initDataFromInitializers(Smood smood) {
 		SmoodInitializationContextImpl context = new SmoodInitializationContextImpl(session, stageRegistry, getAccessId());
 		context.setAttributes(initializerAttributes);
 
@@ -297,6 +331,10 @@ public class CollaborativeSmoodAccess extends AbstractSmoodAccess implements Col
 
 		context.close();
 
+		onDataInitialized(smood);
+	}
+
+	private void onDataInitialized(Smood smood) {
 		currentStage = manipulationPersistence.getPersistenceStage();
 
 		stageRegistry.indexStages(manipulationPersistence.getPersistenceStages());
@@ -319,6 +357,157 @@ public class CollaborativeSmoodAccess extends AbstractSmoodAccess implements Col
 		}
 	}
 
+	// ####################################################
+	// ## . . . . . . . . . . Snapshots . . . . . . . . . ##
+	// ####################################################
+
+	/**
+	 * Folds the GMML files of each stage into their normalized form (see {@link AbstractGmmlManipulationPersistence#fold()}) and then writes a fresh
+	 * snapshot of the current state, so that the next startup only replays the GMML persisted after this call, no matter how long the history of the
+	 * stages is. The snapshot is only written if a {@link #setSnapshotPersistence(CsaSnapshotPersistence) snapshot persistence} is configured.
+	 * <p>
+	 * The GMML files are folded while holding the write lock. The state is then serialized into memory while holding the read lock, i.e. reads
+	 * continue, but writes wait until the serialization is done. The snapshot file is written only after the lock was released.
+	 */
+	@Override
+	public void compact() {
+		withLock(writeLock, this::w_foldGmmlStages);
+
+		String fingerprint = snapshotFingerprint();
+		if (fingerprint != null)
+			writeSnapshot(database, fingerprint);
+	}
+
+	private Object w_foldGmmlStages() {
+		if (manipulationPersistence instanceof AbstractManipulationPersistence)
+			((AbstractManipulationPersistence<?>) manipulationPersistence).foldGmmlStages();
+
+		return null;
+	}
+
+	/**
+	 * Returns the fingerprint a snapshot is read and written with (see {@link AbstractManipulationPersistence#snapshotFingerprint()}), or
+	 * <tt>null</tt> if snapshots are not configured or cannot be used.
+	 */
+	private String snapshotFingerprint() {
+		AbstractManipulationPersistence<?> persistence = snapshotCapablePersistence();
+		if (persistence == null)
+			return null;
+
+		String fingerprint = persistence.snapshotFingerprint();
+		if (fingerprint == null) {
+			log.warn("CSA snapshots of access [" + getAccessId() + "] are not used, as the names of the initializers are not unique.");
+			return null;
+		}
+
+		if (!snapshotPersistence.hasSnapshotKey()) {
+			List<String> unversionedInitializers = persistence.getUnversionedInitializerNames();
+			if (!unversionedInitializers.isEmpty()) {
+				log.warn("CSA snapshots of access [" + getAccessId() + "] are not used, as the version of these initializers cannot be determined: "
+						+ unversionedInitializers + ". Configure a snapshot key which changes whenever they might produce a different result.");
+				return null;
+			}
+		}
+
+		return fingerprint;
+	}
+
+	private boolean initDataFromSnapshot(Smood smood, String fingerprint) {
+		AbstractManipulationPersistence<?> persistence = snapshotCapablePersistence();
+
+		CsaSnapshot snapshot = snapshotPersistence.read(fingerprint);
+		if (snapshot == null)
+			return false;
+
+		if (!persistence.canResumeFrom(snapshot.gmmlStages)) {
+			log.info("Ignoring CSA snapshot of access [" + getAccessId() + "], as some GMML stage was modified other than by appending.");
+			return false;
+		}
+
+		configureMetaModelIfGivenExplicitly(smood);
+		smood.initializePopulation(snapshot.entities, false);
+
+		restoreStageRegistry(persistence, snapshot);
+
+		SmoodInitializationContextImpl context = new SmoodInitializationContextImpl(session, stageRegistry, getAccessId());
+		context.setAttributes(initializerAttributes);
+
+		persistence.initializeFromSnapshot(context, snapshot.gmmlStages);
+
+		context.close();
+
+		onDataInitialized(smood);
+
+		log.debug(() -> "Access [" + getAccessId() + "] was initialized from snapshot: " + snapshotPersistence.getSnapshotFile().getAbsolutePath());
+
+		return true;
+	}
+
+	private void restoreStageRegistry(AbstractManipulationPersistence<?> persistence, CsaSnapshot snapshot) {
+		Map<String, PersistenceStage> stagesByName = persistence.getAllPersistenceStages() //
+				.collect(Collectors.toMap(PersistenceStage::getName, s -> s));
+
+		for (int i = 0; i < snapshot.entities.size(); i++) {
+			PersistenceStage stage = stagesByName.get(snapshot.entityStages.get(i));
+			if (stage != null)
+				stageRegistry.restoreEntityStage(snapshot.entities.get(i), stage);
+		}
+
+		for (Entry<String, List<Integer>> entry : snapshot.stageStats.entrySet()) {
+			PersistenceStage stage = stagesByName.get(entry.getKey());
+			List<Integer> stats = entry.getValue();
+			if (stage != null)
+				stageRegistry.restoreStageStats(stage, stats.get(0), stats.get(1), stats.get(2));
+		}
+	}
+
+	private void writeSnapshotSafe(Smood smood, String fingerprint) {
+		try {
+			writeSnapshot(smood, fingerprint);
+
+		} catch (RuntimeException e) {
+			log.warn("Error while writing CSA snapshot of access [" + getAccessId() + "]. Next startup will replay all the GMML stages.", e);
+		}
+	}
+
+	private void writeSnapshot(Smood smood, String fingerprint) {
+		StopWatch sw = new StopWatch();
+
+		byte[] serializedSnapshot = withLock(readLock, () -> r_serializeSnapshot(smood, fingerprint));
+		long serializationTime = sw.getElapsedTime();
+
+		snapshotPersistence.write(serializedSnapshot);
+
+		log.debug(() -> "Snapshot of access [" + getAccessId() + "] with " + serializedSnapshot.length + " bytes was written in "
+				+ sw.getElapsedTime() + "ms, writes were blocked for " + serializationTime + "ms.");
+	}
+
+	private byte[] r_serializeSnapshot(Smood smood, String fingerprint) {
+		AbstractManipulationPersistence<?> persistence = snapshotCapablePersistence();
+
+		CsaSnapshot snapshot = new CsaSnapshot();
+		snapshot.entities = newList(smood.getAllEntities());
+		snapshot.entityStages = snapshot.entities.stream() //
+				.map(stageRegistry::findStage) //
+				.map(stage -> stage == null ? null : stage.getName()) //
+				.collect(Collectors.toList());
+		snapshot.stageStats = newLinkedMap();
+		for (Entry<PersistenceStage, ? extends StageStats> entry : stageRegistry.getStageToStats().entrySet()) {
+			StageStats stats = entry.getValue();
+			snapshot.stageStats.put(entry.getKey().getName(), asList(stats.getInstantiations(), stats.getUpdates(), stats.getDeletes()));
+		}
+		snapshot.gmmlStages = persistence.snapshotGmmlStages();
+
+		return snapshotPersistence.serialize(fingerprint, snapshot);
+	}
+
+	private AbstractManipulationPersistence<?> snapshotCapablePersistence() {
+		if (snapshotPersistence == null || !(manipulationPersistence instanceof AbstractManipulationPersistence))
+			return null;
+
+		return (AbstractManipulationPersistence<?>) manipulationPersistence;
+	}
+
 	// ####################################################
 	// ## . . . . . . . Apply Manipulation . . . . . . . ##
 	// ####################################################
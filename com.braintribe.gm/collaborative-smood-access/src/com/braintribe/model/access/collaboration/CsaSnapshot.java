@@ -0,0 +1,36 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.access.collaboration;
+
+import java.util.List;
+import java.util.Map;
+
+import com.braintribe.model.access.collaboration.persistence.GmmlFileSnapshot;
+import com.braintribe.model.generic.GenericEntity;
+
+/**
+ * Content of a snapshot of a {@link CollaborativeSmoodAccess}, see {@link CsaSnapshotPersistence}.
+ */
+/* package */ class CsaSnapshot {
+
+	public List<GenericEntity> entities;
+
+	/** Name of the stage each entity (on the same position) was created in, <tt>null</tt> if unknown. */
+	public List<String> entityStages;
+
+	/** Instantiations, updates and deletes for each stage. */
+	public Map<String, List<Integer>> stageStats;
+
+	/** State of the files of each GMML stage. */
+	public Map<String, List<GmmlFileSnapshot>> gmmlStages;
+
+}
@@ -0,0 +1,286 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.access.collaboration;
+
+import static com.braintribe.utils.lcd.CollectionTools2.newLinkedMap;
+import static com.braintribe.utils.lcd.CollectionTools2.newList;
+import static com.braintribe.utils.lcd.CollectionTools2.newMap;
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.braintribe.cfg.Configurable;
+import com.braintribe.cfg.Required;
+import com.braintribe.logging.Logger;
+import com.braintribe.model.access.collaboration.persistence.GmmlFileSnapshot;
+import com.braintribe.model.generic.GMF;
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.generic.reflection.GenericModelType;
+import com.braintribe.model.generic.value.EntityReference;
+import com.braintribe.model.processing.dataio.GmInputStream;
+import com.braintribe.model.processing.dataio.GmOutputStream;
+import com.braintribe.model.processing.session.api.collaboration.ManipulationPersistenceException;
+import com.braintribe.utils.FileTools;
+
+/**
+ * Stores a versioned binary snapshot of the state of a {@link CollaborativeSmoodAccess}, so that the access can be started without replaying the
+ * entire history persisted in the GMML stages.
+ * <p>
+ * The snapshot contains all the entities of the smood (in the bin2 format, see {@link GmOutputStream}), the stage each of them was created in, the
+ * stage statistics and the state of each GMML stage file (see {@link GmmlFileSnapshot}). On startup, the access loads the entities and only parses
+ * what was appended to the GMML files after the snapshot was taken. If the snapshot is missing, outdated or cannot be read, the access is
+ * initialized the regular way and a new snapshot is written.
+ * <p>
+ * The GMML files stay the source of truth, a snapshot can always be deleted.
+ * <p>
+ * NOTE that initializers other than GMML stages (static initializers, custom initializers, static post initializers) are not invoked when a snapshot
+ * is used, as their effect is part of it. The snapshot is therefore only used if the sequence of initializers is the same as when it was written,
+ * incl. the version of the artifact each of them comes from, and the {@link #setSnapshotKey(String) snapshot key} matches. If the artifact version
+ * of some such initializer cannot be determined (e.g. its class was not loaded from a jar), snapshots are only used if a non-empty snapshot key is
+ * configured, which then has to be changed whenever any such initializer might produce a different result, e.g. with every new setup of the
+ * platform.
+ */
+public class CsaSnapshotPersistence {
+
+	private static final Logger log = Logger.getLogger(CsaSnapshotPersistence.class);
+
+	private static final int MAGIC = 0x43534153; // "CSAS"
+	private static final int FORMAT_VERSION = 1;
+
+	private static final String ENTITIES = "entities";
+	private static final String ENTITY_STAGES = "entityStages";
+	private static final String STAGE_STATS = "stageStats";
+	private static final String GMML_STAGES = "gmmlStages";
+
+	private static final String FILE_NAME = "fileName";
+	private static final String LENGTH = "length";
+	private static final String TAIL_CHECKSUM = "tailChecksum";
+	private static final String VARIABLES = "variables";
+	private static final String TYPE_VARIABLES = "typeVariables";
+
+	private File snapshotFile;
+	private String snapshotKey = "";
+
+	@Required
+	public void setSnapshotFile(File snapshotFile) {
+		this.snapshotFile = snapshotFile;
+	}
+
+	/** @see CsaSnapshotPersistence */
+	@Configurable
+	public void setSnapshotKey(String snapshotKey) {
+		this.snapshotKey = requireNonNull(snapshotKey);
+	}
+
+	public File getSnapshotFile() {
+		return snapshotFile;
+	}
+
+	/** Returns <tt>true</tt> iff a non-empty {@link #setSnapshotKey(String) snapshot key} is configured. */
+	public boolean hasSnapshotKey() {
+		return !snapshotKey.isEmpty();
+	}
+
+	// ####################################################
+	// ## . . . . . . . . . . . Read . . . . . . . . . . ##
+	// ####################################################
+
+	/** Returns the snapshot iff it exists and was written for given fingerprint and our snapshot key, <tt>null</tt> otherwise. */
+	/* package */ CsaSnapshot read(String fingerprint) {
+		if (!snapshotFile.exists())
+			return null;
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+				log.info("Ignoring CSA snapshot with unsupported format: " + snapshotFile.getAbsolutePath());
+				return null;
+			}
+
+			if (!snapshotKey.equals(readString(in)) || !fingerprint.equals(readString(in))) {
+				log.info("Ignoring outdated CSA snapshot: " + snapshotFile.getAbsolutePath());
+				return null;
+			}
+
+			@SuppressWarnings("resource")
+			GmInputStream gmIn = new GmInputStream(in);
+			return decode((Map<String, Object>) gmIn.readObject());
+
+		} catch (Exception e) {
+			log.warn("Error while reading CSA snapshot: " + snapshotFile.getAbsolutePath() + ". The snapshot will be ignored.", e);
+			return null;
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static CsaSnapshot decode(Map<String, Object> body) {
+		CsaSnapshot result = new CsaSnapshot();
+		result.entities = (List<GenericEntity>) body.get(ENTITIES);
+		result.entityStages = (List<String>) body.get(ENTITY_STAGES);
+		result.stageStats = (Map<String, List<Integer>>) body.get(STAGE_STATS);
+		result.gmmlStages = newLinkedMap();
+
+		Map<String, List<Map<String, Object>>> gmmlStages = (Map<String, List<Map<String, Object>>>) body.get(GMML_STAGES);
+		for (Entry<String, List<Map<String, Object>>> entry : gmmlStages.entrySet()) {
+			List<GmmlFileSnapshot> fileSnapshots = newList();
+			for (Map<String, Object> encodedFileSnapshot : entry.getValue())
+				fileSnapshots.add(decodeFileSnapshot(encodedFileSnapshot));
+
+			result.gmmlStages.put(entry.getKey(), fileSnapshots);
+		}
+
+		return result;
+	}
+
+	private static GmmlFileSnapshot decodeFileSnapshot(Map<String, Object> encoded) {
+		GmmlFileSnapshot result = new GmmlFileSnapshot();
+		result.fileName = (String) encoded.get(FILE_NAME);
+		result.length = (Long) encoded.get(LENGTH);
+		result.tailChecksum = (Long) encoded.get(TAIL_CHECKSUM);
+		result.variables = newMap();
+
+		Map<String, Object> variables = (Map<String, Object>) encoded.get(VARIABLES);
+		for (Entry<String, Object> entry : variables.entrySet())
+			result.variables.put(entry.getValue(), entry.getKey());
+
+		Map<String, String> typeVariables = (Map<String, String>) encoded.get(TYPE_VARIABLES);
+		for (Entry<String, String> entry : typeVariables.entrySet())
+			result.variables.put(GMF.getTypeReflection().getType(entry.getValue()), entry.getKey());
+
+		return result;
+	}
+
+	// ####################################################
+	// ## . . . . . . . . . . . Write . . . . . . . . . .##
+	// ####################################################
+
+	/**
+	 * Serializes given snapshot for given fingerprint into memory. This has to be done while the state of the access cannot change, as the entities
+	 * of the snapshot are the live ones, but unlike {@link #write(byte[])} it involves no I/O.
+	 */
+	/* package */ byte[] serialize(String fingerprint, CsaSnapshot snapshot) {
+		Map<String, Object> body = encode(snapshot);
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(baos)) {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			writeString(out, snapshotKey);
+			writeString(out, fingerprint);
+
+			@SuppressWarnings("resource")
+			GmOutputStream gmOut = new GmOutputStream(out);
+			gmOut.writeObject(body);
+			gmOut.flush();
+
+		} catch (IOException e) {
+			throw new ManipulationPersistenceException("Error while serializing CSA snapshot for: " + snapshotFile.getAbsolutePath(), e);
+		}
+
+		return baos.toByteArray();
+	}
+
+	/**
+	 * Writes given {@link #serialize serialized} snapshot. The snapshot is first written to a temporary file which then replaces the previous
+	 * snapshot, so the snapshot file is never incomplete.
+	 */
+	/* package */ void write(byte[] serializedSnapshot) {
+		File tmpFile = new File(snapshotFile.getParentFile(), snapshotFile.getName() + ".tmp");
+		FileTools.ensureFolderExists(snapshotFile.getAbsoluteFile().getParentFile());
+
+		try (OutputStream out = new FileOutputStream(tmpFile)) {
+			out.write(serializedSnapshot);
+
+		} catch (IOException e) {
+			tmpFile.delete();
+			throw new ManipulationPersistenceException("Error while writing CSA snapshot: " + tmpFile.getAbsolutePath(), e);
+		}
+
+		try {
+			Files.move(tmpFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		} catch (IOException e) {
+			throw new ManipulationPersistenceException("Error while replacing CSA snapshot: " + snapshotFile.getAbsolutePath(), e);
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static Map<String, Object> encode(CsaSnapshot snapshot) {
+		Map<String, List<Map<String, Object>>> gmmlStages = newLinkedMap();
+		for (Entry<String, List<GmmlFileSnapshot>> entry : snapshot.gmmlStages.entrySet()) {
+			List<Map<String, Object>> encodedFileSnapshots = newList();
+			for (GmmlFileSnapshot fileSnapshot : entry.getValue())
+				encodedFileSnapshots.add(encodeFileSnapshot(fileSnapshot));
+
+			gmmlStages.put(entry.getKey(), encodedFileSnapshots);
+		}
+
+		Map<String, Object> result = newMap();
+		result.put(ENTITIES, snapshot.entities);
+		result.put(ENTITY_STAGES, snapshot.entityStages);
+		result.put(STAGE_STATS, snapshot.stageStats);
+		result.put(GMML_STAGES, gmmlStages);
+
+		return result;
+	}
+
+	private static Map<String, Object> encodeFileSnapshot(GmmlFileSnapshot fileSnapshot) {
+		Map<String, Object> variables = newMap();
+		Map<String, String> typeVariables = newMap();
+
+		for (Entry<Object, String> entry : fileSnapshot.variables.entrySet()) {
+			Object value = entry.getKey();
+			String variable = entry.getValue();
+
+			if (value instanceof GenericModelType)
+				typeVariables.put(variable, ((GenericModelType) value).getTypeSignature());
+			else if (value instanceof String || (value instanceof GenericEntity && !(value instanceof EntityReference)))
+				variables.put(variable, value);
+			else
+				throw new IllegalStateException("Cannot write snapshot, unsupported value of GMML variable '" + variable + "' in file '"
+						+ fileSnapshot.fileName + "': " + value);
+		}
+
+		Map<String, Object> result = newMap();
+		result.put(FILE_NAME, fileSnapshot.fileName);
+		result.put(LENGTH, fileSnapshot.length);
+		result.put(TAIL_CHECKSUM, fileSnapshot.tailChecksum);
+		result.put(VARIABLES, variables);
+		result.put(TYPE_VARIABLES, typeVariables);
+
+		return result;
+	}
+
+}
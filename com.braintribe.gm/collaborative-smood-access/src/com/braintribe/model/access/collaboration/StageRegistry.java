@@ -14,6 +14,7 @@ package com.braintribe.model.access.collaboration;
 import static com.braintribe.utils.lcd.CollectionTools2.acquireSet;
 import static com.braintribe.utils.lcd.CollectionTools2.isEmpty;
 import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableMap;
 import static java.util.Collections.unmodifiableSet;
 import static java.util.Objects.requireNonNull;
 
@@ -163,6 +164,29 @@ import com.braintribe.model.smoodstorage.stages.PersistenceStage;
 		return isEmpty(entities) ? emptySet() : unmodifiableSet(entities);
 	}
 
+	// ####################################################
+	// ## . . . . . . . . . . Snapshots . . . . . . . . . ##
+	// ####################################################
+
+	public Map<GenericEntity, PersistenceStage> getEntityToStage() {
+		return unmodifiableMap(entityToStage);
+	}
+
+	public Map<PersistenceStage, ? extends StageStats> getStageToStats() {
+		return unmodifiableMap(stageToStats);
+	}
+
+	public void restoreEntityStage(GenericEntity entity, PersistenceStage stage) {
+		register(entity, stage);
+	}
+
+	public void restoreStageStats(PersistenceStage stage, int instantiations, int updates, int deletes) {
+		StageStatsImpl stats = acquireStats(stage);
+		stats.instantiations = instantiations;
+		stats.updates = updates;
+		stats.deletes = deletes;
+	}
+
 	static class StageStatsImpl implements StageStats {
 
 		private int instantiations;
@@ -0,0 +1,78 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.access.collaboration.distributed;
+
+import static com.braintribe.utils.lcd.CollectionTools2.newList;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Registers the {@link DcsaUpdateStatistics} of a single {@link DistributedCollaborativeSmoodAccess} as Micrometer meters, tagged with the access
+ * id. The meters read the current values directly from the {@link DcsaUpdateMetrics}, so nothing has to be updated periodically.
+ */
+/* package */ class DcsaUpdateMeterBinder implements MeterBinder {
+
+	private static final String PREFIX = "tribefire.dcsa.";
+
+	private final DcsaUpdateMetrics metrics;
+	private final Tags tags;
+	private final List<Meter> meters = newList();
+
+	public DcsaUpdateMeterBinder(String accessId, DcsaUpdateMetrics metrics) {
+		this.metrics = metrics;
+		this.tags = Tags.of("access", accessId);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		timer(registry, "storage.reads", "Checks of the shared storage for new operations", DcsaUpdateMetrics::storageReads,
+				DcsaUpdateMetrics::storageReadTime);
+		timer(registry, "updates", "Local applications of new operations from the shared storage", DcsaUpdateMetrics::updates,
+				DcsaUpdateMetrics::updateTime);
+		counter(registry, "update.checks.skipped", "Skipped checks of the shared storage, as it did not notify about new operations",
+				DcsaUpdateMetrics::skippedUpdateChecks);
+		counter(registry, "storage.notifications", "Notifications about new operations received from the shared storage",
+				DcsaUpdateMetrics::storageNotifications);
+	}
+
+	/** Removes all the meters previously registered via {@link #bindTo(MeterRegistry)} from given registry. */
+	public void unbindFrom(MeterRegistry registry) {
+		meters.forEach(registry::remove);
+		meters.clear();
+	}
+
+	private void timer(MeterRegistry registry, String name, String description, ToLongFunction<DcsaUpdateMetrics> count,
+			ToDoubleFunction<DcsaUpdateMetrics> totalTimeMs) {
+		meters.add(FunctionTimer.builder(PREFIX + name, metrics, count, totalTimeMs, TimeUnit.MILLISECONDS) //
+				.tags(tags) //
+				.description(description) //
+				.register(registry));
+	}
+
+	private void counter(MeterRegistry registry, String name, String description, ToDoubleFunction<DcsaUpdateMetrics> count) {
+		meters.add(FunctionCounter.builder(PREFIX + name, metrics, count) //
+				.tags(tags) //
+				.description(description) //
+				.register(registry));
+	}
+
+}
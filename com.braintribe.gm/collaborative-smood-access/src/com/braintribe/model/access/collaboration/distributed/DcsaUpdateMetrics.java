@@ -0,0 +1,91 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.access.collaboration.distributed;
+
+import static com.braintribe.utils.lcd.CollectionTools2.newTreeMap;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.braintribe.model.access.collaboration.distributed.DcsaUpdateStatistics.OperationStatistics;
+
+/**
+ * Collects the numbers behind {@link DcsaUpdateStatistics}. This class is thread-safe.
+ */
+/* package */ class DcsaUpdateMetrics {
+
+	private final LongAdder storageReads = new LongAdder();
+	private final LongAdder storageReadTime = new LongAdder();
+	private final LongAdder skippedUpdateChecks = new LongAdder();
+	private final LongAdder storageNotifications = new LongAdder();
+	private final LongAdder updates = new LongAdder();
+	private final LongAdder updateTime = new LongAdder();
+	private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+
+	public void onStorageRead(long time) {
+		storageReads.increment();
+		storageReadTime.add(time);
+	}
+
+	public void onUpdateCheckSkipped() {
+		skippedUpdateChecks.increment();
+	}
+
+	public void onStorageNotification() {
+		storageNotifications.increment();
+	}
+
+	public void onUpdate(long time) {
+		updates.increment();
+		updateTime.add(time);
+	}
+
+	public void onOperationApplied(String operationName, long time) {
+		operations.computeIfAbsent(operationName, n -> new OperationMetrics()).onApplied(time);
+	}
+
+	// @formatter:off
+	public long storageReads() { return storageReads.sum(); }
+	public long storageReadTime() { return storageReadTime.sum(); }
+	public long skippedUpdateChecks() { return skippedUpdateChecks.sum(); }
+	public long storageNotifications() { return storageNotifications.sum(); }
+	public long updates() { return updates.sum(); }
+	public long updateTime() { return updateTime.sum(); }
+	// @formatter:on
+
+	public DcsaUpdateStatistics snapshot() {
+		Map<String, OperationStatistics> operationStats = newTreeMap();
+		operations.forEach((name, metrics) -> operationStats.put(name, metrics.snapshot()));
+
+		return new DcsaUpdateStatistics(storageReads(), storageReadTime(), skippedUpdateChecks(), storageNotifications(), updates(), updateTime(),
+				operationStats);
+	}
+
+	private static class OperationMetrics {
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalTime = new LongAdder();
+		private final AtomicLong maxTime = new AtomicLong();
+
+		public void onApplied(long time) {
+			count.increment();
+			totalTime.add(time);
+			maxTime.accumulateAndGet(time, Math::max);
+		}
+
+		public OperationStatistics snapshot() {
+			return new OperationStatistics(count.sum(), totalTime.sum(), maxTime.get());
+		}
+	}
+
+}
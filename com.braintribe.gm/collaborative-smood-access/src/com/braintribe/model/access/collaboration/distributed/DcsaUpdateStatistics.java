@@ -0,0 +1,114 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.access.collaboration.distributed;
+
+import java.util.Map;
+
+/**
+ * Statistics about the updates of a {@link DistributedCollaborativeSmoodAccess} from its shared storage, see
+ * {@link DistributedCollaborativeSmoodAccess#getUpdateStatistics()}. All the times are in milliseconds.
+ */
+public class DcsaUpdateStatistics {
+
+	private final long storageReads;
+	private final long storageReadTime;
+	private final long skippedUpdateChecks;
+	private final long storageNotifications;
+	private final long updates;
+	private final long updateTime;
+	private final Map<String, OperationStatistics> operations;
+
+	public DcsaUpdateStatistics(long storageReads, long storageReadTime, long skippedUpdateChecks, long storageNotifications, long updates,
+			long updateTime, Map<String, OperationStatistics> operations) {
+		this.storageReads = storageReads;
+		this.storageReadTime = storageReadTime;
+		this.skippedUpdateChecks = skippedUpdateChecks;
+		this.storageNotifications = storageNotifications;
+		this.updates = updates;
+		this.updateTime = updateTime;
+		this.operations = operations;
+	}
+
+	/** Number of times the shared storage was checked for new operations. */
+	public long getStorageReads() {
+		return storageReads;
+	}
+
+	/** Total time spent checking the shared storage for new operations. */
+	public long getStorageReadTime() {
+		return storageReadTime;
+	}
+
+	/** Number of times the check of the shared storage was skipped, as the storage did not notify about any new operations since the last one. */
+	public long getSkippedUpdateChecks() {
+		return skippedUpdateChecks;
+	}
+
+	/** Number of notifications about new operations received from the shared storage. */
+	public long getStorageNotifications() {
+		return storageNotifications;
+	}
+
+	/** Number of times new operations from the shared storage were applied locally. */
+	public long getUpdates() {
+		return updates;
+	}
+
+	/** Total time spent applying new operations from the shared storage locally. */
+	public long getUpdateTime() {
+		return updateTime;
+	}
+
+	/** Statistics of the applied operations, per operation type (short name of the CsaOperation entity type). */
+	public Map<String, OperationStatistics> getOperations() {
+		return operations;
+	}
+
+	@Override
+	public String toString() {
+		return "DcsaUpdateStatistics[storageReads=" + storageReads + ", storageReadTime=" + storageReadTime + ", skippedUpdateChecks="
+				+ skippedUpdateChecks + ", storageNotifications=" + storageNotifications + ", updates=" + updates + ", updateTime=" + updateTime
+				+ ", operations=" + operations + "]";
+	}
+
+	public static class OperationStatistics {
+
+		private final long count;
+		private final long totalTime;
+		private final long maxTime;
+
+		public OperationStatistics(long count, long totalTime, long maxTime) {
+			this.count = count;
+			this.totalTime = totalTime;
+			this.maxTime = maxTime;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getTotalTime() {
+			return totalTime;
+		}
+
+		public long getMaxTime() {
+			return maxTime;
+		}
+
+		@Override
+		public String toString() {
+			return "[count=" + count + ", totalTime=" + totalTime + ", maxTime=" + maxTime + "]";
+		}
+
+	}
+
+}
@@ -23,9 +23,11 @@ import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
 import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.function.BiFunction;
 
+import com.braintribe.cfg.Configurable;
 import com.braintribe.cfg.DestructionAware;
 import com.braintribe.cfg.Required;
 import com.braintribe.common.lcd.UnsupportedEnumException;
@@ -77,6 +79,8 @@ import com.braintribe.utils.IOTools;
 import com.braintribe.utils.lcd.NullSafe;
 import com.braintribe.utils.lcd.StopWatch;
 
+import io.micrometer.core.instrument.Metrics;
+
 /**
  * 
  */
@@ -86,6 +90,8 @@ public class DistributedCollaborativeSmoodAccess extends CollaborativeSmoodAcces
 
 	public static final String TEXT_PLAIN_MIME_TYPE = "text/plain";
 
+	public static final long DEFAULT_MAX_UPDATE_CHECK_INTERVAL_MS = 10_000;
+
 	/* IMPLEMENTATION NOTES: */
 
 	/* There are two types of "operations" - read-only (R) and write (W) and for each we have a different approach. The main difference is that W
@@ -108,6 +114,11 @@ public class DistributedCollaborativeSmoodAccess extends CollaborativeSmoodAcces
 
 	/* It is also clear, that the operations done as an update must not be stored in the shared storage. */
 
+	/* If the shared storage notifies us about new operations (see DcsaSharedStorage.addOperationsListener), "ensureUpToDate" only checks the
+	 * storage if such a notification arrived since the last check (or if the last check is older than maxUpdateCheckIntervalMs, in case a
+	 * notification got lost). The updates done under the D lock always check the storage, so writes are always done on a globally up-to-date
+	 * state. */
+
 	/* package */ DcsaSharedStorage sharedStorage;
 	/* package */ Lock distributedLock;
 	/* package */ CollaborativeAccessManager collaborativeAccessManager;
@@ -122,6 +133,19 @@ public class DistributedCollaborativeSmoodAccess extends CollaborativeSmoodAcces
 	private BinaryPersistenceEventSource binaryPersistenceEventSource;
 	private Path resourcesBaseAbsolutePath;
 
+	private long maxUpdateCheckIntervalMs = DEFAULT_MAX_UPDATE_CHECK_INTERVAL_MS;
+
+	// whether sharedStorage notifies us about new operations, i.e. we do not have to check it every time
+	private boolean storageNotifies;
+	private final Runnable storageListener = this::onNewOperationsNotification;
+	private final AtomicLong storageNotifications = new AtomicLong();
+	// value of storageNotifications at the last time we were up-to-date with the storage
+	private volatile long checkedStorageNotifications = -1;
+	private volatile long lastUpdateCheck;
+
+	private final DcsaUpdateMetrics updateMetrics = new DcsaUpdateMetrics();
+	private DcsaUpdateMeterBinder updateMeterBinder;
+
 	@Override
 	public void postConstruct() {
 		if (resourcesBaseAbsolutePath != null)
@@ -131,6 +155,9 @@ public class DistributedCollaborativeSmoodAccess extends CollaborativeSmoodAcces
 
 		this.marker = statePersistence.readMarker();
 		this.distributedLock = sharedStorage.getLock(getAccessId());
+		this.storageNotifies = sharedStorage.addOperationsListener(getAccessId(), storageListener);
+		this.updateMeterBinder = new DcsaUpdateMeterBinder(getAccessId(), updateMetrics);
+		this.updateMeterBinder.bindTo(Metrics.globalRegistry);
 
 		this.registerCustomPersistenceRequestProcessor(CollaborativePersistenceRequest.T, new DistributedCollaborativeAccessManager(this));
 		this.binaryPersistenceEventSource.addPersistenceListener(this);
@@ -153,6 +180,12 @@ public class DistributedCollaborativeSmoodAccess extends CollaborativeSmoodAcces
 	@Override
 	public void preDestroy() {
 		this.binaryPersistenceEventSource.removePersistenceListener(this);
+
+		if (storageNotifies)
+			this.sharedStorage.removeOperationsListener(getAccessId(), storageListener);
+
+		if (updateMeterBinder != null)
+			this.updateMeterBinder.unbindFrom(Metrics.globalRegistry);
 	}
 
 	// @formatter:off
@@ -161,6 +194,14 @@ public class DistributedCollaborativeSmoodAccess extends CollaborativeSmoodAcces
 	@Required public void setBinaryPersistenceEventSource(BinaryPersistenceEventSource binaryPersistenceEventSource) { this.binaryPersistenceEventSource = binaryPersistenceEventSource; }
 	@Override
 	@Required public void setCollaborativeRequestProcessor(CollaborativeAccessManager collaborativeAccessManager) { this.collaborativeAccessManager = collaborativeAccessManager; }	
+
+	/**
+	 * Only relevant if the shared storage supports notifications about new operations. In such case, the storage is not checked before every
+	 * read-only operation, but only when notified, or if the last check is older than this interval (as a safety net in case a notification got lost).
+	 * <p>
+	 * Default value is {@value #DEFAULT_MAX_UPDATE_CHECK_INTERVAL_MS}
+	 */
+	@Configurable public void setMaxUpdateCheckIntervalMs(long maxUpdateCheckIntervalMs) { this.maxUpdateCheckIntervalMs = maxUpdateCheckIntervalMs; }
 	// @formatter:on
 
 	// ########################################################
@@ -256,6 +297,14 @@ public class DistributedCollaborativeSmoodAccess extends CollaborativeSmoodAcces
 	 * method's invocation.
 	 */
 	/* package */ void ensureUpToDate() {
+		if (isKnownToBeUpToDate()) {
+			updateMetrics.onUpdateCheckSkipped();
+			return;
+		}
+
+		long notificationsBeforeCheck = storageNotifications.get();
+		long checkStart = System.currentTimeMillis();
+
 		DcsaIterable dcsaIterable;
 		String readMarker;
 
@@ -269,25 +318,40 @@ public class DistributedCollaborativeSmoodAccess extends CollaborativeSmoodAcces
 		}
 
 		// if at the time of reading our marker was up-to-date, we don't do anything
-		if (dcsaIterable == null || dcsaIterable.getLastReadMarker() == null)
-			return;
-
-		writeLock.lock();
-		try {
-			/* here we do the update, but since we have released one lock and acquired another one, we have to use the "readMarker" to see if the
-			 * local state didn't change in the meantime */
-			w_ensureUpToDate(readMarker, dcsaIterable);
+		if (dcsaIterable != null && dcsaIterable.getLastReadMarker() != null) {
+			writeLock.lock();
+			try {
+				/* here we do the update, but since we have released one lock and acquired another one, we have to use the "readMarker" to see if
+				 * the local state didn't change in the meantime */
+				w_ensureUpToDate(readMarker, dcsaIterable);
 
-		} finally {
-			writeLock.unlock();
+			} finally {
+				writeLock.unlock();
+			}
 		}
+
+		checkedStorageNotifications = notificationsBeforeCheck;
+		lastUpdateCheck = checkStart;
+	}
+
+	private boolean isKnownToBeUpToDate() {
+		return storageNotifies //
+				&& checkedStorageNotifications == storageNotifications.get() //
+				&& System.currentTimeMillis() - lastUpdateCheck < maxUpdateCheckIntervalMs;
+	}
+
+	private void onNewOperationsNotification() {
+		storageNotifications.incrementAndGet();
+		updateMetrics.onStorageNotification();
 	}
 
 	private DcsaIterable readSharedStorageOperations() {
 		StopWatch sw = new StopWatch();
 
 		DcsaIterable result = sharedStorage.readOperations(getAccessId(), marker);
-		log.trace( () -> "Access [" + getAccessId() + "] - reading OPs from shared storage took " + sw.getElapsedTime() + " ms.");
+		long elapsedTime = sw.getElapsedTime();
+		updateMetrics.onStorageRead(elapsedTime);
+		log.trace( () -> "Access [" + getAccessId() + "] - reading OPs from shared storage took " + elapsedTime + " ms.");
 
 		return result;
 	}
@@ -351,22 +415,17 @@ public class DistributedCollaborativeSmoodAccess extends CollaborativeSmoodAcces
 	private void w_update(DcsaIterable dcsaIterable) {
 		isUpdating = true;
 
-		DcsaUpdateProfiler profiler = null;
-		if (log.isTraceEnabled()) {
-			profiler = new DcsaUpdateProfiler();
-		}
+		DcsaUpdateProfiler profiler = new DcsaUpdateProfiler();
 
 		try {
 
 			for (CsaOperation csaOperation : dcsaIterable) {
-				if (profiler != null)
-					profiler.onUpdateSingleOperation(csaOperation);
+				profiler.onUpdateSingleOperation(csaOperation);
 
 				w_applyUpdateOperation(csaOperation);
 			}
 
-			if (profiler != null)
-				log.trace(profiler.finalizeAndReport());
+			profiler.finalizeAndReport();
 
 			database.ensureIds();
 
@@ -604,9 +663,17 @@ public class DistributedCollaborativeSmoodAccess extends CollaborativeSmoodAcces
 	// ## . . . . . . . . Profiling . . . . . . . . ##
 	// ###############################################
 
+	/**
+	 * Returns a snapshot of the statistics about updates of this access from the shared storage. The same numbers are registered as meters (tagged
+	 * with the access id) in Micrometer's global registry, see {@link DcsaUpdateMeterBinder}.
+	 */
+	public DcsaUpdateStatistics getUpdateStatistics() {
+		return updateMetrics.snapshot();
+	}
+
 	class DcsaUpdateProfiler {
 
-		private final StringJoiner sj = new StringJoiner(", ", "DCSA UPDATE OPS: ", "");
+		private final StringJoiner sj = log.isTraceEnabled() ? new StringJoiner(", ", "DCSA UPDATE OPS: ", "") : null;
 		private final StopWatch sw = new StopWatch();
 		private long operationStart;
 		private CsaOperation operation;
@@ -619,17 +686,30 @@ public class DistributedCollaborativeSmoodAccess extends CollaborativeSmoodAcces
 			operationStart = System.nanoTime();
 		}
 
-		public String finalizeAndReport() {
-			sj.add("TOTAL: " + sw.getElapsedTime());
-			return sj.toString();
+		public void finalizeAndReport() {
+			if (operation != null)
+				onUpdateFinished();
+
+			long totalTime = sw.getElapsedTime();
+			updateMetrics.onUpdate(totalTime);
+
+			if (sj != null) {
+				sj.add("TOTAL: " + totalTime);
+				log.trace(sj.toString());
+			}
 		}
 
 		private void onUpdateFinished() {
 			long time = (System.nanoTime() - operationStart) / (1000 * 1000);
-			sj.add(operation.entityType().getShortName() + "-" + time);
+			String operationName = operation.entityType().getShortName();
+
+			updateMetrics.onOperationApplied(operationName, time);
+
+			if (sj != null)
+				sj.add(operationName + "-" + time);
 
 			if (time > 100)
-				log.warn("Single CSA operation (" + operation.entityType().getShortName() + ") took: " + time + " ms.");
+				log.warn("Single CSA operation (" + operationName + ") took: " + time + " ms.");
 		}
 
 	}
@@ -12,9 +12,13 @@
 package com.braintribe.model.access.collaboration.persistence;
 
 import static com.braintribe.common.lcd.Constants.ENCODING_UTF8;
+import static com.braintribe.model.generic.manipulation.util.ManipulationBuilder.compound;
 import static com.braintribe.utils.FileTools.getNiceAbsPath;
+import static com.braintribe.utils.lcd.CollectionTools2.newList;
 import static com.braintribe.utils.lcd.CollectionTools2.newMap;
 import static com.braintribe.utils.lcd.CollectionTools2.swapKeysAndValues;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
 import static java.util.Objects.requireNonNull;
 
 import java.io.BufferedInputStream;
@@ -22,6 +26,9 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -29,6 +36,7 @@ import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
 
 import com.braintribe.cfg.Configurable;
 import com.braintribe.common.lcd.Constants;
@@ -36,12 +44,14 @@ import com.braintribe.exception.Exceptions;
 import com.braintribe.logging.Logger;
 import com.braintribe.model.access.collaboration.persistence.tools.CsaPersistenceTools;
 import com.braintribe.model.access.collaboration.persistence.tools.GmValueMarshaller;
+import com.braintribe.model.generic.GMF;
 import com.braintribe.model.generic.GenericEntity;
 import com.braintribe.model.generic.manipulation.Manipulation;
 import com.braintribe.model.generic.reflection.GenericModelType;
 import com.braintribe.model.generic.session.InputStreamProvider;
 import com.braintribe.model.generic.value.EntityReference;
 import com.braintribe.model.processing.dataio.FileBasedPersistence;
+import com.braintribe.model.processing.manipulation.basic.normalization.Normalizer;
 import com.braintribe.model.processing.manipulation.marshaller.LocalManipulationStringifier;
 import com.braintribe.model.processing.manipulation.marshaller.ManipulationStringifier;
 import com.braintribe.model.processing.manipulation.marshaller.RemoteManipulationStringifier;
@@ -76,6 +86,8 @@ public abstract class AbstractGmmlManipulationPersistence extends AbstractPersis
 
 	private static final Logger log = Logger.getLogger(AbstractGmmlManipulationPersistence.class);
 
+	private static final int SNAPSHOT_CHECKSUM_WINDOW = 64 * 1024;
+
 	private ModelOracle modelOracle;
 	private Supplier<Set<GenericEntity>> createdEntitiesSupplier;
 	private GmmlManipulatorErrorHandler errorHandler;
@@ -85,6 +97,8 @@ public abstract class AbstractGmmlManipulationPersistence extends AbstractPersis
 
 	protected FileBasedPersistence<List<Long>> manMarkerPersistence; // data.man.length [, model.man.length]
 
+	private Map<String, GmmlFileSnapshot> resumePoints = emptyMap();
+
 	@Configurable
 	public void setModelOracle(ModelOracle modelOracle) {
 		this.modelOracle = modelOracle;
@@ -136,6 +150,10 @@ public abstract class AbstractGmmlManipulationPersistence extends AbstractPersis
 	protected Map<Object, String> initialize(PersistenceInitializationContext context, File gmmlFile) {
 		truncateFileIfMarkerPresent(gmmlFile);
 
+		GmmlFileSnapshot resumePoint = resumePoints.remove(gmmlFile.getName());
+		if (resumePoint != null)
+			return resume(context, gmmlFile, resumePoint);
+
 		if (!gmmlFile.exists())
 			return newMap();
 
@@ -152,13 +170,10 @@ public abstract class AbstractGmmlManipulationPersistence extends AbstractPersis
 	}
 
 	private void truncateFileIfMarkerPresent(File gmmlFile) {
-		List<Long> fileLengths = manMarkerPersistence.get();
-		if (fileLengths == null)
+		long markedFileSize = markedFileSize(gmmlFile);
+		if (markedFileSize < 0)
 			return;
 
-		boolean isData = gmmlFile.getName().startsWith("data");
-		long markedFileSize = isData ? fileLengths.get(0) : fileLengths.get(1);
-
 		if (markedFileSize > gmmlFile.length())
 			log.warn("Inconsistency with GMML stage: " + stage.getName() + ". File " + gmmlFile.getAbsolutePath() + " has size " + gmmlFile.length()
 					+ " and the marker is beyond EoF at: " + markedFileSize);
@@ -172,6 +187,16 @@ public abstract class AbstractGmmlManipulationPersistence extends AbstractPersis
 		}
 	}
 
+	/** Returns the file size stored in the marker, i.e. the size before the last unfinished append, or <tt>-1</tt> if there is no marker. */
+	private long markedFileSize(File gmmlFile) {
+		List<Long> fileLengths = manMarkerPersistence.get();
+		if (fileLengths == null)
+			return -1;
+
+		boolean isData = gmmlFile.getName().startsWith("data");
+		return isData ? fileLengths.get(0) : fileLengths.get(1);
+	}
+
 	private GmmlManipulatorParserConfiguration parserConfig(File gmmlFile, Set<String> homeopathicVariables) {
 		MutableGmmlManipulatorParserConfiguration result = CsaPersistenceTools.parserConfig(gmmlFile);
 		prepareStandardParserConfig(result);
@@ -356,6 +381,180 @@ public abstract class AbstractGmmlManipulationPersistence extends AbstractPersis
 		result.setProblematicEntitiesRegistry(problematicEntitiesRegistry);
 	}
 
+	// ###############################################
+	// ## . . . . . . . . . . Folding . . . . . . . ##
+	// ###############################################
+
+	/**
+	 * Replaces the content of each of the {@link #getGmmlStageFiles() GMML files} with its {@link Normalizer#normalizeGlobal normalized} form, i.e.
+	 * entities which were created and later deleted are gone and all the changes of an entity's property are folded into one. The folded content is
+	 * written to a temporary file first, which then replaces the original file, so a GMML file is never incomplete.
+	 * <p>
+	 * Each file is parsed into memory entirely. The variables of our files are re-assigned, just like after {@link AbstractManipulationPersistence#mergeStage
+	 * merging} the trunk.
+	 * <p>
+	 * Must not be called concurrently with appending.
+	 */
+	public void fold() {
+		List<File> files = getGmmlStageFiles().collect(Collectors.toList());
+		List<Map<Object, String>> variables = getVariablesMapStream().collect(Collectors.toList());
+
+		for (int i = 0; i < files.size(); i++)
+			fold(files.get(i), variables.get(i));
+	}
+
+	private void fold(File gmmlFile, Map<Object, String> variables) {
+		if (!gmmlFile.exists() || gmmlFile.length() == 0)
+			return;
+
+		long originalLength = gmmlFile.length();
+
+		List<Manipulation> manipulations = newList();
+		CsaPersistenceTools.parseGmmlFile(gmmlFile, manipulations::add);
+
+		Manipulation folded = Normalizer.normalizeGlobal(compound(manipulations));
+
+		File tmpFile = new File(gmmlFile.getParentFile(), gmmlFile.getName() + ".folded");
+		tmpFile.delete();
+
+		Map<Object, String> foldedVariables = newMap();
+		append(tmpFile, folded, foldedVariables, ManipulationMode.REMOTE);
+		removeRefVariables(foldedVariables);
+		resolveTypeVariables(foldedVariables);
+
+		try {
+			Files.move(tmpFile.toPath(), gmmlFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		} catch (IOException e) {
+			tmpFile.delete();
+			throw new ManipulationPersistenceException("Error while replacing GMML file with its folded version: " + getNiceAbsPath(gmmlFile), e);
+		}
+
+		variables.clear();
+		variables.putAll(foldedVariables);
+
+		log.debug(() -> "Folded " + getNiceAbsPath(gmmlFile) + " from " + originalLength + " to " + gmmlFile.length() + " bytes.");
+	}
+
+	/**
+	 * The {@link RemoteManipulationStringifier} remembers type variables by type signature, but local appends look them up by the type itself, just
+	 * like after parsing the file on startup. Without this, the next local append would declare a second variable for an already declared type.
+	 */
+	private void resolveTypeVariables(Map<Object, String> variables) {
+		Map<String, String> typeVariables = newMap();
+		for (Entry<Object, String> entry : variables.entrySet())
+			if (entry.getKey() instanceof String && !entry.getKey().equals(entry.getValue()))
+				typeVariables.put((String) entry.getKey(), entry.getValue());
+
+		for (Entry<String, String> entry : typeVariables.entrySet()) {
+			variables.remove(entry.getKey());
+			variables.put(GMF.getTypeReflection().getType(entry.getKey()), entry.getValue());
+		}
+	}
+
+	// ###############################################
+	// ## . . . . . . . . . Snapshots . . . . . . . ##
+	// ###############################################
+
+	/** Describes the current state of each of the {@link #getGmmlStageFiles() GMML files}, in the same order. */
+	public List<GmmlFileSnapshot> snapshotGmmlFiles() {
+		List<File> files = getGmmlStageFiles().collect(Collectors.toList());
+		List<Map<Object, String>> variables = getVariablesMapStream().collect(Collectors.toList());
+
+		List<GmmlFileSnapshot> result = newList();
+		for (int i = 0; i < files.size(); i++)
+			result.add(snapshotGmmlFile(files.get(i), variables.get(i)));
+
+		return result;
+	}
+
+	private GmmlFileSnapshot snapshotGmmlFile(File gmmlFile, Map<Object, String> variables) {
+		GmmlFileSnapshot result = new GmmlFileSnapshot();
+		result.fileName = gmmlFile.getName();
+		result.length = gmmlFile.length();
+		result.tailChecksum = tailChecksum(gmmlFile, result.length);
+		result.variables = newMap(variables);
+
+		return result;
+	}
+
+	/**
+	 * Returns <tt>true</tt> iff given snapshots still describe a prefix of our GMML files, i.e. these files were only appended to since the snapshots
+	 * were taken.
+	 */
+	public boolean canResumeFrom(List<GmmlFileSnapshot> snapshots) {
+		Map<String, GmmlFileSnapshot> snapshotsByName = indexByFileName(snapshots);
+
+		return getGmmlStageFiles().allMatch(f -> canResumeFrom(f, snapshotsByName.get(f.getName())));
+	}
+
+	private boolean canResumeFrom(File gmmlFile, GmmlFileSnapshot snapshot) {
+		if (snapshot == null)
+			return false;
+
+		long markedFileSize = markedFileSize(gmmlFile);
+		long fileSize = markedFileSize < 0 ? gmmlFile.length() : Math.min(markedFileSize, gmmlFile.length());
+
+		return fileSize >= snapshot.length && tailChecksum(gmmlFile, snapshot.length) == snapshot.tailChecksum;
+	}
+
+	/**
+	 * Makes the following initialization of this stage only parse what was appended to the GMML files after given snapshots were taken, starting
+	 * with the variables stored in these snapshots. The state these snapshots describe is expected to already be part of the session.
+	 */
+	public void resumeFrom(List<GmmlFileSnapshot> snapshots) {
+		resumePoints = indexByFileName(snapshots);
+	}
+
+	private static Map<String, GmmlFileSnapshot> indexByFileName(List<GmmlFileSnapshot> snapshots) {
+		return snapshots.stream() //
+				.collect(Collectors.toMap(s -> s.fileName, s -> s));
+	}
+
+	private Map<Object, String> resume(PersistenceInitializationContext context, File gmmlFile, GmmlFileSnapshot snapshot) {
+		Map<Object, String> variables = newMap(snapshot.variables);
+		if (gmmlFile.length() <= snapshot.length)
+			return variables;
+
+		try (InputStream in = new BufferedInputStream(FileTools.newInputStream(gmmlFile, snapshot.length))) {
+			ParseResponse response = ManipulatorParser.parse(in, ENCODING_UTF8, context.getSession(), resumeParserConfig(gmmlFile, variables));
+			return invertVariablesMap(response.variables, newMap());
+
+		} catch (Exception e) {
+			throw Exceptions.unchecked(e, "Error while parsing file: " + getNiceAbsPath(gmmlFile) + ", starting at position: " + snapshot.length);
+		}
+	}
+
+	private GmmlManipulatorParserConfiguration resumeParserConfig(File gmmlFile, Map<Object, String> variables) {
+		MutableGmmlManipulatorParserConfiguration result = CsaPersistenceTools.parserConfig(gmmlFile);
+		prepareStandardParserConfig(result);
+		result.setHomeopathicVariables(emptySet());
+		result.setVariables(swapKeysAndValues(variables));
+
+		return result;
+	}
+
+	/** CRC32 of the (at most {@value #SNAPSHOT_CHECKSUM_WINDOW}) bytes preceding given position in given file. */
+	private static long tailChecksum(File gmmlFile, long position) {
+		CRC32 crc = new CRC32();
+		if (position == 0)
+			return crc.getValue();
+
+		long start = Math.max(0, position - SNAPSHOT_CHECKSUM_WINDOW);
+		byte[] bytes = new byte[(int) (position - start)];
+
+		try (RandomAccessFile raf = new RandomAccessFile(gmmlFile, "r")) {
+			raf.seek(start);
+			raf.readFully(bytes);
+
+		} catch (IOException e) {
+			throw new ManipulationPersistenceException("Error while computing checksum of GMML file: " + gmmlFile.getAbsolutePath(), e);
+		}
+
+		crc.update(bytes);
+		return crc.getValue();
+	}
+
 	protected static File createStorageFile(File parentFile, String modelOrData) {
 		File dataFile = new File(parentFile, modelOrData + ".man");
 
@@ -13,12 +13,16 @@ package com.braintribe.model.access.collaboration.persistence;
 
 import static com.braintribe.model.access.collaboration.offline.CollaborativeAccessOfflineManager.getStageNamesToKeepOnReset;
 import static com.braintribe.utils.lcd.CollectionTools2.last;
+import static com.braintribe.utils.lcd.CollectionTools2.newLinkedMap;
+import static com.braintribe.utils.lcd.CollectionTools2.newList;
 import static com.braintribe.utils.lcd.CollectionTools2.newMap;
+import static com.braintribe.utils.lcd.CollectionTools2.newSet;
 import static com.braintribe.utils.lcd.CollectionTools2.updateMapKey;
 import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
 
 import java.io.File;
+import java.security.CodeSource;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -424,6 +428,150 @@ public abstract class AbstractManipulationPersistence<G extends AbstractGmmlMani
 		errorHandler.onEnd();
 	}
 
+	// ############################################################
+	// ## . . . . . . . . . . . Snapshots . . . . . . . . . . . .##
+	// ############################################################
+
+	/**
+	 * Returns a string which identifies the sequence of all the initializers (names, types and {@link #artifactVersionOf artifact versions}), or
+	 * <tt>null</tt> if the stage names are not unique, in which case the stage of each entity could not be restored from a snapshot. A snapshot can
+	 * only be used with the same fingerprint.
+	 * <p>
+	 * GMML stages are only identified by name and type, as their content is verified separately (see {@link #canResumeFrom(Map)}).
+	 */
+	public String snapshotFingerprint() {
+		ensureConfigurationProcessed();
+
+		Set<String> names = newSet();
+		StringJoiner sj = new StringJoiner("\n");
+
+		for (PersistenceInitializer initializer : allInitializers()) {
+			String name = getInitializerName(initializer);
+			if (!names.add(name))
+				return null;
+
+			String version = initializer instanceof AbstractGmmlManipulationPersistence ? "gmml" : artifactVersionOf(initializer);
+			sj.add(name + ":" + initializer.getClass().getName() + ":" + version);
+		}
+
+		return sj.toString();
+	}
+
+	/**
+	 * Returns the names of the initializers other than GMML stages whose {@link #artifactVersionOf artifact version} cannot be determined, i.e. whose
+	 * changes would not be reflected by the {@link #snapshotFingerprint() snapshot fingerprint}.
+	 */
+	public List<String> getUnversionedInitializerNames() {
+		ensureConfigurationProcessed();
+
+		return allInitializers().stream() //
+				.filter(i -> !(i instanceof AbstractGmmlManipulationPersistence)) //
+				.filter(i -> artifactVersionOf(i) == null) //
+				.map(this::getInitializerName) //
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns the version of the artifact the class of given initializer comes from, i.e. the implementation version of its package or the name of
+	 * its jar (which contains the version of the artifact), or <tt>null</tt> if neither is known, e.g. when the class was loaded from a folder.
+	 */
+	private static String artifactVersionOf(PersistenceInitializer initializer) {
+		Class<?> clazz = initializer.getClass();
+
+		Package pckg = clazz.getPackage();
+		if (pckg != null && pckg.getImplementationVersion() != null)
+			return pckg.getImplementationVersion();
+
+		CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+		if (codeSource == null || codeSource.getLocation() == null)
+			return null;
+
+		String location = codeSource.getLocation().getPath();
+		return location.endsWith(".jar") ? location.substring(location.lastIndexOf('/') + 1) : null;
+	}
+
+	/** Returns the stages of all the initializers, i.e. unlike {@link #getPersistenceStages()} also the ones of static post initializers. */
+	public Stream<PersistenceStage> getAllPersistenceStages() {
+		return allInitializers().stream().map(PersistenceInitializer::getPersistenceStage);
+	}
+
+	private List<PersistenceInitializer> allInitializers() {
+		List<PersistenceInitializer> result = newList(staticInitializers);
+		result.addAll(configuredInitializers);
+		result.addAll(staticPostInitializers);
+
+		return result;
+	}
+
+	/**
+	 * {@link AbstractGmmlManipulationPersistence#fold() Folds} the GMML files of each GMML stage. The caller is responsible for making sure nothing is
+	 * appended meanwhile.
+	 */
+	public void foldGmmlStages() {
+		for (AbstractGmmlManipulationPersistence gmmlPersistence : gmmlPersistences())
+			gmmlPersistence.fold();
+	}
+
+	/** Describes the current state of the files of each GMML stage, mapped by stage name. */
+	public Map<String, List<GmmlFileSnapshot>> snapshotGmmlStages() {
+		Map<String, List<GmmlFileSnapshot>> result = newLinkedMap();
+		for (AbstractGmmlManipulationPersistence gmmlPersistence : gmmlPersistences())
+			result.put(getInitializerName(gmmlPersistence), gmmlPersistence.snapshotGmmlFiles());
+
+		return result;
+	}
+
+	/** Returns <tt>true</tt> iff given snapshots (see {@link #snapshotGmmlStages()}) cover every GMML stage and each was only appended to since. */
+	public boolean canResumeFrom(Map<String, List<GmmlFileSnapshot>> gmmlStages) {
+		for (AbstractGmmlManipulationPersistence gmmlPersistence : gmmlPersistences()) {
+			List<GmmlFileSnapshot> snapshots = gmmlStages.get(getInitializerName(gmmlPersistence));
+			if (snapshots == null || !gmmlPersistence.canResumeFrom(snapshots))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Alternative to {@link #initializeModels} and {@link #initializeData}, used when the session was already populated from a snapshot. Only the GMML
+	 * appended to each GMML stage after given snapshots were taken is applied. Other initializers are not invoked at all, as their effect is part of
+	 * the snapshot.
+	 */
+	public void initializeFromSnapshot(PersistenceInitializationContext context, Map<String, List<GmmlFileSnapshot>> gmmlStages) {
+		onInitializationStart();
+
+		List<AbstractGmmlManipulationPersistence> gmmlPersistences = gmmlPersistences();
+		for (AbstractGmmlManipulationPersistence gmmlPersistence : gmmlPersistences)
+			gmmlPersistence.resumeFrom(gmmlStages.get(getInitializerName(gmmlPersistence)));
+
+		for (AbstractGmmlManipulationPersistence gmmlPersistence : gmmlPersistences) {
+			context.setCurrentPersistenceStage(gmmlPersistence.getPersistenceStage());
+			gmmlPersistence.initializeModels(context);
+		}
+
+		for (AbstractGmmlManipulationPersistence gmmlPersistence : gmmlPersistences) {
+			context.setCurrentPersistenceStage(gmmlPersistence.getPersistenceStage());
+			gmmlPersistence.initializeData(context);
+		}
+
+		onInitializedFromSnapshot(context);
+
+		onInitializationEnd();
+	}
+
+	/** Invoked at the end of {@link #initializeFromSnapshot}, while the initializers are still available. */
+	@SuppressWarnings("unused")
+	protected void onInitializedFromSnapshot(PersistenceInitializationContext context) {
+		// overridden in cortex
+	}
+
+	private List<AbstractGmmlManipulationPersistence> gmmlPersistences() {
+		return configuredInitializers.stream() //
+				.filter(AbstractGmmlManipulationPersistence.class::isInstance) //
+				.map(AbstractGmmlManipulationPersistence.class::cast) //
+				.collect(Collectors.toList());
+	}
+
 	// ############################################################
 	// ## . . . . . . . . . Configuration/Setup . . . . . . . . .##
 	// ############################################################
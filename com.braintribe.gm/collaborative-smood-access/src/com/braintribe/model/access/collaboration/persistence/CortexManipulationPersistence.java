@@ -99,6 +99,12 @@ public class CortexManipulationPersistence extends AbstractManipulationPersisten
 		deployCortexServiceModel(context);
 	}
 
+	@Override
+	protected void onInitializedFromSnapshot(PersistenceInitializationContext context) {
+		deployCortexModel(context);
+		deployCortexServiceModel(context);
+	}
+
 	private void deployCortexModel(PersistenceInitializationContext context) throws ManipulationPersistenceException {
 		deployModel(context, dataModelName);
 	}
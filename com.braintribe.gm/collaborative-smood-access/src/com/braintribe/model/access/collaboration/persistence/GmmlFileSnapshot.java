@@ -0,0 +1,33 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.access.collaboration.persistence;
+
+import java.util.Map;
+
+/**
+ * State of a single GMML file of a {@link AbstractGmmlManipulationPersistence GMML stage} at the moment a snapshot of the collaborative access was
+ * taken.
+ * <p>
+ * Besides the covered length, it contains a checksum of the (at most 64 kB) content right before that length, so that a file which was not just
+ * appended to is detected without reading it entirely, and the variables the appender used at that point, so that the GMML appended later can be
+ * parsed on its own.
+ */
+public class GmmlFileSnapshot {
+
+	public String fileName;
+	public long length;
+	public long tailChecksum;
+
+	/** Same structure as the variables of the appender - values are entities, types or variable names mapped to themselves. */
+	public Map<Object, String> variables;
+
+}
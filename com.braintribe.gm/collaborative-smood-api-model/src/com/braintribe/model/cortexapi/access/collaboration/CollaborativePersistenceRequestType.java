@@ -26,6 +26,7 @@ public enum CollaborativePersistenceRequestType implements EnumBase {
 	MergeStage,
 	MergeStageToPredecessor,
 	Reset,
+	Compact,
 
 	// read-only
 	GetStageData,
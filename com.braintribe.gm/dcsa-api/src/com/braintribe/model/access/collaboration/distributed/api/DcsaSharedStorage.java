@@ -55,4 +55,22 @@ public interface DcsaSharedStorage {
 				getClass().getName() + " does not support lazy-loading of resources. AccessId: " + accessId + ", paths: " + storedResourcesPaths);
 	}
 
+	/**
+	 * Registers a listener which is notified whenever a new {@link CsaOperation} is stored for given access, by any node sharing this storage.
+	 * <p>
+	 * The notification is just a hint that {@link #readOperations(String, String)} would now return something new, it carries no data and might be
+	 * delivered on an arbitrary thread. Implementations should notify on a best-effort basis, the caller is still expected to check the storage
+	 * every now and then, in case a notification got lost.
+	 *
+	 * @return <tt>true</tt> iff this storage supports such notifications, otherwise the caller has to check the storage for new operations on its own
+	 */
+	default boolean addOperationsListener(String accessId, Runnable listener) {
+		return false;
+	}
+
+	/** Counterpart to {@link #addOperationsListener(String, Runnable)}. */
+	default void removeOperationsListener(String accessId, Runnable listener) {
+		// nothing was registered
+	}
+
 }
@@ -73,4 +73,36 @@ public class StandardCloningContext extends StandardTraversingContext implements
 		this.strategyOnCriterionMatch = strategyOnCriterionMatch;
 	}
 
+	/**
+	 * Returns <tt>true</tt> iff this is a plain {@link StandardCloningContext} (not a sub-type) with neither a matcher nor a traversing visitor.
+	 * <p>
+	 * None of the callbacks of such a context can deviate from the default behavior and no criterion can ever match, so the entity types clone with
+	 * specialized code, which skips the callbacks and the traversing criteria, without any observable difference.
+	 */
+	public final boolean isDefaultCloning() {
+		return getClass() == StandardCloningContext.class && isTraversingUnobserved();
+	}
+
+	/**
+	 * Returns <tt>true</tt> iff this context has neither a matcher nor a traversing visitor and its callbacks do not look at the traversing stacks
+	 * (see {@link #isTraversingStackUsedByCallbacks()}).
+	 * <p>
+	 * The entity types then clone with specialized code, which invokes all the callbacks, but does not maintain the traversing stacks for entities
+	 * and their properties. This is the case for every {@link #isDefaultCloning() default cloning context}.
+	 */
+	public final boolean isStacklessCloning() {
+		return isTraversingUnobserved() && !isTraversingStackUsedByCallbacks();
+	}
+
+	/**
+	 * Tells whether the callbacks of this context might look at the {@link #getTraversingStack() traversing} or {@link #getObjectStack() object}
+	 * stack. This is assumed for every sub-type, so sub-types which only override callbacks without looking at these stacks should return
+	 * <tt>false</tt> to be cloned with the specialized code, see {@link #isStacklessCloning()}.
+	 * <p>
+	 * Note that a context with a matcher or a traversing visitor is never cloned with the specialized code, as these always look at the stacks.
+	 */
+	protected boolean isTraversingStackUsedByCallbacks() {
+		return getClass() != StandardCloningContext.class;
+	}
+
 }
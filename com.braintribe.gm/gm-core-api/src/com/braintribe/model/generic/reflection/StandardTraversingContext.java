@@ -169,6 +169,14 @@ public class StandardTraversingContext implements TraversingContext {
 		return absenceResolvable;
 	}
 
+	/**
+	 * Returns <tt>true</tt> iff neither a {@link Matcher} nor a {@link TraversingVisitor} is configured, i.e. nothing
+	 * looks at the traversing stack.
+	 */
+	protected boolean isTraversingUnobserved() {
+		return matcher == null && traversingVisitor == null;
+	}
+
 	/**
 	 * Sets the result for {@link #isPropertyValueUsedForMatching(EntityType, GenericEntity, Property)} (unless
 	 * overridden).
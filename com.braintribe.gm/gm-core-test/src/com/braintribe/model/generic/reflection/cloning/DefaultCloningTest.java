@@ -0,0 +1,206 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.generic.reflection.cloning;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.braintribe.model.generic.GMF;
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.generic.cloning.test.TestEntity;
+import com.braintribe.model.generic.pr.AbsenceInformation;
+import com.braintribe.model.generic.reflection.CloningContext;
+import com.braintribe.model.generic.reflection.EntityType;
+import com.braintribe.model.generic.reflection.GenericModelType;
+import com.braintribe.model.generic.reflection.Property;
+import com.braintribe.model.generic.reflection.PropertyTransferCompetence;
+import com.braintribe.model.generic.reflection.StandardCloningContext;
+import com.braintribe.model.generic.reflection.StrategyOnCriterionMatch;
+import com.braintribe.model.generic.reflection.cloning.model.City;
+import com.braintribe.model.generic.reflection.cloning.model.Country;
+
+/**
+ * Tests that cloning with a {@link StandardCloningContext#isDefaultCloning() default} or {@link StandardCloningContext#isStacklessCloning()
+ * stackless} cloning context (which use the specialized cloning code) yields the same results as the generic cloning (enforced by a sub-type of
+ * {@link StandardCloningContext}).
+ */
+public class DefaultCloningTest {
+
+	@Test
+	public void defaultCloningIsRecognized() {
+		assertThat(new StandardCloningContext().isDefaultCloning()).isTrue();
+		assertThat(new StandardCloningContext() {/* sub-type */}.isDefaultCloning()).isFalse();
+
+		StandardCloningContext cc = new StandardCloningContext();
+		cc.setMatcher(tc -> false);
+		assertThat(cc.isDefaultCloning()).isFalse();
+	}
+
+	@Test
+	public void stacklessCloningIsRecognized() {
+		assertThat(new StandardCloningContext().isStacklessCloning()).isTrue();
+		assertThat(new StandardCloningContext() {/* sub-type */}.isStacklessCloning()).isFalse();
+		assertThat(new StacklessCloningContext().isStacklessCloning()).isTrue();
+		assertThat(new StacklessCloningContext().isDefaultCloning()).isFalse();
+
+		StandardCloningContext cc = new StacklessCloningContext();
+		cc.setMatcher(tc -> false);
+		assertThat(cc.isStacklessCloning()).isFalse();
+	}
+
+	@Test
+	public void stacklessCloningInvokesCallbacksLikeGenericCloning() {
+		RecordingCloningContext generic = new RecordingCloningContext(true);
+		RecordingCloningContext stackless = new RecordingCloningContext(false);
+		assertThat(stackless.isStacklessCloning()).isTrue();
+		assertThat(generic.isStacklessCloning()).isFalse();
+
+		for (RecordingCloningContext cc : new RecordingCloningContext[] { generic, stackless }) {
+			TestEntity e1 = TestEntity.T.create();
+			e1.setName("e1");
+			TestEntity e2 = TestEntity.T.create();
+			e2.setName("e2");
+			e1.setOther1(e2);
+			e2.setOther2(e1);
+
+			TestEntity c1 = TestEntity.T.clone(cc, e1, StrategyOnCriterionMatch.partialize);
+
+			assertThat(c1.getName()).isEqualTo("e1!");
+			assertThat(c1.getOther1().getName()).isEqualTo("e2!");
+			assertThat(c1.getOther1().getOther2()).isSameAs(c1);
+			assertThat(c1.getOther2()).isNull();
+			assertThat(cc.rawClones).isEqualTo(2);
+		}
+
+		assertThat(stackless.events).isNotEmpty().isEqualTo(generic.events);
+	}
+
+	@Test
+	public void preservesIdentity() {
+		for (CloningContext cc : cloningContexts()) {
+			TestEntity e1 = TestEntity.T.create();
+			e1.setName("e1");
+			TestEntity e2 = TestEntity.T.create();
+			e2.setName("e2");
+
+			e1.setOther1(e2);
+			e1.setOther2(e2);
+			e2.setOther1(e1);
+
+			TestEntity c1 = TestEntity.T.clone(cc, e1, StrategyOnCriterionMatch.partialize);
+
+			assertThat(c1).isNotSameAs(e1);
+			assertThat(c1.getName()).isEqualTo("e1");
+			assertThat(c1.getOther1()).isNotSameAs(e2).isSameAs(c1.getOther2());
+			assertThat(c1.getOther1().getName()).isEqualTo("e2");
+			assertThat(c1.getOther1().getOther1()).isSameAs(c1);
+			assertThat(c1.getOther1().getOther2()).isNull();
+		}
+	}
+
+	@Test
+	public void copiesAbsenceInformation() {
+		for (CloningContext cc : cloningContexts()) {
+			AbsenceInformation ai = GMF.absenceInformation();
+
+			Country country = Country.T.create();
+			country.setName("Wakanda");
+			capitalProperty().setAbsenceInformation(country, ai);
+
+			Country cCountry = Country.T.clone(cc, country, StrategyOnCriterionMatch.partialize);
+
+			assertThat(cCountry.getName()).isEqualTo("Wakanda");
+			assertThat(capitalProperty().getAbsenceInformation(cCountry)).isSameAs(ai);
+		}
+	}
+
+	@Test
+	public void resolvesAbsenceIfConfigured() {
+		for (StandardCloningContext cc : cloningContexts()) {
+			cc.setAbsenceResolvable(true);
+
+			City city = City.T.create();
+			Country country = Country.T.create();
+			country.setCapital(city);
+			capitalProperty().setAbsenceInformation(country, GMF.absenceInformation());
+
+			Country cCountry = Country.T.clone(cc, country, StrategyOnCriterionMatch.partialize);
+
+			assertThat(capitalProperty().getAbsenceInformation(cCountry)).isNull();
+		}
+	}
+
+	private static Property capitalProperty() {
+		return Country.T.getProperty("capital");
+	}
+
+	/** The first one is a default cloning context, the second one a stackless one, the third one is neither. */
+	private static StandardCloningContext[] cloningContexts() {
+		return new StandardCloningContext[] { new StandardCloningContext(), new StacklessCloningContext(),
+				new StandardCloningContext() {/* generic cloning */} };
+	}
+
+	private static class StacklessCloningContext extends StandardCloningContext {
+		@Override
+		protected boolean isTraversingStackUsedByCallbacks() {
+			return false;
+		}
+	}
+
+	/** Skips "other2" of the root entity, appends "!" to strings and records the transferred properties. */
+	private static class RecordingCloningContext extends StandardCloningContext implements PropertyTransferCompetence {
+		private final boolean traversingStackUsed;
+		private final List<String> events = new ArrayList<>();
+		private int rawClones;
+		private GenericEntity root;
+
+		public RecordingCloningContext(boolean traversingStackUsed) {
+			this.traversingStackUsed = traversingStackUsed;
+		}
+
+		@Override
+		protected boolean isTraversingStackUsedByCallbacks() {
+			return traversingStackUsed;
+		}
+
+		@Override
+		public GenericEntity supplyRawClone(EntityType<? extends GenericEntity> entityType, GenericEntity instanceToBeCloned) {
+			rawClones++;
+			if (root == null)
+				root = instanceToBeCloned;
+			return super.supplyRawClone(entityType, instanceToBeCloned);
+		}
+
+		@Override
+		public boolean canTransferPropertyValue(EntityType<? extends GenericEntity> entityType, Property property, GenericEntity instanceToBeCloned,
+				GenericEntity clonedInstance, AbsenceInformation sourceAbsenceInformation) {
+			return !(instanceToBeCloned == root && property.getName().equals("other2"));
+		}
+
+		@Override
+		public Object postProcessCloneValue(GenericModelType propertyType, Object clonedValue) {
+			return clonedValue instanceof String ? clonedValue + "!" : clonedValue;
+		}
+
+		@Override
+		public void transferProperty(EntityType<?> sourceEntityType, GenericEntity sourceEntity, GenericEntity targetEntity, Property property,
+				Object value) {
+			events.add(((TestEntity) sourceEntity).getName() + "." + property.getName());
+			property.set(targetEntity, value);
+		}
+	}
+
+}
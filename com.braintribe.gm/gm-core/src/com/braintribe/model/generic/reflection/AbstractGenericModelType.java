@@ -51,6 +51,10 @@ public abstract class AbstractGenericModelType implements GenericModelType {
 		if (strategy == null)
 			strategy = cloningContext.getStrategyOnCriterionMatch();
 
+		if (isStacklessCloning(cloningContext))
+			// nothing looks at the traversing stack, so there is no need for the RootCriterion
+			return (T) cloneImpl(cloningContext, instance, strategy);
+
 		RootCriterion rootCriterion = RootCriterion.T.createPlain();
 		rootCriterion.setTypeSignature(getActualType(instance).getTypeSignature());
 		cloningContext.pushTraversingCriterion(rootCriterion, instance);
@@ -75,6 +79,16 @@ public abstract class AbstractGenericModelType implements GenericModelType {
 
 	public abstract Object cloneImpl(CloningContext cloningContext, Object instance, StrategyOnCriterionMatch strategy) throws GenericModelException;
 
+	/** @see StandardCloningContext#isDefaultCloning() */
+	protected static boolean isDefaultCloning(CloningContext cloningContext) {
+		return cloningContext instanceof StandardCloningContext && ((StandardCloningContext) cloningContext).isDefaultCloning();
+	}
+
+	/** @see StandardCloningContext#isStacklessCloning() */
+	protected static boolean isStacklessCloning(CloningContext cloningContext) {
+		return cloningContext instanceof StandardCloningContext && ((StandardCloningContext) cloningContext).isStacklessCloning();
+	}
+
 	@Override
 	public final void traverse(TraversingContext traversingContext, Object instance) throws GenericModelException {
 		RootCriterion rootCriterion = RootCriterion.T.createPlain();
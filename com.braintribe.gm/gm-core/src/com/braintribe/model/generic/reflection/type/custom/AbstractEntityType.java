@@ -46,6 +46,7 @@ import com.braintribe.model.generic.reflection.GenericModelType;
 import com.braintribe.model.generic.reflection.Property;
 import com.braintribe.model.generic.reflection.PropertyAccessInterceptor;
 import com.braintribe.model.generic.reflection.PropertyTransferCompetence;
+import com.braintribe.model.generic.reflection.StandardCloningContext;
 import com.braintribe.model.generic.reflection.StrategyOnCriterionMatch;
 import com.braintribe.model.generic.reflection.TransientProperty;
 import com.braintribe.model.generic.reflection.TraversingContext;
@@ -80,6 +81,7 @@ public abstract class AbstractEntityType<T extends GenericEntity> extends Abstra
 	private Class<? extends T> plainClass;
 	private Class<? extends T> enhancedClass;
 	private EntityCriterion criterion;
+	private EntityTypeCloner cloner;
 	private Boolean vd;
 
 	public AbstractEntityType() {
@@ -401,6 +403,12 @@ public abstract class AbstractEntityType<T extends GenericEntity> extends Abstra
 		// 'this' might be a super-type of the actual type
 		AbstractEntityType<?> actualType = (AbstractEntityType<?>) entity.entityType();
 
+		if (isDefaultCloning(cloningContext))
+			return actualType.acquireCloner().clone((StandardCloningContext) cloningContext, entity, strategy);
+
+		if (isStacklessCloning(cloningContext))
+			return actualType.acquireCloner().cloneWithCallbacks((StandardCloningContext) cloningContext, entity, strategy);
+
 		// create the raw clone and register it as visited to avoid double cloning
 		entityClone = cloningContext.supplyRawClone(actualType, entity);
 		cloningContext.registerAsVisited(entity, entityClone);
@@ -521,6 +529,13 @@ public abstract class AbstractEntityType<T extends GenericEntity> extends Abstra
 		return result;
 	}
 
+	private EntityTypeCloner acquireCloner() {
+		if (cloner == null)
+			cloner = new EntityTypeCloner(this);
+
+		return cloner;
+	}
+
 	private EntityCriterion acquireCriterion() {
 		if (criterion == null) {
 			EntityCriterion ec = EntityCriterion.T.createPlainRaw();
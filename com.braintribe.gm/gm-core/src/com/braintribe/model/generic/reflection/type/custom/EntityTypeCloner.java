@@ -0,0 +1,125 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.generic.reflection.type.custom;
+
+import java.util.List;
+
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.generic.pr.AbsenceInformation;
+import com.braintribe.model.generic.reflection.AbstractGenericModelType;
+import com.braintribe.model.generic.reflection.AbstractProperty;
+import com.braintribe.model.generic.reflection.GenericModelType;
+import com.braintribe.model.generic.reflection.Property;
+import com.braintribe.model.generic.reflection.PropertyTransferCompetence;
+import com.braintribe.model.generic.reflection.StandardCloningContext;
+import com.braintribe.model.generic.reflection.StrategyOnCriterionMatch;
+import com.braintribe.model.generic.reflection.TypeCode;
+
+/**
+ * Clones instances of one {@link AbstractEntityType} for a {@link StandardCloningContext#isStacklessCloning() stackless cloning context}.
+ * <p>
+ * Compared to the generic {@link AbstractEntityType#cloneImpl}, this is a straight loop over properties prepared up-front, which skips
+ * pushing/popping the traversing criteria (nothing looks at them) and also cloning of property values of immutable types (simple types other than
+ * date, enums). For a {@link StandardCloningContext#isDefaultCloning() default cloning context} even the callbacks are skipped, as they are known to
+ * do nothing. The result is the same as with the generic cloning, incl. absence information and identity of the cloned entities.
+ * <p>
+ * Contexts with a matcher (e.g. query results cloned with a traversing criterion) are not supported, as the matching depends on the traversing
+ * stack, and are therefore still cloned by the generic code.
+ */
+/* package */ final class EntityTypeCloner {
+
+	private final AbstractEntityType<?> entityType;
+	private final AbstractProperty[] properties;
+	private final AbstractGenericModelType[] propertyTypes;
+	private final boolean[] immutableValues;
+
+	public EntityTypeCloner(AbstractEntityType<?> entityType) {
+		List<Property> props = entityType.getProperties();
+		int size = props.size();
+
+		this.entityType = entityType;
+		this.properties = new AbstractProperty[size];
+		this.propertyTypes = new AbstractGenericModelType[size];
+		this.immutableValues = new boolean[size];
+
+		for (int i = 0; i < size; i++) {
+			AbstractProperty property = (AbstractProperty) props.get(i);
+			GenericModelType type = property.getType();
+
+			properties[i] = property;
+			propertyTypes[i] = (AbstractGenericModelType) type;
+			immutableValues[i] = type.isEnum() || (type.isSimple() && type.getTypeCode() != TypeCode.dateType);
+		}
+	}
+
+	/** Clones given entity, which is known to be not visited yet. */
+	public GenericEntity clone(StandardCloningContext cloningContext, GenericEntity entity, StrategyOnCriterionMatch strategy) {
+		GenericEntity entityClone = entityType.createRaw();
+		cloningContext.registerAsVisited(entity, entityClone);
+
+		for (int i = 0; i < properties.length; i++) {
+			AbstractProperty property = properties[i];
+
+			AbsenceInformation absenceInformation = property.getAbsenceInformation(entity);
+			if (absenceInformation != null && !cloningContext.isAbsenceResolvable(property, entity, absenceInformation)) {
+				property.setAbsenceInformation(entityClone, absenceInformation);
+				continue;
+			}
+
+			Object value = property.get(entity);
+			if (value != null && !immutableValues[i])
+				value = propertyTypes[i].cloneImpl(cloningContext, value, strategy);
+
+			property.set(entityClone, value);
+		}
+
+		return entityClone;
+	}
+
+	/**
+	 * Clones given entity, which is known to be not visited yet, invoking the callbacks of given context in the same order as the generic cloning.
+	 * The only callback not invoked is {@link StandardCloningContext#isPropertyValueUsedForMatching}, as there is no matcher.
+	 */
+	public GenericEntity cloneWithCallbacks(StandardCloningContext cloningContext, GenericEntity entity, StrategyOnCriterionMatch strategy) {
+		GenericEntity entityClone = cloningContext.supplyRawClone(entityType, entity);
+		cloningContext.registerAsVisited(entity, entityClone);
+
+		PropertyTransferCompetence propertyTransferCompetence = cloningContext instanceof PropertyTransferCompetence
+				? (PropertyTransferCompetence) cloningContext : null;
+
+		for (int i = 0; i < properties.length; i++) {
+			AbstractProperty property = properties[i];
+
+			AbsenceInformation absenceInformation = property.getAbsenceInformation(entity);
+			if (!cloningContext.canTransferPropertyValue(entityType, property, entity, entityClone, absenceInformation))
+				continue;
+
+			if (!cloningContext.isAbsenceResolvable(property, entity, absenceInformation) && absenceInformation != null) {
+				property.setAbsenceInformation(entityClone, absenceInformation);
+				continue;
+			}
+
+			Object value = property.get(entity);
+			if (value != null && !immutableValues[i])
+				value = propertyTypes[i].cloneImpl(cloningContext, value, strategy);
+
+			value = cloningContext.postProcessCloneValue(propertyTypes[i], value);
+			if (propertyTransferCompetence != null)
+				propertyTransferCompetence.transferProperty(entityType, entity, entityClone, property, value);
+			else
+				property.set(entityClone, value);
+		}
+
+		return entityClone;
+	}
+
+}
@@ -47,7 +47,12 @@ public enum RpcHeaders {
 	/*
 	 * a flag that controls if the call occurs reasoned or not (true|false)
 	 */
-	rpcReasoning("gm-rpc-reasoning");
+	rpcReasoning("gm-rpc-reasoning"),
+
+	/*
+	 * a flag that marks a CompositeRequest as a batch of independent requests, each of them to be evaluated on its own (true|false)
+	 */
+	rpcBatch("gm-rpc-batch");
 	
 	private String headerName;
 	
@@ -51,6 +51,12 @@ public interface CollaborativeAccess {
 	/** Resets the access to it's initial state. This means all data persisted by the access on top of it's initial state will be deleted. */
 	void reset();
 
+	/**
+	 * Folds the manipulations persisted by each stage into their normalized form and the current state into a fresh snapshot (if supported and
+	 * configured), so that the next startup doesn't have to replay the entire history of the persistence stages.
+	 */
+	void compact();
+
 	/**
 	 * In case of GMML stage returns a {@link Stream} with 1 or 2 suppliers (data, model) of the {@link Resource} representing the corresponding GMML
 	 * file. For non-GMML returns an empty stream.
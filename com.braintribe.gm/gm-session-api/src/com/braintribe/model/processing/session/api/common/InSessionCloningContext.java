@@ -47,4 +47,9 @@ class InSessionCloningContext extends StandardCloningContext {
 			
 			return !property.isIdentifying() && !property.isGlobalId();
 		}
+
+		@Override
+		protected boolean isTraversingStackUsedByCallbacks() {
+			return false;
+		}
 	}
\ No newline at end of file
@@ -15,6 +15,7 @@ import java.util.List;
 
 import javax.servlet.Filter;
 
+import com.braintribe.model.processing.webrpc.client.test.commons.RpcCallCountingFilter;
 import com.braintribe.model.processing.webrpc.server.GmWebRpcServer;
 import com.braintribe.wire.api.context.WireContext;
 
@@ -35,4 +36,7 @@ public interface WebRpcTestContract extends RpcTestContract {
 
 	List<Filter> filters();
 
+	/** One of the {@link #filters()}, which counts the calls received by the {@link #server()}. */
+	RpcCallCountingFilter callCounter();
+
 }
@@ -34,6 +34,7 @@ import com.braintribe.model.processing.securityservice.api.exceptions.SecuritySe
 import com.braintribe.model.processing.session.api.managed.NotFoundException;
 import com.braintribe.model.processing.webrpc.client.BasicGmWebRpcClientConfig;
 import com.braintribe.model.processing.webrpc.client.GmWebRpcClientConfig;
+import com.braintribe.model.processing.webrpc.client.test.commons.RpcCallCountingFilter;
 import com.braintribe.model.processing.webrpc.server.GmWebRpcServer;
 import com.braintribe.model.usersession.UserSession;
 import com.braintribe.servlet.exception.ExceptionFilter;
@@ -182,7 +183,13 @@ public class WebRpcTestSpace implements WebRpcTestContract {
 
 	@Override
 	public List<Filter> filters() {
-		return Lists.list(exceptionFilter());
+		return Lists.list(callCounter(), exceptionFilter());
+	}
+
+	@Managed
+	@Override
+	public RpcCallCountingFilter callCounter() {
+		return new RpcCallCountingFilter();
 	}
 
 	@Managed
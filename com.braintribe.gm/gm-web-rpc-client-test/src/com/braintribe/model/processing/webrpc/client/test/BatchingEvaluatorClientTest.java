@@ -0,0 +1,194 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.webrpc.client.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.braintribe.gm.model.reason.Maybe;
+import com.braintribe.model.processing.rpc.commons.api.config.GmRpcClientConfig;
+import com.braintribe.model.processing.rpc.test.service.processor.basic.BasicTestServiceProcessorRequest;
+import com.braintribe.model.processing.rpc.test.service.processor.basic.BasicTestServiceProcessorResponse;
+import com.braintribe.model.processing.rpc.test.service.processor.streaming.StreamingTestServiceProcessorRequest;
+import com.braintribe.model.processing.rpc.test.service.processor.streaming.UploadTestServiceProcessorRequest;
+import com.braintribe.model.processing.webrpc.client.BasicGmWebRpcClientConfig;
+import com.braintribe.model.processing.webrpc.client.GmWebRpcEvaluator;
+import com.braintribe.model.processing.webrpc.client.test.commons.RpcCallCountingFilter;
+import com.braintribe.model.service.api.CompositeRequest;
+
+/**
+ * <p>
+ * Test suite using a {@link GmWebRpcEvaluator} with request batching enabled, i.e. concurrently evaluated requests are sent to the
+ * {@link com.braintribe.model.processing.webrpc.server.GmWebRpcServer} in a single call.
+ * 
+ * <p>
+ * Requests with streams are never batched, they are tested here to make sure they are still sent correctly when mixed with batched ones.
+ * 
+ */
+public class BatchingEvaluatorClientTest extends WebRpcTestBase {
+
+	private static final int NUM_CONCURRENT_TESTS = 40;
+
+	// ============================= //
+	// =========== TESTS =========== //
+	// ============================= //
+
+	// @formatter:off
+	@Test
+	public void testStandardBasicServiceProcessorRequest() throws Exception {
+		with(BasicTestServiceProcessorRequest.T)
+			.test();
+	}
+
+	@Test
+	public void testConcurrentBasicServiceProcessorRequests() throws Exception {
+		with(BasicTestServiceProcessorRequest.T)
+			.multiThreaded()
+			.runs(NUM_CONCURRENT_TESTS)
+			.test();
+	}
+
+	@Test
+	public void testConcurrentBasicServiceProcessorRequestsAsync() throws Exception {
+		with(BasicTestServiceProcessorRequest.T)
+			.multiThreaded()
+			.async()
+			.runs(NUM_CONCURRENT_TESTS)
+			.test();
+	}
+
+	@Test
+	public void testConcurrentReAuthorizingBasicServiceProcessorRequests() throws Exception {
+		with(BasicTestServiceProcessorRequest.T)
+			.multiThreaded()
+			.forceReAuthorization()
+			.runs(NUM_CONCURRENT_TESTS)
+			.test();
+	}
+
+	@Test
+	public void testConcurrentBasicServiceProcessorRequestsWithConsumer() throws Exception {
+		with(BasicTestServiceProcessorRequest.T)
+			.multiThreaded()
+			.addResponseConsumer()
+			.runs(NUM_CONCURRENT_TESTS)
+			.test();
+	}
+
+	@Test
+	public void testConcurrentCompositeServiceProcessorRequests() throws Exception {
+		with(CompositeRequest.T)
+			.multiThreaded()
+			.runs(NUM_CONCURRENT_TESTS)
+			.test();
+	}
+
+	@Test
+	public void testConcurrentStreamingServiceProcessorRequests() throws Exception {
+		with(StreamingTestServiceProcessorRequest.T)
+			.multiThreaded()
+			.runs(NUM_CONCURRENT_TESTS)
+			.test();
+	}
+
+	@Test
+	public void testConcurrentUploadServiceProcessorRequests() throws Exception {
+		with(UploadTestServiceProcessorRequest.T)
+			.multiThreaded()
+			.runs(NUM_CONCURRENT_TESTS)
+			.test();
+	}
+	// @formatter:on
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRuntimeException() throws Exception {
+		testFailedEvaluatorRequest(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testConcurrentRequestsShareOneRoundTrip() throws Exception {
+		int numRequests = 8;
+
+		// the window is long enough for all the requests to become pending, so the batch is sent as soon as it is full
+		GmWebRpcEvaluator evaluator = createService(rpcTestBeans().denotationDriven(), 10_000L, numRequests);
+		RpcCallCountingFilter callCounter = context.contract().callCounter();
+		callCounter.reset();
+
+		ExecutorService executor = Executors.newFixedThreadPool(numRequests);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<BasicTestServiceProcessorRequest> requests = new ArrayList<>();
+			List<Future<Maybe<?>>> futures = new ArrayList<>();
+
+			for (int i = 0; i < numRequests; i++) {
+				BasicTestServiceProcessorRequest request = BasicTestServiceProcessorRequest.T.create();
+				request.setRequestId("request-" + i);
+				request.setRequestDate(new Date());
+				requests.add(request);
+
+				futures.add(executor.submit(() -> {
+					start.await();
+					return request.eval(evaluator).getReasoned();
+				}));
+			}
+
+			start.countDown();
+
+			for (int i = 0; i < numRequests; i++) {
+				BasicTestServiceProcessorResponse response = (BasicTestServiceProcessorResponse) futures.get(i).get(30, TimeUnit.SECONDS).get();
+				assertThat(response.getRequestId()).isEqualTo(requests.get(i).getRequestId());
+			}
+
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// the server got a single CompositeRequest with all the requests
+		assertThat(callCounter.getCalls()).isEqualTo(1);
+		assertThat(callCounter.getBatchCalls()).isEqualTo(1);
+	}
+
+	// ============================= //
+	// ========= COMMONS =========== //
+	// ============================= //
+
+	@Override
+	public GmWebRpcEvaluator createService(GmRpcClientConfig clientConfig) {
+		return createService(clientConfig, 10L, 16);
+	}
+
+	private GmWebRpcEvaluator createService(GmRpcClientConfig clientConfig, long batchWindow, int maxBatchSize) {
+		BasicGmWebRpcClientConfig config = (BasicGmWebRpcClientConfig) clientConfig;
+		config.setUrl(rpcUrl.toString());
+		config.setBatchWindow(batchWindow);
+		config.setMaxBatchSize(maxBatchSize);
+		GmWebRpcEvaluator evaluator = new GmWebRpcEvaluator();
+		evaluator.setConfig(config);
+		return evaluator;
+	}
+
+	@Override
+	public <S> void destroyService(S service) {
+		// no-op
+	}
+
+}
@@ -0,0 +1,71 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.webrpc.client.test.commons;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+
+import com.braintribe.model.processing.rpc.commons.api.RpcHeaders;
+
+/**
+ * Counts the RPC calls received by the server, i.e. the HTTP round trips, and how many of them carried a batch {@link RpcHeaders#rpcBatch
+ * CompositeRequest}, which the server evaluates as multiple independent requests.
+ */
+public class RpcCallCountingFilter implements Filter {
+
+	private final AtomicInteger calls = new AtomicInteger();
+	private final AtomicInteger batchCalls = new AtomicInteger();
+
+	@Override
+	public void init(FilterConfig filterConfig) throws ServletException {
+		// nothing to initialize
+	}
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+		if (request instanceof HttpServletRequest && "POST".equals(((HttpServletRequest) request).getMethod())) {
+			calls.incrementAndGet();
+
+			if (Boolean.TRUE.toString().equals(((HttpServletRequest) request).getHeader(RpcHeaders.rpcBatch.getHeaderName())))
+				batchCalls.incrementAndGet();
+		}
+
+		chain.doFilter(request, response);
+	}
+
+	@Override
+	public void destroy() {
+		// nothing to destroy
+	}
+
+	public void reset() {
+		calls.set(0);
+		batchCalls.set(0);
+	}
+
+	public int getCalls() {
+		return calls.get();
+	}
+
+	public int getBatchCalls() {
+		return batchCalls.get();
+	}
+
+}
@@ -24,6 +24,8 @@ public class BasicGmWebRpcClientConfig extends GmRpcClientConfig {
 	private HttpClientProvider httpClientProvider;
 	private Integer socketTimeout;
 	private StreamPipeFactory streamPipeFactory;
+	private Long batchWindow;
+	private Integer maxBatchSize;
 
 	public Integer getSocketTimeout() {
 		return socketTimeout;
@@ -81,4 +83,26 @@ public class BasicGmWebRpcClientConfig extends GmRpcClientConfig {
 		this.streamPipeFactory = streamPipeFactory;
 	}
 
+	public Long getBatchWindow() {
+		return batchWindow;
+	}
+
+	/**
+	 * Time window (in milliseconds) within which concurrently evaluated requests are coalesced into a single HTTP call, which the server
+	 * unpacks and evaluates in parallel. Only requests without streams are batched. Batching is disabled if this is <tt>null</tt> or not
+	 * positive.
+	 */
+	public void setBatchWindow(Long batchWindow) {
+		this.batchWindow = batchWindow;
+	}
+
+	public Integer getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	/** Number of pending requests at which a batch is sent right away, without waiting for the rest of the {@link #setBatchWindow(Long) window}. */
+	public void setMaxBatchSize(Integer maxBatchSize) {
+		this.maxBatchSize = maxBatchSize;
+	}
+
 }
@@ -83,6 +83,9 @@ public abstract class GmWebRpcClientBase extends GmRpcClientBase {
 	private String version = "2";
 	private Integer socketTimeout = null;
 	private StreamPipeFactory streamPipeFactory;
+	private RpcRequestBatcher requestBatcher;
+
+	public static final int DEFAULT_MAX_BATCH_SIZE = 50;
 
 	public static final String RPC_LOGSTEP_HTTP_REQUEST = "HTTP request";
 	public static final String RPC_LOGSTEP_MULTIPART = "Multiparts processing";
@@ -113,6 +116,12 @@ public abstract class GmWebRpcClientBase extends GmRpcClientBase {
 		if (config.getHttpClientProvider() != null) {
 			httpClientProvider = config.getHttpClientProvider();
 		}
+
+		Long batchWindow = config.getBatchWindow();
+		if (batchWindow != null && batchWindow > 0) {
+			int maxBatchSize = config.getMaxBatchSize() != null ? config.getMaxBatchSize() : DEFAULT_MAX_BATCH_SIZE;
+			requestBatcher = new RpcRequestBatcher(this::sendHttpRequest, batchWindow, maxBatchSize);
+		}
 	}
 
 	public void close() {
@@ -163,6 +172,13 @@ public abstract class GmWebRpcClientBase extends GmRpcClientBase {
 
 	@Override
 	protected ServiceResult sendRequest(GmRpcClientRequestContext requestContext) {
+		if (requestBatcher != null && RpcRequestBatcher.isBatchable(requestContext))
+			return requestBatcher.send(requestContext);
+		else
+			return sendHttpRequest(requestContext);
+	}
+
+	private ServiceResult sendHttpRequest(GmRpcClientRequestContext requestContext) {
 
 		StopWatch stopWatch = new StopWatch();
 		stopWatch.intermediate(Thread.currentThread().getName());
@@ -174,6 +190,9 @@ public abstract class GmWebRpcClientBase extends GmRpcClientBase {
 
 		post.setHeader(RpcHeaders.rpcReasoning.getHeaderName(), String.valueOf(requestContext.isReasoned()));
 
+		if (RpcRequestBatcher.isBatch(requestContext))
+			post.setHeader(RpcHeaders.rpcBatch.getHeaderName(), "true");
+
 		if (!version.equals("1"))
 			post.setHeader("Accept", "multipart/chunked,multipart/form-data," + contentType);
 		else
@@ -417,6 +436,7 @@ public abstract class GmWebRpcClientBase extends GmRpcClientBase {
 			sb.append("\tCompress:            ").append(compress).append(nl);
 			sb.append("\tRetry Interval:      ").append(retryInterval).append(nl);
 			sb.append("\tCall Timeout:        ").append(callTimeout).append(nl);
+			sb.append("\tBatching:            ").append(requestBatcher != null).append(nl);
 			sb.append("\tHttpClient Provider: ").append(httpClientProvider).append(nl);
 			sb.append("\tMeta Data Provider:  ").append(getMetaDataProvider()).append(nl);
 			sb.append("\tFailure Codec:       ").append(getFailureCodec()).append(nl);
@@ -38,6 +38,7 @@ import com.braintribe.codec.marshaller.api.EntityVisitorOption;
 import com.braintribe.codec.marshaller.api.GmSerializationOptions;
 import com.braintribe.codec.marshaller.api.MarshallException;
 import com.braintribe.codec.marshaller.api.Marshaller;
+import com.braintribe.codec.marshaller.api.options.attributes.DecodingLenienceOption;
 import com.braintribe.codec.marshaller.bin.Bin2Marshaller;
 import com.braintribe.common.attribute.AttributeContext;
 import com.braintribe.common.lcd.Pair;
@@ -99,6 +100,10 @@ public class GmWebRpcRemoteServiceProcessor extends AbstractRemoteServiceProcess
 	// configurable via setters
 	private String url;
 	private StreamPipeFactory streamPipeFactory;
+	private long batchWindow;
+	private int maxBatchSize = GmWebRpcClientBase.DEFAULT_MAX_BATCH_SIZE;
+
+	private volatile RpcRequestBatcher requestBatcher; // lazy initialized
 
 	@Required
 	public void setUrl(String url) {
@@ -123,6 +128,22 @@ public class GmWebRpcRemoteServiceProcessor extends AbstractRemoteServiceProcess
 		this.httpClientProvider = httpClientProvider;
 	}
 
+	/**
+	 * Time window (in milliseconds) within which concurrently processed requests are coalesced into a single HTTP call, which the server
+	 * unpacks and evaluates in parallel. Only requests without streams (and without remote capturing) are batched. Default is 0, i.e. no
+	 * batching.
+	 */
+	@Configurable
+	public void setBatchWindow(long batchWindow) {
+		this.batchWindow = batchWindow;
+	}
+
+	/** Number of pending requests at which a batch is sent right away, without waiting for the rest of the {@link #setBatchWindow(long) window}. */
+	@Configurable
+	public void setMaxBatchSize(int maxBatchSize) {
+		this.maxBatchSize = maxBatchSize;
+	}
+
 	private boolean stopProcessing = false;
 
 	public void close() {
@@ -182,6 +203,33 @@ public class GmWebRpcRemoteServiceProcessor extends AbstractRemoteServiceProcess
 
 	@Override
 	protected ServiceResult sendRequest(GmRpcClientRequestContext requestContext) {
+		if (batchWindow > 0 && isBatchable(requestContext))
+			return requestBatcher().send(requestContext);
+		else
+			return sendHttpRequest(requestContext);
+	}
+
+	private boolean isBatchable(GmRpcClientRequestContext requestContext) {
+		AttributeContext attributeContext = requestContext.getAttributeContext();
+
+		return attributeContext.findOrDefault(RemoteCaptureAspect.class, RemoteCapture.none) == RemoteCapture.none && //
+				attributeContext.findOrNull(ErroneusMultipartDataCapture.class) == null && //
+				attributeContext.findOrNull(DecodingLenienceOption.class) == null && //
+				RpcRequestBatcher.isBatchable(requestContext);
+	}
+
+	private RpcRequestBatcher requestBatcher() {
+		if (requestBatcher == null) {
+			synchronized (clientMonitor) {
+				if (requestBatcher == null)
+					requestBatcher = new RpcRequestBatcher(this::sendHttpRequest, batchWindow, maxBatchSize);
+			}
+		}
+
+		return requestBatcher;
+	}
+
+	private ServiceResult sendHttpRequest(GmRpcClientRequestContext requestContext) {
 		StopWatch stopWatch = new StopWatch();
 		stopWatch.intermediate(Thread.currentThread().getName());
 
@@ -191,7 +239,9 @@ public class GmWebRpcRemoteServiceProcessor extends AbstractRemoteServiceProcess
 		post.setHeader(RpcHeaders.rpcVersion.getHeaderName(), version);
 		
 		AttributeContext attributeContext = requestContext.getAttributeContext();
-		String callId = attributeContext.findOrSupply(RequestEvaluationIdAspect.class, () -> UUID.randomUUID().toString());
+		boolean batch = RpcRequestBatcher.isBatch(requestContext);
+		String callId = batch ? UUID.randomUUID().toString()
+				: attributeContext.findOrSupply(RequestEvaluationIdAspect.class, () -> UUID.randomUUID().toString());
 		
 		post.setHeader("Call-Id", callId);
 		
@@ -215,6 +265,9 @@ public class GmWebRpcRemoteServiceProcessor extends AbstractRemoteServiceProcess
 
 		post.setHeader(RpcHeaders.rpcReasoning.getHeaderName(), String.valueOf(requestContext.isReasoned()));
 
+		if (batch)
+			post.setHeader(RpcHeaders.rpcBatch.getHeaderName(), "true");
+
 		if (!version.equals("1"))
 			post.setHeader("Accept", "multipart/chunked,multipart/form-data," + contentType);
 		else
@@ -472,6 +525,7 @@ public class GmWebRpcRemoteServiceProcessor extends AbstractRemoteServiceProcess
 			sb.append("\tCompress:            ").append(compress).append(nl);
 			sb.append("\tRetry Interval:      ").append(retryInterval).append(nl);
 			sb.append("\tCall Timeout:        ").append(callTimeout).append(nl);
+			sb.append("\tBatch Window:        ").append(batchWindow).append(nl);
 			sb.append("\tHttpClient Provider: ").append(httpClientProvider).append(nl);
 			log.debug(sb.toString());
 		}
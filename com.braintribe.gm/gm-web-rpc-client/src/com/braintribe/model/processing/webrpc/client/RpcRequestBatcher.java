@@ -0,0 +1,216 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.webrpc.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Function;
+
+import com.braintribe.logging.Logger;
+import com.braintribe.model.processing.rpc.commons.api.GmRpcException;
+import com.braintribe.model.processing.rpc.commons.api.RpcHeaders;
+import com.braintribe.model.processing.rpc.commons.impl.client.GmRpcClientRequestContext;
+import com.braintribe.model.resource.CallStreamCapture;
+import com.braintribe.model.resource.source.TransientSource;
+import com.braintribe.model.service.api.CompositeRequest;
+import com.braintribe.model.service.api.result.CompositeResponse;
+import com.braintribe.model.service.api.result.ResponseEnvelope;
+import com.braintribe.model.service.api.result.ServiceResult;
+
+/**
+ * Coalesces requests which are sent concurrently to the same RPC endpoint into a single HTTP call.
+ * <p>
+ * The first request which finds no other request pending becomes the leader of a batch. It waits for at most {@code batchWindow}
+ * milliseconds (or until {@code maxBatchSize} requests are pending), takes all the pending requests and sends them as one
+ * {@link CompositeRequest} marked with the {@link RpcHeaders#rpcBatch} header. The server evaluates each of them on its own (and in
+ * parallel) and responds with a {@link CompositeResponse} with one {@link ServiceResult} per request, which is then handed over to the
+ * respective caller. A batch with a single request is sent as is.
+ * <p>
+ * Only {@link #isBatchable(GmRpcClientRequestContext) simple requests} may be batched, i.e. reasoned requests without streams and without
+ * an eager response consumer.
+ */
+/* package */ class RpcRequestBatcher {
+
+	private static final Logger logger = Logger.getLogger(RpcRequestBatcher.class);
+
+	private final Function<GmRpcClientRequestContext, ServiceResult> sender;
+	private final long batchWindow;
+	private final int maxBatchSize;
+
+	private final Object monitor = new Object();
+	private List<PendingRequest> pendingRequests = new ArrayList<>();
+
+	/**
+	 * @param sender
+	 *            sends given request (or batch) in a single HTTP call
+	 */
+	public RpcRequestBatcher(Function<GmRpcClientRequestContext, ServiceResult> sender, long batchWindow, int maxBatchSize) {
+		this.sender = sender;
+		this.batchWindow = batchWindow;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * @return <tt>true</tt> iff given request is sent in the same way regardless of whether it is part of a batch or not, i.e. it is reasoned,
+	 *         has no response consumer and references no {@link TransientSource}s or {@link CallStreamCapture}s
+	 */
+	public static boolean isBatchable(GmRpcClientRequestContext requestContext) {
+		return requestContext.isReasoned() && //
+				requestContext.getResponseConsumer() == null && //
+				!requestContext.hasInputResources() && //
+				requestContext.getCallStreamCaptures().isEmpty();
+	}
+
+	/** @return <tt>true</tt> iff given context was created by this batcher for a batch, i.e. it's request is a batch {@link CompositeRequest} */
+	public static boolean isBatch(GmRpcClientRequestContext requestContext) {
+		return requestContext instanceof BatchRequestContext;
+	}
+
+	/**
+	 * Sends given {@link #isBatchable(GmRpcClientRequestContext) batchable} request, possibly together with other requests, and blocks until
+	 * its result is available.
+	 */
+	public ServiceResult send(GmRpcClientRequestContext requestContext) {
+		PendingRequest request = new PendingRequest(requestContext);
+
+		boolean leader;
+		synchronized (monitor) {
+			leader = pendingRequests.isEmpty();
+			pendingRequests.add(request);
+
+			if (pendingRequests.size() >= maxBatchSize)
+				monitor.notifyAll();
+		}
+
+		if (leader)
+			dispatch(awaitBatch());
+
+		return request.await();
+	}
+
+	private List<PendingRequest> awaitBatch() {
+		synchronized (monitor) {
+			long deadline = System.currentTimeMillis() + batchWindow;
+			long remaining = batchWindow;
+
+			while (pendingRequests.size() < maxBatchSize && remaining > 0) {
+				try {
+					monitor.wait(remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+				remaining = deadline - System.currentTimeMillis();
+			}
+
+			List<PendingRequest> batch = pendingRequests;
+			pendingRequests = new ArrayList<>();
+			return batch;
+		}
+	}
+
+	private void dispatch(List<PendingRequest> batch) {
+		List<ServiceResult> results;
+		try {
+			if (batch.size() == 1)
+				results = Collections.singletonList(sender.apply(batch.get(0).context));
+			else
+				results = sendBatch(batch);
+
+		} catch (Throwable t) {
+			for (PendingRequest request : batch)
+				request.fail(t);
+			return;
+		}
+
+		for (int i = 0; i < batch.size(); i++)
+			batch.get(i).succeed(results.get(i));
+	}
+
+	private List<ServiceResult> sendBatch(List<PendingRequest> batch) {
+		CompositeRequest compositeRequest = CompositeRequest.T.create();
+		compositeRequest.setContinueOnFailure(true);
+		for (PendingRequest request : batch)
+			compositeRequest.getRequests().add(request.context.getServiceRequest());
+
+		logger.trace(() -> "Sending a batch of " + batch.size() + " requests.");
+
+		ServiceResult result = sender.apply(new BatchRequestContext(compositeRequest, batch.get(0).context));
+
+		ResponseEnvelope envelope = result.asResponse();
+		if (envelope == null)
+			// the batch as a whole was not processed, so this result applies to every request
+			return Collections.nCopies(batch.size(), result);
+
+		CompositeResponse compositeResponse = (CompositeResponse) envelope.getResult();
+		List<ServiceResult> results = compositeResponse.getResults();
+		if (results.size() != batch.size())
+			throw new GmRpcException("Invalid response for a batch of " + batch.size() + " requests, it contains " + results.size() + " results.");
+
+		return results;
+	}
+
+	private static class BatchRequestContext extends GmRpcClientRequestContext {
+
+		public BatchRequestContext(CompositeRequest compositeRequest, GmRpcClientRequestContext leaderContext) {
+			super(compositeRequest, compositeRequest.entityType().getTypeSignature(), leaderContext.getClientLogger(), false);
+			setReasoned(true);
+			setAttributeContext(leaderContext.getAttributeContext());
+		}
+
+	}
+
+	private static class PendingRequest {
+
+		final GmRpcClientRequestContext context;
+
+		private final CountDownLatch latch = new CountDownLatch(1);
+		private ServiceResult result;
+		private Throwable error;
+
+		public PendingRequest(GmRpcClientRequestContext context) {
+			this.context = context;
+		}
+
+		public void succeed(ServiceResult result) {
+			this.result = result;
+			latch.countDown();
+		}
+
+		public void fail(Throwable error) {
+			this.error = error;
+			latch.countDown();
+		}
+
+		public ServiceResult await() {
+			try {
+				latch.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new GmRpcException("Interrupted while waiting for the result of a batched request: " + context.getServiceRequest(), e);
+			}
+
+			if (error instanceof RuntimeException)
+				throw (RuntimeException) error;
+			if (error instanceof Error)
+				throw (Error) error;
+			if (error != null)
+				throw new GmRpcException("Sending of a batched request failed: " + context.getServiceRequest(), error);
+
+			return result;
+		}
+
+	}
+
+}
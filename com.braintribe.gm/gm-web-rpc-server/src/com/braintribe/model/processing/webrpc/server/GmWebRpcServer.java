@@ -54,6 +54,7 @@ import com.braintribe.codec.marshaller.api.MarshallerRegistry;
 import com.braintribe.codec.marshaller.api.MarshallerRegistryEntry;
 import com.braintribe.codec.marshaller.api.OutputPrettiness;
 import com.braintribe.common.attribute.AttributeContext;
+import com.braintribe.gm.model.reason.Maybe;
 import com.braintribe.logging.Logger;
 import com.braintribe.model.generic.GenericEntity;
 import com.braintribe.model.generic.eval.EvalContext;
@@ -83,10 +84,14 @@ import com.braintribe.model.processing.webrpc.server.multipart.PartOutputStreamP
 import com.braintribe.model.processing.webrpc.server.multipart.TemporaryFileInputStreamSupplier;
 import com.braintribe.model.resource.CallStreamCapture;
 import com.braintribe.model.resource.source.TransientSource;
+import com.braintribe.model.service.api.CompositeRequest;
 import com.braintribe.model.service.api.ServiceRequest;
+import com.braintribe.model.service.api.result.CompositeResponse;
 import com.braintribe.model.service.api.result.Failure;
 import com.braintribe.model.service.api.result.ResponseEnvelope;
 import com.braintribe.model.service.api.result.ServiceResult;
+import com.braintribe.processing.async.api.PromiseState;
+import com.braintribe.processing.async.impl.HubPromise;
 import com.braintribe.utils.FileTools;
 import com.braintribe.utils.IOTools;
 import com.braintribe.utils.collection.impl.AttributeContexts;
@@ -265,15 +270,21 @@ public class GmWebRpcServer extends HttpServlet implements InitializationAware {
 					stopWatch.intermediate("Pre-flight");
 
 					boolean reasoned = Boolean.TRUE.toString().equals(httpRequest.getHeader(RpcHeaders.rpcReasoning.getHeaderName()));
+					boolean batch = Boolean.TRUE.toString().equals(httpRequest.getHeader(RpcHeaders.rpcBatch.getHeaderName()));
 
-					EvalContext<?> evalContext = request.eval(evaluator) //
-							.with(ParentAttributeContextAspect.class, attributeContext) //
-							.with(ResponseConsumerAspect.class, responseMarshaller::marshallEagerlyReturnedValue);
+					if (batch && request instanceof CompositeRequest) {
+						returnValue = evaluateBatch((CompositeRequest) request, attributeContext, reasoned);
 
-					if (reasoned) {
-						returnValue = ServiceResults.fromMaybe(evalContext.getReasoned());
 					} else {
-						returnValue = ServiceResults.envelope(evalContext.get());
+						EvalContext<?> evalContext = request.eval(evaluator) //
+								.with(ParentAttributeContextAspect.class, attributeContext) //
+								.with(ResponseConsumerAspect.class, responseMarshaller::marshallEagerlyReturnedValue);
+
+						if (reasoned) {
+							returnValue = ServiceResults.fromMaybe(evalContext.getReasoned());
+						} else {
+							returnValue = ServiceResults.envelope(evalContext.get());
+						}
 					}
 
 					stopWatch.intermediate("Processing");
@@ -350,6 +361,45 @@ public class GmWebRpcServer extends HttpServlet implements InitializationAware {
 
 	}
 
+	/**
+	 * Evaluates the requests of given batch (see {@link RpcHeaders#rpcBatch}) independently of each other and in parallel, as if each of them
+	 * was sent in a separate call, and returns a {@link CompositeResponse} with the corresponding {@link ServiceResult}s.
+	 */
+	private ServiceResult evaluateBatch(CompositeRequest batch, AttributeContext attributeContext, boolean reasoned) {
+		List<ServiceRequest> requests = batch.getRequests();
+		List<HubPromise<Maybe<?>>> promises = new ArrayList<>(requests.size());
+
+		for (ServiceRequest request : requests) {
+			HubPromise<Maybe<?>> promise = new HubPromise<>();
+			request.eval(evaluator) //
+					.with(ParentAttributeContextAspect.class, attributeContext) //
+					.getReasoned(promise);
+
+			promises.add(promise);
+		}
+
+		CompositeResponse response = CompositeResponse.T.create();
+		for (HubPromise<Maybe<?>> promise : promises)
+			response.getResults().add(toServiceResult(promise, reasoned));
+
+		return ServiceResults.envelope(response);
+	}
+
+	private ServiceResult toServiceResult(HubPromise<Maybe<?>> promise, boolean reasoned) {
+		if (promise.waitFor() != PromiseState.done)
+			return ServiceResults.encodeFailure(promise.getError());
+
+		Maybe<?> maybe = promise.getResult();
+		if (reasoned)
+			return ServiceResults.fromMaybe(maybe);
+
+		try {
+			return ServiceResults.envelope(maybe.get());
+		} catch (RuntimeException e) {
+			return ServiceResults.encodeFailure(e);
+		}
+	}
+
 	private void checkOpenCaptures(ServiceRequest request, List<PartOutputStreamProvider> captureOutputStreamProviders) {
 		List<PartOutputStreamProvider> openedProviders = null;
 
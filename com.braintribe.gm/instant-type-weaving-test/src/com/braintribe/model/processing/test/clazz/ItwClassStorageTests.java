@@ -0,0 +1,191 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.test.clazz;
+
+import static com.braintribe.model.generic.builder.meta.MetaModelBuilder.entityType;
+import static com.braintribe.model.generic.builder.meta.MetaModelBuilder.property;
+import static com.braintribe.model.generic.builder.meta.MetaModelBuilder.stringType;
+import static com.braintribe.utils.lcd.CollectionTools2.asList;
+import static com.braintribe.utils.lcd.CollectionTools2.asSet;
+import static com.braintribe.utils.lcd.CollectionTools2.newList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.braintribe.model.access.ClassDataStorage;
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.generic.value.EnumReference;
+import com.braintribe.model.meta.GmEntityType;
+import com.braintribe.model.meta.GmMetaModel;
+import com.braintribe.model.meta.GmProperty;
+import com.braintribe.model.processing.ImportantItwTestSuperType;
+import com.braintribe.model.processing.itw.synthesis.gm.GenericModelTypeSynthesis;
+import com.braintribe.model.processing.itw.synthesis.java.clazz.ClassStorageManager;
+import com.braintribe.model.processing.itw.synthesis.java.clazz.FileSystemClassDataStorage;
+import com.braintribe.model.processing.itw.synthesis.java.clazz.ModelStructureHash;
+import com.braintribe.model.processing.meta.oracle.BasicModelOracle;
+import com.braintribe.model.util.meta.NewMetaModelGeneration;
+import com.braintribe.utils.FileTools;
+
+/**
+ * Tests for the model-hash based handling of stored classes, see {@link ModelStructureHash}.
+ */
+public class ItwClassStorageTests extends ImportantItwTestSuperType {
+
+	private static final String MODEL_NAME = "test:ItwClassStorageModel";
+	private static final String CAT_SIGNATURE = ItwClassStorageTests.class.getPackage().getName() + ".model.Cat";
+	private static final String COLOR_SIGNATURE = ItwClassStorageTests.class.getPackage().getName() + ".model.Color";
+	private static final String LOADED_CLASS_NAME = GmMetaModel.class.getName();
+	private static final Object NO_PROPERTY = new Object();
+
+	private final GenericModelTypeSynthesis gmts = GenericModelTypeSynthesis.standardInstance();
+
+	private File classFolder;
+
+	@Before
+	public void configureClassFolder() throws Exception {
+		classFolder = Files.createTempDirectory("itw-class-storage").toFile();
+		gmts.setClassOutputFolder(classFolder);
+	}
+
+	@After
+	public void resetClassFolder() {
+		gmts.setClassDataStorage(null);
+		FileTools.deleteDirectoryRecursivelyUnchecked(classFolder);
+	}
+
+	@Test
+	public void hashReflectsModelStructure() throws Exception {
+		String hash = hashOf(provideModel(false));
+
+		assertThat(hashOf(provideModel(false))).isEqualTo(hash);
+		assertThat(hashOf(provideModel(true))).isNotEqualTo(hash);
+	}
+
+	@Test
+	public void hashReflectsValueDescriptorInitializers() throws Exception {
+		String hash = hashOf(provideModel(EnumReference.create(COLOR_SIGNATURE, "black")));
+
+		assertThat(hashOf(provideModel(EnumReference.create(COLOR_SIGNATURE, "black")))).isEqualTo(hash);
+		assertThat(hashOf(provideModel(EnumReference.create(COLOR_SIGNATURE, "white")))).isNotEqualTo(hash);
+	}
+
+	@Test
+	public void storesModelHashWithClasses() throws Exception {
+		int wovenEntityTypes = gmts.getWovenEntityTypesCount();
+
+		gmts.ensureModelTypes(provideModel(false));
+
+		assertThat(gmts.getWovenEntityTypesCount()).isEqualTo(wovenEntityTypes + 1);
+		assertThat(new File(classFolder, CAT_SIGNATURE).exists()).isTrue();
+
+		FileSystemClassDataStorage storage = new FileSystemClassDataStorage(classFolder);
+		assertThat(storage.getModelHash(MODEL_NAME)).isEqualTo(hashOf(provideModel(false)));
+
+		ClassStorageManager classStorageManager = new ClassStorageManager(storage);
+		assertThat(classStorageManager.checkStoredModel(MODEL_NAME, hashOf(provideModel(false)), asList(CAT_SIGNATURE))).isTrue();
+		assertThat(classStorageManager.checkStoredModel(MODEL_NAME, hashOf(provideModel(true)), asList(CAT_SIGNATURE))).isFalse();
+	}
+
+	@Test
+	public void reusesUpToDateLoadedClasses() throws Exception {
+		GmMetaModel model = provideLoadedModel();
+		RecordingClassDataStorage storage = new RecordingClassDataStorage(hashOf(model));
+
+		GenericModelTypeSynthesis gmts = GenericModelTypeSynthesis.newInstance();
+		gmts.setClassDataStorage(storage);
+		gmts.ensureModelTypes(model);
+
+		assertThat(gmts.getReusedStoredClassesCount()).isEqualTo(1);
+		assertThat(storage.storedClassNames).isEmpty();
+	}
+
+	@Test
+	public void weavesOutdatedLoadedClassesAgain() throws Exception {
+		GmMetaModel model = provideLoadedModel();
+		RecordingClassDataStorage storage = new RecordingClassDataStorage("outdated-hash");
+
+		GenericModelTypeSynthesis gmts = GenericModelTypeSynthesis.newInstance();
+		gmts.setClassDataStorage(storage);
+		gmts.ensureModelTypes(model);
+
+		assertThat(gmts.getReusedStoredClassesCount()).isZero();
+		assertThat(storage.storedClassNames).containsExactly(LOADED_CLASS_NAME);
+	}
+
+	private static GmMetaModel provideLoadedModel() {
+		return new NewMetaModelGeneration().buildMetaModel(MODEL_NAME, asList(GmMetaModel.T));
+	}
+
+	/**
+	 * Pretends {@link GmMetaModel} (which is on the classpath, thus already loaded) is a class stored for {@link #MODEL_NAME} with given hash, i.e.
+	 * a class injected by ITW.
+	 */
+	private static class RecordingClassDataStorage implements ClassDataStorage {
+		private final String modelHash;
+		private final List<String> storedClassNames = newList();
+
+		public RecordingClassDataStorage(String modelHash) {
+			this.modelHash = modelHash;
+		}
+
+		@Override
+		public void storeClass(String qualifiedName, InputStream inputStream, Set<String> dependencies) {
+			storedClassNames.add(qualifiedName);
+		}
+
+		@Override
+		public Set<String> getQualifiedNamesOfStoredClasses() {
+			return asSet(LOADED_CLASS_NAME);
+		}
+
+		@Override
+		public String getModelHash(String modelName) {
+			return MODEL_NAME.equals(modelName) ? modelHash : null;
+		}
+	}
+
+	private static String hashOf(GmMetaModel model) {
+		return new ModelStructureHash().of(model);
+	}
+
+	private static GmMetaModel provideModel(boolean includeExtraProperty) {
+		return provideModel(includeExtraProperty ? null : NO_PROPERTY);
+	}
+
+	private static GmMetaModel provideModel(Object breedInitializer) {
+		GmMetaModel metaModel = new NewMetaModelGeneration().buildMetaModel(MODEL_NAME, asList(GenericEntity.T));
+
+		GmEntityType geType = new BasicModelOracle(metaModel).findGmType(GenericEntity.T);
+		GmEntityType catType = entityType(CAT_SIGNATURE, Arrays.asList(geType));
+
+		if (breedInitializer != NO_PROPERTY) {
+			GmProperty breed = property(catType, "breed", stringType());
+			breed.setInitializer(breedInitializer);
+			catType.setProperties(Arrays.asList(breed));
+		}
+
+		metaModel.getTypes().add(catType);
+
+		return metaModel;
+	}
+
+}
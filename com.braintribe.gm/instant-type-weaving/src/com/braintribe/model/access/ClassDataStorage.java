@@ -19,5 +19,18 @@ public interface ClassDataStorage {
 	public void storeClass(String qualifiedName, InputStream inputStream, Set<String> dependencies) throws Exception;
 		
 	public Set<String> getQualifiedNamesOfStoredClasses() throws Exception;
-	
+
+	/**
+	 * Returns the hash of the model structure the stored classes of given model were created for (see {@link #storeModelHash(String, String)}), or
+	 * <tt>null</tt> if unknown or not supported by this storage.
+	 */
+	public default String getModelHash(String modelName) throws Exception {
+		return null;
+	}
+
+	/** Remembers the hash of the model structure the classes of given model were just stored for. Storages might not support this and ignore it. */
+	public default void storeModelHash(String modelName, String modelHash) throws Exception {
+		// not supported
+	}
+
 }
@@ -171,7 +171,7 @@ public class AsmClassPool {
 		if (clazz == null)
 			return null;
 
-		if (classMayBeIgnored(clazz) && (!considerClassPath || wasInjectedByItw(clazz.getName())))
+		if (classMayBeIgnored(clazz) && (!considerClassPath || wasInjectedByItw(className)) && !isUpToDateInjectedClass(className))
 			return null;
 
 		return addCacheEntryFor(clazz);
@@ -260,8 +260,9 @@ public class AsmClassPool {
 	 * Returns <tt>true</tt> iff given class comes from the configured class storage and it was already loaded with the system class-loader (probably
 	 * using {@link FolderClassLoader}). This is useful for following situations:
 	 * <ol>
-	 * <li>In the {@link #getIfPresent(String)} method, when our {@link AsmClass} does not exist yet, we make sure that we always return <tt>null</tt>
-	 * for classes injected by ITW (thus achieving that new bytecode will be created)</li>
+	 * <li>In the {@link #getIfPresent(String)} method, when our {@link AsmClass} does not exist yet, we make sure that we return <tt>null</tt> for
+	 * classes injected by ITW (thus achieving that new bytecode will be created), unless they are known to be up to date (see
+	 * {@link #isUpToDateInjectedClass(String)})</li>
 	 * <li>In the {@link #registerFinishedNewClass(AsmLoadableClass)} method, we make sure we do not register a already-loaded class for the
 	 * class-loader, because loading would fail (class already loaded). This is a fix for previous point, where we cause new class to be created for
 	 * one that is already loaded.</li>
@@ -274,6 +275,14 @@ public class AsmClassPool {
 		return classStorageManager != null && classStorageManager.containsLoadedClass(className);
 	}
 
+	/**
+	 * Returns <tt>true</tt> iff given class was injected by ITW and the stored classes of its model were created for the very same model structure
+	 * (see {@link ClassStorageManager#checkStoredModel}). Such a class is used as is, i.e. no new bytecode is created for it.
+	 */
+	private boolean isUpToDateInjectedClass(String className) {
+		return classStorageManager != null && classStorageManager.reuseLoadedClassIfUpToDate(className);
+	}
+
 	private <T> Class<T> getJvmClass(String name) throws JavaTypeSynthesisException {
 		try {
 			return classLoading.getJvmClass(name);
@@ -291,4 +300,8 @@ public class AsmClassPool {
 	public boolean hasClassStorageManager() {
 		return classStorageManager != null;
 	}
+
+	public ClassStorageManager getClassStorageManager() {
+		return classStorageManager;
+	}
 }
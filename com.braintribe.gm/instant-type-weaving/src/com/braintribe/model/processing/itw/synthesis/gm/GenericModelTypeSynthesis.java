@@ -31,6 +31,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
@@ -74,6 +76,8 @@ import com.braintribe.model.processing.itw.synthesis.java.JavaTypeSynthesis;
 import com.braintribe.model.processing.itw.synthesis.java.JavaTypeSynthesisException;
 import com.braintribe.model.processing.itw.synthesis.java.PropertyAnalysis.PropertyDescription;
 import com.braintribe.model.processing.itw.synthesis.java.TmpJtsTracker;
+import com.braintribe.model.processing.itw.synthesis.java.clazz.ClassStorageManager;
+import com.braintribe.model.processing.itw.synthesis.java.clazz.ModelStructureHash;
 import com.braintribe.model.processing.itw.tools.ItwTools;
 import com.braintribe.model.weaving.ProtoGmCollectionType;
 import com.braintribe.model.weaving.ProtoGmEntityType;
@@ -103,6 +107,10 @@ public class GenericModelTypeSynthesis extends JavaTypeSynthesis {
 
 	private final DefaultMethodsSupport defaultMethodsSupport = new DefaultMethodsSupport();
 
+	private final AtomicInteger wovenEntityTypes = new AtomicInteger();
+	private final AtomicInteger wovenEnumTypes = new AtomicInteger();
+	private final AtomicLong modelTypesEnsuringNanos = new AtomicLong();
+
 	private static final Logger log = Logger.getLogger(GenericModelTypeSynthesis.class);
 
 	private GenericModelTypeSynthesis() {
@@ -130,15 +138,53 @@ public class GenericModelTypeSynthesis extends JavaTypeSynthesis {
 	public void ensureModelTypes(ProtoGmMetaModel gmModel) throws GenericModelTypeSynthesisException {
 		GmtsMetaModelValidator.validate(gmModel);
 
+		long start = System.nanoTime();
 		try {
-			_tryEnsuringModelTypes(gmModel, newSet());
+			_tryEnsuringModelTypes(gmModel, newSet(), asmClassPool.hasClassStorageManager() ? new ModelStructureHash() : null);
 
 		} catch (Exception e) {
 			throw new GenericModelTypeSynthesisException(
 					"Error while ensuring types for model with name: " + (gmModel != null ? gmModel.getName() : "null"), e);
+
+		} finally {
+			logEnsuringModelTypes(gmModel, System.nanoTime() - start);
 		}
 	}
 
+	private void logEnsuringModelTypes(ProtoGmMetaModel gmModel, long nanos) {
+		modelTypesEnsuringNanos.addAndGet(nanos);
+
+		if (log.isDebugEnabled())
+			log.debug("Ensured types of model '" + (gmModel != null ? gmModel.getName() : "null") + "' in " + nanos / 1_000_000 + " ms. So far woven "
+					+ wovenEntityTypes.get() + " entity types and " + wovenEnumTypes.get() + " enum types, reused " + getReusedStoredClassesCount()
+					+ " up-to-date stored classes.");
+	}
+
+	/** Returns the number of entity types woven by this instance so far. */
+	public int getWovenEntityTypesCount() {
+		return wovenEntityTypes.get();
+	}
+
+	/** Returns the number of enum types woven by this instance so far. */
+	public int getWovenEnumTypesCount() {
+		return wovenEnumTypes.get();
+	}
+
+	/**
+	 * Returns the number of stored classes which were already loaded and used as they are, as they were up to date, rather than weaving them again.
+	 * 
+	 * @see ClassStorageManager#reuseLoadedClassIfUpToDate(String)
+	 */
+	public int getReusedStoredClassesCount() {
+		ClassStorageManager classStorageManager = asmClassPool.getClassStorageManager();
+		return classStorageManager == null ? 0 : classStorageManager.getReusedClassesCount();
+	}
+
+	/** Returns the total time in milliseconds spent in {@link #ensureModelTypes(ProtoGmMetaModel)} of this instance so far. */
+	public long getModelTypesEnsuringTimeMillis() {
+		return modelTypesEnsuringNanos.get() / 1_000_000;
+	}
+
 	public void ensureModelTypes(ProtoGmMetaModel gmModel, AsyncCallback<Void> asyncCallback) {
 		try {
 			ensureModelTypes(gmModel);
@@ -161,15 +207,31 @@ public class GenericModelTypeSynthesis extends JavaTypeSynthesis {
 		ensureModelTypes((ProtoGmMetaModel) gmModel, asyncCallback);
 	}
 
-	private void _tryEnsuringModelTypes(ProtoGmMetaModel gmModel, Set<ProtoGmMetaModel> ensuredModels) throws GenericModelTypeSynthesisException {
+	/** @param modelStructureHash non-<tt>null</tt> iff a {@link ClassStorageManager} is configured */
+	private void _tryEnsuringModelTypes(ProtoGmMetaModel gmModel, Set<ProtoGmMetaModel> ensuredModels, ModelStructureHash modelStructureHash)
+			throws GenericModelTypeSynthesisException {
+
 		if (!ensuredModels.add(gmModel))
 			return;
 
 		for (ProtoGmMetaModel dependency : nullSafe(gmModel.getDependencies()))
-			_tryEnsuringModelTypes(dependency, ensuredModels);
+			_tryEnsuringModelTypes(dependency, ensuredModels, modelStructureHash);
 
 		Set<? extends ProtoGmType> types = gmModel.getTypes();
 
+		ClassStorageManager classStorageManager = asmClassPool.getClassStorageManager();
+		String modelHash = null;
+		if (modelStructureHash != null && classStorageManager != null) {
+			modelHash = modelStructureHash.of(gmModel);
+
+			List<String> typeSignatures = nullSafe(types).stream() //
+					.map(ProtoGmType::getTypeSignature) //
+					.collect(Collectors.toList());
+
+			if (classStorageManager.checkStoredModel(gmModel.getName(), modelHash, typeSignatures))
+				modelHash = null; // stored classes are up to date, no need to store the hash again
+		}
+
 		/* IMPORTANT: We have to ensure enums first, because the initializers (default values) for enum properties of entities
 		 * might have these enum constants set. So they have to be accessible via reflection by the initializerString parser */
 
@@ -188,6 +250,9 @@ public class GenericModelTypeSynthesis extends JavaTypeSynthesis {
 
 		for (ProtoGmType entityType : entityTypes)
 			_ensureEntityType((ProtoGmEntityType) entityType);
+
+		if (modelHash != null)
+			classStorageManager.onModelWoven(gmModel.getName(), modelHash);
 	}
 
 	private final ReentrantLock enumTypeLock = new ReentrantLock();
@@ -211,7 +276,10 @@ public class GenericModelTypeSynthesis extends JavaTypeSynthesis {
 				AsmClass enumAsmClass = ensureEnumClass(gmEnumType);
 				Class<? extends Enum<?>> enumClass = getJavaClass(enumAsmClass);
 
-				return typeReflection.deployEnumType(enumClass);
+				enumType = typeReflection.deployEnumType(enumClass);
+				wovenEnumTypes.incrementAndGet();
+
+				return enumType;
 			} finally {
 				enumTypeLock.unlock();
 			}
@@ -425,6 +493,7 @@ public class GenericModelTypeSynthesis extends JavaTypeSynthesis {
 			finalizeEnhancedEntityClass(gmEntityType, pet);
 
 			pet.entityType = finalizeEntityTypeImplementation(pet);
+			wovenEntityTypes.incrementAndGet();
 
 			return pet;
 
@@ -488,8 +557,13 @@ public class GenericModelTypeSynthesis extends JavaTypeSynthesis {
 	private Map<String, AsmClass> getTransientPropertiesFor(ProtoGmEntityType gmEntityType) {
 		if (gmEntityType == null) // superType of GenericEntity
 			return emptyMap();
-		else
-			return transientPropertiesForType.computeIfAbsent(gmEntityType.getTypeSignature(), s -> scanTransientProperties(gmEntityType));
+
+		// no computeIfAbsent, scanning is recursive (for super-types), which the HashMap does not allow
+		Map<String, AsmClass> result = transientPropertiesForType.get(gmEntityType.getTypeSignature());
+		if (result == null)
+			transientPropertiesForType.put(gmEntityType.getTypeSignature(), result = scanTransientProperties(gmEntityType));
+
+		return result;
 	}
 
 	private Map<String, AsmClass> scanTransientProperties(ProtoGmEntityType gmEntityType) {
@@ -15,9 +15,12 @@ import static com.braintribe.utils.lcd.CollectionTools2.asSet;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.braintribe.logging.Logger;
 import com.braintribe.model.access.ClassDataStorage;
@@ -26,12 +29,19 @@ import com.braintribe.model.processing.itw.asm.AsmNewClass;
 import com.braintribe.model.processing.itw.tools.ItwTools;
 
 /**
- * 
+ * Stores the classes created by ITW in given {@link ClassDataStorage} and provides access to the stored classes which were already loaded.
+ * <p>
+ * The classes are stored per model together with the {@link ModelStructureHash hash} of the model they were created for (see
+ * {@link #checkStoredModel(String, String, Collection)}), so that up-to-date classes are not written again (nor woven again, if already loaded),
+ * and outdated ones are recognized and replaced.
  */
 public class ClassStorageManager {
 
 	private final ClassDataStorage classDataStorage;
 	private final Map<String, Class<?>> loadedClasses;
+	private final Set<String> upToDateTypeSignatures = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger reusedClasses = new AtomicInteger();
+	private Set<String> storedClassNames;
 
 	private static final Logger log = Logger.getLogger(ClassStorageManager.class);
 
@@ -43,7 +53,9 @@ public class ClassStorageManager {
 	}
 
 	private void indexFiles() {
-		for (String className: listStoredClassNames())
+		storedClassNames = listStoredClassNames();
+
+		for (String className: storedClassNames)
 			registerClass(className);
 	}
 
@@ -66,7 +78,52 @@ public class ClassStorageManager {
 		return ItwTools.findClass(className);
 	}
 
+	/**
+	 * Checks whether the classes stored for given model were created for the same model structure, i.e. whether given hash is equal to the one
+	 * stored via {@link #onModelWoven(String, String)}. If yes, classes created for given types are not stored again, and those which were already
+	 * loaded are used as they are, without creating new bytecode for them (see {@link #reuseLoadedClassIfUpToDate(String)}).
+	 * 
+	 * @return <tt>true</tt> iff the stored classes of given model are up to date
+	 */
+	public boolean checkStoredModel(String modelName, String modelHash, Collection<String> typeSignatures) {
+		String storedHash = getStoredModelHash(modelName);
+
+		if (!modelHash.equals(storedHash)) {
+			if (storedHash != null)
+				log.info("Stored classes of model '" + modelName + "' are outdated, they will be replaced with newly woven ones."
+						+ (typeSignatures.stream().anyMatch(loadedClasses::containsKey)
+								? " As some of the outdated classes are already loaded, the new ones will only be used after a restart." : ""));
+			return false;
+		}
+
+		upToDateTypeSignatures.addAll(typeSignatures);
+		return true;
+	}
+
+	private String getStoredModelHash(String modelName) {
+		try {
+			return classDataStorage.getModelHash(modelName);
+
+		} catch (Exception e) {
+			log.warn("Unable to retrieve the stored hash of model: " + modelName, e);
+			return null;
+		}
+	}
+
+	/** Remembers given hash for given model, which is then compared in {@link #checkStoredModel(String, String, Collection)}. */
+	public void onModelWoven(String modelName, String modelHash) {
+		try {
+			classDataStorage.storeModelHash(modelName, modelHash);
+
+		} catch (Exception e) {
+			log.error("Error while trying to store hash of model: " + modelName, e);
+		}
+	}
+
 	public void onClassCreated(AsmNewClass newClass) {
+		if (isStoredAndUpToDate(newClass.getName()))
+			return;
+
 		if (classDataStorage instanceof FileSystemClassDataStorage) {
 			((FileSystemClassDataStorage) classDataStorage).storeClass(newClass);
 			return;
@@ -80,6 +137,20 @@ public class ClassStorageManager {
 		}
 	}
 
+	private boolean isStoredAndUpToDate(String className) {
+		return storedClassNames.contains(className) && upToDateTypeSignatures.contains(ownerTypeSignature(className));
+	}
+
+	/** ITW class names are type signatures, type signatures with a suffix like "-plain", or "${package}.${property}--${simpleName}". */
+	private static String ownerTypeSignature(String className) {
+		int i = className.indexOf("--");
+		if (i >= 0)
+			return className.substring(0, className.lastIndexOf('.', i) + 1) + className.substring(i + 2);
+
+		i = className.indexOf('-');
+		return i < 0 ? className : className.substring(0, i);
+	}
+
 	private InputStream bytecodeInputStream(AsmNewClass newClass) {
 		return new ByteArrayInputStream(newClass.getBytes());
 	}
@@ -93,6 +164,23 @@ public class ClassStorageManager {
 		return result;
 	}
 
+	/**
+	 * Returns <tt>true</tt> iff given class was already loaded and its model was {@link #checkStoredModel checked} to be up to date, in which case
+	 * the caller is expected to use the loaded class rather than creating new bytecode for it.
+	 */
+	public boolean reuseLoadedClassIfUpToDate(String className) {
+		if (!loadedClasses.containsKey(className) || !upToDateTypeSignatures.contains(ownerTypeSignature(className)))
+			return false;
+
+		reusedClasses.incrementAndGet();
+		return true;
+	}
+
+	/** Returns the number of loaded classes which were used as they are, see {@link #reuseLoadedClassIfUpToDate(String)}. */
+	public int getReusedClassesCount() {
+		return reusedClasses.get();
+	}
+
 	public boolean containsLoadedClass(String className) {
 		return loadedClasses.containsKey(className);
 	}
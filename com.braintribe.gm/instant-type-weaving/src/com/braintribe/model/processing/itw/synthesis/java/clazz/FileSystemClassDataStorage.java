@@ -12,9 +12,13 @@
 package com.braintribe.model.processing.itw.synthesis.java.clazz;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Properties;
 import java.util.Set;
 
 import com.braintribe.model.access.ClassDataStorage;
@@ -23,16 +27,23 @@ import com.braintribe.model.processing.itw.synthesis.java.JavaTypeSynthesisRunti
 import com.braintribe.utils.FileTools;
 
 /**
- * 
+ * Stores every class as a file named after the class directly in given folder. The {@link #storeModelHash(String, String) model hashes} are kept
+ * in a properties file inside the {@value #MODEL_HASHES_FOLDER} sub-folder, so that it is not mistaken for a class file.
  */
 public class FileSystemClassDataStorage implements ClassDataStorage {
 
+	public static final String MODEL_HASHES_FOLDER = ".itw";
+	private static final String MODEL_HASHES_FILE = "model-hashes.properties";
+
 	private final File folder;
+	private final File modelHashesFile;
+	private Properties modelHashes;
 	private final Set<String> existingClasses;
 	private final Set<String> readOnly_ExistingClasses;
 
 	public FileSystemClassDataStorage(File folder) {
 		this.folder = folder;
+		this.modelHashesFile = new File(new File(folder, MODEL_HASHES_FOLDER), MODEL_HASHES_FILE);
 		this.existingClasses = new HashSet<String>();
 		this.readOnly_ExistingClasses = Collections.unmodifiableSet(existingClasses);
 
@@ -80,4 +91,32 @@ public class FileSystemClassDataStorage implements ClassDataStorage {
 		return readOnly_ExistingClasses;
 	}
 
+	@Override
+	public synchronized String getModelHash(String modelName) throws Exception {
+		return modelHashes().getProperty(modelName);
+	}
+
+	@Override
+	public synchronized void storeModelHash(String modelName, String modelHash) throws Exception {
+		modelHashes().setProperty(modelName, modelHash);
+
+		FileTools.ensureDirectoryExists(modelHashesFile.getParentFile());
+		try (OutputStream out = new FileOutputStream(modelHashesFile)) {
+			modelHashes.store(out, "Structure hashes of models whose classes are stored in this folder.");
+		}
+	}
+
+	private Properties modelHashes() throws Exception {
+		if (modelHashes == null) {
+			modelHashes = new Properties();
+
+			if (modelHashesFile.isFile())
+				try (InputStream in = new FileInputStream(modelHashesFile)) {
+					modelHashes.load(in);
+				}
+		}
+
+		return modelHashes;
+	}
+
 }
@@ -0,0 +1,139 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.itw.synthesis.java.clazz;
+
+import static com.braintribe.utils.lcd.CollectionTools2.nullSafe;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.braintribe.model.processing.itw.InitializerTools;
+import com.braintribe.model.weaving.ProtoGmEntityType;
+import com.braintribe.model.weaving.ProtoGmEnumConstant;
+import com.braintribe.model.weaving.ProtoGmEnumType;
+import com.braintribe.model.weaving.ProtoGmMetaModel;
+import com.braintribe.model.weaving.ProtoGmProperty;
+import com.braintribe.model.weaving.ProtoGmType;
+import com.braintribe.model.weaving.info.ProtoGmPropertyInfo;
+import com.braintribe.model.weaving.override.ProtoGmPropertyOverride;
+
+/**
+ * Computes a hash of the structure of a {@link ProtoGmMetaModel}, i.e. of everything which influences the bytecode woven for its types - the
+ * signatures of the types, their super-types, properties (incl. their types and initializers) and enum constants. The hash of a model also
+ * covers the hashes of all its dependencies, as the classes of a sub-type implement the properties inherited from other models.
+ * <p>
+ * The result is used by the {@link ClassStorageManager} to recognize whether the stored classes of a model are still up to date.
+ * <p>
+ * Instances are meant to be used for a single weaving run only and are NOT thread-safe.
+ */
+public class ModelStructureHash {
+
+	private final Map<ProtoGmMetaModel, String> modelHashes = new IdentityHashMap<>();
+
+	public String of(ProtoGmMetaModel gmModel) {
+		String result = modelHashes.get(gmModel);
+		if (result == null) {
+			modelHashes.put(gmModel, "<cycle>");
+			modelHashes.put(gmModel, result = computeHash(gmModel));
+		}
+
+		return result;
+	}
+
+	private String computeHash(ProtoGmMetaModel gmModel) {
+		MessageDigest digest = newDigest();
+
+		update(digest, gmModel.getName());
+
+		for (ProtoGmMetaModel dependency : nullSafe(gmModel.getDependencies()))
+			update(digest, of(dependency));
+
+		List<? extends ProtoGmType> types = nullSafe(gmModel.getTypes()).stream() //
+				.sorted(Comparator.comparing(ProtoGmType::getTypeSignature)) //
+				.collect(Collectors.toList());
+
+		for (ProtoGmType gmType : types) {
+			if (gmType instanceof ProtoGmEntityType)
+				updateEntityType(digest, (ProtoGmEntityType) gmType);
+			else if (gmType instanceof ProtoGmEnumType)
+				updateEnumType(digest, (ProtoGmEnumType) gmType);
+		}
+
+		return toHex(digest.digest());
+	}
+
+	private void updateEntityType(MessageDigest digest, ProtoGmEntityType gmEntityType) {
+		update(digest, "entity:" + gmEntityType.getTypeSignature() + ":" + gmEntityType.getIsAbstract());
+
+		for (ProtoGmEntityType superType : nullSafe(gmEntityType.getSuperTypes()))
+			update(digest, "super:" + superType.getTypeSignature());
+
+		for (ProtoGmProperty gmProperty : nullSafe(gmEntityType.getProperties()))
+			update(digest, "property:" + gmProperty.getName() + ":" + signatureOf(gmProperty.getType()) + ":" + gmProperty.getNullable() + ":"
+					+ initializerOf(gmProperty));
+
+		for (ProtoGmPropertyOverride gmOverride : nullSafe(gmEntityType.getPropertyOverrides()))
+			update(digest, "override:" + gmOverride.getProperty().getName() + ":" + initializerOf(gmOverride));
+
+		update(digest, "evaluatesTo:" + signatureOf(gmEntityType.getEvaluatesTo()));
+	}
+
+	private void updateEnumType(MessageDigest digest, ProtoGmEnumType gmEnumType) {
+		update(digest, "enum:" + gmEnumType.getTypeSignature());
+
+		for (ProtoGmEnumConstant gmConstant : nullSafe(gmEnumType.getConstants()))
+			update(digest, "constant:" + gmConstant.getName());
+	}
+
+	private static String signatureOf(ProtoGmType gmType) {
+		return gmType == null ? null : gmType.getTypeSignature();
+	}
+
+	/**
+	 * Initializers are represented by the same string which ends up in the woven {@code @Initializer} annotation (see
+	 * {@link InitializerTools#stringifyInitializer(Object)}), so that e.g. two enum references pointing to different constants lead to different
+	 * hashes.
+	 */
+	private static String initializerOf(ProtoGmPropertyInfo propertyInfo) {
+		Object initializer = propertyInfo.getInitializer();
+		return initializer == null ? null : InitializerTools.stringifyInitializer(initializer);
+	}
+
+	private static void update(MessageDigest digest, String s) {
+		digest.update(String.valueOf(s).getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported by this JVM.", e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder sb = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes)
+			sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,35 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.codec.marshaller.benchmark;
+
+/**
+ * Value to be marshalled by the {@link MarshallerBenchmark}, together with the number of entities it consists of.
+ */
+public class BenchmarkGraph {
+
+	private final Object value;
+	private final int entityCount;
+
+	public BenchmarkGraph(Object value, int entityCount) {
+		this.value = value;
+		this.entityCount = entityCount;
+	}
+
+	public Object getValue() {
+		return value;
+	}
+
+	public int getEntityCount() {
+		return entityCount;
+	}
+
+}
@@ -0,0 +1,56 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.codec.marshaller.benchmark;
+
+import java.util.function.Supplier;
+
+import com.braintribe.codec.marshaller.api.Marshaller;
+import com.braintribe.codec.marshaller.bin.Bin2Marshaller;
+import com.braintribe.codec.marshaller.bin.BinMarshaller;
+import com.braintribe.codec.marshaller.dom.DomMarshaller;
+import com.braintribe.codec.marshaller.jse.JseMarshaller;
+import com.braintribe.codec.marshaller.json.JsonStreamMarshaller;
+import com.braintribe.codec.marshaller.stax.StaxMarshaller;
+import com.braintribe.codec.marshaller.yaml.YamlMarshaller;
+
+/**
+ * The {@link Marshaller}s covered by the {@link MarshallerBenchmark}, each configured the way it is used by default.
+ */
+public enum BenchmarkMarshaller {
+
+	BIN2(Bin2Marshaller::new),
+	BIN(BinMarshaller::new),
+	JSON(JsonStreamMarshaller::new),
+	STAX(StaxMarshaller::new),
+	YAML(YamlMarshaller::new),
+	/** {@link YamlMarshaller} which writes the entities into a pool (via the <tt>PooledStatefulYamlMarshaller</tt>). */
+	YAML_POOLED(BenchmarkMarshaller::pooledYamlMarshaller),
+	DOM(DomMarshaller::new),
+	JSE(JseMarshaller::new);
+
+	private final Supplier<Marshaller> factory;
+
+	private BenchmarkMarshaller(Supplier<Marshaller> factory) {
+		this.factory = factory;
+	}
+
+	public Marshaller create() {
+		return factory.get();
+	}
+
+	private static Marshaller pooledYamlMarshaller() {
+		YamlMarshaller result = new YamlMarshaller();
+		result.setWritePooled(true);
+		return result;
+	}
+
+}
@@ -0,0 +1,161 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.codec.marshaller.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.braintribe.model.generic.GMF;
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.generic.reflection.EntityType;
+import com.braintribe.testing.model.test.technical.features.CollectionEntity;
+import com.braintribe.testing.model.test.technical.features.ComplexEntity;
+import com.braintribe.testing.model.test.technical.features.SimpleEntity;
+import com.braintribe.testing.model.test.technical.features.SimpleEnum;
+
+/**
+ * Shapes of the entity graphs (based on the <tt>test-model</tt>) marshalled by the {@link MarshallerBenchmark}. The <tt>size</tt> parameter
+ * determines the number of entities (or collection elements), so that the results of different sizes show how a marshaller scales.
+ */
+public enum GraphShape {
+
+	/** Chain of {@link ComplexEntity ComplexEntities} linked via {@link ComplexEntity#getComplexEntityProperty()}. */
+	DEEP {
+		@Override
+		public BenchmarkGraph create(int size) {
+			GraphBuilder b = new GraphBuilder();
+
+			ComplexEntity root = b.complexEntity();
+			ComplexEntity current = root;
+			for (int i = 1; i < size; i++) {
+				ComplexEntity next = b.complexEntity();
+				current.setComplexEntityProperty(next);
+				current = next;
+			}
+
+			return b.graph(root);
+		}
+	},
+
+	/** Single {@link ComplexEntity} with a list of other ones, each of which references its own {@link SimpleEntity}. */
+	WIDE {
+		@Override
+		public BenchmarkGraph create(int size) {
+			GraphBuilder b = new GraphBuilder();
+
+			ComplexEntity root = b.complexEntity();
+			List<ComplexEntity> list = root.getComplexEntityList();
+			for (int i = 0; i < size; i++) {
+				ComplexEntity child = b.complexEntity();
+				child.setSimpleEntityProperty(b.simpleEntity());
+				list.add(child);
+			}
+
+			return b.graph(root);
+		}
+	},
+
+	/** Single {@link CollectionEntity} with each of its lists, sets and maps filled with <tt>size</tt> elements. */
+	COLLECTIONS {
+		@Override
+		public BenchmarkGraph create(int size) {
+			GraphBuilder b = new GraphBuilder();
+
+			CollectionEntity root = b.entity(CollectionEntity.T);
+			for (int i = 0; i < size; i++) {
+				String s = "value-" + i;
+				BigDecimal d = BigDecimal.valueOf(i, 2);
+				SimpleEntity se = b.simpleEntity();
+
+				root.getStringList().add(s);
+				root.getIntegerList().add(i);
+				root.getDecimalList().add(d);
+				root.getSimpleEntityList().add(se);
+				root.getStringSet().add(s);
+				root.getIntegerSet().add(i);
+				root.getDecimalSet().add(d);
+				root.getSimpleEntitySet().add(se);
+				root.getStringToStringMap().put(s, s);
+				root.getIntegerToIntegerMap().put(i, i);
+				root.getStringToSimpleEntityMap().put(s, se);
+				root.getSimpleEntityToStringMap().put(se, s);
+			}
+
+			return b.graph(root);
+		}
+	},
+
+	/**
+	 * Same as {@link #WIDE}, but the children have all their entity and collection properties absent, just like entities loaded with a
+	 * traversing criterion.
+	 */
+	ABSENT {
+		@Override
+		public BenchmarkGraph create(int size) {
+			GraphBuilder b = new GraphBuilder();
+
+			ComplexEntity root = b.complexEntity();
+			List<ComplexEntity> list = root.getComplexEntityList();
+			for (int i = 0; i < size; i++) {
+				ComplexEntity child = b.complexEntity();
+				makeAbsent(child, "simpleEntityProperty", "complexEntityProperty", "anotherComplexEntityProperty", "standardIdentifiableProperty",
+						"complexEntityList", "complexEntityMap", "stringList", "localizedStringProperty");
+				list.add(child);
+			}
+
+			return b.graph(root);
+		}
+
+		private void makeAbsent(ComplexEntity entity, String... propertyNames) {
+			for (String propertyName : propertyNames)
+				ComplexEntity.T.getProperty(propertyName).setAbsenceInformation(entity, GMF.absenceInformation());
+		}
+	};
+
+	public abstract BenchmarkGraph create(int size);
+
+	private static class GraphBuilder {
+		private int entityCount;
+
+		public <T extends GenericEntity> T entity(EntityType<T> entityType) {
+			T result = entityType.create();
+			result.setId((long) ++entityCount);
+			return result;
+		}
+
+		public ComplexEntity complexEntity() {
+			int i = entityCount;
+
+			ComplexEntity result = entity(ComplexEntity.T);
+			result.setStringProperty("complex-" + i);
+			result.setBooleanProperty(i % 2 == 0);
+			result.setIntegerProperty(i);
+			result.setDoubleProperty(i / 3d);
+			result.setSimpleEnum(SimpleEnum.values()[i % SimpleEnum.values().length]);
+
+			return result;
+		}
+
+		public SimpleEntity simpleEntity() {
+			SimpleEntity result = entity(SimpleEntity.T);
+			result.setStringProperty("simple-" + entityCount);
+			result.setBooleanProperty(entityCount % 2 == 0);
+
+			return result;
+		}
+
+		public BenchmarkGraph graph(Object value) {
+			return new BenchmarkGraph(value, entityCount);
+		}
+	}
+
+}
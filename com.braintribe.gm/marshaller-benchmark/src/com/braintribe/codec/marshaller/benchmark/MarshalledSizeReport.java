@@ -0,0 +1,80 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.codec.marshaller.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import com.braintribe.codec.marshaller.api.GmSerializationOptions;
+
+/**
+ * Writes the size of the marshalled value of every {@link MarshallerBenchmark} configuration as a JSON array, with one object per
+ * marshaller/shape/size, containing the total number of bytes and the number of bytes per entity.
+ * <p>
+ * This complements the JMH results, which only contain the throughput and allocation rate.
+ */
+public class MarshalledSizeReport {
+
+	private final int[] sizes;
+
+	public MarshalledSizeReport(int... sizes) {
+		this.sizes = sizes;
+	}
+
+	public void writeTo(File file) throws IOException {
+		File dir = file.getAbsoluteFile().getParentFile();
+		if (dir != null)
+			Files.createDirectories(dir.toPath());
+
+		try (Writer writer = new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8)) {
+			write(writer);
+		}
+	}
+
+	public void write(Writer writer) throws IOException {
+		writer.write("[\n");
+
+		boolean first = true;
+		for (BenchmarkMarshaller marshaller : BenchmarkMarshaller.values()) {
+			for (GraphShape shape : GraphShape.values()) {
+				for (int size : sizes) {
+					if (!first)
+						writer.write(",\n");
+					first = false;
+
+					writeEntry(writer, marshaller, shape, size);
+				}
+			}
+		}
+
+		writer.write("\n]\n");
+	}
+
+	private void writeEntry(Writer writer, BenchmarkMarshaller marshaller, GraphShape shape, int size) throws IOException {
+		BenchmarkGraph graph = shape.create(size);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		marshaller.create().marshall(out, graph.getValue(), GmSerializationOptions.defaultOptions);
+
+		int bytes = out.size();
+		int entities = graph.getEntityCount();
+
+		writer.write("  {\"marshaller\": \"" + marshaller + "\", \"shape\": \"" + shape + "\", \"size\": " + size + ", \"entities\": " + entities
+				+ ", \"bytes\": " + bytes + ", \"bytesPerEntity\": " + ((double) bytes / entities) + "}");
+	}
+
+}
@@ -0,0 +1,87 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.codec.marshaller.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.braintribe.codec.marshaller.api.GmDeserializationOptions;
+import com.braintribe.codec.marshaller.api.GmSerializationOptions;
+import com.braintribe.codec.marshaller.api.Marshaller;
+
+/**
+ * Marshall and unmarshall throughput of every {@link BenchmarkMarshaller} for every {@link GraphShape} and size.
+ * <p>
+ * The value is marshalled into a re-used buffer and unmarshalled from a pre-marshalled byte array, so the results only contain the (de)coding, not
+ * the I/O. Run with the GC profiler (as {@link MarshallerBenchmarks} does) to also get the allocation rate (<tt>gc.alloc.rate.norm</tt> is the
+ * number of bytes allocated per operation).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class MarshallerBenchmark {
+
+	@Param
+	public BenchmarkMarshaller marshaller;
+
+	@Param
+	public GraphShape shape;
+
+	@Param({ "10", "100", "1000" })
+	public int size;
+
+	private Marshaller marshallerInstance;
+	private Object value;
+	private byte[] marshalled;
+	private ByteArrayOutputStream out;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		marshallerInstance = marshaller.create();
+		value = shape.create(size).getValue();
+
+		out = new ByteArrayOutputStream(1 << 16);
+		marshallerInstance.marshall(out, value, GmSerializationOptions.defaultOptions);
+		marshalled = out.toByteArray();
+	}
+
+	@Benchmark
+	public int marshall() {
+		out.reset();
+		marshallerInstance.marshall(out, value, GmSerializationOptions.defaultOptions);
+
+		return out.size();
+	}
+
+	@Benchmark
+	public Object unmarshall() {
+		return marshallerInstance.unmarshall(new ByteArrayInputStream(marshalled), GmDeserializationOptions.defaultOptions);
+	}
+
+}
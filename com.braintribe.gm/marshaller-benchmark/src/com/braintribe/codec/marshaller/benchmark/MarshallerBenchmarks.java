@@ -0,0 +1,81 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.codec.marshaller.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+/**
+ * Entry point of the marshaller benchmarks, which runs the {@link MarshallerBenchmark} with the {@link GCProfiler} and writes the results as JSON,
+ * followed by the {@link MarshalledSizeReport}.
+ * <p>
+ * From this artifact's directory, run <tt>mvn compile exec:exec</tt>, optionally with <tt>-Dbenchmark.args="..."</tt> to pass further JMH options,
+ * e.g. <tt>-p marshaller=BIN2,JSON -p size=1000</tt> to restrict the configurations. The results are written to
+ * <tt>target/marshaller-benchmark.json</tt> and <tt>target/marshaller-sizes.json</tt>.
+ * <p>
+ * Arguments are standard JMH command line options, plus <tt>-sizes &lt;file&gt;</tt> for the size report (default:
+ * <tt>marshaller-sizes.json</tt>) and <tt>-noSizes</tt> to skip it.
+ */
+public class MarshallerBenchmarks {
+
+	private static final int[] SIZES = { 10, 100, 1000 };
+
+	public static void main(String[] args) throws Exception {
+		List<String> jmhArgs = new ArrayList<>();
+		String sizesFile = "marshaller-sizes.json";
+
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if ("-sizes".equals(arg))
+				sizesFile = args[++i];
+			else if ("-noSizes".equals(arg))
+				sizesFile = null;
+			else
+				jmhArgs.add(arg);
+		}
+
+		CommandLineOptions cmdOptions = new CommandLineOptions(jmhArgs.toArray(new String[jmhArgs.size()]));
+
+		ChainedOptionsBuilder options = new OptionsBuilder() //
+				.parent(cmdOptions) //
+				.include(MarshallerBenchmark.class.getName());
+
+		if (!hasGcProfiler(cmdOptions))
+			options.addProfiler(GCProfiler.class);
+
+		if (!cmdOptions.getResultFormat().hasValue())
+			options.resultFormat(ResultFormatType.JSON);
+
+		new Runner(options.build()).run();
+
+		if (sizesFile != null)
+			new MarshalledSizeReport(SIZES).writeTo(new File(sizesFile));
+	}
+
+	private static boolean hasGcProfiler(CommandLineOptions cmdOptions) {
+		for (ProfilerConfig profiler : cmdOptions.getProfilers())
+			if (profiler.getKlass().equals(GCProfiler.class.getName()) || profiler.getKlass().equals("gc"))
+				return true;
+
+		return false;
+	}
+
+}
@@ -46,6 +46,14 @@ public interface QueryEvaluationContext {
 	 */
 	int resultComponentsCount();
 
+	/**
+	 * Returns the number of tuples the tuple sets which support it pass between each other at once, or 0 (default) if tuples are evaluated one at a
+	 * time. The evaluation result is the same either way, batches only reduce the per-tuple overhead.
+	 */
+	default int batchSize() {
+		return 0;
+	}
+
 	// #########################################
 	// ## . . . . . . Resolution . . . . . . .##
 	// #########################################
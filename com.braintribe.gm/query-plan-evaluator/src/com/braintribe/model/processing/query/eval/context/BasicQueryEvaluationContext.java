@@ -76,6 +76,7 @@ public class BasicQueryEvaluationContext implements QueryEvaluationContext {
 	protected final IndexRepository indexRepository;
 	protected final Stack<EvaluationStep> stepStack;
 	protected final Stack<Object> valueStack;
+	protected int batchSize;
 
 	public BasicQueryEvaluationContext(Repository repository, QueryPlan queryPlan,
 			Map<EntityType<? extends QueryFunction>, QueryFunctionExpert<?>> queryFunctionExperts,
@@ -127,6 +128,19 @@ public class BasicQueryEvaluationContext implements QueryEvaluationContext {
 		return resultComponentsCount;
 	}
 
+	/**
+	 * Configures the {@link #batchSize() batch size}, which must be done before the first tuple set is resolved. Non-positive value means tuples are
+	 * evaluated one at a time (default).
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = Math.max(batchSize, 0);
+	}
+
+	@Override
+	public int batchSize() {
+		return batchSize;
+	}
+
 	// #########################################
 	// ## . . . . . . Resolution . . . . . . .##
 	// #########################################
@@ -14,13 +14,14 @@ package com.braintribe.model.processing.query.eval.context;
 //import static com.braintribe.model.processing.query.eval.tools.QueryEvaluationTools.newMap;
 
 //import java.util.Map;
-//import java.util.regex.Pattern;
+import java.util.regex.Pattern;
 
 import com.braintribe.model.generic.GenericEntity;
 import com.braintribe.model.generic.value.EntityReference;
 import com.braintribe.model.processing.query.eval.api.QueryEvaluationContext;
 import com.braintribe.model.processing.query.eval.api.RuntimeQueryEvaluationException;
 import com.braintribe.model.processing.query.eval.api.Tuple;
+import com.braintribe.model.processing.query.eval.tuple.TupleBatch;
 import com.braintribe.model.processing.query.tools.SelectQueryNormalizer;
 import com.braintribe.model.query.Operator;
 import com.braintribe.model.queryplan.filter.Condition;
@@ -273,4 +274,52 @@ public class ConditionEvaluator {
 		return !evaluate(tuple, condition.getOperand(), context);
 	}
 
+	// #########################################
+	// ## . . . . . . . Batches . . . . . . . ##
+	// #########################################
+
+	/**
+	 * Removes all the tuples from given batch which do not fulfill given condition, i.e. the result is the same as if
+	 * {@link QueryEvaluationContext#fulfillsCondition(Tuple, Condition)} was checked for every single tuple. However, the operands of a
+	 * {@link Conjunction} are applied one after another, each to the already reduced batch, and for a (I)LIKE with a static pattern the pattern is
+	 * only converted and compiled once per batch, not once per tuple.
+	 */
+	public void filter(TupleBatch batch, Condition condition, QueryEvaluationContext context) {
+		switch (condition.conditionType()) {
+			case conjunction:
+				for (Condition operand : ((Conjunction) condition).getOperands()) {
+					filter(batch, operand, context);
+					if (batch.isEmpty())
+						return;
+				}
+				return;
+			case like:
+				filterLike(batch, (ValueComparison) condition, false, context);
+				return;
+			case ilike:
+				filterLike(batch, (ValueComparison) condition, true, context);
+				return;
+			default:
+				batch.retain(tuple -> context.fulfillsCondition(tuple, condition));
+		}
+	}
+
+	private void filterLike(TupleBatch batch, ValueComparison condition, boolean ignoreCase, QueryEvaluationContext context) {
+		Value rightOperand = condition.getRightOperand();
+		String right = rightOperand.valueType() == ValueType.staticValue ? context.resolveValue(batch.get(0), rightOperand) : null;
+
+		if (right == null) {
+			batch.retain(tuple -> context.fulfillsCondition(tuple, condition));
+			return;
+		}
+
+		Pattern pattern = Pattern.compile(ConditionEvaluationTools.convertToRegexPattern(ignoreCase ? right.toLowerCase() : right));
+		Value leftOperand = condition.getLeftOperand();
+
+		batch.retain(tuple -> {
+			String left = context.resolveValue(tuple, leftOperand);
+			return left != null && pattern.matcher(ignoreCase ? left.toLowerCase() : left).matches();
+		});
+	}
+
 }
@@ -16,14 +16,20 @@ import java.util.Iterator;
 import com.braintribe.model.processing.query.eval.api.EvalTupleSet;
 import com.braintribe.model.processing.query.eval.api.QueryEvaluationContext;
 import com.braintribe.model.processing.query.eval.api.Tuple;
+import com.braintribe.model.processing.query.eval.context.ConditionEvaluator;
 import com.braintribe.model.processing.query.eval.set.base.AbstractEvalTupleSet;
+import com.braintribe.model.processing.query.eval.set.base.BatchEvalTupleSet;
+import com.braintribe.model.processing.query.eval.set.base.TupleBatchIterator;
+import com.braintribe.model.processing.query.eval.tools.BatchAsTupleIterator;
+import com.braintribe.model.processing.query.eval.tools.OperandTuplePager;
+import com.braintribe.model.processing.query.eval.tuple.TupleBatch;
 import com.braintribe.model.queryplan.filter.Condition;
 import com.braintribe.model.queryplan.set.FilteredSet;
 
 /**
  * 
  */
-public class EvalFilteredSet extends AbstractEvalTupleSet {
+public class EvalFilteredSet extends AbstractEvalTupleSet implements BatchEvalTupleSet {
 
 	protected final Condition filterCondition;
 	protected final EvalTupleSet evalOperand;
@@ -37,7 +43,16 @@ public class EvalFilteredSet extends AbstractEvalTupleSet {
 
 	@Override
 	public Iterator<Tuple> iterator() {
-		return new FilteredSetIterator();
+		int batchSize = context.batchSize();
+		if (batchSize > 0)
+			return new BatchAsTupleIterator(batchIterator(batchSize));
+		else
+			return new FilteredSetIterator();
+	}
+
+	@Override
+	public TupleBatchIterator batchIterator(int batchSize) {
+		return new FilteredSetBatchIterator(batchSize);
 	}
 
 	protected class FilteredSetIterator extends AbstractTupleIterator {
@@ -62,4 +77,52 @@ public class EvalFilteredSet extends AbstractEvalTupleSet {
 		}
 
 	}
+
+	/**
+	 * Filters the batches of our operand in place, or, if the operand cannot provide batches, fills our own batch with copies of its tuples first.
+	 * In the latter case the tuples are fetched in growing pages (see {@link OperandTuplePager}), rather than a whole batch at once.
+	 */
+	protected class FilteredSetBatchIterator implements TupleBatchIterator {
+
+		protected final TupleBatchIterator delegateBatchIterator;
+		protected final OperandTuplePager delegatePager;
+		protected final TupleBatch batch;
+
+		public FilteredSetBatchIterator(int batchSize) {
+			if (evalOperand instanceof BatchEvalTupleSet) {
+				delegateBatchIterator = ((BatchEvalTupleSet) evalOperand).batchIterator(batchSize);
+				delegatePager = null;
+				batch = null;
+
+			} else {
+				delegateBatchIterator = null;
+				delegatePager = new OperandTuplePager(evalOperand.iterator(), batchSize);
+				batch = new TupleBatch(batchSize, context.totalComponentsCount());
+			}
+		}
+
+		@Override
+		public TupleBatch nextBatch() {
+			TupleBatch result;
+			while ((result = nextOperandBatch()) != null) {
+				ConditionEvaluator.getInstance().filter(result, filterCondition, context);
+
+				if (!result.isEmpty())
+					return result;
+			}
+
+			return null;
+		}
+
+		private TupleBatch nextOperandBatch() {
+			if (delegateBatchIterator != null)
+				return delegateBatchIterator.nextBatch();
+
+			batch.clear();
+			delegatePager.nextPage(batch::add);
+
+			return batch.isEmpty() ? null : batch;
+		}
+
+	}
 }
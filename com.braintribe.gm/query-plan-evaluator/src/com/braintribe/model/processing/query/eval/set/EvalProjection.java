@@ -20,14 +20,19 @@ import com.braintribe.model.processing.query.eval.api.EvalTupleSet;
 import com.braintribe.model.processing.query.eval.api.QueryEvaluationContext;
 import com.braintribe.model.processing.query.eval.api.Tuple;
 import com.braintribe.model.processing.query.eval.set.base.AbstractEvalTupleSet;
+import com.braintribe.model.processing.query.eval.set.base.BatchEvalTupleSet;
+import com.braintribe.model.processing.query.eval.set.base.TupleBatchIterator;
+import com.braintribe.model.processing.query.eval.tools.BatchAsTupleIterator;
+import com.braintribe.model.processing.query.eval.tools.OperandTuplePager;
 import com.braintribe.model.processing.query.eval.tuple.ArrayBasedTuple;
+import com.braintribe.model.processing.query.eval.tuple.TupleBatch;
 import com.braintribe.model.queryplan.set.Projection;
 import com.braintribe.model.queryplan.value.Value;
 
 /**
  * 
  */
-public class EvalProjection extends AbstractEvalTupleSet implements HasMoreAwareSet {
+public class EvalProjection extends AbstractEvalTupleSet implements HasMoreAwareSet, BatchEvalTupleSet {
 
 	protected final EvalTupleSet evalOperand;
 	protected final List<Value> values;
@@ -48,7 +53,16 @@ public class EvalProjection extends AbstractEvalTupleSet implements HasMoreAware
 
 	@Override
 	public Iterator<Tuple> iterator() {
-		return new ProjectionIterator();
+		int batchSize = context.batchSize();
+		if (batchSize > 0)
+			return new BatchAsTupleIterator(batchIterator(batchSize));
+		else
+			return new ProjectionIterator();
+	}
+
+	@Override
+	public TupleBatchIterator batchIterator(int batchSize) {
+		return new ProjectionBatchIterator(batchSize);
 	}
 
 	protected class ProjectionIterator extends AbstractTupleIterator {
@@ -84,4 +98,74 @@ public class EvalProjection extends AbstractEvalTupleSet implements HasMoreAware
 		}
 
 	}
+
+	/**
+	 * Projects whole batches of our operand value by value, i.e. each {@link Value} is resolved for all the tuples of the batch before moving on to
+	 * the next one. If the operand cannot provide batches, its tuples are projected one by one into our batch, fetched in growing pages (see
+	 * {@link OperandTuplePager}) rather than a whole batch at once.
+	 */
+	protected class ProjectionBatchIterator implements TupleBatchIterator {
+
+		protected final TupleBatchIterator delegateBatchIterator;
+		protected final OperandTuplePager delegatePager;
+		protected final TupleBatch batch;
+
+		public ProjectionBatchIterator(int batchSize) {
+			if (evalOperand instanceof BatchEvalTupleSet) {
+				delegateBatchIterator = ((BatchEvalTupleSet) evalOperand).batchIterator(batchSize);
+				delegatePager = null;
+
+			} else {
+				delegateBatchIterator = null;
+				delegatePager = new OperandTuplePager(evalOperand.iterator(), batchSize);
+			}
+
+			batch = new TupleBatch(batchSize, values.size());
+		}
+
+		@Override
+		public TupleBatch nextBatch() {
+			batch.clear();
+
+			if (delegateBatchIterator != null)
+				projectBatch();
+			else
+				projectTuples();
+
+			return batch.isEmpty() ? null : batch;
+		}
+
+		private void projectBatch() {
+			TupleBatch operandBatch = delegateBatchIterator.nextBatch();
+			if (operandBatch == null)
+				return;
+
+			int size = operandBatch.size();
+			for (int i = 0; i < size; i++)
+				batch.addRow();
+
+			int index = 0;
+			for (Value value: values) {
+				for (int i = 0; i < size; i++) {
+					Object resolvedValue = context.resolveValue(operandBatch.get(i), value);
+					batch.get(i).setValueDirectly(index, resolvedValue);
+				}
+
+				index++;
+			}
+		}
+
+		private void projectTuples() {
+			delegatePager.nextPage(this::projectTuple);
+		}
+
+		private void projectTuple(Tuple tuple) {
+			ArrayBasedTuple row = batch.addRow();
+
+			int index = 0;
+			for (Value value: values)
+				row.setValueDirectly(index++, context.resolveValue(tuple, value));
+		}
+
+	}
 }
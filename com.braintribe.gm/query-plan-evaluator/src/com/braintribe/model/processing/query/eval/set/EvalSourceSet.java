@@ -16,14 +16,17 @@ import java.util.Iterator;
 import com.braintribe.model.processing.query.eval.api.QueryEvaluationContext;
 import com.braintribe.model.processing.query.eval.api.Tuple;
 import com.braintribe.model.processing.query.eval.set.base.AbstractEvalTupleSet;
+import com.braintribe.model.processing.query.eval.set.base.BatchEvalTupleSet;
+import com.braintribe.model.processing.query.eval.set.base.TupleBatchIterator;
 import com.braintribe.model.processing.query.eval.tools.PopulationAsTupleIterator;
 import com.braintribe.model.processing.query.eval.tuple.OneDimensionalTuple;
+import com.braintribe.model.processing.query.eval.tuple.TupleBatch;
 import com.braintribe.model.queryplan.set.SourceSet;
 
 /**
  * 
  */
-public class EvalSourceSet extends AbstractEvalTupleSet {
+public class EvalSourceSet extends AbstractEvalTupleSet implements BatchEvalTupleSet {
 
 	protected final SourceSet sourceSet;
 	protected OneDimensionalTuple singletonTuple;
@@ -40,4 +43,37 @@ public class EvalSourceSet extends AbstractEvalTupleSet {
 		return new PopulationAsTupleIterator(context.getPopulation(sourceSet.getTypeSignature()), sourceSet.getIndex());
 	}
 
+	@Override
+	public TupleBatchIterator batchIterator(int batchSize) {
+		return new SourceSetBatchIterator(batchSize);
+	}
+
+	/**
+	 * The rows of the batch are only ever written at our index, so all the other components are <tt>null</tt>, just like with the
+	 * {@link OneDimensionalTuple} in case of tuple-at-a-time iteration.
+	 */
+	protected class SourceSetBatchIterator implements TupleBatchIterator {
+
+		protected final Iterator<?> populationIterator;
+		protected final TupleBatch batch;
+		protected final int index;
+
+		public SourceSetBatchIterator(int batchSize) {
+			this.populationIterator = context.getPopulation(sourceSet.getTypeSignature()).iterator();
+			this.batch = new TupleBatch(batchSize, context.totalComponentsCount());
+			this.index = sourceSet.getIndex();
+		}
+
+		@Override
+		public TupleBatch nextBatch() {
+			batch.clear();
+
+			while (!batch.isFull() && populationIterator.hasNext())
+				batch.addRow().setValueDirectly(index, populationIterator.next());
+
+			return batch.isEmpty() ? null : batch;
+		}
+
+	}
+
 }
@@ -26,7 +26,10 @@ import java.util.Set;
 import com.braintribe.model.processing.query.eval.api.EvalTupleSet;
 import com.braintribe.model.processing.query.eval.api.QueryEvaluationContext;
 import com.braintribe.model.processing.query.eval.api.Tuple;
+import com.braintribe.model.processing.query.eval.set.base.BatchEvalTupleSet;
+import com.braintribe.model.processing.query.eval.set.base.TupleBatchIterator;
 import com.braintribe.model.processing.query.eval.tuple.ArrayBasedTuple;
+import com.braintribe.model.processing.query.eval.tuple.TupleBatch;
 import com.braintribe.model.queryplan.set.AggregatingProjection;
 import com.braintribe.model.queryplan.set.Projection;
 import com.braintribe.model.queryplan.value.AggregateFunction;
@@ -149,6 +152,11 @@ public class AggregateProjectionApplier {
 
 	public Collection<? extends Tuple> createAggregatedTuples() {
 		EvalTupleSet preGroupingTuples = context.resolveTupleSet(preGroupingProjection);
+
+		int batchSize = context.batchSize();
+		if (batchSize > 0 && preGroupingTuples instanceof BatchEvalTupleSet)
+			return createAggregatedTuples(((BatchEvalTupleSet) preGroupingTuples).batchIterator(batchSize));
+
 		Iterator<Tuple> it = preGroupingTuples.iterator();
 
 		if (it.hasNext())
@@ -157,6 +165,38 @@ public class AggregateProjectionApplier {
 			return aggreagateForEmptySet();
 	}
 
+	/**
+	 * Batched variant of {@link #aggregateFor(Iterator)}, which looks the groups up with a single re-usable {@link TupleGroup}, so that a new group
+	 * key is only allocated when a new group is found.
+	 */
+	private Collection<? extends Tuple> createAggregatedTuples(TupleBatchIterator batchIterator) {
+		TupleBatch batch = batchIterator.nextBatch();
+		if (batch == null)
+			return aggreagateForEmptySet();
+
+		TupleGroup probe = new TupleGroup(new Object[groupBySize]);
+
+		do {
+			int size = batch.size();
+			for (int i = 0; i < size; i++) {
+				Tuple tuple = batch.get(i);
+
+				probe.setValuesFrom(tuple, groupByIndices);
+				ArrayBasedTuple groupTuple = aggregateMap.get(probe);
+				if (groupTuple == null)
+					groupTuple = newGroupTuple(probe.copy(), tuple);
+
+				appendTuple(groupTuple, tuple);
+			}
+
+		} while ((batch = batchIterator.nextBatch()) != null);
+
+		for (ArrayBasedTuple aggregateTuple: aggregateMap.values())
+			finalizeAggregateTuples(aggregateTuple);
+
+		return aggregateMap.values();
+	}
+
 	private Collection<? extends Tuple> aggreagateForEmptySet() {
 		if (groupByIndices.length > 0)
 			return Collections.emptySet();
@@ -195,13 +235,18 @@ public class AggregateProjectionApplier {
 	private ArrayBasedTuple acquireTuple(TupleGroup tupleGroup, Tuple tuple) {
 		ArrayBasedTuple result = aggregateMap.get(tupleGroup);
 
-		if (result == null) {
-			result = new ArrayBasedTuple(componentsCount);
-			aggregateMap.put(tupleGroup, result);
+		if (result == null)
+			result = newGroupTuple(tupleGroup, tuple);
 
-			result.acceptValuesFrom(tuple);
-			setDefaultAggregateValuesFor(result);
-		}
+		return result;
+	}
+
+	private ArrayBasedTuple newGroupTuple(TupleGroup tupleGroup, Tuple tuple) {
+		ArrayBasedTuple result = new ArrayBasedTuple(componentsCount);
+		aggregateMap.put(tupleGroup, result);
+
+		result.acceptValuesFrom(tuple);
+		setDefaultAggregateValuesFor(result);
 
 		return result;
 	}
@@ -228,6 +273,16 @@ public class AggregateProjectionApplier {
 			this.os = os;
 		}
 
+		public void setValuesFrom(Tuple tuple, int[] indices) {
+			int i = 0;
+			for (int index: indices)
+				os[i++] = tuple.getValue(index);
+		}
+
+		public TupleGroup copy() {
+			return new TupleGroup(os.clone());
+		}
+
 		@Override
 		public int hashCode() {
 			return Arrays.hashCode(os);
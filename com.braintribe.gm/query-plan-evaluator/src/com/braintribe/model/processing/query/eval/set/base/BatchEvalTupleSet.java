@@ -0,0 +1,27 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.query.eval.set.base;
+
+import com.braintribe.model.processing.query.eval.api.EvalTupleSet;
+import com.braintribe.model.processing.query.eval.api.QueryEvaluationContext;
+import com.braintribe.model.processing.query.eval.tuple.TupleBatch;
+
+/**
+ * {@link EvalTupleSet} which, besides the usual tuple-at-a-time iteration, can also provide its tuples in {@link TupleBatch batches}. This is used
+ * when evaluating with a positive {@link QueryEvaluationContext#batchSize() batch size}, so that the per-tuple overhead (virtual dispatch,
+ * resolution of static operands, copying) is paid once per batch instead.
+ */
+public interface BatchEvalTupleSet extends EvalTupleSet {
+
+	TupleBatchIterator batchIterator(int batchSize);
+
+}
@@ -0,0 +1,27 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.query.eval.set.base;
+
+import com.braintribe.model.processing.query.eval.tuple.TupleBatch;
+
+/**
+ * Iterator over the {@link TupleBatch batches} of a {@link BatchEvalTupleSet}.
+ */
+public interface TupleBatchIterator {
+
+	/**
+	 * Returns the next non-empty batch, or <tt>null</tt> if there are no more tuples. The returned batch is only valid until this method is invoked
+	 * again.
+	 */
+	TupleBatch nextBatch();
+
+}
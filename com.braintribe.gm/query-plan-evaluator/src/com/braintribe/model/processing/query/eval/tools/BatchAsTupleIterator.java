@@ -0,0 +1,71 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.query.eval.tools;
+
+import java.util.Iterator;
+
+import com.braintribe.model.processing.query.eval.api.Tuple;
+import com.braintribe.model.processing.query.eval.set.base.TupleBatchIterator;
+import com.braintribe.model.processing.query.eval.tuple.ArrayBasedTuple;
+import com.braintribe.model.processing.query.eval.tuple.TupleBatch;
+
+/**
+ * Tuple-at-a-time view of a {@link TupleBatchIterator}, for consumers which do not process batches.
+ * <p>
+ * Just like with other tuple iterators, the returned tuple is re-used, i.e. it is only valid until {@link #next()} is called again. It is however
+ * not one of the batch rows, so the consumer may call {@link #hasNext()} (which might fetch the next batch) while still working with it.
+ */
+public class BatchAsTupleIterator implements Iterator<Tuple> {
+
+	protected final TupleBatchIterator batchIterator;
+	protected TupleBatch batch;
+	protected int position;
+	protected ArrayBasedTuple result;
+
+	public BatchAsTupleIterator(TupleBatchIterator batchIterator) {
+		this.batchIterator = batchIterator;
+		this.batch = batchIterator.nextBatch();
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (batch == null)
+			return false;
+
+		if (position < batch.size())
+			return true;
+
+		batch = batchIterator.nextBatch();
+		position = 0;
+
+		return batch != null;
+	}
+
+	@Override
+	public Tuple next() {
+		if (!hasNext())
+			throw new IllegalStateException("No next found for iterator!");
+
+		if (result == null)
+			result = new ArrayBasedTuple(batch.tupleSize());
+
+		result.acceptAllValuesFrom(batch.get(position++));
+
+		return result;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("Cannot remove a tuple from a tuple set!");
+	}
+
+}
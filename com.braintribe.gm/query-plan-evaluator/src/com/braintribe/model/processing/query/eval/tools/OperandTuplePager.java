@@ -0,0 +1,62 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.query.eval.tools;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+import com.braintribe.model.processing.query.eval.api.EvalTupleSet;
+import com.braintribe.model.processing.query.eval.api.Tuple;
+import com.braintribe.model.processing.query.eval.set.base.BatchEvalTupleSet;
+
+/**
+ * Pages through the tuples of an {@link EvalTupleSet} which cannot provide batches itself (i.e. is not a {@link BatchEvalTupleSet}, typically a
+ * join), on behalf of a batch iterator.
+ * <p>
+ * The first page is small and every next one is twice as big, up to the batch size. This way a consumer which only needs the first few tuples (e.g.
+ * due to pagination) does not make the operand evaluate a whole batch, while iterating the whole set still ends up with full batches.
+ */
+public class OperandTuplePager {
+
+	public static final int INITIAL_PAGE_SIZE = 8;
+
+	protected final Iterator<Tuple> operandIterator;
+	protected final int batchSize;
+	protected int pageSize;
+
+	public OperandTuplePager(Iterator<Tuple> operandIterator, int batchSize) {
+		this.operandIterator = operandIterator;
+		this.batchSize = batchSize;
+		this.pageSize = Math.min(INITIAL_PAGE_SIZE, batchSize);
+	}
+
+	/**
+	 * Passes the tuples of the next page to given consumer. Just like with the operand's iterator, each tuple is only valid until the consumer is
+	 * invoked again.
+	 * 
+	 * @return <tt>false</tt> iff the operand has no more tuples
+	 */
+	public boolean nextPage(Consumer<Tuple> consumer) {
+		if (!operandIterator.hasNext())
+			return false;
+
+		int count = 0;
+		do
+			consumer.accept(operandIterator.next());
+		while (++count < pageSize && operandIterator.hasNext());
+
+		pageSize = Math.min(pageSize << 1, batchSize);
+
+		return true;
+	}
+
+}
@@ -0,0 +1,113 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.query.eval.tuple;
+
+import java.util.function.Predicate;
+
+import com.braintribe.model.processing.query.eval.api.QueryEvaluationContext;
+import com.braintribe.model.processing.query.eval.api.Tuple;
+
+/**
+ * Block of up to {@link #capacity()} tuples, which is passed between the tuple sets when the query is evaluated in batches (see
+ * {@link QueryEvaluationContext#batchSize()}).
+ * <p>
+ * The rows are {@link ArrayBasedTuple}s owned by the batch, which are created when first needed and re-used every time the batch is filled again.
+ * This means a batch (as well as each of its rows) is only valid until its producer is asked for the next batch, and a consumer must not modify the
+ * rows, nor keep a reference to them.
+ */
+public class TupleBatch {
+
+	private final ArrayBasedTuple[] rows;
+	private final int tupleSize;
+	private int size;
+
+	public TupleBatch(int capacity, int tupleSize) {
+		this.rows = new ArrayBasedTuple[capacity];
+		this.tupleSize = tupleSize;
+	}
+
+	public int capacity() {
+		return rows.length;
+	}
+
+	/** Number of components of each row. */
+	public int tupleSize() {
+		return tupleSize;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean isFull() {
+		return size == rows.length;
+	}
+
+	public ArrayBasedTuple get(int index) {
+		return rows[index];
+	}
+
+	/**
+	 * Appends a row and returns it, so that the caller can set its values. Note that the row might still contain the values from the previous
+	 * filling of this batch.
+	 */
+	public ArrayBasedTuple addRow() {
+		ArrayBasedTuple row = rows[size];
+		if (row == null)
+			rows[size] = row = new ArrayBasedTuple(tupleSize);
+
+		size++;
+		return row;
+	}
+
+	/** Appends a row with all the values copied from given tuple. */
+	public void add(Tuple tuple) {
+		addRow().acceptAllValuesFrom(tuple);
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Removes all the rows which do not satisfy given predicate, while preserving the order of the remaining ones. Row instances are swapped rather
+	 * than copied, so no values are moved.
+	 */
+	public void retain(Predicate<? super ArrayBasedTuple> predicate) {
+		int retained = 0;
+
+		for (int i = 0; i < size; i++) {
+			ArrayBasedTuple row = rows[i];
+			if (!predicate.test(row))
+				continue;
+
+			if (i != retained) {
+				rows[i] = rows[retained];
+				rows[retained] = row;
+			}
+
+			retained++;
+		}
+
+		size = retained;
+	}
+
+	@Override
+	public String toString() {
+		return "TupleBatch[" + size + "/" + rows.length + "]";
+	}
+
+}
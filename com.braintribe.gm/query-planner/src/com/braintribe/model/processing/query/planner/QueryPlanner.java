@@ -13,6 +13,7 @@ package com.braintribe.model.processing.query.planner;
 
 import com.braintribe.model.generic.GenericEntity;
 import com.braintribe.model.processing.query.eval.api.repo.Repository;
+import com.braintribe.model.processing.query.planner.cache.QueryPlanCache;
 import com.braintribe.model.processing.query.planner.context.QueryPlannerContext;
 import com.braintribe.model.processing.query.planner.core.QueryPlannerCore;
 import com.braintribe.model.processing.query.tools.SelectQueryNormalizer;
@@ -29,15 +30,46 @@ public class QueryPlanner {
 	private final Repository repository;
 	private boolean ignorePartitions;
 
+	private QueryPlanCache planCache;
+	private long planCacheConfigurationVersion = -1;
+
 	public QueryPlanner(Repository repository) {
 		this.repository = repository;
 		this.ignorePartitions = repository.defaultPartition() != null;
 	}
 
+	/**
+	 * Configures a cache for the plans built by this planner, which may also be shared with other planners for the same (or equivalent)
+	 * repository. The cache must be {@link QueryPlanCache#invalidate() invalidated} by the owner of the repository whenever the repository's index
+	 * configuration changes.
+	 */
+	public void setPlanCache(QueryPlanCache planCache) {
+		setPlanCache(planCache, -1);
+	}
+
+	/**
+	 * Similar to {@link #setPlanCache(QueryPlanCache)}, but meant for a repository whose index configuration does not change anymore (e.g. a
+	 * snapshot of another repository). Such a planner only uses plans built for given configuration version, i.e. the
+	 * {@link QueryPlanCache#configurationVersion() current version} of the cache at the time the repository was created.
+	 */
+	public void setPlanCache(QueryPlanCache planCache, long configurationVersion) {
+		this.planCache = planCache;
+		this.planCacheConfigurationVersion = configurationVersion;
+	}
+
 	/**
 	 * Builds a {@link QueryPlan} for given {@link SelectQuery}.
 	 */
 	public QueryPlan buildQueryPlan(SelectQuery query) {
+		QueryPlanCache planCache = this.planCache;
+		if (planCache == null)
+			return planQuery(query);
+
+		long configurationVersion = planCacheConfigurationVersion >= 0 ? planCacheConfigurationVersion : planCache.configurationVersion();
+		return planCache.acquirePlan(query, configurationVersion, this::planQuery);
+	}
+
+	private QueryPlan planQuery(SelectQuery query) {
 		/* We need this for (at least) the purpose of selecting collections. The normalizer replaces a selection of a
 		 * collection with a join, thus forcing the result to have one row for each member of the collection, not just
 		 * one row, where one slot of the tuple is the entire collection. This makes it compatible with hibernate. */
@@ -66,7 +98,13 @@ public class QueryPlanner {
 	}
 	
 	public void ignorePartitions(boolean ignorePartitions) {
+		if (this.ignorePartitions == ignorePartitions)
+			return;
+
 		this.ignorePartitions = ignorePartitions;
+
+		if (planCache != null)
+			planCache.invalidate();
 	}
 
 }
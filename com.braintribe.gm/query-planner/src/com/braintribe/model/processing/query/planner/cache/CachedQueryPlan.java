@@ -0,0 +1,146 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.query.planner.cache;
+
+import static com.braintribe.utils.lcd.CollectionTools2.newIdentityMap;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.generic.reflection.GenericModelType;
+import com.braintribe.model.generic.reflection.Property;
+import com.braintribe.model.generic.reflection.StandardCloningContext;
+import com.braintribe.model.generic.reflection.StrategyOnCriterionMatch;
+import com.braintribe.model.query.Paging;
+import com.braintribe.model.queryplan.QueryPlan;
+import com.braintribe.model.queryplan.set.PaginatedSet;
+
+/**
+ * {@link QueryPlan} built for a {@link QueryShape#template(com.braintribe.model.query.SelectQuery) template query}, which can be bound to the
+ * literals of any query of the same {@link QueryShape shape}.
+ * <p>
+ * When the plan is created, we check that every literal of the template is found (by identity) in the plan, and none of them as a map key. If
+ * that is not the case, the planner has either evaluated some of the literals (e.g. merged two ranges or resolved a constant condition) or
+ * transformed them, so the structure of the plan depends on the actual values, and the plan is marked as not bindable.
+ */
+class CachedQueryPlan {
+
+	public final long configurationVersion;
+
+	private final QueryPlan plan;
+	private final List<Object> templateLiterals;
+	private final boolean paginated;
+	private final boolean bindable;
+
+	public CachedQueryPlan(QueryPlan plan, QueryShape template, long configurationVersion) {
+		this.configurationVersion = configurationVersion;
+		this.plan = plan;
+		this.templateLiterals = template.literals();
+		this.paginated = template.paging() != null;
+		this.bindable = (!paginated || plan.getTupleSet() instanceof PaginatedSet) && new LiteralLocator(templateLiterals).foundAllIn(plan);
+	}
+
+	public boolean isBindable() {
+		return bindable;
+	}
+
+	/** Returns a copy of the cached plan, with all the template literals replaced with the corresponding literals of given shape. */
+	public QueryPlan bind(QueryShape shape) {
+		List<Object> literals = shape.literals();
+		if (literals.isEmpty() && !paginated)
+			return plan;
+
+		BindingCloningContext cc = new BindingCloningContext();
+
+		int i = 0;
+		for (Object literal : literals) {
+			Object templateLiteral = templateLiterals.get(i++);
+			if (templateLiteral instanceof GenericEntity)
+				cc.registerAsVisited((GenericEntity) templateLiteral, literal);
+			else
+				cc.replacements.put(templateLiteral, literal);
+		}
+
+		QueryPlan result = QueryPlan.T.clone(cc, plan, StrategyOnCriterionMatch.reference);
+
+		if (paginated) {
+			Paging paging = shape.paging();
+			PaginatedSet paginatedSet = (PaginatedSet) result.getTupleSet();
+			paginatedSet.setLimit(paging.getPageSize());
+			paginatedSet.setOffset(paging.getStartIndex());
+		}
+
+		return result;
+	}
+
+	private static class BindingCloningContext extends StandardCloningContext {
+		final Map<Object, Object> replacements = newIdentityMap();
+
+		@Override
+		public Object postProcessCloneValue(GenericModelType propertyOrElementType, Object clonedValue) {
+			Object replacement = replacements.get(clonedValue);
+			return replacement != null ? replacement : clonedValue;
+		}
+	}
+
+	private static class LiteralLocator {
+		private final Set<Object> literals = Collections.newSetFromMap(newIdentityMap());
+		private final Set<Object> missing = Collections.newSetFromMap(newIdentityMap());
+		private final Set<GenericEntity> visited = Collections.newSetFromMap(newIdentityMap());
+		private boolean usedAsMapKey;
+
+		public LiteralLocator(List<Object> literals) {
+			this.literals.addAll(literals);
+			this.missing.addAll(literals);
+		}
+
+		public boolean foundAllIn(QueryPlan plan) {
+			if (!missing.isEmpty())
+				visit(plan);
+
+			return missing.isEmpty() && !usedAsMapKey;
+		}
+
+		private void visit(Object value) {
+			if (value == null)
+				return;
+
+			if (literals.contains(value)) {
+				missing.remove(value);
+				return;
+			}
+
+			if (value instanceof GenericEntity) {
+				GenericEntity entity = (GenericEntity) value;
+				if (visited.add(entity))
+					for (Property p : entity.entityType().getProperties())
+						visit(p.get(entity));
+
+			} else if (value instanceof Collection) {
+				for (Object element : (Collection<?>) value)
+					visit(element);
+
+			} else if (value instanceof Map) {
+				for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+					usedAsMapKey |= literals.contains(e.getKey());
+					visit(e.getKey());
+					visit(e.getValue());
+				}
+			}
+		}
+	}
+
+}
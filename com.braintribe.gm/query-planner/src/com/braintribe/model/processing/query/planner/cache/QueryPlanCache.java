@@ -0,0 +1,142 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.query.planner.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.braintribe.model.processing.query.planner.QueryPlanner;
+import com.braintribe.model.query.SelectQuery;
+import com.braintribe.model.queryplan.QueryPlan;
+
+/**
+ * Bounded (LRU) cache of {@link QueryPlan}s, keyed by the {@link QueryShape shape} of the {@link SelectQuery}, i.e. by the query with all the
+ * literals lifted into bind slots. A cached plan is re-used for any query of the same shape by binding the actual literals (and paging) into a copy
+ * of the plan, thus skipping the entire planning (normalization, condition analysis, join ordering...).
+ * <p>
+ * Plans whose structure depends on the actual literal values (e.g. two range conditions on the same property were merged into one) are recognized
+ * when the plan is built, and such shapes are always planned from scratch. The same applies for queries which cannot be described by a shape at
+ * all (see {@link QueryShape}).
+ * <p>
+ * As the plan also depends on the index configuration of the underlying repository, every plan is associated with a
+ * {@link #configurationVersion() configuration version}, and the cache must be {@link #invalidate() invalidated} whenever that configuration
+ * changes (e.g. a new index is created).
+ * <p>
+ * This class is thread-safe.
+ * 
+ * @see QueryPlanner#setPlanCache(QueryPlanCache)
+ */
+public class QueryPlanCache {
+
+	private final int maxSize;
+	private final Map<String, CachedQueryPlan> plans;
+	private volatile long configurationVersion;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	private final AtomicLong uncacheable = new AtomicLong();
+	private final AtomicLong invalidations = new AtomicLong();
+
+	public QueryPlanCache(int maxSize) {
+		if (maxSize <= 0)
+			throw new IllegalArgumentException("Maximum size of the query plan cache must be positive, not: " + maxSize);
+
+		this.maxSize = maxSize;
+		this.plans = new LinkedHashMap<String, CachedQueryPlan>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedQueryPlan> eldest) {
+				if (size() <= QueryPlanCache.this.maxSize)
+					return false;
+
+				evictions.incrementAndGet();
+				return true;
+			}
+		};
+	}
+
+	/** Version of the index configuration the cached plans were built for. Incremented with every {@link #invalidate() invalidation}. */
+	public long configurationVersion() {
+		return configurationVersion;
+	}
+
+	/** Removes all the cached plans, to be called whenever the index configuration of the repository changes. */
+	public void invalidate() {
+		synchronized (plans) {
+			configurationVersion++;
+			plans.clear();
+		}
+
+		invalidations.incrementAndGet();
+	}
+
+	/**
+	 * Returns a plan for given query, either by binding the query's literals to a cached plan of the same shape, or by building the plan with given
+	 * planner (and caching it for later).
+	 * 
+	 * @param configurationVersion
+	 *            version of the index configuration the planner is working with; a cached plan is only used if it was built for the same version
+	 */
+	public QueryPlan acquirePlan(SelectQuery query, long configurationVersion, Function<SelectQuery, QueryPlan> planner) {
+		QueryShape shape = QueryShape.analyze(query);
+		if (shape == null) {
+			uncacheable.incrementAndGet();
+			return planner.apply(query);
+		}
+
+		String key = shape.key();
+
+		CachedQueryPlan cachedPlan;
+		synchronized (plans) {
+			cachedPlan = plans.get(key);
+		}
+
+		if (cachedPlan != null && cachedPlan.configurationVersion == configurationVersion) {
+			if (!cachedPlan.isBindable()) {
+				uncacheable.incrementAndGet();
+				return planner.apply(query);
+			}
+
+			hits.incrementAndGet();
+			return cachedPlan.bind(shape);
+		}
+
+		misses.incrementAndGet();
+
+		/* The template query is equal to the original one, just with unique literal instances, so its plan can be returned directly. */
+		QueryShape template = QueryShape.template(query);
+		QueryPlan result = planner.apply(template.query());
+
+		cachedPlan = new CachedQueryPlan(result, template, configurationVersion);
+
+		synchronized (plans) {
+			if (configurationVersion == this.configurationVersion)
+				plans.put(key, cachedPlan);
+		}
+
+		return result;
+	}
+
+	public QueryPlanCacheStatistics statistics() {
+		int size;
+		synchronized (plans) {
+			size = plans.size();
+		}
+
+		return new QueryPlanCacheStatistics(maxSize, size, hits.get(), misses.get(), evictions.get(), uncacheable.get(), invalidations.get());
+	}
+
+}
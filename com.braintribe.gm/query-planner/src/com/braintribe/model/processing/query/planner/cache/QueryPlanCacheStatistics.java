@@ -0,0 +1,77 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.query.planner.cache;
+
+/**
+ * Statistics of a {@link QueryPlanCache}, see {@link QueryPlanCache#statistics()}.
+ */
+public class QueryPlanCacheStatistics {
+
+	private final int maxSize;
+	private final int size;
+	private final long hits;
+	private final long misses;
+	private final long evictions;
+	private final long uncacheable;
+	private final long invalidations;
+
+	public QueryPlanCacheStatistics(int maxSize, int size, long hits, long misses, long evictions, long uncacheable, long invalidations) {
+		this.maxSize = maxSize;
+		this.size = size;
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.uncacheable = uncacheable;
+		this.invalidations = invalidations;
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/** Number of query shapes currently in the cache. */
+	public int getSize() {
+		return size;
+	}
+
+	/** Number of queries whose plan was obtained by binding the query's literals to a cached plan. */
+	public long getHits() {
+		return hits;
+	}
+
+	/** Number of queries which had to be planned, and whose plan was then put into the cache. */
+	public long getMisses() {
+		return misses;
+	}
+
+	/** Number of cached plans removed because the cache was full. */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/** Number of queries which had to be planned because either the query or its plan cannot be cached. */
+	public long getUncacheable() {
+		return uncacheable;
+	}
+
+	/** Number of times the cache was invalidated due to a change of the index configuration. */
+	public long getInvalidations() {
+		return invalidations;
+	}
+
+	@Override
+	public String toString() {
+		return "QueryPlanCacheStatistics[maxSize=" + maxSize + ", size=" + size + ", hits=" + hits + ", misses=" + misses + ", evictions="
+				+ evictions + ", uncacheable=" + uncacheable + ", invalidations=" + invalidations + "]";
+	}
+
+}
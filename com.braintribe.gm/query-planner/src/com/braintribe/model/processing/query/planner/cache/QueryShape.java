@@ -0,0 +1,342 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.query.planner.cache;
+
+import static com.braintribe.utils.lcd.CollectionTools2.newIdentityMap;
+import static com.braintribe.utils.lcd.CollectionTools2.newLinkedMap;
+import static com.braintribe.utils.lcd.CollectionTools2.newList;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.generic.reflection.CollectionType;
+import com.braintribe.model.generic.reflection.EntityType;
+import com.braintribe.model.generic.reflection.GenericModelType;
+import com.braintribe.model.generic.reflection.MapType;
+import com.braintribe.model.generic.reflection.Property;
+import com.braintribe.model.generic.value.EntityReference;
+import com.braintribe.model.query.Operand;
+import com.braintribe.model.query.Paging;
+import com.braintribe.model.query.Query;
+import com.braintribe.model.query.SelectQuery;
+import com.braintribe.model.query.conditions.FulltextComparison;
+
+/**
+ * Structural description of a {@link SelectQuery}, i.e. the query with all its literal values lifted out into an ordered list of bind slots. Two
+ * queries which only differ in these literals (and in their {@link Paging}) have the same {@link #key() key}.
+ * <p>
+ * Literal is any value which is not an {@link Operand} and is stored in a property of type <tt>Object</tt> (e.g. the operands of a
+ * {@link com.braintribe.model.query.conditions.ValueComparison ValueComparison}), or in a collection which is itself such a literal. A
+ * {@link FulltextComparison#getText() fulltext text} is also considered a literal. Only simple values (except for enums, which are part of the
+ * shape) and {@link EntityReference}s can be lifted, a query which contains any other literal (e.g. an entity or a map) has no shape and is
+ * thus not cacheable. The same is true for a query with {@link Query#getEvaluationExcludes() evaluation excludes}.
+ * <p>
+ * Properties which are irrelevant for the planning (like {@link Query#getTraversingCriterion() TC}) are not considered at all.
+ */
+class QueryShape {
+
+	private final boolean copying;
+
+	private final StringBuilder key = new StringBuilder();
+	private final List<Object> literals = newList();
+	private final Map<GenericEntity, Integer> visited = newIdentityMap();
+	private final Map<GenericEntity, GenericEntity> copies;
+
+	private SelectQuery query;
+	private Paging paging;
+	private boolean cacheable = true;
+
+	private QueryShape(boolean copying) {
+		this.copying = copying;
+		this.copies = copying ? newIdentityMap() : null;
+	}
+
+	/** Returns the shape of given query, or <tt>null</tt> if the query cannot be cached. */
+	public static QueryShape analyze(SelectQuery query) {
+		return new QueryShape(false).analyzeQuery(query);
+	}
+
+	/**
+	 * Returns the shape of a copy of given query, where every literal is replaced with an equal, but not identical value. This means that each
+	 * literal of the {@link #query() copy} is a unique instance, so it can be later found in the plan by identity.
+	 */
+	public static QueryShape template(SelectQuery query) {
+		return new QueryShape(true).analyzeQuery(query);
+	}
+
+	private QueryShape analyzeQuery(SelectQuery query) {
+		Set<GenericEntity> evaluationExcludes = query.getEvaluationExcludes();
+		if (evaluationExcludes != null && !evaluationExcludes.isEmpty())
+			return null;
+
+		this.query = (SelectQuery) entity(query);
+
+		return cacheable ? this : null;
+	}
+
+	public String key() {
+		return key.toString();
+	}
+
+	/** For a {@link #template(SelectQuery) template} this is the copy of the original query, otherwise it's the original query itself. */
+	public SelectQuery query() {
+		return query;
+	}
+
+	public List<Object> literals() {
+		return literals;
+	}
+
+	public Paging paging() {
+		return paging;
+	}
+
+	// ###########################################################################################
+	// ## . . . . . . . . . . . . . . . . . . Structure . . . . . . . . . . . . . . . . . . . . ##
+	// ###########################################################################################
+
+	private GenericEntity entity(GenericEntity entity) {
+		Integer index = visited.get(entity);
+		if (index != null) {
+			key.append('@').append(index).append(';');
+			return copying ? copies.get(entity) : entity;
+		}
+
+		visited.put(entity, visited.size());
+
+		EntityType<GenericEntity> et = entity.entityType();
+		key.append(et.getTypeSignature()).append('{');
+
+		GenericEntity result = copying ? et.create() : entity;
+		if (copying)
+			copies.put(entity, result);
+
+		if (entity instanceof Paging)
+			paging = (Paging) entity;
+
+		for (Property p : et.getProperties()) {
+			Object value = p.get(entity);
+
+			if (isIgnored(entity, p)) {
+				if (copying)
+					p.set(result, value);
+				continue;
+			}
+
+			Object valueCopy = isLiteralProperty(entity, p) ? literal(value) : value(value, p.getType());
+
+			if (copying)
+				p.set(result, valueCopy);
+		}
+
+		key.append('}');
+
+		return result;
+	}
+
+	/**
+	 * Identifying properties of the query entities are irrelevant, and so are all the query properties not used by the planner. Paging values are
+	 * not part of the shape, they are simply taken over from the actual query. Ignored values are copied as they are.
+	 */
+	private static boolean isIgnored(GenericEntity entity, Property p) {
+		if (p.isIdentifying() || p.isGlobalId())
+			return true;
+
+		if (entity instanceof Paging)
+			return true;
+
+		if (entity instanceof Query)
+			switch (p.getName()) {
+				case "traversingCriterion":
+				case "evaluationExcludes":
+				case "ignorePriviledgedRoles":
+				case "noAbsenceInformation":
+				case "queryContext":
+					return true;
+				default:
+					return false;
+			}
+
+		return false;
+	}
+
+	private static boolean isLiteralProperty(GenericEntity entity, Property p) {
+		return entity instanceof FulltextComparison && "text".equals(p.getName());
+	}
+
+	private Object value(Object value, GenericModelType type) {
+		if (value == null) {
+			key.append("n;");
+			return null;
+		}
+
+		switch (type.getTypeCode()) {
+			case objectType:
+				return literal(value);
+
+			case entityType:
+				return entity((GenericEntity) value);
+
+			case listType:
+			case setType:
+				return collection((Collection<?>) value, ((CollectionType) type).getCollectionElementType());
+
+			case mapType:
+				return map((Map<?, ?>) value, (MapType) type);
+
+			default:
+				appendToken(value.toString());
+				return value;
+		}
+	}
+
+	private Object collection(Collection<?> collection, GenericModelType elementType) {
+		boolean isSet = collection instanceof Set;
+
+		Collection<Object> result = !copying ? null : isSet ? new LinkedHashSet<>() : newList();
+
+		key.append(isSet ? '<' : '[');
+		for (Object element : collection) {
+			Object elementCopy = value(element, elementType);
+			if (copying)
+				result.add(elementCopy);
+		}
+		key.append(isSet ? '>' : ']');
+
+		return copying ? result : collection;
+	}
+
+	private Object map(Map<?, ?> map, MapType type) {
+		Map<Object, Object> result = copying ? newLinkedMap() : null;
+
+		key.append('(');
+		for (Map.Entry<?, ?> e : map.entrySet()) {
+			Object keyCopy = value(e.getKey(), type.getKeyType());
+			Object valueCopy = value(e.getValue(), type.getValueType());
+			if (copying)
+				result.put(keyCopy, valueCopy);
+		}
+		key.append(')');
+
+		return copying ? result : map;
+	}
+
+	// ###########################################################################################
+	// ## . . . . . . . . . . . . . . . . . . Literals . . . . . . . . . . . . . . . . . . . . .##
+	// ###########################################################################################
+
+	private Object literal(Object value) {
+		if (value == null) {
+			key.append("n;");
+			return null;
+		}
+
+		if (value instanceof Operand)
+			return entity((GenericEntity) value);
+
+		if (value instanceof Enum) {
+			appendToken(value.getClass().getName() + "." + ((Enum<?>) value).name());
+			return value;
+		}
+
+		if (value instanceof Collection && !(value instanceof GenericEntity)) {
+			Collection<?> c = (Collection<?>) value;
+			boolean isSet = c instanceof Set;
+
+			Collection<Object> result = !copying ? null : isSet ? new LinkedHashSet<>() : newList();
+
+			key.append(isSet ? '<' : '[');
+			for (Object element : c) {
+				Object elementCopy = literal(element);
+				if (copying)
+					result.add(elementCopy);
+			}
+			key.append(isSet ? '>' : ']');
+
+			return copying ? result : value;
+		}
+
+		if (value instanceof EntityReference) {
+			EntityReference ref = (EntityReference) value;
+			key.append('?').append(ref.entityType().getShortName()).append(':').append(ref.getTypeSignature()).append(';');
+			return bind(ref);
+		}
+
+		if (!isLiftableScalar(value)) {
+			cacheable = false;
+			return value;
+		}
+
+		key.append('?').append(value.getClass().getSimpleName()).append(';');
+		return bind(value);
+	}
+
+	private static boolean isLiftableScalar(Object value) {
+		return value instanceof String || value instanceof Number || value instanceof Boolean || value instanceof Date;
+	}
+
+	private Object bind(Object value) {
+		Object result = copying ? uniqueCopy(value) : value;
+		if (result == null) {
+			cacheable = false;
+			return value;
+		}
+
+		literals.add(result);
+		return result;
+	}
+
+	/** Returns a value which is equal to given one, but is a new instance, or <tt>null</tt> if such value cannot be created. */
+	@SuppressWarnings("deprecation")
+	private static Object uniqueCopy(Object value) {
+		if (value instanceof String)
+			return new String((String) value);
+		if (value instanceof Integer)
+			return new Integer((Integer) value);
+		if (value instanceof Long)
+			return new Long((Long) value);
+		if (value instanceof Double)
+			return new Double((Double) value);
+		if (value instanceof Float)
+			return new Float((Float) value);
+		if (value instanceof Boolean)
+			return new Boolean((Boolean) value);
+		if (value instanceof BigDecimal)
+			return new BigDecimal(((BigDecimal) value).unscaledValue(), ((BigDecimal) value).scale());
+		if (value instanceof Date)
+			return new Date(((Date) value).getTime());
+		if (value instanceof EntityReference)
+			return referenceCopy((EntityReference) value);
+
+		return null;
+	}
+
+	private static EntityReference referenceCopy(EntityReference ref) {
+		EntityType<EntityReference> et = ref.entityType();
+		EntityReference result = et.create();
+		for (Property p : et.getProperties())
+			p.set(result, p.get(ref));
+
+		return result;
+	}
+
+	private void appendToken(String s) {
+		key.append(s.length()).append(':').append(s);
+	}
+
+}
@@ -0,0 +1,36 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.resource.streaming;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+import com.braintribe.model.resource.CallStreamCapture;
+
+/**
+ * Optionally implemented by an {@link OutputStream} given to a binary retrieval via {@link CallStreamCapture}, if it can send the content of a
+ * file more efficiently than by having it written to it, e.g. via the servlet container's "sendfile" support.
+ * <p>
+ * A retriever which reads from the file system offers the file to this method first, and only writes the data itself if the offer was declined.
+ */
+public interface FileTransferTarget {
+
+	/**
+	 * Takes over the transfer of the bytes between {@code start} (inclusive) and {@code end} (exclusive) of the given file.
+	 * 
+	 * @return <tt>true</tt> iff this target has taken over the transfer, otherwise nothing was written and the caller has to write the data on its
+	 *         own
+	 */
+	boolean transferFile(Path path, long start, long end) throws IOException;
+
+}
@@ -14,14 +14,19 @@ package com.braintribe.model.processing.resource.streaming;
 import static com.braintribe.exception.Exceptions.unchecked;
 
 import java.io.BufferedInputStream;
-import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.function.Supplier;
 
+import com.braintribe.model.generic.stream.StreamProviders;
 import com.braintribe.model.processing.service.api.ServiceRequestContext;
 import com.braintribe.model.resource.Resource;
 import com.braintribe.model.resourceapi.base.BinaryRequest;
@@ -32,7 +37,7 @@ import com.braintribe.model.resourceapi.stream.GetBinaryResponse;
 import com.braintribe.model.resourceapi.stream.StreamBinary;
 import com.braintribe.model.resourceapi.stream.StreamBinaryResponse;
 import com.braintribe.model.resourceapi.stream.range.StreamRange;
-import com.braintribe.utils.IOTools;
+import com.braintribe.utils.stream.KeepAliveDelegateOutputStream;
 import com.braintribe.utils.stream.RangeInputStream;
 
 /**
@@ -43,16 +48,20 @@ public abstract class AbstractFsBasedBinaryRetriever extends AbstractBinaryProce
 	@Override
 	public StreamBinaryResponse stream(ServiceRequestContext context, StreamBinary request, StreamBinaryResponse response) {
 		Path path = resolvePathForRetrieval(request);
-
-		Supplier<InputStream> inputStreamSupplier = () -> openInputStream(path);
-
-		// set response and cut stream
-		inputStreamSupplier = rangifyStream(inputStreamSupplier, request, response, path);
+		long size = path.toFile().length();
+
+		// set response
+		long start = 0;
+		long end = size;
+		if (applyRange(request, response, size)) {
+			start = response.getRangeStart();
+			end = response.getRangeEnd() + 1;
+		}
 
 		context.notifyResponse(response);
 
-		try (InputStream is = inputStreamSupplier.get(); OutputStream os = request.getCapture().openStream()) {
-			IOTools.pump(is, os);
+		try (OutputStream os = request.getCapture().openStream()) {
+			transfer(path, start, end, os);
 		} catch (IOException e) {
 			throw unchecked(e, "Failed to stream from " + path);
 		}
@@ -60,6 +69,35 @@ public abstract class AbstractFsBasedBinaryRetriever extends AbstractBinaryProce
 		return response;
 	}
 
+	/**
+	 * Offers the transfer to the target first, in case it is a {@link FileTransferTarget}. The target is usually wrapped in a
+	 * {@link KeepAliveDelegateOutputStream} (see {@link StreamProviders#from(OutputStream)}), so the wrapper is looked through for this check.
+	 * <p>
+	 * Otherwise the data is transferred from the file's channel, starting directly at given position, rather than skipping the leading bytes of a
+	 * buffered stream. Only if the target is a {@link FileOutputStream} the transfer is done by the operating system, for any other stream the data
+	 * is copied via a buffer, just like with a regular stream copy.
+	 */
+	private static void transfer(Path path, long start, long end, OutputStream os) throws IOException {
+		OutputStream unwrapped = KeepAliveDelegateOutputStream.unwrap(os);
+		if (unwrapped instanceof FileTransferTarget && ((FileTransferTarget) unwrapped).transferFile(path, start, end))
+			return;
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			WritableByteChannel target = unwrapped instanceof FileOutputStream //
+					? ((FileOutputStream) unwrapped).getChannel()
+					: Channels.newChannel(os);
+
+			long position = start;
+			while (position < end) {
+				long transferred = channel.transferTo(position, end - position, target);
+				if (transferred <= 0)
+					break; // the file got shorter in the meantime
+
+				position += transferred;
+			}
+		}
+	}
+
 	private InputStream openInputStream(Path path) {
 		try {
 			return new BufferedInputStream(Files.newInputStream(path));
@@ -95,40 +133,47 @@ public abstract class AbstractFsBasedBinaryRetriever extends AbstractBinaryProce
 	private Supplier<InputStream> rangifyStream( //
 			Supplier<InputStream> inputStreamSupplier, BinaryRetrievalRequest request, BinaryRetrievalResponse response, Path path) {
 
-		StreamRange streamRange = request.getRange();
-		if (streamRange == null)
+		if (!applyRange(request, response, path.toFile().length()))
 			return inputStreamSupplier;
 
-		Long start = streamRange.getStart();
-		if (start == null)
-			return inputStreamSupplier;
+		Long start = response.getRangeStart();
+		Long end = response.getRangeEnd();
 
-		try {
-			File file = path.toFile();
+		return () -> {
+			try {
+				return new RangeInputStream(inputStreamSupplier.get(), start, end + 1);
+			} catch (Exception e) {
+				throw unchecked(e, "Could not wrap input stream with range: " + start + "-" + end);
+			}
+		};
+	}
 
-			Long requestedEnd = streamRange.getEnd();
-			if (requestedEnd == null || requestedEnd < 0) 
-				requestedEnd = Long.MAX_VALUE;
+	/**
+	 * Sets the range information on given response, if the request specifies a range.
+	 * 
+	 * @return <tt>true</tt> iff the request specifies a range
+	 */
+	private boolean applyRange(BinaryRetrievalRequest request, BinaryRetrievalResponse response, long size) {
+		StreamRange streamRange = request.getRange();
+		if (streamRange == null)
+			return false;
 
-			Long end = Math.min(requestedEnd, file.length() - 1);
+		Long start = streamRange.getStart();
+		if (start == null)
+			return false;
 
-			response.setRanged(true);
-			response.setRangeStart(start);
-			response.setRangeEnd(end);
-			response.setSize(file.length());
+		Long requestedEnd = streamRange.getEnd();
+		if (requestedEnd == null || requestedEnd < 0)
+			requestedEnd = Long.MAX_VALUE;
 
-			return () -> {
-				try {
-					return new RangeInputStream(inputStreamSupplier.get(), start, end + 1);
-				} catch (Exception e) {
-					throw unchecked(e, "Could not wrap input stream with range: " + start + "-" + end);
-				}
-			};
+		long end = Math.min(requestedEnd, size - 1);
 
-		} catch (Exception e) {
-			throw new RuntimeException("Could not rangify stream according to " + streamRange, e);
-		}
+		response.setRanged(true);
+		response.setRangeStart(start);
+		response.setRangeEnd(end);
+		response.setSize(size);
 
+		return true;
 	}
 
 	protected abstract Path resolvePathForRetrieval(BinaryRetrievalRequest request);
@@ -0,0 +1,145 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.gm.service.commons.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.braintribe.gm.service.commons.test.model.ServiceRequest1;
+import com.braintribe.gm.service.commons.test.model.ServiceRequest2;
+import com.braintribe.gm.service.commons.test.model.ServiceRequestBase;
+import com.braintribe.model.generic.reflection.EntityType;
+import com.braintribe.model.processing.service.api.ServiceAroundProcessor;
+import com.braintribe.model.processing.service.api.ServicePostProcessor;
+import com.braintribe.model.processing.service.api.ServicePreProcessor;
+import com.braintribe.model.processing.service.common.ConfigurableDispatchingServiceProcessor;
+import com.braintribe.model.service.api.ServiceRequest;
+
+/**
+ * Tests for {@link ConfigurableDispatchingServiceProcessor}, mainly that the cached interceptor chains behave just like chains built per request.
+ */
+public class ConfigurableDispatchingServiceProcessorTest {
+
+	private final ConfigurableDispatchingServiceProcessor dispatcher = new ConfigurableDispatchingServiceProcessor();
+
+	@Before
+	public void registerProcessor() {
+		dispatcher.register(ServiceRequestBase.T, (c, r) -> r.entityType().getShortName());
+	}
+
+	@Test
+	public void typeBasedInterceptors() {
+		dispatcher.registerInterceptor("all").register(around("[", "]"));
+		dispatcher.registerInterceptor("r1").registerForType(ServiceRequest1.T, around("1:", ""));
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(process(ServiceRequest1.T.create())).isEqualTo("[1:ServiceRequest1]");
+			assertThat(process(ServiceRequest2.T.create())).isEqualTo("[ServiceRequest2]");
+		}
+	}
+
+	@Test
+	public void instanceDependentInterceptors() {
+		dispatcher.registerInterceptor("forced").registerWithPredicate(r -> ((ServiceRequestBase) r).getForceException(), around("!", ""));
+		dispatcher.registerInterceptor("r1").registerForType(ServiceRequest1.T, around("1:", ""));
+
+		ServiceRequest1 forced = ServiceRequest1.T.create();
+		forced.setForceException(true);
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(process(ServiceRequest1.T.create())).isEqualTo("1:ServiceRequest1");
+			assertThat(process(forced)).isEqualTo("!1:ServiceRequest1");
+		}
+	}
+
+	/** Same kinds of registrations as the platform's evaluator, i.e. no interceptor depends on the request instance. */
+	@Test
+	public void chainIsCachedForPlatformConfiguration() {
+		AtomicInteger authChecks = new AtomicInteger();
+		AtomicInteger systemChecks = new AtomicInteger();
+
+		dispatcher.registerInterceptor("thread-naming").register(around("", ""));
+		dispatcher.registerInterceptor("time-measuring").register(around("", ""));
+		dispatcher.registerInterceptor("auth").registerForTypePredicate(t -> {
+			authChecks.incrementAndGet();
+			return prototype(t).supportsAuthentication();
+		}, around("auth:", ""));
+		dispatcher.registerInterceptor("web-logout").registerForType(ServiceRequest2.T, around("2:", ""));
+		dispatcher.registerInterceptor("domain-mapped-dispatching").registerForTypePredicate(t -> {
+			systemChecks.incrementAndGet();
+			return !prototype(t).system();
+		}, around("dmd:", ""));
+		dispatcher.registerInterceptor("require-system-user").registerForType(ServiceRequest1.T, around("1:", ""));
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(process(ServiceRequest1.T.create())).isEqualTo("dmd:1:ServiceRequest1");
+			assertThat(process(ServiceRequest2.T.create())).isEqualTo("auth:2:dmd:ServiceRequest2");
+		}
+
+		// type predicates are only evaluated once per request type
+		assertThat(authChecks.get()).isEqualTo(2);
+		assertThat(systemChecks.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void registrationChangesAreConsidered() {
+		assertThat(process(ServiceRequest1.T.create())).isEqualTo("ServiceRequest1");
+
+		dispatcher.registerInterceptor("outer").register(around("(", ")"));
+		assertThat(process(ServiceRequest1.T.create())).isEqualTo("(ServiceRequest1)");
+
+		dispatcher.registerInterceptor("first").before("outer").register(around("<", ">"));
+		assertThat(process(ServiceRequest1.T.create())).isEqualTo("<(ServiceRequest1)>");
+
+		dispatcher.removeInterceptor("outer");
+		assertThat(process(ServiceRequest1.T.create())).isEqualTo("<ServiceRequest1>");
+
+		dispatcher.register(ServiceRequest1.T, (c, r) -> "custom");
+		assertThat(process(ServiceRequest1.T.create())).isEqualTo("<custom>");
+	}
+
+	@Test
+	public void preAndPostProcessors() {
+		dispatcher.registerInterceptor("pre").register((ServicePreProcessor<ServiceRequest>) (c, r) -> ServiceRequest2.T.create());
+		dispatcher.registerInterceptor("post").register((ServicePostProcessor<Object>) (c, r) -> r + "!");
+
+		assertThat(process(ServiceRequest1.T.create())).isEqualTo("ServiceRequest2!");
+	}
+
+	@Test
+	public void unmappedRequest() {
+		ConfigurableDispatchingServiceProcessor emptyDispatcher = new ConfigurableDispatchingServiceProcessor();
+		emptyDispatcher.registerInterceptor("post").register((ServicePostProcessor<Object>) (c, r) -> r);
+
+		assertThatThrownBy(() -> emptyDispatcher.process(null, ServiceRequest1.T.create())) //
+				.isInstanceOf(UnsupportedOperationException.class) //
+				.hasMessageContaining("No service processor mapped for request");
+	}
+
+	private Object process(ServiceRequest request) {
+		return dispatcher.process(null, request);
+	}
+
+	private static ServiceRequest prototype(EntityType<?> requestType) {
+		return (ServiceRequest) requestType.createRaw();
+	}
+
+	private static ServiceAroundProcessor<ServiceRequest, Object> around(String prefix, String suffix) {
+		return (c, r, proceedContext) -> prefix + proceedContext.proceed(r) + suffix;
+	}
+
+}
@@ -14,7 +14,9 @@ package com.braintribe.model.processing.service.common;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 import com.braintribe.model.generic.reflection.EntityType;
@@ -29,6 +31,20 @@ import com.braintribe.model.processing.service.api.ServiceProcessor;
 import com.braintribe.model.processing.service.api.ServiceRequestContext;
 import com.braintribe.model.service.api.ServiceRequest;
 
+/**
+ * {@link ServiceProcessor} which dispatches requests to processors registered per request type, wrapped with the registered interceptors.
+ * <p>
+ * The interceptor chain is resolved once per request {@link EntityType} and cached. Interceptors registered via
+ * {@link InterceptorRegistration#register(ServiceInterceptorProcessor) register},
+ * {@link InterceptorRegistration#registerForType(EntityType, ServiceInterceptorProcessor) registerForType} or
+ * {@link InterceptorRegistration#registerForTypePredicate(Predicate, ServiceInterceptorProcessor) registerForTypePredicate} only depend on the
+ * request type, so if only such interceptors apply to a request, the very same chain instance is used for every request of its type. Interceptors registered with a
+ * custom {@link InterceptorRegistration#registerWithPredicate(Predicate, ServiceInterceptorProcessor) predicate} are evaluated for each request,
+ * but only those are, as the type-based ones are already resolved.
+ * <p>
+ * The cache is cleared whenever a processor or an interceptor is registered or removed. Note that changes made directly to the
+ * {@link MutableDenotationMap} passed via constructor are not recognized.
+ */
 public class ConfigurableDispatchingServiceProcessor implements ServiceProcessor<ServiceRequest, Object> {
 
 	private static final ServiceProcessor<ServiceRequest, Object> DEFAULT_PROCESSOR = (c, r) -> { 
@@ -39,10 +55,15 @@ public class ConfigurableDispatchingServiceProcessor implements ServiceProcessor
 	
 	private final List<InterceptorEntry> interceptors = new ArrayList<>();
 
+	/* Replaced rather than cleared on change, so that a chain resolved concurrently with the change cannot end up in the new cache. */
+	private volatile Map<EntityType<?>, ResolvedChain> chainCache = new ConcurrentHashMap<>();
+
 	private static class InterceptorEntry {
 		String identification;
 		Predicate<ServiceRequest> filter;
 		ServiceInterceptorProcessor interceptor;
+		/* non-null iff the filter only depends on the request type, in which case it is equivalent to typeFilter.test(request.entityType()) */
+		Predicate<EntityType<?>> typeFilter;
 		
 		public InterceptorEntry(String identifier, Predicate<ServiceRequest> filter, ServiceInterceptorProcessor interceptor) {
 			super();
@@ -50,6 +71,38 @@ public class ConfigurableDispatchingServiceProcessor implements ServiceProcessor
 			this.filter = filter;
 			this.interceptor = interceptor;
 		}
+		
+		public InterceptorEntry(String identifier, EntityType<?> requestType, ServiceInterceptorProcessor interceptor) {
+			this(identifier, requestType::isInstance, interceptor);
+			this.typeFilter = requestType::isAssignableFrom;
+		}
+
+		public static InterceptorEntry forTypePredicate(String identifier, Predicate<EntityType<?>> typePredicate,
+				ServiceInterceptorProcessor interceptor) {
+			InterceptorEntry result = new InterceptorEntry(identifier, r -> typePredicate.test(r.entityType()), interceptor);
+			result.typeFilter = typePredicate;
+			return result;
+		}
+	}
+
+	/**
+	 * Interceptor chain resolved for one request type. If none of the interceptors depends on the actual request instance, the {@link #chain} is
+	 * built right away, otherwise it has to be built per request from the {@link #candidates}.
+	 */
+	private static class ResolvedChain {
+		final ServiceProcessor<?, ?> processor;
+		final List<InterceptorEntry> candidates;
+		final ServiceProcessor<ServiceRequest, Object> chain;
+
+		public ResolvedChain(ServiceProcessor<?, ?> processor, List<InterceptorEntry> candidates, boolean instanceDependent) {
+			this.processor = processor;
+			this.candidates = candidates;
+			this.chain = instanceDependent ? null : buildChain(processor, candidates, null);
+		}
+
+		public ServiceProcessor<ServiceRequest, Object> chainFor(ServiceRequest request) {
+			return chain != null ? chain : buildChain(processor, candidates, request);
+		}
 	}
 	
 	public ConfigurableDispatchingServiceProcessor() {
@@ -63,6 +116,7 @@ public class ConfigurableDispatchingServiceProcessor implements ServiceProcessor
 	
 	public <R extends ServiceRequest> void register(EntityType<R> requestType, ServiceProcessor<? super R, ?> serviceProcessor) {
 		processorMap.put(requestType, serviceProcessor);  
+		invalidateChainCache();
 	}
 	
 	public InterceptorRegistration registerInterceptor(String identification) {
@@ -73,24 +127,33 @@ public class ConfigurableDispatchingServiceProcessor implements ServiceProcessor
 			
 			@Override
 			public void register(ServiceInterceptorProcessor interceptor) {
-				registerWithPredicate(r -> true, interceptor);
+				register(new InterceptorEntry(identification, ServiceRequest.T, interceptor));
 			}
 			
 			@Override
 			public <R extends ServiceRequest> void registerForType(EntityType<R> requestType, ServiceInterceptorProcessor interceptor) {
-				registerWithPredicate(r -> requestType.isInstance(r), interceptor);
+				register(new InterceptorEntry(identification, requestType, interceptor));
 			}
 			
 			@Override
 			public void registerWithPredicate(Predicate<ServiceRequest> predicate, ServiceInterceptorProcessor interceptor) {
-				InterceptorEntry interceptorEntry = new InterceptorEntry(identification, predicate, interceptor);
-				
+				register(new InterceptorEntry(identification, predicate, interceptor));
+			}
+			
+			@Override
+			public void registerForTypePredicate(Predicate<EntityType<?>> typePredicate, ServiceInterceptorProcessor interceptor) {
+				register(InterceptorEntry.forTypePredicate(identification, typePredicate, interceptor));
+			}
+			
+			private void register(InterceptorEntry interceptorEntry) {
 				if (insertIdentification != null) {
 					requireInterceptorIterator(insertIdentification, before).add(interceptorEntry);
 				}
 				else {
 					interceptors.add(interceptorEntry);
 				}
+				
+				invalidateChainCache();
 			}
 			
 			@Override
@@ -134,6 +197,11 @@ public class ConfigurableDispatchingServiceProcessor implements ServiceProcessor
 	
 	public void removeInterceptor(String identification) {
 		requireInterceptorIterator(identification, true).remove();
+		invalidateChainCache();
+	}
+	
+	private void invalidateChainCache() {
+		chainCache = new ConcurrentHashMap<>();
 	}
 	
 	private ServiceProcessor<?, ?> getProcessor(ServiceRequest request, ServiceProcessor<?, ?> defaultProcessor) {
@@ -167,14 +235,46 @@ public class ConfigurableDispatchingServiceProcessor implements ServiceProcessor
 
 
 	private ServiceProcessor<ServiceRequest, Object> getInterceptingProcessor(ServiceRequest request) {
+		Map<EntityType<?>, ResolvedChain> cache = chainCache;
+		EntityType<?> requestType = request.entityType();
+		
+		ResolvedChain resolvedChain = cache.get(requestType);
+		if (resolvedChain == null) {
+			resolvedChain = resolveChain(request);
+			cache.put(requestType, resolvedChain);
+		}
+		
+		return resolvedChain.chainFor(request);
+	}
+
+	private ResolvedChain resolveChain(ServiceRequest request) {
 		ServiceProcessor<?, ?> processor = getProcessor(request, DEFAULT_PROCESSOR);
 		
+		List<InterceptorEntry> candidates = new ArrayList<>();
+		boolean instanceDependent = false;
+		
+		for (InterceptorEntry entry: interceptors) {
+			if (entry.typeFilter == null) {
+				candidates.add(entry);
+				instanceDependent = true;
+				
+			} else if (entry.typeFilter.test(request.entityType())) {
+				candidates.add(entry);
+			}
+		}
+		
+		return new ResolvedChain(processor, candidates, instanceDependent);
+	}
+
+	/** @param request if not <tt>null</tt>, the filters of the entries are tested with it, otherwise all the entries are known to apply */
+	private static ServiceProcessor<ServiceRequest, Object> buildChain(ServiceProcessor<?, ?> processor, List<InterceptorEntry> entries,
+			ServiceRequest request) {
 		InterceptingServiceProcessorBuilder builder = ServiceProcessingChain.create(processor); //
 		
 		boolean hasAroundProcessors = false;
 		
-		for (InterceptorEntry entry: interceptors) {
-			if (entry.filter.test(request)) {
+		for (InterceptorEntry entry: entries) {
+			if (request == null || entry.typeFilter != null || entry.filter.test(request)) {
 				ServiceInterceptorProcessor interceptor = entry.interceptor;
 				switch (interceptor.getKind()) {
 					case pre: 
@@ -194,7 +294,7 @@ public class ConfigurableDispatchingServiceProcessor implements ServiceProcessor
 		}
 		
 		if (!hasAroundProcessors && processor == DEFAULT_PROCESSOR)
-			throw new UnsupportedOperationException("No service processor mapped for request: " + request);
+			return DEFAULT_PROCESSOR;
 		
 		return builder.build();
 	}
@@ -22,5 +22,11 @@ public interface InterceptorRegistration {
 	InterceptorRegistration after(String identification);
 	void register(ServiceInterceptorProcessor interceptor);
 	void registerWithPredicate(Predicate<ServiceRequest> predicate, ServiceInterceptorProcessor interceptor);
+	/**
+	 * Registers an interceptor for all requests whose {@link EntityType} matches given predicate. Unlike with
+	 * {@link #registerWithPredicate(Predicate, ServiceInterceptorProcessor)}, the predicate is only evaluated once per request type, so it must not
+	 * depend on anything but the type.
+	 */
+	void registerForTypePredicate(Predicate<EntityType<?>> typePredicate, ServiceInterceptorProcessor interceptor);
 	<R extends ServiceRequest> void registerForType(EntityType<R> requestType, ServiceInterceptorProcessor interceptor);
 }
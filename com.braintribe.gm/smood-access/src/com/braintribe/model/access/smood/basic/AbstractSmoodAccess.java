@@ -11,6 +11,7 @@
 // ============================================================================
 package com.braintribe.model.access.smood.basic;
 
+import java.util.ConcurrentModificationException;
 import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -18,6 +19,7 @@ import java.util.function.Supplier;
 
 import com.braintribe.cfg.Configurable;
 import com.braintribe.exception.Exceptions;
+import com.braintribe.logging.Logger;
 import com.braintribe.model.access.AbstractAccess;
 import com.braintribe.model.generic.GenericEntity;
 import com.braintribe.model.generic.pr.criteria.matching.Matcher;
@@ -33,11 +35,16 @@ import com.braintribe.model.query.SelectQueryResult;
 
 public abstract class AbstractSmoodAccess extends AbstractAccess {
 
+	private static final Logger log = Logger.getLogger(AbstractSmoodAccess.class);
+
 	protected Supplier<String> localeProvider;
 
 	protected ReadWriteLock readWriteLock;
 	protected Lock readLock;
 	protected Lock writeLock;
+	protected boolean snapshotReads;
+	protected int queryPlanCacheSize;
+	protected int queryEvaluationBatchSize;
 
 	@Configurable
 	public void setReadWriteLock(ReadWriteLock readWriteLock) {
@@ -46,6 +53,39 @@ public abstract class AbstractSmoodAccess extends AbstractAccess {
 		this.writeLock = readWriteLock.writeLock();
 	}
 
+	/**
+	 * If set to <tt>true</tt>, the underlying {@link Smood} resolves entities and index lookups from snapshots (see
+	 * {@link Smood#setUseSnapshotReads(boolean)}), so these do not wait for the writes. Default is <tt>false</tt>.
+	 * <p>
+	 * In this mode the queries of this access do not acquire the read-lock either. Note that the entities themselves are shared with the writers,
+	 * i.e. a query (including the cloning of its results) running concurrently with a write might see some of the property changes of that write.
+	 * Should the cloning fail due to a collection being modified concurrently, the query is evaluated again while holding the read-lock.
+	 * <p>
+	 * This mode requires the {@link #setReadWriteLock(ReadWriteLock) lock} to be a {@link java.util.concurrent.locks.ReentrantReadWriteLock}.
+	 */
+	@Configurable
+	public void setSnapshotReads(boolean snapshotReads) {
+		this.snapshotReads = snapshotReads;
+	}
+
+	/**
+	 * Maximum number of query plans cached by the underlying {@link Smood} (see {@link Smood#setQueryPlanCacheSize(int)}). Default is 0, i.e. no
+	 * cache is used.
+	 */
+	@Configurable
+	public void setQueryPlanCacheSize(int queryPlanCacheSize) {
+		this.queryPlanCacheSize = queryPlanCacheSize;
+	}
+
+	/**
+	 * Number of tuples the underlying {@link Smood} passes between the query evaluation steps at once (see
+	 * {@link Smood#setQueryEvaluationBatchSize(int)}). Default is 0, i.e. tuples are evaluated one at a time.
+	 */
+	@Configurable
+	public void setQueryEvaluationBatchSize(int queryEvaluationBatchSize) {
+		this.queryEvaluationBatchSize = queryEvaluationBatchSize;
+	}
+
 	@Configurable
 	public void setLocaleProvider(Supplier<String> localeProvider) {
 		this.localeProvider = localeProvider;
@@ -55,13 +95,7 @@ public abstract class AbstractSmoodAccess extends AbstractAccess {
 	public SelectQueryResult query(SelectQuery query) {
 		SmoodAccessLogging.selectQuery(query);
 
-		readLock.lock();
-		try {
-			return r_query(query);
-
-		} finally {
-			readLock.unlock();
-		}
+		return read(() -> r_query(query));
 	}
 
 	protected SelectQueryResult r_query(SelectQuery query) {
@@ -76,13 +110,7 @@ public abstract class AbstractSmoodAccess extends AbstractAccess {
 
 	@Override
 	public EntityQueryResult queryEntities(EntityQuery query) {
-		readLock.lock();
-		try {
-			return r_queryEntities(query);
-
-		} finally {
-			readLock.unlock();
-		}
+		return read(() -> r_queryEntities(query));
 	}
 
 	protected EntityQueryResult r_queryEntities(EntityQuery query) {
@@ -99,12 +127,32 @@ public abstract class AbstractSmoodAccess extends AbstractAccess {
 
 	@Override
 	public PropertyQueryResult queryProperty(PropertyQuery query) {
-		readLock.lock();
 		try {
-			return r_queryProperty(query);
+			return read(() -> r_queryProperty(query));
 
 		} catch (RuntimeException e) {
 			throw Exceptions.contextualize(e, "Error while querying property '" + query.getPropertyName() + "' of: " + query.getEntityReference().getTypeSignature());
+		}
+	}
+
+	/**
+	 * Evaluates given reading function while holding the read-lock, unless {@link #setSnapshotReads(boolean) snapshot reads} are enabled, in which
+	 * case it is evaluated without any lock first, and only evaluated again with the read-lock if a concurrent write modified a collection it was
+	 * iterating over.
+	 */
+	protected <T> T read(Supplier<T> reader) {
+		if (snapshotReads) {
+			try {
+				return reader.get();
+
+			} catch (ConcurrentModificationException e) {
+				log.debug(() -> "Collection was modified by a concurrent write while reading without lock. Reading with read-lock.");
+			}
+		}
+
+		readLock.lock();
+		try {
+			return reader.get();
 
 		} finally {
 			readLock.unlock();
@@ -105,6 +105,9 @@ public class SmoodAccess extends AbstractSmoodAccess {
 			Object genericModelValue = dataDelegate.loadModel();
 			Smood smood = new Smood(readWriteLock);
 			smood.setLocaleProvider(localeProvider);
+			smood.setUseSnapshotReads(snapshotReads);
+			smood.setQueryPlanCacheSize(queryPlanCacheSize);
+			smood.setQueryEvaluationBatchSize(queryEvaluationBatchSize);
 			if (getPartitions().size() <= 1)
 				smood.setDefaultPartition(defaultPartition);
 
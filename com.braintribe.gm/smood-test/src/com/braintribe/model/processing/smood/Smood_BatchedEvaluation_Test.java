@@ -0,0 +1,136 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood;
+
+import static com.braintribe.utils.lcd.CollectionTools2.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.braintribe.model.processing.query.fluent.SelectQueryBuilder;
+import com.braintribe.model.processing.query.test.model.Person;
+import com.braintribe.model.processing.smood.test.AbstractSmoodTests;
+import com.braintribe.model.query.SelectQuery;
+import com.braintribe.model.record.ListRecord;
+
+/**
+ * Tests for {@link Smood#setQueryEvaluationBatchSize(int)}, each query is evaluated in batches and tuple-at-a-time, and both results are compared.
+ * <p>
+ * The batch size is smaller than the population, so that the batch boundaries are crossed.
+ */
+public class Smood_BatchedEvaluation_Test extends AbstractSmoodTests {
+
+	private static final int BATCH_SIZE = 2;
+
+	@Override
+	protected void postConstruct() {
+		b.person("Jack").companyName("Smith & Co").phoneNumber("555-1").age(10).nicknames("Jacky", "Jay", "Jackson").create();
+		b.person("John").companyName("smithery").phoneNumber("555-2").age(20).nicknames("Johnny", "Jo").create();
+		b.person("Jane").companyName("Acme").phoneNumber("555-3").age(30).nicknames("Janie").create();
+		b.person("Jill").companyName("Sunrise").phoneNumber("666-4").age(40).create();
+		b.person("Joe").companyName("Acme").phoneNumber("555-5").age(50).nicknames("Joey", "Jo-Jo", "J", "Big Joe").create();
+	}
+
+	@Test
+	public void filterWithConjunctionAndPatterns() {
+		SelectQuery query = new SelectQueryBuilder().from(Person.T, "p") //
+				.select("p", "name") //
+				.where() //
+				.conjunction() //
+				.property("p", "companyName").ilike("S*") //
+				.property("p", "phoneNumber").like("555-*") //
+				.property("p", "age").gt(0) //
+				.close() //
+				.done();
+
+		assertThat(evaluateBothWays(query)).containsExactlyInAnyOrder("Jack", "John");
+	}
+
+	@Test
+	public void filterRejectingWholeBatches() {
+		SelectQuery query = new SelectQueryBuilder().from(Person.T, "p") //
+				.select("p", "name") //
+				.where().property("p", "age").ge(50) //
+				.done();
+
+		assertThat(evaluateBothWays(query)).containsExactly("Joe");
+	}
+
+	@Test
+	public void aggregation() {
+		SelectQuery query = new SelectQueryBuilder().from(Person.T, "p") //
+				.select().sum("p", "age") //
+				.select("p", "companyName") //
+				.orderBy().property("p", "companyName") //
+				.done();
+
+		List<Object> results = evaluateBothWays(query);
+		assertThat(results).hasSize(4);
+		assertThat(results.get(0)).isEqualTo(asList(80, "Acme"));
+	}
+
+	@Test
+	public void aggregationOfEmptyResult() {
+		SelectQuery query = new SelectQueryBuilder().from(Person.T, "p") //
+				.select().count("p") //
+				.where().property("p", "age").gt(100) //
+				.done();
+
+		assertThat(evaluateBothWays(query)).containsExactly(0L);
+	}
+
+	/** The join cannot provide batches, so the filter and the projection page through its tuples. */
+	@Test
+	public void filterOverJoin() {
+		SelectQuery query = new SelectQueryBuilder().from(Person.T, "p") //
+				.join("p", "nicknames", "n") //
+				.select("p", "name") //
+				.select("n") //
+				.where().property("p", "age").gt(10) //
+				.done();
+
+		assertThat(evaluateBothWays(query)).hasSize(7);
+	}
+
+	@Test
+	public void paginatedJoin() {
+		SelectQuery query = new SelectQueryBuilder().from(Person.T, "p") //
+				.join("p", "nicknames", "n") //
+				.select("n") //
+				.paging(3, 2) //
+				.done();
+
+		assertThat(evaluateBothWays(query)).hasSize(3);
+	}
+
+	private List<Object> evaluateBothWays(SelectQuery query) {
+		smood.setQueryEvaluationBatchSize(0);
+		List<Object> expected = evaluate(query);
+
+		smood.setQueryEvaluationBatchSize(BATCH_SIZE);
+		List<Object> actual = evaluate(query);
+
+		assertThat(actual).isEqualTo(expected);
+
+		return actual;
+	}
+
+	private List<Object> evaluate(SelectQuery query) {
+		return smood.query(query).getResults().stream() //
+				.map(o -> o instanceof ListRecord ? ((ListRecord) o).getValues() : o) //
+				.collect(Collectors.toList());
+	}
+
+}
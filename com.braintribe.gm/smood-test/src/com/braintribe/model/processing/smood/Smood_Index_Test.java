@@ -21,6 +21,8 @@ import org.junit.Test;
 
 import com.braintribe.model.processing.query.test.builder.PersonBuilder;
 import com.braintribe.model.processing.query.test.model.Person;
+import com.braintribe.model.processing.smood.population.info.IndexInfoImpl;
+import com.braintribe.model.processing.smood.population.info.RepositoryInfoImpl;
 import com.braintribe.model.processing.smood.test.AbstractSmoodTests;
 import com.braintribe.utils.junit.assertions.BtAssertions;
 
@@ -52,6 +54,15 @@ public class Smood_Index_Test extends AbstractSmoodTests {
 		assertThat(smood.provideIndexInfo(Person.class.getName(), "indexedName")).isNotNull();
 	}
 
+	@Test
+	public void indexReportsFootprint() {
+		IndexInfoImpl indexInfo = (IndexInfoImpl) smood.provideIndexInfo(Person.class.getName(), "indexedName");
+		assertThat(indexInfo.getEstimatedFootprint()).isPositive();
+
+		RepositoryInfoImpl repositoryInfo = (RepositoryInfoImpl) smood.provideRepositoryInfo();
+		assertThat(repositoryInfo.getEstimatedFootprint()).isGreaterThanOrEqualTo(indexInfo.getEstimatedFootprint());
+	}
+
 	@Test
 	public void findPersonByName() {
 		Person foundPerson = (Person) smood.getValueForIndex(NAME_INDEX, NAME);
@@ -0,0 +1,171 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood;
+
+import static com.braintribe.utils.lcd.CollectionTools2.asSet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.braintribe.model.processing.query.fluent.SelectQueryBuilder;
+import com.braintribe.model.processing.query.planner.cache.QueryPlanCacheStatistics;
+import com.braintribe.model.processing.query.test.model.Company;
+import com.braintribe.model.processing.query.test.model.Person;
+import com.braintribe.model.processing.smood.test.AbstractSmoodTests;
+import com.braintribe.model.query.SelectQuery;
+
+/**
+ * Tests for {@link Smood#setQueryPlanCacheSize(int)}.
+ */
+public class Smood_QueryPlanCache_Test extends AbstractSmoodTests {
+
+	@Override
+	protected void postConstruct() {
+		smood.setQueryPlanCacheSize(2);
+	}
+
+	@Test
+	public void sameShapeIsPlannedOnce() {
+		Person p1 = b.person("P1").indexedName("P1").create();
+		Person p2 = b.person("P2").indexedName("P2").create();
+
+		assertThat(queryByIndexedName("P1")).containsExactly(p1);
+		assertThat(queryByIndexedName("P2")).containsExactly(p2);
+		assertThat(queryByIndexedName("P3")).isEmpty();
+
+		QueryPlanCacheStatistics stats = smood.getQueryPlanCacheStatistics();
+		assertThat(stats.getMisses()).isEqualTo(1);
+		assertThat(stats.getHits()).isEqualTo(2);
+		assertThat(stats.getSize()).isEqualTo(1);
+	}
+
+	@Test
+	public void bindsCollectionsRangesAndPaging() {
+		Person p1 = b.person("P1").age(10).create();
+		Person p2 = b.person("P2").age(20).create();
+		Person p3 = b.person("P3").age(30).create();
+
+		assertThat(queryByNames(asSet("P1", "P2"), 0, 100, 0)).containsExactly(p1, p2);
+		assertThat(queryByNames(asSet("P2", "P3"), 0, 100, 0)).containsExactly(p2, p3);
+		assertThat(queryByNames(asSet("P1", "P2", "P3"), 0, 100, 0)).containsExactly(p1, p2, p3);
+		assertThat(queryByNames(asSet("P1", "P2", "P3"), 15, 100, 0)).containsExactly(p2, p3);
+		assertThat(queryByNames(asSet("P1", "P2", "P3"), 15, 25, 0)).containsExactly(p2);
+		assertThat(queryByNames(asSet("P1", "P2", "P3"), 0, 100, 1)).containsExactly(p2, p3);
+
+		// two-element set, three-element set
+		QueryPlanCacheStatistics stats = smood.getQueryPlanCacheStatistics();
+		assertThat(stats.getMisses()).isEqualTo(2);
+		assertThat(stats.getHits()).isEqualTo(4);
+	}
+
+	@Test
+	public void valueDependentPlanIsNotReused() {
+		Person p = b.person("P1").create();
+
+		assertThat(queryWithConstantCondition(1, 1)).containsExactly(p);
+		assertThat(queryWithConstantCondition(1, 0)).isEmpty();
+		assertThat(queryWithConstantCondition(0, 0)).containsExactly(p);
+
+		QueryPlanCacheStatistics stats = smood.getQueryPlanCacheStatistics();
+		assertThat(stats.getHits()).isEqualTo(0);
+		assertThat(stats.getMisses()).isEqualTo(1);
+		assertThat(stats.getUncacheable()).isEqualTo(2);
+	}
+
+	@Test
+	public void newIndexInvalidatesCache() {
+		// no Person registered yet, so there is no index for indexedName, and the plan doesn't use one
+		assertThat(queryByIndexedName("P1")).isEmpty();
+
+		Person p1 = b.person("P1").indexedName("P1").create();
+		assertThat(queryByIndexedName("P1")).containsExactly(p1);
+
+		QueryPlanCacheStatistics stats = smood.getQueryPlanCacheStatistics();
+		assertThat(stats.getInvalidations()).isPositive();
+		assertThat(stats.getMisses()).isEqualTo(2);
+		assertThat(stats.getHits()).isEqualTo(0);
+	}
+
+	@Test
+	public void leastRecentlyUsedPlanIsEvicted() {
+		Person p = b.person("P1").indexedName("P1").create();
+		Company c = b.company("C1").create();
+
+		assertThat(queryByIndexedName("P1")).containsExactly(p);
+		assertThat(queryByNames(asSet("P1"), -1, 100, 0)).containsExactly(p);
+		assertThat(queryByIndexedName("P1")).containsExactly(p);
+		assertThat(queryCompanies("C1")).containsExactly(c);
+		assertThat(queryByIndexedName("P1")).containsExactly(p);
+
+		QueryPlanCacheStatistics stats = smood.getQueryPlanCacheStatistics();
+		assertThat(stats.getEvictions()).isEqualTo(1);
+		assertThat(stats.getHits()).isEqualTo(2);
+		assertThat(stats.getSize()).isEqualTo(2);
+	}
+
+	@Test
+	public void worksWithSnapshotReads() {
+		smood.setUseSnapshotReads(true);
+
+		Person p1 = b.person("P1").indexedName("P1").create();
+		assertThat(queryByIndexedName("P1")).containsExactly(p1);
+
+		Person p2 = b.person("P2").indexedName("P2").create();
+		assertThat(queryByIndexedName("P2")).containsExactly(p2);
+		assertThat(queryByIndexedName("P1")).containsExactly(p1);
+
+		assertThat(smood.getQueryPlanCacheStatistics().getHits()).isEqualTo(2);
+	}
+
+	private List<Object> queryByIndexedName(String name) {
+		SelectQuery query = new SelectQueryBuilder().from(Person.T, "p") //
+				.where().property("p", "indexedName").eq(name) //
+				.done();
+
+		return smood.query(query).getResults();
+	}
+
+	private List<Object> queryByNames(Set<String> names, int minAge, int maxAge, int offset) {
+		SelectQuery query = new SelectQueryBuilder().from(Person.T, "p") //
+				.where() //
+				.conjunction() //
+				.property("p", "name").in(names) //
+				.property("p", "age").gt(minAge) //
+				.property("p", "age").lt(maxAge) //
+				.close() //
+				.orderBy().property("p", "name") //
+				.paging(10, offset) //
+				.done();
+
+		return smood.query(query).getResults();
+	}
+
+	private List<Object> queryWithConstantCondition(int left, int right) {
+		SelectQuery query = new SelectQueryBuilder().from(Person.T, "p") //
+				.where().value(left).eq().value(right) //
+				.done();
+
+		return smood.query(query).getResults();
+	}
+
+	private List<Object> queryCompanies(String name) {
+		SelectQuery query = new SelectQueryBuilder().from(Company.T, "c") //
+				.where().property("c", "name").eq(name) //
+				.done();
+
+		return smood.query(query).getResults();
+	}
+
+}
@@ -0,0 +1,260 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood;
+
+import static com.braintribe.model.processing.smood.population.SmoodIndexTools.indexId;
+import static com.braintribe.utils.lcd.CollectionTools2.newList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.Test;
+
+import com.braintribe.common.MutuallyExclusiveReadWriteLock;
+import com.braintribe.model.processing.query.fluent.SelectQueryBuilder;
+import com.braintribe.model.processing.query.test.model.Person;
+import com.braintribe.model.processing.smood.snapshot.SmoodSnapshotStatistics;
+import com.braintribe.model.processing.smood.test.AbstractSmoodTests;
+import com.braintribe.model.query.SelectQuery;
+
+/**
+ * Tests for {@link Smood#setUseSnapshotReads(boolean)}.
+ */
+public class Smood_SnapshotReads_Test extends AbstractSmoodTests {
+
+	private static final String NAME_INDEX = indexId(Person.T, "indexedName");
+
+	private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
+
+	@Override
+	protected void postConstruct() {
+		smood.setLock(rwLock);
+		smood.setUseSnapshotReads(true);
+	}
+
+	@Test
+	public void readsOwnWrites() {
+		Person p = b.person("P1").indexedName("P1").create();
+
+		assertThat(smood.findEntity(Person.T, p.getId())).isSameAs(p);
+		assertThat(smood.getValueForIndex(NAME_INDEX, "P1")).isSameAs(p);
+		assertThat(queryPersons()).containsExactly(p);
+
+		Person p2 = b.person("P2").indexedName("P2").create();
+		assertThat(queryPersons()).containsExactlyInAnyOrder(p, p2);
+	}
+
+	@Test
+	public void indexChangeIsVisibleInNewVersion() {
+		Person p = b.person("P1").indexedName("P1").create();
+		assertThat(smood.getValueForIndex(NAME_INDEX, "P1")).isSameAs(p);
+
+		p.setIndexedName("P1 X");
+
+		assertThat(smood.getValueForIndex(NAME_INDEX, "P1")).isNull();
+		assertThat(smood.getValueForIndex(NAME_INDEX, "P1 X")).isSameAs(p);
+	}
+
+	@Test
+	public void deletedEntityIsNotFoundInNewVersion() {
+		Person p = b.person("P1").indexedName("P1").create();
+		assertThat(queryPersons()).containsExactly(p);
+
+		smood.deleteEntity(p);
+
+		assertThat(queryPersons()).isEmpty();
+		assertThat(smood.findEntity(Person.T, p.getId())).isNull();
+	}
+
+	@Test
+	public void lookupDoesNotWaitForWriter() throws Exception {
+		Person p1 = b.person("P1").indexedName("P1").create();
+		assertThat(queryPersons()).containsExactly(p1);
+
+		CountDownLatch written = new CountDownLatch(1);
+		CountDownLatch read = new CountDownLatch(1);
+
+		// the writer keeps holding the lock after its smood write, thus a new snapshot cannot be created yet
+		Thread writer = startWriter(written, read);
+
+		written.await();
+		try {
+			assertThat(smood.getValueForIndex(NAME_INDEX, "P1")).isSameAs(p1);
+			assertThat(smood.getValueForIndex(NAME_INDEX, "P2")).isNull();
+
+		} finally {
+			read.countDown();
+			writer.join();
+		}
+
+		assertThat(queryPersons()).hasSize(2);
+
+		SmoodSnapshotStatistics stats = smood.getSnapshotStatistics();
+		assertThat(stats.getStaleReads()).isEqualTo(2);
+		assertThat(stats.getPublishedVersion()).isEqualTo(stats.getCurrentVersion());
+		assertThat(stats.getRetainedVersions()).isEqualTo(1);
+	}
+
+	@Test
+	public void queryDoesNotWaitForWriter() throws Exception {
+		Person p1 = b.person("P1").indexedName("P1").create();
+		assertThat(queryPersons()).containsExactly(p1);
+
+		CountDownLatch written = new CountDownLatch(1);
+		CountDownLatch read = new CountDownLatch(1);
+
+		Thread writer = startWriter(written, read);
+
+		written.await();
+		try {
+			assertThat(queryPersons()).containsExactly(p1);
+			assertThat(smood.getValueForIndex(NAME_INDEX, "P2")).isNull();
+
+		} finally {
+			read.countDown();
+			writer.join();
+		}
+
+		assertThat(queryPersons()).hasSize(2);
+		assertThat(smood.getSnapshotStatistics().getStaleReads()).isEqualTo(2);
+	}
+
+	/**
+	 * A writer which locks the smood's lock directly (rather than via the smood) reads its own changes, and these are not visible to other threads
+	 * until it releases the lock.
+	 */
+	@Test
+	public void writerLockingDirectlyDoesNotPublishMidWrite() throws Exception {
+		Person p1 = b.person("P1").indexedName("P1").create();
+		assertThat(queryPersons()).containsExactly(p1);
+
+		CountDownLatch written = new CountDownLatch(1);
+		CountDownLatch read = new CountDownLatch(1);
+
+		List<Object> writerReads = newList();
+		Thread writer = new Thread(() -> {
+			rwLock.writeLock().lock();
+			try {
+				Person p2 = b.person("P2").indexedName("P2").create();
+				writerReads.add(smood.getValueForIndex(NAME_INDEX, "P2") == p2);
+				writerReads.add(queryPersons().size());
+				written.countDown();
+				read.await();
+
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+
+			} finally {
+				rwLock.writeLock().unlock();
+			}
+		});
+		writer.start();
+
+		written.await();
+		try {
+			assertThat(smood.getValueForIndex(NAME_INDEX, "P2")).isNull();
+			assertThat(queryPersons()).containsExactly(p1);
+
+		} finally {
+			read.countDown();
+			writer.join();
+		}
+
+		assertThat(writerReads).containsExactly(true, 2);
+		assertThat(smood.getSnapshotStatistics().getSnapshotsCreated()).isEqualTo(1);
+
+		assertThat(queryPersons()).hasSize(2);
+		assertThat(smood.getSnapshotStatistics().getSnapshotsCreated()).isEqualTo(2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void requiresReentrantReadWriteLock() {
+		smood.setLock(new MutuallyExclusiveReadWriteLock());
+	}
+
+	private Thread startWriter(CountDownLatch written, CountDownLatch read) {
+		Thread writer = new Thread(() -> {
+			rwLock.writeLock().lock();
+			try {
+				b.person("P2").indexedName("P2").create();
+				written.countDown();
+				read.await();
+
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+
+			} finally {
+				rwLock.writeLock().unlock();
+			}
+		});
+		writer.start();
+
+		return writer;
+	}
+
+	@Test
+	public void everyVersionIsConsistent() {
+		List<Person> persons = newList();
+		for (int i = 0; i < 50; i++)
+			persons.add(b.person("P" + i).indexedName("P" + i).create());
+
+		for (int v = 0; v < 20; v++) {
+			Person renamed = persons.get(v);
+			renamed.setIndexedName("P" + v + " v" + v);
+
+			Person deleted = persons.get(49 - v);
+			smood.deleteEntity(deleted);
+
+			assertThat(smood.getValueForIndex(NAME_INDEX, "P" + v)).isNull();
+			assertThat(smood.getValueForIndex(NAME_INDEX, "P" + v + " v" + v)).isSameAs(renamed);
+			assertThat(smood.findEntity(renamed.reference())).isSameAs(renamed);
+			assertThat(smood.findEntity(deleted.reference())).isNull();
+			assertThat(smood.getValueForIndex(NAME_INDEX, "P" + (49 - v))).isNull();
+			assertThat(queryPersons()).hasSize(49 - v);
+		}
+
+		assertThat(smood.getSnapshotStatistics().getSnapshotsCreated()).isEqualTo(20);
+	}
+
+	@Test
+	public void snapshotIsOnlyCreatedWhenNeeded() {
+		b.person("P1").indexedName("P1").create();
+		b.person("P2").indexedName("P2").create();
+
+		queryPersons();
+		queryPersons();
+		smood.getValueForIndex(NAME_INDEX, "P1");
+
+		SmoodSnapshotStatistics stats = smood.getSnapshotStatistics();
+		assertThat(stats.getSnapshotsCreated()).isEqualTo(1);
+		assertThat(stats.getSnapshotReads()).isEqualTo(3);
+		assertThat(stats.getRetainedBytes()).isPositive();
+	}
+
+	@Test
+	public void disablingSnapshotReads() {
+		smood.setUseSnapshotReads(false);
+
+		Person p = b.person("P1").indexedName("P1").create();
+
+		assertThat(queryPersons()).containsExactly(p);
+		assertThat(smood.getSnapshotStatistics()).isNull();
+	}
+
+	private List<Object> queryPersons() {
+		SelectQuery query = new SelectQueryBuilder().from(Person.T, "p").done();
+		return smood.query(query).getResults();
+	}
+
+}
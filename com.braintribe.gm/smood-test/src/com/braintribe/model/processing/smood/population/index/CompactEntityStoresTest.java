@@ -0,0 +1,255 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.population.index;
+
+import static com.braintribe.utils.lcd.CollectionTools2.asList;
+import static com.braintribe.utils.lcd.CollectionTools2.newList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.generic.reflection.GenericModelTypeReflection;
+import com.braintribe.model.processing.query.eval.tools.EntityComparator;
+import com.braintribe.model.processing.query.test.model.Person;
+import com.braintribe.model.processing.smood.population.SmoodIndexTools;
+import com.braintribe.utils.collection.api.NavigableMultiMap;
+import com.braintribe.utils.collection.impl.ComparatorBasedNavigableMultiMap;
+
+/**
+ * Tests for {@link HashEntityStore} and {@link SortedEntityStore}, comparing them with a {@link ComparatorBasedNavigableMultiMap}, which is what the
+ * {@link MultiIndex} uses.
+ */
+public class CompactEntityStoresTest {
+
+	private static final Comparator<Object> LONG_COMPARATOR = SmoodIndexTools.getComparator(GenericModelTypeReflection.TYPE_LONG);
+	private static final Comparator<Object> INT_COMPARATOR = SmoodIndexTools.getComparator(GenericModelTypeReflection.TYPE_INTEGER);
+	private static final Comparator<Object> STRING_COMPARATOR = SmoodIndexTools.getComparator(GenericModelTypeReflection.TYPE_STRING);
+
+	private final Random random = new Random(42);
+
+	@Test
+	public void hashStore_LongKeys() {
+		checkRandomOperations(new HashEntityStore(Long.class), LONG_COMPARATOR, () -> (long) random.nextInt(500));
+	}
+
+	@Test
+	public void hashStore_MixedKeys() {
+		// like an id index, where most ids are Longs, but some are Strings
+		checkRandomOperations(new HashEntityStore(Long.class), (o1, o2) -> o1.toString().compareTo(o2.toString()),
+				() -> random.nextBoolean() ? (Object) (long) random.nextInt(300) : "id-" + random.nextInt(300));
+	}
+
+	@Test
+	public void sortedStore_LongKeys() {
+		SortedEntityStore store = new SortedEntityStore(Long.class, LONG_COMPARATOR, true);
+		NavigableMultiMap<Object, GenericEntity> expected = checkRandomOperations(store, LONG_COMPARATOR, () -> (long) random.nextInt(500));
+
+		checkRanges(store, expected, LONG_COMPARATOR, 100L, 400L);
+	}
+
+	@Test
+	public void sortedStore_IntegerKeys() {
+		Comparator<Object> comparator = SmoodIndexTools.getComparator(GenericModelTypeReflection.TYPE_INTEGER);
+		SortedEntityStore store = new SortedEntityStore(Integer.class, comparator, true);
+		NavigableMultiMap<Object, GenericEntity> expected = checkRandomOperations(store, comparator, () -> random.nextInt(500));
+
+		checkRanges(store, expected, comparator, 100, 400);
+	}
+
+	@Test
+	public void sortedStore_StringKeys() {
+		SortedEntityStore store = new SortedEntityStore(null, STRING_COMPARATOR, true);
+		NavigableMultiMap<Object, GenericEntity> expected = checkRandomOperations(store, STRING_COMPARATOR, () -> "k" + (1000 + random.nextInt(500)));
+
+		checkRanges(store, expected, STRING_COMPARATOR, "k1100", "k1400");
+	}
+
+	@Test
+	public void hashStore_FewKeys() {
+		// many entities per key, i.e. large slots
+		checkRandomOperations(new HashEntityStore(Long.class), LONG_COMPARATOR, () -> random.nextInt(10) == 0 ? null : (long) random.nextInt(3));
+	}
+
+	@Test
+	public void sortedStore_FewKeys() {
+		SortedEntityStore store = new SortedEntityStore(Long.class, LONG_COMPARATOR, false);
+		NavigableMultiMap<Object, GenericEntity> expected = checkRandomOperations(store, LONG_COMPARATOR, () -> (long) random.nextInt(3));
+
+		checkRanges(store, expected, LONG_COMPARATOR, 1L, 2L);
+	}
+
+	/** Bulk load and bulk delete of a low-cardinality property must not be quadratic in the number of entities per key. */
+	@Test(timeout = 10_000)
+	public void bulkLoadWithLowCardinality() {
+		int count = 200_000;
+
+		List<Entry<Object, GenericEntity>> entries = newList();
+		for (int i = 0; i < count; i++)
+			entries.add(new SimpleEntry<>(i % 2 == 0 ? null : (Object) (long) (i % 3), Person.T.create()));
+
+		for (EntityStore store : Arrays.<EntityStore> asList(new HashEntityStore(Long.class), new SortedEntityStore(Long.class, LONG_COMPARATOR, true))) {
+			// shuffled, so that the entities do not simply come in the order of their runtimeIds
+			Collections.shuffle(entries, random);
+			for (Entry<Object, GenericEntity> e : entries)
+				store.add(e.getKey(), e.getValue());
+
+			assertThat(store.size()).isEqualTo(count);
+			assertThat(store.getAll(null)).hasSize(count / 2);
+			assertThat(store.get(null)).isSameAs(Collections.min(store.getAll(null), EntityComparator.INSTANCE));
+
+			Collections.shuffle(entries, random);
+			for (Entry<Object, GenericEntity> e : entries)
+				assertThat(store.remove(e.getKey(), e.getValue())).isTrue();
+
+			assertThat(store.size()).isEqualTo(0);
+			assertThat(store.values()).isEmpty();
+		}
+	}
+
+	@Test
+	public void sortedStore_AscendingKeysAreAppended() {
+		SortedEntityStore store = new SortedEntityStore(Long.class, LONG_COMPARATOR, false);
+		for (long i = 0; i < 10_000; i++)
+			store.add(i, Person.T.create());
+
+		assertThat(store.size()).isEqualTo(10_000);
+		assertThat(store.get(5_000L)).isNotNull();
+		assertThat(store.range(100L, true, 199L, true, false).values()).hasSize(100);
+		// arrays only, no entry objects
+		assertThat(store.estimateFootprint()).isLessThan(20L * 10_000);
+	}
+
+	@Test
+	public void sortedStore_NullsOnlyInRangeIfConfigured() {
+		SortedEntityStore withNulls = new SortedEntityStore(Long.class, LONG_COMPARATOR, true);
+		SortedEntityStore withoutNulls = new SortedEntityStore(Long.class, LONG_COMPARATOR, false);
+
+		GenericEntity nullEntity = Person.T.create();
+		GenericEntity oneEntity = Person.T.create();
+
+		for (SortedEntityStore store : asList(withNulls, withoutNulls)) {
+			store.add(null, nullEntity);
+			store.add(1L, oneEntity);
+
+			assertThat(store.get(null)).isSameAs(nullEntity);
+			assertThat(store.values()).containsExactly(nullEntity, oneEntity);
+		}
+
+		assertThat(withNulls.range(null, null, 5L, true, false).values()).containsExactly(nullEntity, oneEntity);
+		assertThat(withNulls.range(null, null, null, null, true).values()).containsExactly(oneEntity, nullEntity);
+		assertThat(withNulls.range(0L, true, null, null, false).values()).containsExactly(oneEntity);
+
+		assertThat(withoutNulls.range(null, null, 5L, true, false).values()).containsExactly(oneEntity);
+	}
+
+	@Test
+	public void forEachEntry_BoxesPrimitiveKeys() {
+		for (EntityStore store : Arrays.<EntityStore> asList(new HashEntityStore(Integer.class), new SortedEntityStore(Integer.class, INT_COMPARATOR, true))) {
+			GenericEntity e1 = Person.T.create();
+			GenericEntity e2 = Person.T.create();
+
+			store.add(5, e1);
+			store.add(null, e2);
+
+			List<Object> keys = newList();
+			List<GenericEntity> entities = newList();
+			store.forEachEntry((key, entity) -> {
+				keys.add(key);
+				entities.add(entity);
+			});
+
+			assertThat(keys).containsExactlyInAnyOrder(5, null);
+			assertThat(keys.get(entities.indexOf(e1))).isInstanceOf(Integer.class);
+		}
+	}
+
+	private NavigableMultiMap<Object, GenericEntity> checkRandomOperations(EntityStore store, Comparator<Object> keyComparator,
+			Supplier<Object> keySupplier) {
+
+		NavigableMultiMap<Object, GenericEntity> expected = new ComparatorBasedNavigableMultiMap<>(keyComparator, EntityComparator.INSTANCE);
+		List<Entry<Object, GenericEntity>> entries = newList();
+
+		for (int i = 0; i < 20_000; i++) {
+			if (entries.isEmpty() || random.nextInt(3) > 0) {
+				Object key = keySupplier.get();
+				GenericEntity entity = Person.T.create();
+
+				assertThat(store.add(key, entity)).isTrue();
+				assertThat(store.add(key, entity)).isFalse();
+				expected.put(key, entity);
+				entries.add(new SimpleEntry<>(key, entity));
+
+			} else {
+				Entry<Object, GenericEntity> e = entries.remove(random.nextInt(entries.size()));
+				assertThat(store.remove(e.getKey(), e.getValue())).isTrue();
+				assertThat(store.remove(e.getKey(), e.getValue())).isFalse();
+				expected.remove(e.getKey(), e.getValue());
+			}
+
+			if (i % 1000 == 0)
+				checkSameContent(store, expected, keyComparator);
+		}
+
+		checkSameContent(store, expected, keyComparator);
+
+		return expected;
+	}
+
+	private void checkSameContent(EntityStore store, NavigableMultiMap<Object, GenericEntity> expected, Comparator<Object> keyComparator) {
+		assertThat(store.size()).isEqualTo(expected.size());
+		assertThat(store.values()).containsExactlyInAnyOrder(expected.values().toArray());
+
+		NavigableMultiMap<Object, GenericEntity> entries = new ComparatorBasedNavigableMultiMap<>(keyComparator, EntityComparator.INSTANCE);
+		store.forEachEntry(entries::put);
+		assertThat(entries.size()).isEqualTo(expected.size());
+
+		for (Object key : expected.keySet()) {
+			assertThat(store.getAll(key)).containsExactlyElementsOf(expected.getAll(key));
+			assertThat(store.get(key)).isSameAs(expected.get(key));
+			assertThat(entries.getAll(key)).containsExactlyElementsOf(expected.getAll(key));
+		}
+	}
+
+	private void checkRanges(SortedEntityStore store, NavigableMultiMap<Object, GenericEntity> expected, Comparator<Object> keyComparator, Object from,
+			Object to) {
+
+		assertRange(store.range(null, null, null, null, false).values(), expected.values());
+		assertRange(store.range(null, null, null, null, true).values(), expected.descendingMap().values());
+		assertRange(store.range(from, true, to, false, false).values(), expected.subMap(from, true, to, false).values());
+		assertRange(store.range(from, false, to, true, false).values(), expected.subMap(from, false, to, true).values());
+		assertRange(store.range(from, true, null, null, false).values(), expected.tailMap(from, true).values());
+		assertRange(store.range(null, null, to, true, true).values(), expected.headMap(to, true).descendingMap().values());
+
+		// entries are sorted by key
+		TreeMap<Object, Object> keys = new TreeMap<>(keyComparator);
+		store.range(from, true, to, true, false).entryIterator().forEachRemaining(e -> keys.put(e.getKey(), e.getValue()));
+		assertThat(keys.keySet()).containsExactlyElementsOf(expected.subMap(from, true, to, true).keySet());
+	}
+
+	private void assertRange(Collection<? extends GenericEntity> actual, Collection<GenericEntity> expected) {
+		assertThat(actual).containsExactlyElementsOf(expected);
+		assertThat(actual.size()).isEqualTo(expected.size());
+	}
+
+}
@@ -0,0 +1,171 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.population.index;
+
+import static com.braintribe.utils.lcd.CollectionTools2.newList;
+import static com.braintribe.utils.lcd.CollectionTools2.newMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.generic.reflection.GenericModelTypeReflection;
+import com.braintribe.model.processing.query.eval.tools.EntityComparator;
+import com.braintribe.model.processing.query.test.model.Person;
+import com.braintribe.model.processing.smood.population.SmoodIndexTools;
+
+/**
+ * Tests for {@link SmoodIndex#r_snapshotThisLevel()}, i.e. that the incrementally built snapshot levels reflect the state of the index at the time
+ * they were taken, and are not affected by later changes.
+ */
+public class SnapshotIndexTest {
+
+	private static final Comparator<Object> LONG_COMPARATOR = SmoodIndexTools.getComparator(GenericModelTypeReflection.TYPE_LONG);
+
+	private final Random random = new Random(42);
+
+	@Test
+	public void uniqueLookup() {
+		checkSnapshots(new UniqueLookupIndex(), true, false);
+	}
+
+	@Test
+	public void uniqueMetric() {
+		checkSnapshots(new UniqueMetricIndex(GenericModelTypeReflection.TYPE_LONG), true, false);
+	}
+
+	@Test
+	public void multiLookup() {
+		checkSnapshots(new MultiLookupIndex(GenericModelTypeReflection.TYPE_LONG), false, false);
+	}
+
+	@Test
+	public void multiMetric() {
+		checkSnapshots(new MultiMetricIndex(GenericModelTypeReflection.TYPE_LONG), false, true);
+	}
+
+	@Test
+	public void compactLookup() {
+		checkSnapshots(new CompactLookupIndex(true, Long.class), true, false);
+		checkSnapshots(new CompactLookupIndex(false, Long.class), false, false);
+	}
+
+	@Test
+	public void compactMetric() {
+		checkSnapshots(new CompactMetricIndex(true, Long.class, LONG_COMPARATOR), true, false);
+		checkSnapshots(new CompactMetricIndex(false, Long.class, LONG_COMPARATOR), false, true);
+	}
+
+	private void checkSnapshots(SmoodIndex index, boolean unique, boolean nullsInRange) {
+		Map<GenericEntity, Long> live = newMap();
+		List<SmoodIndex> snapshots = newList();
+		List<Map<GenericEntity, Long>> expectations = newList();
+
+		long nextKey = 0;
+		for (int i = 0; i < 6_000; i++) {
+			// the last phase has no snapshots in between, so the change log overflows and the last snapshot is built from scratch
+			if (i % 500 == 0 && i < 3_000 || i == 5_999) {
+				snapshots.add(index.r_snapshotThisLevel());
+				expectations.add(newMap(live));
+			}
+
+			Long key = random.nextInt(10) == 0 ? null : unique ? (Long) nextKey++ : (Long) (long) random.nextInt(50);
+
+			int op = live.isEmpty() ? 0 : random.nextInt(3);
+			if (op == 0) {
+				GenericEntity entity = Person.T.create();
+				index.addEntity(entity, key);
+				live.put(entity, key);
+
+			} else {
+				GenericEntity entity = randomEntity(live);
+				Long oldKey = live.get(entity);
+				if (op == 1) {
+					index.removeEntity(entity, oldKey);
+					live.remove(entity);
+				} else {
+					index.onChangeValue(entity, oldKey, key);
+					live.put(entity, key);
+				}
+			}
+		}
+
+		for (int i = 0; i < snapshots.size(); i++)
+			checkSnapshot(snapshots.get(i), expectations.get(i), nullsInRange);
+	}
+
+	private GenericEntity randomEntity(Map<GenericEntity, Long> live) {
+		int n = random.nextInt(live.size());
+		for (GenericEntity entity : live.keySet())
+			if (n-- == 0)
+				return entity;
+
+		throw new IllegalStateException();
+	}
+
+	private void checkSnapshot(SmoodIndex snapshot, Map<GenericEntity, Long> expected, boolean nullsInRange) {
+		List<GenericEntity> nulls = newList();
+		TreeMap<Long, List<GenericEntity>> byKey = new TreeMap<>();
+		for (Entry<GenericEntity, Long> e : expected.entrySet())
+			if (e.getValue() == null)
+				nulls.add(e.getKey());
+			else
+				byKey.computeIfAbsent(e.getValue(), k -> newList()).add(e.getKey());
+
+		nulls.sort(EntityComparator.INSTANCE);
+		byKey.values().forEach(list -> list.sort(EntityComparator.INSTANCE));
+
+		assertThat(snapshot.thisLevelSize()).isEqualTo(expected.size());
+		assertThat(snapshot.allThisLevelValues()).containsExactlyInAnyOrder(expected.keySet().toArray(new GenericEntity[0]));
+
+		assertThat(snapshot.getThisLevelValues(null)).containsExactlyElementsOf(nulls);
+		assertThat(snapshot.getThisLevelValue(null)).isSameAs(nulls.isEmpty() ? null : nulls.get(0));
+		for (Entry<Long, List<GenericEntity>> e : byKey.entrySet()) {
+			assertThat(snapshot.getThisLevelValues(e.getKey())).containsExactlyElementsOf(e.getValue());
+			assertThat(snapshot.getThisLevelValue(e.getKey())).isSameAs(e.getValue().get(0));
+		}
+
+		if (!(snapshot instanceof SmoodMetricIndex))
+			return;
+
+		SmoodMetricIndex metricSnapshot = (SmoodMetricIndex) snapshot;
+
+		List<GenericEntity> ascending = newList();
+		if (nullsInRange)
+			ascending.addAll(nulls);
+		byKey.values().forEach(ascending::addAll);
+
+		List<GenericEntity> descending = newList();
+		byKey.descendingMap().values().forEach(list -> {
+			for (int i = list.size() - 1; i >= 0; i--)
+				descending.add(list.get(i));
+		});
+		if (nullsInRange)
+			for (int i = nulls.size() - 1; i >= 0; i--)
+				descending.add(nulls.get(i));
+
+		assertThat(metricSnapshot.getThisLevelFullRange(false).values()).containsExactlyElementsOf(ascending);
+		assertThat(metricSnapshot.getThisLevelFullRange(true).values()).containsExactlyElementsOf(descending);
+
+		List<GenericEntity> range = newList();
+		byKey.subMap(10L, true, 20L, false).values().forEach(range::addAll);
+		assertThat(metricSnapshot.getThisLevelRange(10L, true, 20L, false).values()).containsExactlyElementsOf(range);
+	}
+
+}
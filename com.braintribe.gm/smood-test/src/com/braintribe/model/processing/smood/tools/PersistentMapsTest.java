@@ -0,0 +1,156 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.tools;
+
+import static com.braintribe.utils.lcd.CollectionTools2.newList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link PersistentTree} and {@link PersistentHashMap}, comparing them with a {@link TreeMap} and a {@link HashMap}.
+ */
+public class PersistentMapsTest {
+
+	private final Random random = new Random(42);
+
+	@Test
+	public void treeBehavesLikeTreeMap() {
+		PersistentTree tree = new PersistentTree(Comparator.<Integer> naturalOrder());
+		TreeMap<Integer, Object> expected = new TreeMap<>();
+
+		for (int i = 0; i < 20_000; i++) {
+			Integer key = random.nextInt(2000);
+			if (random.nextInt(3) > 0) {
+				Object value = "v" + i;
+				tree = tree.with(key, value);
+				expected.put(key, value);
+			} else {
+				tree = tree.without(key);
+				expected.remove(key);
+			}
+
+			if (i % 1000 == 0)
+				checkSameContent(tree, expected);
+		}
+
+		checkSameContent(tree, expected);
+	}
+
+	@Test
+	public void treeModificationDoesNotAffectOriginal() {
+		PersistentTree original = new PersistentTree(Comparator.<Integer> naturalOrder());
+		for (int i = 0; i < 100; i++)
+			original = original.with(i, "v" + i);
+
+		PersistentTree modified = original.without(50).with(100, "v100").with(0, "x");
+
+		assertThat(original.size()).isEqualTo(100);
+		assertThat(original.get(50)).isEqualTo("v50");
+		assertThat(original.get(100)).isNull();
+		assertThat(original.get(0)).isEqualTo("v0");
+
+		assertThat(modified.size()).isEqualTo(100);
+		assertThat(modified.get(50)).isNull();
+		assertThat(modified.get(0)).isEqualTo("x");
+
+		assertThat(original.with(5, original.get(5))).isSameAs(original);
+		assertThat(original.without(500)).isSameAs(original);
+	}
+
+	@Test
+	public void hashMapBehavesLikeHashMap() {
+		PersistentMap map = new PersistentHashMap();
+		Map<Object, Object> expected = new HashMap<>();
+
+		for (int i = 0; i < 20_000; i++) {
+			// few distinct hash codes, so that there are many collisions
+			Object key = new CollidingKey(random.nextInt(1000));
+			if (random.nextInt(3) > 0) {
+				Object value = "v" + i;
+				map = map.with(key, value);
+				expected.put(key, value);
+			} else {
+				map = map.without(key);
+				expected.remove(key);
+			}
+		}
+
+		assertThat(map.size()).isEqualTo(expected.size());
+		for (int i = 0; i < 1000; i++)
+			assertThat(map.get(new CollidingKey(i))).isEqualTo(expected.get(new CollidingKey(i)));
+
+		Map<Object, Object> actual = new HashMap<>();
+		map.forEach(actual::put);
+		assertThat(actual).isEqualTo(expected);
+	}
+
+	private void checkSameContent(PersistentTree tree, TreeMap<Integer, Object> expected) {
+		assertThat(tree.size()).isEqualTo(expected.size());
+		for (int key = 0; key < 2000; key += 7)
+			assertThat(tree.get(key)).isEqualTo(expected.get(key));
+
+		checkRange(tree, expected, null, null, null, null);
+		checkRange(tree, expected, 500, true, null, null);
+		checkRange(tree, expected, null, null, 1500, false);
+		checkRange(tree, expected, 500, false, 1500, true);
+		checkRange(tree, expected, 700, true, 700, true);
+	}
+
+	private void checkRange(PersistentTree tree, TreeMap<Integer, Object> expected, Integer from, Boolean fromInclusive, Integer to,
+			Boolean toInclusive) {
+
+		NavigableMap<Integer, Object> range = expected;
+		if (fromInclusive != null)
+			range = range.tailMap(from, fromInclusive);
+		if (toInclusive != null)
+			range = range.headMap(to, toInclusive);
+
+		assertThat(keys(tree.iterator(from, fromInclusive, to, toInclusive, false))).containsExactlyElementsOf(range.keySet());
+		assertThat(keys(tree.iterator(from, fromInclusive, to, toInclusive, true))).containsExactlyElementsOf(range.descendingKeySet());
+	}
+
+	private static List<Object> keys(Iterator<Entry<Object, Object>> it) {
+		List<Object> result = newList();
+		it.forEachRemaining(e -> result.add(e.getKey()));
+		return result;
+	}
+
+	private static class CollidingKey {
+		private final int value;
+
+		CollidingKey(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public int hashCode() {
+			return value % 37;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof CollidingKey && ((CollidingKey) obj).value == value;
+		}
+	}
+
+}
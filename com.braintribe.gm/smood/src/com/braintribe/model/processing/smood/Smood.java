@@ -27,6 +27,7 @@ import static com.braintribe.utils.lcd.CollectionTools2.newSet;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -37,6 +38,7 @@ import java.util.concurrent.locks.ReadWriteLock;
 import java.util.function.Supplier;
 
 import com.braintribe.cc.lcd.CodingMap;
+import com.braintribe.cc.lcd.HashingComparator;
 import com.braintribe.logging.Logger;
 import com.braintribe.model.access.IncrementalAccess;
 import com.braintribe.model.accessapi.ManipulationRequest;
@@ -103,6 +105,8 @@ import com.braintribe.model.processing.query.eval.api.repo.ReflectiveIndexingRep
 import com.braintribe.model.processing.query.eval.api.repo.RepositoryInfo;
 import com.braintribe.model.processing.query.eval.context.BasicQueryEvaluationContext;
 import com.braintribe.model.processing.query.planner.QueryPlanner;
+import com.braintribe.model.processing.query.planner.cache.QueryPlanCache;
+import com.braintribe.model.processing.query.planner.cache.QueryPlanCacheStatistics;
 import com.braintribe.model.processing.query.support.QueryAdaptingTools;
 import com.braintribe.model.processing.query.support.QueryFunctionTools;
 import com.braintribe.model.processing.query.support.QueryResultBuilder;
@@ -122,6 +126,10 @@ import com.braintribe.model.processing.smood.manipulation.SmoodDeleteManipulator
 import com.braintribe.model.processing.smood.population.PopulationManager;
 import com.braintribe.model.processing.smood.population.index.LookupIndex;
 import com.braintribe.model.processing.smood.population.index.MetricIndex;
+import com.braintribe.model.processing.smood.snapshot.SmoodSnapshot;
+import com.braintribe.model.processing.smood.snapshot.SmoodSnapshotStatistics;
+import com.braintribe.model.processing.smood.snapshot.SmoodSnapshots;
+import com.braintribe.model.processing.smood.snapshot.SnapshotReferences;
 import com.braintribe.model.processing.smood.tools.DuplicatesRemover;
 import com.braintribe.model.query.EntityQuery;
 import com.braintribe.model.query.EntityQueryResult;
@@ -153,6 +161,11 @@ import com.braintribe.utils.i18n.I18nTools;
  * The r/w also indicates what kind of lock is needed for that method. (So basically every single underscore method is either called by another
  * underscore method, or by a method which is wrapped in a matching lock-related try-finally block).
  * 
+ * <h4>Snapshot reads</h4>
+ * 
+ * Optionally, reads can be evaluated on immutable snapshots of the population and indices, so that they never wait for a write to finish. See
+ * {@link #setUseSnapshotReads(boolean)}.
+ * 
  * @author peter.gazdik
  * @author dirk.scheffler
  */
@@ -183,10 +196,16 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 
 	private final QueryPlanner queryPlanner;
 	private final PopulationManager populationManager;
+	private QueryPlanCache queryPlanCache;
+	private int queryEvaluationBatchSize;
 
+	private ReadWriteLock rwLock;
 	private Lock readLock;
 	private Lock writeLock;
 
+	private SmoodSnapshots snapshots;
+	private SnapshotReferences snapshotReferences;
+
 	/**
 	 * A smood instance needs two things to work - a {@link ReadWriteLock} and a {@link NotifyingGmSession}. Only the {@link ReadWriteLock} is
 	 * mandatory, if no session is given, a new one is created internally (but note that all entities inside this smood will be attached to that
@@ -209,8 +228,7 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 		this.gmSession = gmSession;
 		this.gmSession.listeners().asCore(true).addFirst(manipulationListener);
 
-		this.readLock = rwLock.readLock();
-		this.writeLock = rwLock.writeLock();
+		this.setLock(rwLock);
 
 		this.queryPlanner = new QueryPlanner(this);
 
@@ -218,13 +236,104 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 		this.ignorePartitions = true;
 
 		this.populationManager = new PopulationManager(referenceByEntity.keySet());
+		this.populationManager.setIndexConfigurationListener(this::onIndexConfigurationChanged);
 
 		this.setLocaleProvider(I18nTools.localeProvider);
 	}
 
 	public void setLock(ReadWriteLock rwLock) {
+		this.rwLock = rwLock;
 		this.readLock = rwLock.readLock();
 		this.writeLock = rwLock.writeLock();
+
+		if (snapshots != null)
+			snapshots.setLock(rwLock);
+	}
+
+	/**
+	 * Enables or disables the snapshot (multi-version) read mode. Disabled by default.
+	 * <p>
+	 * In this mode the entity and index lookups do not acquire the read-lock, but are evaluated on an immutable {@link SmoodSnapshot snapshot} of the
+	 * population and all the indices. Every modification of this data creates a new version, the corresponding snapshot is created lazily by the
+	 * first reader that needs it once the write is complete, by applying the changes since the previous version on persistent copies of the indices.
+	 * While a write is in progress, reads use the latest snapshot rather than waiting. This works the same way for writers which lock the
+	 * {@link ReadWriteLock} of this smood directly, rather than via the smood's methods.
+	 * <p>
+	 * Queries are evaluated on the snapshot without acquiring the read-lock as well. Note however that the entities themselves are not versioned, i.e.
+	 * a snapshot determines which entities are found (by which index value), but the property values are read from the entities directly. A query
+	 * running concurrently with a write might therefore see some of the property changes of that write. Should the evaluation fail due to a collection
+	 * being modified concurrently, the query is evaluated again while holding the read-lock. A thread which is currently writing (i.e. holds the
+	 * write-lock) reads the live data.
+	 * <p>
+	 * This mode requires a {@link java.util.concurrent.locks.ReentrantReadWriteLock}, and should be configured before the smood is used by multiple
+	 * threads.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if enabling the mode while the lock of this smood is not a {@link java.util.concurrent.locks.ReentrantReadWriteLock}
+	 * 
+	 * @see #getSnapshotStatistics()
+	 */
+	public void setUseSnapshotReads(boolean useSnapshotReads) {
+		if (useSnapshotReads == (snapshots != null))
+			return;
+
+		snapshots = useSnapshotReads ? new SmoodSnapshots(this::r_newSnapshot) : null;
+		snapshotReferences = useSnapshotReads ? new SnapshotReferences(entityByReferenceComparator()) : null;
+		setLock(rwLock);
+	}
+
+	/** Returns the statistics of the {@link #setUseSnapshotReads(boolean) snapshot read mode}, or <tt>null</tt> if the mode is not enabled. */
+	public SmoodSnapshotStatistics getSnapshotStatistics() {
+		SmoodSnapshots snapshots = this.snapshots;
+		return snapshots == null ? null : snapshots.statistics();
+	}
+
+	private SmoodSnapshot r_newSnapshot(long version) {
+		return new SmoodSnapshot(version, populationManager.r_snapshot(), snapshotReferences.r_newVersion(entityByReference), defaultPartition,
+				ignorePartitions, queryPlanCache);
+	}
+
+	/**
+	 * Configures the maximum number of query plans cached by this smood, with a non-positive value meaning no cache is used (which is the default).
+	 * <p>
+	 * The plans are cached by the shape of the {@link SelectQuery}, i.e. queries which only differ in their literal values (or paging) share the same
+	 * plan, with the actual values being bound to a copy of the cached plan. The cache is invalidated automatically whenever the index configuration
+	 * changes, e.g. when the first entity of a new type is registered or when a new {@link #setCmdResolver(CmdResolver) CmdResolver} is set.
+	 * 
+	 * @see QueryPlanCache
+	 * @see #getQueryPlanCacheStatistics()
+	 */
+	public void setQueryPlanCacheSize(int queryPlanCacheSize) {
+		queryPlanCache = queryPlanCacheSize > 0 ? new QueryPlanCache(queryPlanCacheSize) : null;
+		queryPlanner.setPlanCache(queryPlanCache);
+	}
+
+	/** Returns the statistics of the {@link #setQueryPlanCacheSize(int) query plan cache}, or <tt>null</tt> if no cache is used. */
+	public QueryPlanCacheStatistics getQueryPlanCacheStatistics() {
+		QueryPlanCache queryPlanCache = this.queryPlanCache;
+		return queryPlanCache == null ? null : queryPlanCache.statistics();
+	}
+
+	/**
+	 * Configures the number of tuples passed between the query evaluation steps at once, with a non-positive value meaning tuples are evaluated one
+	 * at a time (which is the default). The results are the same either way, batches only reduce the per-tuple overhead of filtering, projecting and
+	 * aggregating large populations.
+	 * 
+	 * @see QueryEvaluationContext#batchSize()
+	 */
+	public void setQueryEvaluationBatchSize(int queryEvaluationBatchSize) {
+		this.queryEvaluationBatchSize = queryEvaluationBatchSize;
+	}
+
+	private void onIndexConfigurationChanged() {
+		QueryPlanCache queryPlanCache = this.queryPlanCache;
+		if (queryPlanCache != null)
+			queryPlanCache.invalidate();
+	}
+
+	/** Returns <tt>true</tt> iff reads should be evaluated on a snapshot, i.e. if the mode is enabled and current thread is not writing. */
+	private boolean readsSnapshot() {
+		return snapshots != null && !snapshots.isWritingThread();
 	}
 
 	/** {@inheritDoc} */
@@ -245,6 +354,9 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 	}
 
 	private <T extends GenericEntity> Collection<T> getEntitiesPerTypeInternal(EntityType<T> entityType) {
+		if (readsSnapshot())
+			return snapshots.read(s -> s.getEntitiesPerType(entityType));
+
 		readLock.lock();
 		try {
 			return r_getEntitiesPerTypeInternal(entityType);
@@ -316,10 +428,16 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 		this.ignorePartitions = ignorePartitions;
 		this.queryPlanner.ignorePartitions(ignorePartitions);
 
+		entityByReference = CodingMap.create(entityByReferenceComparator());
+		if (snapshotReferences != null)
+			snapshotReferences = new SnapshotReferences(entityByReferenceComparator());
+	}
+
+	private HashingComparator<EntityReference> entityByReferenceComparator() {
 		if (ignorePartitions)
-			entityByReference = CodingMap.create(PartitionIgnoringEntRefHashingComparator.INSTANCE);
+			return PartitionIgnoringEntRefHashingComparator.INSTANCE;
 		else
-			entityByReference = CodingMap.create(EntRefHashingComparator.INSTANCE);
+			return EntRefHashingComparator.INSTANCE;
 	}
 
 	protected boolean getIgnorePartitions() {
@@ -445,7 +563,7 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 	}
 
 	/* package */ void w_updateReferenceMapping(EntityReference oldEntityReference, EntityReference newEntityReference) {
-		GenericEntity entity = entityByReference.remove(oldEntityReference);
+		GenericEntity entity = w_removeReference(oldEntityReference);
 
 		GenericEntity otherEntity = entityByReference.get(newEntityReference);
 		if (otherEntity != null) {
@@ -457,7 +575,7 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 		}
 
 		if (entity != null && newEntityReference != null) {
-			entityByReference.put(newEntityReference, entity);
+			w_putReference(newEntityReference, entity);
 			referenceByEntity.put(entity, newEntityReference);
 		}
 	}
@@ -465,9 +583,39 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 	private void w_updateReferenceMapping(GenericEntity entity, EntityReference reference) {
 		EntityReference oldReference = referenceByEntity.put(entity, reference);
 		if (oldReference != null)
-			entityByReference.remove(oldReference);
+			w_removeReference(oldReference);
 
+		w_putReference(reference, entity);
+	}
+
+	private void w_putReference(EntityReference reference, GenericEntity entity) {
 		entityByReference.put(reference, entity);
+
+		if (snapshotReferences != null)
+			snapshotReferences.w_onPut(reference, entity);
+
+		w_onModified();
+	}
+
+	private GenericEntity w_removeReference(EntityReference reference) {
+		GenericEntity result = entityByReference.remove(reference);
+
+		if (result != null && snapshotReferences != null)
+			snapshotReferences.w_onRemove(reference);
+
+		w_onModified();
+
+		return result;
+	}
+
+	/**
+	 * Notifies the {@link #setUseSnapshotReads(boolean) snapshots} about a modification of the entity references, the population or the indices. This
+	 * is called by the modifying methods themselves, so every write creates a new version, no matter how the writer acquired the write-lock.
+	 */
+	private void w_onModified() {
+		SmoodSnapshots snapshots = this.snapshots;
+		if (snapshots != null)
+			snapshots.w_onModified();
 	}
 
 	@Override
@@ -566,7 +714,7 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 	}
 
 	private void w_unregisterEntity(GenericEntity entity) {
-		entityByReference.remove(referenceByEntity.remove(entity));
+		w_removeReference(referenceByEntity.remove(entity));
 		populationManager.w_removeEntity(entity);
 	}
 
@@ -583,6 +731,9 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 	/** {@inheritDoc} */
 	@Override
 	public <T extends GenericEntity> T getEntity(EntityReference entityReference) {
+		if (readsSnapshot())
+			return snapshots.read(s -> requireFound(s.findEntity(entityReference), entityReference));
+
 		readLock.lock();
 		try {
 			return r_getEntity(entityReference);
@@ -592,7 +743,10 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 	}
 
 	private <T extends GenericEntity> T r_getEntity(EntityReference entityReference) {
-		T entity = r_findEntity(entityReference);
+		return requireFound(r_findEntity(entityReference), entityReference);
+	}
+
+	private static <T extends GenericEntity> T requireFound(T entity, EntityReference entityReference) {
 		if (entity == null) {
 			if (entityReference instanceof PreliminaryEntityReference)
 				throw new IllegalArgumentException("Entity cannot be found for preliminary reference! Reference: "
@@ -615,6 +769,15 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 	/** {@inheritDoc} */
 	@Override
 	public SelectQueryResult query(SelectQuery query) {
+		if (readsSnapshot()) {
+			try {
+				return snapshots.read(s -> evaluateQuery(query, s.queryPlanner(), s));
+
+			} catch (ConcurrentModificationException e) {
+				logger.debug(() -> "Collection was modified by a concurrent write while evaluating a query on a snapshot. Evaluating with read-lock.");
+			}
+		}
+
 		readLock.lock();
 		try {
 			return r_query(query);
@@ -624,13 +787,19 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 	}
 
 	protected SelectQueryResult r_query(SelectQuery query) {
+		return evaluateQuery(query, queryPlanner, this);
+	}
+
+	private SelectQueryResult evaluateQuery(SelectQuery query, QueryPlanner planner, ReflectiveIndexingRepository repository) {
 		SmoodLogging.selectQuery(query);
 
-		QueryPlan queryPlan = queryPlanner.buildQueryPlan(query);
+		QueryPlan queryPlan = planner.buildQueryPlan(query);
 
 		SmoodLogging.queryPlan(queryPlan);
 
-		QueryEvaluationContext context = new BasicQueryEvaluationContext(this, queryPlan, functionExperts, functionAspectProviders);
+		BasicQueryEvaluationContext context = new BasicQueryEvaluationContext(repository, queryPlan, functionExperts, functionAspectProviders);
+		context.setBatchSize(queryEvaluationBatchSize);
+
 		EvalTupleSet tuples = context.resolveTupleSet(queryPlan.getTupleSet());
 		SelectQueryResult result = QueryResultBuilder.buildQueryResult(tuples, context.resultComponentsCount());
 
@@ -642,6 +811,9 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 	/** {@inheritDoc} */
 	@Override
 	public PropertyQueryResult queryProperty(PropertyQuery query) {
+		if (readsSnapshot())
+			return queryProperty(query, getEntity(query.getEntityReference()));
+
 		readLock.lock();
 		try {
 			return r_queryProperty(query);
@@ -654,6 +826,10 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 		PersistentEntityReference entityReference = query.getEntityReference();
 		GenericEntity entity = r_getEntity(entityReference);
 
+		return queryProperty(query, entity);
+	}
+
+	private PropertyQueryResult queryProperty(PropertyQuery query, GenericEntity entity) {
 		Property property = entity.entityType().getProperty(query.getPropertyName());
 
 		Object value = property.get(entity);
@@ -679,6 +855,9 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 	/** {@inheritDoc} */
 	@Override
 	public <T extends GenericEntity> T findEntity(EntityType<T> entityType, Object id) {
+		if (readsSnapshot())
+			return snapshots.read(s -> s.findEntity(entityType, id));
+
 		readLock.lock();
 		try {
 			return r_findEntity(entityType, id);
@@ -697,6 +876,9 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 	/** {@inheritDoc} */
 	@Override
 	public <T extends GenericEntity> T findEntity(EntityReference reference) {
+		if (readsSnapshot())
+			return snapshots.read(s -> s.findEntity(reference));
+
 		readLock.lock();
 		try {
 			return r_findEntity(reference);
@@ -714,6 +896,9 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 
 	@Override
 	public <T extends GenericEntity> T findEntityByGlobalId(String globalId) {
+		if (readsSnapshot())
+			return snapshots.read(s -> s.findEntityByGlobalId(GenericEntity.T.getTypeSignature(), globalId));
+
 		readLock.lock();
 		try {
 			return r_findEntity(GenericEntity.T.getTypeSignature(), globalId);
@@ -1016,6 +1201,7 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 		this.modelOracle = newModelOracle(metaModel);
 		this.cmdResolver = newCmdResolver(modelOracle);
 		this.populationManager.w_setCmdResolver(cmdResolver);
+		w_onModified();
 		this.deleteManipulator = null;
 	}
 
@@ -1036,6 +1222,7 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 		this.modelOracle = cmdResolver.getModelOracle();
 		this.metaModel = modelOracle.getGmMetaModel();
 		this.populationManager.w_setCmdResolver(cmdResolver);
+		w_onModified();
 		this.deleteManipulator = null;
 	}
 
@@ -1165,6 +1352,7 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 
 			Object oldValue = extractOldValue(changeValueManipulation);
 			populationManager.w_onChangeValue(entity, propertyName, oldValue, changeValueManipulation.getNewValue());
+			w_onModified();
 		}
 
 		private Object extractOldValue(ChangeValueManipulation changeValueManipulation) {
@@ -1289,6 +1477,9 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 	/** {@inheritDoc} */
 	@Override
 	public Collection<? extends GenericEntity> getIndexRange(String indexId, Object from, Boolean fromInclusive, Object to, Boolean toInclusive) {
+		if (readsSnapshot())
+			return snapshots.read(s -> s.getIndexRange(indexId, from, fromInclusive, to, toInclusive));
+
 		readLock.lock();
 		try {
 			return r_getIndexRange(indexId, from, fromInclusive, to, toInclusive);
@@ -1306,6 +1497,9 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 
 	@Override
 	public Collection<? extends GenericEntity> getFullRange(String indexId, boolean reverseOrder) {
+		if (readsSnapshot())
+			return snapshots.read(s -> s.getFullRange(indexId, reverseOrder));
+
 		readLock.lock();
 		try {
 			return r_getFullRange(indexId, reverseOrder);
@@ -1327,6 +1521,9 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 	/** {@inheritDoc} */
 	@Override
 	public GenericEntity getValueForIndex(String indexId, Object indexValue) {
+		if (readsSnapshot())
+			return snapshots.read(s -> s.getValueForIndex(indexId, indexValue));
+
 		readLock.lock();
 		try {
 			return r_getValueForIndex(indexId, indexValue);
@@ -1343,6 +1540,9 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 	/** {@inheritDoc} */
 	@Override
 	public Set<? extends GenericEntity> getAllValuesForIndices(String indexId, Collection<?> indexValues) {
+		if (readsSnapshot())
+			return snapshots.read(s -> s.getAllValuesForIndices(indexId, indexValues));
+
 		readLock.lock();
 		try {
 			return r_getAllValuesForIndices(indexId, indexValues);
@@ -1363,6 +1563,9 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 	/** {@inheritDoc} */
 	@Override
 	public Collection<? extends GenericEntity> getAllValuesForIndex(String indexId, Object indexValue) {
+		if (readsSnapshot())
+			return snapshots.read(s -> s.getAllValuesForIndex(indexId, indexValue));
+
 		readLock.lock();
 		try {
 			return r_getAllValuesForIndex(indexId, indexValue);
@@ -1396,6 +1599,9 @@ public class Smood implements SmoodInterface, IncrementalAccess, ReflectiveIndex
 	/** {@inheritDoc} */
 	@Override
 	public IndexInfo provideIndexInfo(String typeSignature, String propertyName) {
+		if (readsSnapshot())
+			return snapshots.read(s -> s.provideIndexInfo(typeSignature, propertyName));
+
 		readLock.lock();
 		try {
 			return r_provideIndexInfo(typeSignature, propertyName);
@@ -15,17 +15,12 @@ import com.braintribe.common.lcd.UnsupportedEnumException;
 import com.braintribe.model.generic.GenericEntity;
 import com.braintribe.model.generic.annotation.meta.Indexed;
 import com.braintribe.model.generic.reflection.EntityType;
-import com.braintribe.model.generic.reflection.GenericModelType;
 import com.braintribe.model.generic.reflection.Property;
 import com.braintribe.model.meta.data.query.IndexType;
 import com.braintribe.model.processing.smood.population.index.IndexKind;
 import com.braintribe.model.processing.smood.population.index.LookupIndex;
 import com.braintribe.model.processing.smood.population.index.MetricIndex;
-import com.braintribe.model.processing.smood.population.index.MultiLookupIndex;
-import com.braintribe.model.processing.smood.population.index.MultiMetricIndex;
 import com.braintribe.model.processing.smood.population.index.SmoodIndex;
-import com.braintribe.model.processing.smood.population.index.UniqueLookupIndex;
-import com.braintribe.model.processing.smood.population.index.UniqueMetricIndex;
 import com.braintribe.model.processing.smood.population.info.IndexInfoImpl;
 
 /**
@@ -54,6 +49,17 @@ public class EntityPopulation {
 		this.idIndex = w_acquireIndex(et.getIdProperty());
 	}
 
+	/** Creates a copy for a {@link PopulationManager#r_snapshot() population snapshot}, using given copy of the id index. */
+	/* package */ EntityPopulation r_copy(PopulationManager populationManagerCopy, LookupIndex idIndexCopy) {
+		return new EntityPopulation(et, populationManagerCopy, idIndexCopy);
+	}
+
+	private EntityPopulation(EntityType<?> et, PopulationManager populationManager, LookupIndex idIndex) {
+		this.et = et;
+		this.populationManager = populationManager;
+		this.idIndex = idIndex;
+	}
+
 	public LookupIndex getIdIndex() {
 		return idIndex;
 	}
@@ -165,21 +171,7 @@ public class EntityPopulation {
 	}
 
 	private SmoodIndex createIndex(IndexType indexType, Property p) {
-		GenericModelType type = p.getType();
-
-		IndexKind indexKind = getIndexKind(indexType, p);
-		switch (indexKind) {
-			case multiLookup:
-				return new MultiLookupIndex(type);
-			case multiMetric:
-				return new MultiMetricIndex(type);
-			case uniqueLookup:
-				return new UniqueLookupIndex();
-			case uniqueMetric:
-				return new UniqueMetricIndex(type);
-		}
-
-		throw new UnsupportedEnumException("Unknown index kind: " + indexKind + ". Property: " + propertyInfo(p));
+		return SmoodIndexTools.newIndex(getIndexKind(indexType, p), p.getType());
 	}
 
 	private IndexKind getIndexKind(IndexType indexType, Property p) {
@@ -211,13 +203,14 @@ public class EntityPopulation {
 		return populationManager.mdResolver.isUnique(et, p);
 	}
 
-	private void fillIndexInfo(LookupIndex result, String propertyName) {
+	private void fillIndexInfo(SmoodIndex result, String propertyName) {
 		IndexInfoImpl indexInfo = result.getIndexInfo();
 
 		indexInfo.setEntitySignature(et.getTypeSignature());
 		indexInfo.setPropertyName(propertyName);
 		indexInfo.setIndexId(indexId(propertyName));
 		indexInfo.setHasMetric(result instanceof MetricIndex);
+		indexInfo.setFootprintEstimator(result::estimateThisLevelFootprint);
 	}
 
 	private void w_linkWithSuperIndices(SmoodIndex result, Property p) {
@@ -13,9 +13,12 @@ package com.braintribe.model.processing.smood.population;
 
 import static com.braintribe.utils.lcd.CollectionTools2.asMap;
 import static com.braintribe.utils.lcd.CollectionTools2.newConcurrentMap;
+import static com.braintribe.utils.lcd.CollectionTools2.newIdentityMap;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -35,10 +38,11 @@ import com.braintribe.model.processing.query.eval.api.repo.IndexInfo;
 import com.braintribe.model.processing.query.eval.api.repo.RepositoryInfo;
 import com.braintribe.model.processing.smood.Smood;
 import com.braintribe.model.processing.smood.population.index.FilteringLookupIndex;
+import com.braintribe.model.processing.smood.population.index.IndexKind;
 import com.braintribe.model.processing.smood.population.index.LookupIndex;
 import com.braintribe.model.processing.smood.population.index.MetricIndex;
 import com.braintribe.model.processing.smood.population.index.MultiMetricIndex;
-import com.braintribe.model.processing.smood.population.index.UniqueLookupIndex;
+import com.braintribe.model.processing.smood.population.index.SmoodIndex;
 import com.braintribe.model.processing.smood.population.info.IndexInfoImpl;
 import com.braintribe.model.processing.smood.population.info.RepositoryInfoImpl;
 import com.braintribe.model.query.PropertyQuery;
@@ -77,26 +81,39 @@ public class PopulationManager {
 
 	private static final MetricIndex EMPTY_INDEX = new MultiMetricIndex(GenericModelTypeReflection.TYPE_INTEGER);
 
-	protected final LookupIndex globalIdIndex = newGlobalIdIndex();
-	private final Map<String, LookupIndex> signatureToGlobalIdIndex = asMap(GenericEntity.T.getTypeSignature(), globalIdIndex);
+	protected final LookupIndex globalIdIndex;
+	private final Map<String, LookupIndex> signatureToGlobalIdIndex;
 	private final ReentrantLock signatureToGlobalIdIndexLock = new ReentrantLock();
 
+	private Runnable indexConfigurationListener = () -> { /* NOOP */ };
+
 	public PopulationManager(Collection<GenericEntity> population) {
 		this.population = population;
+		this.globalIdIndex = newGlobalIdIndex();
+		this.signatureToGlobalIdIndex = asMap(GenericEntity.T.getTypeSignature(), globalIdIndex);
 	}
 
 	private static LookupIndex newGlobalIdIndex() {
-		LookupIndex result = new UniqueLookupIndex();
+		SmoodIndex result = SmoodIndexTools.newIndex(IndexKind.uniqueLookup, GenericModelTypeReflection.TYPE_STRING);
 
 		IndexInfoImpl indexInfo = result.getIndexInfo();
 		indexInfo.setEntitySignature(GenericEntity.T.getTypeSignature());
 		indexInfo.setIndexId(GLOBAL_ID_INDEX_ID);
 		indexInfo.setPropertyName(GenericEntity.globalId);
 		indexInfo.setHasMetric(false);
+		indexInfo.setFootprintEstimator(result::estimateThisLevelFootprint);
 
 		return result;
 	}
 
+	/**
+	 * Sets a listener which is notified whenever the index configuration changes, i.e. a new index is created or all the indices are re-created due to
+	 * a new {@link CmdResolver}. Note that the listener is called while holding the write-lock.
+	 */
+	public void setIndexConfigurationListener(Runnable indexConfigurationListener) {
+		this.indexConfigurationListener = indexConfigurationListener;
+	}
+
 	/**
 	 * Sets the {@link CmdResolver}, which is important to figure out what properties are indexed. See description of this
 	 * class ({@link PopulationManager}) for more details.
@@ -120,6 +137,8 @@ public class PopulationManager {
 		metricIndices.clear();
 		entityPopulations.clear();
 
+		indexConfigurationListener.run();
+
 		for (Entry<String, LookupIndex> entry : signatureToGlobalIdIndex.entrySet())
 			allIndices.put(globalIdIndexId(entry.getKey()), entry.getValue());
 
@@ -251,10 +270,117 @@ public class PopulationManager {
 		indexInfo.setIndexId(indexId);
 		indexInfo.setPropertyName(GenericEntity.globalId);
 		indexInfo.setHasMetric(false);
+		// the entries are stored in the globalIdIndex
+		indexInfo.setFootprintEstimator(() -> 0);
 
 		return result;
 	}
 
+	// ###########################################################################################
+	// ## . . . . . . . . . . . . . . . . . . Snapshots . . . . . . . . . . . . . . . . . . . . ##
+	// ###########################################################################################
+
+	/**
+	 * Creates a copy of this manager which contains immutable copies of all the indices, but shares the entities themselves. The copy cannot be
+	 * written to (it has no population to re-index from), it serves as an immutable version of the current state for snapshot reads.
+	 * <p>
+	 * The index copies are built incrementally, i.e. every index level only applies the changes made since the previous snapshot on the persistent
+	 * data structures of its previous copy, see {@link SmoodIndex#r_snapshotThisLevel()}.
+	 * <p>
+	 * Must be called with at least a read-lock, so that no index is modified while it is being copied, and never concurrently with another call.
+	 */
+	public PopulationManager r_snapshot() {
+		return new PopulationManager(this);
+	}
+
+	private PopulationManager(PopulationManager original) {
+		this.population = Collections.emptySet();
+
+		IndexCopier copier = new IndexCopier();
+
+		this.globalIdIndex = copier.copy(original.globalIdIndex);
+		this.signatureToGlobalIdIndex = newConcurrentMap();
+		original.signatureToGlobalIdIndexLock.lock();
+		try {
+			original.signatureToGlobalIdIndex.forEach((signature, index) -> signatureToGlobalIdIndex.put(signature, copier.copy(index)));
+		} finally {
+			original.signatureToGlobalIdIndexLock.unlock();
+		}
+
+		original.allIndices.forEach((indexId, index) -> allIndices.put(indexId, copier.copy(index)));
+		original.metricIndices.forEach((indexId, index) -> metricIndices.put(indexId, (MetricIndex) copier.copy(index)));
+		original.entityPopulations.forEach((et, ep) -> entityPopulations.put(et, ep.r_copy(this, copier.copy(ep.getIdIndex()))));
+
+		copier.linkCopies();
+
+		superTypes.putAll(original.superTypes);
+		repositoryInfo.getIndexInfos().addAll(original.repositoryInfo.getIndexInfos());
+	}
+
+	/** Returns a rough estimate of how much memory (in bytes) all the indices of this manager occupy. */
+	public long r_estimateIndexFootprint() {
+		Map<SmoodIndex, Boolean> visited = newIdentityMap();
+
+		long result = 0;
+		for (LookupIndex index : allIndices.values())
+			result += estimateFootprint(index, visited);
+
+		return result + estimateFootprint(globalIdIndex, visited);
+	}
+
+	private static long estimateFootprint(LookupIndex index, Map<SmoodIndex, Boolean> visited) {
+		if (index instanceof FilteringLookupIndex)
+			return estimateFootprint(((FilteringLookupIndex) index).getDelegate(), visited);
+
+		if (!(index instanceof SmoodIndex) || visited.put((SmoodIndex) index, Boolean.TRUE) != null)
+			return 0;
+
+		return ((SmoodIndex) index).estimateThisLevelFootprint();
+	}
+
+	/**
+	 * Copies each index exactly once (indices are shared between the various maps of the manager, and also reference each other), and links the
+	 * copies with each other the same way the originals are linked.
+	 */
+	private static class IndexCopier {
+		private final Map<LookupIndex, LookupIndex> copies = newIdentityMap();
+		private final Deque<SmoodIndex> toLink = new ArrayDeque<>();
+
+		public LookupIndex copy(LookupIndex index) {
+			LookupIndex result = copies.get(index);
+			if (result != null)
+				return result;
+
+			if (index instanceof SmoodIndex) {
+				SmoodIndex smoodIndex = (SmoodIndex) index;
+				result = smoodIndex.r_snapshotThisLevel();
+				toLink.add(smoodIndex);
+
+			} else if (index instanceof FilteringLookupIndex) {
+				FilteringLookupIndex filteringIndex = (FilteringLookupIndex) index;
+				result = filteringIndex.withDelegate(copy(filteringIndex.getDelegate()));
+
+			} else {
+				throw new IllegalStateException("Cannot create a snapshot of an unknown index: " + index + ", id: " + index.getIndexInfo().getIndexId());
+			}
+
+			copies.put(index, result);
+			return result;
+		}
+
+		public void linkCopies() {
+			while (!toLink.isEmpty()) {
+				SmoodIndex original = toLink.poll();
+
+				// make sure every index the original depends on is copied (and thus also linked) as well
+				for (SmoodIndex relatedIndex : original.relatedIndices())
+					copy(relatedIndex);
+
+				original.r_linkCopy((SmoodIndex) copies.get(original), index -> (SmoodIndex) copies.get(index));
+			}
+		}
+	}
+
 	protected void w_onNewIndex(LookupIndex propertyIndex) {
 		IndexInfoImpl indexInfo = propertyIndex.getIndexInfo();
 
@@ -264,6 +390,8 @@ public class PopulationManager {
 			metricIndices.put(indexInfo.getIndexId(), (MetricIndex) propertyIndex);
 
 		repositoryInfo.getIndexInfos().add(indexInfo);
+
+		indexConfigurationListener.run();
 	}
 
 }
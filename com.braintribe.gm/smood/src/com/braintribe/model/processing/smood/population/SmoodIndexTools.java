@@ -16,9 +16,18 @@ import java.util.Comparator;
 import com.braintribe.common.lcd.UnsupportedEnumException;
 import com.braintribe.model.generic.reflection.EntityType;
 import com.braintribe.model.generic.reflection.GenericModelType;
+import com.braintribe.model.generic.reflection.TypeCode;
 import com.braintribe.model.processing.query.eval.tools.EntityComparator;
 import com.braintribe.model.processing.query.planner.QueryPlanner;
 import com.braintribe.model.processing.query.tools.ScalarComparator;
+import com.braintribe.model.processing.smood.population.index.CompactLookupIndex;
+import com.braintribe.model.processing.smood.population.index.CompactMetricIndex;
+import com.braintribe.model.processing.smood.population.index.IndexKind;
+import com.braintribe.model.processing.smood.population.index.MultiLookupIndex;
+import com.braintribe.model.processing.smood.population.index.MultiMetricIndex;
+import com.braintribe.model.processing.smood.population.index.SmoodIndex;
+import com.braintribe.model.processing.smood.population.index.UniqueLookupIndex;
+import com.braintribe.model.processing.smood.population.index.UniqueMetricIndex;
 import com.braintribe.utils.collection.impl.ComparableComparator;
 
 /**
@@ -53,6 +62,58 @@ public class SmoodIndexTools {
 		return typeSignature.concat("#").concat(propertyName); 
 	}
 
+	/**
+	 * Creates a new index of given kind for given key (property) type.
+	 * <p>
+	 * Indices for <tt>long</tt>, <tt>integer</tt> and <tt>string</tt> keys are {@link CompactLookupIndex compact}, i.e. they store the keys
+	 * in primitive arrays (<tt>long</tt>s unboxed) rather than in map entries. The same applies to lookup indices for <tt>object</tt> keys (which
+	 * can only be ids), with {@link Long} keys stored unboxed and other keys stored as objects.
+	 */
+	public static SmoodIndex newIndex(IndexKind indexKind, GenericModelType keyType) {
+		switch (indexKind) {
+			case uniqueLookup:
+				return supportsCompactLookup(keyType) ? new CompactLookupIndex(true, primitiveKeyClass(keyType)) : new UniqueLookupIndex();
+			case multiLookup:
+				return supportsCompactLookup(keyType) ? new CompactLookupIndex(false, primitiveKeyClass(keyType)) : new MultiLookupIndex(keyType);
+			case uniqueMetric:
+				return supportsCompactMetric(keyType) ? new CompactMetricIndex(true, primitiveKeyClass(keyType), getComparator(keyType))
+						: new UniqueMetricIndex(keyType);
+			case multiMetric:
+				return supportsCompactMetric(keyType) ? new CompactMetricIndex(false, primitiveKeyClass(keyType), getComparator(keyType))
+						: new MultiMetricIndex(keyType);
+		}
+
+		throw new UnsupportedEnumException("Unknown index kind: " + indexKind);
+	}
+
+	private static boolean supportsCompactLookup(GenericModelType keyType) {
+		return supportsCompactMetric(keyType) || keyType.getTypeCode() == TypeCode.objectType;
+	}
+
+	private static boolean supportsCompactMetric(GenericModelType keyType) {
+		switch (keyType.getTypeCode()) {
+			case integerType:
+			case longType:
+			case stringType:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	/** Returns the class of keys which a compact index for given type stores unboxed, or <tt>null</tt>. */
+	private static Class<?> primitiveKeyClass(GenericModelType keyType) {
+		switch (keyType.getTypeCode()) {
+			case integerType:
+				return Integer.class;
+			case longType:
+			case objectType:
+				return Long.class;
+			default:
+				return null;
+		}
+	}
+
 	/** Returns the right {@link Comparator} implementation given property type. */
 	public static <T> Comparator<T> getComparator(GenericModelType type) {
 		return (Comparator<T>) getComparatorHelper(type);
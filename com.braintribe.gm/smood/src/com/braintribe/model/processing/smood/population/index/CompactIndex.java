@@ -0,0 +1,140 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.population.index;
+
+import java.util.Collection;
+import java.util.function.BiConsumer;
+
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.generic.reflection.VdHolder;
+import com.braintribe.model.processing.smood.population.SmoodIndexTools;
+import com.braintribe.model.processing.smood.population.info.IndexInfoImpl;
+
+/**
+ * Base for memory-efficient indices, which store their entries in an {@link EntityStore} of primitive arrays rather than in a {@link java.util.Map}
+ * with an entry object per indexed entity. Used for <tt>long</tt>, <tt>integer</tt> and <tt>string</tt> properties, as well as for ids, see
+ * {@link SmoodIndexTools#newIndex(IndexKind, com.braintribe.model.generic.reflection.GenericModelType)}.
+ * <p>
+ * Behaves like {@link UniqueIndex} or {@link MultiIndex}, depending on the {@link #unique} flag.
+ */
+public abstract class CompactIndex extends SmoodIndex {
+
+	protected final IndexInfoImpl indexInfo;
+	protected final boolean unique;
+	protected final EntityStore store;
+
+	protected CompactIndex(boolean unique, EntityStore store) {
+		this.indexInfo = new IndexInfoImpl();
+		this.unique = unique;
+		this.store = store;
+	}
+
+	@Override
+	public void addEntity(GenericEntity entity, Object value) {
+		if (unique && value != null)
+			checkNoOtherEntityIndexed(entity, value);
+
+		add(value, entity);
+	}
+
+	private void add(Object value, GenericEntity entity) {
+		if (store.add(value, entity))
+			onEntryAdded(value, entity);
+	}
+
+	private boolean remove(Object value, GenericEntity entity) {
+		if (!store.remove(value, entity))
+			return false;
+
+		onEntryRemoved(value, entity);
+		return true;
+	}
+
+	private void checkNoOtherEntityIndexed(GenericEntity entity, Object value) {
+		for (SmoodIndex superRootIndex : superRootIndices) {
+			GenericEntity otherEntity = superRootIndex.getValue(value);
+			if (otherEntity != null && otherEntity != entity)
+				throw new IllegalStateException("Another entity is already indexed (" + superRootIndex.getIndexInfo().getIndexId() + ") for key '"
+						+ value + "'. ADDED ENTITY: " + entity + ", INDEXED ENTITY: " + otherEntity);
+		}
+	}
+
+	@Override
+	public void removeEntity(GenericEntity entity, Object value) {
+		if (unique && VdHolder.isVdHolder(value))
+			return;
+
+		// like UniqueIndex, a unique index does not insist on the presence of an entity with null value
+		if (!remove(value, entity) && !(unique && value == null))
+			throw new IllegalStateException("Entity was not in the index (" + indexInfo.getIndexId() + "), but should have been. Entity: " + entity
+					+ ", property value: " + value + ", FOUND: " + store.get(value));
+	}
+
+	@Override
+	public void onChangeValue(GenericEntity entity, Object oldValue, Object newValue) {
+		if (unique) {
+			removeEntity(entity, oldValue);
+
+			try {
+				addEntity(entity, newValue);
+
+			} catch (IllegalStateException e) {
+				addEntity(entity, oldValue);
+				throw e;
+			}
+
+		} else {
+			if (!VdHolder.isVdHolder(oldValue))
+				if (!remove(oldValue, entity))
+					throw new IllegalStateException("Entity was not in the index (" + indexInfo.getIndexId() + "), but should have been. Entity: "
+							+ entity + ", oldValue: " + oldValue + ", newValue: " + newValue);
+
+			add(newValue, entity);
+		}
+	}
+
+	@Override
+	protected GenericEntity getThisLevelValue(Object indexValue) {
+		return store.get(indexValue);
+	}
+
+	@Override
+	protected Collection<? extends GenericEntity> getThisLevelValues(Object indexValue) {
+		return store.getAll(indexValue);
+	}
+
+	@Override
+	protected Collection<? extends GenericEntity> allThisLevelValues() {
+		return store.values();
+	}
+
+	@Override
+	protected void forEachThisLevelEntry(BiConsumer<Object, GenericEntity> consumer) {
+		store.forEachEntry(consumer);
+	}
+
+	@Override
+	public int thisLevelSize() {
+		return store.size();
+	}
+
+	@Override
+	public long estimateThisLevelFootprint() {
+		return store.estimateFootprint();
+	}
+
+	@Override
+	public IndexInfoImpl getIndexInfo() {
+		return indexInfo;
+	}
+
+}
@@ -0,0 +1,42 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.population.index;
+
+import com.braintribe.model.processing.smood.tools.PersistentHashMap;
+import com.braintribe.model.processing.smood.tools.PersistentMap;
+
+/**
+ * {@link CompactIndex} backed by open-addressing hash tables.
+ * 
+ * @see HashEntityStore
+ */
+public class CompactLookupIndex extends CompactIndex {
+
+	/**
+	 * @param primitiveKeyClass
+	 *            {@link Long}, {@link Integer} or <tt>null</tt>. Keys of this class are stored unboxed.
+	 */
+	public CompactLookupIndex(boolean unique, Class<?> primitiveKeyClass) {
+		super(unique, new HashEntityStore(primitiveKeyClass));
+	}
+
+	@Override
+	protected PersistentMap newSnapshotKeys() {
+		return new PersistentHashMap();
+	}
+
+	@Override
+	protected SmoodIndex newSnapshotLevel(SnapshotIndex.Content content) {
+		return new SnapshotIndex(indexInfo, content);
+	}
+
+}
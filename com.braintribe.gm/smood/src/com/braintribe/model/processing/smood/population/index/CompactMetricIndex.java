@@ -0,0 +1,70 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.population.index;
+
+import java.util.Comparator;
+
+import com.braintribe.model.processing.smood.tools.PersistentMap;
+import com.braintribe.model.processing.smood.tools.PersistentTree;
+
+/**
+ * {@link CompactIndex} backed by sorted arrays with an overflow buffer.
+ * <p>
+ * Just like with {@link MultiMetricIndex} (but unlike {@link UniqueMetricIndex}), entities indexed with <tt>null</tt> are part of the ranges which
+ * are not bounded from below, iff this index is not unique.
+ * 
+ * @see SortedEntityStore
+ */
+public class CompactMetricIndex extends CompactIndex implements SmoodMetricIndex {
+
+	private final Comparator<Object> keyComparator;
+
+	/**
+	 * @param primitiveKeyClass
+	 *            {@link Long}, {@link Integer} or <tt>null</tt>. If given, all the keys must be of this class, and are stored unboxed.
+	 */
+	public CompactMetricIndex(boolean unique, Class<?> primitiveKeyClass, Comparator<Object> keyComparator) {
+		super(unique, new SortedEntityStore(primitiveKeyClass, keyComparator, !unique));
+
+		this.keyComparator = keyComparator;
+	}
+
+	@Override
+	protected PersistentMap newSnapshotKeys() {
+		return new PersistentTree(keyComparator);
+	}
+
+	@Override
+	protected SmoodIndex newSnapshotLevel(SnapshotIndex.Content content) {
+		return new SnapshotMetricIndex(indexInfo, content, keyComparator, !unique);
+	}
+
+	@Override
+	public Comparator<Object> getKeyComparator() {
+		return keyComparator;
+	}
+
+	@Override
+	public IndexRange getThisLevelRange(Object from, Boolean fromInclusive, Object to, Boolean toInclusive) {
+		return sortedStore().range(from, fromInclusive, to, toInclusive, false);
+	}
+
+	@Override
+	public IndexRange getThisLevelFullRange(boolean reverseOrder) {
+		return sortedStore().range(null, null, null, null, reverseOrder);
+	}
+
+	private SortedEntityStore sortedStore() {
+		return (SortedEntityStore) store;
+	}
+
+}
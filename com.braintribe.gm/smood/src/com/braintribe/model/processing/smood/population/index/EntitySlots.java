@@ -0,0 +1,454 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.population.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.processing.query.eval.tools.EntityComparator;
+
+/**
+ * Helpers for the value slots of the compact {@link EntityStore stores}. A slot is either <tt>null</tt> (empty), a single {@link GenericEntity}, a
+ * <tt>GenericEntity[]</tt> (of length 2 to {@value #MAX_ARRAY_SLOT_SIZE}) or a {@link LargeSlot}, in both cases sorted by {@link EntityComparator}.
+ * <p>
+ * Slot arrays are never modified, every change creates a new slot. Since that means copying the whole array, a slot with more than
+ * {@value #MAX_ARRAY_SLOT_SIZE} entities (e.g. the <tt>null</tt> slot of an index on a mostly-null property) is turned into a {@link LargeSlot},
+ * which is modified in place in logarithmic time. Callers therefore tell whether a slot was changed by comparing its {@link #size(Object) size}
+ * before and after the change.
+ */
+/* package */ class EntitySlots {
+
+	/* package */ static final int MAX_ARRAY_SLOT_SIZE = 32;
+
+	/** A {@link LargeSlot} is turned back into an array once it shrinks to this size, so that it doesn't flip back and forth. */
+	private static final int MIN_LARGE_SLOT_SIZE = MAX_ARRAY_SLOT_SIZE / 2;
+
+	/** Returns a slot which also contains given entity. If the entity already is there, the slot has the same {@link #size(Object) size}. */
+	public static Object add(Object slot, GenericEntity entity) {
+		if (slot == null)
+			return entity;
+
+		if (slot == entity)
+			return slot;
+
+		if (slot instanceof GenericEntity) {
+			GenericEntity e = (GenericEntity) slot;
+			return EntityComparator.INSTANCE.compare(e, entity) < 0 ? new GenericEntity[] { e, entity } : new GenericEntity[] { entity, e };
+		}
+
+		if (slot instanceof LargeSlot) {
+			((LargeSlot) slot).add(entity);
+			return slot;
+		}
+
+		GenericEntity[] entities = (GenericEntity[]) slot;
+		int i = Arrays.binarySearch(entities, entity, EntityComparator.INSTANCE);
+		if (i >= 0)
+			return slot;
+
+		i = -i - 1;
+
+		if (entities.length == MAX_ARRAY_SLOT_SIZE) {
+			LargeSlot result = new LargeSlot(entities);
+			result.add(entity);
+			return result;
+		}
+
+		GenericEntity[] result = new GenericEntity[entities.length + 1];
+		System.arraycopy(entities, 0, result, 0, i);
+		result[i] = entity;
+		System.arraycopy(entities, i, result, i + 1, entities.length - i);
+
+		return result;
+	}
+
+	/**
+	 * Returns a slot without given entity (<tt>null</tt> if it would be empty). If the entity is not there, the slot has the same
+	 * {@link #size(Object) size}.
+	 */
+	public static Object remove(Object slot, GenericEntity entity) {
+		if (slot == entity)
+			return null;
+
+		if (slot instanceof LargeSlot) {
+			LargeSlot largeSlot = (LargeSlot) slot;
+			if (largeSlot.remove(entity) && largeSlot.size() <= MIN_LARGE_SLOT_SIZE)
+				return largeSlot.toArray();
+			else
+				return slot;
+		}
+
+		if (!(slot instanceof GenericEntity[]))
+			return slot;
+
+		GenericEntity[] entities = (GenericEntity[]) slot;
+		int i = indexOf(entities, entity);
+		if (i < 0)
+			return slot;
+
+		if (entities.length == 2)
+			return entities[1 - i];
+
+		GenericEntity[] result = new GenericEntity[entities.length - 1];
+		System.arraycopy(entities, 0, result, 0, i);
+		System.arraycopy(entities, i + 1, result, i, result.length - i);
+
+		return result;
+	}
+
+	private static int indexOf(GenericEntity[] entities, GenericEntity entity) {
+		return indexOf(entities, entities.length, entity);
+	}
+
+	private static int indexOf(GenericEntity[] entities, int length, GenericEntity entity) {
+		int i = Arrays.binarySearch(entities, 0, length, entity, EntityComparator.INSTANCE);
+		return i >= 0 && entities[i] == entity ? i : -1;
+	}
+
+	public static boolean contains(Object slot, GenericEntity entity) {
+		if (slot instanceof GenericEntity[])
+			return indexOf((GenericEntity[]) slot, entity) >= 0;
+		else if (slot instanceof LargeSlot)
+			return ((LargeSlot) slot).contains(entity);
+		else
+			return slot == entity;
+	}
+
+	/** Returns the first entity of given slot, i.e. the one with the lowest {@link GenericEntity#runtimeId() runtimeId}. */
+	public static GenericEntity first(Object slot) {
+		if (slot instanceof GenericEntity[])
+			return ((GenericEntity[]) slot)[0];
+		else if (slot instanceof LargeSlot)
+			return ((LargeSlot) slot).first();
+		else
+			return (GenericEntity) slot;
+	}
+
+	public static int size(Object slot) {
+		if (slot == null)
+			return 0;
+
+		if (slot instanceof GenericEntity[])
+			return ((GenericEntity[]) slot).length;
+		else if (slot instanceof LargeSlot)
+			return ((LargeSlot) slot).size();
+		else
+			return 1;
+	}
+
+	/** Iterates over the entities of given slot, in the order of their {@link GenericEntity#runtimeId() runtimeIds}, or the opposite one. */
+	public static Iterator<GenericEntity> iterator(Object slot, boolean reverse) {
+		if (slot == null)
+			return Collections.emptyIterator();
+
+		if (slot instanceof LargeSlot)
+			return ((LargeSlot) slot).iterator(reverse);
+
+		if (slot instanceof GenericEntity)
+			return Collections.singletonList((GenericEntity) slot).iterator();
+
+		GenericEntity[] entities = (GenericEntity[]) slot;
+		return new ArrayIterator(entities, entities.length, reverse);
+	}
+
+	public static List<GenericEntity> asList(Object slot) {
+		if (slot == null)
+			return Collections.emptyList();
+
+		if (slot instanceof GenericEntity[])
+			return Collections.unmodifiableList(Arrays.asList((GenericEntity[]) slot));
+		else if (slot instanceof LargeSlot)
+			return Collections.unmodifiableList(Arrays.asList(((LargeSlot) slot).toArray()));
+		else
+			return Collections.singletonList((GenericEntity) slot);
+	}
+
+	public static void addTo(Object slot, Collection<? super GenericEntity> target) {
+		if (slot instanceof GenericEntity[])
+			Collections.addAll(target, (GenericEntity[]) slot);
+		else if (slot instanceof LargeSlot)
+			((LargeSlot) slot).iterator(false).forEachRemaining(target::add);
+		else if (slot != null)
+			target.add((GenericEntity) slot);
+	}
+
+	/** Passes every entity of given slot, together with given key, to given consumer. */
+	public static void forEach(Object slot, Object key, BiConsumer<Object, GenericEntity> consumer) {
+		for (Iterator<GenericEntity> it = iterator(slot, false); it.hasNext();)
+			consumer.accept(key, it.next());
+	}
+
+	/** Estimated size of the slot itself (on top of the reference to it), i.e. <tt>0</tt> unless it is an array or a {@link LargeSlot}. */
+	public static long footprint(Object slot) {
+		if (slot instanceof GenericEntity[])
+			return 16 + 4L * ((GenericEntity[]) slot).length;
+		else if (slot instanceof LargeSlot)
+			return ((LargeSlot) slot).footprint();
+		else
+			return 0;
+	}
+
+	/**
+	 * Mutable slot for many entities, which are kept in a list of sorted chunks of at most {@value #CHUNK_SIZE} entities each. Finding, adding or
+	 * removing an entity means a binary search over the chunks and within a chunk, so a change only shifts the entries of a single chunk and of the
+	 * array of chunks, rather than copying all the entities.
+	 */
+	/* package */ static final class LargeSlot {
+
+		private static final int CHUNK_SIZE = 64;
+
+		private GenericEntity[][] chunks;
+		private int[] chunkSizes;
+		private int chunkCount;
+		private int size;
+
+		/* package */ LargeSlot(GenericEntity[] sortedEntities) {
+			int n = sortedEntities.length;
+			int count = Math.max(1, (n + CHUNK_SIZE - 1) / CHUNK_SIZE);
+
+			this.chunks = new GenericEntity[Math.max(4, count)][];
+			this.chunkSizes = new int[chunks.length];
+
+			for (int c = 0; c < count; c++) {
+				int from = c * CHUNK_SIZE;
+				int chunkSize = Math.min(CHUNK_SIZE, n - from);
+
+				chunks[c] = new GenericEntity[CHUNK_SIZE];
+				System.arraycopy(sortedEntities, from, chunks[c], 0, chunkSize);
+				chunkSizes[c] = chunkSize;
+			}
+
+			this.chunkCount = count;
+			this.size = n;
+		}
+
+		public int size() {
+			return size;
+		}
+
+		public GenericEntity first() {
+			return chunks[0][0];
+		}
+
+		public boolean contains(GenericEntity entity) {
+			int c = chunkFor(entity);
+			return c < chunkCount && indexOf(chunks[c], chunkSizes[c], entity) >= 0;
+		}
+
+		/** Returns <tt>false</tt> iff the entity was already there. */
+		public boolean add(GenericEntity entity) {
+			int c = Math.min(chunkFor(entity), chunkCount - 1);
+
+			int i = Arrays.binarySearch(chunks[c], 0, chunkSizes[c], entity, EntityComparator.INSTANCE);
+			if (i >= 0)
+				return false;
+
+			i = -i - 1;
+
+			if (chunkSizes[c] == CHUNK_SIZE) {
+				if (c == chunkCount - 1 && i == CHUNK_SIZE) {
+					// appending after the very last entity (e.g. new entities during a bulk load), we start a new chunk rather than splitting
+					insertChunk(++c, new GenericEntity[CHUNK_SIZE], 0);
+					i = 0;
+
+				} else {
+					splitChunk(c);
+					if (i > chunkSizes[c]) {
+						i -= chunkSizes[c];
+						c++;
+					}
+				}
+			}
+
+			GenericEntity[] chunk = chunks[c];
+			System.arraycopy(chunk, i, chunk, i + 1, chunkSizes[c] - i);
+			chunk[i] = entity;
+			chunkSizes[c]++;
+			size++;
+
+			return true;
+		}
+
+		/** Returns <tt>false</tt> iff the entity was not there. */
+		public boolean remove(GenericEntity entity) {
+			int c = chunkFor(entity);
+			if (c == chunkCount)
+				return false;
+
+			GenericEntity[] chunk = chunks[c];
+			int i = indexOf(chunk, chunkSizes[c], entity);
+			if (i < 0)
+				return false;
+
+			int newChunkSize = --chunkSizes[c];
+			System.arraycopy(chunk, i + 1, chunk, i, newChunkSize - i);
+			chunk[newChunkSize] = null;
+			size--;
+
+			if (newChunkSize == 0)
+				removeChunk(c);
+			else if (newChunkSize < CHUNK_SIZE / 4)
+				mergeWithNeighbor(c);
+
+			return true;
+		}
+
+		/** Returns the index of the first chunk whose last entity is not smaller than given entity, or {@link #chunkCount} if there is none. */
+		private int chunkFor(GenericEntity entity) {
+			int lo = 0;
+			int hi = chunkCount;
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (EntityComparator.INSTANCE.compare(chunks[mid][chunkSizes[mid] - 1], entity) < 0)
+					lo = mid + 1;
+				else
+					hi = mid;
+			}
+
+			return lo;
+		}
+
+		private void splitChunk(int c) {
+			GenericEntity[] chunk = chunks[c];
+			int half = CHUNK_SIZE / 2;
+
+			GenericEntity[] newChunk = new GenericEntity[CHUNK_SIZE];
+			System.arraycopy(chunk, half, newChunk, 0, CHUNK_SIZE - half);
+			Arrays.fill(chunk, half, CHUNK_SIZE, null);
+			chunkSizes[c] = half;
+
+			insertChunk(c + 1, newChunk, CHUNK_SIZE - half);
+		}
+
+		private void mergeWithNeighbor(int c) {
+			int left = c > 0 && (c == chunkCount - 1 || chunkSizes[c - 1] < chunkSizes[c + 1]) ? c - 1 : c;
+			int right = left + 1;
+			if (right >= chunkCount || chunkSizes[left] + chunkSizes[right] > CHUNK_SIZE * 3 / 4)
+				return;
+
+			System.arraycopy(chunks[right], 0, chunks[left], chunkSizes[left], chunkSizes[right]);
+			chunkSizes[left] += chunkSizes[right];
+
+			removeChunk(right);
+		}
+
+		private void insertChunk(int c, GenericEntity[] chunk, int chunkSize) {
+			if (chunkCount == chunks.length) {
+				chunks = Arrays.copyOf(chunks, chunkCount * 2);
+				chunkSizes = Arrays.copyOf(chunkSizes, chunkCount * 2);
+			}
+
+			System.arraycopy(chunks, c, chunks, c + 1, chunkCount - c);
+			System.arraycopy(chunkSizes, c, chunkSizes, c + 1, chunkCount - c);
+
+			chunks[c] = chunk;
+			chunkSizes[c] = chunkSize;
+			chunkCount++;
+		}
+
+		private void removeChunk(int c) {
+			if (chunkCount == 1)
+				// the last chunk is kept even if empty, but a LargeSlot never gets empty anyway, it's turned into an array much sooner
+				return;
+
+			System.arraycopy(chunks, c + 1, chunks, c, chunkCount - c - 1);
+			System.arraycopy(chunkSizes, c + 1, chunkSizes, c, chunkCount - c - 1);
+
+			chunkCount--;
+			chunks[chunkCount] = null;
+			chunkSizes[chunkCount] = 0;
+		}
+
+		public GenericEntity[] toArray() {
+			GenericEntity[] result = new GenericEntity[size];
+
+			int n = 0;
+			for (int c = 0; c < chunkCount; c++) {
+				System.arraycopy(chunks[c], 0, result, n, chunkSizes[c]);
+				n += chunkSizes[c];
+			}
+
+			return result;
+		}
+
+		public Iterator<GenericEntity> iterator(boolean reverse) {
+			return new Iterator<GenericEntity>() {
+				private int c = reverse ? chunkCount - 1 : 0;
+				private Iterator<GenericEntity> chunkIt = chunkIterator();
+
+				private Iterator<GenericEntity> chunkIterator() {
+					return new ArrayIterator(chunks[c], chunkSizes[c], reverse);
+				}
+
+				@Override
+				public boolean hasNext() {
+					while (!chunkIt.hasNext()) {
+						if (reverse ? c == 0 : c == chunkCount - 1)
+							return false;
+
+						c += reverse ? -1 : 1;
+						chunkIt = chunkIterator();
+					}
+
+					return true;
+				}
+
+				@Override
+				public GenericEntity next() {
+					if (!hasNext())
+						throw new NoSuchElementException();
+
+					return chunkIt.next();
+				}
+			};
+		}
+
+		public long footprint() {
+			return 32 + 8L * chunks.length + (16 + 4L * CHUNK_SIZE) * chunkCount;
+		}
+
+	}
+
+	private static class ArrayIterator implements Iterator<GenericEntity> {
+		private final GenericEntity[] entities;
+		private final int length;
+		private final boolean reverse;
+		private int i;
+
+		ArrayIterator(GenericEntity[] entities, int length, boolean reverse) {
+			this.entities = entities;
+			this.length = length;
+			this.reverse = reverse;
+			this.i = reverse ? length - 1 : 0;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return reverse ? i >= 0 : i < length;
+		}
+
+		@Override
+		public GenericEntity next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+
+			return reverse ? entities[i--] : entities[i++];
+		}
+	}
+
+}
@@ -0,0 +1,49 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.population.index;
+
+import java.util.Collection;
+import java.util.function.BiConsumer;
+
+import com.braintribe.model.generic.GenericEntity;
+
+/**
+ * Storage of a compact index, mapping keys (property values) to entities. Every key can be mapped to multiple entities, it is up to the index to
+ * ensure uniqueness if needed. The <tt>null</tt> key is supported.
+ * 
+ * @see CompactIndex
+ */
+/* package */ interface EntityStore {
+
+	/** Adds given entity for given key and returns <tt>true</tt>, or returns <tt>false</tt> if the entity was already there. */
+	boolean add(Object key, GenericEntity entity);
+
+	/** Removes given entity for given key and returns <tt>true</tt>, or returns <tt>false</tt> if the entity was not there. */
+	boolean remove(Object key, GenericEntity entity);
+
+	/** Returns the entity with the lowest {@link GenericEntity#runtimeId() runtimeId} for given key, or <tt>null</tt> if there is none. */
+	GenericEntity get(Object key);
+
+	Collection<GenericEntity> getAll(Object key);
+
+	Collection<GenericEntity> values();
+
+	/** Returns the number of entities in this store. */
+	int size();
+
+	/** Passes every entry (including the ones with <tt>null</tt> key) to given consumer. */
+	void forEachEntry(BiConsumer<Object, GenericEntity> consumer);
+
+	/** Returns a rough estimate of how much memory (in bytes) this store occupies, not counting the key objects and entities themselves. */
+	long estimateFootprint();
+
+}
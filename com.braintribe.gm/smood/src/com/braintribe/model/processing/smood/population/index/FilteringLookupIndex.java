@@ -30,9 +30,22 @@ public class FilteringLookupIndex implements LookupIndex {
 	protected final IndexInfoImpl indexInfo;
 
 	public FilteringLookupIndex(LookupIndex delegate, Predicate<GenericEntity> filter) {
+		this(delegate, filter, new IndexInfoImpl());
+	}
+
+	private FilteringLookupIndex(LookupIndex delegate, Predicate<? super GenericEntity> filter, IndexInfoImpl indexInfo) {
 		this.delegate = delegate;
 		this.filter = filter;
-		this.indexInfo = new IndexInfoImpl();
+		this.indexInfo = indexInfo;
+	}
+
+	public LookupIndex getDelegate() {
+		return delegate;
+	}
+
+	/** Returns an index with the same filter and {@link IndexInfoImpl}, but backed by given delegate. Used when creating population snapshots. */
+	public FilteringLookupIndex withDelegate(LookupIndex newDelegate) {
+		return new FilteringLookupIndex(newDelegate, filter, indexInfo);
 	}
 
 	@Override
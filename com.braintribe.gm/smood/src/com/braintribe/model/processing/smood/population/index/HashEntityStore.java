@@ -0,0 +1,453 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.population.index;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+import com.braintribe.model.generic.GenericEntity;
+
+/**
+ * {@link EntityStore} for lookup indices, based on open-addressing hash tables with linear probing, i.e. without any entry objects.
+ * <p>
+ * Keys of the primitive key class (e.g. {@link Long}) are stored unboxed in a <tt>long[]</tt>, all other keys (e.g. {@link String}s, or non-Long
+ * ids) are stored in an <tt>Object[]</tt>. The values are {@link EntitySlots slots}.
+ */
+/* package */ class HashEntityStore implements EntityStore {
+
+	private final Class<?> primitiveKeyClass;
+
+	private final LongTable longTable;
+	private final ObjectTable objectTable;
+	private Object nullSlot;
+	private int size;
+
+	/**
+	 * @param primitiveKeyClass
+	 *            {@link Long}, {@link Integer} or <tt>null</tt>. Keys of this class are stored unboxed.
+	 */
+	public HashEntityStore(Class<?> primitiveKeyClass) {
+		this.primitiveKeyClass = primitiveKeyClass;
+		this.longTable = new LongTable();
+		this.objectTable = new ObjectTable();
+	}
+
+	@Override
+	public boolean add(Object key, GenericEntity entity) {
+		boolean added;
+		if (key == null)
+			added = addToNullSlot(entity);
+		else if (key.getClass() == primitiveKeyClass)
+			added = longTable.add(toLong(key), entity);
+		else
+			added = objectTable.add(key, entity);
+
+		if (added)
+			size++;
+
+		return added;
+	}
+
+	private boolean addToNullSlot(GenericEntity entity) {
+		int oldSize = EntitySlots.size(nullSlot);
+		nullSlot = EntitySlots.add(nullSlot, entity);
+
+		return EntitySlots.size(nullSlot) != oldSize;
+	}
+
+	@Override
+	public boolean remove(Object key, GenericEntity entity) {
+		boolean removed;
+		if (key == null)
+			removed = removeFromNullSlot(entity);
+		else if (key.getClass() == primitiveKeyClass)
+			removed = longTable.remove(toLong(key), entity);
+		else
+			removed = objectTable.remove(key, entity);
+
+		if (removed)
+			size--;
+
+		return removed;
+	}
+
+	private boolean removeFromNullSlot(GenericEntity entity) {
+		int oldSize = EntitySlots.size(nullSlot);
+		nullSlot = EntitySlots.remove(nullSlot, entity);
+
+		return EntitySlots.size(nullSlot) != oldSize;
+	}
+
+	@Override
+	public GenericEntity get(Object key) {
+		return EntitySlots.first(slotFor(key));
+	}
+
+	@Override
+	public Collection<GenericEntity> getAll(Object key) {
+		return EntitySlots.asList(slotFor(key));
+	}
+
+	private Object slotFor(Object key) {
+		if (key == null)
+			return nullSlot;
+		else if (key.getClass() == primitiveKeyClass)
+			return longTable.get(toLong(key));
+		else
+			return objectTable.get(key);
+	}
+
+	private static long toLong(Object key) {
+		return ((Number) key).longValue();
+	}
+
+	@Override
+	public Collection<GenericEntity> values() {
+		return new AbstractCollection<GenericEntity>() {
+			@Override
+			public Iterator<GenericEntity> iterator() {
+				return new SlotsIterator(new Object[] { nullSlot }, longTable.slots, objectTable.slots);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void forEachEntry(BiConsumer<Object, GenericEntity> consumer) {
+		EntitySlots.forEach(nullSlot, null, consumer);
+
+		long[] longKeys = longTable.keys;
+		Object[] longSlots = longTable.slots;
+		for (int i = 0; i < longSlots.length; i++)
+			if (longSlots[i] != null)
+				EntitySlots.forEach(longSlots[i], box(longKeys[i]), consumer);
+
+		Object[] objectKeys = objectTable.keys;
+		Object[] objectSlots = objectTable.slots;
+		for (int i = 0; i < objectSlots.length; i++)
+			if (objectSlots[i] != null)
+				EntitySlots.forEach(objectSlots[i], objectKeys[i], consumer);
+	}
+
+	private Object box(long key) {
+		return primitiveKeyClass == Integer.class ? (Object) Integer.valueOf((int) key) : (Object) Long.valueOf(key);
+	}
+
+	@Override
+	public long estimateFootprint() {
+		return 32 + longTable.estimateFootprint() + objectTable.estimateFootprint() + EntitySlots.footprint(nullSlot);
+	}
+
+	// ###################################################
+	// ## . . . . . . . . . Hash tables . . . . . . . . ##
+	// ###################################################
+
+	private static final int MIN_CAPACITY = 4;
+
+	/** Returns the table capacity needed for given number of keys, i.e. the smallest power of 2 such that the load factor is at most 0.75. */
+	private static int capacityFor(int keyCount) {
+		int capacity = MIN_CAPACITY;
+		while (capacity * 3 < keyCount * 4)
+			capacity <<= 1;
+
+		return capacity;
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private static int hash(Object key) {
+		int h = key.hashCode() * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/** Returns <tt>true</tt> iff an entry whose home index is <tt>home</tt> can be moved from index <tt>j</tt> to the <tt>gap</tt>. */
+	private static boolean canShift(int home, int gap, int j, int mask) {
+		return ((j - home) & mask) >= ((j - gap) & mask);
+	}
+
+	private static long slotsFootprint(Object[] slots) {
+		long result = 0;
+		for (Object slot : slots)
+			result += EntitySlots.footprint(slot);
+
+		return result;
+	}
+
+	private static class LongTable {
+		long[] keys = new long[0];
+		Object[] slots = new Object[0];
+		int keyCount;
+
+		/** Returns the index of given key, or of the empty position where the key would be inserted. Table must not be empty. */
+		private int indexOf(long key) {
+			int mask = slots.length - 1;
+			int i = hash(key) & mask;
+			while (slots[i] != null && keys[i] != key)
+				i = (i + 1) & mask;
+
+			return i;
+		}
+
+		Object get(long key) {
+			return keyCount == 0 ? null : slots[indexOf(key)];
+		}
+
+		boolean add(long key, GenericEntity entity) {
+			ensureCapacity(keyCount + 1);
+
+			int i = indexOf(key);
+			Object slot = slots[i];
+			int oldSize = EntitySlots.size(slot);
+			Object newSlot = EntitySlots.add(slot, entity);
+			if (EntitySlots.size(newSlot) == oldSize)
+				return false;
+
+			if (slot == null) {
+				keys[i] = key;
+				keyCount++;
+			}
+
+			slots[i] = newSlot;
+			return true;
+		}
+
+		boolean remove(long key, GenericEntity entity) {
+			if (keyCount == 0)
+				return false;
+
+			int i = indexOf(key);
+			Object slot = slots[i];
+			int oldSize = EntitySlots.size(slot);
+			Object newSlot = EntitySlots.remove(slot, entity);
+			if (EntitySlots.size(newSlot) == oldSize)
+				return false;
+
+			if (newSlot != null) {
+				slots[i] = newSlot;
+
+			} else {
+				keyCount--;
+				deleteAt(i);
+			}
+
+			return true;
+		}
+
+		/** Backward-shift deletion, which keeps the probe sequences intact without the need of tombstones. */
+		private void deleteAt(int gap) {
+			int mask = slots.length - 1;
+			int j = gap;
+			while (slots[j = (j + 1) & mask] != null) {
+				if (canShift(hash(keys[j]) & mask, gap, j, mask)) {
+					keys[gap] = keys[j];
+					slots[gap] = slots[j];
+					gap = j;
+				}
+			}
+
+			keys[gap] = 0;
+			slots[gap] = null;
+		}
+
+		private void ensureCapacity(int requiredKeyCount) {
+			int capacity = capacityFor(requiredKeyCount);
+			if (capacity <= slots.length)
+				return;
+
+			long[] oldKeys = keys;
+			Object[] oldSlots = slots;
+
+			keys = new long[capacity];
+			slots = new Object[capacity];
+
+			for (int i = 0; i < oldSlots.length; i++) {
+				if (oldSlots[i] != null) {
+					int j = indexOf(oldKeys[i]);
+					keys[j] = oldKeys[i];
+					slots[j] = oldSlots[i];
+				}
+			}
+		}
+
+		long estimateFootprint() {
+			Object[] slots = this.slots;
+			return 32 + 12L * slots.length + slotsFootprint(slots);
+		}
+	}
+
+	private static class ObjectTable {
+		Object[] keys = new Object[0];
+		Object[] slots = new Object[0];
+		int keyCount;
+
+		/** Returns the index of given key, or of the empty position where the key would be inserted. Table must not be empty. */
+		private int indexOf(Object key) {
+			int mask = slots.length - 1;
+			int i = hash(key) & mask;
+			while (slots[i] != null && !keys[i].equals(key))
+				i = (i + 1) & mask;
+
+			return i;
+		}
+
+		Object get(Object key) {
+			return keyCount == 0 ? null : slots[indexOf(key)];
+		}
+
+		boolean add(Object key, GenericEntity entity) {
+			ensureCapacity(keyCount + 1);
+
+			int i = indexOf(key);
+			Object slot = slots[i];
+			int oldSize = EntitySlots.size(slot);
+			Object newSlot = EntitySlots.add(slot, entity);
+			if (EntitySlots.size(newSlot) == oldSize)
+				return false;
+
+			if (slot == null) {
+				keys[i] = key;
+				keyCount++;
+			}
+
+			slots[i] = newSlot;
+			return true;
+		}
+
+		boolean remove(Object key, GenericEntity entity) {
+			if (keyCount == 0)
+				return false;
+
+			int i = indexOf(key);
+			Object slot = slots[i];
+			int oldSize = EntitySlots.size(slot);
+			Object newSlot = EntitySlots.remove(slot, entity);
+			if (EntitySlots.size(newSlot) == oldSize)
+				return false;
+
+			if (newSlot != null) {
+				slots[i] = newSlot;
+
+			} else {
+				keyCount--;
+				deleteAt(i);
+			}
+
+			return true;
+		}
+
+		/** Backward-shift deletion, which keeps the probe sequences intact without the need of tombstones. */
+		private void deleteAt(int gap) {
+			int mask = slots.length - 1;
+			int j = gap;
+			while (slots[j = (j + 1) & mask] != null) {
+				if (canShift(hash(keys[j]) & mask, gap, j, mask)) {
+					keys[gap] = keys[j];
+					slots[gap] = slots[j];
+					gap = j;
+				}
+			}
+
+			keys[gap] = null;
+			slots[gap] = null;
+		}
+
+		private void ensureCapacity(int requiredKeyCount) {
+			int capacity = capacityFor(requiredKeyCount);
+			if (capacity <= slots.length)
+				return;
+
+			Object[] oldKeys = keys;
+			Object[] oldSlots = slots;
+
+			keys = new Object[capacity];
+			slots = new Object[capacity];
+
+			for (int i = 0; i < oldSlots.length; i++) {
+				if (oldSlots[i] != null) {
+					int j = indexOf(oldKeys[i]);
+					keys[j] = oldKeys[i];
+					slots[j] = oldSlots[i];
+				}
+			}
+		}
+
+		long estimateFootprint() {
+			Object[] slots = this.slots;
+			return 32 + 8L * slots.length + slotsFootprint(slots);
+		}
+	}
+
+	/** Iterates over all the entities of given slot arrays, skipping empty slots. */
+	private static class SlotsIterator implements Iterator<GenericEntity> {
+		private final Object[][] slotArrays;
+		private int arrayIndex;
+		private int slotIndex;
+		private Iterator<GenericEntity> slotIt;
+
+		SlotsIterator(Object[]... slotArrays) {
+			this.slotArrays = slotArrays;
+			this.slotIndex = -1;
+			advanceSlot();
+		}
+
+		private void advanceSlot() {
+			slotIt = null;
+
+			while (arrayIndex < slotArrays.length) {
+				Object[] slots = slotArrays[arrayIndex];
+				while (++slotIndex < slots.length) {
+					Object slot = slots[slotIndex];
+					if (slot != null) {
+						slotIt = EntitySlots.iterator(slot, false);
+						return;
+					}
+				}
+
+				arrayIndex++;
+				slotIndex = -1;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return slotIt != null;
+		}
+
+		@Override
+		public GenericEntity next() {
+			if (slotIt == null)
+				throw new NoSuchElementException();
+
+			GenericEntity result = slotIt.next();
+			if (!slotIt.hasNext())
+				advanceSlot();
+
+			return result;
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.population.index;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+
+import com.braintribe.model.generic.GenericEntity;
+
+/**
+ * Entries of one level of a {@link SmoodMetricIndex} within a range, sorted by their keys.
+ * 
+ * @see SmoodMetricIndex#getThisLevelRange(Object, Boolean, Object, Boolean)
+ */
+/* package */ interface IndexRange {
+
+	boolean isEmpty();
+
+	Collection<? extends GenericEntity> values();
+
+	Iterator<? extends Entry<Object, GenericEntity>> entryIterator();
+
+	static IndexRange of(NavigableMap<Object, GenericEntity> navigableMap) {
+		return new IndexRange() {
+			@Override
+			public boolean isEmpty() {
+				return navigableMap.isEmpty();
+			}
+
+			@Override
+			public Collection<GenericEntity> values() {
+				return navigableMap.values();
+			}
+
+			@Override
+			public Iterator<Entry<Object, GenericEntity>> entryIterator() {
+				return navigableMap.entrySet().iterator();
+			}
+		};
+	}
+
+}
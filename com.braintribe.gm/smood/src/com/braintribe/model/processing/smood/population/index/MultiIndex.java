@@ -13,6 +13,8 @@ package com.braintribe.model.processing.smood.population.index;
 
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Map.Entry;
+import java.util.function.BiConsumer;
 
 import com.braintribe.model.generic.GenericEntity;
 import com.braintribe.model.generic.reflection.GenericModelType;
@@ -20,6 +22,8 @@ import com.braintribe.model.generic.reflection.VdHolder;
 import com.braintribe.model.processing.query.eval.tools.EntityComparator;
 import com.braintribe.model.processing.smood.population.SmoodIndexTools;
 import com.braintribe.model.processing.smood.population.info.IndexInfoImpl;
+import com.braintribe.model.processing.smood.tools.PersistentMap;
+import com.braintribe.model.processing.smood.tools.PersistentTree;
 import com.braintribe.utils.collection.api.NavigableMultiMap;
 import com.braintribe.utils.collection.impl.ComparatorBasedNavigableMultiMap;
 
@@ -40,7 +44,12 @@ public abstract class MultiIndex extends SmoodIndex {
 
 	@Override
 	public void addEntity(GenericEntity entity, Object value) {
-		map.put(value, entity);
+		put(value, entity);
+	}
+
+	private void put(Object value, GenericEntity entity) {
+		if (map.put2(value, entity))
+			onEntryAdded(value, entity);
 	}
 
 	@Override
@@ -48,6 +57,8 @@ public abstract class MultiIndex extends SmoodIndex {
 		if (!map.remove(propertyValue, entity))
 			throw new IllegalStateException("Entity was not in the index (" + indexInfo.getIndexId() + "), but should have been. Entity: " + entity
 					+ ", property value: " + propertyValue);
+
+		onEntryRemoved(propertyValue, entity);
 	}
 
 	@Override
@@ -56,8 +67,10 @@ public abstract class MultiIndex extends SmoodIndex {
 			if (!map.remove(oldValue, entity))
 				throw new IllegalStateException("Entity was not in the index (" + indexInfo.getIndexId() + "), but should have been. Entity: "
 						+ entity + ", oldValue: " + oldValue + ", newValue: " + newValue);
+			else
+				onEntryRemoved(oldValue, entity);
 
-		map.put(newValue, entity);
+		put(newValue, entity);
 	}
 
 	@Override
@@ -75,6 +88,28 @@ public abstract class MultiIndex extends SmoodIndex {
 		return map.values();
 	}
 
+	@Override
+	protected void forEachThisLevelEntry(BiConsumer<Object, GenericEntity> consumer) {
+		for (Entry<Object, GenericEntity> entry : map.entrySet())
+			consumer.accept(entry.getKey(), entry.getValue());
+	}
+
+	@Override
+	protected PersistentMap newSnapshotKeys() {
+		return new PersistentTree(keyComparator);
+	}
+
+	@Override
+	public int thisLevelSize() {
+		return map.size();
+	}
+
+	/** Each entry is a TreeMap node (~40 bytes) of the backing TreeSet, pointing to a NavigableEntry (~24 bytes). */
+	@Override
+	public long estimateThisLevelFootprint() {
+		return 64L * map.size();
+	}
+
 	@Override
 	public IndexInfoImpl getIndexInfo() {
 		return indexInfo;
@@ -22,4 +22,9 @@ public class MultiLookupIndex extends MultiIndex {
 		super(keyType);
 	}
 
+	@Override
+	protected SmoodIndex newSnapshotLevel(SnapshotIndex.Content content) {
+		return new SnapshotIndex(indexInfo, content);
+	}
+
 }
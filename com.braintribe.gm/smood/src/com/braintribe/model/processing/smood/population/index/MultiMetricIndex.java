@@ -12,9 +12,7 @@
 package com.braintribe.model.processing.smood.population.index;
 
 import java.util.Comparator;
-import java.util.NavigableMap;
 
-import com.braintribe.model.generic.GenericEntity;
 import com.braintribe.model.generic.reflection.GenericModelType;
 
 /**
@@ -26,14 +24,24 @@ public class MultiMetricIndex extends MultiIndex implements SmoodMetricIndex {
 		super(keyType);
 	}
 
+	@Override
+	protected SmoodIndex newSnapshotLevel(SnapshotIndex.Content content) {
+		return new SnapshotMetricIndex(indexInfo, content, keyComparator, true);
+	}
+
 	@Override
 	public Comparator<Object> getKeyComparator() {
 		return keyComparator;
 	}
 
 	@Override
-	public NavigableMap<Object, GenericEntity> getNavigableMap() {
-		return map;
+	public IndexRange getThisLevelRange(Object from, Boolean fromInclusive, Object to, Boolean toInclusive) {
+		return SmoodMetricIndex.navigableMapRange(map, from, fromInclusive, to, toInclusive);
+	}
+
+	@Override
+	public IndexRange getThisLevelFullRange(boolean reverseOrder) {
+		return SmoodMetricIndex.navigableMapFullRange(map, reverseOrder);
 	}
 
 }
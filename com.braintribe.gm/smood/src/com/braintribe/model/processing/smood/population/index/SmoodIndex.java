@@ -17,9 +17,12 @@ import static com.braintribe.utils.lcd.CollectionTools2.newList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import com.braintribe.model.generic.GenericEntity;
 import com.braintribe.model.generic.reflection.EntityType;
+import com.braintribe.model.processing.smood.tools.PersistentMap;
 
 /**
  * Base for a smood index (unique and multi) which directly contains only instances of this {@link #entityType type}, but no sub-type, to reduce
@@ -99,4 +102,103 @@ public abstract class SmoodIndex implements LookupIndex {
 
 	protected abstract Collection<? extends GenericEntity> allThisLevelValues();
 
+	// ###########################################################################################
+	// ## . . . . . . . . . . . . . . . . . . Snapshots . . . . . . . . . . . . . . . . . . . . ##
+	// ###########################################################################################
+
+	/** Minimal number of changes kept for the next snapshot, see {@link #r_snapshotThisLevel()}. */
+	private static final int MIN_CHANGE_LOG_LIMIT = 1024;
+
+	/** Content of the last snapshot of this level, or <tt>null</tt> if the next snapshot has to be built from scratch. */
+	private SnapshotIndex.Content snapshotContent;
+	/** Changes of this level since the last snapshot, or <tt>null</tt> if no changes are being tracked. */
+	private List<SnapshotIndex.Change> changes;
+
+	/**
+	 * Creates an immutable copy of this index which only contains the entities of this level and is not yet linked with any other index (other
+	 * than itself). The copy is only used as part of a population snapshot.
+	 * <p>
+	 * The first copy is built from all the entries of this level, and from then on this level keeps track of its changes, so that every next copy
+	 * is derived from the previous one by only applying these changes on its persistent data structures. If there are more changes than entries
+	 * before the next copy is needed, the tracking is stopped and the next copy is built from scratch again.
+	 * 
+	 * @see #r_linkCopy(SmoodIndex, Function)
+	 */
+	public final SmoodIndex r_snapshotThisLevel() {
+		if (snapshotContent == null) {
+			SnapshotIndex.Content content = new SnapshotIndex.Content(newSnapshotKeys());
+			List<SnapshotIndex.Change> entries = newList();
+			forEachThisLevelEntry((key, entity) -> entries.add(new SnapshotIndex.Change(key, entity, true)));
+			snapshotContent = content.apply(entries);
+
+		} else {
+			snapshotContent = snapshotContent.apply(changes);
+		}
+
+		changes = newList();
+
+		return newSnapshotLevel(snapshotContent);
+	}
+
+	/** To be called by the implementation whenever an entry is actually added to this level. */
+	protected final void onEntryAdded(Object key, GenericEntity entity) {
+		if (changes != null)
+			logChange(new SnapshotIndex.Change(key, entity, true));
+	}
+
+	/** To be called by the implementation whenever an entry is actually removed from this level. */
+	protected final void onEntryRemoved(Object key, GenericEntity entity) {
+		if (changes != null)
+			logChange(new SnapshotIndex.Change(key, entity, false));
+	}
+
+	private void logChange(SnapshotIndex.Change change) {
+		if (changes.size() < Math.max(MIN_CHANGE_LOG_LIMIT, thisLevelSize())) {
+			changes.add(change);
+			return;
+		}
+
+		// building the next snapshot from scratch is cheaper than applying the changes
+		changes = null;
+		snapshotContent = null;
+	}
+
+	/** Passes every entry of this level (including the ones with <tt>null</tt> key) to given consumer. */
+	protected abstract void forEachThisLevelEntry(BiConsumer<Object, GenericEntity> consumer);
+
+	/** Returns an empty {@link PersistentMap} for the keys of this level's snapshot, matching the way this level looks up its keys. */
+	protected abstract PersistentMap newSnapshotKeys();
+
+	/** Returns the snapshot level for given content, i.e. either a {@link SnapshotIndex} or a {@link SnapshotMetricIndex}. */
+	protected abstract SmoodIndex newSnapshotLevel(SnapshotIndex.Content content);
+
+	/**
+	 * Links the copy of this index (created via {@link #r_snapshotThisLevel()}) with the copies of all the related indices, so that the copy resolves
+	 * instances polymorphically the same way as this index does.
+	 */
+	public void r_linkCopy(SmoodIndex copy, Function<SmoodIndex, SmoodIndex> copyResolver) {
+		copy.entityType = entityType;
+
+		copy.superRootIndices.clear();
+		for (SmoodIndex superRootIndex : superRootIndices)
+			copy.superRootIndices.add(copyResolver.apply(superRootIndex));
+
+		copy.meAndSubIndices.clear();
+		for (SmoodIndex index : meAndSubIndices)
+			copy.meAndSubIndices.add(copyResolver.apply(index));
+	}
+
+	/** Returns the indices this index delegates to when resolving values polymorphically, i.e. the ones that need to be copied with this one. */
+	public List<SmoodIndex> relatedIndices() {
+		List<SmoodIndex> result = newList(meAndSubIndices);
+		result.addAll(superRootIndices);
+		return result;
+	}
+
+	/** Returns the number of entities stored directly on this level. */
+	public abstract int thisLevelSize();
+
+	/** Returns a rough estimate of how much memory (in bytes) the entries of this level of the index occupy. */
+	public abstract long estimateThisLevelFootprint();
+
 }
@@ -15,10 +15,9 @@ import static com.braintribe.utils.lcd.CollectionTools2.first;
 import static com.braintribe.utils.lcd.CollectionTools2.newList;
 import static java.util.Collections.emptyList;
 
-import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
@@ -39,22 +38,8 @@ import com.braintribe.model.generic.GenericEntity;
 		return mergeAllLevels(getKeyComparator(), smi -> smi.getThisLevelRange(from, fromInclusive, to, toInclusive));
 	}
 
-	default NavigableMap<Object, GenericEntity> getThisLevelRange(Object from, Boolean fromInclusive, Object to, Boolean toInclusive) {
-		NavigableMap<Object, GenericEntity> navigableMap = getNavigableMap();
-
-		if (fromInclusive == null) {
-			if (toInclusive == null)
-				return navigableMap;
-			else
-				return navigableMap.headMap(to, toInclusive);
-
-		} else if (toInclusive == null) {
-			return navigableMap.tailMap(from, fromInclusive);
-
-		} else {
-			return navigableMap.subMap(from, fromInclusive, to, toInclusive);
-		}
-	}
+	/** Returns the entries of this level within given range, where a <tt>null</tt> inclusive flag means the range is not bounded from that side. */
+	IndexRange getThisLevelRange(Object from, Boolean fromInclusive, Object to, Boolean toInclusive);
 
 	@Override
 	default Collection<? extends GenericEntity> getFullRange(boolean reverseOrder) {
@@ -65,16 +50,10 @@ import com.braintribe.model.generic.GenericEntity;
 		return mergeAllLevels(keyComparator, smi -> smi.getThisLevelFullRange(reverseOrder));
 	}
 
-	default NavigableMap<Object, GenericEntity> getThisLevelFullRange(boolean reverseOrder) {
-		NavigableMap<Object, GenericEntity> navigableMap = getNavigableMap();
-
-		return reverseOrder ? navigableMap.descendingMap() : navigableMap;
-	}
-
-	default Collection<? extends GenericEntity> mergeAllLevels(Comparator<Object> keyComparator,
-			Function<SmoodMetricIndex, NavigableMap<Object, GenericEntity>> rangeSupplier) {
+	IndexRange getThisLevelFullRange(boolean reverseOrder);
 
-		List<NavigableMap<Object, GenericEntity>> ranges = ((SmoodIndex) this).meAndSubIndices.stream() //
+	default Collection<? extends GenericEntity> mergeAllLevels(Comparator<Object> keyComparator, Function<SmoodMetricIndex, IndexRange> rangeSupplier) {
+		List<IndexRange> ranges = ((SmoodIndex) this).meAndSubIndices.stream() //
 				.map(index -> (SmoodMetricIndex) index) //
 				.map(rangeSupplier) //
 				.filter(range -> !range.isEmpty()) //
@@ -92,7 +71,28 @@ import com.braintribe.model.generic.GenericEntity;
 
 	Comparator<Object> getKeyComparator();
 
-	NavigableMap<Object, GenericEntity> getNavigableMap();
+	/** {@link #getThisLevelRange(Object, Boolean, Object, Boolean)} implementation for a level backed by a {@link NavigableMap}. */
+	static IndexRange navigableMapRange(NavigableMap<Object, GenericEntity> navigableMap, Object from, Boolean fromInclusive, Object to,
+			Boolean toInclusive) {
+
+		if (fromInclusive == null) {
+			if (toInclusive == null)
+				return IndexRange.of(navigableMap);
+			else
+				return IndexRange.of(navigableMap.headMap(to, toInclusive));
+
+		} else if (toInclusive == null) {
+			return IndexRange.of(navigableMap.tailMap(from, fromInclusive));
+
+		} else {
+			return IndexRange.of(navigableMap.subMap(from, fromInclusive, to, toInclusive));
+		}
+	}
+
+	/** {@link #getThisLevelFullRange(boolean)} implementation for a level backed by a {@link NavigableMap}. */
+	static IndexRange navigableMapFullRange(NavigableMap<Object, GenericEntity> navigableMap, boolean reverseOrder) {
+		return IndexRange.of(reverseOrder ? navigableMap.descendingMap() : navigableMap);
+	}
 
 }
 
@@ -103,12 +103,13 @@ import com.braintribe.model.generic.GenericEntity;
 class RangesMerger {
 
 	private final Comparator<Object> keyComparator;
-	private final List<NavigableMap<Object, GenericEntity>> ranges;
+	private final List<IndexRange> ranges;
 	private final List<GenericEntity> result = newList();
 
-	private List<Deque<Entry<Object, GenericEntity>>> deques;
+	private List<Iterator<? extends Entry<Object, GenericEntity>>> iterators;
+	private List<Entry<Object, GenericEntity>> heads;
 
-	public RangesMerger(Comparator<Object> keyComparator, List<NavigableMap<Object, GenericEntity>> ranges) {
+	public RangesMerger(Comparator<Object> keyComparator, List<IndexRange> ranges) {
 		this.keyComparator = keyComparator;
 		this.ranges = ranges;
 		this.mergeRanges();
@@ -119,32 +120,42 @@ class RangesMerger {
 	}
 
 	private void mergeRanges() {
-		deques = ranges.stream() //
-				.map(navMap -> new ArrayDeque<>(navMap.entrySet())) //
-				.collect(Collectors.toList());
+		iterators = newList();
+		heads = newList();
+
+		for (IndexRange range : ranges) {
+			Iterator<? extends Entry<Object, GenericEntity>> it = range.entryIterator();
+			iterators.add(it);
+			heads.add(it.next());
+		}
 
-		while (!deques.isEmpty())
+		while (!heads.isEmpty())
 			mergeNextEntry();
 	}
 
 	private void mergeNextEntry() {
-		Deque<Entry<Object, GenericEntity>> deque = null;
+		int index = -1;
 		Object key = null;
 
-		for (Deque<Entry<Object, GenericEntity>> d : deques) {
-			Entry<Object, GenericEntity> e = d.getFirst();
-			Object k = e.getKey();
-			if (deque == null || keyComparator.compare(key, k) > 0) {
-				deque = d;
+		for (int i = 0; i < heads.size(); i++) {
+			Object k = heads.get(i).getKey();
+			if (index < 0 || keyComparator.compare(key, k) > 0) {
+				index = i;
 				key = k;
 			}
 		}
 
-		GenericEntity entity = deque.removeFirst().getValue();
+		GenericEntity entity = heads.get(index).getValue();
 		result.add(entity);
 
-		if (deque.isEmpty())
-			deques.remove(deque);
+		Iterator<? extends Entry<Object, GenericEntity>> it = iterators.get(index);
+		if (it.hasNext()) {
+			heads.set(index, it.next());
+
+		} else {
+			heads.remove(index);
+			iterators.remove(index);
+		}
 	}
 
 }
@@ -0,0 +1,293 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.population.index;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.function.BiConsumer;
+
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.processing.query.eval.tools.EntityComparator;
+import com.braintribe.model.processing.smood.population.PopulationManager;
+import com.braintribe.model.processing.smood.population.info.IndexInfoImpl;
+import com.braintribe.model.processing.smood.tools.PersistentMap;
+import com.braintribe.model.processing.smood.tools.PersistentTree;
+
+/**
+ * Immutable level of an index within a {@link PopulationManager#r_snapshot() population snapshot}, see {@link SmoodIndex#r_snapshotThisLevel()}.
+ * <p>
+ * The entries are stored in a {@link Content}, which consists of {@link PersistentMap persistent maps}, so that the content of the next snapshot is
+ * derived from this one by only applying the changes made since, while sharing the rest of the structure.
+ */
+/* package */ class SnapshotIndex extends SmoodIndex {
+
+	protected final IndexInfoImpl indexInfo;
+	protected final Content content;
+
+	SnapshotIndex(IndexInfoImpl indexInfo, Content content) {
+		this.indexInfo = indexInfo;
+		this.content = content;
+	}
+
+	@Override
+	public void addEntity(GenericEntity entity, Object value) {
+		throw readOnly();
+	}
+
+	@Override
+	public void removeEntity(GenericEntity entity, Object propertyValue) {
+		throw readOnly();
+	}
+
+	@Override
+	public void onChangeValue(GenericEntity entity, Object oldValue, Object newValue) {
+		throw readOnly();
+	}
+
+	private UnsupportedOperationException readOnly() {
+		return new UnsupportedOperationException("Snapshot index cannot be modified: " + indexInfo.getIndexId());
+	}
+
+	@Override
+	protected GenericEntity getThisLevelValue(Object indexValue) {
+		return first(content.slot(indexValue));
+	}
+
+	@Override
+	protected Collection<? extends GenericEntity> getThisLevelValues(Object indexValue) {
+		Object slot = content.slot(indexValue);
+		if (slot == null)
+			return Collections.emptyList();
+		if (slot instanceof GenericEntity)
+			return Collections.singletonList((GenericEntity) slot);
+
+		return new SlotValues(slot);
+	}
+
+	@Override
+	protected Collection<? extends GenericEntity> allThisLevelValues() {
+		return new AbstractCollection<GenericEntity>() {
+			@Override
+			public Iterator<GenericEntity> iterator() {
+				List<GenericEntity> result = new ArrayList<>(content.size);
+				forEachThisLevelEntry((key, entity) -> result.add(entity));
+				return result.iterator();
+			}
+
+			@Override
+			public int size() {
+				return content.size;
+			}
+		};
+	}
+
+	@Override
+	protected void forEachThisLevelEntry(BiConsumer<Object, GenericEntity> consumer) {
+		forEachInSlot(content.nulls, null, consumer);
+		content.keys.forEach((key, slot) -> forEachInSlot(slot, key, consumer));
+	}
+
+	@Override
+	protected PersistentMap newSnapshotKeys() {
+		throw new UnsupportedOperationException("Snapshot of a snapshot index is not supported: " + indexInfo.getIndexId());
+	}
+
+	@Override
+	protected SmoodIndex newSnapshotLevel(Content content) {
+		throw new UnsupportedOperationException("Snapshot of a snapshot index is not supported: " + indexInfo.getIndexId());
+	}
+
+	@Override
+	public int thisLevelSize() {
+		return content.size;
+	}
+
+	/**
+	 * Each entry is a tree node (~40 bytes), plus the key's node in case of multiple entities per key. Note that the nodes are mostly shared with the
+	 * snapshots of the neighboring versions.
+	 */
+	@Override
+	public long estimateThisLevelFootprint() {
+		return 40L * (content.size + content.keys.size());
+	}
+
+	@Override
+	public IndexInfoImpl getIndexInfo() {
+		return indexInfo;
+	}
+
+	// ###################################################
+	// ## . . . . . . . . . . Content . . . . . . . . . ##
+	// ###################################################
+
+	/**
+	 * Immutable entries of a snapshot index level. Every key (other than <tt>null</tt>) is mapped to a slot, which is either a single entity, or a
+	 * {@link PersistentTree} of entities sorted by {@link EntityComparator}. The <tt>null</tt> key's slot is kept separately, as it is not part of
+	 * the key ranges.
+	 */
+	/* package */ static final class Content {
+		final PersistentMap keys;
+		final Object nulls;
+		final int size;
+
+		Content(PersistentMap emptyKeys) {
+			this(emptyKeys, null, 0);
+		}
+
+		private Content(PersistentMap keys, Object nulls, int size) {
+			this.keys = keys;
+			this.nulls = nulls;
+			this.size = size;
+		}
+
+		Object slot(Object key) {
+			return key == null ? nulls : keys.get(key);
+		}
+
+		/** Returns the content with all the changes applied, in given order. */
+		Content apply(List<Change> changes) {
+			if (changes.isEmpty())
+				return this;
+
+			PersistentMap keys = this.keys;
+			Object nulls = this.nulls;
+			int size = this.size;
+
+			for (Change change : changes) {
+				Object slot = change.key == null ? nulls : keys.get(change.key);
+				Object newSlot = change.added ? slotWith(slot, change.entity) : slotWithout(slot, change.entity);
+				if (newSlot == slot)
+					continue;
+
+				size += slotSize(newSlot) - slotSize(slot);
+
+				if (change.key == null)
+					nulls = newSlot;
+				else if (newSlot == null)
+					keys = keys.without(change.key);
+				else
+					keys = keys.with(change.key, newSlot);
+			}
+
+			return new Content(keys, nulls, size);
+		}
+	}
+
+	/** An entry added to or removed from a live index level, see {@link SmoodIndex#r_snapshotThisLevel()}. */
+	/* package */ static final class Change {
+		final Object key;
+		final GenericEntity entity;
+		final boolean added;
+
+		Change(Object key, GenericEntity entity, boolean added) {
+			this.key = key;
+			this.entity = entity;
+			this.added = added;
+		}
+	}
+
+	// ###################################################
+	// ## . . . . . . . . . . . Slots . . . . . . . . . ##
+	// ###################################################
+
+	private static Object slotWith(Object slot, GenericEntity entity) {
+		if (slot == null)
+			return entity;
+
+		if (slot == entity)
+			return slot;
+
+		if (slot instanceof GenericEntity)
+			return new PersistentTree(EntityComparator.INSTANCE).with(slot, slot).with(entity, entity);
+
+		return ((PersistentTree) slot).with(entity, entity);
+	}
+
+	private static Object slotWithout(Object slot, GenericEntity entity) {
+		if (slot == entity)
+			return null;
+
+		if (slot == null || slot instanceof GenericEntity)
+			return slot;
+
+		PersistentTree tree = (PersistentTree) slot;
+		PersistentTree newTree = tree.without(entity);
+		if (newTree == tree)
+			return slot;
+
+		return newTree.size() == 1 ? newTree.first().getKey() : newTree;
+	}
+
+	private static int slotSize(Object slot) {
+		if (slot == null)
+			return 0;
+
+		return slot instanceof GenericEntity ? 1 : ((PersistentTree) slot).size();
+	}
+
+	/* package */ static GenericEntity first(Object slot) {
+		if (slot == null || slot instanceof GenericEntity)
+			return (GenericEntity) slot;
+
+		return (GenericEntity) ((PersistentTree) slot).first().getKey();
+	}
+
+	/* package */ static Iterator<GenericEntity> slotIterator(Object slot, boolean reverse) {
+		if (slot == null)
+			return Collections.emptyIterator();
+
+		if (slot instanceof GenericEntity)
+			return Collections.singletonList((GenericEntity) slot).iterator();
+
+		Iterator<Entry<Object, Object>> it = ((PersistentTree) slot).iterator(reverse);
+		return new Iterator<GenericEntity>() {
+			@Override
+			public boolean hasNext() {
+				return it.hasNext();
+			}
+
+			@Override
+			public GenericEntity next() {
+				return (GenericEntity) it.next().getKey();
+			}
+		};
+	}
+
+	private static void forEachInSlot(Object slot, Object key, BiConsumer<Object, GenericEntity> consumer) {
+		for (Iterator<GenericEntity> it = slotIterator(slot, false); it.hasNext();)
+			consumer.accept(key, it.next());
+	}
+
+	private static class SlotValues extends AbstractCollection<GenericEntity> {
+		private final Object slot;
+
+		SlotValues(Object slot) {
+			this.slot = slot;
+		}
+
+		@Override
+		public Iterator<GenericEntity> iterator() {
+			return slotIterator(slot, false);
+		}
+
+		@Override
+		public int size() {
+			return slotSize(slot);
+		}
+	}
+
+}
@@ -0,0 +1,171 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.population.index;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.processing.smood.population.info.IndexInfoImpl;
+import com.braintribe.model.processing.smood.tools.PersistentTree;
+
+/**
+ * {@link SnapshotIndex} of a metric index level, whose keys are stored in a {@link PersistentTree}.
+ * <p>
+ * Just like with the original index, entities indexed with <tt>null</tt> are part of the ranges which are not bounded from below, iff
+ * {@link #nullsInRange} is set (which is the case for non-unique indices).
+ */
+/* package */ class SnapshotMetricIndex extends SnapshotIndex implements SmoodMetricIndex {
+
+	private final Comparator<Object> keyComparator;
+	private final boolean nullsInRange;
+
+	SnapshotMetricIndex(IndexInfoImpl indexInfo, Content content, Comparator<Object> keyComparator, boolean nullsInRange) {
+		super(indexInfo, content);
+
+		this.keyComparator = keyComparator;
+		this.nullsInRange = nullsInRange;
+	}
+
+	@Override
+	public Comparator<Object> getKeyComparator() {
+		return keyComparator;
+	}
+
+	@Override
+	public IndexRange getThisLevelRange(Object from, Boolean fromInclusive, Object to, Boolean toInclusive) {
+		return new TreeRange(from, fromInclusive, to, toInclusive, nullsInRange && fromInclusive == null, false);
+	}
+
+	@Override
+	public IndexRange getThisLevelFullRange(boolean reverseOrder) {
+		return new TreeRange(null, null, null, null, nullsInRange, reverseOrder);
+	}
+
+	private class TreeRange implements IndexRange {
+		private final Object from;
+		private final Boolean fromInclusive;
+		private final Object to;
+		private final Boolean toInclusive;
+		private final boolean includeNulls;
+		private final boolean reverse;
+
+		TreeRange(Object from, Boolean fromInclusive, Object to, Boolean toInclusive, boolean includeNulls, boolean reverse) {
+			this.from = from;
+			this.fromInclusive = fromInclusive;
+			this.to = to;
+			this.toInclusive = toInclusive;
+			this.includeNulls = includeNulls;
+			this.reverse = reverse;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return !entryIterator().hasNext();
+		}
+
+		@Override
+		public Collection<? extends GenericEntity> values() {
+			return new AbstractCollection<GenericEntity>() {
+				@Override
+				public Iterator<GenericEntity> iterator() {
+					Iterator<Entry<Object, GenericEntity>> it = entryIterator();
+					return new Iterator<GenericEntity>() {
+						@Override
+						public boolean hasNext() {
+							return it.hasNext();
+						}
+
+						@Override
+						public GenericEntity next() {
+							return it.next().getValue();
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					int result = 0;
+					for (Iterator<?> it = entryIterator(); it.hasNext(); it.next())
+						result++;
+
+					return result;
+				}
+			};
+		}
+
+		@Override
+		public Iterator<Entry<Object, GenericEntity>> entryIterator() {
+			return new RangeCursor(this);
+		}
+	}
+
+	/**
+	 * Iterates over the entities of a range, expanding the slot of every key. The <tt>null</tt>-key entities (if included) come first, or last in
+	 * reverse order.
+	 */
+	private class RangeCursor implements Iterator<Entry<Object, GenericEntity>> {
+		private final boolean reverse;
+		private final Iterator<Entry<Object, Object>> keysIt;
+		private Iterator<GenericEntity> nullsIt;
+
+		private Object key;
+		private Iterator<GenericEntity> slotIt = Collections.emptyIterator();
+
+		RangeCursor(TreeRange range) {
+			this.reverse = range.reverse;
+			this.keysIt = isEmptyRange(range) ? Collections.emptyIterator()
+					: tree().iterator(range.from, range.fromInclusive, range.to, range.toInclusive, reverse);
+			this.nullsIt = range.includeNulls ? slotIterator(content.nulls, reverse) : Collections.emptyIterator();
+		}
+
+		private boolean isEmptyRange(TreeRange r) {
+			return r.fromInclusive != null && r.toInclusive != null && keyComparator.compare(r.from, r.to) > 0;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nullsIt.hasNext() || slotIt.hasNext() || keysIt.hasNext();
+		}
+
+		@Override
+		public Entry<Object, GenericEntity> next() {
+			if (!reverse && nullsIt.hasNext())
+				return new SimpleImmutableEntry<>(null, nullsIt.next());
+
+			if (!slotIt.hasNext() && keysIt.hasNext()) {
+				Entry<Object, Object> e = keysIt.next();
+				key = e.getKey();
+				slotIt = slotIterator(e.getValue(), reverse);
+			}
+
+			if (slotIt.hasNext())
+				return new SimpleImmutableEntry<>(key, slotIt.next());
+
+			if (nullsIt.hasNext())
+				return new SimpleImmutableEntry<>(null, nullsIt.next());
+
+			throw new NoSuchElementException();
+		}
+	}
+
+	private PersistentTree tree() {
+		return (PersistentTree) content.keys;
+	}
+
+}
@@ -0,0 +1,631 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.population.index;
+
+import static com.braintribe.utils.lcd.CollectionTools2.newList;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.processing.query.eval.tools.EntityComparator;
+
+/**
+ * {@link EntityStore} for metric indices, which keeps the entries sorted by their keys.
+ * <p>
+ * The bulk of the entries is stored in parallel sorted arrays - keys (unboxed <tt>long</tt>s for the primitive key class) and entities, with
+ * entries with the same key sorted by {@link EntityComparator}. An entry with a key bigger than all the keys in the arrays (e.g. a new id or
+ * timestamp) is simply appended, other new entries go to a {@link TreeMap} overflow buffer, which is merged into the arrays once it reaches 1/8 of
+ * their size. Removed entries are only marked in the arrays (in the {@link #removed} bit set) and are dropped with the next merge. As the entries
+ * with the same key stay sorted even with the removed ones in place, a particular entity is found with a binary search, no matter how many other
+ * entities share its key.
+ */
+/* package */ class SortedEntityStore implements EntityStore {
+
+	private static final int MIN_OVERFLOW_LIMIT = 64;
+
+	private final Class<?> primitiveKeyClass;
+	private final Comparator<Object> keyComparator;
+	private final boolean nullsInRange;
+
+	/* Sorted arrays, only one of the key arrays is used, depending on whether we have a primitiveKeyClass. */
+	private long[] longKeys;
+	private Object[] objectKeys;
+	private GenericEntity[] entities;
+	private BitSet removed;
+	private int arraySize;
+	private int removedCount;
+
+	private final TreeMap<Object, Object> overflow;
+	private int overflowSize;
+
+	private Object nullSlot;
+	private int size;
+
+	/**
+	 * @param primitiveKeyClass
+	 *            {@link Long}, {@link Integer} or <tt>null</tt>. If given, all the (non-null) keys must be of this class and are stored unboxed.
+	 * @param nullsInRange
+	 *            whether entities indexed with <tt>null</tt> are part of the ranges, as the lowest values, or only accessible via
+	 *            {@link #get(Object)}, {@link #getAll(Object)} and {@link #values()}.
+	 */
+	public SortedEntityStore(Class<?> primitiveKeyClass, Comparator<Object> keyComparator, boolean nullsInRange) {
+		this.primitiveKeyClass = primitiveKeyClass;
+		this.keyComparator = keyComparator;
+		this.nullsInRange = nullsInRange;
+
+		if (primitiveKeyClass != null)
+			this.longKeys = new long[0];
+		else
+			this.objectKeys = new Object[0];
+
+		this.entities = new GenericEntity[0];
+		this.removed = new BitSet();
+		this.overflow = new TreeMap<>(keyComparator);
+	}
+
+	// ###################################################
+	// ## . . . . . . . . . . Writing . . . . . . . . . ##
+	// ###################################################
+
+	@Override
+	public boolean add(Object key, GenericEntity entity) {
+		if (key == null) {
+			int oldSize = EntitySlots.size(nullSlot);
+			nullSlot = EntitySlots.add(nullSlot, entity);
+			if (EntitySlots.size(nullSlot) == oldSize)
+				return false;
+
+			size++;
+			return true;
+		}
+
+		if (!overflow.isEmpty() && EntitySlots.contains(overflow.get(key), entity))
+			return false;
+
+		if (arraySize == 0 || compareKeyAt(arraySize - 1, key) < 0) {
+			append(key, entity);
+			size++;
+			return true;
+		}
+
+		int i = arrayIndexOf(key, entity);
+		if (i >= 0) {
+			if (removed.get(i)) {
+				// the entry is still in the arrays, we just un-mark it
+				removed.clear(i);
+				removedCount--;
+				size++;
+				return true;
+			}
+			return false;
+		}
+
+		overflow.put(key, EntitySlots.add(overflow.get(key), entity));
+		overflowSize++;
+		size++;
+
+		if (overflowSize >= Math.max(MIN_OVERFLOW_LIMIT, arraySize >> 3))
+			merge();
+
+		return true;
+	}
+
+	private void append(Object key, GenericEntity entity) {
+		if (arraySize == entities.length) {
+			int capacity = Math.max(16, arraySize + (arraySize >> 1));
+
+			entities = Arrays.copyOf(entities, capacity);
+			if (longKeys != null)
+				longKeys = Arrays.copyOf(longKeys, capacity);
+			else
+				objectKeys = Arrays.copyOf(objectKeys, capacity);
+		}
+
+		setKey(longKeys, objectKeys, arraySize, key);
+		entities[arraySize++] = entity;
+	}
+
+	@Override
+	public boolean remove(Object key, GenericEntity entity) {
+		if (key == null) {
+			int oldSize = EntitySlots.size(nullSlot);
+			nullSlot = EntitySlots.remove(nullSlot, entity);
+			if (EntitySlots.size(nullSlot) == oldSize)
+				return false;
+
+			size--;
+			return true;
+		}
+
+		if (!overflow.isEmpty() && removeFromOverflow(key, entity))
+			return true;
+
+		int i = arrayIndexOf(key, entity);
+		if (i < 0 || removed.get(i))
+			return false;
+
+		removed.set(i);
+		removedCount++;
+		size--;
+
+		if (removedCount >= MIN_OVERFLOW_LIMIT && removedCount > arraySize >> 2)
+			merge();
+
+		return true;
+	}
+
+	private boolean removeFromOverflow(Object key, GenericEntity entity) {
+		Object slot = overflow.get(key);
+		int oldSize = EntitySlots.size(slot);
+		Object newSlot = EntitySlots.remove(slot, entity);
+		if (EntitySlots.size(newSlot) == oldSize)
+			return false;
+
+		if (newSlot == null)
+			overflow.remove(key);
+		else
+			overflow.put(key, newSlot);
+
+		overflowSize--;
+		size--;
+		return true;
+	}
+
+	/** Merges the overflow into the arrays, dropping the removed entries at the same time. */
+	private void merge() {
+		int newSize = arraySize - removedCount + overflowSize;
+
+		long[] newLongKeys = longKeys != null ? new long[newSize] : null;
+		Object[] newObjectKeys = objectKeys != null ? new Object[newSize] : null;
+		GenericEntity[] newEntities = new GenericEntity[newSize];
+
+		int n = 0;
+		int i = 0;
+		for (Entry<Object, Object> e : overflow.entrySet()) {
+			Object key = e.getKey();
+
+			for (Iterator<GenericEntity> it = EntitySlots.iterator(e.getValue(), false); it.hasNext();) {
+				GenericEntity entity = it.next();
+
+				for (; i < arraySize && isBefore(i, key, entity); i++)
+					if (!removed.get(i))
+						copyEntry(i, newLongKeys, newObjectKeys, newEntities, n++);
+
+				setKey(newLongKeys, newObjectKeys, n, key);
+				newEntities[n++] = entity;
+			}
+		}
+
+		for (; i < arraySize; i++)
+			if (!removed.get(i))
+				copyEntry(i, newLongKeys, newObjectKeys, newEntities, n++);
+
+		longKeys = newLongKeys;
+		objectKeys = newObjectKeys;
+		entities = newEntities;
+		removed = new BitSet();
+		arraySize = n;
+		removedCount = 0;
+
+		overflow.clear();
+		overflowSize = 0;
+	}
+
+	private boolean isBefore(int i, Object key, GenericEntity entity) {
+		int cmp = compareKeyAt(i, key);
+		return cmp < 0 || (cmp == 0 && EntityComparator.INSTANCE.compare(entities[i], entity) < 0);
+	}
+
+	private void copyEntry(int i, long[] newLongKeys, Object[] newObjectKeys, GenericEntity[] newEntities, int n) {
+		if (newLongKeys != null)
+			newLongKeys[n] = longKeys[i];
+		else
+			newObjectKeys[n] = objectKeys[i];
+
+		newEntities[n] = entities[i];
+	}
+
+	private static void setKey(long[] longKeys, Object[] objectKeys, int i, Object key) {
+		if (longKeys != null)
+			longKeys[i] = toLong(key);
+		else
+			objectKeys[i] = key;
+	}
+
+	// ###################################################
+	// ## . . . . . . . . . . Reading . . . . . . . . . ##
+	// ###################################################
+
+	@Override
+	public GenericEntity get(Object key) {
+		if (key == null)
+			return EntitySlots.first(nullSlot);
+
+		GenericEntity result = null;
+		for (int i = bound(key, false); i < arraySize && compareKeyAt(i, key) == 0; i++) {
+			if (!removed.get(i)) {
+				result = entities[i];
+				break;
+			}
+		}
+
+		if (!overflow.isEmpty()) {
+			GenericEntity overflowEntity = EntitySlots.first(overflow.get(key));
+			if (overflowEntity != null && (result == null || EntityComparator.INSTANCE.compare(overflowEntity, result) < 0))
+				result = overflowEntity;
+		}
+
+		return result;
+	}
+
+	@Override
+	public Collection<GenericEntity> getAll(Object key) {
+		if (key == null)
+			return EntitySlots.asList(nullSlot);
+
+		List<GenericEntity> result = newList();
+		for (int i = bound(key, false); i < arraySize && compareKeyAt(i, key) == 0; i++)
+			if (!removed.get(i))
+				result.add(entities[i]);
+
+		if (!overflow.isEmpty()) {
+			Object slot = overflow.get(key);
+			if (slot != null) {
+				boolean needsSorting = !result.isEmpty();
+				EntitySlots.addTo(slot, result);
+				if (needsSorting)
+					result.sort(EntityComparator.INSTANCE);
+			}
+		}
+
+		return result;
+	}
+
+	@Override
+	public Collection<GenericEntity> values() {
+		return new AbstractCollection<GenericEntity>() {
+			@Override
+			public Iterator<GenericEntity> iterator() {
+				return new Cursor(0, arraySize, overflow, nullSlot, false);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * Returns the entries within given range, with the same semantics as {@link SmoodMetricIndex#getThisLevelRange(Object, Boolean, Object, Boolean)},
+	 * i.e. <tt>null</tt> inclusive flag means the range is not bounded from that side.
+	 */
+	public IndexRange range(Object from, Boolean fromInclusive, Object to, Boolean toInclusive, boolean reverse) {
+		if (fromInclusive != null && toInclusive != null && keyComparator.compare(from, to) > 0)
+			return new SortedRange(0, 0, null, null, reverse);
+
+		int lo = fromInclusive == null ? 0 : bound(from, !fromInclusive);
+		int hi = toInclusive == null ? arraySize : bound(to, toInclusive);
+
+		NavigableMap<Object, Object> overflowRange = overflow.isEmpty() ? null : overflowRange(from, fromInclusive, to, toInclusive);
+		if (overflowRange != null && reverse)
+			overflowRange = overflowRange.descendingMap();
+
+		Object nulls = nullsInRange && fromInclusive == null ? nullSlot : null;
+
+		return new SortedRange(lo, hi, overflowRange, nulls, reverse);
+	}
+
+	private NavigableMap<Object, Object> overflowRange(Object from, Boolean fromInclusive, Object to, Boolean toInclusive) {
+		if (fromInclusive == null) {
+			if (toInclusive == null)
+				return overflow;
+			else
+				return overflow.headMap(to, toInclusive);
+
+		} else if (toInclusive == null) {
+			return overflow.tailMap(from, fromInclusive);
+
+		} else {
+			return overflow.subMap(from, fromInclusive, to, toInclusive);
+		}
+	}
+
+	/** Returns the index of the first array entry whose key is greater than (if <tt>upper</tt>) or greater or equal to (otherwise) given key. */
+	private int bound(Object key, boolean upper) {
+		int lo = 0;
+		int hi = arraySize;
+
+		if (longKeys != null) {
+			long k = toLong(key);
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				long midKey = longKeys[mid];
+				if (midKey < k || (upper && midKey == k))
+					lo = mid + 1;
+				else
+					hi = mid;
+			}
+
+		} else {
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				int cmp = keyComparator.compare(objectKeys[mid], key);
+				if (cmp < 0 || (upper && cmp == 0))
+					lo = mid + 1;
+				else
+					hi = mid;
+			}
+		}
+
+		return lo;
+	}
+
+	/** Returns the array index of given entry (even if it is marked as removed), or -1 if it is not in the arrays. */
+	private int arrayIndexOf(Object key, GenericEntity entity) {
+		int lo = bound(key, false);
+		int hi = bound(key, true);
+
+		int i = Arrays.binarySearch(entities, lo, hi, entity, EntityComparator.INSTANCE);
+		return i >= 0 && entities[i] == entity ? i : -1;
+	}
+
+	private int compareKeyAt(int i, Object key) {
+		if (longKeys != null)
+			return Long.compare(longKeys[i], toLong(key));
+		else
+			return keyComparator.compare(objectKeys[i], key);
+	}
+
+	private static long toLong(Object key) {
+		return ((Number) key).longValue();
+	}
+
+	private Object box(long key) {
+		return primitiveKeyClass == Integer.class ? (Object) Integer.valueOf((int) key) : (Object) Long.valueOf(key);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void forEachEntry(BiConsumer<Object, GenericEntity> consumer) {
+		EntitySlots.forEach(nullSlot, null, consumer);
+
+		for (int i = 0; i < arraySize; i++)
+			if (!removed.get(i))
+				consumer.accept(longKeys != null ? box(longKeys[i]) : objectKeys[i], entities[i]);
+
+		overflow.forEach((key, slot) -> EntitySlots.forEach(slot, key, consumer));
+	}
+
+	@Override
+	public long estimateFootprint() {
+		long result = 64 + (longKeys != null ? 8L * longKeys.length : 4L * objectKeys.length) + 4L * entities.length + removed.size() / 8;
+
+		result += 40L * overflow.size();
+		for (Object slot : overflow.values())
+			result += EntitySlots.footprint(slot);
+
+		return result + EntitySlots.footprint(nullSlot);
+	}
+
+	// ###################################################
+	// ## . . . . . . . . . . Ranges . . . . . . . . . .##
+	// ###################################################
+
+	private class SortedRange implements IndexRange {
+		private final int lo;
+		private final int hi;
+		private final NavigableMap<Object, Object> overflowRange;
+		private final Object nulls;
+		private final boolean reverse;
+
+		SortedRange(int lo, int hi, NavigableMap<Object, Object> overflowRange, Object nulls, boolean reverse) {
+			this.lo = lo;
+			this.hi = hi;
+			this.overflowRange = overflowRange;
+			this.nulls = nulls;
+			this.reverse = reverse;
+		}
+
+		private Cursor newCursor() {
+			return new Cursor(lo, hi, overflowRange, nulls, reverse);
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return !newCursor().hasNext();
+		}
+
+		@Override
+		public Collection<GenericEntity> values() {
+			return new AbstractCollection<GenericEntity>() {
+				@Override
+				public Iterator<GenericEntity> iterator() {
+					return newCursor();
+				}
+
+				@Override
+				public int size() {
+					int result = 0;
+					for (Cursor c = newCursor(); c.hasNext(); c.next())
+						result++;
+
+					return result;
+				}
+			};
+		}
+
+		@Override
+		public Iterator<Entry<Object, GenericEntity>> entryIterator() {
+			Cursor cursor = newCursor();
+
+			return new Iterator<Entry<Object, GenericEntity>>() {
+				@Override
+				public boolean hasNext() {
+					return cursor.hasNext();
+				}
+
+				@Override
+				public Entry<Object, GenericEntity> next() {
+					GenericEntity entity = cursor.next();
+					return new SimpleImmutableEntry<>(cursor.lastKey, entity);
+				}
+			};
+		}
+	}
+
+	/**
+	 * Iterates over the entities of a range, merging the array part with the overflow part. The <tt>null</tt>-key entities (if given) come first,
+	 * or last in reverse order.
+	 */
+	private class Cursor implements Iterator<GenericEntity> {
+		private final long[] longKeys = SortedEntityStore.this.longKeys;
+		private final Object[] objectKeys = SortedEntityStore.this.objectKeys;
+		private final GenericEntity[] entities = SortedEntityStore.this.entities;
+		private final BitSet removed = SortedEntityStore.this.removed;
+
+		private final int lo;
+		private final int hi;
+		private final boolean reverse;
+
+		/** Iterator of the null-key entities, which are returned before (or after, if reverse) all the others. */
+		private final Iterator<GenericEntity> nullsIt;
+
+		private int arrayIndex;
+
+		private final Iterator<Entry<Object, Object>> overflowIt;
+		private Object overflowKey;
+		private Iterator<GenericEntity> overflowSlotIt;
+		private GenericEntity overflowEntity;
+
+		Object lastKey;
+
+		Cursor(int lo, int hi, NavigableMap<Object, Object> overflowRange, Object nulls, boolean reverse) {
+			this.lo = lo;
+			this.hi = hi;
+			this.reverse = reverse;
+
+			this.nullsIt = EntitySlots.iterator(nulls, reverse);
+
+			this.arrayIndex = reverse ? hi - 1 : lo;
+			skipRemoved();
+
+			this.overflowIt = overflowRange == null ? Collections.emptyIterator() : overflowRange.entrySet().iterator();
+			this.overflowSlotIt = Collections.emptyIterator();
+			nextOverflowEntity();
+		}
+
+		private void skipRemoved() {
+			if (reverse)
+				while (arrayIndex >= lo && removed.get(arrayIndex))
+					arrayIndex--;
+			else
+				while (arrayIndex < hi && removed.get(arrayIndex))
+					arrayIndex++;
+		}
+
+		private boolean hasArrayEntry() {
+			return reverse ? arrayIndex >= lo : arrayIndex < hi;
+		}
+
+		private void nextOverflowEntity() {
+			while (!overflowSlotIt.hasNext()) {
+				if (!overflowIt.hasNext()) {
+					overflowKey = null;
+					overflowEntity = null;
+					return;
+				}
+
+				Entry<Object, Object> e = overflowIt.next();
+				overflowKey = e.getKey();
+				overflowSlotIt = EntitySlots.iterator(e.getValue(), reverse);
+			}
+
+			overflowEntity = overflowSlotIt.next();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return hasArrayEntry() || overflowEntity != null || nullsIt.hasNext();
+		}
+
+		@Override
+		public GenericEntity next() {
+			if (!reverse && nullsIt.hasNext())
+				return nextNull();
+
+			boolean hasArrayEntry = hasArrayEntry();
+			if (hasArrayEntry || overflowEntity != null) {
+				if (!hasArrayEntry || (overflowEntity != null && !arrayEntryGoesFirst()))
+					return nextOverflowEntry();
+				else
+					return nextArrayEntry();
+			}
+
+			if (nullsIt.hasNext())
+				return nextNull();
+
+			throw new NoSuchElementException();
+		}
+
+		private boolean arrayEntryGoesFirst() {
+			int cmp = longKeys != null ? Long.compare(longKeys[arrayIndex], toLong(overflowKey))
+					: keyComparator.compare(objectKeys[arrayIndex], overflowKey);
+			if (cmp == 0)
+				cmp = EntityComparator.INSTANCE.compare(entities[arrayIndex], overflowEntity);
+
+			return reverse ? cmp > 0 : cmp < 0;
+		}
+
+		private GenericEntity nextNull() {
+			lastKey = null;
+			return nullsIt.next();
+		}
+
+		private GenericEntity nextArrayEntry() {
+			lastKey = longKeys != null ? box(longKeys[arrayIndex]) : objectKeys[arrayIndex];
+			GenericEntity result = entities[arrayIndex];
+
+			arrayIndex += reverse ? -1 : 1;
+			skipRemoved();
+
+			return result;
+		}
+
+		private GenericEntity nextOverflowEntry() {
+			lastKey = overflowKey;
+			GenericEntity result = overflowEntity;
+
+			nextOverflowEntity();
+
+			return result;
+		}
+	}
+
+}
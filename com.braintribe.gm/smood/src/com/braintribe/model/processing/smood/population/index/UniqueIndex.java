@@ -18,6 +18,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 import com.braintribe.model.generic.GenericEntity;
 import com.braintribe.model.generic.reflection.VdHolder;
@@ -41,7 +42,8 @@ abstract class UniqueIndex extends SmoodIndex {
 	@Override
 	public void addEntity(GenericEntity entity, Object value) {
 		if (value == null) {
-			nullValueEntities.add(entity);
+			if (nullValueEntities.add(entity))
+				onEntryAdded(null, entity);
 			return;
 		}
 
@@ -52,7 +54,17 @@ abstract class UniqueIndex extends SmoodIndex {
 						+ value + "'. ADDED ENTITY: " + entity + ", INDEXED ENTITY: " + otherEntity);
 		}
 
-		map.put(value, entity);
+		put(value, entity);
+	}
+
+	private void put(Object value, GenericEntity entity) {
+		GenericEntity previous = map.put(value, entity);
+		if (previous == entity)
+			return;
+
+		if (previous != null)
+			onEntryRemoved(value, previous);
+		onEntryAdded(value, entity);
 	}
 
 	@Override
@@ -73,7 +85,7 @@ abstract class UniqueIndex extends SmoodIndex {
 		GenericEntity removedEntity = actualRemove(value, entity);
 		if (removedEntity != entity) {
 			// this can only happen if value != null, so we do not have to handle that case
-			map.put(value, removedEntity);
+			put(value, removedEntity);
 			throw new IllegalStateException("Different entity found in index (" + indexInfo.getIndexId() + ") for key '" + value + "', EXPECTED: "
 					+ entity + ", FOUND : " + removedEntity);
 		}
@@ -81,14 +93,18 @@ abstract class UniqueIndex extends SmoodIndex {
 
 	private GenericEntity actualRemove(Object key, GenericEntity entity) {
 		if (key == null) {
-			nullValueEntities.remove(entity);
+			if (nullValueEntities.remove(entity))
+				onEntryRemoved(null, entity);
 			return entity;
 
 		} else if (VdHolder.isVdHolder(key)) {
 			return entity;
 
 		} else {
-			return map.remove(key);
+			GenericEntity removedEntity = map.remove(key);
+			if (removedEntity != null)
+				onEntryRemoved(key, removedEntity);
+			return removedEntity;
 		}
 	}
 
@@ -125,6 +141,25 @@ abstract class UniqueIndex extends SmoodIndex {
 		return result;
 	}
 
+	@Override
+	protected void forEachThisLevelEntry(BiConsumer<Object, GenericEntity> consumer) {
+		for (GenericEntity entity : nullValueEntities)
+			consumer.accept(null, entity);
+
+		map.forEach(consumer);
+	}
+
+	@Override
+	public int thisLevelSize() {
+		return map.size() + nullValueEntities.size();
+	}
+
+	/** Both HashMap and TreeMap nodes take ~40 bytes per entry, same as the HashSet of null-value entities. */
+	@Override
+	public long estimateThisLevelFootprint() {
+		return 40L * thisLevelSize();
+	}
+
 	@Override
 	public IndexInfoImpl getIndexInfo() {
 		return indexInfo;
@@ -13,6 +13,9 @@ package com.braintribe.model.processing.smood.population.index;
 
 import static com.braintribe.utils.lcd.CollectionTools2.newMap;
 
+import com.braintribe.model.processing.smood.tools.PersistentHashMap;
+import com.braintribe.model.processing.smood.tools.PersistentMap;
+
 /**
  * 
  */
@@ -22,4 +25,14 @@ public class UniqueLookupIndex extends UniqueIndex {
 		super(newMap());
 	}
 
+	@Override
+	protected PersistentMap newSnapshotKeys() {
+		return new PersistentHashMap();
+	}
+
+	@Override
+	protected SmoodIndex newSnapshotLevel(SnapshotIndex.Content content) {
+		return new SnapshotIndex(indexInfo, content);
+	}
+
 }
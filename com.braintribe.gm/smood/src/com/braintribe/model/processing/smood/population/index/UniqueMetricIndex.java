@@ -19,6 +19,8 @@ import java.util.TreeMap;
 
 import com.braintribe.model.generic.GenericEntity;
 import com.braintribe.model.generic.reflection.GenericModelType;
+import com.braintribe.model.processing.smood.tools.PersistentMap;
+import com.braintribe.model.processing.smood.tools.PersistentTree;
 
 /**
  * 
@@ -39,14 +41,29 @@ public class UniqueMetricIndex extends UniqueIndex implements SmoodMetricIndex {
 		this.navigableMap = (NavigableMap<Object, GenericEntity>) map;
 	}
 
+	@Override
+	protected PersistentMap newSnapshotKeys() {
+		return new PersistentTree(keyComparator);
+	}
+
+	@Override
+	protected SmoodIndex newSnapshotLevel(SnapshotIndex.Content content) {
+		return new SnapshotMetricIndex(indexInfo, content, keyComparator, false);
+	}
+
 	@Override
 	public Comparator<Object> getKeyComparator() {
 		return keyComparator;
 	}
 
 	@Override
-	public NavigableMap<Object, GenericEntity> getNavigableMap() {
-		return navigableMap;
+	public IndexRange getThisLevelRange(Object from, Boolean fromInclusive, Object to, Boolean toInclusive) {
+		return SmoodMetricIndex.navigableMapRange(navigableMap, from, fromInclusive, to, toInclusive);
+	}
+
+	@Override
+	public IndexRange getThisLevelFullRange(boolean reverseOrder) {
+		return SmoodMetricIndex.navigableMapFullRange(navigableMap, reverseOrder);
 	}
 
 }
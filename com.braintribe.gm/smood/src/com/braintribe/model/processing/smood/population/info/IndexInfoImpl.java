@@ -11,6 +11,8 @@
 // ============================================================================
 package com.braintribe.model.processing.smood.population.info;
 
+import java.util.function.LongSupplier;
+
 import com.braintribe.model.processing.query.eval.api.repo.IndexInfo;
 
 /**
@@ -22,6 +24,7 @@ public class IndexInfoImpl implements IndexInfo {
 	private boolean hasMetric;
 	private String entitySignature;
 	private String propertyName;
+	private LongSupplier footprintEstimator;
 
 	public void setIndexId(String indexId) {
 		this.indexId = indexId;
@@ -59,4 +62,13 @@ public class IndexInfoImpl implements IndexInfo {
 		return propertyName;
 	}
 
+	public void setFootprintEstimator(LongSupplier footprintEstimator) {
+		this.footprintEstimator = footprintEstimator;
+	}
+
+	/** Returns a rough estimate of how much memory (in bytes) the entries of the index occupy, or -1 if not known. */
+	public long getEstimatedFootprint() {
+		return footprintEstimator == null ? -1 : footprintEstimator.getAsLong();
+	}
+
 }
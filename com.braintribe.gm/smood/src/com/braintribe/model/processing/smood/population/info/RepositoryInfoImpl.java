@@ -29,6 +29,15 @@ public class RepositoryInfoImpl implements RepositoryInfo {
 	public Set<IndexInfo> getIndexInfos() {
 		return indexInfos;
 	}
-	
-	
+
+	/** Returns a rough estimate of how much memory (in bytes) all the indices occupy, i.e. the sum of the known footprints of all indices. */
+	public long getEstimatedFootprint() {
+		long result = 0;
+		for (IndexInfo indexInfo : indexInfos)
+			if (indexInfo instanceof IndexInfoImpl)
+				result += Math.max(0, ((IndexInfoImpl) indexInfo).getEstimatedFootprint());
+
+		return result;
+	}
+
 }
@@ -0,0 +1,211 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.snapshot;
+
+import static com.braintribe.utils.lcd.CollectionTools2.newSet;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.braintribe.model.generic.GMF;
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.generic.reflection.EntityType;
+import com.braintribe.model.generic.value.EntityReference;
+import com.braintribe.model.generic.value.EntityReferenceType;
+import com.braintribe.model.processing.query.eval.api.repo.IndexInfo;
+import com.braintribe.model.processing.query.eval.api.repo.ReflectiveIndexingRepository;
+import com.braintribe.model.processing.query.eval.api.repo.RepositoryInfo;
+import com.braintribe.model.processing.query.planner.QueryPlanner;
+import com.braintribe.model.processing.query.planner.cache.QueryPlanCache;
+import com.braintribe.model.processing.smood.Smood;
+import com.braintribe.model.processing.smood.population.PopulationManager;
+
+/**
+ * One version of the {@link Smood} data, used by the snapshot read mode (see {@link Smood#setUseSnapshotReads(boolean)}).
+ * <p>
+ * The snapshot consists of a {@link PopulationManager#r_snapshot() copy of the population manager} (i.e. copies of all the indices) and a
+ * {@link SnapshotReferences.Version version} of the entity-by-reference mapping, so it is never affected by a manipulation applied on the smood after
+ * this snapshot was created. These copies are persistent data structures, which share most of their nodes with the snapshots of the neighboring
+ * versions. The entities
+ * themselves are shared with the smood though, so property values (and thus also conditions evaluated on them) always reflect the current state.
+ * <p>
+ * All the methods of this class are thread-safe without any locking.
+ */
+public class SmoodSnapshot implements ReflectiveIndexingRepository {
+
+	/** Rough estimate of a single entry in the entity-by-reference mapping (tree node, bucket array and the reference's key wrapper). */
+	private static final long REFERENCE_ENTRY_BYTES = 80;
+
+	private final long version;
+	private final PopulationManager populationManager;
+	private final SnapshotReferences.Version entityByReference;
+	private final String defaultPartition;
+	private final QueryPlanner queryPlanner;
+	private final long estimatedFootprint;
+
+	/** Number of readers currently using this snapshot, or -1 once it is retired, i.e. superseded and not used by anybody anymore. */
+	private final AtomicInteger readers = new AtomicInteger();
+	private volatile boolean superseded;
+
+	/**
+	 * @param populationManager
+	 *            a {@link PopulationManager#r_snapshot() snapshot} of the smood's population manager
+	 * @param entityByReference
+	 *            a version of the smood's entity-by-reference mapping
+	 * @param queryPlanCache
+	 *            the smood's query plan cache (may be <tt>null</tt>), which is only used for plans built for the current index configuration
+	 */
+	public SmoodSnapshot(long version, PopulationManager populationManager, SnapshotReferences.Version entityByReference,
+			String defaultPartition, boolean ignorePartitions, QueryPlanCache queryPlanCache) {
+
+		this.version = version;
+		this.populationManager = populationManager;
+		this.entityByReference = entityByReference;
+		this.defaultPartition = defaultPartition;
+		this.queryPlanner = new QueryPlanner(this);
+		this.queryPlanner.ignorePartitions(ignorePartitions);
+		if (queryPlanCache != null)
+			this.queryPlanner.setPlanCache(queryPlanCache, queryPlanCache.configurationVersion());
+		this.estimatedFootprint = populationManager.r_estimateIndexFootprint() + REFERENCE_ENTRY_BYTES * entityByReference.size();
+	}
+
+	/** Registers a new reader, unless this snapshot is already retired, in which case <tt>false</tt> is returned. */
+	/* package */ boolean tryRetain() {
+		for (;;) {
+			int r = readers.get();
+			if (r < 0)
+				return false;
+
+			if (readers.compareAndSet(r, r + 1))
+				return true;
+		}
+	}
+
+	/** Unregisters a reader, and returns <tt>true</tt> iff this snapshot got retired by this call. */
+	/* package */ boolean release() {
+		return readers.decrementAndGet() == 0 && superseded && retire();
+	}
+
+	/** Marks this snapshot as superseded by a newer one, and returns <tt>true</tt> iff it got retired by this call, as it has no readers. */
+	/* package */ boolean supersede() {
+		// must be set before the attempt to retire, so that a reader which releases this snapshot afterwards retires it
+		superseded = true;
+		return retire();
+	}
+
+	private boolean retire() {
+		return readers.compareAndSet(0, -1);
+	}
+
+	public long version() {
+		return version;
+	}
+
+	/** {@link QueryPlanner} which uses this snapshot as its repository, so planning also does not need any lock. */
+	public QueryPlanner queryPlanner() {
+		return queryPlanner;
+	}
+
+	/**
+	 * Returns a rough estimate of how much memory (in bytes) is retained by this snapshot, not counting the (shared) entities. Note that the
+	 * snapshots of neighboring versions share most of this memory.
+	 */
+	public long estimatedFootprint() {
+		return estimatedFootprint;
+	}
+
+	public <T extends GenericEntity> Collection<T> getEntitiesPerType(EntityType<T> entityType) {
+		Collection<T> result = populationManager.getEntirePopulation(entityType);
+		return result != null ? result : Collections.<T> emptySet();
+	}
+
+	public <T extends GenericEntity> T findEntity(EntityType<T> entityType, Object id) {
+		if (id == null)
+			return null;
+
+		return populationManager.getIdIndex(entityType).getValue(id);
+	}
+
+	public <T extends GenericEntity> T findEntity(EntityReference reference) {
+		if (reference.referenceType() == EntityReferenceType.global)
+			return findEntityByGlobalId(reference.getTypeSignature(), (String) reference.getRefId());
+		else
+			return (T) entityByReference.get(reference);
+	}
+
+	public <T extends GenericEntity> T findEntityByGlobalId(String typeSignature, String globalId) {
+		return populationManager.acquireGlobalIdIndex(typeSignature).getValue(globalId);
+	}
+
+	// ###########################################################################################
+	// ## . . . . . . . . . . . . . . Indexing Repository . . . . . . . . . . . . . . . . . . . ##
+	// ###########################################################################################
+
+	@Override
+	public Collection<? extends GenericEntity> providePopulation(String typeSignature) {
+		EntityType<?> et = GMF.getTypeReflection().getEntityType(typeSignature);
+		return getEntitiesPerType(et);
+	}
+
+	@Override
+	public GenericEntity resolveReference(EntityReference reference) {
+		return findEntity(reference);
+	}
+
+	@Override
+	public String defaultPartition() {
+		return defaultPartition;
+	}
+
+	@Override
+	public GenericEntity getValueForIndex(String indexId, Object indexValue) {
+		return populationManager.getLookupIndex(indexId).getValue(indexValue);
+	}
+
+	@Override
+	public Collection<? extends GenericEntity> getAllValuesForIndex(String indexId, Object indexValue) {
+		return populationManager.getLookupIndex(indexId).getValues(indexValue);
+	}
+
+	@Override
+	public Set<? extends GenericEntity> getAllValuesForIndices(String indexId, Collection<?> indexValues) {
+		Set<GenericEntity> result = newSet();
+
+		for (Object value : indexValues)
+			result.addAll(getAllValuesForIndex(indexId, value));
+
+		return result;
+	}
+
+	@Override
+	public Collection<? extends GenericEntity> getIndexRange(String indexId, Object from, Boolean fromInclusive, Object to, Boolean toInclusive) {
+		return populationManager.getMetricIndex(indexId).getRange(from, fromInclusive, to, toInclusive);
+	}
+
+	@Override
+	public Collection<? extends GenericEntity> getFullRange(String indexId, boolean reverseOrder) {
+		return populationManager.getMetricIndex(indexId).getFullRange(reverseOrder);
+	}
+
+	@Override
+	public IndexInfo provideIndexInfo(String typeSignature, String propertyName) {
+		return populationManager.provideIndexInfo(typeSignature, propertyName);
+	}
+
+	@Override
+	public RepositoryInfo provideRepositoryInfo() {
+		return populationManager.repositoryInfo;
+	}
+
+}
@@ -0,0 +1,79 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.snapshot;
+
+/**
+ * Statistics of the snapshot read mode of a single smood, see {@link SmoodSnapshots#statistics()}.
+ */
+public class SmoodSnapshotStatistics {
+
+	private final long currentVersion;
+	private final long publishedVersion;
+	private final int retainedVersions;
+	private final long retainedBytes;
+	private final long snapshotsCreated;
+	private final long snapshotReads;
+	private final long staleReads;
+
+	public SmoodSnapshotStatistics(long currentVersion, long publishedVersion, int retainedVersions, long retainedBytes, long snapshotsCreated,
+			long snapshotReads, long staleReads) {
+
+		this.currentVersion = currentVersion;
+		this.publishedVersion = publishedVersion;
+		this.retainedVersions = retainedVersions;
+		this.retainedBytes = retainedBytes;
+		this.snapshotsCreated = snapshotsCreated;
+		this.snapshotReads = snapshotReads;
+		this.staleReads = staleReads;
+	}
+
+	/** Version of the smood data, incremented with every completed write. */
+	public long getCurrentVersion() {
+		return currentVersion;
+	}
+
+	/** Version of the latest published snapshot, or -1 if no snapshot was created yet. */
+	public long getPublishedVersion() {
+		return publishedVersion;
+	}
+
+	/** Number of snapshots currently held in memory, i.e. the latest one and all older ones which are still being read. */
+	public int getRetainedVersions() {
+		return retainedVersions;
+	}
+
+	/** Rough estimate of the memory retained by all the {@link #getRetainedVersions() retained versions}, not counting the (shared) entities. */
+	public long getRetainedBytes() {
+		return retainedBytes;
+	}
+
+	public long getSnapshotsCreated() {
+		return snapshotsCreated;
+	}
+
+	public long getSnapshotReads() {
+		return snapshotReads;
+	}
+
+	/** Number of reads served from an older snapshot, because a write was in progress at the time. */
+	public long getStaleReads() {
+		return staleReads;
+	}
+
+	@Override
+	public String toString() {
+		return "SmoodSnapshotStatistics[currentVersion=" + currentVersion + ", publishedVersion=" + publishedVersion + ", retainedVersions="
+				+ retainedVersions + ", retainedBytes=" + retainedBytes + ", snapshotsCreated=" + snapshotsCreated + ", snapshotReads="
+				+ snapshotReads + ", staleReads=" + staleReads + "]";
+	}
+
+}
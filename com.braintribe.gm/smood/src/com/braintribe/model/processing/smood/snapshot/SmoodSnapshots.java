@@ -0,0 +1,212 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.snapshot;
+
+import static com.braintribe.utils.lcd.CollectionTools2.newConcurrentSet;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+import com.braintribe.model.processing.smood.Smood;
+
+/**
+ * Manages the {@link SmoodSnapshot versions} of a single {@link Smood} in snapshot read mode.
+ * <p>
+ * Every modification of the smood data increments the version counter (see {@link #w_onModified()}), no matter how the writer acquired the
+ * write-lock, i.e. it also covers code which locks the smood's {@link ReadWriteLock} directly. The snapshot itself is created lazily, by the first
+ * reader which sees the version has changed, and which manages to acquire the read-lock, i.e. only once the write is complete. While a writer holds
+ * the lock, readers do not wait but use the latest snapshot instead, and no read holds any lock while evaluating, so long reads do not block writers
+ * either.
+ * <p>
+ * This requires a {@link ReentrantReadWriteLock}, so that a thread which is writing can be recognized (see {@link #isWritingThread()}).
+ */
+public class SmoodSnapshots {
+
+	private final LongFunction<SmoodSnapshot> snapshotFactory;
+
+	private final AtomicLong version = new AtomicLong();
+	/** Version of the last modification done by current thread, so that a thread never reads a snapshot older than its own changes. */
+	private final ThreadLocal<Long> lastWrittenVersion = ThreadLocal.withInitial(() -> 0L);
+	private final ReentrantLock snapshotCreationLock = new ReentrantLock();
+	private final Set<SmoodSnapshot> retainedSnapshots = newConcurrentSet();
+
+	private final LongAdder snapshotsCreated = new LongAdder();
+	private final LongAdder snapshotReads = new LongAdder();
+	private final LongAdder staleReads = new LongAdder();
+
+	private volatile SmoodSnapshot currentSnapshot;
+	private ReentrantReadWriteLock rwLock;
+	private Lock readLock;
+
+	/**
+	 * @param snapshotFactory
+	 *            creates a snapshot of the current smood state with given version. It is always invoked with the smood's read-lock held.
+	 */
+	public SmoodSnapshots(LongFunction<SmoodSnapshot> snapshotFactory) {
+		this.snapshotFactory = snapshotFactory;
+	}
+
+	/**
+	 * Sets the lock of the smood, which must be a {@link ReentrantReadWriteLock}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if given lock is not a {@link ReentrantReadWriteLock}
+	 */
+	public void setLock(ReadWriteLock rwLock) {
+		if (!(rwLock instanceof ReentrantReadWriteLock))
+			throw new IllegalArgumentException("Snapshot reads require a ReentrantReadWriteLock, but the smood lock is: " + rwLock);
+
+		this.rwLock = (ReentrantReadWriteLock) rwLock;
+		this.readLock = rwLock.readLock();
+	}
+
+	/**
+	 * Returns <tt>true</tt> iff current thread is holding the write-lock, no matter whether it acquired it via the smood or directly. Such a thread
+	 * must not read from a snapshot, as it would not see its own changes, but read directly from the smood instead.
+	 */
+	public boolean isWritingThread() {
+		return rwLock.isWriteLockedByCurrentThread();
+	}
+
+	/**
+	 * Must be called on every modification of the data the snapshots are created from, i.e. the population, the indices and the entity references.
+	 * The new version becomes visible to the readers once the writer releases the write-lock, as only then a reader can create the snapshot.
+	 */
+	public void w_onModified() {
+		lastWrittenVersion.set(version.incrementAndGet());
+	}
+
+	/** Evaluates given reading function on the current snapshot, creating it first if needed. */
+	public <R> R read(Function<SmoodSnapshot, R> reader) {
+		SmoodSnapshot snapshot = acquireSnapshot();
+		try {
+			return reader.apply(snapshot);
+
+		} finally {
+			releaseSnapshot(snapshot);
+		}
+	}
+
+	private SmoodSnapshot acquireSnapshot() {
+		for (;;) {
+			SmoodSnapshot snapshot = currentSnapshot;
+			if (snapshot != null && snapshot.version() == version.get()) {
+				if (snapshot.tryRetain())
+					return counted(snapshot, false);
+
+				// superseded in the meantime, try again
+				continue;
+			}
+
+			if (!readLock.tryLock()) {
+				// a writer is active - rather than waiting for it to finish, we read the latest published version
+				snapshot = currentSnapshot;
+				if (snapshot != null && snapshot.version() >= lastWrittenVersion.get()) {
+					if (snapshot.tryRetain())
+						return counted(snapshot, true);
+
+					continue;
+				}
+
+				readLock.lock();
+			}
+
+			try {
+				snapshot = r_ensureCurrentSnapshot();
+				// the current snapshot cannot be superseded (and thus retired) while we hold the read-lock
+				if (!snapshot.tryRetain())
+					throw new IllegalStateException("Snapshot of the current version " + snapshot.version() + " is already retired.");
+
+				return counted(snapshot, false);
+
+			} finally {
+				readLock.unlock();
+			}
+		}
+	}
+
+	/** Counts a successfully acquired snapshot, i.e. every read is counted exactly once, no matter how many attempts it took. */
+	private SmoodSnapshot counted(SmoodSnapshot snapshot, boolean stale) {
+		snapshotReads.increment();
+		if (stale)
+			staleReads.increment();
+
+		return snapshot;
+	}
+
+	private SmoodSnapshot r_ensureCurrentSnapshot() {
+		// Only one reader creates the snapshot, the others wait for it (which is cheaper than every one of them creating one)
+		snapshotCreationLock.lock();
+		try {
+			SmoodSnapshot snapshot = currentSnapshot;
+
+			// version cannot change while we hold the read-lock
+			long currentVersion = version.get();
+			if (snapshot != null && snapshot.version() == currentVersion)
+				return snapshot;
+
+			snapshot = snapshotFactory.apply(currentVersion);
+			snapshotsCreated.increment();
+
+			publish(snapshot);
+
+			return snapshot;
+
+		} finally {
+			snapshotCreationLock.unlock();
+		}
+	}
+
+	private void publish(SmoodSnapshot snapshot) {
+		SmoodSnapshot previous = currentSnapshot;
+
+		retainedSnapshots.add(snapshot);
+		currentSnapshot = snapshot;
+
+		if (previous != null && previous.supersede())
+			retainedSnapshots.remove(previous);
+	}
+
+	private void releaseSnapshot(SmoodSnapshot snapshot) {
+		if (snapshot.release())
+			retainedSnapshots.remove(snapshot);
+	}
+
+	public SmoodSnapshotStatistics statistics() {
+		SmoodSnapshot snapshot = currentSnapshot;
+
+		int retainedVersions = 0;
+		long retainedBytes = 0;
+		for (SmoodSnapshot retainedSnapshot : retainedSnapshots) {
+			retainedVersions++;
+			retainedBytes += retainedSnapshot.estimatedFootprint();
+		}
+
+		return new SmoodSnapshotStatistics( //
+				version.get(), //
+				snapshot == null ? -1 : snapshot.version(), //
+				retainedVersions, //
+				retainedBytes, //
+				snapshotsCreated.sum(), //
+				snapshotReads.sum(), //
+				staleReads.sum() //
+		);
+	}
+
+}
@@ -0,0 +1,120 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.snapshot;
+
+import static com.braintribe.utils.lcd.CollectionTools2.newList;
+
+import java.util.List;
+import java.util.Map;
+
+import com.braintribe.cc.lcd.HashingComparator;
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.generic.value.EntityReference;
+import com.braintribe.model.processing.smood.Smood;
+import com.braintribe.model.processing.smood.tools.PersistentHashMap;
+import com.braintribe.model.processing.smood.tools.PersistentMap;
+
+/**
+ * Keeps the versions of the {@link Smood}'s entity-by-reference mapping for its {@link SmoodSnapshot snapshots}.
+ * <p>
+ * The smood reports every change of the mapping (while holding the write-lock), and every snapshot gets its own immutable {@link Version}, which is
+ * derived from the previous one by applying these changes on a {@link PersistentHashMap}, rather than by copying the whole mapping. If there are more
+ * changes than mapped references before the next snapshot is needed, the changes are dropped and the next version is built from scratch.
+ */
+public class SnapshotReferences {
+
+	private static final int MIN_CHANGE_LOG_LIMIT = 1024;
+
+	private final HashingComparator<EntityReference> comparator;
+
+	/** Latest version, or <tt>null</tt> if the next one has to be built from scratch. */
+	private Version latest;
+	/** Changes since the latest version, as pairs of reference and entity (<tt>null</tt> for removal), or <tt>null</tt> if not tracking. */
+	private List<Object> changes;
+
+	/**
+	 * @param comparator
+	 *            the comparator of the smood's entity-by-reference mapping, i.e. deciding which references are considered equal
+	 */
+	public SnapshotReferences(HashingComparator<EntityReference> comparator) {
+		this.comparator = comparator;
+	}
+
+	public void w_onPut(EntityReference reference, GenericEntity entity) {
+		logChange(reference, entity);
+	}
+
+	public void w_onRemove(EntityReference reference) {
+		logChange(reference, null);
+	}
+
+	private void logChange(EntityReference reference, GenericEntity entity) {
+		if (changes == null)
+			return;
+
+		if (changes.size() < 2 * Math.max(MIN_CHANGE_LOG_LIMIT, latest.references.size())) {
+			changes.add(reference);
+			changes.add(entity);
+			return;
+		}
+
+		changes = null;
+		latest = null;
+	}
+
+	/**
+	 * Returns the version of given (live) entity-by-reference mapping. Must be called with at least a read-lock, and never concurrently with another
+	 * call.
+	 */
+	public Version r_newVersion(Map<EntityReference, GenericEntity> entityByReference) {
+		PersistentMap references;
+		if (latest == null) {
+			references = new PersistentHashMap();
+			for (Map.Entry<EntityReference, GenericEntity> e : entityByReference.entrySet())
+				references = references.with(comparator.eqProxy(e.getKey()), e.getValue());
+
+		} else {
+			references = latest.references;
+			for (int i = 0; i < changes.size(); i += 2) {
+				Object key = comparator.eqProxy((EntityReference) changes.get(i));
+				Object entity = changes.get(i + 1);
+
+				references = entity == null ? references.without(key) : references.with(key, entity);
+			}
+		}
+
+		latest = new Version(comparator, references);
+		changes = newList();
+
+		return latest;
+	}
+
+	/** Immutable version of the entity-by-reference mapping. */
+	public static final class Version {
+		private final HashingComparator<EntityReference> comparator;
+		private final PersistentMap references;
+
+		private Version(HashingComparator<EntityReference> comparator, PersistentMap references) {
+			this.comparator = comparator;
+			this.references = references;
+		}
+
+		public GenericEntity get(EntityReference reference) {
+			return (GenericEntity) references.get(comparator.eqProxy(reference));
+		}
+
+		public int size() {
+			return references.size();
+		}
+	}
+
+}
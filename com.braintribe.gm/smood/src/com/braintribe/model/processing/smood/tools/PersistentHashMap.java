@@ -0,0 +1,114 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.tools;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link PersistentMap} based on the keys' {@link Object#hashCode() hash codes} and {@link Object#equals(Object) equality}. The entries are stored in
+ * a {@link PersistentTree} keyed by the hash code, each node holding a small array of the entries with that hash code.
+ */
+public final class PersistentHashMap implements PersistentMap {
+
+	private static final PersistentTree EMPTY_BUCKETS = new PersistentTree(Comparator.<Integer> naturalOrder());
+
+	/** Maps hash code to an array of alternating keys and values. */
+	private final PersistentTree buckets;
+	private final int size;
+
+	public PersistentHashMap() {
+		this(EMPTY_BUCKETS, 0);
+	}
+
+	private PersistentHashMap(PersistentTree buckets, int size) {
+		this.buckets = buckets;
+		this.size = size;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Object get(Object key) {
+		Object[] bucket = (Object[]) buckets.get(key.hashCode());
+		if (bucket == null)
+			return null;
+
+		int i = indexOf(bucket, key);
+		return i < 0 ? null : bucket[i + 1];
+	}
+
+	@Override
+	public PersistentHashMap with(Object key, Object value) {
+		Integer hash = key.hashCode();
+		Object[] bucket = (Object[]) buckets.get(hash);
+		if (bucket == null)
+			return new PersistentHashMap(buckets.with(hash, new Object[] { key, value }), size + 1);
+
+		int i = indexOf(bucket, key);
+		if (i >= 0) {
+			if (bucket[i + 1] == value)
+				return this;
+
+			Object[] newBucket = bucket.clone();
+			newBucket[i + 1] = value;
+			return new PersistentHashMap(buckets.with(hash, newBucket), size);
+		}
+
+		Object[] newBucket = Arrays.copyOf(bucket, bucket.length + 2);
+		newBucket[bucket.length] = key;
+		newBucket[bucket.length + 1] = value;
+		return new PersistentHashMap(buckets.with(hash, newBucket), size + 1);
+	}
+
+	@Override
+	public PersistentHashMap without(Object key) {
+		Integer hash = key.hashCode();
+		Object[] bucket = (Object[]) buckets.get(hash);
+		if (bucket == null)
+			return this;
+
+		int i = indexOf(bucket, key);
+		if (i < 0)
+			return this;
+
+		if (bucket.length == 2)
+			return new PersistentHashMap(buckets.without(hash), size - 1);
+
+		Object[] newBucket = new Object[bucket.length - 2];
+		System.arraycopy(bucket, 0, newBucket, 0, i);
+		System.arraycopy(bucket, i + 2, newBucket, i, bucket.length - i - 2);
+		return new PersistentHashMap(buckets.with(hash, newBucket), size - 1);
+	}
+
+	private static int indexOf(Object[] bucket, Object key) {
+		for (int i = 0; i < bucket.length; i += 2)
+			if (bucket[i].equals(key))
+				return i;
+
+		return -1;
+	}
+
+	@Override
+	public void forEach(BiConsumer<Object, Object> consumer) {
+		buckets.forEach((hash, bucket) -> {
+			Object[] entries = (Object[]) bucket;
+			for (int i = 0; i < entries.length; i += 2)
+				consumer.accept(entries[i], entries[i + 1]);
+		});
+	}
+
+}
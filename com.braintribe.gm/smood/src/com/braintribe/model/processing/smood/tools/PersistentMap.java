@@ -0,0 +1,42 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.tools;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable map, where every modification returns a new map which shares most of its structure with the original one. Neither keys nor values can
+ * be <tt>null</tt>.
+ * 
+ * @see PersistentTree
+ * @see PersistentHashMap
+ */
+public interface PersistentMap {
+
+	/** Returns the value for given key, or <tt>null</tt> if there is none. */
+	Object get(Object key);
+
+	/** Returns a map with given entry, or this very map if it already contains exactly this entry (i.e. the same value instance). */
+	PersistentMap with(Object key, Object value);
+
+	/** Returns a map without given key, or this very map if it doesn't contain the key. */
+	PersistentMap without(Object key);
+
+	int size();
+
+	default boolean isEmpty() {
+		return size() == 0;
+	}
+
+	void forEach(BiConsumer<Object, Object> consumer);
+
+}
@@ -0,0 +1,323 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smood.tools;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link PersistentMap} implemented as an AVL tree, sorted by given comparator. A modification only copies the nodes on the path to the modified
+ * entry, i.e. it costs <tt>O(log n)</tt> time and memory, and all the other nodes are shared with the original tree.
+ */
+public final class PersistentTree implements PersistentMap {
+
+	private final Comparator<Object> comparator;
+	private final Node root;
+
+	public PersistentTree(Comparator<?> comparator) {
+		this((Comparator<Object>) comparator, null);
+	}
+
+	private PersistentTree(Comparator<Object> comparator, Node root) {
+		this.comparator = comparator;
+		this.root = root;
+	}
+
+	public Comparator<Object> comparator() {
+		return comparator;
+	}
+
+	@Override
+	public int size() {
+		return size(root);
+	}
+
+	@Override
+	public Object get(Object key) {
+		Node n = root;
+		while (n != null) {
+			int cmp = comparator.compare(key, n.key);
+			if (cmp == 0)
+				return n.value;
+
+			n = cmp < 0 ? n.left : n.right;
+		}
+
+		return null;
+	}
+
+	/** Returns the entry with the lowest key, or <tt>null</tt> if this tree is empty. */
+	public Entry<Object, Object> first() {
+		Node n = root;
+		if (n == null)
+			return null;
+
+		while (n.left != null)
+			n = n.left;
+
+		return n;
+	}
+
+	@Override
+	public PersistentTree with(Object key, Object value) {
+		return newTree(insert(root, key, value));
+	}
+
+	@Override
+	public PersistentTree without(Object key) {
+		return newTree(delete(root, key));
+	}
+
+	private PersistentTree newTree(Node newRoot) {
+		return newRoot == root ? this : new PersistentTree(comparator, newRoot);
+	}
+
+	@Override
+	public void forEach(BiConsumer<Object, Object> consumer) {
+		forEach(root, consumer);
+	}
+
+	private static void forEach(Node n, BiConsumer<Object, Object> consumer) {
+		while (n != null) {
+			forEach(n.left, consumer);
+			consumer.accept(n.key, n.value);
+			n = n.right;
+		}
+	}
+
+	/** Iterates over all the entries, in ascending or descending order. */
+	public Iterator<Entry<Object, Object>> iterator(boolean reverse) {
+		return iterator(null, null, null, null, reverse);
+	}
+
+	/**
+	 * Iterates over the entries within given range, where a <tt>null</tt> inclusive flag means the range is not bounded from that side.
+	 */
+	public Iterator<Entry<Object, Object>> iterator(Object from, Boolean fromInclusive, Object to, Boolean toInclusive, boolean reverse) {
+		if (root == null)
+			return Collections.emptyIterator();
+
+		return new RangeIterator(from, fromInclusive, to, toInclusive, reverse);
+	}
+
+	// ###################################################
+	// ## . . . . . . . . . . AVL tree . . . . . . . . .##
+	// ###################################################
+
+	private Node insert(Node n, Object key, Object value) {
+		if (n == null)
+			return new Node(key, value, null, null);
+
+		int cmp = comparator.compare(key, n.key);
+		if (cmp < 0) {
+			Node left = insert(n.left, key, value);
+			return left == n.left ? n : balance(n.key, n.value, left, n.right);
+
+		} else if (cmp > 0) {
+			Node right = insert(n.right, key, value);
+			return right == n.right ? n : balance(n.key, n.value, n.left, right);
+
+		} else {
+			return n.value == value ? n : new Node(n.key, value, n.left, n.right);
+		}
+	}
+
+	private Node delete(Node n, Object key) {
+		if (n == null)
+			return null;
+
+		int cmp = comparator.compare(key, n.key);
+		if (cmp < 0) {
+			Node left = delete(n.left, key);
+			return left == n.left ? n : balance(n.key, n.value, left, n.right);
+
+		} else if (cmp > 0) {
+			Node right = delete(n.right, key);
+			return right == n.right ? n : balance(n.key, n.value, n.left, right);
+		}
+
+		if (n.left == null)
+			return n.right;
+		if (n.right == null)
+			return n.left;
+
+		Node min = n.right;
+		while (min.left != null)
+			min = min.left;
+
+		return balance(min.key, min.value, n.left, deleteMin(n.right));
+	}
+
+	private static Node deleteMin(Node n) {
+		if (n.left == null)
+			return n.right;
+
+		return balance(n.key, n.value, deleteMin(n.left), n.right);
+	}
+
+	private static Node balance(Object key, Object value, Node left, Node right) {
+		int hl = height(left);
+		int hr = height(right);
+
+		if (hl > hr + 1) {
+			if (height(left.left) >= height(left.right))
+				return new Node(left.key, left.value, left.left, new Node(key, value, left.right, right));
+
+			Node lr = left.right;
+			return new Node(lr.key, lr.value, new Node(left.key, left.value, left.left, lr.left), new Node(key, value, lr.right, right));
+		}
+
+		if (hr > hl + 1) {
+			if (height(right.right) >= height(right.left))
+				return new Node(right.key, right.value, new Node(key, value, left, right.left), right.right);
+
+			Node rl = right.left;
+			return new Node(rl.key, rl.value, new Node(key, value, left, rl.left), new Node(right.key, right.value, rl.right, right.right));
+		}
+
+		return new Node(key, value, left, right);
+	}
+
+	private static int height(Node n) {
+		return n == null ? 0 : n.height;
+	}
+
+	private static int size(Node n) {
+		return n == null ? 0 : n.size;
+	}
+
+	private static final class Node implements Entry<Object, Object> {
+		final Object key;
+		final Object value;
+		final Node left;
+		final Node right;
+		final int height;
+		final int size;
+
+		Node(Object key, Object value, Node left, Node right) {
+			this.key = key;
+			this.value = value;
+			this.left = left;
+			this.right = right;
+			this.height = Math.max(height(left), height(right)) + 1;
+			this.size = size(left) + size(right) + 1;
+		}
+
+		@Override
+		public Object getKey() {
+			return key;
+		}
+
+		@Override
+		public Object getValue() {
+			return value;
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			throw new UnsupportedOperationException("Persistent tree cannot be modified.");
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+
+	/**
+	 * In-order traversal with an explicit stack, which only ever contains the nodes within the range whose subtree (towards the iteration
+	 * direction) was not visited yet.
+	 */
+	private class RangeIterator implements Iterator<Entry<Object, Object>> {
+		private final Object from;
+		private final Boolean fromInclusive;
+		private final Object to;
+		private final Boolean toInclusive;
+		private final boolean reverse;
+
+		private final Deque<Node> stack = new ArrayDeque<>();
+		private Node next;
+
+		RangeIterator(Object from, Boolean fromInclusive, Object to, Boolean toInclusive, boolean reverse) {
+			this.from = from;
+			this.fromInclusive = fromInclusive;
+			this.to = to;
+			this.toInclusive = toInclusive;
+			this.reverse = reverse;
+
+			Node n = root;
+			while (n != null) {
+				if (reverse ? isAboveRange(n) : isBelowRange(n)) {
+					n = reverse ? n.left : n.right;
+				} else {
+					stack.push(n);
+					n = reverse ? n.right : n.left;
+				}
+			}
+
+			advance();
+		}
+
+		private boolean isBelowRange(Node n) {
+			if (fromInclusive == null)
+				return false;
+
+			int cmp = comparator.compare(n.key, from);
+			return cmp < 0 || (cmp == 0 && !fromInclusive);
+		}
+
+		private boolean isAboveRange(Node n) {
+			if (toInclusive == null)
+				return false;
+
+			int cmp = comparator.compare(n.key, to);
+			return cmp > 0 || (cmp == 0 && !toInclusive);
+		}
+
+		private void advance() {
+			next = stack.poll();
+			if (next == null)
+				return;
+
+			if (reverse ? isBelowRange(next) : isAboveRange(next)) {
+				next = null;
+				stack.clear();
+				return;
+			}
+
+			for (Node n = reverse ? next.left : next.right; n != null; n = reverse ? n.right : n.left)
+				stack.push(n);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Entry<Object, Object> next() {
+			if (next == null)
+				throw new NoSuchElementException();
+
+			Node result = next;
+			advance();
+			return result;
+		}
+	}
+
+}
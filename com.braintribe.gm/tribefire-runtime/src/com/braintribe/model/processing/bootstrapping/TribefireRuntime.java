@@ -92,6 +92,10 @@ public class TribefireRuntime extends TribefireRuntimeDeprecation {
 	public static final String ENVIRONMENT_EXCEPTION_EXPOSITION = "TRIBEFIRE_EXCEPTION_EXPOSITION";
 	public static final String ENVIRONMENT_EXCEPTION_MESSAGE_EXPOSITION = "TRIBEFIRE_EXCEPTION_MESSAGE_EXPOSITION";
 	public static final String ENVIRONMENT_STATEPROCESSING_THREADS = "TRIBEFIRE_STATEPROCESSING_THREADS";
+	public static final String ENVIRONMENT_STATEPROCESSING_ENTITY_ORDERING = "TRIBEFIRE_STATEPROCESSING_ENTITY_ORDERING";
+	public static final String ENVIRONMENT_STATEPROCESSING_MAX_PENDING_PACKETS = "TRIBEFIRE_STATEPROCESSING_MAX_PENDING_PACKETS";
+	public static final String ENVIRONMENT_STREAM_PIPES_OFF_HEAP = "TRIBEFIRE_STREAM_PIPES_OFF_HEAP";
+	public static final String ENVIRONMENT_STREAM_PIPES_MAPPED_BLOCKS = "TRIBEFIRE_STREAM_PIPES_MAPPED_BLOCKS";
 	public static final String ENVIRONMENT_PREFER_IPV6 = "TRIBEFIRE_PREFER_IPV6";
 	public static final String ENVIRONMENT_NETWORK_INTERFACE_BLACKLIST = "TRIBEFIRE_NETWORK_INTERFACE_BLACKLIST";
 	public static final String ENVIRONMENT_EXTERNAL_PROPERTIES_LOCATION = "TRIBEFIRE_EXTERNAL_PROPERTIES_LOCATION";
@@ -274,6 +278,12 @@ public class TribefireRuntime extends TribefireRuntimeDeprecation {
 	 * "true". */
 	public static final String ENVIRONMENT_CORTEX_MODELS_FIRST = "TRIBEFIRE_CORTEX_MODELS_FIRST";
 
+	// CSA snapshots - if set to true, collaborative smood accesses start from a snapshot rather than replaying all their
+	// GMML stages. The key has to change whenever an initializer without a known artifact version might produce a
+	// different result.
+	public static final String ENVIRONMENT_CSA_SNAPSHOTS = "TRIBEFIRE_CSA_SNAPSHOTS";
+	public static final String ENVIRONMENT_CSA_SNAPSHOT_KEY = "TRIBEFIRE_CSA_SNAPSHOT_KEY";
+
 	// If set to true, default system accesses (auth, user-sessions, ..) are forced and CortexConfiguration is ignored.
 	public static final String ENVIRONMENT_FORCE_DEFAULT_SYSTEM_ACCESSES = "TRIBEFIRE_FORCE_DEFAULT_SYSTEM_ACCESSES";
 
@@ -769,6 +779,10 @@ public class TribefireRuntime extends TribefireRuntimeDeprecation {
 		return Boolean.TRUE.toString().equalsIgnoreCase(getProperty(ENVIRONMENT_FORCE_DEFAULT_SYSTEM_ACCESSES));
 	}
 
+	public static boolean getCsaSnapshots() {
+		return Boolean.TRUE.toString().equalsIgnoreCase(getProperty(ENVIRONMENT_CSA_SNAPSHOTS));
+	}
+
 	/**
 	 * @Deprecated, usage of this method should be replaced with {@link #hasExplicitProperty(String)}.
 	 */
@@ -522,6 +522,11 @@ public class AccessServiceImpl implements RegistryBasedAccessService, AccessIden
 			if (value != null && property.isIdentifier())
 				idToEntity.put(value, clone);
 		}
+
+		@Override
+		protected boolean isTraversingStackUsedByCallbacks() {
+			return false;
+		}
 	}
 
 	private ModelEnvironment createModelEnvironmentFromRegistrationInfo(OriginAwareAccessRegistrationInfo ri) {
@@ -15,6 +15,7 @@ import com.braintribe.model.cache.HasCacheOptions;
 import com.braintribe.model.deployment.database.pool.DatabaseConnectionPool;
 import com.braintribe.model.extensiondeployment.BinaryPersistence;
 import com.braintribe.model.extensiondeployment.BinaryRetrieval;
+import com.braintribe.model.generic.annotation.meta.Description;
 import com.braintribe.model.generic.annotation.meta.Mandatory;
 import com.braintribe.model.generic.reflection.EntityType;
 import com.braintribe.model.generic.reflection.EntityTypes;
@@ -30,4 +31,14 @@ public interface SqlBinaryProcessor extends BinaryPersistence, BinaryRetrieval,
 	SqlBinaryTableMapping getTableMapping();
 	void setTableMapping(SqlBinaryTableMapping tableMapping);
 
+	@Description("If set, new binaries are split into chunks of this many bytes and identical chunks are stored only once. "
+			+ "Binaries stored as a single BLOB remain readable.")
+	Integer getChunkSize();
+	void setChunkSize(Integer chunkSize);
+
+	@Description("Number of chunks kept in memory while storing a binary (bigger binaries are spooled to a temporary file) "
+			+ "and number of chunk references written with a single JDBC batch. Only relevant if chunkSize is set.")
+	Integer getChunkBatchSize();
+	void setChunkBatchSize(Integer chunkBatchSize);
+
 }
@@ -55,7 +55,7 @@ public abstract class UserSessionServiceTestBase {
 	protected static TestConfig testConfig;
 	protected static UserSessionService userSessionService;
 
-	protected static WireContext<TestContract> context;
+	protected static WireContext<? extends TestContract> context;
 	private static DerbyServerControl derbyServerControl;
 
 	// ============================= //
@@ -63,11 +63,15 @@ public abstract class UserSessionServiceTestBase {
 	// ============================= //
 
 	public static void initialize(boolean useRelationalDatabase) throws Exception {
+		initialize(TestContract.context(useRelationalDatabase), useRelationalDatabase);
+	}
+
+	public static void initialize(WireContext<? extends TestContract> wireContext, boolean useRelationalDatabase) throws Exception {
 		// clean db
 		Path dbPath = Paths.get("res/db/dbtest");
 		FileTools.deleteDirectoryRecursively(dbPath.toFile());
 
-		context = TestContract.context(useRelationalDatabase);
+		context = wireContext;
 
 		TestContract contract = context.contract();
 		testConfig = contract.testConfig();
@@ -0,0 +1,112 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.securityservice.usersession.basic.test.base;
+
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.braintribe.gm.model.security.reason.SessionNotFound;
+import com.braintribe.model.processing.securityservice.api.UserSessionService;
+import com.braintribe.model.processing.securityservice.usersession.basic.test.wire.contract.WriteBehindTestContract;
+import com.braintribe.model.processing.securityservice.usersession.service.JdbcUserSessionService;
+import com.braintribe.model.usersession.UserSession;
+import com.braintribe.wire.api.context.WireContext;
+
+/**
+ * <p>
+ * Tests on {@link JdbcUserSessionService} with write-behind touching and a local session cache.
+ * 
+ * <ul>
+ * <li>{@link JdbcUserSessionService#setTouchFlushInterval(long)}
+ * <li>{@link JdbcUserSessionService#setSessionCacheMaxSize(int)}
+ * </ul>
+ * 
+ */
+public abstract class UserSessionWriteBehindTest extends UserSessionServiceTestBase {
+
+	protected static WriteBehindTestContract writeBehindContract;
+
+	public static void initializeWriteBehind(WireContext<WriteBehindTestContract> wireContext) throws Exception {
+		initialize(wireContext, true);
+
+		writeBehindContract = wireContext.contract();
+	}
+
+	@Test
+	public void testTouchesAreCoalesced() throws Exception {
+		JdbcUserSessionService service = writeBehindContract.newDeferringJdbcService();
+		UserSessionService directService = writeBehindContract.directJdbcService();
+
+		try {
+			UserSession userSession = service.createUserSession(getUser(UserConfig.user), null, null, null, null, null, null, null, false).get();
+			String sessionId = userSession.getSessionId();
+			long created = userSession.getLastAccessedDate().getTime();
+
+			// the latest touch wins, regardless of the order
+			service.touchUserSession(sessionId, new Date(created + 1000), new Date(created + 101_000));
+			service.touchUserSession(sessionId, new Date(created + 3000), new Date(created + 103_000));
+			service.touchUserSession(sessionId, new Date(created + 2000), new Date(created + 102_000));
+
+			assertLastAccessed(directService, sessionId, created);
+			assertLastAccessed(service, sessionId, created + 3000);
+
+			service.flushTouches();
+
+			assertLastAccessed(directService, sessionId, created + 3000);
+			Assert.assertEquals(created + 103_000, directService.findUserSession(sessionId).get().getExpiryDate().getTime());
+
+		} finally {
+			service.preDestroy();
+		}
+	}
+
+	@Test
+	public void testTouchesAreFlushedOnDestroy() throws Exception {
+		JdbcUserSessionService service = writeBehindContract.newDeferringJdbcService();
+		UserSessionService directService = writeBehindContract.directJdbcService();
+
+		UserSession userSession = service.createUserSession(getUser(UserConfig.user), null, null, null, null, null, null, null, false).get();
+		String sessionId = userSession.getSessionId();
+		long created = userSession.getLastAccessedDate().getTime();
+
+		service.touchUserSession(sessionId, new Date(created + 1000), new Date(created + 101_000));
+		assertLastAccessed(directService, sessionId, created);
+
+		service.preDestroy();
+
+		assertLastAccessed(directService, sessionId, created + 1000);
+	}
+
+	@Test
+	public void testDeletionIsPropagatedToOtherNodes() throws Exception {
+		UserSessionService otherNodeService = writeBehindContract.otherNodeJdbcService();
+
+		UserSession userSession = userSessionService.createUserSession(getUser(UserConfig.user), null, null, null, null, null, null, null, false)
+				.get();
+		String sessionId = userSession.getSessionId();
+
+		// now the session is cached on the other node
+		Assert.assertNotNull(otherNodeService.findUserSession(sessionId).get());
+
+		userSessionService.deleteUserSession(sessionId).get();
+
+		Assert.assertTrue(otherNodeService.findUserSession(sessionId).isUnsatisfiedBy(SessionNotFound.T));
+	}
+
+	private static void assertLastAccessed(UserSessionService service, String sessionId, long expectedLastAccessed) {
+		UserSession userSession = service.findUserSession(sessionId).get();
+		Assert.assertEquals(expectedLastAccessed, userSession.getLastAccessedDate().getTime());
+	}
+
+}
@@ -16,6 +16,7 @@ import com.braintribe.model.processing.securityservice.api.UserSessionService;
 import com.braintribe.model.processing.securityservice.usersession.basic.test.common.TestConfig;
 import com.braintribe.model.processing.securityservice.usersession.basic.test.wire.space.AccessBasedTestSpace;
 import com.braintribe.model.processing.securityservice.usersession.basic.test.wire.space.DbBasedTestSpace;
+import com.braintribe.model.processing.securityservice.usersession.basic.test.wire.space.WriteBehindDbBasedTestSpace;
 import com.braintribe.wire.api.Wire;
 import com.braintribe.wire.api.context.WireContext;
 import com.braintribe.wire.api.space.WireSpace;
@@ -35,6 +36,13 @@ public interface TestContract extends WireSpace {
 				.bindContracts(DbTestDataSourcesContract.class).build();
 	}
 
+	static WireContext<WriteBehindTestContract> writeBehindDbBasedContext() {
+		return Wire.context(WriteBehindTestContract.class) //
+				.bindContract(WriteBehindTestContract.class, WriteBehindDbBasedTestSpace.class) //
+				.bindContracts(TestContract.class) //
+				.bindContracts(DbTestDataSourcesContract.class).build();
+	}
+
 	static WireContext<TestContract> accessBasedContext() {
 		return Wire.context(TestContract.class) //
 				.bindContract(TestContract.class, AccessBasedTestSpace.class) //
@@ -0,0 +1,31 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.securityservice.usersession.basic.test.wire.contract;
+
+import com.braintribe.model.processing.securityservice.api.UserSessionService;
+import com.braintribe.model.processing.securityservice.usersession.service.JdbcUserSessionService;
+
+/**
+ * {@link TestContract} whose {@link #userSessionService()} defers touches and caches sessions, with additional services sharing its DB.
+ */
+public interface WriteBehindTestContract extends TestContract {
+
+	/** Neither defers touches nor caches sessions, i.e. shows what is actually in the DB. */
+	UserSessionService directJdbcService();
+
+	/** Simulates another cluster node, i.e. it has its own cache, but shares the invalidation notifications with {@link #userSessionService()}. */
+	UserSessionService otherNodeJdbcService();
+
+	/** Returns a new service whose touches are only written when explicitly flushed or when the service is destroyed. */
+	JdbcUserSessionService newDeferringJdbcService();
+
+}
@@ -45,7 +45,7 @@ public class DbBasedTestSpace extends BaseTestSpace {
 	}
 
 	@Managed
-	private DataSource hibernateEnhancedDataSource() {
+	protected DataSource hibernateEnhancedDataSource() {
 		PersistenceUserSessionEnsuringDataSource bean = new PersistenceUserSessionEnsuringDataSource();
 		bean.setDelegate(dbTestDataSources.dataSource(testConfig().getDbVendor()));
 
@@ -0,0 +1,124 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.securityservice.usersession.basic.test.wire.space;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import com.braintribe.model.processing.securityservice.api.UserSessionService;
+import com.braintribe.model.processing.securityservice.usersession.basic.test.wire.contract.WriteBehindTestContract;
+import com.braintribe.model.processing.securityservice.usersession.service.JdbcUserSessionService;
+import com.braintribe.model.processing.securityservice.usersession.service.UserSessionInvalidationNotifier;
+import com.braintribe.wire.api.annotation.Managed;
+import com.braintribe.wire.api.annotation.Scope;
+
+/**
+ * {@link JdbcUserSessionService} with write-behind touching and a local session cache.
+ */
+@Managed
+public class WriteBehindDbBasedTestSpace extends DbBasedTestSpace implements WriteBehindTestContract {
+
+	@Override
+	public UserSessionService userSessionService() {
+		return writeBehindJdbcService();
+	}
+
+	@Managed
+	public UserSessionService writeBehindJdbcService() {
+		JdbcUserSessionService bean = new JdbcUserSessionService();
+		bean.setDataSource(hibernateEnhancedDataSource());
+		bean.setSessionIdProvider(userSessionIdFactory());
+		bean.setDefaultUserSessionMaxIdleTime(defaultMaxIdleTime());
+		bean.setTouchFlushInterval(100);
+		bean.setSessionCacheMaxSize(100);
+		bean.setInvalidationNotifier(invalidationNotifier());
+
+		return bean;
+	}
+
+	@Override
+	public UserSessionService directJdbcService() {
+		return jdbcService();
+	}
+
+	@Override
+	@Managed
+	public UserSessionService otherNodeJdbcService() {
+		JdbcUserSessionService bean = new JdbcUserSessionService();
+		bean.setDataSource(hibernateEnhancedDataSource());
+		bean.setSessionIdProvider(userSessionIdFactory());
+		bean.setDefaultUserSessionMaxIdleTime(defaultMaxIdleTime());
+		bean.setSessionCacheMaxSize(100);
+		bean.setInvalidationNotifier(otherNodeInvalidationNotifier());
+
+		return bean;
+	}
+
+	@Override
+	@Managed(Scope.prototype)
+	public JdbcUserSessionService newDeferringJdbcService() {
+		JdbcUserSessionService bean = new JdbcUserSessionService();
+		bean.setDataSource(hibernateEnhancedDataSource());
+		bean.setSessionIdProvider(userSessionIdFactory());
+		bean.setDefaultUserSessionMaxIdleTime(defaultMaxIdleTime());
+		bean.setTouchFlushInterval(3_600_000);
+		bean.setSessionCacheMaxSize(100);
+
+		return bean;
+	}
+
+	@Managed
+	private UserSessionInvalidationNotifier invalidationNotifier() {
+		return new InMemoryInvalidationNotifier(invalidationListeners());
+	}
+
+	@Managed
+	private UserSessionInvalidationNotifier otherNodeInvalidationNotifier() {
+		return new InMemoryInvalidationNotifier(invalidationListeners());
+	}
+
+	/** Listeners of all the nodes, i.e. plays the role of the messaging topic. */
+	@Managed
+	private List<Consumer<String>> invalidationListeners() {
+		return new CopyOnWriteArrayList<>();
+	}
+
+	/** Delivers notifications synchronously to the listeners of all the nodes, without any messaging. */
+	private static class InMemoryInvalidationNotifier extends UserSessionInvalidationNotifier {
+
+		private final List<Consumer<String>> allListeners;
+
+		public InMemoryInvalidationNotifier(List<Consumer<String>> allListeners) {
+			this.allListeners = allListeners;
+		}
+
+		@Override
+		public boolean addListener(Consumer<String> listener) {
+			allListeners.add(listener);
+			return true;
+		}
+
+		@Override
+		public void removeListener(Consumer<String> listener) {
+			allListeners.remove(listener);
+		}
+
+		@Override
+		public void notifySessionInvalidated(String sessionId) {
+			for (Consumer<String> listener : allListeners)
+				listener.accept(sessionId);
+		}
+
+	}
+
+}
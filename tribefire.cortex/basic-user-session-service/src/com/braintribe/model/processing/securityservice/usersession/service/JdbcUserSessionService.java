@@ -17,11 +17,21 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import javax.sql.DataSource;
 
+import com.braintribe.cfg.Configurable;
 import com.braintribe.cfg.Required;
 import com.braintribe.exception.Exceptions;
 import com.braintribe.gm.model.reason.Maybe;
@@ -29,15 +39,48 @@ import com.braintribe.gm.model.reason.Reasons;
 import com.braintribe.gm.model.security.reason.SessionNotFound;
 import com.braintribe.gm.model.usersession.PersistenceUserSession;
 import com.braintribe.logging.Logger;
+import com.braintribe.model.generic.reflection.StandardCloningContext;
+import com.braintribe.model.generic.reflection.StrategyOnCriterionMatch;
 import com.braintribe.model.processing.securityservice.api.exceptions.SecurityServiceException;
 import com.braintribe.model.time.TimeSpan;
 import com.braintribe.model.user.User;
 import com.braintribe.model.usersession.UserSessionType;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
+/**
+ * {@link AbstractUserSessionService} which stores the sessions in the TF_US_PERSISTENCE_USER_SESSION table via plain JDBC.
+ * <p>
+ * Two optional optimizations reduce the load on that table:
+ * <ul>
+ * <li><b>Write-behind touching</b> (see {@link #setTouchFlushInterval(long)}) - touches are only remembered in memory, coalesced per session, and
+ * periodically written to the DB in JDBC batches. The dates stored in the DB (and thus the expiry seen by other nodes and the cleanup) can
+ * therefore lag behind by up to the flush interval.
+ * <li><b>Session cache</b> (see {@link #setSessionCacheMaxSize(int)}) - a bounded local cache of resolved sessions. Entries are evicted when a
+ * session is closed or deleted, on other nodes via {@link #setInvalidationNotifier(UserSessionInvalidationNotifier) messaging}, and in any case
+ * after {@link #setSessionCacheTtl(long) a while} or when the cached session appears expired, in which case it is read from the DB again.
+ * </ul>
+ */
 public class JdbcUserSessionService extends AbstractUserSessionService {
 
 	DataSource dataSource;
 
+	private long touchFlushInterval;
+	private int touchFlushBatchSize = 500;
+	private ScheduledExecutorService touchFlushExecutor;
+	private boolean ownsTouchFlushExecutor;
+	private ScheduledFuture<?> touchFlushFuture;
+	private volatile boolean writeBehind;
+
+	private int sessionCacheMaxSize;
+	private long sessionCacheTtl = 30_000L;
+	private UserSessionInvalidationNotifier invalidationNotifier;
+
+	private final Map<String, PendingTouch> pendingTouches = new ConcurrentHashMap<>();
+	private final AtomicLong invalidationCounter = new AtomicLong();
+	private final Consumer<String> invalidationListener = this::evictCachedSession;
+	private Cache<String, CachedSession> sessionCache;
+
 	// @formatter:off
 	private static final String CREATE_PERSISTENCE_USER_SESSION_STMT = //
 			"INSERT INTO TF_US_PERSISTENCE_USER_SESSION (" +
@@ -53,6 +96,8 @@ public class JdbcUserSessionService extends AbstractUserSessionService {
 	private static final String FIND_PERSISTENCE_USER_SESSION_STMT = "SELECT * FROM TF_US_PERSISTENCE_USER_SESSION WHERE ID = ?";
 	private static final String FIND_PERSISTENCE_USER_SESSION_BY_ACQKEY_STMT = "SELECT * FROM TF_US_PERSISTENCE_USER_SESSION WHERE ACQUIRATION_KEY = ? ORDER BY CREATION_DATE DESC";
 	private static final String TOUCH_PERSISTENCE_USER_SESSION_STMT = "UPDATE TF_US_PERSISTENCE_USER_SESSION SET LAST_ACCESSED_DATE = ?, EXPIRY_DATE = ? WHERE ID = ?";
+	// delayed touches must not re-open a session which was closed in the meantime
+	private static final String TOUCH_OPEN_PERSISTENCE_USER_SESSION_STMT = "UPDATE TF_US_PERSISTENCE_USER_SESSION SET LAST_ACCESSED_DATE = ?, EXPIRY_DATE = ? WHERE ID = ? AND (CLOSED IS NULL OR CLOSED = ?)";
 	private static final String DELETE_PERSISTENCE_USER_SESSION_STMT = "DELETE FROM TF_US_PERSISTENCE_USER_SESSION WHERE ID = ?";
 	private static final String CLOSE_PERSISTENCE_USER_SESSION_STMT = "UPDATE TF_US_PERSISTENCE_USER_SESSION SET CLOSED = ?, EXPIRY_DATE = ? WHERE ID = ?";
 
@@ -63,6 +108,117 @@ public class JdbcUserSessionService extends AbstractUserSessionService {
 		this.dataSource = dataSource;
 	}
 
+	/**
+	 * Interval (in milliseconds) in which touches are written to the DB. A non-positive value means every touch is written immediately.
+	 * <p>
+	 * Defaults to 0.
+	 */
+	@Configurable
+	public void setTouchFlushInterval(long touchFlushInterval) {
+		this.touchFlushInterval = touchFlushInterval;
+	}
+
+	/**
+	 * @param touchFlushBatchSize
+	 *            Maximum number of touches written in one JDBC batch. Defaults to 500.
+	 */
+	@Configurable
+	public void setTouchFlushBatchSize(int touchFlushBatchSize) {
+		this.touchFlushBatchSize = touchFlushBatchSize;
+	}
+
+	/**
+	 * Executor which flushes the touches, relevant only if {@link #setTouchFlushInterval(long) write-behind} is enabled. If not configured, a
+	 * single daemon thread is used.
+	 */
+	@Configurable
+	public void setTouchFlushExecutor(ScheduledExecutorService touchFlushExecutor) {
+		this.touchFlushExecutor = touchFlushExecutor;
+	}
+
+	/**
+	 * Maximum number of sessions kept in the local cache. A non-positive value means sessions are not cached.
+	 * <p>
+	 * Defaults to 0.
+	 */
+	@Configurable
+	public void setSessionCacheMaxSize(int sessionCacheMaxSize) {
+		this.sessionCacheMaxSize = sessionCacheMaxSize;
+	}
+
+	/**
+	 * Maximum time (in milliseconds) a session is served from the cache before it is read from the DB again. This bounds how long a session
+	 * closed on another node might still be considered valid here, in case the invalidation message got lost.
+	 * <p>
+	 * Defaults to 30 seconds.
+	 */
+	@Configurable
+	public void setSessionCacheTtl(long sessionCacheTtl) {
+		this.sessionCacheTtl = sessionCacheTtl;
+	}
+
+	@Configurable
+	public void setInvalidationNotifier(UserSessionInvalidationNotifier invalidationNotifier) {
+		this.invalidationNotifier = invalidationNotifier;
+	}
+
+	@Override
+	public void postConstruct() {
+		if (sessionCacheMaxSize > 0)
+			initSessionCache();
+
+		super.postConstruct();
+
+		if (touchFlushInterval > 0)
+			startTouchFlushing();
+	}
+
+	@Override
+	public void preDestroy() {
+		if (writeBehind)
+			stopTouchFlushing();
+
+		if (invalidationNotifier != null)
+			invalidationNotifier.removeListener(invalidationListener);
+
+		super.preDestroy();
+	}
+
+	private void initSessionCache() {
+		sessionCache = CacheBuilder.newBuilder() //
+				.maximumSize(sessionCacheMaxSize) //
+				.build();
+
+		if (invalidationNotifier == null || !invalidationNotifier.addListener(invalidationListener))
+			log.info("User sessions are cached without cluster-wide invalidation. A session closed on another node might still be used here for up to "
+					+ sessionCacheTtl + " ms.");
+	}
+
+	private void startTouchFlushing() {
+		if (touchFlushExecutor == null) {
+			touchFlushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread t = new Thread(r, "user-session-touch-flush");
+				t.setDaemon(true);
+				return t;
+			});
+			ownsTouchFlushExecutor = true;
+		}
+
+		touchFlushFuture = touchFlushExecutor.scheduleWithFixedDelay(this::flushTouches, touchFlushInterval, touchFlushInterval,
+				TimeUnit.MILLISECONDS);
+		writeBehind = true;
+	}
+
+	private void stopTouchFlushing() {
+		writeBehind = false;
+
+		touchFlushFuture.cancel(false);
+		if (ownsTouchFlushExecutor)
+			touchFlushExecutor.shutdown();
+
+		flushTouches();
+	}
+
 	protected Connection openJdbcConnection() throws SecurityServiceException {
 		try {
 			return dataSource.getConnection();
@@ -110,11 +266,34 @@ public class JdbcUserSessionService extends AbstractUserSessionService {
 			throw Exceptions.unchecked(e, "Failed to create a user session for user '" + user.getName() + "'");
 		}
 
+		if (sessionCache != null)
+			sessionCache.put(pUserSession.getId(), new CachedSession(pUserSession));
+
 		return pUserSession;
 	}
 
 	@Override
 	protected Maybe<PersistenceUserSession> findPersistenceUserSession(String sessionId) {
+		if (sessionCache == null)
+			return loadPersistenceUserSession(sessionId);
+
+		CachedSession cached = sessionCache.getIfPresent(sessionId);
+		if (cached != null && cached.isUsable(sessionCacheTtl))
+			return Maybe.complete(cached.pUserSession);
+
+		long invalidations = invalidationCounter.get();
+		Maybe<PersistenceUserSession> result = loadPersistenceUserSession(sessionId);
+
+		// if the session was invalidated while loading, what we have loaded might already be outdated
+		if (result.isSatisfied() && invalidationCounter.get() == invalidations)
+			sessionCache.put(sessionId, new CachedSession(result.get()));
+		else if (cached != null)
+			sessionCache.invalidate(sessionId);
+
+		return result;
+	}
+
+	private Maybe<PersistenceUserSession> loadPersistenceUserSession(String sessionId) {
 		PersistenceUserSession pUserSession;
 		try (Connection conn = openJdbcConnection()) {
 			try (PreparedStatement stmt = conn.prepareStatement(FIND_PERSISTENCE_USER_SESSION_STMT)) {
@@ -127,6 +306,7 @@ public class JdbcUserSessionService extends AbstractUserSessionService {
 		} catch (Exception e) {
 			throw Exceptions.unchecked(e, "Failed to query user session '" + sessionId + "'");
 		}
+		applyPendingTouch(pUserSession);
 		return Maybe.complete(pUserSession);
 	}
 
@@ -148,6 +328,7 @@ public class JdbcUserSessionService extends AbstractUserSessionService {
 		} catch (Exception e) {
 			throw Exceptions.unchecked(e, "Failed to query user with acquiration key '" + acquirationKey + "'");
 		}
+		applyPendingTouch(pUserSession);
 		return Maybe.complete(pUserSession);
 	}
 
@@ -182,8 +363,30 @@ public class JdbcUserSessionService extends AbstractUserSessionService {
 		return pUserSession;
 	}
 
+	/** Makes sure the sessions read from the DB reflect the touches of this node which were not flushed yet. */
+	private void applyPendingTouch(PersistenceUserSession pUserSession) {
+		if (pendingTouches.isEmpty())
+			return;
+
+		PendingTouch touch = pendingTouches.get(pUserSession.getId());
+		if (touch != null && touch.isAfter(pUserSession.getLastAccessedDate())) {
+			pUserSession.setLastAccessedDate(touch.lastAccessDate);
+			pUserSession.setExpiryDate(touch.expiryDate);
+		}
+	}
+
 	@Override
 	public void touchUserSession(String sessionId, Date lastAccessDate, Date expiryDate) {
+		if (writeBehind)
+			pendingTouches.merge(sessionId, new PendingTouch(lastAccessDate, expiryDate), PendingTouch::latest);
+		else
+			touchPersistenceUserSession(sessionId, lastAccessDate, expiryDate);
+
+		if (sessionCache != null)
+			sessionCache.asMap().computeIfPresent(sessionId, (id, cached) -> cached.touched(lastAccessDate, expiryDate));
+	}
+
+	private void touchPersistenceUserSession(String sessionId, Date lastAccessDate, Date expiryDate) {
 		try (Connection conn = openJdbcConnection()) {
 			try (PreparedStatement stmt = conn.prepareStatement(TOUCH_PERSISTENCE_USER_SESSION_STMT)) {
 				Timestamp expiryTimestamp = expiryDate != null ? new Timestamp(expiryDate.getTime()) : null;
@@ -197,6 +400,61 @@ public class JdbcUserSessionService extends AbstractUserSessionService {
 		}
 	}
 
+	/**
+	 * Writes all the touches which were not written yet to the DB. This is done periodically when {@link #setTouchFlushInterval(long) write-behind}
+	 * is enabled, and once more on {@link #preDestroy()}.
+	 */
+	public void flushTouches() {
+		if (pendingTouches.isEmpty())
+			return;
+
+		List<String> sessionIds = new ArrayList<>(pendingTouches.keySet());
+		int batchSize = Math.max(touchFlushBatchSize, 1);
+
+		for (int i = 0; i < sessionIds.size(); i += batchSize)
+			flushTouches(sessionIds.subList(i, Math.min(i + batchSize, sessionIds.size())));
+	}
+
+	private void flushTouches(List<String> sessionIds) {
+		List<String> flushedIds = new ArrayList<>(sessionIds.size());
+		List<PendingTouch> flushedTouches = new ArrayList<>(sessionIds.size());
+
+		try (Connection conn = openJdbcConnection()) {
+			try (PreparedStatement stmt = conn.prepareStatement(TOUCH_OPEN_PERSISTENCE_USER_SESSION_STMT)) {
+				for (String sessionId : sessionIds) {
+					PendingTouch touch = pendingTouches.remove(sessionId);
+					if (touch == null)
+						continue;
+
+					stmt.setTimestamp(1, new Timestamp(touch.lastAccessDate.getTime()));
+					stmt.setTimestamp(2, touch.expiryDate != null ? new Timestamp(touch.expiryDate.getTime()) : null);
+					stmt.setString(3, sessionId);
+					stmt.setBoolean(4, false);
+					stmt.addBatch();
+
+					flushedIds.add(sessionId);
+					flushedTouches.add(touch);
+				}
+
+				if (flushedIds.isEmpty())
+					return;
+
+				int[] updateCounts = stmt.executeBatch();
+
+				// session was closed or deleted (e.g. by the cleanup) in the meantime
+				for (int i = 0; i < updateCounts.length && i < flushedIds.size(); i++)
+					if (updateCounts[i] == 0)
+						evictCachedSession(flushedIds.get(i));
+			}
+
+		} catch (Exception e) {
+			log.error("Could not flush " + flushedIds.size() + " touches of PersistenceUserSessions, will retry with the next flush.", e);
+
+			for (int i = 0; i < flushedIds.size(); i++)
+				pendingTouches.merge(flushedIds.get(i), flushedTouches.get(i), PendingTouch::latest);
+		}
+	}
+
 	@Override
 	protected void deletePersistenceUserSession(PersistenceUserSession pUserSession) {
 		String sessionId = pUserSession.getId();
@@ -221,6 +479,8 @@ public class JdbcUserSessionService extends AbstractUserSessionService {
 		} catch (Exception e) {
 			throw Exceptions.unchecked(e, "Failed to close user session '" + sessionId + "'");
 		}
+
+		onSessionInvalidated(sessionId);
 	}
 
 	@Override
@@ -233,6 +493,77 @@ public class JdbcUserSessionService extends AbstractUserSessionService {
 		} catch (Exception e) {
 			throw Exceptions.unchecked(e, "Failed to delete user session '" + sessionId + "'");
 		}
+
+		onSessionInvalidated(sessionId);
+	}
+
+	private void onSessionInvalidated(String sessionId) {
+		pendingTouches.remove(sessionId);
+		evictCachedSession(sessionId);
+
+		if (invalidationNotifier != null)
+			invalidationNotifier.notifySessionInvalidated(sessionId);
+	}
+
+	private void evictCachedSession(String sessionId) {
+		if (sessionCache == null)
+			return;
+
+		invalidationCounter.incrementAndGet();
+		sessionCache.invalidate(sessionId);
+	}
+
+	private static class PendingTouch {
+		final Date lastAccessDate;
+		final Date expiryDate;
+
+		PendingTouch(Date lastAccessDate, Date expiryDate) {
+			this.lastAccessDate = lastAccessDate;
+			this.expiryDate = expiryDate;
+		}
+
+		boolean isAfter(Date date) {
+			return date == null || lastAccessDate.after(date);
+		}
+
+		static PendingTouch latest(PendingTouch t1, PendingTouch t2) {
+			return t1.isAfter(t2.lastAccessDate) ? t1 : t2;
+		}
+	}
+
+	private static class CachedSession {
+		final PersistenceUserSession pUserSession;
+		final long loadedAt;
+
+		CachedSession(PersistenceUserSession pUserSession) {
+			this(pUserSession, System.currentTimeMillis());
+		}
+
+		private CachedSession(PersistenceUserSession pUserSession, long loadedAt) {
+			this.pUserSession = pUserSession;
+			this.loadedAt = loadedAt;
+		}
+
+		/** A session which appears expired is read again, as it might have been touched on another node. */
+		boolean isUsable(long ttl) {
+			long now = System.currentTimeMillis();
+			Date expiryDate = pUserSession.getExpiryDate();
+
+			return now - loadedAt < ttl && (expiryDate == null || expiryDate.getTime() > now);
+		}
+
+		/** Cached entities are shared between threads, so they are never modified, a touch creates a copy instead. */
+		CachedSession touched(Date lastAccessDate, Date expiryDate) {
+			Date cachedLastAccessDate = pUserSession.getLastAccessedDate();
+			if (cachedLastAccessDate != null && !lastAccessDate.after(cachedLastAccessDate))
+				return this;
+
+			PersistenceUserSession copy = PersistenceUserSession.T.clone(new StandardCloningContext(), pUserSession, StrategyOnCriterionMatch.skip);
+			copy.setLastAccessedDate(lastAccessDate);
+			copy.setExpiryDate(expiryDate);
+
+			return new CachedSession(copy, loadedAt);
+		}
 	}
 
 }
@@ -0,0 +1,159 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.securityservice.usersession.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.braintribe.cfg.Configurable;
+import com.braintribe.cfg.DestructionAware;
+import com.braintribe.logging.Logger;
+import com.braintribe.model.messaging.Message;
+import com.braintribe.model.messaging.Topic;
+import com.braintribe.transport.messaging.api.MessageConsumer;
+import com.braintribe.transport.messaging.api.MessageProducer;
+import com.braintribe.transport.messaging.api.MessagingException;
+import com.braintribe.transport.messaging.api.MessagingSession;
+
+/**
+ * Broadcasts the information that a user session was closed or deleted to all the nodes of the cluster via a messaging topic, so that they can
+ * evict the session from their local caches (see {@link JdbcUserSessionService#setSessionCacheMaxSize(int)}).
+ * <p>
+ * The message only contains the id of the session. Messages sent by this node are also delivered to its own listeners, which is harmless as
+ * evicting a session twice has no effect.
+ * <p>
+ * If no {@link #setMessagingSessionProvider(Supplier) messaging} is configured (or it cannot be initialized), notifications are not supported and
+ * {@link #addListener(Consumer)} returns <tt>false</tt>.
+ */
+public class UserSessionInvalidationNotifier implements DestructionAware {
+
+	private static final Logger log = Logger.getLogger(UserSessionInvalidationNotifier.class);
+
+	public static final String DEFAULT_TOPIC_NAME = "tf-user-session-invalidation";
+
+	private Supplier<MessagingSession> messagingSessionProvider;
+	private String topicName = DEFAULT_TOPIC_NAME;
+	private long topicExpiration = 5000L;
+
+	private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+	private volatile boolean messagingInitialized;
+	private MessagingSession messagingSession;
+	private MessageProducer messageProducer;
+	private MessageConsumer messageConsumer;
+
+	// @formatter:off
+	@Configurable public void setMessagingSessionProvider(Supplier<MessagingSession> messagingSessionProvider) { this.messagingSessionProvider = messagingSessionProvider; }
+	/** Default value is {@value #DEFAULT_TOPIC_NAME} */
+	@Configurable public void setTopicName(String topicName) { this.topicName = topicName; }
+	@Configurable public void setTopicExpiration(long topicExpiration) { this.topicExpiration = topicExpiration; }
+	// @formatter:on
+
+	/**
+	 * Registers a listener which is given the id of every invalidated session.
+	 * 
+	 * @return <tt>true</tt> iff the listener was registered, i.e. notifications are supported.
+	 */
+	public boolean addListener(Consumer<String> listener) {
+		ensureMessagingInitialized();
+		if (messageConsumer == null)
+			return false;
+
+		listeners.add(listener);
+		return true;
+	}
+
+	public void removeListener(Consumer<String> listener) {
+		listeners.remove(listener);
+	}
+
+	/** Broadcasts the information that given session was invalidated. This method never throws an exception. */
+	public void notifySessionInvalidated(String sessionId) {
+		ensureMessagingInitialized();
+		if (messageProducer == null)
+			return;
+
+		try {
+			Message message = messagingSession.createMessage();
+			message.setBody(sessionId);
+			message.setTimeToLive(topicExpiration);
+
+			messageProducer.sendMessage(message);
+
+		} catch (Exception e) {
+			log.error("Error while notifying about invalidated user session: " + sessionId, e);
+		}
+	}
+
+	private void onMessage(Message message) {
+		Object body = message.getBody();
+		if (!(body instanceof String))
+			return;
+
+		String sessionId = (String) body;
+		for (Consumer<String> listener : listeners) {
+			try {
+				listener.accept(sessionId);
+			} catch (Exception e) {
+				log.error("Error in user session invalidation listener for: " + sessionId, e);
+			}
+		}
+	}
+
+	private void ensureMessagingInitialized() {
+		if (messagingInitialized)
+			return;
+
+		synchronized (this) {
+			if (messagingInitialized)
+				return;
+
+			if (messagingSessionProvider != null)
+				initializeMessaging();
+
+			messagingInitialized = true;
+		}
+	}
+
+	private void initializeMessaging() {
+		try {
+			messagingSession = messagingSessionProvider.get();
+			Topic topic = messagingSession.createTopic(topicName);
+			messageProducer = messagingSession.createMessageProducer(topic);
+			messageConsumer = messagingSession.createMessageConsumer(topic);
+			messageConsumer.setMessageListener(this::onMessage);
+
+		} catch (Exception e) {
+			log.error("Error while initializing messaging for user session invalidation. Cached user sessions will only expire by time.", e);
+			messageProducer = null;
+			messageConsumer = null;
+		}
+	}
+
+	@Override
+	public void preDestroy() {
+		try {
+			if (messageConsumer != null)
+				messageConsumer.close();
+			if (messageProducer != null)
+				messageProducer.close();
+			if (messagingSession != null)
+				messagingSession.close();
+
+		} catch (MessagingException e) {
+			log.warn("Error while closing messaging components for user session invalidation", e);
+		}
+	}
+
+}
@@ -38,10 +38,12 @@ import com.braintribe.logging.Logger;
 import com.braintribe.model.access.IncrementalAccess;
 import com.braintribe.model.cache.CacheControl;
 import com.braintribe.model.generic.session.exception.GmSessionException;
+import com.braintribe.model.generic.stream.StreamProviders;
 import com.braintribe.model.processing.resource.filesystem.common.ProcessorConfig;
 import com.braintribe.model.processing.resource.filesystem.common.TestFile;
 import com.braintribe.model.processing.resource.filesystem.wire.FileSystemBinaryProcessorTestWireModule;
 import com.braintribe.model.processing.resource.filesystem.wire.contract.MainContract;
+import com.braintribe.model.processing.resource.streaming.FileTransferTarget;
 import com.braintribe.model.processing.session.api.persistence.PersistenceGmSession;
 import com.braintribe.model.processing.session.api.persistence.PersistenceGmSessionFactory;
 import com.braintribe.model.processing.session.impl.persistence.BasicPersistenceGmSession;
@@ -198,6 +200,63 @@ public class FileSystemBinaryProcessorTest implements BinaryProcessorTestCommons
 
 	}
 
+	@Test
+	public void testStreamToFileTransferTarget() {
+
+		TestFile testFile = context.contract().testFiles().get("pdf");
+		IncrementalAccess access = context.contract().access1();
+		Path accessPath = context.contract().access1Path();
+
+		StoreBinaryResponse storeResponse = store(SERVICE_ID_SIMPLE, access, testFile, null);
+
+		Resource resource = storeResponse.getResource();
+		Path resourcePath = accessPath.resolve(((FileSystemSource) resource.getResourceSource()).getPath());
+
+		TransferRecordingOutputStream out = new TransferRecordingOutputStream(true);
+		stream(SERVICE_ID_SIMPLE, access, resource, out, null, null, null);
+
+		assertThat(out.path).isEqualTo(resourcePath);
+		assertThat(out.start).isEqualTo(0L);
+		assertThat(out.end).isEqualTo((long) testFile.contents().length);
+		assertThat(out.toByteArray()).isEmpty();
+
+		out = new TransferRecordingOutputStream(true);
+		StreamBinaryResponse streamResponse = stream(SERVICE_ID_SIMPLE, access, resource, out, null, 10L, 20L);
+
+		assertThat(streamResponse.getRanged()).isTrue();
+		assertThat(out.start).isEqualTo(10L);
+		assertThat(out.end).isEqualTo(21L);
+		assertThat(out.toByteArray()).isEmpty();
+
+		// declined transfer is written to the stream
+		ProcessorConfig processorConfig = context.contract().simpleFileSystemBinaryProcessorConfig();
+
+		out = new TransferRecordingOutputStream(false);
+		streamResponse = stream(SERVICE_ID_SIMPLE, access, resource, out, null, 10L, 20L);
+		assertStream(processorConfig, testFile, resource, out, streamResponse, true, 10L, 20L);
+	}
+
+	private static class TransferRecordingOutputStream extends ByteArrayOutputStream implements FileTransferTarget {
+
+		private final boolean accept;
+		private Path path;
+		private long start = -1;
+		private long end = -1;
+
+		public TransferRecordingOutputStream(boolean accept) {
+			this.accept = accept;
+		}
+
+		@Override
+		public boolean transferFile(Path path, long start, long end) {
+			this.path = path;
+			this.start = start;
+			this.end = end;
+			return accept;
+		}
+
+	}
+
 	@Test
 	public void testStreamWithTrueFingerprintMismatch() {
 
@@ -601,8 +660,9 @@ public class FileSystemBinaryProcessorTest implements BinaryProcessorTestCommons
 	protected StreamBinaryResponse stream(String serviceId, IncrementalAccess access, Resource resource, OutputStream out, StreamCondition condition,
 			Long rangeStart, Long rangeEnd) {
 
+		// wrapped like BasicResourceAccess does
 		CallStreamCapture capture = CallStreamCapture.T.create();
-		capture.setOutputStreamProvider(() -> out);
+		capture.setOutputStreamProvider(StreamProviders.from(out));
 
 		StreamBinary stream = StreamBinary.T.create();
 		stream.setResource(resource);
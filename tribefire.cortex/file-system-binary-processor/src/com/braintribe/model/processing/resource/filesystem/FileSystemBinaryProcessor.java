@@ -23,6 +23,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileTime;
@@ -349,11 +350,15 @@ public class FileSystemBinaryProcessor extends AbstractFsBasedBinaryRetriever im
 	@Override
 	protected Date getLastModifiedDate(Resource resource, BinaryRetrievalRequest request) {
 		FileSystemSource source = retrieveFileSystemSource(resource);
-		Path path = resolveSourcePath(request.getDomainId(), source, true);
+		Path path = resolveSourcePath(request.getDomainId(), source, false);
 		try {
+			// a single stat, which also checks the existence - conditional requests are answered without opening the file
 			FileTime date = Files.getLastModifiedTime(path);
 			return date == null ? null : Date.from(date.toInstant());
 
+		} catch (NoSuchFileException e) {
+			throw new NotFoundException("File does not exist: " + path);
+
 		} catch (IOException e) {
 			throw unchecked(e, "Failed to obtain the last modified time for " + path);
 		}
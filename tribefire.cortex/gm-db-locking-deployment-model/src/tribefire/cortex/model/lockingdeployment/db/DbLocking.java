@@ -40,6 +40,19 @@ public interface DbLocking extends Locking {
 	int getPollIntervalInMillis();
 	void setPollIntervalInMillis(int pollIntervalInMillis);
 
+	/**
+	 * Upper bound for the re-try interval when unlock notifications are available via messaging, as then the interval grows after every
+	 * unsuccessful try.
+	 */
+	@Initializer("1000")
+	int getMaxPollIntervalInMillis();
+	void setMaxPollIntervalInMillis(int maxPollIntervalInMillis);
+
+	/** Maximum number of lock ids for which statistics (wait times, contention) are tracked individually. */
+	@Initializer("1000")
+	int getMaxTrackedLocks();
+	void setMaxTrackedLocks(int maxTrackedLocks);
+
 	/**
 	 * Time period after which a lock expires and is automatically unlocked.
 	 * <p>
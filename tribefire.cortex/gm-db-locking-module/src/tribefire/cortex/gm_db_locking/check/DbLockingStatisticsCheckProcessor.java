@@ -0,0 +1,82 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package tribefire.cortex.gm_db_locking.check;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.braintribe.model.check.service.CheckRequest;
+import com.braintribe.model.check.service.CheckResult;
+import com.braintribe.model.check.service.CheckResultEntry;
+import com.braintribe.model.check.service.CheckStatus;
+import com.braintribe.model.processing.check.api.CheckProcessor;
+import com.braintribe.model.processing.locking.db.impl.DbLockStatistics;
+import com.braintribe.model.processing.locking.db.impl.DbLockStatistics.LockStatistics;
+import com.braintribe.model.processing.locking.db.impl.DbLocking;
+import com.braintribe.model.processing.service.api.ServiceRequestContext;
+
+/**
+ * Reports the {@link DbLocking#getLockStatistics() lock statistics} of every deployed {@link DbLocking}, one entry per deployable.
+ */
+public class DbLockingStatisticsCheckProcessor implements CheckProcessor {
+
+	private final Map<String, DbLocking> lockings = new ConcurrentHashMap<>();
+
+	public void register(String externalId, DbLocking locking) {
+		lockings.put(externalId, locking);
+	}
+
+	public void unregister(String externalId) {
+		lockings.remove(externalId);
+	}
+
+	@Override
+	public CheckResult check(ServiceRequestContext requestContext, CheckRequest request) {
+		CheckResult result = CheckResult.T.create();
+		lockings.forEach((externalId, locking) -> result.getEntries().add(checkLocking(externalId, locking)));
+
+		return result;
+	}
+
+	private CheckResultEntry checkLocking(String externalId, DbLocking locking) {
+		DbLockStatistics statistics = locking.getLockStatistics();
+
+		CheckResultEntry entry = CheckResultEntry.T.create();
+		entry.setName(externalId);
+		entry.setCheckStatus(CheckStatus.ok);
+		entry.setMessage("Unlock notifications received: " + statistics.getUnlockNotifications());
+		entry.setDetailsAsMarkdown(true);
+		entry.setDetails(toMarkdownTable(statistics));
+
+		return entry;
+	}
+
+	private String toMarkdownTable(DbLockStatistics statistics) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Lock | Acquisitions | Contended | Failures | DB Attempts | Avg Wait (ms) | Max Wait (ms)\n");
+		sb.append("--- | --- | --- | --- | --- | --- | ---\n");
+
+		statistics.getLocks().forEach((lockId, s) -> {
+			sb.append(lockId.replace("|", "\\|") + " | ");
+			sb.append(s.getAcquisitions() + " | " + s.getContendedAcquisitions() + " | " + s.getFailures() + " | " + s.getDbAttempts() + " | ");
+			sb.append(avgWaitTime(s) + " | " + s.getMaxWaitTime() + "\n");
+		});
+
+		return sb.toString();
+	}
+
+	private long avgWaitTime(LockStatistics s) {
+		long tries = s.getAcquisitions() + s.getFailures();
+		return tries == 0 ? 0 : s.getTotalWaitTime() / tries;
+	}
+
+}
@@ -27,6 +27,7 @@ import com.braintribe.wire.api.annotation.Import;
 import com.braintribe.wire.api.annotation.Managed;
 import com.braintribe.wire.api.scope.InstanceConfiguration;
 
+import tribefire.cortex.gm_db_locking.check.DbLockingStatisticsCheckProcessor;
 import tribefire.cortex.model.lockingdeployment.db.DbLocking;
 import tribefire.module.api.DenotationEnrichmentResult;
 import tribefire.module.api.DenotationMorpher;
@@ -42,6 +43,7 @@ import tribefire.module.wire.contract.TribefireWebPlatformContract;
  * <ul>
  * <li>Deployment expert for {@link DbLocking}
  * <li>Standard {@link DenotationMorpher} from {@link DatabaseConnectionPool} to {@link DbLocking}
+ * <li>Hardwired {@link DbLockingStatisticsCheckProcessor} reporting the lock statistics of the deployed {@link DbLocking}s
  * </ul>
  */
 @Managed
@@ -50,6 +52,9 @@ public class GmDbLockingModuleSpace implements TribefireModuleContract {
 	private static final String EDR_2_CC_LOCKING_NAME = "Db Locking";
 	private static final String EDR_2_CC_LOCKING_ID = "edr2cc:db-locking";
 
+	private static final String STATISTICS_CHECK_ID = "checkProcessor.hardwired.DbLockingStatistics";
+	private static final String STATISTICS_CHECK_NAME = "Db Locking Statistics";
+
 	private static final Logger log = Logger.getLogger(GmDbLockingModuleSpace.class);
 
 	@Import
@@ -70,6 +75,13 @@ public class GmDbLockingModuleSpace implements TribefireModuleContract {
 		denotransRegistry.registerStandardMorpher(DatabaseConnectionPool.T, DbLocking.T, this::dbConnectionPoolToDbLocking);
 
 		denotransRegistry.registerEnricher("DbLockingEdr2ccEnricher", DbLocking.T, this::enrichDbLocking);
+
+		tfPlatform.hardwiredDeployables().bindCheckProcessor(STATISTICS_CHECK_ID, STATISTICS_CHECK_NAME, statisticsCheckProcessor());
+	}
+
+	@Managed
+	private DbLockingStatisticsCheckProcessor statisticsCheckProcessor() {
+		return new DbLockingStatisticsCheckProcessor();
 	}
 
 	// Locking
@@ -135,12 +147,16 @@ public class GmDbLockingModuleSpace implements TribefireModuleContract {
 		// Locking
 		bean.setLockExpirationInSecs(lockExpirationInSecs);
 		bean.setPollIntervalInMillies(deployable.getPollIntervalInMillis());
+		bean.setMaxPollIntervalInMillies(deployable.getMaxPollIntervalInMillis());
+		bean.setMaxTrackedLocks(deployable.getMaxTrackedLocks());
 		// Messaging
 		bean.setMessagingSessionProvider(tfPlatform.messaging().sessionProvider()::provideMessagingSession);
 		bean.setTopicExpiration(deployable.getTopicExpirationInMillis());
 		bean.setTopicName(tfPlatform.messaging().destinations().unlockTopicName());
 
-		configureLockRefreshing(bean, InstanceConfiguration.currentInstance(), lockExpirationInSecs);
+		InstanceConfiguration instanceConfiguration = InstanceConfiguration.currentInstance();
+		configureLockRefreshing(bean, instanceConfiguration, lockExpirationInSecs);
+		registerForStatistics(bean, instanceConfiguration, deployable.getExternalId());
 
 		return bean;
 	}
@@ -160,6 +176,13 @@ public class GmDbLockingModuleSpace implements TribefireModuleContract {
 		});
 	}
 
+	private void registerForStatistics(com.braintribe.model.processing.locking.db.impl.DbLocking bean, //
+			InstanceConfiguration instanceConfiguration, String externalId) {
+
+		statisticsCheckProcessor().register(externalId, bean);
+		instanceConfiguration.onDestroy(() -> statisticsCheckProcessor().unregister(externalId));
+	}
+
 	private int resolveLockExpiration(DbLocking deployable) {
 		int lockExpirationInSecs = deployable.getLockExpirationInSecs();
 		if (lockExpirationInSecs >= 10)
@@ -0,0 +1,155 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.locking.db.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.braintribe.model.processing.locking.db.impl.DbLockQueues.LockWaiter;
+
+/**
+ * Tests for {@link DbLockQueues}
+ */
+public class DbLockQueuesTest {
+
+	private static final String LOCK_ID = "lock";
+
+	private final DbLockQueues queues = new DbLockQueues();
+
+	@Test(timeout = 5000)
+	public void firstWaiterHasTurnImmediately() throws Exception {
+		LockWaiter waiter = queues.enter(LOCK_ID);
+
+		assertThat(waiter.awaitTurn(System.currentTimeMillis())).isTrue();
+		assertThat(queues.waitingThreads(LOCK_ID)).isEqualTo(1);
+
+		waiter.leave(false);
+
+		assertThat(queues.waitingThreads(LOCK_ID)).isEqualTo(0);
+	}
+
+	@Test(timeout = 5000)
+	public void secondWaiterTimesOut() throws Exception {
+		LockWaiter first = queues.enter(LOCK_ID);
+		LockWaiter second = queues.enter(LOCK_ID);
+
+		assertThat(second.awaitTurn(System.currentTimeMillis() + 50)).isFalse();
+
+		second.leave(false);
+		first.leave(false);
+	}
+
+	@Test(timeout = 5000)
+	public void waitersAreServedInFifoOrder() throws Exception {
+		List<Integer> order = new CopyOnWriteArrayList<>();
+		LockWaiter first = queues.enter(LOCK_ID);
+
+		int n = 5;
+		CountDownLatch done = new CountDownLatch(n);
+		for (int i = 0; i < n; i++) {
+			int index = i;
+			LockWaiter waiter = queues.enter(LOCK_ID);
+			new Thread(() -> {
+				try {
+					waiter.awaitTurn(Long.MAX_VALUE);
+					order.add(index);
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				} finally {
+					waiter.leave(true);
+					done.countDown();
+				}
+			}).start();
+		}
+
+		first.leave(true);
+
+		assertThat(done.await(3, TimeUnit.SECONDS)).isTrue();
+		assertThat(order).containsExactly(0, 1, 2, 3, 4);
+		assertThat(queues.waitingThreads(LOCK_ID)).isEqualTo(0);
+	}
+
+	@Test(timeout = 5000)
+	public void unlockSignalWakesContender() throws Exception {
+		LockWaiter waiter = queues.enter(LOCK_ID);
+		long signals = waiter.unlockSignals();
+
+		new Thread(() -> {
+			sleep(50);
+			queues.signalUnlocked(LOCK_ID, false);
+		}).start();
+
+		long start = System.currentTimeMillis();
+		assertThat(waiter.awaitUnlock(signals, 3000)).isTrue();
+		assertThat(System.currentTimeMillis() - start).isLessThan(2000);
+
+		waiter.leave(false);
+	}
+
+	@Test(timeout = 5000)
+	public void awaitUnlockTimesOutWithoutSignal() throws Exception {
+		LockWaiter waiter = queues.enter(LOCK_ID);
+
+		assertThat(waiter.awaitUnlock(waiter.unlockSignals(), 50)).isFalse();
+
+		waiter.leave(false);
+	}
+
+	@Test(timeout = 5000)
+	public void lockedLocallyIsClearedByLocalUnlock() throws Exception {
+		LockWaiter holder = queues.enter(LOCK_ID);
+		LockWaiter waiter = queues.enter(LOCK_ID);
+
+		holder.leave(true);
+		assertThat(waiter.isLockedLocally()).isTrue();
+
+		queues.signalUnlocked(LOCK_ID, false);
+		assertThat(waiter.isLockedLocally()).isTrue();
+
+		queues.signalUnlocked(LOCK_ID, true);
+		assertThat(waiter.isLockedLocally()).isFalse();
+
+		waiter.leave(false);
+	}
+
+	@Test(timeout = 5000)
+	public void hadToWaitOnlyIfNotFirstOrAwaitingUnlock() throws Exception {
+		LockWaiter first = queues.enter(LOCK_ID);
+		assertThat(first.awaitTurn(System.currentTimeMillis())).isTrue();
+		assertThat(first.hadToWait()).isFalse();
+
+		LockWaiter second = queues.enter(LOCK_ID);
+		assertThat(second.awaitTurn(System.currentTimeMillis())).isFalse();
+		assertThat(second.hadToWait()).isTrue();
+
+		first.awaitUnlock(first.unlockSignals(), 0);
+		assertThat(first.hadToWait()).isTrue();
+
+		second.leave(false);
+		first.leave(false);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+}
@@ -13,8 +13,12 @@ package com.braintribe.model.processing.locking.db.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.Lock;
@@ -22,6 +26,7 @@ import java.util.concurrent.locks.Lock;
 import org.junit.Test;
 
 import com.braintribe.common.db.DbVendor;
+import com.braintribe.model.processing.locking.db.impl.DbLockStatistics.LockStatistics;
 import com.braintribe.model.processing.locking.db.test.wire.contract.DbLockingTestContract;
 import com.braintribe.utils.StringTools;
 import com.google.common.util.concurrent.SimpleTimeLimiter;
@@ -96,10 +101,102 @@ public class DbLockingTest extends AbstractDbLockingTestBase {
 		runInParallelWithTimeout(3, TimeUnit.SECONDS, lock::lock);
 	}
 
+	/** An unlock on the same node wakes up the waiting thread right away, i.e. it does not wait for the next poll. */
+	@Test(timeout = 15000)
+	public void testUnlockWakesWaiterBeforePollInterval() throws Exception {
+		DbLocking node = newLocking(5000);
+
+		Lock lock = node.forIdentifier(IDENTIFIER).writeLock();
+		lock.lock();
+
+		ExecutorService pool = Executors.newFixedThreadPool(1);
+		try {
+			Future<Long> acquiredAt = pool.submit(() -> {
+				Lock waitingLock = node.forIdentifier(IDENTIFIER).writeLock();
+				assertThat(waitingLock.tryLock(10, TimeUnit.SECONDS)).isTrue();
+				long result = System.currentTimeMillis();
+				waitingLock.unlock();
+				return result;
+			});
+
+			awaitWaitingThreads(node, 1);
+			// let the waiter fail its first DB attempt and start waiting for the poll interval
+			Thread.sleep(200);
+
+			long unlockedAt = System.currentTimeMillis();
+			lock.unlock();
+
+			assertThat(acquiredAt.get() - unlockedAt).isLessThan(1000);
+
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/** Threads of one node waiting for a lock held by another node are queued locally, so just one of them polls the DB. */
+	@Test(timeout = 15000)
+	public void testOneDbContenderPerNode() throws Exception {
+		int pollMs = 50;
+		int holdMs = 1000;
+		int waiters = 5;
+
+		DbLocking holderNode = newLocking(pollMs);
+		DbLocking waitingNode = newLocking(pollMs);
+
+		Lock lock = holderNode.forIdentifier(IDENTIFIER).writeLock();
+		lock.lock();
+
+		ExecutorService pool = Executors.newFixedThreadPool(waiters);
+		try {
+			CountDownLatch acquired = new CountDownLatch(waiters);
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < waiters; i++)
+				futures.add(pool.submit(() -> {
+					Lock waitingLock = waitingNode.forIdentifier(IDENTIFIER).writeLock();
+					waitingLock.lock();
+					acquired.countDown();
+					waitingLock.unlock();
+				}));
+
+			awaitWaitingThreads(waitingNode, waiters);
+			Thread.sleep(holdMs);
+			lock.unlock();
+
+			assertThat(acquired.await(10, TimeUnit.SECONDS)).isTrue();
+			for (Future<?> future : futures)
+				future.get();
+
+		} finally {
+			pool.shutdown();
+		}
+
+		LockStatistics stats = waitingNode.getLockStatistics().getLocks().get(IDENTIFIER);
+		assertThat(stats.getAcquisitions()).isEqualTo(waiters);
+		assertThat(stats.getContendedAcquisitions()).isEqualTo(waiters);
+		// one contender polling while the lock is held, plus one attempt per waiter once it is released
+		// without the local queue, every waiter would poll on its own, i.e. at least waiters * holdMs / pollMs attempts
+		assertThat(stats.getDbAttempts()).isLessThan(2 * holdMs / pollMs + 2 * waiters);
+	}
+
 	// ###############################################
 	// ## . . . . . . . . Helpers . . . . . . . . . ##
 	// ###############################################
 
+	private DbLocking newLocking(int pollIntervalInMillies) {
+		DbLocking result = new DbLocking();
+		result.setDataSource(dataSource);
+		result.setPollIntervalInMillies(pollIntervalInMillies);
+		result.setMaxPollIntervalInMillies(pollIntervalInMillies);
+		result.postConstruct();
+
+		return result;
+	}
+
+	private void awaitWaitingThreads(DbLocking node, int count) throws InterruptedException {
+		while (node.getWaitingThreads(IDENTIFIER) < count)
+			Thread.sleep(10);
+	}
+
 	private void runInParallelWithTimeout(long timeout, TimeUnit unit, Runnable runnable) throws TimeoutException, InterruptedException {
 		ExecutorService pool = Executors.newFixedThreadPool(1);
 
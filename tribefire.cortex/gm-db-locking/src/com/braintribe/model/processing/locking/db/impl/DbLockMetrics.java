@@ -0,0 +1,104 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.locking.db.impl;
+
+import static com.braintribe.utils.lcd.CollectionTools2.newTreeMap;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.braintribe.model.processing.locking.db.impl.DbLockStatistics.LockStatistics;
+
+/**
+ * Collects the numbers behind {@link DbLockStatistics}. This class is thread-safe.
+ */
+/* package */ class DbLockMetrics {
+
+	private final int maxTrackedLocks;
+
+	private final LongAdder unlockNotifications = new LongAdder();
+	private final Map<String, LockMetrics> locks = new ConcurrentHashMap<>();
+	private final LockMetrics otherLocks = new LockMetrics();
+
+	public DbLockMetrics(int maxTrackedLocks) {
+		this.maxTrackedLocks = maxTrackedLocks;
+	}
+
+	public void onUnlockNotification() {
+		unlockNotifications.increment();
+	}
+
+	/**
+	 * @param contended
+	 *            whether the caller had to wait for the lock, either for other threads of this node or for an unlock
+	 */
+	public void onTryLock(String lockId, boolean acquired, boolean contended, int dbAttempts, long waitTime) {
+		acquireLockMetrics(lockId).onTryLock(acquired, contended, dbAttempts, waitTime);
+	}
+
+	private LockMetrics acquireLockMetrics(String lockId) {
+		LockMetrics result = locks.get(lockId);
+		if (result != null)
+			return result;
+
+		// the size check is not atomic, so we might track a few locks more than configured, which is fine
+		if (locks.size() >= maxTrackedLocks)
+			return otherLocks;
+
+		return locks.computeIfAbsent(lockId, id -> new LockMetrics());
+	}
+
+	public DbLockStatistics snapshot() {
+		Map<String, LockStatistics> lockStats = newTreeMap();
+		locks.forEach((id, metrics) -> lockStats.put(id, metrics.snapshot()));
+
+		if (otherLocks.hasData())
+			lockStats.put(DbLocking.OTHER_LOCKS_KEY, otherLocks.snapshot());
+
+		return new DbLockStatistics(unlockNotifications.sum(), lockStats);
+	}
+
+	private static class LockMetrics {
+		private final LongAdder acquisitions = new LongAdder();
+		private final LongAdder contendedAcquisitions = new LongAdder();
+		private final LongAdder failures = new LongAdder();
+		private final LongAdder dbAttempts = new LongAdder();
+		private final LongAdder totalWaitTime = new LongAdder();
+		private final AtomicLong maxWaitTime = new AtomicLong();
+
+		public void onTryLock(boolean acquired, boolean contended, int attempts, long waitTime) {
+			if (acquired) {
+				acquisitions.increment();
+				if (contended)
+					contendedAcquisitions.increment();
+			} else {
+				failures.increment();
+			}
+
+			dbAttempts.add(attempts);
+			totalWaitTime.add(waitTime);
+			maxWaitTime.accumulateAndGet(waitTime, Math::max);
+		}
+
+		public boolean hasData() {
+			return acquisitions.sum() + failures.sum() > 0;
+		}
+
+		public LockStatistics snapshot() {
+			return new LockStatistics(acquisitions.sum(), contendedAcquisitions.sum(), failures.sum(), dbAttempts.sum(), totalWaitTime.sum(),
+					maxWaitTime.get());
+		}
+	}
+
+}
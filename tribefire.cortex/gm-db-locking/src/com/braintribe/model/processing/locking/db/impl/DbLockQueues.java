@@ -0,0 +1,189 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.locking.db.impl;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local (i.e. per node) queues of threads waiting for a {@link DbLocking} lock, one queue per lock id.
+ * <p>
+ * Only the first waiter in a queue contends for the lock in the DB, the others wait until it either acquires the lock or gives up. This means
+ * waiters of one node are served in FIFO order and the DB only sees one contender per lock id from this node.
+ * <p>
+ * The contender does not poll the DB blindly, it rather {@link LockWaiter#awaitUnlock(long, long) waits} until an unlock is
+ * {@link #signalUnlocked(String, boolean) signaled} (by a local unlock or a notification from another node), or until the given poll interval elapses.
+ * <p>
+ * A queue only exists while there is at least one waiter.
+ */
+/* package */ class DbLockQueues {
+
+	private final Map<String, LockQueue> queues = new ConcurrentHashMap<>();
+
+	/** Appends a new waiter for given lock id, which must eventually {@link LockWaiter#leave(boolean) leave} the queue. */
+	public LockWaiter enter(String lockId) {
+		LockWaiter waiter = new LockWaiter(lockId);
+
+		queues.compute(lockId, (id, queue) -> {
+			if (queue == null)
+				queue = new LockQueue();
+
+			synchronized (queue) {
+				queue.waiters.addLast(waiter);
+			}
+
+			waiter.queue = queue;
+			return queue;
+		});
+
+		return waiter;
+	}
+
+	/**
+	 * Wakes up the contender for given lock id, if any.
+	 * 
+	 * @param local
+	 *            <tt>true</tt> iff the lock was released by this node
+	 */
+	public void signalUnlocked(String lockId, boolean local) {
+		LockQueue queue = queues.get(lockId);
+		if (queue == null)
+			return;
+
+		synchronized (queue) {
+			if (local)
+				queue.lockedLocally = false;
+
+			queue.unlockSignals++;
+			queue.notifyAll();
+		}
+	}
+
+	/** Number of threads of this node currently waiting for given lock. */
+	public int waitingThreads(String lockId) {
+		LockQueue queue = queues.get(lockId);
+		if (queue == null)
+			return 0;
+
+		synchronized (queue) {
+			return queue.waiters.size();
+		}
+	}
+
+	private static class LockQueue {
+		final Deque<LockWaiter> waiters = new ArrayDeque<>();
+		long unlockSignals;
+		/** The lock was acquired by a waiter of this queue and was not released yet, so it makes no sense to try the DB before an unlock. */
+		boolean lockedLocally;
+	}
+
+	/* package */ class LockWaiter {
+		private final String lockId;
+		private LockQueue queue;
+		/** Only accessed by the waiting thread. */
+		private boolean hadToWait;
+
+		private LockWaiter(String lockId) {
+			this.lockId = lockId;
+		}
+
+		/**
+		 * Waits until this waiter is the first one in the queue.
+		 * 
+		 * @return <tt>false</tt> iff the deadline has passed before that
+		 */
+		public boolean awaitTurn(long deadline) throws InterruptedException {
+			synchronized (queue) {
+				while (queue.waiters.peekFirst() != this) {
+					hadToWait = true;
+
+					long millisLeft = deadline - System.currentTimeMillis();
+					if (millisLeft <= 0)
+						return false;
+
+					queue.wait(millisLeft);
+				}
+
+				return true;
+			}
+		}
+
+		/** @return number of unlocks signaled so far, to be passed to {@link #awaitUnlock(long, long)} */
+		public long unlockSignals() {
+			synchronized (queue) {
+				return queue.unlockSignals;
+			}
+		}
+
+		public boolean isLockedLocally() {
+			synchronized (queue) {
+				return queue.lockedLocally;
+			}
+		}
+
+		/**
+		 * Waits until an unlock is signaled after given number of unlock signals was observed, but no longer than given time.
+		 * 
+		 * @return <tt>true</tt> iff an unlock was signaled
+		 */
+		public boolean awaitUnlock(long unlockSignals, long maxWaitMs) throws InterruptedException {
+			hadToWait = true;
+
+			long deadline = System.currentTimeMillis() + maxWaitMs;
+
+			synchronized (queue) {
+				while (queue.unlockSignals == unlockSignals) {
+					long millisLeft = deadline - System.currentTimeMillis();
+					if (millisLeft <= 0)
+						return false;
+
+					queue.wait(millisLeft);
+				}
+
+				return true;
+			}
+		}
+
+		/**
+		 * @return <tt>true</tt> iff this waiter was not first in the queue or was {@link #awaitUnlock(long, long) waiting for an unlock}, i.e. the
+		 *         lock was contended
+		 */
+		public boolean hadToWait() {
+			return hadToWait;
+		}
+
+		/**
+		 * Removes this waiter from the queue, and if it was the first one, lets the next one contend.
+		 * 
+		 * @param acquired
+		 *            whether this waiter acquired the lock
+		 */
+		public void leave(boolean acquired) {
+			queues.computeIfPresent(lockId, (id, q) -> {
+				synchronized (q) {
+					if (acquired)
+						q.lockedLocally = true;
+
+					boolean wasFirst = q.waiters.peekFirst() == this;
+					q.waiters.remove(this);
+					if (wasFirst)
+						q.notifyAll();
+
+					return q.waiters.isEmpty() ? null : q;
+				}
+			});
+		}
+	}
+
+}
@@ -0,0 +1,102 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.locking.db.impl;
+
+import java.util.Map;
+
+/**
+ * Statistics about acquiring the locks of a {@link DbLocking}, see {@link DbLocking#getLockStatistics()}. All the times are in milliseconds.
+ */
+public class DbLockStatistics {
+
+	private final long unlockNotifications;
+	private final Map<String, LockStatistics> locks;
+
+	public DbLockStatistics(long unlockNotifications, Map<String, LockStatistics> locks) {
+		this.unlockNotifications = unlockNotifications;
+		this.locks = locks;
+	}
+
+	/** Number of unlock notifications received from other nodes. */
+	public long getUnlockNotifications() {
+		return unlockNotifications;
+	}
+
+	/**
+	 * Statistics per lock id. Only a limited number of lock ids is tracked individually (see {@link DbLocking#setMaxTrackedLocks(int)}), the
+	 * remaining ones are summed up under {@value DbLocking#OTHER_LOCKS_KEY}.
+	 */
+	public Map<String, LockStatistics> getLocks() {
+		return locks;
+	}
+
+	@Override
+	public String toString() {
+		return "DbLockStatistics[unlockNotifications=" + unlockNotifications + ", locks=" + locks + "]";
+	}
+
+	public static class LockStatistics {
+
+		private final long acquisitions;
+		private final long contendedAcquisitions;
+		private final long failures;
+		private final long dbAttempts;
+		private final long totalWaitTime;
+		private final long maxWaitTime;
+
+		public LockStatistics(long acquisitions, long contendedAcquisitions, long failures, long dbAttempts, long totalWaitTime, long maxWaitTime) {
+			this.acquisitions = acquisitions;
+			this.contendedAcquisitions = contendedAcquisitions;
+			this.failures = failures;
+			this.dbAttempts = dbAttempts;
+			this.totalWaitTime = totalWaitTime;
+			this.maxWaitTime = maxWaitTime;
+		}
+
+		/** Number of times the lock was acquired. */
+		public long getAcquisitions() {
+			return acquisitions;
+		}
+
+		/** Number of times the lock was acquired, but only after waiting, either for other threads of this node or for the lock to be released. */
+		public long getContendedAcquisitions() {
+			return contendedAcquisitions;
+		}
+
+		/** Number of times the lock was not acquired within the given time, e.g. when {@code tryLock()} returned <tt>false</tt>. */
+		public long getFailures() {
+			return failures;
+		}
+
+		/** Number of attempts to acquire the lock in the DB. */
+		public long getDbAttempts() {
+			return dbAttempts;
+		}
+
+		/** Total time spent waiting for the lock, both successfully and not. */
+		public long getTotalWaitTime() {
+			return totalWaitTime;
+		}
+
+		public long getMaxWaitTime() {
+			return maxWaitTime;
+		}
+
+		@Override
+		public String toString() {
+			return "[acquisitions=" + acquisitions + ", contendedAcquisitions=" + contendedAcquisitions + ", failures=" + failures + ", dbAttempts="
+					+ dbAttempts + ", totalWaitTime=" + totalWaitTime + ", maxWaitTime=" + maxWaitTime + "]";
+		}
+
+	}
+
+}
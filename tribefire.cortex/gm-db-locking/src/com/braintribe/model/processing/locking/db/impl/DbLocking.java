@@ -21,6 +21,8 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
@@ -37,6 +39,8 @@ import com.braintribe.logging.Logger;
 import com.braintribe.model.messaging.Message;
 import com.braintribe.model.messaging.Topic;
 import com.braintribe.model.processing.lock.api.Locking;
+import com.braintribe.model.processing.lock.db.impl.UnlockedMessage;
+import com.braintribe.model.processing.locking.db.impl.DbLockQueues.LockWaiter;
 import com.braintribe.provider.Box;
 import com.braintribe.transport.messaging.api.MessageConsumer;
 import com.braintribe.transport.messaging.api.MessageProducer;
@@ -64,19 +68,40 @@ import com.braintribe.utils.lcd.NullSafe;
  * Should a node fail to update the expiration date, another node will consider such entry as stale and will try to acquire the lock again.
  * <p>
  * For this reason it is advised to configure the refreshing interval significantly smaller than the lock expiration, for example one half of it.
+ * 
+ * <h3>Waiting for a lock</h3>
+ * 
+ * Threads of one node waiting for the same lock are queued locally in FIFO order, and only the first one contends for the lock in the DB (see
+ * {@link DbLockQueues}). Releasing a lock wakes up the local contender directly, and, if {@link #setMessagingSessionProvider(Supplier) messaging}
+ * is configured, also publishes an unlock notification to wake up the contenders on other nodes. The DB is still polled as a fallback (e.g. for
+ * expired locks or lost notifications), with the interval growing from {@link #setPollIntervalInMillies(int)} up to
+ * {@link #setMaxPollIntervalInMillies(int)} when notifications are available.
+ * <p>
+ * The unlock notification carries the lock id both as the message body (a plain String, which is what older versions send and expect) and as the
+ * <tt>lockId</tt> message property. When receiving, the property is preferred, and for the body an {@link UnlockedMessage} is
+ * accepted as well.
+ * <p>
+ * Wait times and contention are tracked per lock, see {@link #getLockStatistics()}.
  */
 public class DbLocking implements Locking, LifecycleAware {
 
 	private static final Logger log = Logger.getLogger(DbLocking.class);
 
 	public static final int DEFAULT_POLL_INTERVAL_MS = 100;
+	public static final int DEFAULT_MAX_POLL_INTERVAL_MS = 1000;
 	public static final int DEFAULT_LOCK_EXPIRATION_MS = 5 * 60 * 1000;
+	public static final int DEFAULT_MAX_TRACKED_LOCKS = 1000;
+	public static final String OTHER_LOCKS_KEY = "<other>";
+
+	private static final String SENDER_PROPERTY = "sender";
+	private static final String LOCK_ID_PROPERTY = "lockId";
 
 	/* package */ DataSource dataSource;
 
 	private Supplier<MessagingSession> messagingSessionProvider;
 
 	private int pollIntervalInMillies = DEFAULT_POLL_INTERVAL_MS;
+	private int maxPollIntervalInMillies = DEFAULT_MAX_POLL_INTERVAL_MS;
 	/* package */ int lockExpirationInMs = DEFAULT_LOCK_EXPIRATION_MS;
 
 	private boolean autoUpdateSchema = true;
@@ -85,11 +110,17 @@ public class DbLocking implements Locking, LifecycleAware {
 	private long topicExpiration = 5000L;
 	private Topic topic;
 	private MessageProducer messageProducer;
+	private MessageConsumer messageConsumer;
 
-	protected boolean messagingInitialized = false;
+	protected volatile boolean messagingInitialized = false;
 	private MessagingSession messagingSession;
+	private volatile boolean notificationsEnabled;
+
+	private final String instanceId = UUID.randomUUID().toString();
 
 	private final DbLockRefresher refresher = new DbLockRefresher(this);
+	private final DbLockQueues lockQueues = new DbLockQueues();
+	private DbLockMetrics metrics = new DbLockMetrics(DEFAULT_MAX_TRACKED_LOCKS);
 
 	// @formatter:off
 	@Required     public void setDataSource(DataSource dataSource) { this.dataSource = dataSource; }
@@ -102,6 +133,19 @@ public class DbLocking implements Locking, LifecycleAware {
 	 * Default value is {@value #DEFAULT_POLL_INTERVAL_MS} 
 	 */
 	@Configurable public void setPollIntervalInMillies(int pollIntervalInMillies) { this.pollIntervalInMillies = pollIntervalInMillies; }
+	/**
+	 * Upper bound for the re-try interval when unlock notifications are available via messaging. In that case the interval is doubled after
+	 * every unsuccessful try, as a waiting thread is woken up when the lock is released anyway.
+	 * <p>
+	 * Default value is {@value #DEFAULT_MAX_POLL_INTERVAL_MS}
+	 */
+	@Configurable public void setMaxPollIntervalInMillies(int maxPollIntervalInMillies) { this.maxPollIntervalInMillies = maxPollIntervalInMillies; }
+	/**
+	 * Maximum number of lock ids for which {@link #getLockStatistics() statistics} are kept individually.
+	 * <p>
+	 * Default value is {@value #DEFAULT_MAX_TRACKED_LOCKS}
+	 */
+	@Configurable public void setMaxTrackedLocks(int maxTrackedLocks) { this.metrics = new DbLockMetrics(maxTrackedLocks); }
 	@Configurable public void setLockExpirationInSecs(int lockExpirationInSecs) { this.lockExpirationInMs = 1000 * lockExpirationInSecs; }
 
 	@Configurable public void setTopicExpiration(long topicExpiration) { this.topicExpiration = topicExpiration; }
@@ -169,18 +213,25 @@ public class DbLocking implements Locking, LifecycleAware {
 
 	@Override
 	public void preDestroy() {
+		if (messageConsumer != null) {
+			try {
+				messageConsumer.close();
+			} catch (Exception e) {
+				log.warn("error while closing message consumer", e);
+			}
+		}
 		if (messageProducer != null) {
 			try {
 				messageProducer.close();
 			} catch (Exception e) {
-				log.warn("error while closing message producer");
+				log.warn("error while closing message producer", e);
 			}
 		}
 		if (messagingSession != null) {
 			try {
 				messagingSession.close();
 			} catch (MessagingException e) {
-				log.warn("error while closing messaging session");
+				log.warn("error while closing messaging session", e);
 			}
 		}
 	}
@@ -261,33 +312,44 @@ public class DbLocking implements Locking, LifecycleAware {
 		}
 	}
 
-	protected MessageConsumer listenForUnlockNotification(String id, Object monitor) {
-		ensureMessagingInitialized();
-		if (messagingSession != null) {
-			try {
-				MessageConsumer messageConsumer = messagingSession.createMessageConsumer(topic);
-				messageConsumer.setMessageListener(message -> onUnlockMessage(id, monitor, message));
+	private void onUnlockMessage(Message message) {
+		Map<String, Object> properties = message.getProperties();
+		if (properties != null && instanceId.equals(properties.get(SENDER_PROPERTY)))
+			return; // local unlocks are signaled directly
 
-				return messageConsumer;
+		String lockId = unlockedLockId(message);
+		if (lockId == null)
+			return;
 
-			} catch (MessagingException e) {
-				log.error("error while adding message listener for a lock queue", e);
-				return null;
-			}
-		}
-		return null;
+		metrics.onUnlockNotification();
+		lockQueues.signalUnlocked(lockId, false);
 	}
 
-	private void onUnlockMessage(String id, Object monitor, Message message) {
+	private static String unlockedLockId(Message message) {
+		Map<String, Object> properties = message.getProperties();
+		Object lockId = properties == null ? null : properties.get(LOCK_ID_PROPERTY);
+		if (lockId instanceof String)
+			return (String) lockId;
+
 		Object body = message.getBody();
-		if (!(body instanceof String))
-			return;
+		if (body instanceof UnlockedMessage)
+			return ((UnlockedMessage) body).getLockId();
 
-		String lockId = (String) body;
-		if (lockId.equals(id))
-			synchronized (monitor) {
-				monitor.notify();
-			}
+		// older versions send just the lock id
+		if (body instanceof String)
+			return (String) body;
+
+		return null;
+	}
+
+	/** Returns the current {@link DbLockStatistics statistics} about acquiring the locks. */
+	public DbLockStatistics getLockStatistics() {
+		return metrics.snapshot();
+	}
+
+	/** Number of threads of this node currently waiting for the lock with given id. */
+	public int getWaitingThreads(String id) {
+		return lockQueues.waitingThreads(truncateTo240Chars(id));
 	}
 
 	/**
@@ -343,42 +405,48 @@ public class DbLocking implements Locking, LifecycleAware {
 		}
 
 		private boolean tryLockMs(long tryMs) throws InterruptedException {
-			long now = System.currentTimeMillis();
-			long tryUntil = now + tryMs;
+			long start = System.currentTimeMillis();
+			long tryUntil = start + tryMs;
 			if (tryUntil < 0)
 				tryUntil = Long.MAX_VALUE;
 
+			ensureMessagingInitialized();
+
 			Thread currentThread = Thread.currentThread();
 			String oldThreadName = currentThread.getName();
 			currentThread.setName(oldThreadName + " > waiting for lock " + rwLock.id);
+
+			LockWaiter waiter = lockQueues.enter(rwLock.id);
+			boolean acquired = false;
+			int dbAttempts = 0;
 			try {
-				Box<Boolean> successIndicator = new Box<>();
+				long pollMs = pollIntervalInMillies;
 				while (true) {
-					JdbcTools.withConnection(dataSource, true, () -> "Trying to acquire lock " + rwLock.id, connection -> {
-						if (tryInsert(connection)) {
-							successIndicator.value = Boolean.TRUE;
-							return;
-						}
-
-						if (!deleteLockIfExpired(connection))
-							return;
-
-						if (tryInsert(connection)) {
-							successIndicator.value = Boolean.TRUE;
-							return;
-						}
-					});
-
-					if (successIndicator.value != null) {
+					if (!waiter.awaitTurn(tryUntil))
+						return false;
+
+					long unlockSignals = waiter.unlockSignals();
+
+					// no need to ask the DB while the lock is held by another thread of this node, its unlock will wake us
+					if (waiter.isLockedLocally()) {
+						if (!waitForUnlock(waiter, unlockSignals, tryUntil, pollMs))
+							return false;
+
+						unlockSignals = waiter.unlockSignals();
+					}
+
+					dbAttempts++;
+					if (tryAcquireInDb()) {
 						refresher.startRefreshing(rwLock);
+						acquired = true;
 						return true;
 					}
 
-					long millisLeft = tryUntil - System.currentTimeMillis();
-					if (millisLeft <= 0)
+					if (!waitForUnlock(waiter, unlockSignals, tryUntil, pollMs))
 						return false;
 
-					waitBeforeTryLockAgain(millisLeft);
+					if (notificationsEnabled)
+						pollMs = Math.min(2 * pollMs, Math.max(maxPollIntervalInMillies, pollIntervalInMillies));
 				}
 
 			} catch (InterruptedException e) {
@@ -388,10 +456,43 @@ public class DbLocking implements Locking, LifecycleAware {
 				throw new RuntimeException("Could not get lock.", e);
 
 			} finally {
+				waiter.leave(acquired);
+				metrics.onTryLock(rwLock.id, acquired, waiter.hadToWait(), dbAttempts, System.currentTimeMillis() - start);
 				currentThread.setName(oldThreadName);
 			}
 		}
 
+		/** @return <tt>false</tt> iff the deadline has passed */
+		private boolean waitForUnlock(LockWaiter waiter, long unlockSignals, long tryUntil, long pollMs) throws InterruptedException {
+			long millisLeft = tryUntil - System.currentTimeMillis();
+			if (millisLeft <= 0)
+				return false;
+
+			waiter.awaitUnlock(unlockSignals, Math.min(millisLeft, pollMs));
+			return true;
+		}
+
+		private boolean tryAcquireInDb() {
+			Box<Boolean> successIndicator = new Box<>();
+
+			JdbcTools.withConnection(dataSource, true, () -> "Trying to acquire lock " + rwLock.id, connection -> {
+				if (tryInsert(connection)) {
+					successIndicator.value = Boolean.TRUE;
+					return;
+				}
+
+				if (!deleteLockIfExpired(connection))
+					return;
+
+				if (tryInsert(connection)) {
+					successIndicator.value = Boolean.TRUE;
+					return;
+				}
+			});
+
+			return successIndicator.value != null;
+		}
+
 		// id, expires, created, caller, machine
 		private boolean tryInsert(Connection c) {
 			long current = System.currentTimeMillis();
@@ -473,28 +574,6 @@ public class DbLocking implements Locking, LifecycleAware {
 			return deleted.value > 0;
 		}
 
-		private void waitBeforeTryLockAgain(long millisLeft) throws InterruptedException {
-			Object monitor = new Object();
-
-			MessageConsumer consumer = listenForUnlockNotification(rwLock.id, monitor);
-
-			try {
-				long waitMillies = Math.min(millisLeft, pollIntervalInMillies);
-
-				synchronized (monitor) {
-					monitor.wait(waitMillies);
-				}
-
-			} finally {
-				if (consumer != null) {
-					try {
-						consumer.close();
-					} catch (MessagingException e) {
-						log.error("error while closing message consumer", e);
-					}
-				}
-			}
-		}
 		@Override
 		public void unlock() {
 			refresher.stopRefreshing(rwLock);
@@ -504,6 +583,7 @@ public class DbLocking implements Locking, LifecycleAware {
 					deleteLockCreatedAt(connection, rwLock.created);
 				});
 
+				lockQueues.signalUnlocked(rwLock.id, true);
 				notifyUnlock(rwLock.id);
 				return;
 
@@ -523,8 +603,11 @@ public class DbLocking implements Locking, LifecycleAware {
 		ensureMessagingInitialized();
 		if (messagingSession != null && messageProducer != null) {
 			try {
+				// the body is the plain lock id, so that older versions (which only accept a String body) are notified too
 				Message message = messagingSession.createMessage();
 				message.setBody(id);
+				message.getProperties().put(SENDER_PROPERTY, instanceId);
+				message.getProperties().put(LOCK_ID_PROPERTY, id);
 				message.setTimeToLive(topicExpiration);
 
 				messageProducer.sendMessage(message);
@@ -539,15 +622,26 @@ public class DbLocking implements Locking, LifecycleAware {
 		if (messagingInitialized)
 			return;
 
-		messagingInitialized = true;
+		synchronized (this) {
+			if (messagingInitialized)
+				return;
 
-		if (messagingSessionProvider == null)
-			return;
+			if (messagingSessionProvider != null)
+				initializeMessaging();
 
+			messagingInitialized = true;
+		}
+	}
+
+	private void initializeMessaging() {
 		try {
 			messagingSession = messagingSessionProvider.get();
 			topic = messagingSession.createTopic(topicName);
 			messageProducer = messagingSession.createMessageProducer(topic);
+			messageConsumer = messagingSession.createMessageConsumer(topic);
+			messageConsumer.setMessageListener(this::onUnlockMessage);
+
+			notificationsEnabled = true;
 
 		} catch (MessagingException e) {
 			log.error("error while retrieving messaging components", e);
@@ -14,6 +14,8 @@ package com.braintribe.model.access.collaboration.distributed.api;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
@@ -169,6 +171,46 @@ public class JdbcDcsaSharedStorageTest {
 		assertThat(resultOp.getId().toString()).isEqualTo(csaOperation2.getId().toString());
 	}
 
+	@Test
+	public void testChangeFeedInBatches() throws Exception {
+
+		JdbcDcsaStorage storage = new JdbcDcsaStorage();
+		storage.setProjectId("storage-feed-test-" + UUID.randomUUID().toString());
+		storage.setDataSource(dbHandler.dataSource());
+		storage.setLockManager(dbHandler.lockManager());
+		storage.setMarshaller(new JsonStreamMarshaller());
+		storage.setChangeFeedBatchSize(2);
+		storage.postConstruct();
+
+		String accessId = UUID.randomUUID().toString();
+
+		List<String> revisions = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			CsaAppendDataManipulation csaOperation = CsaAppendDataManipulation.T.create();
+			revisions.add(storage.storeOperation(accessId, csaOperation));
+		}
+
+		// 5 operations, i.e. 3 batches, the last one being incomplete
+		DcsaIterable iterable = storage.readOperations(accessId, revisions.get(0));
+		assertThat(iterable.getLastReadMarker()).isEqualTo(revisions.get(5));
+
+		List<String> readIds = new ArrayList<>();
+		for (CsaOperation op : iterable)
+			readIds.add(op.getId());
+
+		assertThat(readIds).isEqualTo(revisions.subList(1, 6));
+
+		// 2 operations, i.e. one full batch and an empty one
+		iterable = storage.readOperations(accessId, revisions.get(3));
+		assertThat(iterable.getLastReadMarker()).isEqualTo(revisions.get(5));
+		assertThat(iterable).hasSize(2);
+
+		// nothing new
+		iterable = storage.readOperations(accessId, revisions.get(5));
+		assertThat(iterable.getLastReadMarker()).isNull();
+		assertThat(iterable).isEmpty();
+	}
+
 	@Test
 	public void testResource() throws Exception {
 
@@ -0,0 +1,173 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.access.collaboration.distributed.api;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import com.braintribe.cfg.Configurable;
+import com.braintribe.cfg.DestructionAware;
+import com.braintribe.logging.Logger;
+import com.braintribe.model.access.collaboration.distributed.api.model.CsaOperation;
+import com.braintribe.model.messaging.Message;
+import com.braintribe.model.messaging.Topic;
+import com.braintribe.transport.messaging.api.MessageConsumer;
+import com.braintribe.transport.messaging.api.MessageProducer;
+import com.braintribe.transport.messaging.api.MessagingException;
+import com.braintribe.transport.messaging.api.MessagingSession;
+
+/**
+ * Broadcasts the information that a new {@link CsaOperation} was stored for an access to all the nodes of the cluster via a messaging topic, and
+ * dispatches such broadcasts to the local listeners, thus implementing {@link DcsaSharedStorage#addOperationsListener(String, Runnable)}.
+ * <p>
+ * The message only contains the key of the access, which consists of the project id and the access id (see
+ * {@link #notificationKey(String, String)}), so the receiving side still has to read the operations from the storage. As every storage
+ * implementation uses the same key, the nodes are notified no matter which implementation stored the operation.
+ * <p>
+ * If no {@link #setMessagingSessionProvider(Supplier) messaging} is configured (or it cannot be initialized), notifications are not supported and
+ * {@link #addListener(String, Runnable)} returns <tt>false</tt>.
+ */
+public class DcsaOperationsNotifier implements DestructionAware {
+
+	private static final Logger log = Logger.getLogger(DcsaOperationsNotifier.class);
+
+	public static final String DEFAULT_TOPIC_NAME = "tf-dcsa-operations";
+
+	private Supplier<MessagingSession> messagingSessionProvider;
+	private String topicName = DEFAULT_TOPIC_NAME;
+	private long topicExpiration = 5000L;
+
+	private final Map<String, List<Runnable>> listeners = new ConcurrentHashMap<>();
+
+	private volatile boolean messagingInitialized;
+	private MessagingSession messagingSession;
+	private MessageProducer messageProducer;
+	private MessageConsumer messageConsumer;
+
+	// @formatter:off
+	@Configurable public void setMessagingSessionProvider(Supplier<MessagingSession> messagingSessionProvider) { this.messagingSessionProvider = messagingSessionProvider; }
+	/** Default value is {@value #DEFAULT_TOPIC_NAME} */
+	@Configurable public void setTopicName(String topicName) { this.topicName = topicName; }
+	@Configurable public void setTopicExpiration(long topicExpiration) { this.topicExpiration = topicExpiration; }
+	// @formatter:on
+
+	/** @return <tt>true</tt> iff the listener was registered, i.e. notifications are supported. */
+	public boolean addListener(String projectId, String accessId, Runnable listener) {
+		ensureMessagingInitialized();
+		if (messageConsumer == null)
+			return false;
+
+		listeners.computeIfAbsent(notificationKey(projectId, accessId), k -> new CopyOnWriteArrayList<>()).add(listener);
+		return true;
+	}
+
+	public void removeListener(String projectId, String accessId, Runnable listener) {
+		List<Runnable> keyListeners = listeners.get(notificationKey(projectId, accessId));
+		if (keyListeners != null)
+			keyListeners.remove(listener);
+	}
+
+	/**
+	 * Broadcasts the information that a new operation was stored for given access. The access id is the one given by the DCSA, i.e. not adjusted
+	 * (e.g. truncated) by the storage. This method never throws an exception.
+	 */
+	public void notifyOperationStored(String projectId, String accessId) {
+		String key = notificationKey(projectId, accessId);
+
+		ensureMessagingInitialized();
+		if (messageProducer == null)
+			return;
+
+		try {
+			Message message = messagingSession.createMessage();
+			message.setBody(key);
+			message.setTimeToLive(topicExpiration);
+
+			messageProducer.sendMessage(message);
+
+		} catch (Exception e) {
+			log.error("Error while notifying about a new DCSA operation for: " + key, e);
+		}
+	}
+
+	/** The key identifying the access within the cluster, which is the body of the notification message. */
+	public static String notificationKey(String projectId, String accessId) {
+		return projectId == null ? accessId : projectId + "/" + accessId;
+	}
+
+	private void onMessage(Message message) {
+		Object body = message.getBody();
+		if (!(body instanceof String))
+			return;
+
+		List<Runnable> keyListeners = listeners.get(body);
+		if (keyListeners == null)
+			return;
+
+		for (Runnable listener : keyListeners) {
+			try {
+				listener.run();
+			} catch (Exception e) {
+				log.error("Error in DCSA operations listener for: " + body, e);
+			}
+		}
+	}
+
+	private void ensureMessagingInitialized() {
+		if (messagingInitialized)
+			return;
+
+		synchronized (this) {
+			if (messagingInitialized)
+				return;
+
+			if (messagingSessionProvider != null)
+				initializeMessaging();
+
+			messagingInitialized = true;
+		}
+	}
+
+	private void initializeMessaging() {
+		try {
+			messagingSession = messagingSessionProvider.get();
+			Topic topic = messagingSession.createTopic(topicName);
+			messageProducer = messagingSession.createMessageProducer(topic);
+			messageConsumer = messagingSession.createMessageConsumer(topic);
+			messageConsumer.setMessageListener(this::onMessage);
+
+		} catch (Exception e) {
+			log.error("Error while initializing messaging for DCSA operation notifications. Notifications will not be used.", e);
+			messageProducer = null;
+			messageConsumer = null;
+		}
+	}
+
+	@Override
+	public void preDestroy() {
+		try {
+			if (messageConsumer != null)
+				messageConsumer.close();
+			if (messageProducer != null)
+				messageProducer.close();
+			if (messagingSession != null)
+				messagingSession.close();
+
+		} catch (MessagingException e) {
+			log.warn("Error while closing messaging components for DCSA operation notifications", e);
+		}
+	}
+
+}
@@ -77,6 +77,8 @@ public class JdbcDcsaStorage implements DcsaSharedStorage, LifecycleAware {
 
 	private static final String tablename = "TF_DCSA";
 
+	public static final int DEFAULT_CHANGE_FEED_BATCH_SIZE = 100;
+
 	private DataSource dataSource;
 	private LockManager lockManager;
 	private List<String> createTableStatements;
@@ -96,6 +98,9 @@ public class JdbcDcsaStorage implements DcsaSharedStorage, LifecycleAware {
 	private ExecutorService executor;
 	private boolean createdExecutor = false;
 	private int parallelFetchThreads = 5;
+	private int changeFeedBatchSize = DEFAULT_CHANGE_FEED_BATCH_SIZE;
+
+	private DcsaOperationsNotifier operationsNotifier;
 
 	@Override
 	public Lock getLock(String accessId) {
@@ -107,6 +112,7 @@ public class JdbcDcsaStorage implements DcsaSharedStorage, LifecycleAware {
 
 		postConstruct();
 
+		String notifiedAccessId = accessId;
 		accessId = truncateId(accessId);
 
 		Connection connection = null;
@@ -170,6 +176,9 @@ public class JdbcDcsaStorage implements DcsaSharedStorage, LifecycleAware {
 
 			connection.commit();
 
+			if (operationsNotifier != null)
+				operationsNotifier.notifyOperationStored(projectId, notifiedAccessId);
+
 			return id;
 
 		} catch (Exception e) {
@@ -409,6 +418,9 @@ public class JdbcDcsaStorage implements DcsaSharedStorage, LifecycleAware {
 
 		stopWatch.intermediate("postConstruct");
 
+		if (lastReadMarker != null && changeFeedBatchSize > 0)
+			return readChangeFeed(accessId, lastReadMarker, stopWatch);
+
 		List<String> idList = new ArrayList<>();
 
 		fetchIds(accessId, lastReadMarker, stopWatch, idList);
@@ -474,6 +486,93 @@ public class JdbcDcsaStorage implements DcsaSharedStorage, LifecycleAware {
 
 	}
 
+	/**
+	 * Reads the operations newer than given marker together with their content, in batches of at most {@link #setChangeFeedBatchSize(int)} rows,
+	 * each being a single query. In the typical case of an incremental update, with just a few new operations, this means a single DB round trip,
+	 * rather than first querying the ids and then loading the content.
+	 */
+	private JdbcDcsaIterable readChangeFeed(String accessId, String lastReadMarker, StopWatch stopWatch) {
+		boolean includeResourceContent = !accessId.equals("cortex");
+
+		List<CsaOperation> operations = new ArrayList<>();
+		String marker = lastReadMarker;
+		int batches = 0;
+
+		Connection connection = null;
+		try {
+			connection = dataSource.getConnection();
+			connection.setAutoCommit(false);
+
+			while (true) {
+				FetchContext context = new FetchContext(accessId, batches, batches + 1, new ArrayList<>());
+				batches++;
+
+				readChangeFeedBatch(connection, marker, includeResourceContent, context);
+				connection.commit();
+
+				operations.addAll(context.result.values());
+				if (!context.ids.isEmpty())
+					marker = context.ids.get(context.ids.size() - 1);
+
+				if (context.ids.size() < changeFeedBatchSize)
+					break;
+			}
+
+		} catch (Exception e) {
+			if (connection != null) {
+				try {
+					connection.rollback();
+				} catch (Exception e2) {
+					logger.error("Could not rollback changes.", e2);
+				}
+			}
+			throw Exceptions.unchecked(e, "Error while reading new operations for project " + projectId + " and access " + accessId + " after marker "
+					+ lastReadMarker);
+		} finally {
+			IOTools.closeCloseable(connection, logger);
+		}
+
+		stopWatch.intermediate("changeFeed");
+
+		String newLastReadMarker = marker.equals(lastReadMarker) ? null : marker;
+
+		if (newLastReadMarker != null && logger.isDebugEnabled()) {
+			logger.debug("Reading " + operations.size() + " entries from Access " + accessId + " in " + batches + " batch(es) took: "
+					+ stopWatch.toString());
+		}
+		return new JdbcDcsaIterable(newLastReadMarker, operations);
+	}
+
+	private void readChangeFeedBatch(Connection connection, String marker, boolean includeResourceContent, FetchContext context) throws Exception {
+		long start = System.currentTimeMillis();
+
+		String sql = "select id, encoded, resourceRelativePath, content, mimeType, resourceName from " + tablename
+				+ " where id > ? and accessId = ? and " + (projectId == null ? "projectId is null" : "projectId = ?") + " order by id asc";
+
+		try (PreparedStatement selectSt = connection.prepareStatement(sql)) {
+			selectSt.setMaxRows(changeFeedBatchSize);
+			selectSt.setFetchSize(changeFeedBatchSize);
+			selectSt.setString(1, marker);
+			selectSt.setString(2, context.accessId);
+			if (projectId != null)
+				selectSt.setString(3, projectId);
+
+			try (ResultSet rs = selectSt.executeQuery()) {
+				while (rs.next()) {
+					String id = rs.getString(1);
+					context.ids.add(id);
+
+					CsaOperation operation = decodeOperation(id, rs, connection, includeResourceContent, context);
+					if (operation != null)
+						context.result.put(id, operation);
+				}
+			}
+		}
+
+		context.duration = (System.currentTimeMillis() - start);
+		logger.trace(() -> "Read " + context);
+	}
+
 	private class FetchContext {
 		int packetNumber;
 		List<String> ids;
@@ -481,7 +580,7 @@ public class JdbcDcsaStorage implements DcsaSharedStorage, LifecycleAware {
 		long duration = -1L;
 		long totalContentSize = 0L;
 		long totalResourceSize = 0L;
-		Map<String, CsaOperation> result = new HashMap<>();
+		Map<String, CsaOperation> result = new LinkedHashMap<>();
 		private final int noOfPackets;
 
 		public FetchContext(String accessId, int packetNumber, int noOfPackets, List<String> ids) {
@@ -532,87 +631,10 @@ public class JdbcDcsaStorage implements DcsaSharedStorage, LifecycleAware {
 			rs = selectSt.executeQuery();
 
 			while (rs.next()) {
-
-				String encoded = null;
 				String id = rs.getString(1);
-				if (clobType.equals("CLOB")) {
-					Clob clob = rs.getClob(2);
-					Reader reader = clob.getCharacterStream();
-					try {
-						StringWriter sw = new StringWriter();
-						IOTools.pump(reader, sw);
-						encoded = sw.toString();
-					} finally {
-						reader.close();
-					}
-				} else {
-					encoded = rs.getString(2);
-				}
-
-				if (encoded != null) {
-					context.totalContentSize += encoded.length();
-
-					CsaOperation ge = (CsaOperation) marshaller.getStringCodec().decode(encoded);
-					ge.setId(id);
-
-					if (ge instanceof CsaResourceBasedOperation) {
-
-						String dbResourceRelativePath = rs.getString(3);
-
-						if (includeResourceContent || !(ge instanceof CsaStoreResource)) {
-
-							final byte[] content;
-							Blob blob = rs.getBlob(4);
-							if (blob != null) {
-								try (InputStream in = blob.getBinaryStream()) {
-									ByteArrayOutputStream baos = new ByteArrayOutputStream();
-									IOTools.pump(in, baos);
-									content = baos.toByteArray();
-								}
-							} else {
-								content = null;
-							}
-							if (content != null) {
-								context.totalResourceSize += content.length;
-
-								String dbMimeType = rs.getString(5);
-								String dbResourceName = rs.getString(6);
-
-								Resource resource = Resource.createTransient(() -> {
-									return new ByteArrayInputStream(content);
-								});
-
-								if (StringTools.isBlank(dbMimeType)) {
-									dbMimeType = mimeType;
-								}
-								if (StringTools.isBlank(dbResourceName)) {
-									dbResourceName = id + "." + fileExtension;
-								}
-
-								resource.setMimeType(dbMimeType);
-								resource.setName(dbResourceName);
-								resource.setFileSize((long) content.length);
-
-								((CsaResourceBasedOperation) ge).setPayload(resource);
-							}
-
-						} else {
-							// Cortex Access; don't eagerly load Resources
-							CsaResourceBasedOperation cro = (CsaResourceBasedOperation) ge;
-
-							Property payloadProperty = cro.entityType().getProperty(CsaResourceBasedOperation.payload);
-							payloadProperty.setAbsenceInformation(cro, GMF.absenceInformation());
-						}
-
-						if (dbResourceRelativePath == null && ge instanceof CsaStoreResource) {
-							CsaStoreResource csr = (CsaStoreResource) ge;
-							String resourceRelativePath = csr.getResourceRelativePath();
-							updateResourceRelativePath(id, resourceRelativePath, connection);
-						}
-					}
-
-					context.result.put(id, ge);
-				}
+				CsaOperation operation = decodeOperation(id, rs, connection, includeResourceContent, context);
+				if (operation != null)
+					context.result.put(id, operation);
 
 				connection.commit();
 
@@ -638,6 +660,97 @@ public class JdbcDcsaStorage implements DcsaSharedStorage, LifecycleAware {
 		return context;
 	}
 
+	/**
+	 * Decodes the {@link CsaOperation} from the current row of given {@link ResultSet}, which must have the following columns: id, encoded,
+	 * resourceRelativePath, content, mimeType, resourceName. The id has already been read by the caller.
+	 * 
+	 * @return the decoded operation, or <tt>null</tt> if the row has no encoded operation
+	 */
+	private CsaOperation decodeOperation(String id, ResultSet rs, Connection connection, boolean includeResourceContent, FetchContext context)
+			throws Exception {
+		String encoded = null;
+		if (clobType.equals("CLOB")) {
+			Clob clob = rs.getClob(2);
+			Reader reader = clob.getCharacterStream();
+			try {
+				StringWriter sw = new StringWriter();
+				IOTools.pump(reader, sw);
+				encoded = sw.toString();
+			} finally {
+				reader.close();
+			}
+		} else {
+			encoded = rs.getString(2);
+		}
+
+		if (encoded != null) {
+			context.totalContentSize += encoded.length();
+
+			CsaOperation ge = (CsaOperation) marshaller.getStringCodec().decode(encoded);
+			ge.setId(id);
+
+			if (ge instanceof CsaResourceBasedOperation) {
+
+				String dbResourceRelativePath = rs.getString(3);
+
+				if (includeResourceContent || !(ge instanceof CsaStoreResource)) {
+
+					final byte[] content;
+					Blob blob = rs.getBlob(4);
+					if (blob != null) {
+						try (InputStream in = blob.getBinaryStream()) {
+							ByteArrayOutputStream baos = new ByteArrayOutputStream();
+							IOTools.pump(in, baos);
+							content = baos.toByteArray();
+						}
+					} else {
+						content = null;
+					}
+					if (content != null) {
+						context.totalResourceSize += content.length;
+
+						String dbMimeType = rs.getString(5);
+						String dbResourceName = rs.getString(6);
+
+						Resource resource = Resource.createTransient(() -> {
+							return new ByteArrayInputStream(content);
+						});
+
+						if (StringTools.isBlank(dbMimeType)) {
+							dbMimeType = mimeType;
+						}
+						if (StringTools.isBlank(dbResourceName)) {
+							dbResourceName = id + "." + fileExtension;
+						}
+
+						resource.setMimeType(dbMimeType);
+						resource.setName(dbResourceName);
+						resource.setFileSize((long) content.length);
+
+						((CsaResourceBasedOperation) ge).setPayload(resource);
+					}
+
+				} else {
+					// Cortex Access; don't eagerly load Resources
+					CsaResourceBasedOperation cro = (CsaResourceBasedOperation) ge;
+
+					Property payloadProperty = cro.entityType().getProperty(CsaResourceBasedOperation.payload);
+					payloadProperty.setAbsenceInformation(cro, GMF.absenceInformation());
+				}
+
+				if (dbResourceRelativePath == null && ge instanceof CsaStoreResource) {
+					CsaStoreResource csr = (CsaStoreResource) ge;
+					String resourceRelativePath = csr.getResourceRelativePath();
+					updateResourceRelativePath(id, resourceRelativePath, connection);
+				}
+			}
+
+			return ge;
+		}
+
+		return null;
+	}
+
 	/* This method adds the resourceRelativePath to where it is missing. This is because this property was introduced
 	 * later. */
 	private void updateResourceRelativePath(String id, String resourceRelativePath, Connection connection) throws Exception {
@@ -1041,4 +1154,35 @@ public class JdbcDcsaStorage implements DcsaSharedStorage, LifecycleAware {
 		this.parallelFetchThreads = parallelFetchThreads;
 	}
 
+	/**
+	 * Maximum number of rows loaded with a single query when reading new operations for an incremental update (i.e. when the last read marker is
+	 * known). A non-positive value disables this change feed mode, and the ids are always queried first and the content is fetched in parallel (which
+	 * is still the case for the initial read).
+	 * <p>
+	 * Default value is {@value #DEFAULT_CHANGE_FEED_BATCH_SIZE}
+	 */
+	@Configurable
+	public void setChangeFeedBatchSize(int changeFeedBatchSize) {
+		this.changeFeedBatchSize = changeFeedBatchSize;
+	}
+
+	/**
+	 * Optional notifier used to broadcast new operations to the other nodes, thus supporting {@link #addOperationsListener(String, Runnable)}.
+	 */
+	@Configurable
+	public void setOperationsNotifier(DcsaOperationsNotifier operationsNotifier) {
+		this.operationsNotifier = operationsNotifier;
+	}
+
+	@Override
+	public boolean addOperationsListener(String accessId, Runnable listener) {
+		return operationsNotifier != null && operationsNotifier.addListener(projectId, accessId, listener);
+	}
+
+	@Override
+	public void removeOperationsListener(String accessId, Runnable listener) {
+		if (operationsNotifier != null)
+			operationsNotifier.removeListener(projectId, accessId, listener);
+	}
+
 }
@@ -18,21 +18,26 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import com.braintribe.execution.queue.FifoEntry;
 import com.braintribe.execution.queue.TestableFifoEntry;
+import com.braintribe.model.generic.value.PersistentEntityReference;
 import com.braintribe.model.processing.securityservice.api.UserSessionScope;
 import com.braintribe.model.processing.securityservice.api.UserSessionScoping;
 import com.braintribe.model.processing.securityservice.api.UserSessionScopingBuilder;
 import com.braintribe.model.processing.securityservice.api.exceptions.SecurityServiceException;
 import com.braintribe.model.securityservice.credentials.Credentials;
+import com.braintribe.model.spapi.StateChangeProcessorInvocation;
 import com.braintribe.model.spapi.StateChangeProcessorInvocationPacket;
 import com.braintribe.model.usersession.UserSession;
 import com.braintribe.testing.category.KnownIssue;
@@ -310,6 +315,145 @@ public class MultiThreadedSpInvocationTest {
 
 	}
 
+	@Test
+	public void testEntityOrdering() throws Exception {
+		final int entityCount = 5;
+		final int packetsPerEntity = 200;
+
+		List<List<Long>> processedPerEntity = new ArrayList<>();
+		for (int i = 0; i < entityCount; i++)
+			processedPerEntity.add(Collections.synchronizedList(new ArrayList<>()));
+
+		CountDownLatch done = new CountDownLatch(entityCount * packetsPerEntity);
+
+		MultiThreadedSpInvocation bean = new MultiThreadedSpInvocation() {
+			@Override
+			protected void processInvocationPacket(StateChangeProcessorInvocationPacket invocationPacket) {
+				StateChangeProcessorInvocation invocation = invocationPacket.getInvocations().get(0);
+				int entity = ((Long) invocation.getEntityReference().getRefId()).intValue();
+
+				Thread.yield(); // give other packets of the same entity a chance to overtake this one, if ordering was broken
+				processedPerEntity.get(entity).add(invocationPacket.getId());
+				done.countDown();
+			}
+		};
+		bean.setUserSessionScoping(new TestUserSessionScoping());
+		bean.setEntityOrdering(true);
+		bean.setThreadCount(8);
+		bean.postConstruct();
+
+		try {
+			for (long i = 0; i < entityCount * packetsPerEntity; i++)
+				bean.accept(packetFor(i, i % entityCount));
+
+			assertThat(done.await(20, TimeUnit.SECONDS)).isTrue();
+
+		} finally {
+			bean.preDestroy();
+		}
+
+		for (List<Long> processed : processedPerEntity) {
+			assertThat(processed).hasSize(packetsPerEntity);
+			assertThat(processed).isEqualTo(processed.stream().sorted().collect(Collectors.toList()));
+		}
+	}
+
+	@Test
+	public void testUnprocessedPacketsArePreserved() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch blocker = new CountDownLatch(1);
+		List<StateChangeProcessorInvocationPacket> processed = Collections.synchronizedList(new ArrayList<>());
+
+		MultiThreadedSpInvocation bean = new MultiThreadedSpInvocation() {
+			@Override
+			protected void processInvocationPacket(StateChangeProcessorInvocationPacket invocationPacket) {
+				started.countDown();
+				try {
+					blocker.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				processed.add(invocationPacket);
+			}
+		};
+
+		// the blocked packet may only finish once the others have been handed to the store
+		TestPacketStore store = new TestPacketStore() {
+			@Override
+			public void store(List<StateChangeProcessorInvocationPacket> packets) {
+				super.store(packets);
+				blocker.countDown();
+			}
+		};
+
+		bean.setUserSessionScoping(new TestUserSessionScoping());
+		bean.setThreadCount(1);
+		bean.setShutdownTimeoutMs(200);
+		bean.setPacketStore(store);
+		bean.postConstruct();
+
+		for (long i = 0; i < 5; i++)
+			bean.accept(packetFor(i, i));
+
+		// the first packet is being processed, the remaining ones are waiting for a free thread
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(bean.getPendingTasksInQueue()).isEqualTo(4);
+
+		bean.preDestroy();
+
+		assertThat(processed).hasSize(1);
+		assertThat(store.packets).hasSize(4);
+
+		// packets are processed when the next instance starts
+		processed.clear();
+
+		MultiThreadedSpInvocation nextBean = new MultiThreadedSpInvocation() {
+			@Override
+			protected void processInvocationPacket(StateChangeProcessorInvocationPacket invocationPacket) {
+				processed.add(invocationPacket);
+			}
+		};
+		nextBean.setUserSessionScoping(new TestUserSessionScoping());
+		nextBean.setPacketStore(store);
+		nextBean.postConstruct();
+		nextBean.preDestroy();
+
+		assertThat(processed).hasSize(4);
+		assertThat(store.packets).isEmpty();
+	}
+
+	private static StateChangeProcessorInvocationPacket packetFor(long packetId, long entityId) {
+		PersistentEntityReference reference = PersistentEntityReference.T.create();
+		reference.setTypeSignature("test.Entity");
+		reference.setRefId(entityId);
+
+		StateChangeProcessorInvocation invocation = StateChangeProcessorInvocation.T.create();
+		invocation.setAccessId("test.access");
+		invocation.setEntityReference(reference);
+
+		StateChangeProcessorInvocationPacket packet = StateChangeProcessorInvocationPacket.T.create();
+		packet.setId(packetId);
+		packet.setInvocations(new ArrayList<>(Collections.singletonList(invocation)));
+
+		return packet;
+	}
+
+	static class TestPacketStore implements SpInvocationPacketStore {
+		final List<StateChangeProcessorInvocationPacket> packets = Collections.synchronizedList(new ArrayList<>());
+
+		@Override
+		public void store(List<StateChangeProcessorInvocationPacket> packets) {
+			this.packets.addAll(packets);
+		}
+
+		@Override
+		public List<StateChangeProcessorInvocationPacket> retrieve() {
+			List<StateChangeProcessorInvocationPacket> result = new ArrayList<>(packets);
+			packets.clear();
+			return result;
+		}
+	}
+
 	static class TestUserSessionScoping implements UserSessionScoping {
 		@Override
 		public UserSessionScopingBuilder forCredentials(Credentials credentials) {
@@ -0,0 +1,138 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.sp.invocation.multithreaded;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.braintribe.cfg.Configurable;
+import com.braintribe.cfg.Required;
+import com.braintribe.codec.marshaller.api.Marshaller;
+import com.braintribe.exception.Exceptions;
+import com.braintribe.logging.Logger;
+import com.braintribe.model.spapi.StateChangeProcessorInvocationPacket;
+
+/**
+ * {@link SpInvocationPacketStore} which marshalls every stored batch of packets into a separate file within configured folder. Files are named
+ * by the time they were written, so that {@link #retrieve()} returns the packets in the order they were stored.
+ * <p>
+ * A file which cannot be read is not deleted, but renamed with a ".failed" suffix, so that it is not read again.
+ */
+public class FileSystemSpInvocationPacketStore implements SpInvocationPacketStore {
+
+	private static final Logger logger = Logger.getLogger(FileSystemSpInvocationPacketStore.class);
+
+	private static final AtomicLong fileCounter = new AtomicLong();
+
+	private Path folder;
+	private Marshaller marshaller;
+	private String fileExtension = "packets";
+
+	@Required
+	public void setFolder(Path folder) {
+		this.folder = folder;
+	}
+
+	@Required
+	public void setMarshaller(Marshaller marshaller) {
+		this.marshaller = marshaller;
+	}
+
+	@Configurable
+	public void setFileExtension(String fileExtension) {
+		this.fileExtension = fileExtension;
+	}
+
+	@Override
+	public void store(List<StateChangeProcessorInvocationPacket> packets) {
+		if (packets.isEmpty())
+			return;
+
+		String fileName = String.format("%020d-%06d.%s", System.currentTimeMillis(), fileCounter.incrementAndGet() % 1_000_000, fileExtension);
+		Path file = folder.resolve(fileName);
+
+		try {
+			Files.createDirectories(folder);
+			try (OutputStream out = Files.newOutputStream(file)) {
+				marshaller.marshall(out, new ArrayList<>(packets));
+			}
+
+		} catch (IOException e) {
+			throw Exceptions.unchecked(e, "Error while storing " + packets.size() + " state change processor invocation packet(s) to: " + file);
+		}
+
+		logger.debug(() -> "Stored " + packets.size() + " state change processor invocation packet(s) to: " + file);
+	}
+
+	@Override
+	public List<StateChangeProcessorInvocationPacket> retrieve() {
+		List<StateChangeProcessorInvocationPacket> result = new ArrayList<>();
+
+		for (Path file : listStoredFiles())
+			result.addAll(read(file));
+
+		return result;
+	}
+
+	private List<Path> listStoredFiles() {
+		if (!Files.isDirectory(folder))
+			return new ArrayList<>();
+
+		try (Stream<Path> files = Files.list(folder)) {
+			return files //
+					.filter(f -> f.getFileName().toString().endsWith("." + fileExtension)) //
+					.sorted() //
+					.collect(Collectors.toList());
+
+		} catch (IOException e) {
+			throw Exceptions.unchecked(e, "Error while listing stored state change processor invocation packets in: " + folder);
+		}
+	}
+
+	private List<StateChangeProcessorInvocationPacket> read(Path file) {
+		try {
+			List<StateChangeProcessorInvocationPacket> packets;
+			try (InputStream in = Files.newInputStream(file)) {
+				@SuppressWarnings("unchecked")
+				List<StateChangeProcessorInvocationPacket> unmarshalled = (List<StateChangeProcessorInvocationPacket>) marshaller.unmarshall(in);
+				packets = unmarshalled;
+			}
+
+			Files.delete(file);
+
+			logger.debug(() -> "Retrieved " + packets.size() + " state change processor invocation packet(s) from: " + file);
+			return packets;
+
+		} catch (Exception e) {
+			logger.error("Error while reading stored state change processor invocation packets from: " + file + ". The file will be ignored.", e);
+			markFailed(file);
+			return new ArrayList<>();
+		}
+	}
+
+	private void markFailed(Path file) {
+		try {
+			Files.move(file, file.resolveSibling(file.getFileName() + ".failed"));
+		} catch (IOException e) {
+			logger.warn("Could not rename unreadable file: " + file, e);
+		}
+	}
+
+}
@@ -11,21 +11,39 @@
 // ============================================================================
 package com.braintribe.model.processing.sp.invocation.multithreaded;
 
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 import com.braintribe.cfg.Configurable;
 import com.braintribe.cfg.LifecycleAware;
 import com.braintribe.cfg.Required;
+import com.braintribe.execution.monitoring.MonitoredThreadPool;
+import com.braintribe.execution.monitoring.ThreadPoolMonitoring;
 import com.braintribe.execution.queue.FifoEntry;
 import com.braintribe.execution.virtual.VirtualThreadExecutorBuilder;
 import com.braintribe.logging.Logger;
+import com.braintribe.model.generic.value.EntityReference;
 import com.braintribe.model.processing.securityservice.api.UserSessionScope;
 import com.braintribe.model.processing.securityservice.api.UserSessionScoping;
 import com.braintribe.model.processing.sp.invocation.AbstractSpInvocation;
+import com.braintribe.model.spapi.StateChangeProcessorInvocation;
 import com.braintribe.model.spapi.StateChangeProcessorInvocationPacket;
 
 /**
@@ -36,23 +54,47 @@ import com.braintribe.model.spapi.StateChangeProcessorInvocationPacket;
  * 
  * About the {@link ExecutorService} : make sure that the executor instance you pass can be used entirely and
  * exclusively by the instance - it may conflict with other uses if you re-use a global executor. It would be best to
- * not set this because things may slow down otherwise.
+ * not set this because things may slow down otherwise.<br/>
+ * <br/>
+ * 
+ * With {@link #setEntityOrdering(boolean) entity ordering} enabled, packets which concern a common entity are processed
+ * one after the other, in the order they were accepted, while unrelated packets are still processed in parallel.<br/>
+ * <br/>
+ * 
+ * Packets which were not processed yet when this instance is being shut down are handed over to the
+ * {@link #setPacketStore(SpInvocationPacketStore) packet store} (if configured), and processed after the next start.
  * 
  * @author pit
  *
  */
-public class MultiThreadedSpInvocation extends AbstractSpInvocation implements Consumer<StateChangeProcessorInvocationPacket>, LifecycleAware {
+public class MultiThreadedSpInvocation extends AbstractSpInvocation
+		implements Consumer<StateChangeProcessorInvocationPacket>, LifecycleAware, MonitoredThreadPool {
 	private static final Logger logger = Logger.getLogger(MultiThreadedSpInvocation.class);
 	private ExecutorService executor;
 	private boolean executorCreatedLocally = false;
 	private int threadCount = 20;
-	private PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
 	private String name;
 	private volatile boolean shutdown = false;
 	private Object shutdownLock = new Object();
 
 	private UserSessionScoping userSessionScoping;
 
+	private boolean entityOrdering = false;
+	private int maxPendingPackets = 0;
+	private long maxBackpressureWaitMs = 10_000L;
+	private long shutdownTimeoutMs = 20_000L;
+	private SpInvocationPacketStore packetStore;
+
+	// guarded by shutdownLock
+	private final Set<Caller> pendingCallers = new LinkedHashSet<>();
+	private final Map<String, Caller> lastCallerPerEntity = new HashMap<>();
+
+	private final AtomicInteger pendingCount = new AtomicInteger();
+	private final AtomicLong executionCounter = new AtomicLong();
+	private final String monitoringId = "MultiThreadedSpInvocation-" + UUID.randomUUID();
+	private Semaphore pendingPermits;
+	private String description;
+
 	/**
 	 * Sets the executor to use: note that the executor should be exclusively for the engine as it may use up all resources,
 	 * so please do not plug a common shared executor into this class, but rather configure a proper one for it<br>
@@ -84,16 +126,66 @@ public class MultiThreadedSpInvocation extends AbstractSpInvocation implements C
 		this.name = name;
 	}
 
+	/**
+	 * If set to <tt>true</tt>, a packet is only processed after all the previously accepted packets which concern at least
+	 * one of the same entities (as identified by the {@link StateChangeProcessorInvocation#getEntityReference() entity
+	 * references} of its invocations) were processed. Default is <tt>false</tt>, i.e. packets are processed in arbitrary
+	 * order.
+	 */
+	@Configurable
+	public void setEntityOrdering(boolean entityOrdering) {
+		this.entityOrdering = entityOrdering;
+	}
+
+	/**
+	 * Limits the number of packets which were accepted but not processed yet. When the limit is reached, {@link #accept}
+	 * blocks the caller until some packet is processed, but at most for {@link #setMaxBackpressureWaitMs(long)
+	 * maxBackpressureWaitMs}, after which the packet is accepted anyway. Default is 0, which means no limit.
+	 */
+	@Configurable
+	public void setMaxPendingPackets(int maxPendingPackets) {
+		this.maxPendingPackets = maxPendingPackets;
+	}
+
+	@Configurable
+	public void setMaxBackpressureWaitMs(long maxBackpressureWaitMs) {
+		this.maxBackpressureWaitMs = maxBackpressureWaitMs;
+	}
+
+	/** Maximum time to wait for the pending packets to be processed on shutdown, before they are preserved. */
+	@Configurable
+	public void setShutdownTimeoutMs(long shutdownTimeoutMs) {
+		this.shutdownTimeoutMs = shutdownTimeoutMs;
+	}
+
+	/**
+	 * Store for packets which were not processed before shutdown. Stored packets are retrieved and processed on
+	 * {@link #postConstruct()}. If not set, such packets are dropped (and a warning is logged).
+	 */
+	@Configurable
+	public void setPacketStore(SpInvocationPacketStore packetStore) {
+		this.packetStore = packetStore;
+	}
+
 	@Override
 	public void accept(StateChangeProcessorInvocationPacket invocation) throws RuntimeException {
+		if (shutdown) {
+			preserve(singletonList(invocation));
+			return;
+		}
+
+		Caller caller = new Caller(invocation, acquirePendingPermit());
+
 		synchronized (shutdownLock) {
 
 			if (shutdown) {
-				preserve(invocation);
+				caller.releasePermit();
+				preserve(singletonList(invocation));
 				return;
 			}
 
 			if (executor == null) {
+				caller.releasePermit();
 				throw new RuntimeException("The executor has already been shut down. Not accepting further packets.");
 			}
 
@@ -102,7 +194,6 @@ public class MultiThreadedSpInvocation extends AbstractSpInvocation implements C
 				String activeThreads = "unknown";
 				String poolSize = "uknown";
 				String largestPoolSize = "uknown";
-				String executorQueueSize = "" + queue.size();
 
 				if (executor instanceof ThreadPoolExecutor) {
 					ThreadPoolExecutor e = (ThreadPoolExecutor) executor;
@@ -112,19 +203,108 @@ public class MultiThreadedSpInvocation extends AbstractSpInvocation implements C
 					largestPoolSize = "" + e.getLargestPoolSize();
 				}
 
-				logger.trace("Took invocation context from queue. Remaining elements: " + queue.size() + ", Executor queue size: " + executorQueueSize
-						+ ", Active Threads: " + activeThreads + ", poolSize: " + poolSize + ", largestPoolSize: " + largestPoolSize);
+				logger.trace("Accepted invocation packet. Pending packets: " + pendingCount.get() + ", Active Threads: " + activeThreads
+						+ ", poolSize: " + poolSize + ", largestPoolSize: " + largestPoolSize);
 
 			}
 
-			Caller caller = new Caller(invocation);
-			executor.execute(caller);
+			pendingCallers.add(caller);
+			pendingCount.incrementAndGet();
+
+			if (registerPredecessors(caller))
+				submit(caller);
+		}
+	}
+
+	private boolean acquirePendingPermit() {
+		if (pendingPermits == null)
+			return false;
+
+		try {
+			if (pendingPermits.tryAcquire(maxBackpressureWaitMs, TimeUnit.MILLISECONDS))
+				return true;
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		logger.warn("There are " + pendingCount.get() + " pending invocation packets for " + description + ", accepting a new one despite the limit of "
+				+ maxPendingPackets + ".");
+		return false;
+	}
+
+	/** @return <tt>true</tt> iff given caller doesn't have to wait for any other caller, i.e. can be submitted right away */
+	private boolean registerPredecessors(Caller caller) {
+		for (String entityKey : caller.entityKeys) {
+			Caller predecessor = lastCallerPerEntity.put(entityKey, caller);
+			if (predecessor != null && !predecessor.successors.contains(caller)) {
+				predecessor.successors.add(caller);
+				caller.unfinishedPredecessors++;
+			}
 		}
+
+		return caller.unfinishedPredecessors == 0;
 	}
 
-	private void preserve(StateChangeProcessorInvocationPacket invocation) {
-		// TODO Auto-generated method stub
+	private void submit(Caller caller) {
+		try {
+			executor.submit(caller);
+
+		} catch (RejectedExecutionException e) {
+			// the caller stays pending and is preserved on shutdown
+			logger.warn("Executor rejected invocation packet: " + caller.getEntry(), e);
+		}
+	}
+
+	private void onFinished(Caller caller) {
+		synchronized (shutdownLock) {
+			pendingCallers.remove(caller);
+
+			for (String entityKey : caller.entityKeys)
+				lastCallerPerEntity.remove(entityKey, caller);
+
+			for (Caller successor : caller.successors)
+				if (--successor.unfinishedPredecessors == 0 && executor != null)
+					submit(successor);
+
+			if (pendingCallers.isEmpty())
+				shutdownLock.notifyAll();
+		}
+
+		caller.releasePermit();
+	}
+
+	private Set<String> entityKeysOf(StateChangeProcessorInvocationPacket packet) {
+		List<StateChangeProcessorInvocation> invocations = packet.getInvocations();
+		if (!entityOrdering || invocations == null)
+			return emptySet();
+
+		Set<String> result = new LinkedHashSet<>();
+		for (StateChangeProcessorInvocation invocation : invocations) {
+			EntityReference reference = invocation.getEntityReference();
+			if (reference != null)
+				result.add(invocation.getAccessId() + ":" + reference.getTypeSignature() + "#" + reference.getRefId());
+		}
+
+		return result;
+	}
+
+	private void preserve(List<StateChangeProcessorInvocationPacket> packets) {
+		if (packets.isEmpty())
+			return;
+
+		if (packetStore == null) {
+			logger.warn("Dropping " + packets.size() + " unprocessed invocation packet(s) of " + description + ", as no packet store is configured.");
+			return;
+		}
+
+		try {
+			packetStore.store(packets);
+			logger.info("Preserved " + packets.size() + " unprocessed invocation packet(s) of " + description + ".");
 
+		} catch (Exception e) {
+			logger.error("Error while preserving " + packets.size() + " unprocessed invocation packet(s) of " + description + ".", e);
+		}
 	}
 
 	/**
@@ -135,12 +315,34 @@ public class MultiThreadedSpInvocation extends AbstractSpInvocation implements C
 	 */
 	private class Caller extends FifoEntry<StateChangeProcessorInvocationPacket> implements Runnable {
 
-		public Caller(StateChangeProcessorInvocationPacket invocationPacket) {
+		private static final int PENDING = 0, RUNNING = 1, PRESERVED = 2;
+
+		private final AtomicInteger state = new AtomicInteger(PENDING);
+		private final long acceptedNanos = System.nanoTime();
+		private final Set<String> entityKeys;
+		private boolean permitAcquired;
+
+		// guarded by shutdownLock
+		private final List<Caller> successors = new ArrayList<>(2);
+		private int unfinishedPredecessors;
+
+		public Caller(StateChangeProcessorInvocationPacket invocationPacket, boolean permitAcquired) {
 			super(invocationPacket);
+			this.entityKeys = entityKeysOf(invocationPacket);
+			this.permitAcquired = permitAcquired;
 		}
 
 		@Override
 		public void run() {
+			if (!state.compareAndSet(PENDING, RUNNING))
+				return;
+
+			pendingCount.decrementAndGet();
+
+			long startedNanos = System.nanoTime();
+			String execId = Long.toString(executionCounter.incrementAndGet(), 36);
+			ThreadPoolMonitoring.beforeExecution(monitoringId, execId);
+
 			try {
 				UserSessionScope scope = userSessionScoping.forDefaultUser().push();
 				try {
@@ -150,16 +352,53 @@ public class MultiThreadedSpInvocation extends AbstractSpInvocation implements C
 				}
 			} catch (Exception e) {
 				logger.error("error while processing invocation packet: " + super.getEntry(), e);
+
+			} finally {
+				ThreadPoolMonitoring.afterExecution(monitoringId, execId);
+				ThreadPoolMonitoring.registerThreadPoolExecution(monitoringId, Duration.ofNanos(startedNanos - acceptedNanos),
+						Duration.ofNanos(System.nanoTime() - startedNanos));
+
+				onFinished(this);
+			}
+		}
+
+		private boolean markPreserved() {
+			return state.compareAndSet(PENDING, PRESERVED);
+		}
+
+		private synchronized void releasePermit() {
+			if (permitAcquired) {
+				permitAcquired = false;
+				pendingPermits.release();
 			}
 		}
 	}
 
 	@Override
 	public void preDestroy() {
+		List<StateChangeProcessorInvocationPacket> unprocessed = new ArrayList<>();
+
 		synchronized (shutdownLock) {
 			shutdown = true;
+
+			awaitPendingCallers();
+
+			for (Caller caller : pendingCallers) {
+				if (caller.markPreserved()) {
+					unprocessed.add(caller.getEntry());
+					pendingCount.decrementAndGet();
+					caller.releasePermit();
+				}
+			}
+
+			pendingCallers.removeIf(c -> c.state.get() == Caller.PRESERVED);
+			lastCallerPerEntity.clear();
 		}
 
+		preserve(unprocessed);
+
+		ThreadPoolMonitoring.unregisterThreadPool(monitoringId);
+
 		if (executorCreatedLocally && executor != null) {
 			executor.shutdown();
 			ExecutorService myExecutor = executor;
@@ -171,20 +410,90 @@ public class MultiThreadedSpInvocation extends AbstractSpInvocation implements C
 			}
 		}
 	}
+
+	// must be called while holding shutdownLock
+	private void awaitPendingCallers() {
+		long deadline = System.currentTimeMillis() + shutdownTimeoutMs;
+
+		try {
+			long remaining;
+			while (!pendingCallers.isEmpty() && (remaining = deadline - System.currentTimeMillis()) > 0)
+				shutdownLock.wait(remaining);
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			logger.debug("Interrupted while waiting for pending invocation packets.");
+		}
+	}
+
 	@Override
 	public void postConstruct() {
-		if (executor == null) {
-
-			final String description;
-			if (name != null) {
-				description = "State Change Processing (" + name + ")";
-			} else {
-				description = "State Change Processing";
-			}
+		if (name != null) {
+			description = "State Change Processing (" + name + ")";
+		} else {
+			description = "State Change Processing";
+		}
 
+		if (executor == null) {
+			// monitoring is what makes the executor respect the concurrency limit
 			executor = VirtualThreadExecutorBuilder.newPool().concurrency(threadCount).threadNamePrefix("MultiThreadedSpInvocation")
-					.description(description).build();
+					.description(description).monitoring(true).build();
 			executorCreatedLocally = true;
 		}
+
+		if (maxPendingPackets > 0)
+			pendingPermits = new Semaphore(maxPendingPackets);
+
+		ThreadPoolMonitoring.registerThreadPool(monitoringId, this);
+
+		processPreservedPackets();
+	}
+
+	private void processPreservedPackets() {
+		if (packetStore == null)
+			return;
+
+		List<StateChangeProcessorInvocationPacket> packets;
+		try {
+			packets = packetStore.retrieve();
+		} catch (Exception e) {
+			logger.error("Error while retrieving preserved invocation packets of " + description + ".", e);
+			return;
+		}
+
+		if (packets.isEmpty())
+			return;
+
+		logger.info("Processing " + packets.size() + " invocation packet(s) of " + description + " preserved on last shutdown.");
+
+		for (StateChangeProcessorInvocationPacket packet : packets)
+			accept(packet);
+	}
+
+	// MonitoredThreadPool - describes the packets, including the ones waiting for their predecessors or for a free thread
+
+	@Override
+	public String getDescription() {
+		return description + " - Packets";
+	}
+
+	@Override
+	public int getPendingTasksInQueue() {
+		return pendingCount.get();
+	}
+
+	@Override
+	public int getThreadPoolSize() {
+		return threadCount;
+	}
+
+	@Override
+	public int getCoreThreadPoolSize() {
+		return threadCount;
+	}
+
+	@Override
+	public int getMaximumThreadPoolSize() {
+		return threadCount;
 	}
 }
@@ -0,0 +1,32 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.sp.invocation.multithreaded;
+
+import java.util.List;
+
+import com.braintribe.model.spapi.StateChangeProcessorInvocationPacket;
+
+/**
+ * Keeps {@link StateChangeProcessorInvocationPacket}s which could not be processed before a shutdown, so that they can be processed after the
+ * next start.
+ * 
+ * @see MultiThreadedSpInvocation#setPacketStore(SpInvocationPacketStore)
+ */
+public interface SpInvocationPacketStore {
+
+	/** Stores given packets, in addition to the ones stored before. */
+	void store(List<StateChangeProcessorInvocationPacket> packets);
+
+	/** Returns all the stored packets, in the order they were stored, and removes them from this store. */
+	List<StateChangeProcessorInvocationPacket> retrieve();
+
+}
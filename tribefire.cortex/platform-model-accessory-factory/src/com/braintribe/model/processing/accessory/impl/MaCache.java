@@ -20,6 +20,9 @@ import java.util.function.BiFunction;
 
 import com.braintribe.logging.Logger;
 import com.braintribe.model.processing.accessory.api.PurgableModelAccessory;
+import com.braintribe.model.processing.meta.cmd.CmdResolver;
+import com.braintribe.model.processing.meta.cmd.CmdResolverImpl;
+import com.braintribe.model.processing.meta.cmd.index.CacheStatistics;
 import com.braintribe.model.processing.session.api.managed.ModelAccessory;
 import com.braintribe.utils.lcd.NullSafe;
 
@@ -74,6 +77,32 @@ import com.braintribe.utils.lcd.NullSafe;
 		return result;
 	}
 
+	/**
+	 * Puts the meta data cache statistics of every cached accessory into given map. Accessories which are not built (yet or anymore) are skipped,
+	 * so that this never triggers a build.
+	 */
+	public void collectCmdCacheStatistics(Map<String, CacheStatistics> result) {
+		if (cache == null)
+			return;
+
+		for (Entry<String, Map<String, PurgableModelAccessory>> entry : cache.entrySet()) {
+			for (Entry<String, PurgableModelAccessory> perspectiveEntry : entry.getValue().entrySet()) {
+				PurgableModelAccessory accessory = perspectiveEntry.getValue();
+				if (!accessory.isUpToDate())
+					continue;
+
+				CmdResolver cmdResolver = accessory.getCmdResolver();
+				if (!(cmdResolver instanceof CmdResolverImpl))
+					continue;
+
+				String perspectiveKey = perspectiveEntry.getKey();
+				String name = idName + "=" + entry.getKey() + ("<default>".equals(perspectiveKey) ? "" : ", perspective=" + perspectiveKey);
+
+				result.put(name, ((CmdResolverImpl) cmdResolver).getSessionCacheStatistics());
+			}
+		}
+	}
+
 	public void onChange(String id) {
 		log.debug(() -> "Received onChange notification for " + idName + "='" + id + "'");
 
@@ -11,6 +11,9 @@
 // ============================================================================
 package com.braintribe.model.processing.accessory.impl;
 
+import static com.braintribe.utils.lcd.CollectionTools2.newTreeMap;
+
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -22,6 +25,7 @@ import com.braintribe.model.processing.accessory.api.PlatformModelEssentialsSupp
 import com.braintribe.model.processing.meta.cmd.CmdResolverBuilder;
 import com.braintribe.model.processing.meta.cmd.context.aspects.AccessAspect;
 import com.braintribe.model.processing.meta.cmd.context.aspects.AccessTypeAspect;
+import com.braintribe.model.processing.meta.cmd.index.CacheStatistics;
 import com.braintribe.model.processing.session.api.managed.ModelAccessory;
 import com.braintribe.model.processing.session.api.managed.ModelAccessoryFactory;
 import com.braintribe.model.processing.session.api.managed.ModelChangeListener;
@@ -182,6 +186,19 @@ public class PlatformModelAccessoryFactory implements NotifiableModelAccessoryFa
 		maCache.onChange(modelName);
 	}
 
+	/**
+	 * Returns the statistics of session-scoped meta data caches of all the cached (and already built) model accessories, keyed by
+	 * "accessId=...", "serviceDomainId=..." or "modelName=...".
+	 */
+	public Map<String, CacheStatistics> getCmdCacheStatistics() {
+		Map<String, CacheStatistics> result = newTreeMap();
+		accessMaCache.collectCmdCacheStatistics(result);
+		serviceDomainMaCache.collectCmdCacheStatistics(result);
+		maCache.collectCmdCacheStatistics(result);
+
+		return result;
+	}
+
 	@Override
 	public ModelAccessoryFactory forPerspective(String perspective) {
 		if (perspective == null)
@@ -11,6 +11,7 @@
 // ============================================================================
 package com.braintribe.model.platformreflection;
 
+import java.util.List;
 import java.util.Map;
 
 import com.braintribe.model.generic.reflection.EntityType;
@@ -18,6 +19,7 @@ import com.braintribe.model.generic.reflection.EntityTypes;
 import com.braintribe.model.platformreflection.request.PlatformReflectionResponse;
 import com.braintribe.model.platformreflection.streampipes.StreamPipesInfo;
 import com.braintribe.model.platformreflection.tf.License;
+import com.braintribe.model.platformreflection.tf.MetaDataCacheInfo;
 import com.braintribe.model.platformreflection.tf.ModuleAssets;
 import com.braintribe.model.platformreflection.tf.SetupAssets;
 import com.braintribe.model.platformreflection.tf.TribefireServicesInfo;
@@ -47,6 +49,9 @@ public interface TribefireInfo extends PlatformReflectionResponse {
 	FolderInfo getTempDirInfo();
 	void setTempDirInfo(FolderInfo folderInfo);
 
+	List<MetaDataCacheInfo> getMetaDataCaches();
+	void setMetaDataCaches(List<MetaDataCacheInfo> metaDataCaches);
+
 	// TODO: Sessions, active users
 	// TODO: https://github.com/brettwooldridge/HikariCP/wiki/MBean-(JMX)-Monitoring-and-Management
 	// TODO: http://www.mchange.com/projects/c3p0/#jmx_configuration_and_management
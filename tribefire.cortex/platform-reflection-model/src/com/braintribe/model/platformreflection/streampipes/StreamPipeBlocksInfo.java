@@ -47,6 +47,9 @@ public interface StreamPipeBlocksInfo extends GenericEntity {
 	void setInMemory(boolean isInMemory);
 	boolean getInMemory();
 	
+	void setOffHeap(boolean isOffHeap);
+	boolean getOffHeap();
+	
 	void setPoolKind(PoolKind poolKind);
 	PoolKind getPoolKind();
 }
@@ -28,6 +28,12 @@ public interface StreamPipesInfo extends GenericEntity {
 	void setFileBlocks(StreamPipeBlocksInfo info);
 	StreamPipeBlocksInfo getFileBlocks();
 	
+	void setDirectMemoryBlocks(StreamPipeBlocksInfo info);
+	StreamPipeBlocksInfo getDirectMemoryBlocks();
+	
+	void setMappedFileBlocks(StreamPipeBlocksInfo info);
+	StreamPipeBlocksInfo getMappedFileBlocks();
+	
 	void setTotal(StreamPipeBlocksInfo info);
 	StreamPipeBlocksInfo getTotal();
 	
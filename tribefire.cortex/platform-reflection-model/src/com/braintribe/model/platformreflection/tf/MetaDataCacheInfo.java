@@ -0,0 +1,44 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.platformreflection.tf;
+
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.generic.reflection.EntityType;
+import com.braintribe.model.generic.reflection.EntityTypes;
+
+/**
+ * Statistics of the session-scoped meta data caches of one meta data resolver, i.e. the resolver of one access, service domain or model.
+ */
+public interface MetaDataCacheInfo extends GenericEntity {
+
+	EntityType<MetaDataCacheInfo> T = EntityTypes.T(MetaDataCacheInfo.class);
+
+	/** Identifies the resolver, e.g. "accessId=cortex". */
+	String getName();
+	void setName(String name);
+
+	long getHits();
+	void setHits(long hits);
+
+	long getMisses();
+	void setMisses(long misses);
+
+	long getEvictions();
+	void setEvictions(long evictions);
+
+	long getRejections();
+	void setRejections(long rejections);
+
+	long getSize();
+	void setSize(long size);
+
+}
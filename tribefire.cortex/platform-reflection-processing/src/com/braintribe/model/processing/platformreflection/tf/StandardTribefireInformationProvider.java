@@ -55,6 +55,7 @@ import com.braintribe.model.platformreflection.streampipes.StreamPipeBlocksInfo;
 import com.braintribe.model.platformreflection.streampipes.StreamPipesInfo;
 import com.braintribe.model.platformreflection.tf.DeployablesInfo;
 import com.braintribe.model.platformreflection.tf.License;
+import com.braintribe.model.platformreflection.tf.MetaDataCacheInfo;
 import com.braintribe.model.platformreflection.tf.ModuleAssets;
 import com.braintribe.model.platformreflection.tf.SetupAssets;
 import com.braintribe.model.platformreflection.tf.TribefireServicesInfo;
@@ -87,6 +88,7 @@ public class StandardTribefireInformationProvider implements TribefireInformatio
 	private Supplier<PlatformSetup> platformSetupSupplier;
 
 	private CompoundBlockPool compoundBlockPool;
+	private Supplier<List<MetaDataCacheInfo>> metaDataCacheInfoSupplier;
 
 	private Supplier<com.braintribe.model.access.IncrementalAccess> hardwiredAuthAccessSupplier;
 	private Supplier<com.braintribe.model.access.IncrementalAccess> hardwiredCortexAccessSupplier;
@@ -173,6 +175,10 @@ public class StandardTribefireInformationProvider implements TribefireInformatio
 
 			// Temp Dir
 			tribefire.setTempDirInfo(createFolderInfo(FileTools.getTempDir().toPath()));
+
+			// Meta data caches
+			if (metaDataCacheInfoSupplier != null)
+				tribefire.setMetaDataCaches(metaDataCacheInfoSupplier.get());
 		} catch (Exception e) {
 			logger.debug(() -> "Error while trying to retrieve information about tribefire.", e);
 		} finally {
@@ -482,6 +488,8 @@ public class StandardTribefireInformationProvider implements TribefireInformatio
 
 		streamPipesInfo.setFileBlocks(toBlocksInfo(groupedBlockStats.get(BlockKind.file)));
 		streamPipesInfo.setInMemoryBlocks(toBlocksInfo(groupedBlockStats.get(BlockKind.inMemory)));
+		streamPipesInfo.setDirectMemoryBlocks(toBlocksInfo(groupedBlockStats.get(BlockKind.directMemory)));
+		streamPipesInfo.setMappedFileBlocks(toBlocksInfo(groupedBlockStats.get(BlockKind.mappedFile)));
 		streamPipesInfo.setTotal(toBlocksInfo(total));
 		streamPipesInfo.setPoolList(poolList);
 
@@ -521,7 +529,8 @@ public class StandardTribefireInformationProvider implements TribefireInformatio
 		blocksInfo.setBlockSize(stats.getBlockSize());
 		blocksInfo.setLocation(stats.getLocation());
 		blocksInfo.setPoolKind(poolKind);
-		blocksInfo.setInMemory(BlockKind.inMemory == stats.getBlockKind());
+		blocksInfo.setInMemory(BlockKind.inMemory == stats.getBlockKind() || BlockKind.directMemory == stats.getBlockKind());
+		blocksInfo.setOffHeap(BlockKind.directMemory == stats.getBlockKind() || BlockKind.mappedFile == stats.getBlockKind());
 		return blocksInfo;
 	}
 
@@ -559,6 +568,10 @@ public class StandardTribefireInformationProvider implements TribefireInformatio
 	public void setCompoundBlockPool(CompoundBlockPool compoundBlockPool) {
 		this.compoundBlockPool = compoundBlockPool;
 	}
+	@Configurable
+	public void setMetaDataCacheInfoSupplier(Supplier<List<MetaDataCacheInfo>> metaDataCacheInfoSupplier) {
+		this.metaDataCacheInfoSupplier = metaDataCacheInfoSupplier;
+	}
 
 	@Configurable
 	public void setHardwiredAuthAccessSupplier(Supplier<com.braintribe.model.access.IncrementalAccess> hardwiredAuthAccessSupplier) {
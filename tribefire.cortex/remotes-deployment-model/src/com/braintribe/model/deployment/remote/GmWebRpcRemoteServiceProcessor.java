@@ -14,6 +14,7 @@ package com.braintribe.model.deployment.remote;
 import com.braintribe.model.deployment.HttpServer;
 import com.braintribe.model.extensiondeployment.ServiceProcessor;
 import com.braintribe.model.generic.annotation.Initializer;
+import com.braintribe.model.generic.annotation.meta.Description;
 import com.braintribe.model.generic.reflection.EntityType;
 import com.braintribe.model.generic.reflection.EntityTypes;
 
@@ -31,4 +32,14 @@ public interface GmWebRpcRemoteServiceProcessor extends ServiceProcessor {
 	String getUri();
 	void setUri(String uri);
 
+	@Description("Time window in milliseconds within which concurrently processed requests are sent to the server as a single batch. "
+			+ "Requests with streams are never batched. Zero (default) disables batching.")
+	long getBatchWindow();
+	void setBatchWindow(long batchWindow);
+
+	@Description("Number of pending requests at which a batch is sent right away, without waiting for the rest of the batch window.")
+	@Initializer("50")
+	int getMaxBatchSize();
+	void setMaxBatchSize(int maxBatchSize);
+
 }
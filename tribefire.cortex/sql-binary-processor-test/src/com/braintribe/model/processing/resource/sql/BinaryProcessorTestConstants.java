@@ -15,5 +15,6 @@ public interface BinaryProcessorTestConstants {
 
 	String SERVICE_ID_ENRICHING = "enriching";
 	String SERVICE_ID_SIMPLE = "simple";
+	String SERVICE_ID_CHUNKED = "chunked";
 
 }
@@ -19,6 +19,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -26,6 +27,12 @@ import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.sql.Date;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -300,6 +307,99 @@ public class SqlBinaryProcessorTest implements BinaryProcessorTestConstants {
 		}
 	}
 
+	// #############################################
+	// ## . . . . . . . . Chunked . . . . . . . . ##
+	// #############################################
+
+	@Test
+	public void testChunkedStream() throws Exception {
+		prepareResource(SERVICE_ID_CHUNKED, contract.simpleSqlBinaryProcessorConfig());
+
+		stream(null, true, null, null);
+		get(null, true, null, null);
+	}
+
+	@Test
+	public void testChunkedRanges() throws Exception {
+		prepareResource(SERVICE_ID_CHUNKED, contract.simpleSqlBinaryProcessorConfig());
+
+		// chunk size is 1024
+		streamWithRanges(0L, 1L);
+		streamWithRanges(0L, -1L);
+		streamWithRanges(1000L, 3000L);
+		streamWithRanges(1024L, 2047L);
+		streamWithRanges(2048L, Long.MAX_VALUE);
+
+		testGetWithRanges(0L, 1L);
+		testGetWithRanges(1000L, 3000L);
+		testGetWithRanges(1024L, 2047L);
+		testGetWithRanges(2048L, Long.MAX_VALUE);
+	}
+
+	@Test
+	public void testChunkedDeduplication() throws Exception {
+		prepareResource(SERVICE_ID_CHUNKED, contract.simpleSqlBinaryProcessorConfig());
+		Resource first = resource;
+
+		prepareResource(SERVICE_ID_CHUNKED, contract.simpleSqlBinaryProcessorConfig());
+		Resource second = resource;
+
+		// deleting the first must not delete the chunks shared with the second
+		resource = first;
+		deleteResource();
+
+		resource = second;
+		stream(null, true, null, null);
+		streamWithRanges(1000L, 3000L);
+	}
+
+	@Test
+	public void testChunkedConcurrentUploads() throws Exception {
+		serviceId = SERVICE_ID_CHUNKED;
+
+		// 12 distinct chunks (chunk size is 1024), the second binary consists of the same chunks in reverse order
+		int chunks = 12;
+		byte[] forward = new byte[chunks * 1024];
+		byte[] backward = new byte[chunks * 1024];
+		for (int i = 0; i < chunks; i++) {
+			Arrays.fill(forward, i * 1024, (i + 1) * 1024, (byte) i);
+			Arrays.fill(backward, i * 1024, (i + 1) * 1024, (byte) (chunks - 1 - i));
+		}
+
+		// neither upload finishes reading its data before the other one has read half of it
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		try {
+			Future<Resource> forwardFuture = executor.submit(() -> storeBytes(forward, barrier));
+			Future<Resource> backwardFuture = executor.submit(() -> storeBytes(backward, barrier));
+
+			Resource forwardResource = forwardFuture.get(60, TimeUnit.SECONDS);
+			Resource backwardResource = backwardFuture.get(60, TimeUnit.SECONDS);
+
+			assertArrayEquals(forward, read(forwardResource));
+			assertArrayEquals(backward, read(backwardResource));
+
+			// all the chunks are shared, so deleting one binary must not affect the other
+			resource = forwardResource;
+			deleteResource();
+
+			assertArrayEquals(backward, read(backwardResource));
+
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(expected = NotFoundException.class)
+	public void testChunkedDelete() throws Exception {
+		prepareResource(SERVICE_ID_CHUNKED, null);
+
+		deleteResource();
+
+		get(null, null, null); // NotFoundException expected
+	}
+
 	private void prepareResource(String serviceId, ProcessorConfig processorConfig) throws Exception {
 		this.serviceId = serviceId;
 		this.processorConfig = processorConfig;
@@ -332,6 +432,51 @@ public class SqlBinaryProcessorTest implements BinaryProcessorTestConstants {
 		return storeResponse;
 	}
 
+	private Resource storeBytes(byte[] data, CyclicBarrier barrier) {
+		Resource createFrom = Resource.createTransient(() -> new HalfwayBarrierInputStream(data, barrier));
+		createFrom.setName("concurrent.bin");
+
+		StoreBinary store = StoreBinary.T.create();
+		store.setCreateFrom(createFrom);
+		store.setServiceId(serviceId);
+		store.setDomainId(access.getAccessId());
+
+		return store.eval(contract.evaluator()).get().getResource();
+	}
+
+	private byte[] read(Resource resource) throws Exception {
+		this.resource = resource;
+
+		try (InputStream in = get(null, null, null).getResource().openStream()) {
+			return IOTools.slurpBytes(in);
+		}
+	}
+
+	/** Waits on given barrier once half of the data was read. */
+	private static class HalfwayBarrierInputStream extends ByteArrayInputStream {
+		private final CyclicBarrier barrier;
+		private boolean awaited;
+
+		public HalfwayBarrierInputStream(byte[] data, CyclicBarrier barrier) {
+			super(data);
+			this.barrier = barrier;
+		}
+
+		@Override
+		public synchronized int read(byte[] b, int off, int len) {
+			if (!awaited && pos >= count / 2) {
+				awaited = true;
+				try {
+					barrier.await(60, TimeUnit.SECONDS);
+				} catch (Exception e) {
+					throw new IllegalStateException("Concurrent upload did not read its data in time.", e);
+				}
+			}
+
+			return super.read(b, off, len);
+		}
+	}
+
 	private DeleteBinaryResponse deleteResource() throws Exception {
 		DeleteBinary delete = DeleteBinary.T.create();
 		delete.setResource(resource);
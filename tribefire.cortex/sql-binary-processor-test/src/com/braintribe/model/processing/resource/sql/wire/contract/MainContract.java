@@ -33,6 +33,8 @@ public interface MainContract extends WireSpace {
 
 	JdbcSqlBinaryProcessor enrichingSqlBinaryProcessor() throws Exception;
 
+	JdbcSqlBinaryProcessor chunkedSqlBinaryProcessor();
+
 	Map<String, TestFile> testFiles();
 	
 	Evaluator<ServiceRequest> evaluator();
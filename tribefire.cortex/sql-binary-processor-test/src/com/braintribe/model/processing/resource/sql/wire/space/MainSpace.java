@@ -77,6 +77,7 @@ public class MainSpace implements MainContract, BinaryProcessorTestConstants {
 		ServiceIdDispatchingProcessor<BinaryRequest> bean = new ServiceIdDispatchingProcessor<>();
 		bean.register(SERVICE_ID_SIMPLE, simpleSqlBinaryProcessor());
 		bean.register(SERVICE_ID_ENRICHING, enrichingSqlBinaryProcessor());
+		bean.register(SERVICE_ID_CHUNKED, chunkedSqlBinaryProcessor());
 		return bean;
 	}
 
@@ -160,6 +161,18 @@ public class MainSpace implements MainContract, BinaryProcessorTestConstants {
 		return bean;
 	}
 
+	@Override
+	@Managed
+	public JdbcSqlBinaryProcessor chunkedSqlBinaryProcessor() {
+		JdbcSqlBinaryProcessor bean = new JdbcSqlBinaryProcessor();
+		bean.setIdGenerator(r -> "test-C-" + UUID.randomUUID().toString());
+		bean.setTableName("gm_chunked_resources");
+		bean.setChunkSize(1024);
+		bean.setChunkBatchSize(4);
+		configJdbcProcessor(bean, simpleSqlBinaryProcessorConfig());
+		return bean;
+	}
+
 	@Managed
 	private ResourceEnrichingStreamer enrichingStreamer() {
 		StandardResourceEnrichingStreamer bean = new StandardResourceEnrichingStreamer();
@@ -15,6 +15,7 @@ import static com.braintribe.util.jdbc.JdbcTools.thoroughlyCloseJdbcConnection;
 import static java.util.Objects.requireNonNull;
 
 import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -26,6 +27,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Statement;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.locks.Lock;
 import java.util.function.Function;
@@ -44,6 +46,7 @@ import com.braintribe.exception.Exceptions;
 import com.braintribe.logging.Logger;
 import com.braintribe.model.generic.eval.Evaluator;
 import com.braintribe.model.processing.lock.api.Locking;
+import com.braintribe.model.processing.resource.sql.SqlChunkStore.ChunkRef;
 import com.braintribe.model.processing.resource.streaming.AbstractBinaryProcessor;
 import com.braintribe.model.processing.service.api.ServiceRequestContext;
 import com.braintribe.model.processing.session.api.managed.NotFoundException;
@@ -91,10 +94,18 @@ public class JdbcSqlBinaryProcessor extends AbstractBinaryProcessor implements I
 	private String idColumnName = "id";
 	private String blobColumnName = "data";
 
+	private int chunkSize;
+	private int chunkBatchSize = 16;
+	private String chunkTableName;
+	private String chunkRefTableName;
+
 	private String insertSql;
 	private String getSql;
 	private String deleteSql;
 
+	// only set if binaries are stored in chunks
+	private SqlChunkStore chunkStore;
+
 	// Marks that getBinaryStream(position, length) isn't supported by JDBC driver; only set if
 	// SQLFeatureNotSupportedException is thrown
 	private Boolean rangedBinaryStreamNotSupported;
@@ -111,6 +122,21 @@ public class JdbcSqlBinaryProcessor extends AbstractBinaryProcessor implements I
 	@Configurable public void setTableName(String tableName) { this.tableName = NullSafe.get(tableName, this.tableName); }
 	@Configurable public void setIdColumnName(String idColumnName) { this.idColumnName = NullSafe.get(idColumnName, this.idColumnName); }
 	@Configurable public void setBlobColumnName(String blobColumnName) { this.blobColumnName = NullSafe.get(blobColumnName, this.blobColumnName); }
+
+	/**
+	 * If positive, new binaries are split into chunks of this many bytes, and identical chunks are only stored once (see {@link SqlChunkStore}).
+	 * Binaries stored as a single BLOB remain readable. By default (0) every binary is stored as a single BLOB.
+	 */
+	@Configurable public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+	/**
+	 * Number of chunks kept in memory while storing a binary (bigger binaries are spooled to a temporary file), and number of chunk references
+	 * written with a single JDBC batch. Default is 16.
+	 */
+	@Configurable public void setChunkBatchSize(int chunkBatchSize) { this.chunkBatchSize = chunkBatchSize; }
+	/** Name of the table with the chunk data. Default is the {@link #setTableName(String) table name} with suffix "_chunks". */
+	@Configurable public void setChunkTableName(String chunkTableName) { this.chunkTableName = chunkTableName; }
+	/** Name of the table which lists the chunks of each binary. Default is the {@link #setTableName(String) table name} with suffix "_chunk_refs". */
+	@Configurable public void setChunkRefTableName(String chunkRefTableName) { this.chunkRefTableName = chunkRefTableName; }
 	// @formatter:on
 
 	// ######################################################
@@ -122,6 +148,12 @@ public class JdbcSqlBinaryProcessor extends AbstractBinaryProcessor implements I
 		insertSql = "insert into " + tableName + " (" + idColumnName + ", " + blobColumnName + ") values (?,?)";
 		getSql = "select " + blobColumnName + " from " + tableName + " where " + idColumnName + " = ?";
 		deleteSql = "delete from  " + tableName + " where " + idColumnName + " = ?";
+
+		if (chunkSize > 0)
+			chunkStore = new SqlChunkStore( //
+					NullSafe.get(chunkTableName, tableName + "_chunks"), //
+					NullSafe.get(chunkRefTableName, tableName + "_chunk_refs"), //
+					chunkSize, chunkBatchSize);
 	}
 	
 	private final LazyInitialization ensureTable = new LazyInitialization(this::ensureTableExists);
@@ -143,7 +175,7 @@ public class JdbcSqlBinaryProcessor extends AbstractBinaryProcessor implements I
 	}
 
 	private void ensureTableExists(Connection connection, JdbcDialect dialect) throws Exception {
-		if (resourcesTableExists(connection))
+		if (tablesExist(connection))
 			return;
 
 		String st = "create table " + tableName + " (" + //
@@ -158,16 +190,20 @@ public class JdbcSqlBinaryProcessor extends AbstractBinaryProcessor implements I
 		lock.lock();
 
 		try {
-			if (resourcesTableExists(connection))
-				return;
+			if (!resourcesTableExists(connection)) {
+				Statement statement = connection.createStatement();
+				try {
+					statement.executeUpdate(st);
+					log.debug(() -> logPrefix() + "Successfully created table: " + tableName);
 
-			Statement statement = connection.createStatement();
-			try {
-				statement.executeUpdate(st);
-				log.debug(() -> logPrefix() + "Successfully created table: " + tableName);
+				} finally {
+					statement.close();
+				}
+			}
 
-			} finally {
-				statement.close();
+			if (chunkStore != null && !chunkStore.tablesExist(connection)) {
+				chunkStore.createTables(connection, dialect);
+				log.debug(() -> logPrefix() + "Successfully created binary chunk tables.");
 			}
 
 		} finally {
@@ -175,6 +211,10 @@ public class JdbcSqlBinaryProcessor extends AbstractBinaryProcessor implements I
 		}
 	}
 
+	private boolean tablesExist(Connection connection) {
+		return resourcesTableExists(connection) && (chunkStore == null || chunkStore.tablesExist(connection));
+	}
+
 	private boolean resourcesTableExists(Connection connection) {
 		return JdbcTools.tableExists(connection, tableName) != null;
 	}
@@ -209,7 +249,10 @@ public class JdbcSqlBinaryProcessor extends AbstractBinaryProcessor implements I
 		try (InputStream inputStream = resource.openStream()) {
 			String id = idGenerator.apply(resource);
 
-			insert(connection, id, inputStream);
+			if (chunkStore != null)
+				chunkStore.store(connection, id, inputStream);
+			else
+				insert(connection, id, inputStream);
 
 			return id;
 		}
@@ -235,8 +278,16 @@ public class JdbcSqlBinaryProcessor extends AbstractBinaryProcessor implements I
 		Resource resource = requireNonNull(request.getResource(), "request resource cannot be null");
 		SqlSource source = retrieveSqlSource(resource);
 
+		String id = getBlobId(source, request.getDomainId());
+
+		if (chunkStore != null && chunkStore.delete(connection, id)) {
+			connection.commit();
+			log.trace(() -> logPrefix() + "Deleted chunked resource: " + id);
+
+			return DeleteBinaryResponse.T.create();
+		}
+
 		try (PreparedStatement ps = connection.prepareStatement(deleteSql)) {
-			String id = getBlobId(source, request.getDomainId());
 			ps.setString(1, id);
 
 			int deleted = ps.executeUpdate();
@@ -271,20 +322,21 @@ public class JdbcSqlBinaryProcessor extends AbstractBinaryProcessor implements I
 			StreamBinaryResponse response) {
 
 		String key = getBlobId(source, request.getDomainId());
-		Blob blob = null;
+		StoredBinary binary = null;
 		StreamRange range = null;
 		try {
 
-			blob = queryBlob(connection, key);
-			range = resolveRange(request, blob);
+			binary = queryBinary(connection, key);
+			long length = binary.length();
+			range = resolveRange(request, length);
 
-			addRangeDataToResponseIfNeeded(range, response, blob);
+			addRangeDataToResponseIfNeeded(range, response, length);
 
 			context.notifyResponse(response);
 		} catch (Exception e) {
 			throw Exceptions.unchecked(e, "Failed to resolve " + SqlSource.class.getSimpleName() + " with id " + key);
 		}
-		try (InputStream is = new BufferedInputStream(resolveBlobStream(range, blob)); OutputStream os = request.getCapture().openStream()) {
+		try (InputStream is = binary.openStream(range); OutputStream os = request.getCapture().openStream()) {
 			IOTools.pump(is, os);
 		} catch (Exception e) {
 			throw Exceptions.unchecked(e, "Failed to stream " + SqlSource.class.getSimpleName() + " with id " + key);
@@ -298,14 +350,14 @@ public class JdbcSqlBinaryProcessor extends AbstractBinaryProcessor implements I
 			SqlSource source = retrieveSqlSource(resource);
 
 			String id = getBlobId(source, request.getDomainId());
-			Blob blob = queryBlob(connection, id);
+			long length = queryBinary(connection, id).length();
 
-			StreamRange range = resolveRange(request, blob);
+			StreamRange range = resolveRange(request, length);
 
 			Supplier<InputStream> newConnectionCreatingIss = () -> openDbConnectionAndGetInputStream(id, range);
 
 			// set response and cut stream
-			addRangeDataToResponseIfNeeded(range, response, blob);
+			addRangeDataToResponseIfNeeded(range, response, length);
 
 			Resource callResource = Resource.createTransient(newConnectionCreatingIss::get);
 			callResource.setName(resource.getName());
@@ -324,7 +376,7 @@ public class JdbcSqlBinaryProcessor extends AbstractBinaryProcessor implements I
 		return range != null ? (Long) (range.getEnd() - range.getStart() + 1) : resource.getFileSize();
 	}
 
-	private StreamRange resolveRange(BinaryRetrievalRequest request, Blob blob) {
+	private StreamRange resolveRange(BinaryRetrievalRequest request, long length) {
 		StreamRange range = request.getRange();
 		if (range == null)
 			return null;
@@ -334,12 +386,8 @@ public class JdbcSqlBinaryProcessor extends AbstractBinaryProcessor implements I
 			return null;
 
 		Long end = range.getEnd();
-		try {
-			if (end == null || end < start || end >= blob.length())
-				end = blob.length() - 1;
-		} catch (Exception e) {
-			throw Exceptions.unchecked(e, "Could not get the length of BLOB " + blob);
-		}
+		if (end == null || end < start || end >= length)
+			end = length - 1;
 
 		return StreamRange.create(start, end);
 	}
@@ -352,10 +400,10 @@ public class JdbcSqlBinaryProcessor extends AbstractBinaryProcessor implements I
 			connection.setAutoCommit(false);
 
 			try {
-				Blob blob = queryBlob(connection, id);
+				StoredBinary binary = queryBinary(connection, id);
 
 				try {
-					return new BufferedInputStream(resolveBlobStream(range, blob)) {
+					return new FilterInputStream(binary.openStream(range)) {
 						@Override
 						public void close() throws IOException {
 							try {
@@ -387,19 +435,65 @@ public class JdbcSqlBinaryProcessor extends AbstractBinaryProcessor implements I
 		thoroughlyCloseJdbcConnection(connection, commit, () -> logPrefix() + "Associated with resource: " + id);
 	}
 
-	private void addRangeDataToResponseIfNeeded(StreamRange range, BinaryRetrievalResponse response, Blob blob) {
+	private void addRangeDataToResponseIfNeeded(StreamRange range, BinaryRetrievalResponse response, long length) {
 		if (range != null) {
-			try {
-				response.setRanged(true);
-				response.setRangeStart(range.getStart());
-				response.setRangeEnd(range.getEnd());
-				response.setSize(blob.length());
-			} catch (Exception e) {
-				throw new RuntimeException(logPrefix() + "Could not rangify stream according to " + range.getStart() + "-" + range.getEnd(), e);
-			}
+			response.setRanged(true);
+			response.setRangeStart(range.getStart());
+			response.setRangeEnd(range.getEnd());
+			response.setSize(length);
 		}
 	}
 
+	/** A binary as stored in the DB, either as a single BLOB or as chunks. */
+	private interface StoredBinary {
+		long length();
+
+		/** @param range a range resolved via {@link JdbcSqlBinaryProcessor#resolveRange}, or <tt>null</tt> for the whole binary */
+		InputStream openStream(StreamRange range) throws SQLException;
+	}
+
+	// must not return null
+	private StoredBinary queryBinary(Connection connection, String id) {
+		if (chunkStore != null) {
+			List<ChunkRef> refs = queryChunkRefs(connection, id);
+			if (!refs.isEmpty())
+				return chunkedBinary(connection, refs);
+		}
+
+		Blob blob = queryBlob(connection, id);
+		long length = blobLength(blob);
+
+		return new StoredBinary() {
+			@Override
+			public long length() {
+				return length;
+			}
+
+			@Override
+			public InputStream openStream(StreamRange range) throws SQLException {
+				return new BufferedInputStream(resolveBlobStream(range, blob));
+			}
+		};
+	}
+
+	private StoredBinary chunkedBinary(Connection connection, List<ChunkRef> refs) {
+		long length = SqlChunkStore.length(refs);
+
+		return new StoredBinary() {
+			@Override
+			public long length() {
+				return length;
+			}
+
+			@Override
+			public InputStream openStream(StreamRange range) throws SQLException {
+				return range == null //
+						? chunkStore.openStream(connection, refs, 0, length)
+						: chunkStore.openStream(connection, refs, range.getStart(), range.getEnd() + 1);
+			}
+		};
+	}
+
 	private InputStream resolveBlobStream(StreamRange range, Blob blob) throws SQLException {
 		if (range == null || isFullRange(range, blob))
 			return blob.getBinaryStream();
@@ -433,6 +527,22 @@ public class JdbcSqlBinaryProcessor extends AbstractBinaryProcessor implements I
 	// ## . . . . . . . . . . Helpers . . . . . . . . . . .##
 	// ######################################################
 
+	private List<ChunkRef> queryChunkRefs(Connection connection, String id) {
+		try {
+			return chunkStore.queryChunkRefs(connection, id);
+		} catch (Exception e) {
+			throw Exceptions.unchecked(e, "Could not query for binary chunks of id " + id);
+		}
+	}
+
+	private static long blobLength(Blob blob) {
+		try {
+			return blob.length();
+		} catch (Exception e) {
+			throw Exceptions.unchecked(e, "Could not get the length of BLOB " + blob);
+		}
+	}
+
 	// must not return null
 	private Blob queryBlob(Connection connection, String id) {
 		try (PreparedStatement ps = connection.prepareStatement(getSql)) {
@@ -0,0 +1,492 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.resource.sql;
+
+import static com.braintribe.utils.lcd.CollectionTools2.newList;
+import static com.braintribe.utils.lcd.CollectionTools2.newMap;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.SequenceInputStream;
+import java.security.MessageDigest;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+import com.braintribe.exception.Exceptions;
+import com.braintribe.logging.Logger;
+import com.braintribe.util.jdbc.JdbcTools;
+import com.braintribe.util.jdbc.dialect.JdbcDialect;
+import com.braintribe.utils.FileTools;
+import com.braintribe.utils.StringTools;
+
+/**
+ * Chunked, content-addressed storage layout of the {@link JdbcSqlBinaryProcessor}.
+ * <p>
+ * A binary is split into chunks of fixed size, and every chunk is stored just once in the chunk table, under its SHA-256 hash and with a reference
+ * count. The reference table lists the chunks of every binary together with their offsets, so that a range can be served by fetching only the
+ * chunks it overlaps.
+ * <p>
+ * A binary is first split into chunks completely (spooling bigger binaries to a temporary file), and only then are the reference counts of its
+ * chunks incremented, one chunk at a time, ordered by the chunk hashes. The reference count of a chunk is updated before the chunk would be
+ * inserted, so concurrent stores and deletes of binaries sharing a chunk are serialized by the row lock of that chunk. As both stores and deletes
+ * lock the chunk rows ordered by hash, they cannot deadlock. If two stores insert the same new chunk concurrently, the one that loses rolls back to
+ * a savepoint and increments the reference count instead.
+ * <p>
+ * The references of a binary to its chunks are written in JDBC batches of {@code batchSize} entries.
+ */
+/* package */ class SqlChunkStore {
+
+	private static final Logger log = Logger.getLogger(SqlChunkStore.class);
+
+	private static final String HASH_ALGORITHM = "SHA-256";
+
+	private final String chunkTableName;
+	private final String refTableName;
+	private final int chunkSize;
+	private final int batchSize;
+
+	private final String incrementSql;
+	private final String decrementSql;
+	private final String insertChunkSql;
+	private final String deleteUnusedChunkSql;
+	private final String getChunkSql;
+	private final String insertRefSql;
+	private final String getRefsSql;
+	private final String deleteRefsSql;
+
+	public SqlChunkStore(String chunkTableName, String refTableName, int chunkSize, int batchSize) {
+		this.chunkTableName = chunkTableName;
+		this.refTableName = refTableName;
+		this.chunkSize = chunkSize;
+		this.batchSize = Math.max(batchSize, 1);
+
+		incrementSql = "update " + chunkTableName + " set ref_count = ref_count + ? where chunk_hash = ?";
+		decrementSql = "update " + chunkTableName + " set ref_count = ref_count - ? where chunk_hash = ?";
+		insertChunkSql = "insert into " + chunkTableName + " (chunk_hash, ref_count, data) values (?,?,?)";
+		deleteUnusedChunkSql = "delete from " + chunkTableName + " where chunk_hash = ? and ref_count <= 0";
+		getChunkSql = "select data from " + chunkTableName + " where chunk_hash = ?";
+
+		insertRefSql = "insert into " + refTableName + " (resource_id, seq, chunk_offset, chunk_length, chunk_hash) values (?,?,?,?,?)";
+		getRefsSql = "select chunk_offset, chunk_length, chunk_hash from " + refTableName + " where resource_id = ? order by seq";
+		deleteRefsSql = "delete from " + refTableName + " where resource_id = ?";
+	}
+
+	// ######################################################
+	// ## . . . . . . . . . . . Tables . . . . . . . . . . ##
+	// ######################################################
+
+	public boolean tablesExist(Connection connection) {
+		return JdbcTools.tableExists(connection, chunkTableName) != null && JdbcTools.tableExists(connection, refTableName) != null;
+	}
+
+	public void createTables(Connection connection, JdbcDialect dialect) throws SQLException {
+		// @formatter:off
+		if (JdbcTools.tableExists(connection, chunkTableName) == null)
+			executeDdl(connection, "create table " + chunkTableName + " (" +
+					"chunk_hash varchar(64) primary key not null, " +
+					"ref_count " + dialect.longType() + " not null, " +
+					"data " + dialect.blobType() +
+					")");
+
+		if (JdbcTools.tableExists(connection, refTableName) == null)
+			executeDdl(connection, "create table " + refTableName + " (" +
+					"resource_id varchar(255) not null, " +
+					"seq " + dialect.intType() + " not null, " +
+					"chunk_offset " + dialect.longType() + " not null, " +
+					"chunk_length " + dialect.intType() + " not null, " +
+					"chunk_hash varchar(64) not null, " +
+					"primary key (resource_id, seq)" +
+					")");
+		// @formatter:on
+	}
+
+	private void executeDdl(Connection connection, String st) throws SQLException {
+		log.debug(() -> "Creating binary chunk table with statement: " + st);
+
+		try (Statement statement = connection.createStatement()) {
+			statement.executeUpdate(st);
+		}
+	}
+
+	// ######################################################
+	// ## . . . . . . . . . . . Store . . . . . . . . . . .##
+	// ######################################################
+
+	public void store(Connection connection, String id, InputStream in) throws IOException, SQLException {
+		try (ChunkSpool spool = new ChunkSpool()) {
+			byte[] data;
+			while ((data = readChunk(in)) != null)
+				spool.add(data);
+
+			// even an empty binary needs a reference, otherwise it would not be found
+			if (spool.chunks.isEmpty())
+				spool.add(new byte[0]);
+
+			writeChunks(connection, spool);
+			insertRefs(connection, id, spool.chunks);
+		}
+	}
+
+	/** @return the next chunk, which is only shorter than the chunk size if it is the last one, or <tt>null</tt> if there is no more data */
+	private byte[] readChunk(InputStream in) throws IOException {
+		byte[] buffer = new byte[chunkSize];
+
+		int length = 0;
+		while (length < chunkSize) {
+			int read = in.read(buffer, length, chunkSize - length);
+			if (read < 0)
+				break;
+
+			length += read;
+		}
+
+		if (length == 0)
+			return null;
+
+		return length == chunkSize ? buffer : Arrays.copyOf(buffer, length);
+	}
+
+	/**
+	 * Increments the reference count of every distinct chunk of given binary, inserting the chunks which are not stored yet. This is done one chunk
+	 * at a time, ordered by the chunk hashes (which is also the order in which {@link #delete} locks the chunks). Thus every transaction locks the
+	 * chunk rows in the same global order, so concurrent stores and deletes never wait for each other in a cycle, no matter which chunks they share
+	 * and in which order these appear in the binaries.
+	 */
+	private void writeChunks(Connection connection, ChunkSpool spool) throws IOException, SQLException {
+		Map<String, Chunk> uniqueChunks = new TreeMap<>();
+		Map<String, Integer> counts = newMap();
+		for (Chunk chunk : spool.chunks) {
+			uniqueChunks.putIfAbsent(chunk.hash, chunk);
+			counts.merge(chunk.hash, 1, Integer::sum);
+		}
+
+		try (PreparedStatement increment = connection.prepareStatement(incrementSql);
+				PreparedStatement insert = connection.prepareStatement(insertChunkSql)) {
+
+			for (Chunk chunk : uniqueChunks.values()) {
+				int count = counts.get(chunk.hash);
+				if (!incrementReferences(increment, chunk.hash, count))
+					insertChunk(connection, insert, increment, chunk, count, spool);
+			}
+		}
+	}
+
+	/** @return <tt>false</tt> iff there is no such chunk */
+	private static boolean incrementReferences(PreparedStatement increment, String hash, int count) throws SQLException {
+		increment.setInt(1, count);
+		increment.setString(2, hash);
+
+		return increment.executeUpdate() > 0;
+	}
+
+	/**
+	 * Inserts a chunk which is not stored yet. If a concurrent store inserts the same chunk first, our insert waits for its transaction to finish and
+	 * then fails with a duplicate key. In that case we roll back to a savepoint and increment the reference count of the chunk inserted by the other
+	 * store instead.
+	 */
+	private void insertChunk(Connection connection, PreparedStatement insert, PreparedStatement increment, Chunk chunk, int count,
+			ChunkSpool spool) throws IOException, SQLException {
+
+		byte[] data = spool.data(chunk);
+		Savepoint savepoint = connection.setSavepoint();
+
+		try {
+			insert.setString(1, chunk.hash);
+			insert.setLong(2, count);
+			insert.setBlob(3, new ByteArrayInputStream(data), data.length);
+			insert.executeUpdate();
+
+		} catch (SQLException e) {
+			connection.rollback(savepoint);
+
+			if (!incrementReferences(increment, chunk.hash, count))
+				throw e;
+
+			log.debug(() -> "Binary chunk " + chunk.hash + " was inserted by a concurrent store, its reference count was incremented instead.");
+		}
+	}
+
+	private void insertRefs(Connection connection, String id, List<Chunk> chunks) throws SQLException {
+		try (PreparedStatement ps = connection.prepareStatement(insertRefSql)) {
+			int batched = 0;
+			for (Chunk chunk : chunks) {
+				ps.setString(1, id);
+				ps.setInt(2, chunk.seq);
+				ps.setLong(3, chunk.offset);
+				ps.setInt(4, chunk.length);
+				ps.setString(5, chunk.hash);
+				ps.addBatch();
+
+				if (++batched == batchSize) {
+					ps.executeBatch();
+					batched = 0;
+				}
+			}
+
+			if (batched > 0)
+				ps.executeBatch();
+		}
+	}
+
+	/**
+	 * The chunks of a binary being stored. As the chunks can only be written once all of them are known (see {@link #writeChunks}), their data is
+	 * kept in memory for up to {@link SqlChunkStore#batchSize batch size} chunks, and spooled to a temporary file for bigger binaries.
+	 */
+	private class ChunkSpool implements Closeable {
+		final List<Chunk> chunks = newList();
+		final MessageDigest digest = newDigest();
+
+		private final List<byte[]> bufferedData = newList();
+		private long length;
+		private File file;
+		private RandomAccessFile fileAccess;
+
+		void add(byte[] data) throws IOException {
+			chunks.add(new Chunk(chunks.size(), length, data.length, StringTools.toHex(digest.digest(data))));
+			length += data.length;
+
+			if (fileAccess == null && bufferedData.size() < batchSize) {
+				bufferedData.add(data);
+				return;
+			}
+
+			if (fileAccess == null)
+				spoolBufferedData();
+
+			fileAccess.write(data);
+		}
+
+		private void spoolBufferedData() throws IOException {
+			file = FileTools.createTempFileSecure("binary-chunks-", ".tmp");
+			fileAccess = new RandomAccessFile(file, "rw");
+
+			for (byte[] data : bufferedData)
+				fileAccess.write(data);
+
+			bufferedData.clear();
+		}
+
+		byte[] data(Chunk chunk) throws IOException {
+			if (fileAccess == null)
+				return bufferedData.get(chunk.seq);
+
+			byte[] result = new byte[chunk.length];
+			fileAccess.seek(chunk.offset);
+			fileAccess.readFully(result);
+
+			return result;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (fileAccess == null)
+				return;
+
+			try {
+				fileAccess.close();
+			} finally {
+				if (!file.delete())
+					log.warn("Could not delete temporary file with binary chunks: " + file.getAbsolutePath());
+			}
+		}
+	}
+
+	// ######################################################
+	// ## . . . . . . . . . . . Delete . . . . . . . . . . ##
+	// ######################################################
+
+	/** @return <tt>false</tt> iff there is no binary with given id in this store */
+	public boolean delete(Connection connection, String id) throws SQLException {
+		List<ChunkRef> refs = queryChunkRefs(connection, id);
+		if (refs.isEmpty())
+			return false;
+
+		try (PreparedStatement ps = connection.prepareStatement(deleteRefsSql)) {
+			ps.setString(1, id);
+			ps.executeUpdate();
+		}
+
+		Map<String, Integer> counts = new TreeMap<>();
+		for (ChunkRef ref : refs)
+			counts.merge(ref.hash, 1, Integer::sum);
+
+		try (PreparedStatement ps = connection.prepareStatement(decrementSql)) {
+			for (Map.Entry<String, Integer> e : counts.entrySet()) {
+				ps.setInt(1, e.getValue());
+				ps.setString(2, e.getKey());
+				ps.addBatch();
+			}
+
+			ps.executeBatch();
+		}
+
+		try (PreparedStatement ps = connection.prepareStatement(deleteUnusedChunkSql)) {
+			for (String hash : counts.keySet()) {
+				ps.setString(1, hash);
+				ps.addBatch();
+			}
+
+			ps.executeBatch();
+		}
+
+		return true;
+	}
+
+	// ######################################################
+	// ## . . . . . . . . . . Retrieval . . . . . . . . . .##
+	// ######################################################
+
+	/** @return the chunks of the binary with given id, ordered by their offset, or an empty list if there is no such binary in this store */
+	public List<ChunkRef> queryChunkRefs(Connection connection, String id) throws SQLException {
+		List<ChunkRef> result = newList();
+
+		try (PreparedStatement ps = connection.prepareStatement(getRefsSql)) {
+			ps.setString(1, id);
+
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next())
+					result.add(new ChunkRef(rs.getLong(1), rs.getInt(2), rs.getString(3)));
+			}
+		}
+
+		return result;
+	}
+
+	public static long length(List<ChunkRef> refs) {
+		if (refs.isEmpty())
+			return 0;
+
+		ChunkRef last = refs.get(refs.size() - 1);
+		return last.offset + last.length;
+	}
+
+	/**
+	 * Opens a stream of the bytes between {@code start} (inclusive) and {@code end} (exclusive) of the binary consisting of given chunks. Only the
+	 * chunks overlapping this range are fetched, one at a time, as the stream is being read.
+	 */
+	public InputStream openStream(Connection connection, List<ChunkRef> refs, long start, long end) throws SQLException {
+		PreparedStatement ps = connection.prepareStatement(getChunkSql);
+
+		Iterator<ChunkRef> it = refs.stream() //
+				.filter(ref -> ref.offset + ref.length > start && ref.offset < end) //
+				.iterator();
+
+		Enumeration<InputStream> chunkStreams = new Enumeration<InputStream>() {
+			@Override
+			public boolean hasMoreElements() {
+				return it.hasNext();
+			}
+
+			@Override
+			public InputStream nextElement() {
+				if (!it.hasNext())
+					throw new NoSuchElementException();
+
+				ChunkRef ref = it.next();
+				long from = Math.max(start - ref.offset, 0);
+				long to = Math.min(end - ref.offset, ref.length);
+
+				return new ByteArrayInputStream(readChunk(ps, ref.hash, from, (int) (to - from)));
+			}
+		};
+
+		return new SequenceInputStream(chunkStreams) {
+			@Override
+			public void close() throws IOException {
+				try {
+					super.close();
+				} finally {
+					try {
+						ps.close();
+					} catch (SQLException e) {
+						throw new IOException("Error while closing statement for reading binary chunks.", e);
+					}
+				}
+			}
+		};
+	}
+
+	private byte[] readChunk(PreparedStatement ps, String hash, long from, int length) {
+		try {
+			ps.setString(1, hash);
+
+			try (ResultSet rs = ps.executeQuery()) {
+				if (!rs.next())
+					throw new IllegalStateException("Binary chunk not found: " + hash + ". Table: " + chunkTableName);
+
+				if (length == 0)
+					return new byte[0];
+
+				Blob blob = rs.getBlob(1);
+				return blob.getBytes(from + 1, length);
+			}
+
+		} catch (SQLException e) {
+			throw Exceptions.unchecked(e, "Could not read binary chunk: " + hash);
+		}
+	}
+
+	// ######################################################
+	// ## . . . . . . . . . . . Helpers . . . . . . . . . .##
+	// ######################################################
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (Exception e) {
+			throw Exceptions.unchecked(e, "Could not create " + HASH_ALGORITHM + " digest");
+		}
+	}
+
+	private static class Chunk {
+		final int seq;
+		final long offset;
+		final int length;
+		final String hash;
+
+		Chunk(int seq, long offset, int length, String hash) {
+			this.seq = seq;
+			this.offset = offset;
+			this.length = length;
+			this.hash = hash;
+		}
+	}
+
+	/* package */ static class ChunkRef {
+		final long offset;
+		final int length;
+		final String hash;
+
+		ChunkRef(long offset, int length, String hash) {
+			this.offset = offset;
+			this.length = length;
+			this.hash = hash;
+		}
+	}
+
+}
@@ -18,6 +18,7 @@ import com.braintribe.cartridge.common.processing.streaming.StandardResourceEnri
 import com.braintribe.mimetype.MimeTypeDetector;
 import com.braintribe.mimetype.PlatformMimeTypeDetector;
 import com.braintribe.model.cortex.deployment.CortexConfiguration;
+import com.braintribe.model.processing.bootstrapping.TribefireRuntime;
 import com.braintribe.model.processing.deployment.api.SchrodingerBean;
 import com.braintribe.model.processing.resource.enrichment.ResourceEnrichingStreamer;
 import com.braintribe.model.resource.api.MimeTypeRegistry;
@@ -41,6 +42,9 @@ public class ResourceProcessingSpace implements ResourceProcessingContract {
 	@Import
 	private BindersSpace binders;
 
+	@Import
+	private EnvironmentSpace environment;
+
 	@Import
 	private SchrodingerBeansSpace schrodingerBeans;
 
@@ -94,6 +98,9 @@ public class ResourceProcessingSpace implements ResourceProcessingContract {
 	public CompoundBlockPool streamPipeFactory() {
 		SmartBlockPoolFactory poolFactory = SmartBlockPoolFactory.usingAvailableMemory(0.1);
 		poolFactory.setStreamPipeFolder(streamPipeFolder());
+		poolFactory.setLargeBlocksOffHeap(environment.property(TribefireRuntime.ENVIRONMENT_STREAM_PIPES_OFF_HEAP, Boolean.class, false));
+		poolFactory.setMappedBlocksAmount(environment.property(TribefireRuntime.ENVIRONMENT_STREAM_PIPES_MAPPED_BLOCKS, Integer.class, 0));
+		poolFactory.setMappedBlocksFolder(mappedStreamPipeBlocksFolder());
 
 		return poolFactory.create();
 	}
@@ -107,6 +114,14 @@ public class ResourceProcessingSpace implements ResourceProcessingContract {
 		return bean;
 	}
 
+	@Managed
+	public File mappedStreamPipeBlocksFolder() {
+		File tempDir = FileTools.getTempDir();
+		File bean = new File(tempDir, "platform/mappedStreamPipeBlocks");
+
+		return bean;
+	}
+
 	@Override
 	@Managed
 	public MimeTypeRegistry mimeTypeRegistry() {
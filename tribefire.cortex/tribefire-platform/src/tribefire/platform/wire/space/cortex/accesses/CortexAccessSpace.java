@@ -95,6 +95,8 @@ public class CortexAccessSpace extends CollaborativeSystemAccessSpaceBase {
 		bean.setSelfModelName(CortexModelNames.TF_CORTEX_MODEL_NAME);
 		bean.setModelAccessory(dynamicModelAccessory());
 		bean.setCollaborativeRequestProcessor(collaborativeAccessManager());
+		if (TribefireRuntime.getCsaSnapshots())
+			bean.setSnapshotPersistence(systemAccessCommons.csaSnapshotPersistence(storageBase()));
 
 		return bean;
 	}
@@ -27,11 +27,14 @@ import com.braintribe.model.processing.bootstrapping.TribefireRuntime;
 import com.braintribe.model.processing.sp.api.StateChangeProcessorRule;
 import com.braintribe.model.processing.sp.aspect.StateProcessingAspect;
 import com.braintribe.model.processing.sp.commons.ConfigurableStateChangeProcessorRuleSet;
+import com.braintribe.model.processing.sp.invocation.multithreaded.FileSystemSpInvocationPacketStore;
 import com.braintribe.model.processing.sp.invocation.multithreaded.MultiThreadedSpInvocation;
+import com.braintribe.utils.FileTools;
 import com.braintribe.wire.api.annotation.Import;
 import com.braintribe.wire.api.annotation.Managed;
 
 import tribefire.platform.wire.space.common.EnvironmentSpace;
+import tribefire.platform.wire.space.common.MarshallingSpace;
 import tribefire.platform.wire.space.cortex.AccessAspectsSpace;
 import tribefire.platform.wire.space.cortex.TraversingCriteriaSpace;
 import tribefire.platform.wire.space.cortex.deployment.DeploymentSpace;
@@ -47,6 +50,7 @@ public abstract class HardwiredAccessSpaceBase extends SystemAccessSpaceBase {
 	@Import protected AuthContextSpace authContext;
 	@Import protected DeploymentSpace deployment;
 	@Import protected EnvironmentSpace environment;
+	@Import private MarshallingSpace marshalling;
 	@Import protected ResourceAccessSpace resourceAccess;
 	@Import private StateChangeProcessorsSpace stateChangeProcessors;
 	@Import protected SystemAccessCommonsSpace systemAccessCommons;
@@ -90,11 +94,22 @@ public abstract class HardwiredAccessSpaceBase extends SystemAccessSpaceBase {
 	private MultiThreadedSpInvocation asyncInvocationQueue() {
 		MultiThreadedSpInvocation bean = new MultiThreadedSpInvocation();
 		bean.setThreadCount(environment.property(TribefireRuntime.ENVIRONMENT_STATEPROCESSING_THREADS, Integer.class, 20));
+		bean.setEntityOrdering(environment.property(TribefireRuntime.ENVIRONMENT_STATEPROCESSING_ENTITY_ORDERING, Boolean.class, false));
+		bean.setMaxPendingPackets(environment.property(TribefireRuntime.ENVIRONMENT_STATEPROCESSING_MAX_PENDING_PACKETS, Integer.class, 0));
 		bean.setProcessorRuleSet(stateChangeRuleSet());
 		bean.setUserSessionScoping(authContext.masterUser().userSessionScoping());
 		bean.setSessionFactory(gmSessions.sessionFactory());
 		bean.setSystemSessionFactory(gmSessions.systemSessionFactory());
 		bean.setName(name());
+		bean.setPacketStore(packetStore());
+		return bean;
+	}
+
+	@Managed
+	private FileSystemSpInvocationPacketStore packetStore() {
+		FileSystemSpInvocationPacketStore bean = new FileSystemSpInvocationPacketStore();
+		bean.setFolder(resources.database("state-processing/hardwired/" + FileTools.normalizeFilename(id(), '_')).asPath());
+		bean.setMarshaller(marshalling.jsonMarshaller());
 		return bean;
 	}
 
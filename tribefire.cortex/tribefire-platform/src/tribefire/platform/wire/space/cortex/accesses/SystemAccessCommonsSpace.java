@@ -20,6 +20,7 @@ import com.braintribe.codec.marshaller.api.GmSerializationOptions;
 import com.braintribe.codec.marshaller.api.OutputPrettiness;
 import com.braintribe.model.access.collaboration.CollaborativeAccessManager;
 import com.braintribe.model.access.collaboration.CollaborativeSmoodAccess;
+import com.braintribe.model.access.collaboration.CsaSnapshotPersistence;
 import com.braintribe.model.access.collaboration.CsaStatePersistence;
 import com.braintribe.model.access.collaboration.CsaStatePersistenceImpl;
 import com.braintribe.model.access.collaboration.binary.CsaBinaryRetrieval;
@@ -101,6 +102,8 @@ public class SystemAccessCommonsSpace implements WireSpace {
 		bean.setManipulationPersistence(manipulationPersistence(bean, accessId));
 		bean.setModelAccessory(dynamicModelAccessory(accessId));
 		bean.setCollaborativeRequestProcessor(collaborativeAccessManager(accessId));
+		if (TribefireRuntime.getCsaSnapshots())
+			bean.setSnapshotPersistence(csaSnapshotPersistence(storageBase(accessId)));
 
 		return bean;
 	}
@@ -153,6 +156,19 @@ public class SystemAccessCommonsSpace implements WireSpace {
 		return bean;
 	}
 
+	/** Only used if {@link TribefireRuntime#ENVIRONMENT_CSA_SNAPSHOTS snapshots} are enabled. */
+	@Managed
+	public CsaSnapshotPersistence csaSnapshotPersistence(File storageBase) {
+		CsaSnapshotPersistence bean = new CsaSnapshotPersistence();
+		bean.setSnapshotFile(new File(storageBase, "snapshot.bin"));
+
+		String snapshotKey = TribefireRuntime.getProperty(TribefireRuntime.ENVIRONMENT_CSA_SNAPSHOT_KEY);
+		if (snapshotKey != null)
+			bean.setSnapshotKey(snapshotKey);
+
+		return bean;
+	}
+
 	@Managed
 	public GmmlManipulatorErrorHandler gmmlErrorHandler(String accessId) {
 		return new TrackingErrorHandler(accessId);
@@ -74,6 +74,8 @@ public class CollaborativeSmoodAccessSpace extends DeployableBaseSpace {
 		bean.setMetaModel(deployable.getMetaModel());
 		bean.setCollaborativeRequestProcessor(collaborativeAccessManager(context));
 		bean.setInitializerAttributes(asMap("cortex.session.provider", cortex.sessionProvider()));
+		if (TribefireRuntime.getCsaSnapshots())
+			bean.setSnapshotPersistence(systemAccessCommons.csaSnapshotPersistence(new File(deployable.getStorageDirectory())));
 
 		return bean;
 	}
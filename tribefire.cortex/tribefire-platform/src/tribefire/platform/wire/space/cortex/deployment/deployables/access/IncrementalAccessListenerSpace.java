@@ -24,12 +24,15 @@ import com.braintribe.model.processing.bootstrapping.TribefireRuntime;
 import com.braintribe.model.processing.deployment.api.DeploymentContext;
 import com.braintribe.model.processing.sp.aspect.StateProcessingAspect;
 import com.braintribe.model.processing.sp.commons.ConfigurableStateChangeProcessorRuleSet;
+import com.braintribe.model.processing.sp.invocation.multithreaded.FileSystemSpInvocationPacketStore;
 import com.braintribe.model.processing.sp.invocation.multithreaded.MultiThreadedSpInvocation;
 import com.braintribe.model.spapi.StateChangeProcessorInvocationPacket;
+import com.braintribe.utils.FileTools;
 import com.braintribe.wire.api.annotation.Import;
 import com.braintribe.wire.api.annotation.Managed;
 
 import tribefire.platform.impl.binding.MasterIncrementalAccessBinder;
+import tribefire.platform.wire.space.common.MarshallingSpace;
 import tribefire.platform.wire.space.cortex.AccessAspectsSpace;
 import tribefire.platform.wire.space.cortex.deployment.StateChangeProcessorsSpace;
 import tribefire.platform.wire.space.cortex.deployment.deployables.DeployableBaseSpace;
@@ -50,6 +53,9 @@ public class IncrementalAccessListenerSpace extends DeployableBaseSpace {
 
 	@Import
 	private StateChangeProcessorsSpace stateChangeProcessors;
+
+	@Import
+	private MarshallingSpace marshalling;
 	
 	@Import
 	private SimulatedAccessSpace simulatedAccess;
@@ -89,11 +95,24 @@ public class IncrementalAccessListenerSpace extends DeployableBaseSpace {
 	private Consumer<StateChangeProcessorInvocationPacket> asyncInvocationQueue(DeploymentContext<? extends IncrementalAccess, ? extends com.braintribe.model.access.IncrementalAccess> context) {
 		MultiThreadedSpInvocation bean = new MultiThreadedSpInvocation();
 		bean.setThreadCount(environment.property(TribefireRuntime.ENVIRONMENT_STATEPROCESSING_THREADS, Integer.class, 20));
+		bean.setEntityOrdering(environment.property(TribefireRuntime.ENVIRONMENT_STATEPROCESSING_ENTITY_ORDERING, Boolean.class, false));
+		bean.setMaxPendingPackets(environment.property(TribefireRuntime.ENVIRONMENT_STATEPROCESSING_MAX_PENDING_PACKETS, Integer.class, 0));
 		bean.setProcessorRuleSet(ruleSet(context));
 		bean.setUserSessionScoping(authContext.masterUser().userSessionScoping());
 		bean.setSessionFactory(gmSessions.sessionFactory());
 		bean.setSystemSessionFactory(gmSessions.systemSessionFactory());
 		bean.setName("Incremental Access Listener");
+		bean.setPacketStore(packetStore(context));
+		return bean;
+	}
+
+	@Managed
+	private FileSystemSpInvocationPacketStore packetStore(DeploymentContext<? extends IncrementalAccess, ? extends com.braintribe.model.access.IncrementalAccess> context) {
+		String folderName = FileTools.normalizeFilename(context.getDeployable().getExternalId(), '_');
+
+		FileSystemSpInvocationPacketStore bean = new FileSystemSpInvocationPacketStore();
+		bean.setFolder(resources.database("state-processing/access/" + folderName).asPath());
+		bean.setMarshaller(marshalling.jsonMarshaller());
 		return bean;
 	}
 
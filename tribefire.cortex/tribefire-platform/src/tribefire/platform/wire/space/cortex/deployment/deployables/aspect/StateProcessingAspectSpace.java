@@ -22,16 +22,23 @@ import com.braintribe.model.processing.deployment.api.ExpertContext;
 import com.braintribe.model.processing.sp.api.StateChangeProcessorRule;
 import com.braintribe.model.processing.sp.aspect.StateProcessingAspect;
 import com.braintribe.model.processing.sp.commons.ConfigurableStateChangeProcessorRuleSet;
+import com.braintribe.model.processing.sp.invocation.multithreaded.FileSystemSpInvocationPacketStore;
 import com.braintribe.model.processing.sp.invocation.multithreaded.MultiThreadedSpInvocation;
 import com.braintribe.model.spapi.StateChangeProcessorInvocationPacket;
+import com.braintribe.utils.FileTools;
+import com.braintribe.wire.api.annotation.Import;
 import com.braintribe.wire.api.annotation.Managed;
 
 import tribefire.platform.impl.deployment.NoopStateChangeProcessorRule;
+import tribefire.platform.wire.space.common.MarshallingSpace;
 import tribefire.platform.wire.space.cortex.deployment.deployables.DeployableBaseSpace;
 
 @Managed
 public class StateProcessingAspectSpace extends DeployableBaseSpace {
 
+	@Import
+	private MarshallingSpace marshalling;
+
 	@Managed
 	public StateProcessingAspect stateProcessingAspect(ExpertContext<com.braintribe.model.cortex.aspect.StateProcessingAspect> context) {
 		StateProcessingAspect bean = new StateProcessingAspect();
@@ -61,11 +68,24 @@ public class StateProcessingAspectSpace extends DeployableBaseSpace {
 			ExpertContext<com.braintribe.model.cortex.aspect.StateProcessingAspect> context) {
 		MultiThreadedSpInvocation bean = new MultiThreadedSpInvocation();
 		bean.setThreadCount(environment.property(TribefireRuntime.ENVIRONMENT_STATEPROCESSING_THREADS, Integer.class, 20));
+		bean.setEntityOrdering(environment.property(TribefireRuntime.ENVIRONMENT_STATEPROCESSING_ENTITY_ORDERING, Boolean.class, false));
+		bean.setMaxPendingPackets(environment.property(TribefireRuntime.ENVIRONMENT_STATEPROCESSING_MAX_PENDING_PACKETS, Integer.class, 0));
 		bean.setProcessorRuleSet(ruleSet(context));
 		bean.setUserSessionScoping(authContext.masterUser().userSessionScoping());
 		bean.setSessionFactory(gmSessions.sessionFactory());
 		bean.setSystemSessionFactory(gmSessions.systemSessionFactory());
 		bean.setName("Aspect");
+		bean.setPacketStore(packetStore(context));
+		return bean;
+	}
+
+	@Managed
+	public FileSystemSpInvocationPacketStore packetStore(ExpertContext<com.braintribe.model.cortex.aspect.StateProcessingAspect> context) {
+		String folderName = FileTools.normalizeFilename(context.getDeployable().getExternalId(), '_');
+
+		FileSystemSpInvocationPacketStore bean = new FileSystemSpInvocationPacketStore();
+		bean.setFolder(resources.database("state-processing/aspect/" + folderName).asPath());
+		bean.setMarshaller(marshalling.jsonMarshaller());
 		return bean;
 	}
 
@@ -50,6 +50,8 @@ public class HttpProcessorSpace extends DeployableBaseSpace {
 		com.braintribe.model.processing.webrpc.client.GmWebRpcRemoteServiceProcessor bean = new com.braintribe.model.processing.webrpc.client.GmWebRpcRemoteServiceProcessor();
 		bean.setUrl(actualUrl);
 		bean.setStreamPipeFactory(resourceProcessing.streamPipeFactory());
+		bean.setBatchWindow(deployable.getBatchWindow());
+		bean.setMaxBatchSize(deployable.getMaxBatchSize());
 
 		return bean;
 	}
@@ -101,6 +101,11 @@ public class BinaryProcessorsSpace extends DeployableBaseSpace {
 			bean.setBlobColumnName(tableMapping.getBlobColumnName());
 		}
 
+		if (deployable.getChunkSize() != null)
+			bean.setChunkSize(deployable.getChunkSize());
+		if (deployable.getChunkBatchSize() != null)
+			bean.setChunkBatchSize(deployable.getChunkBatchSize());
+
 		CacheOptions cacheOptions = deployable.getCacheOptions();
 		if (cacheOptions != null) {
 			bean.setCacheType(cacheOptions.getType());
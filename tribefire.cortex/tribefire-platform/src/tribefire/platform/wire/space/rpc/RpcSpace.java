@@ -44,6 +44,7 @@ import com.braintribe.model.deploymentreflection.request.DeploymentReflectionReq
 import com.braintribe.model.exchangeapi.ExchangeRequest;
 import com.braintribe.model.execution.persistence.ExecutionPersistenceRequest;
 import com.braintribe.model.extensiondeployment.HardwiredWorker;
+import com.braintribe.model.generic.reflection.EntityType;
 import com.braintribe.model.license.service.AbstractLicenseRequest;
 import com.braintribe.model.logs.request.LogsRequest;
 import com.braintribe.model.messaging.Queue;
@@ -227,14 +228,22 @@ public class RpcSpace implements WireSpace {
 
 		bean.registerInterceptor("thread-naming").register(threadNamingInterceptor());
 		bean.registerInterceptor("time-measuring").register(ElapsedTimeMeasuringInterceptor.INSTANCE);
-		bean.registerInterceptor("auth").registerWithPredicate(r -> r.supportsAuthentication(), authorizationInterceptor());
+		bean.registerInterceptor("auth").registerForTypePredicate(t -> prototype(t).supportsAuthentication(), authorizationInterceptor());
 		bean.registerInterceptor("web-logout").registerForType(Logout.T, securityService.webLogoutInterceptor());
-		bean.registerInterceptor("domain-mapped-dispatching").registerWithPredicate(r -> !r.system(), domainMappedDispatchingInterceptor());
+		bean.registerInterceptor("domain-mapped-dispatching").registerForTypePredicate(t -> !prototype(t).system(), domainMappedDispatchingInterceptor());
 		bean.registerInterceptor("require-system-user").registerForType(BinaryRequest.T, requireSystemUserInterceptor());
 
 		return bean;
 	}
 
+	/**
+	 * {@link ServiceRequest#supportsAuthentication()} and {@link ServiceRequest#system()} are only overridden per request type, so they can be
+	 * evaluated once per type on a raw instance, which lets the dispatcher cache the whole interceptor chain.
+	 */
+	private static ServiceRequest prototype(EntityType<?> requestType) {
+		return (ServiceRequest) requestType.createRaw();
+	}
+
 	@Managed
 	private RoleBasedAuthorizingInterceptor requireSystemUserInterceptor() {
 		RoleBasedAuthorizingInterceptor bean = new RoleBasedAuthorizingInterceptor();
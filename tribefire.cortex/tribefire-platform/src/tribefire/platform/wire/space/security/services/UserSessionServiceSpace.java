@@ -37,6 +37,7 @@ import com.braintribe.model.processing.securityservice.usersession.cleanup.JdbcU
 import com.braintribe.model.processing.securityservice.usersession.cleanup.UserSessionCleanupWorker;
 import com.braintribe.model.processing.securityservice.usersession.service.AccessUserSessionService;
 import com.braintribe.model.processing.securityservice.usersession.service.JdbcUserSessionService;
+import com.braintribe.model.processing.securityservice.usersession.service.UserSessionInvalidationNotifier;
 import com.braintribe.model.processing.securityservice.usersession.service.UserSessionIdProvider;
 import com.braintribe.model.processing.service.api.ServiceProcessor;
 import com.braintribe.model.processing.time.TimeSpanCodec;
@@ -57,11 +58,13 @@ import tribefire.platform.wire.space.SchrodingerBeansSpace;
 import tribefire.platform.wire.space.common.BindersSpace;
 import tribefire.platform.wire.space.common.CartridgeInformationSpace;
 import tribefire.platform.wire.space.common.EnvironmentSpace;
+import tribefire.platform.wire.space.common.MessagingSpace;
 import tribefire.platform.wire.space.cortex.services.WorkerSpace;
 import tribefire.platform.wire.space.rpc.RpcSpace;
 import tribefire.platform.wire.space.security.AuthContextSpace;
 import tribefire.platform.wire.space.security.accesses.UserSessionsAccessSpace;
 import tribefire.platform.wire.space.security.accesses.UserStatisticsAccessSpace;
+import tribefire.platform.wire.space.system.SystemTasksSpace;
 
 @Managed
 public class UserSessionServiceSpace implements WireSpace {
@@ -98,6 +101,12 @@ public class UserSessionServiceSpace implements WireSpace {
 	@Import
 	private SchrodingerBeansSpace schrodingerBeans;
 
+	@Import
+	private MessagingSpace messaging;
+
+	@Import
+	private SystemTasksSpace systemTasks;
+
 	// TODO can this be done at the end, when all spaces are loaded?
 	// This triggers module/cortex loading very early...
 	@Override
@@ -175,6 +184,20 @@ public class UserSessionServiceSpace implements WireSpace {
 		bean.setNodeId(cartridgeInformation.nodeId());
 		bean.setDefaultUserSessionMaxIdleTime(defaultMaxIdleTime());
 
+		// write-behind touching (e.g. 1000 ms) and local session cache (e.g. 10000 sessions) are only used if configured
+		long touchFlushInterval = environment.property("TRIBEFIRE_USERSESSION_TOUCH_FLUSH_INTERVAL", Long.class, 0L);
+		if (touchFlushInterval > 0) {
+			bean.setTouchFlushInterval(touchFlushInterval);
+			bean.setTouchFlushExecutor(systemTasks.scheduledExecutor());
+		}
+
+		int sessionCacheMaxSize = environment.property("TRIBEFIRE_USERSESSION_CACHE_MAX_SIZE", Integer.class, 0);
+		if (sessionCacheMaxSize > 0) {
+			bean.setSessionCacheMaxSize(sessionCacheMaxSize);
+			bean.setSessionCacheTtl(environment.property("TRIBEFIRE_USERSESSION_CACHE_TTL", Long.class, 30000L));
+			bean.setInvalidationNotifier(userSessionInvalidationNotifier());
+		}
+
 		// internal user sessions
 		bean.setInternalUserSessionHolders(list( //
 				authContext.internalUser().userSessionProvider(), //
@@ -184,6 +207,15 @@ public class UserSessionServiceSpace implements WireSpace {
 		return bean;
 	}
 
+	@Managed
+	private UserSessionInvalidationNotifier userSessionInvalidationNotifier() {
+		UserSessionInvalidationNotifier bean = new UserSessionInvalidationNotifier();
+		bean.setMessagingSessionProvider(messaging.sessionProvider()::provideMessagingSession);
+		bean.setTopicName(messaging.destinations().prefixName(UserSessionInvalidationNotifier.DEFAULT_TOPIC_NAME));
+
+		return bean;
+	}
+
 	@Managed
 	public AccessUserSessionCleanupServiceProcessor accessSessionCleanupService() {
 		AccessUserSessionCleanupServiceProcessor bean = new AccessUserSessionCleanupServiceProcessor();
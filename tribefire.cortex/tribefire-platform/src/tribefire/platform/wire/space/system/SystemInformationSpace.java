@@ -11,11 +11,17 @@
 // ============================================================================
 package tribefire.platform.wire.space.system;
 
+import static com.braintribe.utils.lcd.CollectionTools2.newList;
+
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.braintribe.exception.Exceptions;
+import com.braintribe.model.platformreflection.tf.MetaDataCacheInfo;
+import com.braintribe.model.processing.accessory.impl.PlatformModelAccessoryFactory;
 import com.braintribe.model.processing.bootstrapping.TribefireRuntime;
+import com.braintribe.model.processing.meta.cmd.index.CacheStatistics;
 import com.braintribe.model.processing.packaging.PackagingProvider;
 import com.braintribe.model.processing.platformreflection.db.StandardDatabaseInformationProvider;
 import com.braintribe.model.processing.platformreflection.host.HostInformationProvider;
@@ -136,6 +142,7 @@ public class SystemInformationSpace implements WireSpace {
 		tfInfoProvider.setHardwiredSetupAccessSupplier(() -> platformSetupAccess.access());
 		tfInfoProvider.setHardwiredUserSessionsAccessSupplier(() -> userSessionsAccess.access());
 		tfInfoProvider.setHardwiredUserStatisticsAccessSupplier(() -> userStatisticsAccess.access());
+		tfInfoProvider.setMetaDataCacheInfoSupplier(this::metaDataCacheInfos);
 
 		bean.setTribefireInformationProvider(tfInfoProvider);
 		bean.setHostInformationProviderMap(hostInformationProviderMap());
@@ -162,6 +169,29 @@ public class SystemInformationSpace implements WireSpace {
 		return bean;
 	}
 
+	private List<MetaDataCacheInfo> metaDataCacheInfos() {
+		List<MetaDataCacheInfo> result = newList();
+		addMetaDataCacheInfos(result, "user", sessions.userModelAccessoryFactory());
+		addMetaDataCacheInfos(result, "system", sessions.systemModelAccessoryFactory());
+		return result;
+	}
+
+	private static void addMetaDataCacheInfos(List<MetaDataCacheInfo> result, String factoryName, PlatformModelAccessoryFactory factory) {
+		for (Map.Entry<String, CacheStatistics> entry : factory.getCmdCacheStatistics().entrySet()) {
+			CacheStatistics stats = entry.getValue();
+
+			MetaDataCacheInfo info = MetaDataCacheInfo.T.create();
+			info.setName(factoryName + ": " + entry.getKey());
+			info.setHits(stats.getHits());
+			info.setMisses(stats.getMisses());
+			info.setEvictions(stats.getEvictions());
+			info.setRejections(stats.getRejections());
+			info.setSize(stats.getSize());
+
+			result.add(info);
+		}
+	}
+
 	@Managed
 	private StandardSystemInformationProvider systemInformationProvider() {
 		StandardSystemInformationProvider bean = new StandardSystemInformationProvider();
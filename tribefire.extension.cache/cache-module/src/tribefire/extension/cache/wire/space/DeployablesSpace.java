@@ -80,7 +80,6 @@ public class DeployablesSpace<T extends CacheAspectStatus> implements WireSpace
 		CacheAspect bean = new CacheAspect();
 		bean.setDeployable(deployable);
 		bean.setExpert(expert);
-		bean.setMarshaller(tfPlatform.marshalling().jsonMarshaller());
 
 		return bean;
 	}
@@ -11,35 +11,18 @@
 // ============================================================================
 package tribefire.extension.cache.service;
 
-import java.io.ByteArrayOutputStream;
-import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Set;
 
 import com.braintribe.cfg.Configurable;
 import com.braintribe.cfg.LifecycleAware;
 import com.braintribe.cfg.Required;
-import com.braintribe.codec.marshaller.api.EntityRecurrenceDepth;
-import com.braintribe.codec.marshaller.api.GmSerializationOptions;
-import com.braintribe.codec.marshaller.api.GmSerializationOptionsBuilder;
-import com.braintribe.codec.marshaller.api.IdentityManagementMode;
-import com.braintribe.codec.marshaller.api.IdentityManagementModeOption;
-import com.braintribe.codec.marshaller.api.Marshaller;
-import com.braintribe.codec.marshaller.api.TypeExplicitness;
-import com.braintribe.codec.marshaller.api.TypeExplicitnessOption;
-import com.braintribe.codec.string.HashCodec;
-import com.braintribe.common.lcd.NotImplementedException;
 import com.braintribe.logging.Logger;
 import com.braintribe.model.generic.GMF;
-import com.braintribe.model.generic.GenericEntity;
-import com.braintribe.model.generic.pr.AbsenceInformation;
-import com.braintribe.model.generic.reflection.BaseType;
-import com.braintribe.model.generic.reflection.EntityType;
 import com.braintribe.model.generic.reflection.GenericModelTypeReflection;
-import com.braintribe.model.generic.reflection.Property;
-import com.braintribe.model.generic.reflection.StandardCloningContext;
 import com.braintribe.model.processing.service.api.ProceedContext;
 import com.braintribe.model.processing.service.api.ServiceAroundProcessor;
 import com.braintribe.model.processing.service.api.ServiceRequestContext;
-import com.braintribe.model.resource.Resource;
 import com.braintribe.model.service.api.AuthorizableRequest;
 import com.braintribe.model.service.api.ServiceRequest;
 
@@ -52,19 +35,16 @@ public class CacheAspect implements ServiceAroundProcessor<ServiceRequest, Objec
 
 	protected static final GenericModelTypeReflection typeReflection = GMF.getTypeReflection();
 
-	private Marshaller marshaller;
-
-	private HashCodec hashCodec;
+	private RequestHasher requestHasher;
 	private String hashAlgorithm;
 
-	private final BaseType baseType = BaseType.INSTANCE;
-
 	// -----------------
 	// Configuration
 	// -----------------
 
 	private tribefire.extension.cache.model.deployment.service.CacheAspect deployable;
 	private CacheAspectInterface<? extends CacheAspectStatus> expert;
+	private Set<String> ignoredProperties = Collections.singleton(AuthorizableRequest.sessionId);
 
 	// -----------------
 	// Local
@@ -100,7 +80,7 @@ public class CacheAspect implements ServiceAroundProcessor<ServiceRequest, Objec
 				throw new IllegalArgumentException("'hashAlgorithm': '" + _hashAlgorithm + "' not supported");
 		}
 
-		hashCodec = new HashCodec(this.hashAlgorithm);
+		requestHasher = new RequestHasher(this.hashAlgorithm, ignoredProperties);
 
 		active = deployable.getUseCache();
 
@@ -157,50 +137,7 @@ public class CacheAspect implements ServiceAroundProcessor<ServiceRequest, Objec
 	}
 
 	public String calculateRequestHash(ServiceRequest request) {
-		ByteArrayOutputStream os = new ByteArrayOutputStream();
-
-		//@formatter:off
-		GmSerializationOptionsBuilder options = GmSerializationOptions.defaults //
-						.set(EntityRecurrenceDepth.class, -1) //
-						.set(TypeExplicitnessOption.class, TypeExplicitness.always) //
-						.set(IdentityManagementModeOption.class, IdentityManagementMode.off) //
-						.inferredRootType(baseType.getActualType(request)); //
-		//@formatter:on
-
-		ServiceRequest clone = request.clone(new StandardCloningContext() {
-			@Override
-			public boolean canTransferPropertyValue(EntityType<? extends GenericEntity> entityType, Property property,
-					GenericEntity instanceToBeCloned, GenericEntity clonedInstance, AbsenceInformation sourceAbsenceInformation) {
-
-				if (Resource.T.isAssignableFrom(property.getDeclaringType())) {
-					throw new NotImplementedException("Handling resources is not implemented yet - it's used in request: '" + request + "'");
-				}
-
-				//@formatter:off
-				return 	
-						!property.isConfidential() && 
-						!property.isGlobalId() && 
-						!property.isIdentifier() && 
-						!property.isPartition();
-				//@formatter:on
-			}
-
-			@Override
-			public GenericEntity supplyRawClone(EntityType<? extends GenericEntity> entityType, GenericEntity instanceToBeCloned) {
-				return entityType.create();
-			}
-		});
-		boolean supportsAuthentication = request.supportsAuthentication();
-		if (supportsAuthentication) {
-			AuthorizableRequest authorizedRequest = (AuthorizableRequest) clone;
-			authorizedRequest.setSessionId(null);
-		}
-
-		marshaller.marshall(os, clone, options);
-		String requestAsString = new String(os.toByteArray(), Charset.defaultCharset());
-
-		String hash = hashCodec.encode(requestAsString);
-		return hash;
+		return requestHasher.hash(request);
 	}
 	// -----------------------------------------------------------------------
 	// HELPERS
@@ -222,9 +159,12 @@ public class CacheAspect implements ServiceAroundProcessor<ServiceRequest, Objec
 		this.expert = expert;
 	}
 
+	/**
+	 * Names of properties which are not considered when calculating the hash of a request, on any entity of that request. By default this is
+	 * just {@link AuthorizableRequest#sessionId}, so that the same request of different sessions is only evaluated once.
+	 */
 	@Configurable
-	@Required
-	public void setMarshaller(Marshaller marshaller) {
-		this.marshaller = marshaller;
+	public void setIgnoredProperties(Set<String> ignoredProperties) {
+		this.ignoredProperties = ignoredProperties;
 	}
 }
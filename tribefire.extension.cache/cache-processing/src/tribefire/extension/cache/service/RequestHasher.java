@@ -0,0 +1,318 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package tribefire.extension.cache.service;
+
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.braintribe.common.lcd.NotImplementedException;
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.generic.reflection.EntityType;
+import com.braintribe.model.generic.reflection.Property;
+import com.braintribe.model.resource.Resource;
+import com.braintribe.model.service.api.ServiceRequest;
+
+/**
+ * Calculates the hash of a {@link ServiceRequest} by walking its entity graph via {@link EntityType}/{@link Property} reflection and feeding every
+ * value directly into a {@link MessageDigest}, i.e. without cloning or marshalling the request.
+ * <p>
+ * The hash only depends on the structure and the values of the request, so it is the same on every node: properties are visited sorted by name,
+ * sets and maps are hashed element by element and the element hashes are sorted before they are combined, and an entity which was already visited
+ * is only referenced by the order in which it was visited. Identifying ({@code id}, {@code partition}), {@code globalId} and confidential
+ * properties are skipped, same as properties with one of the {@link #RequestHasher(String, Set) ignored names}.
+ * <p>
+ * This class is thread-safe, each thread uses its own {@link MessageDigest} and buffers.
+ */
+public class RequestHasher {
+
+	private static final byte NULL = 0;
+	private static final byte ABSENT = 1;
+	private static final byte BOOLEAN = 2;
+	private static final byte INTEGER = 3;
+	private static final byte LONG = 4;
+	private static final byte FLOAT = 5;
+	private static final byte DOUBLE = 6;
+	private static final byte DECIMAL = 7;
+	private static final byte DATE = 8;
+	private static final byte STRING = 9;
+	private static final byte ENUM = 10;
+	private static final byte ENTITY = 11;
+	private static final byte VISITED_ENTITY = 12;
+	private static final byte LIST = 13;
+	private static final byte SET = 14;
+	private static final byte MAP = 15;
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private final String algorithm;
+	private final Set<String> ignoredProperties;
+
+	private final Map<EntityType<?>, Property[]> hashedProperties = new ConcurrentHashMap<>();
+	private final ThreadLocal<Walk> walks = ThreadLocal.withInitial(Walk::new);
+
+	/**
+	 * @param algorithm
+	 *            name of the {@link MessageDigest} algorithm, e.g. "SHA-256"
+	 * @param ignoredProperties
+	 *            names of properties which are not part of the hash on any entity of the request, e.g. {@code sessionId}
+	 */
+	public RequestHasher(String algorithm, Set<String> ignoredProperties) {
+		this.algorithm = algorithm;
+		this.ignoredProperties = ignoredProperties;
+
+		// fail early rather than on the first request
+		newDigest();
+	}
+
+	/** @return the hash of given request as lower-case hex string */
+	public String hash(ServiceRequest request) {
+		Walk walk = walks.get();
+		walk.reset();
+		walk.writeValue(request);
+
+		return toHex(walk.digests[0].digest());
+	}
+
+	private Property[] hashedPropertiesOf(EntityType<?> entityType) {
+		return hashedProperties.computeIfAbsent(entityType, this::resolveHashedProperties);
+	}
+
+	private Property[] resolveHashedProperties(EntityType<?> entityType) {
+		//@formatter:off
+		return entityType.getProperties().stream() //
+				.filter(p -> !p.isConfidential() && !p.isGlobalId() && !p.isIdentifying()) //
+				.filter(p -> !ignoredProperties.contains(p.getName())) //
+				.sorted((p1, p2) -> p1.getName().compareTo(p2.getName())) //
+				.toArray(Property[]::new);
+		//@formatter:on
+	}
+
+	private MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(algorithm);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalArgumentException("'hashAlgorithm': '" + algorithm + "' not supported", e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		char[] result = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			result[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+			result[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xf];
+		}
+		return new String(result);
+	}
+
+	private static int compareUnsigned(byte[] b1, byte[] b2) {
+		int length = Math.min(b1.length, b2.length);
+		for (int i = 0; i < length; i++) {
+			int diff = (b1[i] & 0xff) - (b2[i] & 0xff);
+			if (diff != 0)
+				return diff;
+		}
+		return b1.length - b2.length;
+	}
+
+	/**
+	 * State of a single hash calculation, re-used by subsequent calculations on the same thread.
+	 * <p>
+	 * {@link #digests} holds one digest per nesting level of sets and maps, as their elements are hashed separately (see
+	 * {@link #writeUnordered(byte, Collection)}).
+	 */
+	private class Walk {
+		private MessageDigest[] digests = { newDigest() };
+		private int depth;
+
+		private final byte[] buffer = new byte[256];
+
+		private final Map<GenericEntity, Integer> visited = new IdentityHashMap<>();
+		private final List<GenericEntity> visitOrder = new ArrayList<>();
+
+		void reset() {
+			digests[0].reset();
+			depth = 0;
+			visited.clear();
+			visitOrder.clear();
+		}
+
+		void writeValue(Object value) {
+			if (value == null)
+				writeTag(NULL);
+			else if (value instanceof GenericEntity)
+				writeEntity((GenericEntity) value);
+			else if (value instanceof String)
+				writeString(STRING, (String) value);
+			else if (value instanceof Boolean)
+				writeTag(BOOLEAN, ((Boolean) value) ? 1 : 0);
+			else if (value instanceof Integer)
+				writeTag(INTEGER, (Integer) value);
+			else if (value instanceof Long)
+				writeTag(LONG, (Long) value);
+			else if (value instanceof Float)
+				writeTag(FLOAT, Float.floatToIntBits((Float) value));
+			else if (value instanceof Double)
+				writeTag(DOUBLE, Double.doubleToLongBits((Double) value));
+			else if (value instanceof BigDecimal)
+				writeString(DECIMAL, value.toString());
+			else if (value instanceof Date)
+				writeTag(DATE, ((Date) value).getTime());
+			else if (value instanceof Enum<?>)
+				writeEnum((Enum<?>) value);
+			else if (value instanceof List<?>)
+				writeList((List<?>) value);
+			else if (value instanceof Set<?>)
+				writeUnordered(SET, (Set<?>) value);
+			else if (value instanceof Map<?, ?>)
+				writeUnordered(MAP, ((Map<?, ?>) value).entrySet());
+			else
+				throw new IllegalArgumentException("Cannot hash value of type '" + value.getClass().getName() + "': " + value);
+		}
+
+		private void writeEntity(GenericEntity entity) {
+			Integer ordinal = visited.get(entity);
+			if (ordinal != null) {
+				writeTag(VISITED_ENTITY, ordinal);
+				return;
+			}
+
+			EntityType<?> entityType = entity.entityType();
+			if (Resource.T.isAssignableFrom(entityType))
+				throw new NotImplementedException("Handling resources is not implemented yet - it's used in entity: '" + entity + "'");
+
+			visited.put(entity, visitOrder.size());
+			visitOrder.add(entity);
+
+			writeString(ENTITY, entityType.getTypeSignature());
+
+			Property[] properties = hashedPropertiesOf(entityType);
+			writeInt(properties.length);
+			for (Property property : properties) {
+				writeString(STRING, property.getName());
+
+				if (property.isAbsent(entity))
+					writeTag(ABSENT);
+				else
+					writeValue(property.get(entity));
+			}
+		}
+
+		private void writeEnum(Enum<?> value) {
+			writeString(ENUM, value.getDeclaringClass().getName());
+			writeString(STRING, value.name());
+		}
+
+		private void writeList(List<?> list) {
+			writeTag(LIST, list.size());
+			for (Object element : list)
+				writeValue(element);
+		}
+
+		/**
+		 * Hashes every element on its own and combines the element hashes in sorted order, so the result doesn't depend on the iteration order.
+		 * Entities first visited while hashing an element are forgotten afterwards, as their visit order would depend on the iteration order too.
+		 */
+		private void writeUnordered(byte tag, Collection<?> elements) {
+			byte[][] elementHashes = new byte[elements.size()][];
+
+			int i = 0;
+			for (Object element : elements)
+				elementHashes[i++] = hashSeparately(element);
+
+			Arrays.sort(elementHashes, RequestHasher::compareUnsigned);
+
+			writeTag(tag, elementHashes.length);
+			for (byte[] elementHash : elementHashes)
+				digests[depth].update(elementHash);
+		}
+
+		private byte[] hashSeparately(Object element) {
+			int visitedCount = visitOrder.size();
+
+			if (++depth == digests.length)
+				digests = Arrays.copyOf(digests, depth + 1);
+			if (digests[depth] == null)
+				digests[depth] = newDigest();
+			else
+				digests[depth].reset();
+
+			try {
+				if (element instanceof Map.Entry<?, ?>) {
+					Map.Entry<?, ?> entry = (Map.Entry<?, ?>) element;
+					writeValue(entry.getKey());
+					writeValue(entry.getValue());
+				} else {
+					writeValue(element);
+				}
+
+				return digests[depth].digest();
+
+			} finally {
+				depth--;
+				while (visitOrder.size() > visitedCount)
+					visited.remove(visitOrder.remove(visitOrder.size() - 1));
+			}
+		}
+
+		private void writeString(byte tag, String s) {
+			int length = s.length();
+			writeTag(tag, length);
+
+			MessageDigest digest = digests[depth];
+			int pos = 0;
+			for (int i = 0; i < length; i++) {
+				if (pos == buffer.length) {
+					digest.update(buffer, 0, pos);
+					pos = 0;
+				}
+				char c = s.charAt(i);
+				buffer[pos++] = (byte) (c >>> 8);
+				buffer[pos++] = (byte) c;
+			}
+			digest.update(buffer, 0, pos);
+		}
+
+		private void writeTag(byte tag) {
+			digests[depth].update(tag);
+		}
+
+		private void writeTag(byte tag, int value) {
+			writeTag(tag);
+			writeInt(value);
+		}
+
+		private void writeTag(byte tag, long value) {
+			writeTag(tag);
+			writeInt((int) (value >>> 32));
+			writeInt((int) value);
+		}
+
+		private void writeInt(int value) {
+			buffer[0] = (byte) (value >>> 24);
+			buffer[1] = (byte) (value >>> 16);
+			buffer[2] = (byte) (value >>> 8);
+			buffer[3] = (byte) value;
+			digests[depth].update(buffer, 0, 4);
+		}
+	}
+
+}
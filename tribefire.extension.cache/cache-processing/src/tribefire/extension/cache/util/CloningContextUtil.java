@@ -35,6 +35,11 @@ public class CloningContextUtil {
 			public GenericEntity supplyRawClone(EntityType<? extends GenericEntity> entityType, GenericEntity instanceToBeCloned) {
 				return targetSession.create(entityType);
 			}
+
+			@Override
+			protected boolean isTraversingStackUsedByCallbacks() {
+				return false;
+			}
 		};
 		return cloningContext;
 	}
@@ -51,6 +56,11 @@ public class CloningContextUtil {
 			public GenericEntity supplyRawClone(EntityType<? extends GenericEntity> entityType, GenericEntity instanceToBeCloned) {
 				return entityType.create();
 			}
+
+			@Override
+			protected boolean isTraversingStackUsedByCallbacks() {
+				return false;
+			}
 		};
 		return cloningContext;
 	}
@@ -76,6 +86,11 @@ public class CloningContextUtil {
 			public GenericEntity supplyRawClone(EntityType<? extends GenericEntity> entityType, GenericEntity instanceToBeCloned) {
 				return targetSession.create(entityType);
 			}
+
+			@Override
+			protected boolean isTraversingStackUsedByCallbacks() {
+				return false;
+			}
 		};
 		return cloningContext;
 	}
@@ -99,6 +114,11 @@ public class CloningContextUtil {
 			public GenericEntity supplyRawClone(EntityType<? extends GenericEntity> entityType, GenericEntity instanceToBeCloned) {
 				return entityType.create();
 			}
+
+			@Override
+			protected boolean isTraversingStackUsedByCallbacks() {
+				return false;
+			}
 		};
 		return cloningContext;
 	}
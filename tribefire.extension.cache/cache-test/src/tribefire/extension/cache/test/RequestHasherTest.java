@@ -0,0 +1,124 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package tribefire.extension.cache.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.braintribe.model.service.api.AuthorizableRequest;
+
+import tribefire.extension.cache.model.service.demo.CacheDemo;
+import tribefire.extension.cache.service.RequestHasher;
+
+public class RequestHasherTest {
+
+	private final RequestHasher hasher = new RequestHasher("SHA-256", Collections.singleton(AuthorizableRequest.sessionId));
+
+	@Test
+	public void sameRequestsHaveSameHash() {
+		assertThat(hasher.hash(demo("value"))).isEqualTo(hasher.hash(demo("value")));
+		assertThat(hasher.hash(demo(null))).isEqualTo(hasher.hash(demo(null)));
+	}
+
+	@Test
+	public void differentRequestsHaveDifferentHash() {
+		assertThat(hasher.hash(demo("value"))).isNotEqualTo(hasher.hash(demo("other")));
+		assertThat(hasher.hash(demo("value"))).isNotEqualTo(hasher.hash(demo(null)));
+
+		CacheDemo demo = demo("value");
+		demo.setDurationInMs(1);
+		assertThat(hasher.hash(demo)).isNotEqualTo(hasher.hash(demo("value")));
+	}
+
+	@Test
+	public void ignoredPropertiesAreNotHashed() {
+		CacheDemo demo1 = demo("value");
+		demo1.setSessionId("session-1");
+
+		CacheDemo demo2 = demo("value");
+		demo2.setSessionId("session-2");
+
+		assertThat(hasher.hash(demo1)).isEqualTo(hasher.hash(demo2));
+	}
+
+	@Test
+	public void setsAndMapsDoNotDependOnIterationOrder() {
+		CacheDemo demo1 = demo("value");
+		demo1.getMetaData().put("a", setOf("x", "y", "z"));
+		demo1.getMetaData().put("b", 1);
+
+		CacheDemo demo2 = demo("value");
+		demo2.getMetaData().put("b", 1);
+		demo2.getMetaData().put("a", setOf("z", "y", "x"));
+
+		assertThat(hasher.hash(demo1)).isEqualTo(hasher.hash(demo2));
+
+		demo2.getMetaData().put("a", setOf("z", "y"));
+		assertThat(hasher.hash(demo1)).isNotEqualTo(hasher.hash(demo2));
+	}
+
+	@Test
+	public void listsDependOnOrder() {
+		CacheDemo demo1 = demo("value");
+		demo1.getMetaData().put("a", listOf("x", "y"));
+
+		CacheDemo demo2 = demo("value");
+		demo2.getMetaData().put("a", listOf("y", "x"));
+
+		assertThat(hasher.hash(demo1)).isNotEqualTo(hasher.hash(demo2));
+	}
+
+	@Test
+	public void cyclesAndSharedEntitiesAreHandled() {
+		CacheDemo demo1 = demo("value");
+		CacheDemo nested1 = demo("nested");
+		demo1.getMetaData().put("nested", nested1);
+		nested1.getMetaData().put("parent", demo1);
+		nested1.getMetaData().put("entities", setOf(demo1, nested1));
+
+		CacheDemo demo2 = demo("value");
+		CacheDemo nested2 = demo("nested");
+		demo2.getMetaData().put("nested", nested2);
+		nested2.getMetaData().put("parent", demo2);
+		nested2.getMetaData().put("entities", setOf(nested2, demo2));
+
+		assertThat(hasher.hash(demo1)).isEqualTo(hasher.hash(demo2));
+
+		nested2.getMetaData().put("parent", nested2);
+		assertThat(hasher.hash(demo1)).isNotEqualTo(hasher.hash(demo2));
+	}
+
+	private static CacheDemo demo(String resultValue) {
+		CacheDemo result = CacheDemo.T.create();
+		result.setResultValue(resultValue);
+		return result;
+	}
+
+	@SafeVarargs
+	private static <E> Set<E> setOf(E... elements) {
+		return new LinkedHashSet<>(Arrays.asList(elements));
+	}
+
+	@SafeVarargs
+	private static <E> List<E> listOf(E... elements) {
+		return new ArrayList<>(Arrays.asList(elements));
+	}
+
+}
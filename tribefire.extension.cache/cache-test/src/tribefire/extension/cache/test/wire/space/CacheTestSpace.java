@@ -11,7 +11,6 @@
 // ============================================================================
 package tribefire.extension.cache.test.wire.space;
 
-import com.braintribe.codec.marshaller.json.JsonMarshaller;
 import com.braintribe.model.processing.service.common.ConfigurableDispatchingServiceProcessor;
 import com.braintribe.model.service.api.InstanceId;
 import com.braintribe.model.time.TimeSpan;
@@ -59,7 +58,6 @@ public class CacheTestSpace extends AbstractCacheTestSpace implements CacheTestC
 		CacheAspect bean = new CacheAspect();
 		bean.setDeployable(deployable);
 		bean.setExpert(expert);
-		bean.setMarshaller(new JsonMarshaller());
 
 		return bean;
 	}
@@ -47,4 +47,26 @@ public interface WorkerStatus extends StandardStringIdentifiable {
 	int getIndexedEntitiesCount();
 	void setIndexedEntitiesCount(int indexedEntitiesCount);
 
+	int getRejectedPackagesCount();
+	void setRejectedPackagesCount(int rejectedPackagesCount);
+
+	int getCoalescedEntitiesCount();
+	void setCoalescedEntitiesCount(int coalescedEntitiesCount);
+
+	int getFailedEntitiesCount();
+	void setFailedEntitiesCount(int failedEntitiesCount);
+
+	int getBulkRequestsCount();
+	void setBulkRequestsCount(int bulkRequestsCount);
+
+	double getAverageBulkSize();
+	void setAverageBulkSize(double averageBulkSize);
+
+	/** Average time (in ms) from enqueuing a package until it is indexed. */
+	long getAverageLatency();
+	void setAverageLatency(long averageLatency);
+
+	long getMaxLatency();
+	void setMaxLatency(long maxLatency);
+
 }
@@ -27,6 +27,9 @@ public interface ElasticsearchIndexingWorker extends Worker {
 	String access = "access";
 	String elasticsearchConnector = "elasticsearchConnector";
 	String threadCount = "threadCount";
+	String bulkSize = "bulkSize";
+	String bulkWindowInMs = "bulkWindowInMs";
+	String enqueueTimeoutInMs = "enqueueTimeoutInMs";
 
 	void setAccess(IncrementalAccess access);
 	IncrementalAccess getAccess();
@@ -42,4 +45,16 @@ public interface ElasticsearchIndexingWorker extends Worker {
 	@Initializer("1000")
 	Integer getQueueSize();
 
+	void setBulkSize(Integer bulkSize);
+	@Initializer("500")
+	Integer getBulkSize();
+
+	void setBulkWindowInMs(Integer bulkWindowInMs);
+	@Initializer("500")
+	Integer getBulkWindowInMs();
+
+	void setEnqueueTimeoutInMs(Integer enqueueTimeoutInMs);
+	@Initializer("60000")
+	Integer getEnqueueTimeoutInMs();
+
 }
@@ -161,6 +161,9 @@ public class ElasticsearchDeployablesSpace implements WireSpace {
 		if (queueSize != null) {
 			bean.setQueueSize(queueSize);
 		}
+		bean.setBulkSize(deployable.getBulkSize());
+		bean.setBulkWindowInMs(deployable.getBulkWindowInMs());
+		bean.setEnqueueTimeoutInMs(deployable.getEnqueueTimeoutInMs());
 		PersistenceGmSessionFactory sessionFactory = tfPlatform.systemUserRelated().sessionFactory();
 		bean.setSessionFactory(sessionFactory::newSession);
 		bean.setWorkerIdentification(deployable);
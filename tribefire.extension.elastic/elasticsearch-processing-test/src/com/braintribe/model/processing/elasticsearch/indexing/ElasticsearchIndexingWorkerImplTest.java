@@ -0,0 +1,242 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.elasticsearch.indexing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequestBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.generic.reflection.Property;
+import com.braintribe.model.processing.elasticsearch.IndexedElasticsearchConnector;
+import com.braintribe.model.processing.elasticsearch.fulltext.FulltextProcessing;
+import com.braintribe.model.processing.elasticsearch.status.WorkerStatus;
+import com.braintribe.model.processing.securityservice.api.UserSessionScoping;
+import com.braintribe.model.processing.session.api.persistence.PersistenceGmSession;
+import com.braintribe.model.processing.worker.api.WorkerContext;
+import com.braintribe.model.resource.Resource;
+import com.braintribe.model.usersession.UserSession;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests for the coalescing of {@link IndexingPackage}s in {@link ElasticsearchIndexingWorkerImpl} and for its statistics.
+ */
+public class ElasticsearchIndexingWorkerImplTest {
+
+	private static final int PACKAGES = 8;
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final RecordingFulltextProcessing fulltextProcessing = new RecordingFulltextProcessing();
+
+	private ElasticsearchIndexingWorkerImpl worker;
+
+	@Before
+	public void setup() throws Exception {
+		worker = new ElasticsearchIndexingWorkerImpl();
+		worker.setElasticsearchConnector(stub(IndexedElasticsearchConnector.class));
+		worker.setWorkerIdentification(Resource.T.create());
+		worker.setSessionFactory(accessId -> stub(PersistenceGmSession.class));
+		worker.setFulltextProcessing(fulltextProcessing);
+		worker.setThreadCount(1);
+		worker.setBulkWindowInMs(2_000);
+
+		worker.start(new ExecutorWorkerContext());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		worker.stop(null);
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void concurrentUpdatesOfSameEntityAreIndexedOnce() throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch closed = new CountDownLatch(PACKAGES);
+		Queue<Integer> indexedWhenClosed = new ConcurrentLinkedQueue<>();
+
+		for (int i = 0; i < PACKAGES; i++) {
+			executor.submit(() -> {
+				IndexingPackage indexingPackage = new IndexingPackage("test.access", Resource.T.getTypeSignature());
+				indexingPackage.addIndexableEntity(resource("r1"), Collections.singletonList(Resource.T.getProperty("name")));
+				indexingPackage.setCallback(() -> {
+					indexedWhenClosed.add(fulltextProcessing.indexed.size());
+					closed.countDown();
+				});
+
+				start.await();
+				return worker.enqueue(indexingPackage);
+			});
+		}
+
+		start.countDown();
+		assertThat(closed.await(10, TimeUnit.SECONDS)).isTrue();
+
+		// a single delegate invocation for all the packages...
+		assertThat(fulltextProcessing.indexed).hasSize(1);
+		assertThat(fulltextProcessing.bulkSizes).containsExactly(1);
+
+		// ...whose result every package observes
+		assertThat(indexedWhenClosed).hasSize(PACKAGES).containsOnly(1);
+
+		WorkerStatus status = worker.getStatus();
+		assertThat(status.getIndexedPackagesCount()).isEqualTo(PACKAGES);
+		assertThat(status.getIndexedEntitiesCount()).isEqualTo(1);
+		assertThat(status.getCoalescedEntitiesCount()).isEqualTo(PACKAGES - 1);
+		assertThat(status.getBulkRequestsCount()).isEqualTo(1);
+		assertThat(status.getRejectedPackagesCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void differentEntitiesAreNotCoalesced() throws Exception {
+		CountDownLatch closed = new CountDownLatch(2);
+
+		for (String id : new String[] { "r1", "r2" }) {
+			IndexingPackage indexingPackage = new IndexingPackage("test.access", Resource.T.getTypeSignature());
+			indexingPackage.addIndexableEntity(resource(id), Collections.singletonList(Resource.T.getProperty("name")));
+			indexingPackage.setCallback(closed::countDown);
+
+			assertThat(worker.enqueue(indexingPackage)).isTrue();
+		}
+
+		assertThat(closed.await(10, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(fulltextProcessing.indexed).hasSize(2);
+		assertThat(worker.getStatus().getIndexedEntitiesCount()).isEqualTo(2);
+		assertThat(worker.getStatus().getCoalescedEntitiesCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void statisticsAreRegisteredAsMeters() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		Metrics.addRegistry(registry);
+
+		try {
+			CountDownLatch closed = new CountDownLatch(2);
+
+			for (int i = 0; i < 2; i++) {
+				IndexingPackage indexingPackage = new IndexingPackage("test.access", Resource.T.getTypeSignature());
+				indexingPackage.addIndexableEntity(resource("r1"), Collections.singletonList(Resource.T.getProperty("name")));
+				indexingPackage.setCallback(closed::countDown);
+
+				assertThat(worker.enqueue(indexingPackage)).isTrue();
+			}
+
+			assertThat(closed.await(10, TimeUnit.SECONDS)).isTrue();
+
+			assertThat(registry.get("tribefire.elasticsearch.indexing.packages").functionTimer().count()).isEqualTo(2);
+			assertThat(registry.get("tribefire.elasticsearch.indexing.entities").functionCounter().count()).isEqualTo(1);
+			assertThat(registry.get("tribefire.elasticsearch.indexing.entities.coalesced").functionCounter().count()).isEqualTo(1);
+			assertThat(registry.get("tribefire.elasticsearch.indexing.bulk.requests").functionCounter().count()).isEqualTo(1);
+
+		} finally {
+			Metrics.removeRegistry(registry);
+		}
+	}
+
+	private static Resource resource(String id) {
+		Resource resource = Resource.T.create();
+		resource.setId(id);
+		return resource;
+	}
+
+	/** Records the entities it is asked to index instead of talking to elastic. */
+	private static class RecordingFulltextProcessing extends FulltextProcessing {
+
+		final Queue<GenericEntity> indexed = new ConcurrentLinkedQueue<>();
+		final Queue<Integer> bulkSizes = new ConcurrentLinkedQueue<>();
+
+		@Override
+		public IndexRequestBuilder prepareIndex(IndexedElasticsearchConnector connector, GenericEntity entity, List<Property> changedProperties,
+				PersistenceGmSession session, Collection<Resource> resources) {
+			indexed.add(entity);
+			return null;
+		}
+
+		@Override
+		public BulkResponse indexBulk(IndexedElasticsearchConnector connector, List<IndexRequestBuilder> indexRequestBuilders) {
+			bulkSizes.add(indexRequestBuilders.size());
+			return new BulkResponse(new BulkItemResponse[0], 0);
+		}
+	}
+
+	private class ExecutorWorkerContext implements WorkerContext {
+
+		@Override
+		public Future<?> submit(Runnable runnable) {
+			return executor.submit(runnable);
+		}
+
+		@Override
+		public <T> Future<T> submit(Callable<T> callable) {
+			return executor.submit(callable);
+		}
+
+		@Override
+		public UserSession getSystemUserSession() {
+			return null;
+		}
+
+		@Override
+		public UserSessionScoping getUserSessionScoping() {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns an implementation of given interface which returns an empty list or another such stub for methods returning a list or an interface
+	 * respectively, and null otherwise. This is enough for the worker's initialization, which only queries the models of the access.
+	 */
+	private static <T> T stub(Class<T> type) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "stub:" + type.getName();
+				default:
+					break;
+			}
+
+			Class<?> returnType = method.getReturnType();
+			if (returnType == List.class)
+				return Collections.emptyList();
+			if (returnType.isInterface())
+				return stub(returnType);
+
+			return null;
+		}));
+	}
+
+}
@@ -21,6 +21,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.index.IndexRequestBuilder;
 import org.elasticsearch.action.index.IndexResponse;
@@ -135,6 +137,19 @@ public class FulltextProcessing {
 	public void index(IndexedElasticsearchConnector connector, GenericEntity entity, List<Property> changedProperties, PersistenceGmSession session,
 			Collection<Resource> resources) throws Exception {
 
+		IndexRequestBuilder indexRequestBuilder = prepareIndex(connector, entity, changedProperties, session, resources);
+
+		executeIndexRequest(indexRequestBuilder, false);
+	}
+
+	/**
+	 * Prepares the request for {@link #index(IndexedElasticsearchConnector, GenericEntity, List, PersistenceGmSession, Collection) indexing} of given
+	 * entity, without sending it to elastic. This way multiple such requests can be sent at once, see
+	 * {@link #indexBulk(IndexedElasticsearchConnector, List)}.
+	 */
+	public IndexRequestBuilder prepareIndex(IndexedElasticsearchConnector connector, GenericEntity entity, List<Property> changedProperties,
+			PersistenceGmSession session, Collection<Resource> resources) throws Exception {
+
 		StopWatch stopWatch = new StopWatch();
 		boolean debug = logger.isDebugEnabled();
 
@@ -241,13 +256,35 @@ public class FulltextProcessing {
 		}
 		stopWatch.intermediate("Attachment Extraction");
 
-		insertRecord(client, index, clonedEntity, attachmentContext, false);
+		IndexRequestBuilder indexRequestBuilder = prepareIndexRequest(client, index, clonedEntity, attachmentContext);
 
-		stopWatch.intermediate("Insert Record");
+		stopWatch.intermediate("Prepare Record");
 
 		if (logger.isDebugEnabled()) {
-			logger.debug("Inserted record for " + entity + ": " + stopWatch);
+			logger.debug("Prepared record for " + entity + ": " + stopWatch);
 		}
+
+		return indexRequestBuilder;
+	}
+
+	/**
+	 * Sends all given {@link #prepareIndex(IndexedElasticsearchConnector, GenericEntity, List, PersistenceGmSession, Collection) prepared} requests
+	 * to elastic with a single bulk request. Note that the bulk request as a whole only fails if elastic cannot be reached, failures of individual
+	 * documents have to be checked via {@link BulkResponse#getItems()}.
+	 */
+	public BulkResponse indexBulk(IndexedElasticsearchConnector connector, List<IndexRequestBuilder> indexRequestBuilders) {
+		BulkRequestBuilder bulkRequestBuilder = connector.getClient().elastic().prepareBulk();
+		for (IndexRequestBuilder indexRequestBuilder : indexRequestBuilders)
+			bulkRequestBuilder.add(indexRequestBuilder);
+
+		long t0 = System.currentTimeMillis();
+		BulkResponse response = bulkRequestBuilder.setRefreshPolicy(RefreshPolicy.NONE).get(TimeValue.timeValueSeconds(60L));
+
+		if (logger.isDebugEnabled()) {
+			logger.debug(String.format("Bulk inserting %d records: %d ms", indexRequestBuilders.size(), (System.currentTimeMillis() - t0)));
+		}
+
+		return response;
 	}
 
 	private static void insertRecord(ContextualizedElasticsearchClient client, String index, GenericEntity ge, AttachmentContext attachmentContext,
@@ -265,6 +302,14 @@ public class FulltextProcessing {
 		}
 		alreadyInserted.add(ge);
 
+		IndexRequestBuilder indexRequestBuilder = prepareIndexRequest(client, index, ge, attachmentContext);
+
+		executeIndexRequest(indexRequestBuilder, isImmediateRefreshEnabled);
+	}
+
+	private static IndexRequestBuilder prepareIndexRequest(ContextualizedElasticsearchClient client, String index, GenericEntity ge,
+			AttachmentContext attachmentContext) throws ModelAccessException {
+
 		EntityType<?> entityType = ge.entityType();
 		String type = entityType.getTypeSignature();
 		ObjectMapper mapper = new ObjectMapper();
@@ -296,13 +341,22 @@ public class FulltextProcessing {
 			ge.setId(id);
 		}
 
-		long t2 = System.currentTimeMillis();
-		//@formatter:off
 		IndexRequestBuilder indexRequestBuilder = client.elastic().prepareIndex(index, ElasticConstants.FULLTEXT_INDEX_TYPE, id.toString())
 				.setSource(json, XContentType.JSON);
 		if (attachmentContext != null) {
 			indexRequestBuilder = indexRequestBuilder.setPipeline("attachmentPipeline");
 		}
+
+		if (logger.isDebugEnabled()) {
+			logger.debug(String.format("JSON generation: %d", (t1 - t0)));
+		}
+
+		return indexRequestBuilder;
+	}
+
+	private static void executeIndexRequest(IndexRequestBuilder indexRequestBuilder, boolean isImmediateRefreshEnabled) {
+		long t2 = System.currentTimeMillis();
+		//@formatter:off
 		IndexResponse response = indexRequestBuilder
 				/**
 				 * Check {@link Check org.elasticsearch.action.support.WriteRequest.RefreshPolicy}. This settings is
@@ -320,7 +374,7 @@ public class FulltextProcessing {
 		}
 
 		if (logger.isDebugEnabled()) {
-			logger.debug(String.format("JSON generation: %d, Inserting: %d", (t1 - t0), (t3 - t2)));
+			logger.debug(String.format("Inserting: %d", (t3 - t2)));
 		}
 	}
 
@@ -0,0 +1,85 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.elasticsearch.indexing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Registers the statistics of a single {@link ElasticsearchIndexingWorkerImpl} as Micrometer meters, tagged with the index name. The meters read
+ * the current values directly from the worker, so nothing has to be updated periodically.
+ */
+/* package */ class ElasticsearchIndexingMeterBinder implements MeterBinder {
+
+	private static final String PREFIX = "tribefire.elasticsearch.indexing.";
+
+	private final ElasticsearchIndexingWorkerImpl worker;
+	private final Tags tags;
+	private final List<Meter> meters = new ArrayList<>();
+
+	public ElasticsearchIndexingMeterBinder(String index, ElasticsearchIndexingWorkerImpl worker) {
+		this.worker = worker;
+		this.tags = Tags.of("index", String.valueOf(index));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		meters.add(FunctionTimer.builder(PREFIX + "packages", worker, ElasticsearchIndexingWorkerImpl::indexedPackagesCount,
+				ElasticsearchIndexingWorkerImpl::totalLatencyMs, TimeUnit.MILLISECONDS) //
+				.tags(tags) //
+				.description("Indexed packages, with the time between enqueuing and indexing them") //
+				.register(registry));
+
+		counter(registry, "packages.rejected", "Packages which could not be enqueued", ElasticsearchIndexingWorkerImpl::rejectedPackagesCount);
+		counter(registry, "entities", "Indexed entities, each counted once per bulk even if enqueued multiple times",
+				ElasticsearchIndexingWorkerImpl::indexedEntitiesCount);
+		counter(registry, "entities.coalesced", "Entity updates merged with an update of the same entity within one bulk",
+				ElasticsearchIndexingWorkerImpl::coalescedEntitiesCount);
+		counter(registry, "entities.failed", "Entities which could not be indexed", ElasticsearchIndexingWorkerImpl::failedEntitiesCount);
+		counter(registry, "bulk.requests", "Bulk requests sent to elastic", ElasticsearchIndexingWorkerImpl::bulkRequestsCount);
+		counter(registry, "bulk.entities", "Entities sent to elastic via bulk requests", ElasticsearchIndexingWorkerImpl::bulkRequestEntitiesCount);
+
+		gauge(registry, "queue.size", "Packages waiting in the queue", ElasticsearchIndexingWorkerImpl::enqueuedPackagesCount);
+		gauge(registry, "workers.active", "Worker threads currently indexing", ElasticsearchIndexingWorkerImpl::activeWorkerCount);
+	}
+
+	/** Removes all the meters previously registered via {@link #bindTo(MeterRegistry)} from given registry. */
+	public void unbindFrom(MeterRegistry registry) {
+		meters.forEach(registry::remove);
+		meters.clear();
+	}
+
+	private void counter(MeterRegistry registry, String name, String description, ToDoubleFunction<ElasticsearchIndexingWorkerImpl> count) {
+		meters.add(FunctionCounter.builder(PREFIX + name, worker, count) //
+				.tags(tags) //
+				.description(description) //
+				.register(registry));
+	}
+
+	private void gauge(MeterRegistry registry, String name, String description, ToDoubleFunction<ElasticsearchIndexingWorkerImpl> value) {
+		meters.add(Gauge.builder(PREFIX + name, worker, value) //
+				.tags(tags) //
+				.description(description) //
+				.register(registry));
+	}
+
+}
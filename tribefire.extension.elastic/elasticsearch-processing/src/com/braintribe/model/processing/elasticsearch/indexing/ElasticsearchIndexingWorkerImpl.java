@@ -12,6 +12,11 @@
 package com.braintribe.model.processing.elasticsearch.indexing;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -25,8 +30,13 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequestBuilder;
+
 import com.braintribe.cfg.Configurable;
 import com.braintribe.cfg.Required;
 import com.braintribe.gwt.utils.genericmodel.GMCoreTools;
@@ -45,9 +55,22 @@ import com.braintribe.model.processing.worker.api.WorkerContext;
 import com.braintribe.model.processing.worker.api.WorkerException;
 import com.braintribe.model.query.EntityQuery;
 
+import io.micrometer.core.instrument.Metrics;
+
 /**
  * This worker implementation covers incoming indexing-events of entities and its properties against elastic. An
  * entity/property to be indexed is marked with the meta data {@link ElasticsearchIndexingMetaData}.
+ * <p>
+ * Each worker thread collects the enqueued packages until either {@link #setBulkSize(Integer) bulk size} entities are
+ * collected or the {@link #setBulkWindowInMs(Integer) bulk window} elapses. Multiple updates of the same entity within
+ * such a batch are coalesced (i.e. the entity is only indexed once, in its most recent state) and all the entities are
+ * sent to elastic via a single bulk request.
+ * <p>
+ * If the queue is full, {@link #enqueue(IndexingPackage)} blocks for up to {@link #setEnqueueTimeoutInMs(Integer)
+ * enqueue timeout} before it rejects the package.
+ * <p>
+ * While started, the statistics of the worker are registered (tagged with the index name) in Micrometer's global registry,
+ * see {@link ElasticsearchIndexingMeterBinder}.
  *
  * @author christina.wilpernig
  */
@@ -63,6 +86,9 @@ public class ElasticsearchIndexingWorkerImpl implements ElasticsearchIndexingWor
 	private boolean started;
 	private int queueSize = 1000;
 	private int threadCount = 10;
+	private int bulkSize = 500;
+	private long bulkWindowInMs = 500;
+	private long enqueueTimeoutInMs = 60_000;
 
 	private ScheduledThreadPoolExecutor scheduledThreadPool;
 	private EnsureOpenIndex ensureOpenIndex;
@@ -74,6 +100,14 @@ public class ElasticsearchIndexingWorkerImpl implements ElasticsearchIndexingWor
 	private ConcurrentHashMap<String, Long> startTimesPerThread = new ConcurrentHashMap<>();
 	private AtomicInteger packagesIndexed = new AtomicInteger(0);
 	private AtomicInteger entitiesIndexed = new AtomicInteger(0);
+	private AtomicInteger rejectedPackages = new AtomicInteger(0);
+	private AtomicInteger coalescedEntities = new AtomicInteger(0);
+	private AtomicInteger failedEntities = new AtomicInteger(0);
+	private AtomicInteger bulkRequests = new AtomicInteger(0);
+	private AtomicLong bulkRequestEntities = new AtomicLong(0);
+	private AtomicLong totalLatency = new AtomicLong(0);
+	private AtomicLong maxLatency = new AtomicLong(0);
+	private ElasticsearchIndexingMeterBinder meterBinder;
 
 	private List<Future<?>> workerFutures = null;
 	private Map<String, Boolean> initializedAccesses = new ConcurrentHashMap<>();
@@ -84,7 +118,8 @@ public class ElasticsearchIndexingWorkerImpl implements ElasticsearchIndexingWor
 	public boolean enqueue(IndexingPackage indexingPackage) {
 
 		if (started) {
-			boolean added = queue.offer(indexingPackage);
+			indexingPackage.markEnqueued();
+			boolean added = offer(indexingPackage);
 
 			if (added) {
 				if (logger.isTraceEnabled()) {
@@ -92,15 +127,32 @@ public class ElasticsearchIndexingWorkerImpl implements ElasticsearchIndexingWor
 				}
 				return true;
 			} else {
-				logger.warn(() -> "Could not enqueue indexing package: " + indexingPackage + " because the queue exceeded the maximum limit.");
+				logger.warn(() -> "Could not enqueue indexing package: " + indexingPackage + " because the queue stayed full for "
+						+ enqueueTimeoutInMs + " ms.");
 			}
 		} else {
 			logger.warn(() -> "Could not enqueue indexing package: " + indexingPackage + " as the indexing worker has not (yet) started.");
 		}
 
+		rejectedPackages.incrementAndGet();
 		return false;
 	}
 
+	private boolean offer(IndexingPackage indexingPackage) {
+		if (queue.offer(indexingPackage)) {
+			return true;
+		}
+
+		logger.debug(() -> "Indexing queue is full, waiting up to " + enqueueTimeoutInMs + " ms to enqueue " + indexingPackage);
+
+		try {
+			return queue.offer(indexingPackage, enqueueTimeoutInMs, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
 	@Override
 	public GenericEntity getWorkerIdentification() {
 		return workerIdentification;
@@ -123,6 +175,12 @@ public class ElasticsearchIndexingWorkerImpl implements ElasticsearchIndexingWor
 			workerFutures.add(workerContext.submit(this));
 		}
 
+		if (meterBinder == null) {
+			String index = elasticsearchConnector != null ? elasticsearchConnector.getIndex() : null;
+			meterBinder = new ElasticsearchIndexingMeterBinder(index, this);
+			meterBinder.bindTo(Metrics.globalRegistry);
+		}
+
 		if (scheduledThreadPool != null && elasticsearchConnector != null) {
 			logger.debug(() -> "Scheduling thread to ensure index " + elasticsearchConnector.getIndex() + " remains open");
 			ensureOpenIndex = new EnsureOpenIndex();
@@ -172,6 +230,11 @@ public class ElasticsearchIndexingWorkerImpl implements ElasticsearchIndexingWor
 				f.cancel(true);
 			}
 		}
+
+		if (meterBinder != null) {
+			meterBinder.unbindFrom(Metrics.globalRegistry);
+			meterBinder = null;
+		}
 	}
 
 	public void stop() throws WorkerException {
@@ -197,6 +260,18 @@ public class ElasticsearchIndexingWorkerImpl implements ElasticsearchIndexingWor
 		status.setActiveWorker(activeWorker.intValue());
 		status.setIndexedPackagesCount(packagesIndexed.intValue());
 		status.setIndexedEntitiesCount(entitiesIndexed.intValue());
+		status.setRejectedPackagesCount(rejectedPackages.intValue());
+		status.setCoalescedEntitiesCount(coalescedEntities.intValue());
+		status.setFailedEntitiesCount(failedEntities.intValue());
+
+		int bulkCount = bulkRequests.intValue();
+		status.setBulkRequestsCount(bulkCount);
+		status.setAverageBulkSize(bulkCount == 0 ? 0 : (double) bulkRequestEntities.get() / bulkCount);
+
+		int packageCount = packagesIndexed.intValue();
+		status.setAverageLatency(packageCount == 0 ? 0 : totalLatency.get() / packageCount);
+		status.setMaxLatency(maxLatency.get());
+
 		TreeSet<Long> times = new TreeSet<>(startTimesPerThread.values());
 		if (!times.isEmpty()) {
 			Long first = null;
@@ -224,28 +299,36 @@ public class ElasticsearchIndexingWorkerImpl implements ElasticsearchIndexingWor
 
 		while (started) {
 			try {
-				IndexingPackage indexingPackage = queue.poll(500, TimeUnit.MILLISECONDS);
+				List<IndexingPackage> indexingPackages = pollPackages();
 
-				if (indexingPackage != null) {
+				if (!indexingPackages.isEmpty()) {
 
 					/**
 					 * If the initialization does not work, errors will be logged and the worker thread will end here.
 					 */
-					if (!initialize(indexingPackage.getAccessId())) {
+					if (!initialize(indexingPackages)) {
+						for (IndexingPackage indexingPackage : indexingPackages) {
+							indexingPackage.close("Worker initialization failed, not indexed");
+						}
 						return;
 					}
 
 					activeWorker.incrementAndGet();
 					startTimesPerThread.put(workerThreadId, System.currentTimeMillis());
 					try {
+						int entitiesCount = 0;
+						for (IndexingPackage indexingPackage : indexingPackages) {
+							entitiesCount += indexingPackage.getPackageSize();
+						}
+
 						if (logger.isDebugEnabled()) {
-							logger.debug("Fetched package " + indexingPackage + " from queue, remaining queue items: " + queue.size());
+							logger.debug("Fetched " + indexingPackages.size() + " package(s) with " + entitiesCount
+									+ " entities from queue, remaining queue items: " + queue.size());
 						}
-						processedEntitiesCount += indexingPackage.getPackageSize();
-						packagesIndexed.incrementAndGet();
-						entitiesIndexed.addAndGet(indexingPackage.getPackageSize());
+						processedEntitiesCount += entitiesCount;
+						packageCount += indexingPackages.size();
 
-						handleIndexing(indexingPackage, ++packageCount, processedEntitiesCount);
+						handleIndexing(indexingPackages, packageCount, processedEntitiesCount);
 					} finally {
 						activeWorker.decrementAndGet();
 						startTimesPerThread.remove(workerThreadId);
@@ -261,51 +344,209 @@ public class ElasticsearchIndexingWorkerImpl implements ElasticsearchIndexingWor
 		}
 	}
 
-	private void handleIndexing(IndexingPackage indexingPackage, int packageCount, int processedEntitiesCount) throws Exception {
+	/**
+	 * Waits for the next package and then collects further packages, until either {@link #bulkSize} entities are
+	 * collected or the {@link #bulkWindowInMs bulk window} elapses.
+	 */
+	private List<IndexingPackage> pollPackages() throws InterruptedException {
+		IndexingPackage first = queue.poll(500, TimeUnit.MILLISECONDS);
+		if (first == null) {
+			return Collections.emptyList();
+		}
+
+		List<IndexingPackage> result = new ArrayList<>();
+		result.add(first);
+		int entitiesCount = first.getPackageSize();
 
-		PersistenceGmSession session = sessionFactory.apply(indexingPackage.getAccessId());
-		logger.pushContext(indexingPackage + ". Package no:'" + packageCount + "'");
-		long indexingduration = 0;
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(bulkWindowInMs);
+		while (started && entitiesCount < bulkSize) {
+			long remaining = deadline - System.nanoTime();
+			IndexingPackage next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+			if (next == null) {
+				break;
+			}
+
+			result.add(next);
+			entitiesCount += next.getPackageSize();
+		}
+
+		return result;
+	}
+
+	private void handleIndexing(List<IndexingPackage> indexingPackages, int packageCount, int processedEntitiesCount) {
+
+		logger.pushContext(indexingPackages.size() + " package(s). Last package no:'" + packageCount + "'");
+		long t0 = System.currentTimeMillis();
+		int indexedCount = 0;
 
 		try {
-			Map<GenericEntity, List<Property>> entities = indexingPackage.getEntitiesToIndex();
-			for (Map.Entry<GenericEntity, List<Property>> entry : entities.entrySet()) {
+			Collection<PendingEntity> pendingEntities = coalesce(indexingPackages);
+			indexedCount = pendingEntities.size();
+			entitiesIndexed.addAndGet(indexedCount);
 
-				if (!started) {
-					if (logger.isDebugEnabled()) {
-						logger.debug("Stop processing of indexable data (as requested).");
-					}
-					break;
-				}
+			index(pendingEntities);
+
+		} finally {
 
+			// statistics first, so they are complete once the package's callback is notified
+			for (IndexingPackage indexingPackage : indexingPackages) {
+				onPackageIndexed(indexingPackage);
+				indexingPackage.close(null);
+			}
+
+			if (logger.isDebugEnabled()) {
+				logger.debug("Processed " + indexingPackages.size() + " package(s) with " + indexedCount + " distinct entities (total: "
+						+ processedEntitiesCount + "). The indexing took: " + (System.currentTimeMillis() - t0) + " ms.");
+			}
+			logger.popContext();
+		}
+	}
+
+	/** Merges multiple occurrences of the same entity, keeping the most recent (i.e. last enqueued) instance. */
+	private Collection<PendingEntity> coalesce(List<IndexingPackage> indexingPackages) {
+		Map<Object, PendingEntity> result = new LinkedHashMap<>();
+
+		for (IndexingPackage indexingPackage : indexingPackages) {
+			String accessId = indexingPackage.getAccessId();
+
+			for (Map.Entry<GenericEntity, List<Property>> entry : indexingPackage.getEntitiesToIndex().entrySet()) {
 				GenericEntity entity = entry.getKey();
-				List<Property> properties = entry.getValue();
 
-				if (logger.isTraceEnabled()) {
-					logger.trace("Indexing " + GMCoreTools.getDescription(entity) + " with changed properties "
-							+ GMCoreTools.getDescriptionForObject(properties));
+				Object key = entityKey(accessId, entity);
+				PendingEntity pendingEntity = result.get(key);
+				if (pendingEntity == null) {
+					result.put(key, new PendingEntity(accessId, entity, entry.getValue()));
+				} else {
+					pendingEntity.update(entity, entry.getValue());
+					coalescedEntities.incrementAndGet();
 				}
+			}
+		}
+
+		return result.values();
+	}
+
+	private static Object entityKey(String accessId, GenericEntity entity) {
+		Object id = entity.getId();
+		if (id == null) {
+			return entity;
+		}
+
+		return accessId + ":" + entity.entityType().getTypeSignature() + ":" + id;
+	}
+
+	private void index(Collection<PendingEntity> pendingEntities) {
+		Map<String, PersistenceGmSession> sessions = new HashMap<>();
+		List<IndexRequestBuilder> indexRequests = new ArrayList<>();
 
-				long t1 = System.currentTimeMillis();
+		for (PendingEntity pendingEntity : pendingEntities) {
 
-				try {
-					fulltextProcessing.index(elasticsearchConnector, entity, properties, session, null);
-				} catch (Exception e) {
-					logger.warn(() -> "Could not index entity " + entity, e);
+			if (!started) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Stop processing of indexable data (as requested).");
 				}
+				return;
+			}
 
-				indexingduration += (System.currentTimeMillis() - t1);
+			GenericEntity entity = pendingEntity.entity;
+			List<Property> properties = pendingEntity.properties();
+
+			if (logger.isTraceEnabled()) {
+				logger.trace("Indexing " + GMCoreTools.getDescription(entity) + " with changed properties "
+						+ GMCoreTools.getDescriptionForObject(properties));
 			}
 
-		} finally {
+			try {
+				PersistenceGmSession session = sessions.computeIfAbsent(pendingEntity.accessId, sessionFactory);
+				indexRequests.add(fulltextProcessing.prepareIndex(elasticsearchConnector, entity, properties, session, null));
+			} catch (Exception e) {
+				failedEntities.incrementAndGet();
+				logger.warn(() -> "Could not index entity " + entity, e);
+			}
 
-			indexingPackage.close(null);
+			if (indexRequests.size() >= bulkSize) {
+				sendBulk(indexRequests);
+				indexRequests = new ArrayList<>();
+			}
+		}
 
-			if (logger.isDebugEnabled()) {
-				logger.debug(
-						"Processed " + indexingPackage + " (total: " + processedEntitiesCount + "). The indexing took: " + indexingduration + " ms.");
+		if (!indexRequests.isEmpty()) {
+			sendBulk(indexRequests);
+		}
+	}
+
+	private void sendBulk(List<IndexRequestBuilder> indexRequests) {
+		bulkRequests.incrementAndGet();
+		bulkRequestEntities.addAndGet(indexRequests.size());
+
+		try {
+			BulkResponse response = fulltextProcessing.indexBulk(elasticsearchConnector, indexRequests);
+
+			if (response.hasFailures()) {
+				for (BulkItemResponse item : response.getItems()) {
+					if (item.isFailed()) {
+						failedEntities.incrementAndGet();
+						logger.warn(() -> "Could not index entity with id " + item.getId() + ": " + item.getFailureMessage());
+					}
+				}
 			}
-			logger.popContext();
+
+		} catch (Exception e) {
+			failedEntities.addAndGet(indexRequests.size());
+			logger.warn(() -> "Could not index " + indexRequests.size() + " entities with a bulk request.", e);
+		}
+	}
+
+	private void onPackageIndexed(IndexingPackage indexingPackage) {
+		packagesIndexed.incrementAndGet();
+
+		long latency = System.currentTimeMillis() - indexingPackage.getEnqueuedAt();
+		totalLatency.addAndGet(latency);
+		maxLatency.accumulateAndGet(latency, Math::max);
+	}
+
+	// @formatter:off
+	/* package */ int indexedPackagesCount() { return packagesIndexed.get(); }
+	/* package */ long totalLatencyMs() { return totalLatency.get(); }
+	/* package */ int rejectedPackagesCount() { return rejectedPackages.get(); }
+	/* package */ int indexedEntitiesCount() { return entitiesIndexed.get(); }
+	/* package */ int coalescedEntitiesCount() { return coalescedEntities.get(); }
+	/* package */ int failedEntitiesCount() { return failedEntities.get(); }
+	/* package */ int bulkRequestsCount() { return bulkRequests.get(); }
+	/* package */ long bulkRequestEntitiesCount() { return bulkRequestEntities.get(); }
+	/* package */ int enqueuedPackagesCount() { return queue != null ? queue.size() : 0; }
+	/* package */ int activeWorkerCount() { return activeWorker.get(); }
+	// @formatter:on
+
+	private boolean initialize(List<IndexingPackage> indexingPackages) {
+		for (IndexingPackage indexingPackage : indexingPackages) {
+			if (!initialize(indexingPackage.getAccessId())) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/** All the updates of a single entity within one bulk. */
+	private static class PendingEntity {
+		final String accessId;
+		GenericEntity entity;
+		final Set<Property> properties;
+
+		PendingEntity(String accessId, GenericEntity entity, List<Property> properties) {
+			this.accessId = accessId;
+			this.entity = entity;
+			this.properties = new LinkedHashSet<>(properties);
+		}
+
+		void update(GenericEntity entity, List<Property> properties) {
+			this.entity = entity;
+			this.properties.addAll(properties);
+		}
+
+		List<Property> properties() {
+			return new ArrayList<>(properties);
 		}
 	}
 
@@ -392,6 +633,38 @@ public class ElasticsearchIndexingWorkerImpl implements ElasticsearchIndexingWor
 		}
 	}
 
+	/**
+	 * Maximum number of entities sent to elastic with a single bulk request. Default is 500.
+	 */
+	@Configurable
+	public void setBulkSize(Integer bulkSize) {
+		if (bulkSize != null) {
+			this.bulkSize = Math.max(bulkSize, 1);
+		}
+	}
+
+	/**
+	 * Maximum time a worker thread waits for further packages to fill up a bulk request, before it indexes what it has
+	 * collected so far. Default is 500 ms.
+	 */
+	@Configurable
+	public void setBulkWindowInMs(Integer bulkWindowInMs) {
+		if (bulkWindowInMs != null) {
+			this.bulkWindowInMs = Math.max(bulkWindowInMs, 0);
+		}
+	}
+
+	/**
+	 * Maximum time {@link #enqueue(IndexingPackage)} waits for free space in a full queue, before the package is
+	 * rejected. Default is 60 seconds, 0 means packages are rejected right away.
+	 */
+	@Configurable
+	public void setEnqueueTimeoutInMs(Integer enqueueTimeoutInMs) {
+		if (enqueueTimeoutInMs != null) {
+			this.enqueueTimeoutInMs = Math.max(enqueueTimeoutInMs, 0);
+		}
+	}
+
 	@Configurable
 	@Required
 	public void setScheduledThreadPool(ScheduledThreadPoolExecutor scheduledThreadPool) {
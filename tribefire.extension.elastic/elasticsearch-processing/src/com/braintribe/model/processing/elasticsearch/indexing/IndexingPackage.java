@@ -27,6 +27,7 @@ public class IndexingPackage {
 	private Runnable callback;
 	private String state;
 	private String accessId;
+	private long enqueuedAt;
 
 	public IndexingPackage(String accessId, String typeSignature) {
 		this.accessId = accessId;
@@ -97,4 +98,17 @@ public class IndexingPackage {
 		return accessId;
 	}
 
+	public String getTypeSignature() {
+		return typeSignature;
+	}
+
+	/** Called by the {@link ElasticsearchIndexingWorker} when this package is put into its queue, used to measure the indexing latency. */
+	public void markEnqueued() {
+		this.enqueuedAt = System.currentTimeMillis();
+	}
+
+	public long getEnqueuedAt() {
+		return enqueuedAt;
+	}
+
 }
@@ -80,8 +80,9 @@ public class HealthCheckProcessor implements CheckProcessor {
 			result.add(entry);
 
 			StringBuilder sb = new StringBuilder();
-			sb.append("Name | Index | Active Workers | Enqueued | Max. Active Runtime | Packages Indexed | Entities Indexed\n");
-			sb.append("--- | --- | --- | --- | --- | --- | ---\n");
+			sb.append("Name | Index | Active Workers | Enqueued | Max. Active Runtime | Packages Indexed | Entities Indexed | Coalesced | Failed"
+					+ " | Bulk Requests | Avg. Bulk Size | Avg. Latency | Rejected\n");
+			sb.append("--- | --- | --- | --- | --- | --- | --- | --- | --- | --- | --- | --- | ---\n");
 
 			for (ElasticsearchIndexingWorker workerDeployable : list) {
 
@@ -97,12 +98,18 @@ public class HealthCheckProcessor implements CheckProcessor {
 						sb.append(status.getEnqueued() + "/" + status.getQueueSize() + " | ");
 						sb.append(StringTools.prettyPrintDuration(status.getMaxActiveRuntime(), true, ChronoUnit.MILLIS) + " | ");
 						sb.append(status.getIndexedPackagesCount() + " | ");
-						sb.append(status.getIndexedEntitiesCount() + "\n");
+						sb.append(status.getIndexedEntitiesCount() + " | ");
+						sb.append(status.getCoalescedEntitiesCount() + " | ");
+						sb.append(status.getFailedEntitiesCount() + " | ");
+						sb.append(status.getBulkRequestsCount() + " | ");
+						sb.append(String.format("%.1f", status.getAverageBulkSize()) + " | ");
+						sb.append(StringTools.prettyPrintDuration(status.getAverageLatency(), true, ChronoUnit.MILLIS) + " | ");
+						sb.append(status.getRejectedPackagesCount() + "\n");
 
 					} catch (Exception e) {
 						logger.warn(() -> "Error while trying to worker " + workerDeployable.getExternalId(), e);
 
-						sb.append(workerDeployable.getExternalId() + " | n/a | n/a | n/a | n/a | n/a | n/a\n");
+						sb.append(workerDeployable.getExternalId() + " | n/a | n/a | n/a | n/a | n/a | n/a | n/a | n/a | n/a | n/a | n/a | n/a\n");
 
 						entry.setCheckStatus(CheckStatus.fail);
 						entry.setMessage("Could not access status of worker " + workerDeployable.getExternalId());
@@ -143,7 +143,7 @@ public abstract class HibernateAccessRecyclingTestBase {
 	// ## . . . . . . . . Deployment . . . . . . . . ##
 	// ################################################
 
-	protected static HbmDeployedUnit deployHbm(GmMetaModel model, String dbName) {
+	protected HbmDeployedUnit deployHbm(GmMetaModel model, String dbName) {
 		HbmDeployedUnit hbmUnit = new HbmDeployedUnit();
 		hbmUnit.sessionFactory = sessionFactory(model, dbName);
 		hbmUnit.access = HibernateAccessSetupHelper.hibernateAccess("test.access.for." + dbName, () -> model, hbmUnit.sessionFactory);
@@ -151,7 +151,7 @@ public abstract class HibernateAccessRecyclingTestBase {
 		return hbmUnit;
 	}
 
-	private static HbmTestSessionFactory sessionFactory(GmMetaModel model, String dbName) {
+	private HbmTestSessionFactory sessionFactory(GmMetaModel model, String dbName) {
 		HibernateSessionFactoryBean hsfb = hibernateSessionFactoryBean( //
 				() -> model, //
 				dataSource(dbName));
@@ -162,7 +162,8 @@ public abstract class HibernateAccessRecyclingTestBase {
 		return HbmTestSessionFactory.newInstance(hsfb.getObject(), false);
 	}
 
-	private static DataSource dataSource(String dbName) {
+	/** Data source of the DB with given name. Tests might wrap it, e.g. to observe the JDBC statements sent to the DB. */
+	protected DataSource dataSource(String dbName) {
 		return dataSource_H2(dbName);
 	}
 
@@ -0,0 +1,81 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.access.hibernate.base.tools;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps a {@link DataSource} and counts the JDBC batches executed via the {@link PreparedStatement}s of its connections, as well as the statements
+ * added to these batches. This tells whether the statements were really sent to the DB in batches, rather than one by one.
+ */
+public class JdbcBatchCounter {
+
+	private final AtomicInteger batches = new AtomicInteger();
+	private final AtomicInteger batchedStatements = new AtomicInteger();
+
+	public DataSource wrap(DataSource dataSource) {
+		return proxy(DataSource.class, dataSource);
+	}
+
+	/** Number of {@link PreparedStatement#executeBatch()} invocations. */
+	public int batches() {
+		return batches.get();
+	}
+
+	/** Number of {@link PreparedStatement#addBatch()} invocations. */
+	public int batchedStatements() {
+		return batchedStatements.get();
+	}
+
+	public void reset() {
+		batches.set(0);
+		batchedStatements.set(0);
+	}
+
+	private <T> T proxy(Class<T> iface, T delegate) {
+		return iface.cast(Proxy.newProxyInstance(JdbcBatchCounter.class.getClassLoader(), new Class<?>[] { iface },
+				(proxy, method, args) -> invoke(delegate, method, args)));
+	}
+
+	private Object invoke(Object delegate, Method method, Object[] args) throws Throwable {
+		Object result;
+		try {
+			result = method.invoke(delegate, args);
+
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+
+		switch (method.getName()) {
+			case "getConnection":
+				return proxy(Connection.class, (Connection) result);
+			case "prepareStatement":
+				return proxy(PreparedStatement.class, (PreparedStatement) result);
+			case "addBatch":
+				batchedStatements.incrementAndGet();
+				return result;
+			case "executeBatch":
+				batches.incrementAndGet();
+				return result;
+			default:
+				return result;
+		}
+	}
+
+}
@@ -0,0 +1,157 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.access.hibernate.hql;
+
+import static com.braintribe.testing.junit.assertions.assertj.core.api.Assertions.assertThat;
+import static com.braintribe.utils.lcd.CollectionTools2.asSet;
+
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.braintribe.model.access.hibernate.base.model.acl.AclHaTestEntity;
+import com.braintribe.model.access.hibernate.base.model.simple.BasicScalarEntity;
+import com.braintribe.model.processing.query.fluent.SelectQueryBuilder;
+import com.braintribe.model.query.SelectQuery;
+
+/**
+ * Tests for {@link HqlCache} used by {@link SelectHqlBuilder}.
+ * <p>
+ * Every query is also encoded without the cache, and the resulting HQL and parameters must be the same either way.
+ */
+public class HqlCacheTest {
+
+	private final HqlCache cache = new HqlCache();
+
+	@Test
+	public void sameShapeIsCached() throws Exception {
+		encode(scalarQuery("one", 1));
+		assertStats(0, 1);
+
+		SelectHqlBuilder builder = encode(scalarQuery("two", 2));
+		assertStats(1, 1);
+
+		assertThat(builder.context.getValues()).containsExactly("two", 2);
+	}
+
+	@Test
+	public void differentShapeIsNotCached() throws Exception {
+		encode(scalarQuery("one", 1));
+		encode(new SelectQueryBuilder().from(BasicScalarEntity.T, "e") //
+				.where() //
+				.property("e", BasicScalarEntity.stringValue).ne("one") //
+				.done());
+		assertStats(0, 2);
+	}
+
+	@Test
+	public void nullIsDifferentShape() throws Exception {
+		encode(scalarQuery("one", 1));
+		encode(scalarQuery(null, 1));
+		encode(scalarQuery(null, 2));
+		assertStats(1, 2);
+	}
+
+	@Test
+	public void pagingIsNotPartOfShape() throws Exception {
+		encode(new SelectQueryBuilder().from(BasicScalarEntity.T, "e").paging(10, 0).done());
+		encode(new SelectQueryBuilder().from(BasicScalarEntity.T, "e").paging(20, 40).done());
+		assertStats(1, 1);
+	}
+
+	@Test
+	public void likePatternIsDerivedFromNewValue() throws Exception {
+		encode(likeQuery("a*b"));
+		SelectHqlBuilder builder = encode(likeQuery("x?y_z"));
+		assertStats(1, 1);
+
+		assertThat(builder.context.getValues()).containsExactly("x_y!_z");
+	}
+
+	@Test
+	public void inSetIsDerivedFromNewValue() throws Exception {
+		encode(inQuery(asSet(1, 2, 3)));
+		SelectHqlBuilder builder = encode(inQuery(asSet(4)));
+		assertStats(1, 1);
+
+		assertThat((Set<?>) builder.context.getValues().get(0)).containsExactly(4);
+	}
+
+	@Test
+	public void optimizedDisjunctionIsNotCached() throws Exception {
+		encode(aclQuery("G1", "G2"));
+		encode(aclQuery("G1", "G1"));
+		assertStats(0, 2);
+		assertThat(cache.getUncacheable()).isEqualTo(2);
+	}
+
+	private SelectQuery scalarQuery(String s, Integer i) {
+		// @formatter:off
+		return new SelectQueryBuilder().from(BasicScalarEntity.T, "e") //
+				.where()
+					.conjunction()
+						.property("e", BasicScalarEntity.stringValue).eq(s)
+						.property("e", BasicScalarEntity.integerValue).gt(i)
+					.close()
+				.done();
+		// @formatter:on
+	}
+
+	private SelectQuery likeQuery(String pattern) {
+		return new SelectQueryBuilder().from(BasicScalarEntity.T, "e") //
+				.where() //
+				.property("e", BasicScalarEntity.stringValue).like(pattern) //
+				.done();
+	}
+
+	private SelectQuery inQuery(Set<?> values) {
+		return new SelectQueryBuilder().from(BasicScalarEntity.T, "e") //
+				.where() //
+				.property("e", BasicScalarEntity.integerValue).in(values) //
+				.done();
+	}
+
+	private SelectQuery aclQuery(String g1, String g2) {
+		String ACC = "acl.accessibility";
+
+		// @formatter:off
+		return new SelectQueryBuilder().from(AclHaTestEntity.T, "e") //
+				.where()
+					.disjunction()
+						.value(g1).in().property("e", ACC)
+						.value(g2).in().property("e", ACC)
+					.close()
+				.done();
+		// @formatter:on
+	}
+
+	private SelectHqlBuilder encode(SelectQuery query) {
+		SelectHqlBuilder plainBuilder = new SelectHqlBuilder(query);
+		plainBuilder.buildHql();
+
+		SelectHqlBuilder cachingBuilder = new SelectHqlBuilder(query);
+		cachingBuilder.setHqlCache(cache);
+		cachingBuilder.buildHql();
+
+		assertThat(cachingBuilder.builder.toString()).isEqualTo(plainBuilder.builder.toString());
+		assertThat(cachingBuilder.context.getValues()).isEqualTo(plainBuilder.context.getValues());
+		assertThat(cachingBuilder.entitySignaturePositions).isEqualTo(plainBuilder.entitySignaturePositions);
+
+		return cachingBuilder;
+	}
+
+	private void assertStats(long hits, long misses) {
+		assertThat(cache.getHits()).as("hits").isEqualTo(hits);
+		assertThat(cache.getMisses()).as("misses").isEqualTo(misses);
+	}
+
+}
@@ -0,0 +1,134 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.access.hibernate.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.braintribe.model.access.hibernate.HibernateAccess;
+import com.braintribe.model.access.hibernate.base.HibernateAccessRecyclingTestBase;
+import com.braintribe.model.access.hibernate.base.HibernateBaseModelTestBase;
+import com.braintribe.model.access.hibernate.base.model.simple.BasicEntity;
+import com.braintribe.model.access.hibernate.base.model.simple.BasicScalarEntity;
+import com.braintribe.model.access.hibernate.base.tools.JdbcBatchCounter;
+import com.braintribe.model.processing.query.fluent.EntityQueryBuilder;
+
+/**
+ * Tests for the bulk mode of {@link HibernateAccess#applyManipulation}, see {@link HibernateAccess#setBulkManipulationThreshold(Integer)}.
+ * 
+ * @see HibernateAccessRecyclingTestBase
+ */
+public class BulkManipulation_HbmTest extends HibernateBaseModelTestBase {
+
+	private final JdbcBatchCounter batchCounter = new JdbcBatchCounter();
+
+	@Override
+	protected DataSource dataSource(String dbName) {
+		return batchCounter.wrap(super.dataSource(dbName));
+	}
+
+	@Before
+	public void enableBulkMode() {
+		access.setBulkManipulationThreshold(2);
+		access.setJdbcBatchSize(3);
+
+		batchCounter.reset();
+	}
+
+	@After
+	public void disableBulkMode() {
+		access.setBulkManipulationThreshold(1000);
+		access.setJdbcBatchSize(50);
+	}
+
+	@Test
+	public void createsEntities() throws Exception {
+		for (int i = 1; i <= 10; i++) {
+			BasicEntity be = createBe("BE-" + i);
+			// BasicEntity is saved before BasicScalarEntity, i.e. it references a not-yet-saved entity
+			be.setScalarEntity(createBse("BSE-" + i));
+		}
+
+		session.commit();
+
+		// 10 inserts per type, plus the updates of the BasicEntities' references, in batches of at most 3
+		assertThat(batchCounter.batchedStatements()).isGreaterThanOrEqualTo(20);
+		assertThat(batchCounter.batches()).isGreaterThanOrEqualTo(8).isLessThan(batchCounter.batchedStatements());
+
+		resetGmSession();
+
+		List<BasicEntity> bes = session.query().entities(EntityQueryBuilder.from(BasicEntity.T).done()).list();
+		assertThat(bes).hasSize(10);
+
+		for (BasicEntity be : bes) {
+			assertThat(be.<Object> getId()).isNotNull();
+			assertThat(be.getScalarEntity()).isNotNull();
+			assertThat(be.getScalarEntity().getName()).isEqualTo(be.getName().replace("BE", "BSE"));
+		}
+	}
+
+	@Test
+	public void assignsIdsToCreatedEntities() throws Exception {
+		BasicScalarEntity bse1 = createBse("BSE-1");
+		BasicScalarEntity bse2 = createBse("BSE-2");
+
+		session.commit();
+
+		assertThat(bse1.<Object> getId()).isNotNull();
+		assertThat(bse2.<Object> getId()).isNotNull();
+		assertThat(bse1.<Object> getId()).isNotEqualTo(bse2.getId());
+	}
+
+	@Test
+	public void deletesEntities() throws Exception {
+		for (int i = 1; i <= 5; i++)
+			createBse("BSE-" + i);
+
+		session.commit();
+
+		resetGmSession();
+
+		List<BasicScalarEntity> bses = session.query().entities(EntityQueryBuilder.from(BasicScalarEntity.T).done()).list();
+		for (BasicScalarEntity bse : bses)
+			session.deleteEntity(bse);
+
+		batchCounter.reset();
+
+		session.commit();
+
+		assertThat(batchCounter.batchedStatements()).isEqualTo(5);
+		assertThat(batchCounter.batches()).isEqualTo(2);
+
+		resetGmSession();
+
+		bses = session.query().entities(EntityQueryBuilder.from(BasicScalarEntity.T).done()).list();
+		assertThat(bses).isEmpty();
+	}
+
+	@Test
+	public void doesNotBatchBelowThreshold() throws Exception {
+		createBse("BSE-1");
+
+		session.commit();
+
+		assertThat(batchCounter.batches()).isZero();
+		assertThat(batchCounter.batchedStatements()).isZero();
+	}
+
+}
@@ -0,0 +1,119 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.access.hibernate.tests;
+
+import static com.braintribe.model.query.OrderingDirection.ascending;
+import static com.braintribe.utils.lcd.CollectionTools2.newList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.braintribe.model.access.hibernate.HibernateAccess;
+import com.braintribe.model.access.hibernate.base.HibernateAccessRecyclingTestBase;
+import com.braintribe.model.access.hibernate.base.HibernateBaseModelTestBase;
+import com.braintribe.model.access.hibernate.base.model.simple.BasicScalarEntity;
+import com.braintribe.model.processing.query.fluent.SelectQueryBuilder;
+import com.braintribe.model.query.SelectQuery;
+import com.braintribe.model.query.SelectQueryResult;
+
+/**
+ * Tests for {@link HibernateAccess#streamQuery(SelectQuery, java.util.function.Consumer)}.
+ * 
+ * @see HibernateAccessRecyclingTestBase
+ */
+public class Streaming_HbmTest extends HibernateBaseModelTestBase {
+
+	private final List<SelectQueryResult> chunks = newList();
+
+	@Test
+	public void streamsInChunks() throws Exception {
+		createBses(5);
+
+		access.setStreamingChunkSize(2);
+		try {
+			long total = access.streamQuery(namesQuery(0, 0), chunks::add);
+
+			assertThat(total).isEqualTo(5);
+			assertThat(chunks).hasSize(3);
+			assertChunk(0, true, "BSE-1", "BSE-2");
+			assertChunk(1, true, "BSE-3", "BSE-4");
+			assertChunk(2, false, "BSE-5");
+
+		} finally {
+			access.setStreamingChunkSize(0);
+		}
+	}
+
+	@Test
+	public void streamsEntities() throws Exception {
+		createBses(3);
+
+		SelectQuery query = new SelectQueryBuilder() //
+				.from(BasicScalarEntity.T, "e") //
+				.orderBy(ascending).property("e", "name") //
+				.done();
+
+		access.streamQuery(query, chunks::add);
+
+		assertThat(chunks).hasSize(1);
+		List<Object> results = chunks.get(0).getResults();
+		assertThat(results).hasSize(3);
+		assertThat(((BasicScalarEntity) results.get(0)).getName()).isEqualTo("BSE-1");
+	}
+
+	@Test
+	public void respectsPaging() throws Exception {
+		createBses(5);
+
+		long total = access.streamQuery(namesQuery(2, 1), chunks::add);
+
+		assertThat(total).isEqualTo(2);
+		assertChunk(0, false, "BSE-2", "BSE-3");
+	}
+
+	@Test
+	public void emptyResult() throws Exception {
+		long total = access.streamQuery(namesQuery(0, 0), chunks::add);
+
+		assertThat(total).isEqualTo(0);
+		assertThat(chunks).hasSize(1);
+		assertChunk(0, false);
+	}
+
+	private void createBses(int count) {
+		for (int i = 1; i <= count; i++)
+			createBse("BSE-" + i);
+
+		session.commit();
+	}
+
+	private void assertChunk(int index, boolean hasMore, String... expectedNames) {
+		SelectQueryResult chunk = chunks.get(index);
+
+		assertThat(chunk.getHasMore()).isEqualTo(hasMore);
+		assertThat(chunk.getResults()).containsExactly((Object[]) expectedNames);
+	}
+
+	private SelectQuery namesQuery(int limit, int offset) {
+		SelectQueryBuilder builder = new SelectQueryBuilder() //
+				.select("e", "name") //
+				.from(BasicScalarEntity.T, "e");
+
+		if (limit > 0)
+			builder.paging(limit, offset);
+
+		return builder.orderBy(ascending).property("e", "name").done();
+	}
+
+}
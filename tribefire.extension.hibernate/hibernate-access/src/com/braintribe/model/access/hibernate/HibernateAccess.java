@@ -41,6 +41,8 @@ import javax.persistence.criteria.Root;
 
 import org.hibernate.FlushMode;
 import org.hibernate.PessimisticLockException;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
@@ -59,6 +61,7 @@ import com.braintribe.model.access.ModelAccessException;
 import com.braintribe.model.access.hibernate.gm.CompositeIdValues;
 import com.braintribe.model.access.hibernate.hql.HibernateQueryBuilder;
 import com.braintribe.model.access.hibernate.hql.HqlBuilder;
+import com.braintribe.model.access.hibernate.hql.HqlCache;
 import com.braintribe.model.access.hibernate.hql.SelectHqlBuilder;
 import com.braintribe.model.access.hibernate.time.HibernateAccessTiming;
 import com.braintribe.model.access.hibernate.time.HibernateAccessTiming.ActionType;
@@ -163,9 +166,14 @@ public class HibernateAccess extends AbstractAccess implements HibernateComponen
 	private HibernateLogging logging;
 
 	private int loadingLimit = 200;
+	private int streamingFetchSize = 500;
+	private int streamingChunkSize = 0;
 	private long durationWarningThreshold = 5000L;
 	private long durationDebugThreshold = 100L;
 	private int deadlockRetryLimit = 5;
+	private int bulkManipulationThreshold = 1000;
+	private int jdbcBatchSize = 50;
+	private HqlCache hqlCache = new HqlCache();
 
 	private static final Set<ScalarType> nativeIdTypes = asSet(EssentialTypes.TYPE_INTEGER, EssentialTypes.TYPE_LONG);
 
@@ -201,6 +209,24 @@ public class HibernateAccess extends AbstractAccess implements HibernateComponen
 		this.loadingLimit = loadingLimit;
 	}
 
+	/**
+	 * JDBC fetch size used by {@link #streamQuery(SelectQuery, Consumer)}, i.e. how many rows are retrieved from the DB in a single
+	 * round-trip. Default is 500.
+	 */
+	@Configurable
+	public void setStreamingFetchSize(int streamingFetchSize) {
+		this.streamingFetchSize = streamingFetchSize;
+	}
+
+	/**
+	 * Maximum number of rows cloned and passed to the consumer of {@link #streamQuery(SelectQuery, Consumer)} at once. If not set (or not
+	 * positive), the {@link #setLoadingLimit(int) loading limit} is used.
+	 */
+	@Configurable
+	public void setStreamingChunkSize(int streamingChunkSize) {
+		this.streamingChunkSize = streamingChunkSize;
+	}
+
 	/**
 	 * Specifies the maximum number of times the {@link #applyManipulation(ManipulationRequest)} is attempted in case it
 	 * fails due to a deadlock.
@@ -218,6 +244,52 @@ public class HibernateAccess extends AbstractAccess implements HibernateComponen
 		this.logging = logging;
 	}
 
+	/**
+	 * Specifies the number of created and deleted entities (in total) from which {@link #applyManipulation(ManipulationRequest)} switches to the
+	 * bulk mode. In this mode the statements are sent to the DB in JDBC batches of {@link #setJdbcBatchSize(Integer) given size}, the expensive
+	 * per-entity lookups (e.g. of the {@link IdGenerator}) are done once per entity type and the Hibernate session is flushed and cleared
+	 * explicitly, which spares the (second) dirty-check of all the touched entities on commit.
+	 * <p>
+	 * The resulting {@link ManipulationResponse} is the same as in the regular mode. Default is 1000, non-positive value disables the bulk mode.
+	 */
+	@Configurable
+	public void setBulkManipulationThreshold(Integer bulkManipulationThreshold) {
+		if (bulkManipulationThreshold != null)
+			this.bulkManipulationThreshold = bulkManipulationThreshold;
+	}
+
+	/** JDBC batch size used for the bulk mode, see {@link #setBulkManipulationThreshold(Integer)}. Default is 50. */
+	@Configurable
+	public void setJdbcBatchSize(Integer jdbcBatchSize) {
+		if (jdbcBatchSize != null)
+			this.jdbcBatchSize = Math.max(jdbcBatchSize, 1);
+	}
+
+	/**
+	 * Maximum number of HQL strings cached for select queries, keyed by the structure of the query (i.e. ignoring the literal values, which are
+	 * passed as parameters). Default is 1000, non-positive value disables the cache.
+	 * 
+	 * @see HqlCache
+	 */
+	@Configurable
+	public void setHqlCacheSize(Integer hqlCacheSize) {
+		if (hqlCacheSize == null)
+			return;
+
+		if (hqlCacheSize <= 0) {
+			hqlCache = null;
+		} else {
+			if (hqlCache == null)
+				hqlCache = new HqlCache();
+			hqlCache.setMaxSize(hqlCacheSize);
+		}
+	}
+
+	/** @return the {@link HqlCache}, e.g. to check its hit rate, or <tt>null</tt> if the cache is disabled */
+	public HqlCache getHqlCache() {
+		return hqlCache;
+	}
+
 	// ************************************************************************
 	// Interface Methods
 	// ************************************************************************
@@ -274,6 +346,88 @@ public class HibernateAccess extends AbstractAccess implements HibernateComponen
 		return selectQueryResult(results, hasMore);
 	}
 
+	/**
+	 * Evaluates given query without loading the entire result into memory, passing it to given consumer in chunks instead.
+	 * <p>
+	 * The rows are read via forward-only {@link ScrollableResults} with the {@link #setStreamingFetchSize(int) streaming fetch size}. Every
+	 * {@link #setStreamingChunkSize(int) chunk} is cloned on its own and the Hibernate session is cleared afterwards, so the memory consumption
+	 * only depends on the chunk size, not on the size of the result.
+	 * <p>
+	 * Every {@link SelectQueryResult} except for the last one has {@link SelectQueryResult#getHasMore() hasMore} set to <tt>true</tt>. If the
+	 * query has no results, the consumer is called exactly once with an empty result. Paging of the query is respected.
+	 * <p>
+	 * Note that all the chunks are read within a single read-only transaction, i.e. the consumer is invoked while the DB connection is held.
+	 * 
+	 * @return total number of rows passed to the consumer
+	 */
+	public long streamQuery(SelectQuery query, Consumer<? super SelectQueryResult> chunkConsumer) throws ModelAccessException {
+		try {
+			return runInTransaction(query, ActionType.StreamedSelectQuery, (q, session, timing) -> streamQuery(q, chunkConsumer, session, timing));
+
+		} catch (RuntimeException e) {
+			throw Exceptions.contextualize(e, "Error while streaming query: " + query.stringify());
+		}
+	}
+
+	private long streamQuery(SelectQuery query, Consumer<? super SelectQueryResult> chunkConsumer, Session session, HibernateAccessTiming timing) {
+		SelectHqlBuilder hqlBuilder = new SelectHqlBuilder(query);
+
+		org.hibernate.query.Query<?> hqlQuery = newHql(session, hqlBuilder, false);
+		hqlQuery.setFetchSize(streamingFetchSize);
+		hqlQuery.setReadOnly(true);
+
+		timing.setQueryInformation(hibernateSessionFactory, query, hqlQuery);
+		timing.processingStarts();
+
+		int chunkSize = streamingChunkSize > 0 ? streamingChunkSize : loadingLimit;
+		long total = 0;
+
+		try (ScrollableResults scroll = hqlQuery.scroll(ScrollMode.FORWARD_ONLY)) {
+			List<Object> chunk = newList(chunkSize);
+
+			boolean hasNext = scroll.next();
+			while (hasNext) {
+				chunk.add(currentRow(scroll));
+				hasNext = scroll.next();
+
+				if (chunk.size() < chunkSize && hasNext)
+					continue;
+
+				deliverChunk(query, hqlBuilder, chunk, hasNext, chunkConsumer);
+				timing.chunkStreamed(chunk.size());
+				total += chunk.size();
+
+				chunk = newList(chunkSize);
+				// the chunk was cloned, so we release whatever Hibernate loaded for it
+				session.clear();
+			}
+		}
+
+		timing.processingStopped();
+
+		if (total == 0)
+			chunkConsumer.accept(selectQueryResult(newList(), false));
+
+		return total;
+	}
+
+	/** Mimics {@link org.hibernate.query.Query#list()}, which returns the value itself rather than an array if only one value is selected. */
+	private static Object currentRow(ScrollableResults scroll) {
+		Object[] row = scroll.get();
+		return row.length == 1 ? row[0] : row;
+	}
+
+	private void deliverChunk(SelectQuery query, SelectHqlBuilder hqlBuilder, List<Object> chunk, boolean hasMore,
+			Consumer<? super SelectQueryResult> chunkConsumer) {
+
+		ensureIdsAreGmValues(query, chunk);
+		ensureTypeSignatureSelectedProperly(hqlBuilder, chunk);
+
+		List<Object> results = cloneSelectQueryResult(chunk, query, createStandardCloningContext());
+
+		chunkConsumer.accept(selectQueryResult(results, hasMore));
+	}
+
 	@Override
 	public EntityQueryResult queryEntities(EntityQuery query) throws ModelAccessException {
 		return QueryAdaptingTools.queryEntities(query, this);
@@ -347,12 +501,18 @@ public class HibernateAccess extends AbstractAccess implements HibernateComponen
 	}
 
 	private <T, Q extends Query> org.hibernate.query.Query<T> newHql(Session session, HqlBuilder<Q> hqlBuilder) {
-		hqlBuilder.setAdaptPagingForHasMore(true);
+		return newHql(session, hqlBuilder, true);
+	}
+
+	private <T, Q extends Query> org.hibernate.query.Query<T> newHql(Session session, HqlBuilder<Q> hqlBuilder, boolean adaptPagingForHasMore) {
+		hqlBuilder.setAdaptPagingForHasMore(adaptPagingForHasMore);
 		hqlBuilder.setSession(session);
 		hqlBuilder.setDefaultPartition(defaultPartition);
 		hqlBuilder.setMappedEntityIndicator(getMappingInfoProvider()::isEntityMapped);
 		hqlBuilder.setMappedPropertyIndicator(getMappingInfoProvider()::isPropertyMapped);
 		hqlBuilder.setIdAdjuster(this::adjustId);
+		if (hqlBuilder instanceof SelectHqlBuilder)
+			((SelectHqlBuilder) hqlBuilder).setHqlCache(hqlCache);
 
 		try {
 			org.hibernate.query.Query<T> hqlQuery = (org.hibernate.query.Query<T>) hqlBuilder.encode();
@@ -419,17 +579,24 @@ public class HibernateAccess extends AbstractAccess implements HibernateComponen
 		private HibernateManipulatorContext manipulatorContext;
 		private HibernateAccessTiming timing;
 
+		private boolean bulk;
+		private final Map<EntityType<?>, IdGenerator> idGenerators = newMap();
+		private final Map<String, Boolean> nativeIdTypeSignatures = newMap();
+		private final Map<String, Boolean> compositeIdTypeSignatures = newMap();
+
 		@Override
 		public ManipulationResponse apply(ManipulationRequest manipulationRequest, Session session, HibernateAccessTiming timing) {
 			this.timing = timing;
 			try {
 				timing.processingStarts();
 				timing.setStatistics(statistics);
+				statistics.start();
 
 				logManipulation(manipulationRequest.getManipulation());
 
 				ManipulationResponse result = apply(manipulationRequest, session);
 
+				statistics.stop();
 				timing.processingStopped();
 				log.trace(() -> "[" + getAccessId() + "] Successfully applied manipulations. [" + statistics + "]");
 
@@ -456,12 +623,49 @@ public class HibernateAccess extends AbstractAccess implements HibernateComponen
 		private ManipulationResponse apply(ManipulationRequest manipulationRequest, Session session) throws Exception {
 			applyManipulation(session, manipulationRequest);
 
+			bulk = isBulk();
+			if (bulk)
+				prepareBulkMode(session);
+
 			handleDeletedEntities(session);
 			handleCreatedEntities(session);
 
+			if (bulk)
+				flushBulk(session);
+
 			return createManipulationResponse();
 		}
 
+		private boolean isBulk() {
+			if (bulkManipulationThreshold <= 0)
+				return false;
+
+			int entities = manipulatorContext.getEntitiesToDelete().size() + manipulatorContext.getPreliminaryReferenceMap().size();
+			return entities >= bulkManipulationThreshold;
+		}
+
+		private void prepareBulkMode(Session session) {
+			log.debug(() -> "[" + getAccessId() + "] Applying manipulations in bulk mode with JDBC batch size: " + jdbcBatchSize);
+
+			session.setJdbcBatchSize(jdbcBatchSize);
+			statistics.setBulk(true);
+		}
+
+		/**
+		 * Writes everything in JDBC batches and clears the session, so that the commit doesn't have to dirty-check all the entities again.
+		 * <p>
+		 * Note that we cannot flush any sooner, e.g. every {@link #jdbcBatchSize} entities, as both new and existing entities might reference new
+		 * entities which were not saved yet.
+		 */
+		private void flushBulk(Session session) {
+			long start = System.nanoTime();
+
+			session.flush();
+			session.clear();
+
+			timing.addManipulationEvent(start, "Flushing session in bulk mode");
+		}
+
 		private void applyManipulation(Session session, ManipulationRequest manipulationRequest) {
 			// TODO remove the Normalizer, but make sure the explicit assignment of nulls to id is handled properly
 			Manipulation manipulation = Normalizer.normalize(manipulationRequest.getManipulation());
@@ -490,6 +694,11 @@ public class HibernateAccess extends AbstractAccess implements HibernateComponen
 		private void handleDeletedEntities(Session session) {
 			Map<PersistentEntityReference, GenericEntity> entitiesToDelete = refMap(manipulatorContext.getEntitiesToDelete());
 
+			if (bulk) {
+				handleDeletedEntitiesInBulk(session, entitiesToDelete);
+				return;
+			}
+
 			for (Map.Entry<PersistentEntityReference, GenericEntity> entry : entitiesToDelete.entrySet()) {
 				PersistentEntityReference reference = entry.getKey();
 				GenericEntity entity = entry.getValue();
@@ -506,6 +715,21 @@ public class HibernateAccess extends AbstractAccess implements HibernateComponen
 			}
 		}
 
+		/** Entities are sorted by type (see {@link #refMap(Map)}), so the statements for one type end up in the same JDBC batches. */
+		private void handleDeletedEntitiesInBulk(Session session, Map<PersistentEntityReference, GenericEntity> entitiesToDelete) {
+			BulkEventRecorder recorder = new BulkEventRecorder("Deleted");
+
+			for (Map.Entry<PersistentEntityReference, GenericEntity> entry : entitiesToDelete.entrySet()) {
+				recorder.onEntity(entry.getKey().getTypeSignature());
+
+				session.delete(entry.getValue());
+
+				statistics.increaseDeletions();
+			}
+
+			recorder.finish();
+		}
+
 		/** @see ApplyManipulationHandler */
 		private void handleCreatedEntities(Session session) throws Exception {
 			// save preliminary entities after they were manipulated (which allows do mandatory stuff before saving)
@@ -517,6 +741,8 @@ public class HibernateAccess extends AbstractAccess implements HibernateComponen
 					.filter(e -> e.getId() == null) //
 					.collect(Collectors.toSet());
 
+			BulkEventRecorder recorder = bulk ? new BulkEventRecorder("Saved") : null;
+
 			// post processing regarding id assignment and related induced manipulations
 			for (Map.Entry<PreliminaryEntityReference, GenericEntity> entry : preliminaryReferences.entrySet()) {
 				PreliminaryEntityReference reference = entry.getKey();
@@ -524,12 +750,12 @@ public class HibernateAccess extends AbstractAccess implements HibernateComponen
 
 				String typeSignature = reference.getTypeSignature();
 
-				if (unassignedIdGenericEntities.contains(newEntity) && !idPropertyIsNative(typeSignature))
+				if (unassignedIdGenericEntities.contains(newEntity) && !isIdPropertyNative(typeSignature))
 					// We found an unassigned id and the id property is not natively created. Thus we try to ensure the
 					// id value.
-					ensureId(newEntity);
+					ensureIdFor(newEntity);
 
-				if (hasCompositeId(typeSignature))
+				if (isCompositeId(typeSignature))
 					if (unassignedIdGenericEntities.contains(newEntity))
 						throw new UnsupportedOperationException("Cannot persist entity with composite id: " + newEntity
 								+ " The id was not set explicitly and that is currently not supported."
@@ -538,14 +764,21 @@ public class HibernateAccess extends AbstractAccess implements HibernateComponen
 					else
 						newEntity.setId(CompositeIdValues.from(newEntity.getId()));
 
-				String info = "Saving entity: " + reference + ". Instance: " + newEntity;
-				log.trace(info);
 				Object setId = newEntity.getId();
-				long start = System.nanoTime();
 
-				session.save(typeSignature, newEntity);
+				if (bulk) {
+					recorder.onEntity(typeSignature);
+					session.save(typeSignature, newEntity);
 
-				timing.addManipulationEvent(start, info);
+				} else {
+					String info = "Saving entity: " + reference + ". Instance: " + newEntity;
+					log.trace(info);
+					long start = System.nanoTime();
+
+					session.save(typeSignature, newEntity);
+
+					timing.addManipulationEvent(start, info);
+				}
 
 				if (setId != null && !setId.equals(newEntity.getId()))
 					throw new IllegalStateException("User cannot set id as the hibernate mappings imply the id is assinged by the DB. Entity: "
@@ -569,6 +802,71 @@ public class HibernateAccess extends AbstractAccess implements HibernateComponen
 					inducedManipulations.add(createPartitionAssignmentManipulationForReference(persistentReference));
 				}
 			}
+
+			if (bulk)
+				recorder.finish();
+		}
+
+		private boolean isIdPropertyNative(String typeSignature) {
+			if (!bulk)
+				return idPropertyIsNative(typeSignature);
+
+			return nativeIdTypeSignatures.computeIfAbsent(typeSignature, HibernateAccess.this::idPropertyIsNative);
+		}
+
+		private boolean isCompositeId(String typeSignature) {
+			if (!bulk)
+				return hasCompositeId(typeSignature);
+
+			return compositeIdTypeSignatures.computeIfAbsent(typeSignature, HibernateAccess.this::hasCompositeId);
+		}
+
+		private void ensureIdFor(GenericEntity newEntity) throws Exception {
+			if (!bulk) {
+				ensureId(newEntity);
+				return;
+			}
+
+			EntityType<?> entityType = newEntity.entityType();
+			IdGenerator idGenerator = idGenerators.get(entityType);
+			if (idGenerator == null && !idGenerators.containsKey(entityType))
+				idGenerators.put(entityType, idGenerator = resolveIdGenerator(newEntity));
+
+			ensureId(newEntity, idGenerator);
+		}
+
+		/** Records one timing event for each sequence of consecutive entities of the same type, rather than one per entity. */
+		private class BulkEventRecorder {
+			private final String action;
+
+			private String typeSignature;
+			private int count;
+			private long start;
+
+			public BulkEventRecorder(String action) {
+				this.action = action;
+			}
+
+			public void onEntity(String typeSignature) {
+				if (!typeSignature.equals(this.typeSignature)) {
+					finish();
+					this.typeSignature = typeSignature;
+					this.start = System.nanoTime();
+				}
+
+				count++;
+			}
+
+			public void finish() {
+				if (count == 0)
+					return;
+
+				String info = action + " " + count + " entities of type: " + typeSignature;
+				log.debug(info);
+				timing.addManipulationEvent(start, info);
+
+				count = 0;
+			}
 		}
 
 		private <R extends EntityReference> Map<R, GenericEntity> refMap(Map<R, GenericEntity> refMap) {
@@ -674,6 +972,10 @@ public class HibernateAccess extends AbstractAccess implements HibernateComponen
 	}
 
 	protected void ensureId(GenericEntity preliminaryEntity) throws Exception {
+		ensureId(preliminaryEntity, resolveIdGenerator(preliminaryEntity));
+	}
+
+	private IdGenerator resolveIdGenerator(GenericEntity preliminaryEntity) {
 		String typeSignature = preliminaryEntity.entityType().getTypeSignature();
 
 		IdGenerator idGenerator = this.getExpertRegistry().findExpert(IdGenerator.class).forInstance(preliminaryEntity);
@@ -685,6 +987,10 @@ public class HibernateAccess extends AbstractAccess implements HibernateComponen
 			idGenerator = this.getExpertRegistry().findExpert(IdGenerator.class).forType(idPropertyType);
 		}
 
+		return idGenerator;
+	}
+
+	private void ensureId(GenericEntity preliminaryEntity, IdGenerator idGenerator) throws Exception {
 		if (idGenerator == null) {
 			log.warn("Id is not a native type, no IdGenerator found and the instance has no value assigned. Instance: " + preliminaryEntity);
 
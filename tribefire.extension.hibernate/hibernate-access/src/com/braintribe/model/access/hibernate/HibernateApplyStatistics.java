@@ -21,6 +21,10 @@ public class HibernateApplyStatistics {
 	private int creations = 0;
 	private int deletions = 0;
 	private int valueChanges = 0;
+
+	private boolean bulk;
+	private long startNanos;
+	private long durationNanos = -1;
 	
 	public void increaseCreations() {
 		creations++;
@@ -34,12 +38,37 @@ public class HibernateApplyStatistics {
 		valueChanges++;
 	}
 
+	public void setBulk(boolean bulk) {
+		this.bulk = bulk;
+	}
+
+	public void start() {
+		startNanos = System.nanoTime();
+	}
+
+	public void stop() {
+		durationNanos = System.nanoTime() - startNanos;
+	}
+
+	/** @return number of creations, deletions and updates per second, or -1 if the processing is not done yet */
+	public double getThroughput() {
+		if (durationNanos < 0)
+			return -1;
+
+		int total = creations + deletions + valueChanges;
+		return total * 1_000_000_000d / Math.max(durationNanos, 1);
+	}
+
 	/**
 	 * @see java.lang.Object#toString()
 	 */
 	@Override
 	public String toString() {
-		return String.format("applyStatistics: %d creations done, %d deletions done, %d updates done", creations, deletions, valueChanges);
+		String result = String.format("applyStatistics: %d creations done, %d deletions done, %d updates done", creations, deletions, valueChanges);
+		if (durationNanos < 0)
+			return result;
+
+		return result + String.format(", took %d ms (%.1f changes/s%s)", durationNanos / 1_000_000, getThroughput(), bulk ? ", bulk mode" : "");
 	}
 	public static String getBuildVersion() {
 
@@ -0,0 +1,44 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.access.hibernate.hql;
+
+import static com.braintribe.utils.lcd.CollectionTools2.newList;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Entry of the {@link HqlCache} - the HQL string for a given {@link HqlShape}, together with the information on how to derive the parameter values
+ * from the {@link HqlShape#slotValues slot values} of a concrete query.
+ */
+/* package */ final class CompiledHql {
+
+	public final String hql;
+	public final List<Integer> entitySignaturePositions;
+	private final List<Function<List<Object>, Object>> parameterResolvers;
+
+	public CompiledHql(String hql, List<Integer> entitySignaturePositions, List<Function<List<Object>, Object>> parameterResolvers) {
+		this.hql = hql;
+		this.entitySignaturePositions = newList(entitySignaturePositions);
+		this.parameterResolvers = parameterResolvers;
+	}
+
+	/** @return parameter values in the order of the parameters, i.e. the value for <tt>:p0</tt> is first */
+	public List<Object> resolveParameters(List<Object> slotValues) {
+		List<Object> result = newList(parameterResolvers.size());
+		for (Function<List<Object>, Object> resolver : parameterResolvers)
+			result.add(resolver.apply(slotValues));
+
+		return result;
+	}
+
+}
@@ -85,7 +85,8 @@ import com.braintribe.model.query.conditions.ValueComparison;
  */
 /* package */ class DisjunctedInOptimizer {
 
-	public static void optimize(Query q, Disjunction d) {
+	/** @return <tt>true</tt> iff given disjunction was modified */
+	public static boolean optimize(Query q, Disjunction d) {
 		Set<GenericEntity> evaluationExcludes = q.getEvaluationExcludes();
 
 		Map<PropertyOperand, Set<Object>> operandToValues = newMap();
@@ -99,6 +100,8 @@ import com.braintribe.model.query.conditions.ValueComparison;
 
 		for (Entry<PropertyOperand, Set<Object>> e : operandToValues.entrySet())
 			operands.add(toValueCompairson(e.getKey(), e.getValue()));
+
+		return !operandToValues.isEmpty();
 	}
 
 	private static boolean indexDisjunctionOperand(Condition c, Map<PropertyOperand, Set<Object>> operandToValues,
@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -92,6 +93,9 @@ public abstract class HqlBuilder<Q extends com.braintribe.model.query.Query> {
 
 	private boolean adaptPagingForHasMore = false;
 
+	/** Set while encoding a query which is to be stored in the {@link HqlCache}. */
+	protected HqlParameterRecorder parameterRecorder;
+
 	public HqlBuilder(Q query) {
 		this.query = query;
 	}
@@ -294,7 +298,9 @@ public abstract class HqlBuilder<Q extends com.braintribe.model.query.Query> {
 	}
 
 	private void encodeDisjunction(Disjunction d) {
-		DisjunctedInOptimizer.optimize(query, d);
+		if (DisjunctedInOptimizer.optimize(query, d))
+			// the optimization depends on the actual values, e.g. it is not applied if two values are equal
+			notCacheable();
 
 		encodeJunction(d, "or", "1=0");
 	}
@@ -352,25 +358,37 @@ public abstract class HqlBuilder<Q extends com.braintribe.model.query.Query> {
 	}
 
 	private void encodeValueComparison(ValueComparison propertyComparision) {
+		if (parameterRecorder == null) {
+			encodeValueComparisonHelper(propertyComparision);
+			return;
+		}
+
+		parameterRecorder.beginComparison(originalOf(propertyComparision));
+		encodeValueComparisonHelper(propertyComparision);
+		parameterRecorder.endComparison();
+	}
+
+	private void encodeValueComparisonHelper(ValueComparison propertyComparision) {
 		Object leftOperand = propertyComparision.getLeftOperand();
 		Object rightOperand = propertyComparision.getRightOperand();
 		Operator operator = propertyComparision.getOperator();
 
 		switch (operator) {
 			case like:
-				encodeOperand(leftOperand, true, false);
+				encodeComparedOperand(leftOperand, () -> encodeOperand(leftOperand, true, false));
 				builder.append(' ');
 				encodeOperator(builder, operator);
 				builder.append(' ');
-				encodeOperand(encodeHqlLikePattern(rightOperand), true, false);
+				encodeComparedOperand(rightOperand, () -> encodeOperand(derive(rightOperand, HqlBuilder::encodeHqlLikePattern), true, false));
 				builder.append(" escape '!'");
 				break;
 			case ilike:
-				encodeFunctionWrappedOperand("lower", leftOperand, true, false);
+				encodeComparedOperand(leftOperand, () -> encodeFunctionWrappedOperand("lower", leftOperand, true, false));
 				builder.append(' ');
 				encodeOperator(builder, operator);
 				builder.append(' ');
-				encodeFunctionWrappedOperand("lower", encodeHqlLikePattern(rightOperand), true, false);
+				encodeComparedOperand(rightOperand,
+						() -> encodeFunctionWrappedOperand("lower", derive(rightOperand, HqlBuilder::encodeHqlLikePattern), true, false));
 				builder.append(" escape '!'");
 				break;
 			case contains:
@@ -389,15 +407,19 @@ public abstract class HqlBuilder<Q extends com.braintribe.model.query.Query> {
 	private void encodeInCondition(Object elementOperand, Object collectionOperand) {
 		boolean isConstantCollection = collectionOperand instanceof Collection<?>;
 
-		encodeOperand(elementOperand, isConstantCollection, false);
+		encodeComparedOperand(elementOperand, () -> encodeOperand(elementOperand, isConstantCollection, false));
 		builder.append(" in ");
 
+		encodeComparedOperand(collectionOperand, () -> encodeInConditionCollection(elementOperand, collectionOperand, isConstantCollection));
+	}
+
+	private void encodeInConditionCollection(Object elementOperand, Object collectionOperand, boolean isConstantCollection) {
 		if (isConstantCollection) {
 			String typeSignatureIfId = resolveTypeSignatureIfId(elementOperand);
 			if (typeSignatureIfId == null)
 				encodeOperand(collectionOperand, false, false);
 			else
-				encodeOperand(adjustIds(typeSignatureIfId, (Collection<?>) collectionOperand), false, false);
+				encodeOperand(deriveAdjustedIds(typeSignatureIfId, collectionOperand), false, false);
 		} else {
 			encodeFunctionWrappedOperand("elements", collectionOperand, false, false);
 		}
@@ -461,11 +483,26 @@ public abstract class HqlBuilder<Q extends com.braintribe.model.query.Query> {
 	}
 
 	private void encodeComparison(Object leftOperand, Operator operator, Object rightOperand) {
-		encodeComparisonOperand(leftOperand, rightOperand);
+		encodeComparedOperand(leftOperand, () -> encodeComparisonOperand(leftOperand, rightOperand));
 		builder.append(' ');
 		encodeOperator(builder, operator);
 		builder.append(' ');
-		encodeComparisonOperand(rightOperand, leftOperand);
+		encodeComparedOperand(rightOperand, () -> encodeComparisonOperand(rightOperand, leftOperand));
+	}
+
+	/** Encodes one operand of a {@link ValueComparison}, letting the {@link #parameterRecorder} know which operand the parameters belong to. */
+	private void encodeComparedOperand(Object operand, Runnable encoder) {
+		if (parameterRecorder == null) {
+			encoder.run();
+			return;
+		}
+
+		parameterRecorder.beginOperand(operand);
+		try {
+			encoder.run();
+		} finally {
+			parameterRecorder.endOperand();
+		}
 	}
 
 	/**
@@ -476,9 +513,9 @@ public abstract class HqlBuilder<Q extends com.braintribe.model.query.Query> {
 		if (typeSignatureIfId == null)
 			encodeOperand(operand, shouldCompareEntitiesById(otherOperand), false);
 		else if (operand instanceof String)
-			encodeOperand(idAdjuster.apply(typeSignatureIfId, operand), otherOperand != null, false);
+			encodeOperand(deriveAdjustedId(typeSignatureIfId, operand), otherOperand != null, false);
 		else if (operand instanceof Collection)
-			encodeOperand(adjustIds(typeSignatureIfId, (Collection<?>) operand), otherOperand != null, false);
+			encodeOperand(deriveAdjustedIds(typeSignatureIfId, operand), otherOperand != null, false);
 		else
 			encodeOperand(operand, otherOperand != null, false); // not common, could we even do something like x.id = y.id?
 	}
@@ -496,7 +533,17 @@ public abstract class HqlBuilder<Q extends com.braintribe.model.query.Query> {
 		return true;
 	}
 
-	private Set<?> adjustIds(String typeSignatureIfId, Collection<?> ids) {
+	private Object deriveAdjustedId(String typeSignature, Object id) {
+		BiFunction<String, Object, Object> adjuster = idAdjuster;
+		return derive(id, i -> adjuster.apply(typeSignature, i));
+	}
+
+	private Object deriveAdjustedIds(String typeSignatureIfId, Object ids) {
+		BiFunction<String, Object, Object> adjuster = idAdjuster;
+		return derive(ids, c -> adjustIds(adjuster, typeSignatureIfId, (Collection<?>) c));
+	}
+
+	private static Set<?> adjustIds(BiFunction<String, Object, Object> idAdjuster, String typeSignatureIfId, Collection<?> ids) {
 		return ids.stream() //
 				.map(id -> idAdjuster.apply(typeSignatureIfId, id)) //
 				.collect(Collectors.toSet());
@@ -549,7 +596,7 @@ public abstract class HqlBuilder<Q extends com.braintribe.model.query.Query> {
 		}
 	}
 
-	private Object adaptValue(Object object) {
+	private static Object adaptValue(Object object) {
 		if (object instanceof PersistentEntityReference) {
 			PersistentEntityReference entityReference = (PersistentEntityReference) object;
 			return entityReference.getRefId();
@@ -566,7 +613,7 @@ public abstract class HqlBuilder<Q extends com.braintribe.model.query.Query> {
 			return object;
 	}
 
-	private Collection<?> adaptCollection(Collection<?> collection) {
+	private static Collection<?> adaptCollection(Collection<?> collection) {
 		Collection<Object> adaptedCollection = newCollectionWithSameTypeAs(collection);
 
 		for (Object value : collection)
@@ -575,7 +622,7 @@ public abstract class HqlBuilder<Q extends com.braintribe.model.query.Query> {
 		return adaptedCollection;
 	}
 
-	private Collection<Object> newCollectionWithSameTypeAs(Collection<?> collection) {
+	private static Collection<Object> newCollectionWithSameTypeAs(Collection<?> collection) {
 		if (collection instanceof Set)
 			return newSet();
 
@@ -606,7 +653,7 @@ public abstract class HqlBuilder<Q extends com.braintribe.model.query.Query> {
 			encodePersistentRef((PersistentEntityReference) object, compareEntitiesById);
 
 		else if (object instanceof EnumReference)
-			encodeSimpleOperand(((EnumReference) object).constant(), inlineSimple);
+			encodeSimpleOperand(derive(object, o -> ((EnumReference) o).constant()), inlineSimple);
 
 		else if (object instanceof Collection)
 			encodeCollectionOperand((Collection<?>) object, true);
@@ -645,6 +692,7 @@ public abstract class HqlBuilder<Q extends com.braintribe.model.query.Query> {
 			String name = ":p" + values.size();
 			builder.append(name);
 			values.add(value);
+			onParameter(value);
 		}
 	}
 
@@ -658,33 +706,41 @@ public abstract class HqlBuilder<Q extends com.braintribe.model.query.Query> {
 		builder.append('(');
 		builder.append(name);
 		builder.append(')');
-		if (adapt) {
-			Collection<?> adaptedCollection = adaptCollection(collection);
-			values.add(adaptedCollection);
-		} else {
-			values.add(collection);
-		}
+		Object value = adapt ? derive(collection, c -> adaptCollection((Collection<?>) c)) : collection;
+		values.add(value);
+		onParameter(value);
 	}
 
 	private void encodeGenericEntity(GenericEntity entity, boolean compareEntitiesById) {
+		Object id = derive(entity, e -> persistentIdOf((GenericEntity) e));
+
+		encodeReferenceValue(entity.entityType().getTypeSignature(), id, compareEntitiesById);
+	}
+
+	private static Object persistentIdOf(GenericEntity entity) {
 		Object id = entity.getId();
 		if (id == null)
 			throw new IllegalArgumentException("Unsupported preliminary entity : " + entity);
 
-		encodeReferenceValue(entity.entityType().getTypeSignature(), id, compareEntitiesById);
+		return id;
 	}
 
 	private void encodePersistentRef(PersistentEntityReference ref, boolean compareEntitiesById) {
-		encodeReferenceValue(ref.getTypeSignature(), ref.getRefId(), compareEntitiesById);
+		Object id = derive(ref, r -> ((PersistentEntityReference) r).getRefId());
+
+		encodeReferenceValue(ref.getTypeSignature(), id, compareEntitiesById);
 	}
 
 	private void encodeReferenceValue(String typeSignature, Object id, boolean compareEntitiesById) {
-		id = idAdjuster.apply(typeSignature, id);
+		id = deriveAdjustedId(typeSignature, id);
 
-		if (compareEntitiesById)
+		if (compareEntitiesById) {
 			encodeSimpleOperand(id, false);
-		else
+		} else {
+			// the loaded entity is bound to the current session, so such an HQL cannot be re-used
+			notCacheable();
 			encodeSimpleOperand(getEntity(typeSignature, id), false);
+		}
 	}
 
 	private GenericEntity getEntity(String typeSignature, Object id) {
@@ -752,6 +808,32 @@ public abstract class HqlBuilder<Q extends com.braintribe.model.query.Query> {
 		// Only reachable in SelectQuery case, obviously
 	}
 
+	// ###########################################
+	// ## . . . . . Parameter Recording . . . . ##
+	// ###########################################
+
+	/** @return the comparison from the original query, from which given (possibly normalized) comparison was created */
+	protected ValueComparison originalOf(ValueComparison comparison) {
+		return comparison;
+	}
+
+	private Object derive(Object value, Function<Object, Object> function) {
+		if (parameterRecorder == null)
+			return function.apply(value);
+		else
+			return parameterRecorder.derive(value, function);
+	}
+
+	private void onParameter(Object value) {
+		if (parameterRecorder != null)
+			parameterRecorder.onParameter(value);
+	}
+
+	private void notCacheable() {
+		if (parameterRecorder != null)
+			parameterRecorder.notCacheable();
+	}
+
 	protected abstract void encodeLocalize(Localize localize);
 
 	/** 'abc' is a string literal in HQL and just abc is it's body. We have to escape it in case it contains single quotes. */
@@ -0,0 +1,130 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.access.hibernate.hql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.braintribe.logging.Logger;
+import com.braintribe.model.query.SelectQuery;
+
+/**
+ * Cache of HQL strings encoded by {@link SelectHqlBuilder}, keyed by the {@link HqlShape structural shape} of the {@link SelectQuery}.
+ * <p>
+ * As the literal values of the query are always passed to Hibernate as named parameters, queries which only differ in these values are encoded to
+ * the very same HQL, so on top of skipping the normalization and encoding of the query, Hibernate's own query plan cache can also be re-used.
+ * <p>
+ * Least recently used entries are evicted once the cache reaches its {@link #setMaxSize(int) maximum size}. Hit rate is available via
+ * {@link #getHitRate()} and is also logged on debug level every {@value #LOG_INTERVAL} lookups.
+ * <p>
+ * This class is thread-safe.
+ */
+public class HqlCache {
+
+	private static final Logger log = Logger.getLogger(HqlCache.class);
+
+	private static final int LOG_INTERVAL = 1000;
+
+	private volatile int maxSize = 1000;
+
+	private final Map<String, CompiledHql> entries = new LinkedHashMap<String, CompiledHql>(64, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Entry<String, CompiledHql> eldest) {
+			return size() > maxSize;
+		}
+	};
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder uncacheable = new LongAdder();
+	private final LongAdder lookups = new LongAdder();
+
+	/** Maximum number of cached HQL strings. Default is 1000. */
+	public void setMaxSize(int maxSize) {
+		this.maxSize = Math.max(maxSize, 1);
+	}
+
+	/* package */ CompiledHql get(String key) {
+		CompiledHql result;
+		synchronized (entries) {
+			result = entries.get(key);
+		}
+
+		if (result != null)
+			hits.increment();
+		else
+			misses.increment();
+
+		onLookup();
+
+		return result;
+	}
+
+	/* package */ void put(String key, CompiledHql compiledHql) {
+		synchronized (entries) {
+			entries.put(key, compiledHql);
+		}
+	}
+
+	/* package */ void onUncacheable() {
+		uncacheable.increment();
+	}
+
+	private void onLookup() {
+		lookups.increment();
+		if (log.isDebugEnabled() && lookups.sum() % LOG_INTERVAL == 0)
+			log.debug(toString());
+	}
+
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/** Number of encoded queries which could not be cached, e.g. because a referenced entity had to be loaded from the session. */
+	public long getUncacheable() {
+		return uncacheable.sum();
+	}
+
+	/** @return ratio of hits to all the lookups so far, as a value between 0 and 1 */
+	public double getHitRate() {
+		long h = hits.sum();
+		long total = h + misses.sum();
+		return total == 0 ? 0 : (double) h / total;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("HqlCache[size: %d, hits: %d, misses: %d, uncacheable: %d, hit rate: %.1f%%]", size(), getHits(), getMisses(),
+				getUncacheable(), 100 * getHitRate());
+	}
+
+}
@@ -0,0 +1,161 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.access.hibernate.hql;
+
+import static com.braintribe.utils.lcd.CollectionTools2.newList;
+import static com.braintribe.utils.lcd.CollectionTools2.newSet;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.braintribe.model.query.conditions.ValueComparison;
+
+/**
+ * Records how the parameters of an HQL query were derived from the slots of the {@link HqlShape}, while the query is being encoded by
+ * {@link HqlBuilder}, so the encoded HQL can be stored in the {@link HqlCache} and re-used for another query of the same shape.
+ * <p>
+ * Every parameter is either derived from a slot (i.e. a literal operand of a {@link ValueComparison}) via a sequence of transformations (e.g. like
+ * pattern encoding, id adjustment), or it is a constant, as it only depends on the shape itself.
+ * <p>
+ * Whenever it is not clear how a parameter relates to the original query, the recorder is marked as not cacheable.
+ */
+/* package */ class HqlParameterRecorder {
+
+	private final HqlShape shape;
+	private final List<Function<List<Object>, Object>> parameterResolvers = newList();
+	private boolean cacheable = true;
+
+	// current comparison
+	private ValueComparison comparison;
+	private int[] comparisonSlots;
+	private final Set<Integer> unboundSlots = newSet();
+
+	// current operand
+	private boolean inOperand;
+	private int slot = -1;
+	private Object trackedValue;
+	private Function<Object, Object> transformation;
+
+	public HqlParameterRecorder(HqlShape shape) {
+		this.shape = shape;
+	}
+
+	public boolean isCacheable() {
+		return cacheable;
+	}
+
+	public void notCacheable() {
+		cacheable = false;
+	}
+
+	public List<Function<List<Object>, Object>> getParameterResolvers() {
+		return parameterResolvers;
+	}
+
+	/** @param original the comparison from the original (not normalized) query, or <tt>null</tt> if there is no such comparison */
+	public void beginComparison(ValueComparison original) {
+		comparison = original;
+		comparisonSlots = original == null ? null : shape.slotsOf(original);
+
+		if (comparisonSlots == null) {
+			notCacheable();
+			return;
+		}
+
+		// comparing two literals is a rare case, and we cannot tell which operand is which
+		if (comparisonSlots[0] >= 0 && comparisonSlots[1] >= 0) {
+			notCacheable();
+			return;
+		}
+
+		unboundSlots.clear();
+		for (int slot : comparisonSlots)
+			if (slot >= 0 && shape.slotValues.get(slot) != null)
+				unboundSlots.add(slot);
+	}
+
+	public void endComparison() {
+		if (!unboundSlots.isEmpty())
+			notCacheable();
+
+		comparison = null;
+		comparisonSlots = null;
+	}
+
+	/** @param operand operand of the comparison which is about to be encoded, as it is present in the normalized query */
+	public void beginOperand(Object operand) {
+		inOperand = true;
+		slot = resolveSlot(operand);
+		trackedValue = operand;
+		transformation = Function.identity();
+	}
+
+	private int resolveSlot(Object operand) {
+		if (comparisonSlots == null)
+			return -1;
+
+		int result = resolveSlot(operand, comparison.getLeftOperand(), comparisonSlots[0]);
+		return result >= 0 ? result : resolveSlot(operand, comparison.getRightOperand(), comparisonSlots[1]);
+	}
+
+	private static int resolveSlot(Object operand, Object originalOperand, int slot) {
+		if (slot < 0)
+			return -1;
+
+		if (operand == originalOperand)
+			return slot;
+
+		// collections are copied by the normalizer
+		if (operand instanceof Collection && operand.equals(originalOperand))
+			return slot;
+
+		return -1;
+	}
+
+	public void endOperand() {
+		inOperand = false;
+		slot = -1;
+		trackedValue = null;
+		transformation = null;
+	}
+
+	/** Applies given function on given value, and if the value is derived from the current slot, the function is recorded as well. */
+	public Object derive(Object value, Function<Object, Object> function) {
+		Object result = function.apply(value);
+
+		if (slot >= 0 && value == trackedValue) {
+			transformation = transformation.andThen(function);
+			trackedValue = result;
+		}
+
+		return result;
+	}
+
+	public void onParameter(Object value) {
+		if (!inOperand || slot < 0) {
+			parameterResolvers.add(slotValues -> value);
+			return;
+		}
+
+		if (value != trackedValue || !unboundSlots.remove(slot)) {
+			notCacheable();
+			return;
+		}
+
+		int boundSlot = slot;
+		Function<Object, Object> boundTransformation = transformation;
+		parameterResolvers.add(slotValues -> boundTransformation.apply(slotValues.get(boundSlot)));
+	}
+
+}
@@ -0,0 +1,198 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.access.hibernate.hql;
+
+import static com.braintribe.utils.lcd.CollectionTools2.newList;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.braintribe.model.generic.GenericEntity;
+import com.braintribe.model.generic.reflection.EntityType;
+import com.braintribe.model.generic.reflection.Property;
+import com.braintribe.model.generic.value.EnumReference;
+import com.braintribe.model.generic.value.PersistentEntityReference;
+import com.braintribe.model.query.Operand;
+import com.braintribe.model.query.Query;
+import com.braintribe.model.query.Restriction;
+import com.braintribe.model.query.conditions.ValueComparison;
+
+/**
+ * Structural shape of a query, used as the key for the {@link HqlCache}.
+ * <p>
+ * The key is a string which describes the entire query graph (types, property values, shared references), except for the literal operands of
+ * {@link ValueComparison}s. Those are the "slots" - only their kind is part of the key (e.g. <tt>null</tt>, a string, a set, a reference of certain
+ * type), while the actual values are collected in {@link #slotValues} and later bound as query parameters. Two queries with the same key are thus
+ * encoded to the same HQL, they only differ in the values of the parameters.
+ * <p>
+ * {@link Restriction#getPaging() Paging} and {@link Query#getTraversingCriterion() traversing criterion} are not part of the key, as they are not
+ * reflected in the HQL string.
+ */
+/* package */ final class HqlShape {
+
+	private static final String TRAVERSING_CRITERION = "traversingCriterion";
+	private static final String PAGING = "paging";
+
+	public final String key;
+	public final List<Object> slotValues = newList();
+
+	private final Map<ValueComparison, int[]> comparisonSlots = new IdentityHashMap<>();
+	private final Map<GenericEntity, Integer> visited = new IdentityHashMap<>();
+	private final StringBuilder sb = new StringBuilder(256);
+
+	private HqlShape(Query query) {
+		writeEntity(query);
+		this.key = sb.toString();
+	}
+
+	public static HqlShape of(Query query) {
+		return new HqlShape(query);
+	}
+
+	/**
+	 * @return indices of the slots for the left and right operand of given comparison, the index is -1 if the corresponding operand is an
+	 *         {@link Operand}, i.e. not a slot. Returns <tt>null</tt> if given comparison is not part of the query.
+	 */
+	public int[] slotsOf(ValueComparison vc) {
+		return comparisonSlots.get(vc);
+	}
+
+	private void writeEntity(GenericEntity entity) {
+		Integer ordinal = visited.get(entity);
+		if (ordinal != null) {
+			sb.append('#').append(ordinal.intValue());
+			return;
+		}
+
+		visited.put(entity, visited.size());
+
+		EntityType<?> et = entity.entityType();
+		sb.append('{').append(et.getTypeSignature());
+
+		if (entity instanceof ValueComparison)
+			writeValueComparison((ValueComparison) entity);
+		else
+			writeProperties(et, entity);
+
+		sb.append('}');
+	}
+
+	private void writeProperties(EntityType<?> et, GenericEntity entity) {
+		for (Property p : et.getProperties()) {
+			if (isIgnored(entity, p))
+				continue;
+
+			sb.append(' ');
+			writeValue(p.get(entity));
+		}
+	}
+
+	private static boolean isIgnored(GenericEntity entity, Property p) {
+		String name = p.getName();
+		if (entity instanceof Query)
+			return TRAVERSING_CRITERION.equals(name);
+		if (entity instanceof Restriction)
+			return PAGING.equals(name);
+		return false;
+	}
+
+	private void writeValueComparison(ValueComparison vc) {
+		sb.append(' ').append(vc.getOperator());
+
+		int[] slots = new int[2];
+		slots[0] = writeOperand(vc.getLeftOperand());
+		slots[1] = writeOperand(vc.getRightOperand());
+
+		comparisonSlots.put(vc, slots);
+	}
+
+	private int writeOperand(Object operand) {
+		sb.append(' ');
+
+		if (operand instanceof Operand) {
+			writeValue(operand);
+			return -1;
+		}
+
+		sb.append('?');
+		writeSlotKind(operand);
+
+		slotValues.add(operand);
+		return slotValues.size() - 1;
+	}
+
+	/** The kind determines how {@link HqlBuilder} encodes the value, i.e. any two values of the same kind lead to the same HQL. */
+	private void writeSlotKind(Object operand) {
+		if (operand == null)
+			sb.append("null");
+		else if (operand instanceof String)
+			sb.append("string");
+		else if (operand instanceof Collection)
+			sb.append(operand instanceof List ? "list" : "set");
+		else if (operand instanceof PersistentEntityReference)
+			sb.append("ref:").append(((PersistentEntityReference) operand).getTypeSignature());
+		else if (operand instanceof EnumReference)
+			sb.append("enumRef:").append(((EnumReference) operand).getTypeSignature());
+		else if (operand instanceof GenericEntity)
+			sb.append("entity:").append(((GenericEntity) operand).entityType().getTypeSignature());
+		else
+			sb.append(operand.getClass().getName());
+	}
+
+	private void writeValue(Object value) {
+		if (value == null) {
+			sb.append('~');
+
+		} else if (value instanceof GenericEntity) {
+			writeEntity((GenericEntity) value);
+
+		} else if (value instanceof String) {
+			writeString('s', (String) value);
+
+		} else if (value instanceof Enum) {
+			writeString('e', value.getClass().getName() + "." + ((Enum<?>) value).name());
+
+		} else if (value instanceof Date) {
+			sb.append('d').append(((Date) value).getTime());
+
+		} else if (value instanceof Collection) {
+			sb.append(value instanceof List ? '[' : '(');
+			for (Object o : (Collection<?>) value) {
+				writeValue(o);
+				sb.append(',');
+			}
+			sb.append(value instanceof List ? ']' : ')');
+
+		} else if (value instanceof Map) {
+			sb.append('<');
+			for (Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+				writeValue(e.getKey());
+				sb.append('=');
+				writeValue(e.getValue());
+				sb.append(',');
+			}
+			sb.append('>');
+
+		} else {
+			writeString('v', value.getClass().getName() + ":" + value);
+		}
+	}
+
+	private void writeString(char prefix, String s) {
+		sb.append(prefix).append(s.length()).append(':').append(s);
+	}
+
+}
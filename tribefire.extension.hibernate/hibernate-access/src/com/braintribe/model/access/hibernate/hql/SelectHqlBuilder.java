@@ -41,6 +41,7 @@ import com.braintribe.model.query.PropertyOperand;
 import com.braintribe.model.query.SelectQuery;
 import com.braintribe.model.query.Source;
 import com.braintribe.model.query.conditions.Condition;
+import com.braintribe.model.query.conditions.ValueComparison;
 import com.braintribe.model.query.functions.Localize;
 import com.braintribe.model.query.functions.aggregate.AggregateFunction;
 
@@ -91,10 +92,18 @@ public class SelectHqlBuilder extends HqlBuilder<SelectQuery> {
 
 	private final Map<Localize, Join> localizeToInducedJoin = newMap();
 
+	private HqlCache hqlCache;
+	private SelectQueryNormalizer normalizer;
+
 	public SelectHqlBuilder(SelectQuery query) {
 		super(query);
 	}
 
+	/** Optional cache, which allows to skip the encoding if a query with the same {@link HqlShape shape} was encoded before. */
+	public void setHqlCache(HqlCache hqlCache) {
+		this.hqlCache = hqlCache;
+	}
+
 	@Override
 	public Query<?> encode() {
 		buildHql();
@@ -104,6 +113,36 @@ public class SelectHqlBuilder extends HqlBuilder<SelectQuery> {
 
 	// So we can test the builder
 	/* package */ final void buildHql() {
+		if (hqlCache == null) {
+			encodeHql();
+			return;
+		}
+
+		HqlShape shape = HqlShape.of(query);
+
+		CompiledHql compiledHql = hqlCache.get(shape.key);
+		if (compiledHql != null) {
+			builder.append(compiledHql.hql);
+			context.getValues().addAll(compiledHql.resolveParameters(shape.slotValues));
+			entitySignaturePositions.addAll(compiledHql.entitySignaturePositions);
+			return;
+		}
+
+		parameterRecorder = new HqlParameterRecorder(shape);
+		try {
+			encodeHql();
+
+			if (parameterRecorder.isCacheable())
+				hqlCache.put(shape.key, new CompiledHql(builder.toString(), entitySignaturePositions, parameterRecorder.getParameterResolvers()));
+			else
+				hqlCache.onUncacheable();
+
+		} finally {
+			parameterRecorder = null;
+		}
+	}
+
+	private void encodeHql() {
 		normalizeQuery();
 
 		collectMappedJoins();
@@ -126,10 +165,16 @@ public class SelectHqlBuilder extends HqlBuilder<SelectQuery> {
 	}
 
 	private void normalizeQuery() {
-		query = new SelectQueryNormalizer(query, false, true) //
+		normalizer = new SelectQueryNormalizer(query, false, true) //
 				.defaultPartition(defaultPartition) //
-				.mappedPropertyIndicator(this::isPropertyMapped) //
-				.normalize();
+				.mappedPropertyIndicator(this::isPropertyMapped);
+
+		query = normalizer.normalize();
+	}
+
+	@Override
+	protected ValueComparison originalOf(ValueComparison comparison) {
+		return normalizer.getOriginalEntity(comparison);
 	}
 
 	private boolean isPropertyMapped(String typeSignature, String propertyName) {
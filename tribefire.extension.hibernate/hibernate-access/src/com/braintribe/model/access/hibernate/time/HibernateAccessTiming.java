@@ -79,10 +79,14 @@ public class HibernateAccessTiming {
 	protected List<HibernateTimingEvent> manipulationEvents = new ArrayList<>(MAX_MANIPULATIONS_RECORDED + 1);
 	int manipulationEventsCounter = 0;
 
+	int streamedChunks = 0;
+	long streamedRows = 0;
+
 	private HibernateApplyStatistics statistics;
 
 	public enum ActionType {
 		SelectQuery,
+		StreamedSelectQuery,
 		EntityQuery,
 		PropertyQuery,
 		NativeHqlQuery,
@@ -123,10 +127,19 @@ public class HibernateAccessTiming {
 		this.resultAvailable = System.currentTimeMillis();
 	}
 
+	/** Records that a chunk of a streamed query with given number of rows was passed to its consumer. */
+	public void chunkStreamed(int rowCount) {
+		this.streamedChunks++;
+		this.streamedRows += rowCount;
+	}
+
 	private boolean warnThresholdExceeded(long totalDurationMs) {
 		if ((this.warnThreshold >= 0) && (totalDurationMs > this.warnThreshold)) {
-			// Ok we are over the warning theshold. However, there might have been just many manipulations
-			if (manipulationEventsCounter == 0) {
+			// Ok we are over the warning theshold. However, there might have been just many manipulations or streamed chunks
+			if (streamedChunks > 1) {
+				// The total time includes the processing done by the consumer, so we only warn if a single chunk took too long (on the average)
+				return totalDurationMs / streamedChunks > this.warnThreshold;
+			} else if (manipulationEventsCounter == 0) {
 				return true;
 			} else {
 				double durationPerManipulation = ((double) totalDurationMs) / ((double) manipulationEventsCounter);
@@ -343,6 +356,13 @@ public class HibernateAccessTiming {
 		} else {
 			sb.append(StringTools.extendStringInFront("n/a\n", ' ', dataLength));
 		}
+		if (this.streamedChunks > 0) {
+			sb.append("Streamed rows:       ");
+			sb.append(this.streamedRows);
+			sb.append(" in ");
+			sb.append(this.streamedChunks);
+			sb.append(" chunk(s)\n");
+		}
 	}
 
 	private static final HqlLogSilencer hqlLogSilencer = new HqlLogSilencer();
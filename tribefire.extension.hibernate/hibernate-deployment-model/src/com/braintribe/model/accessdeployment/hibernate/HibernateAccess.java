@@ -38,6 +38,10 @@ public interface HibernateAccess extends IncrementalAccess, HibernateComponent {
 	String indexNamePrefix = "indexNamePrefix";
 	String schemaUpdate = "schemaUpdate";
 	String deadlockRetryLimit = "deadlockRetryLimit";
+	String bulkManipulationThreshold = "bulkManipulationThreshold";
+	String jdbcBatchSize = "jdbcBatchSize";
+	String orderInsertsAndUpdates = "orderInsertsAndUpdates";
+	String hqlCacheSize = "hqlCacheSize";
 	String logging = "logging";
 	String schemaUpdateOnlyOnModelChange = "schemaUpdateOnlyOnModelChange";
 
@@ -65,6 +69,23 @@ public interface HibernateAccess extends IncrementalAccess, HibernateComponent {
 	Integer getDeadlockRetryLimit();
 	void setDeadlockRetryLimit(Integer deadlockRetryLimit);
 
+	@Description("Number of created and deleted entities from which 'applyManipulation' uses JDBC batching. Non-positive value disables this.")
+	Integer getBulkManipulationThreshold();
+	void setBulkManipulationThreshold(Integer bulkManipulationThreshold);
+
+	@Description("Number of statements sent to the DB in a single JDBC batch when applying manipulations in bulk.")
+	Integer getJdbcBatchSize();
+	void setJdbcBatchSize(Integer jdbcBatchSize);
+
+	@Description("When true, Hibernate orders inserts and updates by entity type when flushing, so that JDBC batches are not broken up by"
+			+ " interleaved types. This applies to every flush of this access, not only to the bulk mode. Off by default.")
+	boolean getOrderInsertsAndUpdates();
+	void setOrderInsertsAndUpdates(boolean orderInsertsAndUpdates);
+
+	@Description("Maximum number of cached HQL strings for select queries, keyed by the query structure. Non-positive value disables the cache.")
+	Integer getHqlCacheSize();
+	void setHqlCacheSize(Integer hqlCacheSize);
+
 	@Name("Logging")
 	@Description("Manual Logging configuration - if set Hibernate related information will be logged")
 	HibernateLogging getLogging();
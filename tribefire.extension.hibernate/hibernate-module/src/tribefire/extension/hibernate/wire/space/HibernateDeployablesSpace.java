@@ -133,6 +133,9 @@ public class HibernateDeployablesSpace implements WireSpace {
 		bean.setExpertRegistry(expertRegistry(context));
 		bean.setLogging(deployable.getLogging());
 		bean.setDeadlockRetryLimit(deployable.getDeadlockRetryLimit());
+		bean.setBulkManipulationThreshold(deployable.getBulkManipulationThreshold());
+		bean.setJdbcBatchSize(deployable.getJdbcBatchSize());
+		bean.setHqlCacheSize(deployable.getHqlCacheSize());
 		bean.setDurationWarningThreshold(deployable.getDurationWarningThreshold());
 		return bean;
 
@@ -195,6 +198,9 @@ public class HibernateDeployablesSpace implements WireSpace {
 		bean.setDefaultSchema(deployable.getDefaultSchema());
 		bean.setDefaultCatalog(deployable.getDefaultCatalog());
 		bean.setDefaultBatchFetchSize(30);
+		if (deployable.getOrderInsertsAndUpdates())
+			bean.setOrderInsertsAndUpdates(true);
+		bean.setInClauseParameterPadding(true);
 
 		bean.setUseQueryCache(!TribefireRuntime.isClustered());
 		bean.setUseSecondLevelCache(!TribefireRuntime.isClustered());
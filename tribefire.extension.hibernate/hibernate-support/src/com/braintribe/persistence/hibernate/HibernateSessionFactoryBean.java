@@ -398,6 +398,23 @@ public class HibernateSessionFactoryBean extends LocalSessionFactoryBean
 		properties.setProperty(Environment.DEFAULT_BATCH_FETCH_SIZE, String.valueOf(defaultBatchFetchSize));
 	}
 
+	/**
+	 * Makes Hibernate order the inserts / updates by entity type when flushing, so that the statements can be sent to the DB in fewer JDBC batches.
+	 * Note that this applies to every session of the factory, while the batch size itself is configured per session by the HibernateAccess.
+	 */
+	public void setOrderInsertsAndUpdates(boolean orderInsertsAndUpdates) {
+		properties.setProperty(Environment.ORDER_INSERTS, Boolean.toString(orderInsertsAndUpdates));
+		properties.setProperty(Environment.ORDER_UPDATES, Boolean.toString(orderInsertsAndUpdates));
+	}
+
+	/**
+	 * Makes Hibernate pad the number of parameters of an IN clause to the next power of two, so that queries which only differ in the size of a
+	 * collection parameter share the same SQL, and thus the same entry in the query plan cache (and the prepared statement cache of the DB).
+	 */
+	public void setInClauseParameterPadding(boolean inClauseParameterPadding) {
+		properties.setProperty(Environment.IN_CLAUSE_PARAMETER_PADDING, Boolean.toString(inClauseParameterPadding));
+	}
+
 	/**
 	 * <p>
 	 * Sets additional generic hibernate properties based on the given map.
@@ -19,6 +19,7 @@ import com.braintribe.model.check.service.CheckResultEntry;
 import com.braintribe.model.deployment.Deployable;
 
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 
 public abstract class AbstractMetricsConnector implements MetricsConnector, LifecycleAware {
 
@@ -37,6 +38,9 @@ public abstract class AbstractMetricsConnector implements MetricsConnector, Life
 	public void postConstruct() {
 		initialize();
 
+		// publish also the meters registered globally by the platform components, e.g. the DCSA update statistics
+		Metrics.addRegistry(registry);
+
 		// TODO: config of compoundRegistry
 		// TODO: dynamically add/remove meters??? Is this really necesary. I mean, when having it running you have the
 		// intention to use the metrics - and not to check if can disable for example a bunch of meters - maybe it make
@@ -58,6 +62,7 @@ public abstract class AbstractMetricsConnector implements MetricsConnector, Life
 
 	@Override
 	public void preDestroy() {
+		Metrics.removeRegistry(registry);
 		registry.clear();
 		registry.close();
 
@@ -17,6 +17,7 @@ import com.braintribe.model.descriptive.HasName;
 import com.braintribe.model.extensiondeployment.ServiceAroundProcessor;
 import com.braintribe.model.generic.annotation.Abstract;
 import com.braintribe.model.generic.annotation.Initializer;
+import com.braintribe.model.generic.annotation.meta.Description;
 import com.braintribe.model.generic.reflection.EntityType;
 import com.braintribe.model.generic.reflection.EntityTypes;
 
@@ -39,6 +40,7 @@ public interface MetricsAspect extends ServiceAroundProcessor, HasMetricsConnect
 	String addPartitionTag = "addPartitionTag";
 	String addTypeSignatureTag = "addTypeSignatureTag";
 	String addRequiresAuthenticationTag = "addRequiresAuthenticationTag";
+	String maxTagValues = "maxTagValues";
 
 	String getDescription();
 	void setDescription(String description);
@@ -65,4 +67,9 @@ public interface MetricsAspect extends ServiceAroundProcessor, HasMetricsConnect
 	boolean getAddRequiresAuthenticationTag();
 	void setAddRequiresAuthenticationTag(boolean addRequiresAuthenticationTag);
 
+	@Description("Maximum number of different values of each tag derived from the request (domain id, partition, type signature). Further values are reported as 'other'. Zero or less means unlimited.")
+	@Initializer("100")
+	int getMaxTagValues();
+	void setMaxTagValues(int maxTagValues);
+
 }
@@ -11,6 +11,10 @@
 // ============================================================================
 package tribefire.extension.metrics.model.deployment.service.aspect;
 
+import java.util.List;
+
+import com.braintribe.model.generic.annotation.Initializer;
+import com.braintribe.model.generic.annotation.meta.Description;
 import com.braintribe.model.generic.reflection.EntityType;
 import com.braintribe.model.generic.reflection.EntityTypes;
 
@@ -23,4 +27,34 @@ public interface MetricsTimerAspect extends MetricsAspect {
 
 	final EntityType<MetricsTimerAspect> T = EntityTypes.T(MetricsTimerAspect.class);
 
+	String percentiles = "percentiles";
+	String percentilePrecision = "percentilePrecision";
+	String publishPercentileHistogram = "publishPercentileHistogram";
+	String serviceLevelObjectivesInMs = "serviceLevelObjectivesInMs";
+	String minimumExpectedValueInMs = "minimumExpectedValueInMs";
+	String maximumExpectedValueInMs = "maximumExpectedValueInMs";
+
+	@Description("Percentiles (e.g. 0.99, 0.999) calculated client-side and published per timer.")
+	List<Double> getPercentiles();
+	void setPercentiles(List<Double> percentiles);
+
+	@Description("Number of significant decimal digits of the client-side percentiles.")
+	Integer getPercentilePrecision();
+	void setPercentilePrecision(Integer percentilePrecision);
+
+	@Description("Publishes a histogram which the monitoring system can use to aggregate percentiles across instances.")
+	@Initializer("false")
+	boolean getPublishPercentileHistogram();
+	void setPublishPercentileHistogram(boolean publishPercentileHistogram);
+
+	@Description("Service level objectives in milliseconds, each published as a histogram bucket.")
+	List<Long> getServiceLevelObjectivesInMs();
+	void setServiceLevelObjectivesInMs(List<Long> serviceLevelObjectivesInMs);
+
+	Long getMinimumExpectedValueInMs();
+	void setMinimumExpectedValueInMs(Long minimumExpectedValueInMs);
+
+	Long getMaximumExpectedValueInMs();
+	void setMaximumExpectedValueInMs(Long maximumExpectedValueInMs);
+
 }
@@ -319,6 +319,7 @@ public class DeployablesSpace implements WireSpace {
 		bean.setAddPartitionTag(deployable.getAddPartitionTag());
 		bean.setAddRequiresAuthenticationTag(deployable.getAddRequiresAuthenticationTag());
 		bean.setAddTypeSignatureTag(deployable.getAddTypeSignatureTag());
+		bean.setMaxTagValues(deployable.getMaxTagValues());
 
 		return bean;
 	}
@@ -349,6 +350,14 @@ public class DeployablesSpace implements WireSpace {
 		bean.setAddPartitionTag(deployable.getAddPartitionTag());
 		bean.setAddRequiresAuthenticationTag(deployable.getAddRequiresAuthenticationTag());
 		bean.setAddTypeSignatureTag(deployable.getAddTypeSignatureTag());
+		bean.setMaxTagValues(deployable.getMaxTagValues());
+
+		bean.setPercentiles(deployable.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray());
+		bean.setPercentilePrecision(deployable.getPercentilePrecision());
+		bean.setPublishPercentileHistogram(deployable.getPublishPercentileHistogram());
+		bean.setServiceLevelObjectives(deployable.getServiceLevelObjectivesInMs().stream().map(Duration::ofMillis).toArray(Duration[]::new));
+		bean.setMinimumExpectedValue(toDuration(deployable.getMinimumExpectedValueInMs()));
+		bean.setMaximumExpectedValue(toDuration(deployable.getMaximumExpectedValueInMs()));
 
 		return bean;
 	}
@@ -381,6 +390,7 @@ public class DeployablesSpace implements WireSpace {
 		bean.setAddPartitionTag(deployable.getAddPartitionTag());
 		bean.setAddRequiresAuthenticationTag(deployable.getAddRequiresAuthenticationTag());
 		bean.setAddTypeSignatureTag(deployable.getAddTypeSignatureTag());
+		bean.setMaxTagValues(deployable.getMaxTagValues());
 
 		return bean;
 	}
@@ -411,6 +421,7 @@ public class DeployablesSpace implements WireSpace {
 		bean.setAddPartitionTag(deployable.getAddPartitionTag());
 		bean.setAddRequiresAuthenticationTag(deployable.getAddRequiresAuthenticationTag());
 		bean.setAddTypeSignatureTag(deployable.getAddTypeSignatureTag());
+		bean.setMaxTagValues(deployable.getMaxTagValues());
 
 		return bean;
 
@@ -434,6 +445,10 @@ public class DeployablesSpace implements WireSpace {
 	// HELPERS
 	// -----------------------------------------------------------------------
 
+	private Duration toDuration(Long millis) {
+		return millis == null ? null : Duration.ofMillis(millis);
+	}
+
 	private String[] mapToArray(Map<String, String> map) {
 		List<String> mapAsList = map.entrySet().stream().flatMap(e -> Stream.of(e.getKey(), e.getValue())).collect(Collectors.toList());
 		return mapAsList.toArray(new String[mapAsList.size()]);
@@ -0,0 +1,123 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package tribefire.extension.metrics.service.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.braintribe.model.check.service.CheckResultEntry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tribefire.extension.metrics.connector.api.MetricsConnector;
+
+/**
+ * Tests for the tag cardinality limit and the meter caching of {@link MetricsAspect}.
+ */
+public class MetricsAspectTest {
+
+	private MetricsCounterAspect aspect;
+	private TestMetricsConnector connector;
+
+	@Before
+	public void setup() {
+		aspect = new MetricsCounterAspect();
+		aspect.setName("test.counter");
+
+		connector = new TestMetricsConnector();
+	}
+
+	@Test
+	public void tagValuesAreNotLimitedByDefault() throws Exception {
+		for (int i = 0; i < 1000; i++)
+			assertThat(aspect.limitCardinality("domain.id", "domain" + i)).isEqualTo("domain" + i);
+	}
+
+	@Test
+	public void tagValuesBeyondLimitAreReportedAsOther() throws Exception {
+		aspect.setMaxTagValues(2);
+
+		assertThat(aspect.limitCardinality("domain.id", "a")).isEqualTo("a");
+		assertThat(aspect.limitCardinality("domain.id", "b")).isEqualTo("b");
+		assertThat(aspect.limitCardinality("domain.id", "c")).isEqualTo(MetricsAspect.OTHER_TAG_VALUE);
+
+		// values which were accepted before the limit was reached are still used
+		assertThat(aspect.limitCardinality("domain.id", "a")).isEqualTo("a");
+		assertThat(aspect.limitCardinality("domain.id", "b")).isEqualTo("b");
+		assertThat(aspect.limitCardinality("domain.id", "c")).isEqualTo(MetricsAspect.OTHER_TAG_VALUE);
+
+		// the limit is per tag
+		assertThat(aspect.limitCardinality("partition", "c")).isEqualTo("c");
+	}
+
+	@Test
+	public void meterIsCreatedOncePerTags() throws Exception {
+		AtomicInteger created = new AtomicInteger();
+
+		Counter c1 = aspect.meter(connector, new String[] { "typeSignature", "A" }, () -> newCounter(connector, created, "A"));
+		Counter c2 = aspect.meter(connector, new String[] { "typeSignature", "A" }, () -> newCounter(connector, created, "A"));
+		Counter c3 = aspect.meter(connector, new String[] { "typeSignature", "B" }, () -> newCounter(connector, created, "B"));
+
+		assertThat(c2).isSameAs(c1);
+		assertThat(c3).isNotSameAs(c1);
+		assertThat(created.get()).isEqualTo(2);
+		assertThat(connector.registry().getMeters()).hasSize(2);
+	}
+
+	@Test
+	public void meterIsCreatedOncePerConnector() throws Exception {
+		TestMetricsConnector otherConnector = new TestMetricsConnector();
+		AtomicInteger created = new AtomicInteger();
+
+		Counter c1 = aspect.meter(connector, new String[] { "typeSignature", "A" }, () -> newCounter(connector, created, "A"));
+		Counter c2 = aspect.meter(otherConnector, new String[] { "typeSignature", "A" }, () -> newCounter(otherConnector, created, "A"));
+
+		assertThat(c2).isNotSameAs(c1);
+		assertThat(created.get()).isEqualTo(2);
+	}
+
+	private static Counter newCounter(MetricsConnector connector, AtomicInteger created, String typeSignature) {
+		created.incrementAndGet();
+		return Counter.builder("test.counter").tags("typeSignature", typeSignature).register(connector.registry());
+	}
+
+	private static class TestMetricsConnector implements MetricsConnector {
+
+		private final MeterRegistry registry = new SimpleMeterRegistry();
+
+		@Override
+		public String name() {
+			return "test";
+		}
+
+		@Override
+		public void initialize() {
+			// nothing to do
+		}
+
+		@Override
+		public MeterRegistry registry() {
+			return registry;
+		}
+
+		@Override
+		public CheckResultEntry health() {
+			return null;
+		}
+	}
+
+}
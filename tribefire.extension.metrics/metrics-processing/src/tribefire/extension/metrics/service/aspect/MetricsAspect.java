@@ -14,14 +14,19 @@ package tribefire.extension.metrics.service.aspect;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import com.braintribe.cfg.Configurable;
 import com.braintribe.cfg.Required;
+import com.braintribe.logging.Logger;
 import com.braintribe.model.processing.service.api.ServiceAroundProcessor;
 import com.braintribe.model.service.api.ServiceRequest;
 import com.braintribe.utils.lcd.CommonTools;
 
+import io.micrometer.core.instrument.Meter;
 import tribefire.extension.metrics.connector.api.MetricsConnector;
 
 /**
@@ -33,6 +38,11 @@ import tribefire.extension.metrics.connector.api.MetricsConnector;
 // TODO: enable/disable by type signature / maybe profiles
 public abstract class MetricsAspect implements ServiceAroundProcessor<ServiceRequest, Object> {
 
+	private final static Logger logger = Logger.getLogger(MetricsAspect.class);
+
+	/** Tag value used instead of any new value of a tag which already has {@link #setMaxTagValues(int) maxTagValues} different values. */
+	public static final String OTHER_TAG_VALUE = "other";
+
 	protected Set<MetricsConnector> metricsConnectors;
 
 	protected String name;
@@ -45,6 +55,11 @@ public abstract class MetricsAspect implements ServiceAroundProcessor<ServiceReq
 	private boolean addTypeSignatureTag;
 	private boolean addRequiresAuthenticationTag;
 
+	private int maxTagValues;
+
+	private final Map<String, Set<String>> tagValues = new ConcurrentHashMap<>();
+	private final Map<MetricsConnector, Map<List<String>, Meter>> meters = new ConcurrentHashMap<>();
+
 	// -----------------------------------------------------------------------
 	// HELPERS
 	// -----------------------------------------------------------------------
@@ -60,7 +75,7 @@ public abstract class MetricsAspect implements ServiceAroundProcessor<ServiceReq
 			if (CommonTools.isEmpty(domainId)) {
 				clone.add("no-domain");
 			} else {
-				clone.add(domainId);
+				clone.add(limitCardinality("domain.id", domainId));
 			}
 		}
 		if (addPartitionTag) {
@@ -69,13 +84,13 @@ public abstract class MetricsAspect implements ServiceAroundProcessor<ServiceReq
 			if (CommonTools.isEmpty(partition)) {
 				clone.add("no-partition");
 			} else {
-				clone.add(partition);
+				clone.add(limitCardinality("partition", partition));
 			}
 		}
 		if (addTypeSignatureTag) {
 			String typeSignature = request.entityType().getTypeSignature();
 			clone.add("typeSignature");
-			clone.add(typeSignature);
+			clone.add(limitCardinality("typeSignature", typeSignature));
 		}
 		if (addRequiresAuthenticationTag) {
 			boolean requiresAuthentication = request.requiresAuthentication();
@@ -86,6 +101,44 @@ public abstract class MetricsAspect implements ServiceAroundProcessor<ServiceReq
 		return clone.toArray(new String[clone.size()]);
 	}
 
+	/**
+	 * Returns given tag value as long as the tag has less than {@link #setMaxTagValues(int) maxTagValues} different values, otherwise
+	 * {@link #OTHER_TAG_VALUE}. This prevents requests with arbitrary values (e.g. many different domains) from creating an unbounded number of
+	 * meters.
+	 */
+	protected String limitCardinality(String tagKey, String tagValue) {
+		if (maxTagValues <= 0)
+			return tagValue;
+
+		Set<String> values = tagValues.computeIfAbsent(tagKey, k -> ConcurrentHashMap.newKeySet());
+		if (values.contains(tagValue))
+			return tagValue;
+
+		synchronized (values) {
+			if (values.size() < maxTagValues) {
+				values.add(tagValue);
+				return tagValue;
+			}
+		}
+
+		logger.debug(() -> "Metric '" + name + "' already has " + maxTagValues + " values for tag '" + tagKey + "', using '" + OTHER_TAG_VALUE
+				+ "' instead of: " + tagValue);
+
+		return OTHER_TAG_VALUE;
+	}
+
+	/**
+	 * Returns the meter for given connector and tags, which is only created and registered via given factory the first time these tags are used,
+	 * rather than building and registering it again on every request.
+	 */
+	protected <M extends Meter> M meter(MetricsConnector metricsConnector, String[] tags, Supplier<M> factory) {
+		Map<List<String>, Meter> connectorMeters = meters.computeIfAbsent(metricsConnector, c -> new ConcurrentHashMap<>());
+
+		@SuppressWarnings("unchecked")
+		M result = (M) connectorMeters.computeIfAbsent(Arrays.asList(tags), t -> factory.get());
+		return result;
+	}
+
 	// -----------------------------------------------------------------------
 	// GETTER & SETTER
 	// -----------------------------------------------------------------------
@@ -143,4 +196,13 @@ public abstract class MetricsAspect implements ServiceAroundProcessor<ServiceReq
 		this.addRequiresAuthenticationTag = addRequiresAuthenticationTag;
 	}
 
+	/**
+	 * Maximum number of different values of each tag derived from the request (domain id, partition and type signature). Any further value is
+	 * replaced with {@link #OTHER_TAG_VALUE}. Zero or less means unlimited, which is also the default.
+	 */
+	@Configurable
+	public void setMaxTagValues(int maxTagValues) {
+		this.maxTagValues = maxTagValues;
+	}
+
 }
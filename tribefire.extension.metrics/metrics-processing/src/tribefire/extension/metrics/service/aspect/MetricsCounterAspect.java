@@ -66,10 +66,15 @@ public class MetricsCounterAspect extends MetricsAspect {
 	// -----------------------------------------------------------------------
 
 	private Counter fetchCounter(MetricsConnector metricsConnector, ServiceRequest request, String[] tags) {
+		String[] enrichedTags = enrichTags(request, tags);
+		return meter(metricsConnector, enrichedTags, () -> buildCounter(metricsConnector, enrichedTags));
+	}
+
+	private Counter buildCounter(MetricsConnector metricsConnector, String[] tags) {
 		//@formatter:off
 		Builder builder = Counter
 				.builder(name)
-				.tags(enrichTags(request, tags));
+				.tags(tags);
 		//@formatter:on
 
 		if (!CommonTools.isEmpty(description)) {
@@ -80,10 +80,15 @@ public class MetricsSummaryAspect extends MetricsAspect {
 	// -----------------------------------------------------------------------
 
 	private DistributionSummary fetchSummary(MetricsConnector metricsConnector, ServiceRequest request, String[] tags) {
+		String[] enrichedTags = enrichTags(request, tags);
+		return meter(metricsConnector, enrichedTags, () -> buildSummary(metricsConnector, enrichedTags));
+	}
+
+	private DistributionSummary buildSummary(MetricsConnector metricsConnector, String[] tags) {
 		//@formatter:off
 		Builder builder = DistributionSummary
 				  .builder(name)
-				  .tags(enrichTags(request, tags));
+				  .tags(tags);
 		//@formatter:on
 
 		if (!CommonTools.isEmpty(description)) {
@@ -12,7 +12,9 @@
 package tribefire.extension.metrics.service.aspect;
 
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
+import com.braintribe.cfg.Configurable;
 import com.braintribe.logging.Logger;
 import com.braintribe.model.processing.service.api.ProceedContext;
 import com.braintribe.model.processing.service.api.ServiceRequestContext;
@@ -28,6 +30,13 @@ public class MetricsTimerAspect extends MetricsAspect {
 
 	private final static Logger logger = Logger.getLogger(MetricsTimerAspect.class);
 
+	private double[] percentiles;
+	private Integer percentilePrecision;
+	private boolean publishPercentileHistogram;
+	private Duration[] serviceLevelObjectives;
+	private Duration minimumExpectedValue;
+	private Duration maximumExpectedValue;
+
 	@Override
 	public Object process(ServiceRequestContext requestContext, ServiceRequest request, ProceedContext proceedContext) {
 		boolean metricsActive = true;
@@ -36,23 +45,27 @@ public class MetricsTimerAspect extends MetricsAspect {
 			logger.trace(() -> "Metrics enabled for request: '" + request + "'");
 
 			Object result = null;
-			long start = System.currentTimeMillis();
+			long start = System.nanoTime();
 			try {
 
 				result = proceedContext.proceed(request);
 
+				long duration = System.nanoTime() - start;
+				String[] tags = enrichTags(request, tagsSuccess);
 				metricsConnectors.forEach(metricsConnector -> {
-					Timer timer = fetchTimer(metricsConnector, request, tagsSuccess);
+					Timer timer = fetchTimer(metricsConnector, tags);
 
-					timer.record(Duration.ofMillis(System.currentTimeMillis() - start));
+					timer.record(duration, TimeUnit.NANOSECONDS);
 				});
 
 				return result;
 			} catch (Throwable t) {
+				long duration = System.nanoTime() - start;
+				String[] tags = enrichTags(request, tagsError);
 				metricsConnectors.forEach(metricsConnector -> {
-					Timer timer = fetchTimer(metricsConnector, request, tagsError);
+					Timer timer = fetchTimer(metricsConnector, tags);
 
-					timer.record(Duration.ofMillis(System.currentTimeMillis() - start));
+					timer.record(duration, TimeUnit.NANOSECONDS);
 				});
 				throw t;
 			}
@@ -67,18 +80,38 @@ public class MetricsTimerAspect extends MetricsAspect {
 	// HELPERS
 	// -----------------------------------------------------------------------
 
-	private Timer fetchTimer(MetricsConnector metricsConnector, ServiceRequest request, String[] tags) {
+	private Timer fetchTimer(MetricsConnector metricsConnector, String[] tags) {
+		return meter(metricsConnector, tags, () -> buildTimer(metricsConnector, tags));
+	}
+
+	private Timer buildTimer(MetricsConnector metricsConnector, String[] tags) {
 		//@formatter:off
 		Builder builder = Timer
 				.builder(name)
-				.tags(enrichTags(request, tags));
+				.tags(tags);
 		//@formatter:on
 
 		if (!CommonTools.isEmpty(description)) {
 			builder.description(description);
 		}
-
-		// TODO: many other functionalities like percentiles, sla,...
+		if (percentiles != null && percentiles.length > 0) {
+			builder.publishPercentiles(percentiles);
+		}
+		if (percentilePrecision != null) {
+			builder.percentilePrecision(percentilePrecision);
+		}
+		if (publishPercentileHistogram) {
+			builder.publishPercentileHistogram();
+		}
+		if (serviceLevelObjectives != null && serviceLevelObjectives.length > 0) {
+			builder.serviceLevelObjectives(serviceLevelObjectives);
+		}
+		if (minimumExpectedValue != null) {
+			builder.minimumExpectedValue(minimumExpectedValue);
+		}
+		if (maximumExpectedValue != null) {
+			builder.maximumExpectedValue(maximumExpectedValue);
+		}
 
 		Timer timer = builder.register(metricsConnector.registry());
 
@@ -89,4 +122,40 @@ public class MetricsTimerAspect extends MetricsAspect {
 	// GETTER & SETTER
 	// -----------------------------------------------------------------------
 
+	/** Percentiles (e.g. 0.99 and 0.999) which are calculated client-side and published for each timer. */
+	@Configurable
+	public void setPercentiles(double[] percentiles) {
+		this.percentiles = percentiles;
+	}
+
+	/** Number of significant decimal digits of the client-side percentiles, defaults to Micrometer's default (1). */
+	@Configurable
+	public void setPercentilePrecision(Integer percentilePrecision) {
+		this.percentilePrecision = percentilePrecision;
+	}
+
+	/** If <tt>true</tt>, a histogram is published which the monitoring system can use to aggregate percentiles across instances. */
+	@Configurable
+	public void setPublishPercentileHistogram(boolean publishPercentileHistogram) {
+		this.publishPercentileHistogram = publishPercentileHistogram;
+	}
+
+	/** Service level objectives, each of which is published as a histogram bucket counting the requests that took at most that long. */
+	@Configurable
+	public void setServiceLevelObjectives(Duration[] serviceLevelObjectives) {
+		this.serviceLevelObjectives = serviceLevelObjectives;
+	}
+
+	/** Lower bound of the percentile histogram buckets. */
+	@Configurable
+	public void setMinimumExpectedValue(Duration minimumExpectedValue) {
+		this.minimumExpectedValue = minimumExpectedValue;
+	}
+
+	/** Upper bound of the percentile histogram buckets. */
+	@Configurable
+	public void setMaximumExpectedValue(Duration maximumExpectedValue) {
+		this.maximumExpectedValue = maximumExpectedValue;
+	}
+
 }
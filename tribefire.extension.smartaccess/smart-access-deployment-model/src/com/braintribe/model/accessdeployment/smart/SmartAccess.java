@@ -15,6 +15,7 @@ import java.util.Set;
 
 import com.braintribe.model.accessdeployment.IncrementalAccess;
 
+import com.braintribe.model.generic.annotation.meta.Description;
 import com.braintribe.model.generic.reflection.EntityType;
 import com.braintribe.model.generic.reflection.EntityTypes;
 
@@ -26,4 +27,9 @@ public interface SmartAccess extends IncrementalAccess {
 	Set<IncrementalAccess> getDelegates();
 	void setDelegates(Set<IncrementalAccess> delegates);
 
+	@Description("If true, independent delegate queries are run concurrently and bulked delegate queries prefetch their next bulk, "
+			+ "with the bulk size adapted to the delegate's latency.")
+	boolean getParallelDelegateQueries();
+	void setParallelDelegateQueries(boolean parallelDelegateQueries);
+
 }
@@ -16,7 +16,12 @@ import static com.braintribe.utils.lcd.CollectionTools2.asSet;
 import java.nio.file.Path;
 import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+import com.braintribe.execution.CustomThreadFactory;
+import com.braintribe.execution.ExtendedThreadPoolExecutor;
 import com.braintribe.model.access.IncrementalAccess;
 import com.braintribe.model.access.smart.SmartAccess;
 import com.braintribe.model.accessdeployment.smart.meta.PropertyAsIs;
@@ -79,10 +84,35 @@ public class SmartAccessModuleSpace implements TribefireModuleContract {
 		bean.setMetaModel(deployable.getMetaModel());
 		bean.setScriptingEngineResolver(scripting.scriptingEngineResolver());
 
+		if (deployable.getParallelDelegateQueries()) {
+			bean.setDelegateQueryExecutor(delegateQueryExecutor());
+			bean.setThreadContextScoping(tfPlatform.threading().contextScoping());
+		}
+
 		return bean;
 
 	}
 
+	/**
+	 * Shared by all SmartAccesses with parallel delegate queries. The queue is unbounded, but a query which was not started by the time its result
+	 * is needed is simply run by the querying thread.
+	 */
+	@Managed
+	private ExecutorService delegateQueryExecutor() {
+		ExtendedThreadPoolExecutor bean = new ExtendedThreadPoolExecutor( //
+				16, // corePoolSize
+				16, // maxPoolSize
+				60, // keepAliveTime
+				TimeUnit.SECONDS, // keepAliveTimeUnit
+				new LinkedBlockingQueue<>(), //
+				CustomThreadFactory.create().namePrefix("smart-access-delegate-query-").daemon(true) //
+		);
+		bean.allowCoreThreadTimeOut(true);
+		bean.setDescription("Smart Access Delegate Queries");
+
+		return bean;
+	}
+
 	protected Map<com.braintribe.model.accessdeployment.IncrementalAccess, IncrementalAccess> accessMapping(
 			ExpertContext<com.braintribe.model.accessdeployment.smart.SmartAccess> context) {
 
@@ -20,6 +20,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import com.braintribe.cfg.Configurable;
@@ -44,7 +45,6 @@ import com.braintribe.model.processing.meta.cmd.CmdResolverImpl;
 import com.braintribe.model.processing.meta.oracle.BasicModelOracle;
 import com.braintribe.model.processing.meta.oracle.ModelOracle;
 import com.braintribe.model.processing.query.eval.api.EvalTupleSet;
-import com.braintribe.model.processing.query.eval.api.QueryEvaluationContext;
 import com.braintribe.model.processing.query.eval.api.function.QueryFunctionExpert;
 import com.braintribe.model.processing.query.support.QueryAdaptingTools;
 import com.braintribe.model.processing.query.support.QueryResultBuilder;
@@ -68,6 +68,7 @@ import com.braintribe.model.query.functions.QueryFunction;
 import com.braintribe.model.query.smart.processing.eval.context.BasicSmartQueryEvaluationContext;
 import com.braintribe.model.query.smart.processing.eval.context.conversion.ScriptedConversionExpert;
 import com.braintribe.model.smartqueryplan.SmartQueryPlan;
+import com.braintribe.thread.api.ThreadContextScoping;
 
 import tribefire.extension.scripting.api.ScriptingEngineResolver;
 
@@ -100,6 +101,8 @@ public class SmartAccess extends AbstractAccess implements EagerLoaderSupporting
 	private StaticModelExpert staticModelExpert;
 	
 	private SmartQueryPlanner queryPlanner;
+	private Executor delegateQueryExecutor;
+	private ThreadContextScoping threadContextScoping;
 	
 	private final Map<EntityType<? extends QueryFunction>, QueryFunctionExpert<?>> functionExperts = functionExperts(null);
 	private final Map<EntityType<? extends SmartConversion>, SmartConversionExpert<?>> conversionExperts = conversionExperts(null);
@@ -144,6 +147,21 @@ public class SmartAccess extends AbstractAccess implements EagerLoaderSupporting
 
 		conversionExperts.put(ScriptedConversion.T, scriptedConversionExpert);
 	}
+
+	/**
+	 * If configured, delegate queries are run asynchronously with this executor, i.e. independent delegate queries run concurrently and bulked
+	 * delegate queries prefetch their next bulk. See {@link BasicSmartQueryEvaluationContext#setDelegateQueryExecutor(Executor)}.
+	 */
+	@Configurable
+	public void setDelegateQueryExecutor(Executor delegateQueryExecutor) {
+		this.delegateQueryExecutor = delegateQueryExecutor;
+	}
+
+	/** Binds the caller's thread context (e.g. user session) to the delegate queries run by the {@link #setDelegateQueryExecutor executor}. */
+	@Configurable
+	public void setThreadContextScoping(ThreadContextScoping threadContextScoping) {
+		this.threadContextScoping = threadContextScoping;
+	}
 	
 	/** {@inheritDoc} */
 	@Override
@@ -196,8 +214,11 @@ public class SmartAccess extends AbstractAccess implements EagerLoaderSupporting
 		SmartQueryPlan queryPlan = acquireQueryPlanner().buildQueryPlan(query, modelExpert);
 		SmartLogging.queryPlan(queryPlan);
 
-		QueryEvaluationContext context = new BasicSmartQueryEvaluationContext( //
+		BasicSmartQueryEvaluationContext context = new BasicSmartQueryEvaluationContext( //
 				queryPlan, session, accessMapping, functionExperts, null, conversionExperts);
+		context.setDelegateQueryExecutor(delegateQueryExecutor);
+		context.setThreadContextScoping(threadContextScoping);
+
 		EvalTupleSet tuples = context.resolveTupleSet(queryPlan.getTupleSet());
 
 		SelectQueryResult result = QueryResultBuilder.buildQueryResult(tuples, context.resultComponentsCount());
@@ -26,6 +26,23 @@ public interface SmartQueryEvaluationContext extends QueryEvaluationContext {
 
 	SelectQueryResult runQuery(IncrementalAccess access, SelectQuery query);
 
+	/**
+	 * Starts given query and returns a handle to its result. If {@link #supportsAsyncQueries() supported}, the query is run asynchronously and
+	 * {@link SubmittedQuery#get()} blocks until the result is available, otherwise the query is run right away, just like with
+	 * {@link #runQuery(IncrementalAccess, SelectQuery)}.
+	 */
+	default SubmittedQuery submitQuery(IncrementalAccess access, SelectQuery query) {
+		return SubmittedQuery.done(runQuery(access, query));
+	}
+
+	/**
+	 * @return <tt>true</tt> iff {@link #submitQuery(IncrementalAccess, SelectQuery)} runs the queries asynchronously, i.e. it makes sense to
+	 *         submit a query before its result is actually needed
+	 */
+	default boolean supportsAsyncQueries() {
+		return false;
+	}
+
 	AssembleEntityContext acquireAssembleEntityContext(AssembleEntity assembleEntityFunction);
 
 	GenericEntity findEntity(String typeSignature, Object id, String partition);
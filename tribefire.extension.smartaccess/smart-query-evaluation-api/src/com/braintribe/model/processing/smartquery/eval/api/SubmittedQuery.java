@@ -0,0 +1,41 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.smartquery.eval.api;
+
+import java.util.function.Supplier;
+
+import com.braintribe.model.query.SelectQueryResult;
+
+/**
+ * Delegate query {@link SmartQueryEvaluationContext#submitQuery submitted} for evaluation, which might still be running.
+ */
+public interface SubmittedQuery extends Supplier<SelectQueryResult> {
+
+	/** Returns the result of the query, waiting for it to be done if necessary. */
+	@Override
+	SelectQueryResult get();
+
+	/** @return the {@link System#nanoTime()} at which the query was done, only valid once {@link #get()} has returned */
+	long doneAt();
+
+	static SubmittedQuery done(SelectQueryResult result) {
+		long doneAt = System.nanoTime();
+
+		return new SubmittedQuery() {
+			// @formatter:off
+			@Override public SelectQueryResult get() { return result; }
+			@Override public long doneAt() { return doneAt; }
+			// @formatter:on
+		};
+	}
+
+}
@@ -19,6 +19,7 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import org.junit.Before;
 
@@ -64,6 +65,9 @@ public abstract class AbstractSmartEvalTupleSetTests {
 
 	private Map<IncrementalAccess, com.braintribe.model.access.IncrementalAccess> accessMapping;
 
+	/** If set, delegate queries are run asynchronously with this executor. */
+	protected Executor delegateQueryExecutor;
+
 	private QueryEvaluationContext context;
 	private Set<Tuple> tuples;
 	private Iterator<Tuple> tuplesIterator;
@@ -118,8 +122,11 @@ public abstract class AbstractSmartEvalTupleSetTests {
 	}
 
 	protected void evaluate(TupleSet tupleSet) {
-		context = new BasicSmartQueryEvaluationContext(toQueryPlan(tupleSet), session, accessMapping,
+		BasicSmartQueryEvaluationContext smartContext = new BasicSmartQueryEvaluationContext(toQueryPlan(tupleSet), session, accessMapping,
 				QueryFunctionTools.functionExperts(null), null, null);
+		smartContext.setDelegateQueryExecutor(delegateQueryExecutor);
+
+		context = smartContext;
 		tuplesIterator = resolveTupleset(tupleSet).iterator();
 	}
 
@@ -15,6 +15,11 @@ import static com.braintribe.utils.lcd.CollectionTools2.newMap;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Supplier;
 
 import com.braintribe.model.accessdeployment.smart.meta.conversion.SmartConversion;
@@ -35,6 +40,7 @@ import com.braintribe.model.processing.smartquery.eval.api.AssembleEntityContext
 import com.braintribe.model.processing.smartquery.eval.api.RuntimeSmartQueryEvaluationException;
 import com.braintribe.model.processing.smartquery.eval.api.SmartConversionExpert;
 import com.braintribe.model.processing.smartquery.eval.api.SmartQueryEvaluationContext;
+import com.braintribe.model.processing.smartquery.eval.api.SubmittedQuery;
 import com.braintribe.model.query.SelectQuery;
 import com.braintribe.model.query.SelectQueryResult;
 import com.braintribe.model.query.functions.QueryFunction;
@@ -46,6 +52,7 @@ import com.braintribe.model.queryplan.value.ValueType;
 import com.braintribe.model.smartqueryplan.SmartQueryPlan;
 import com.braintribe.model.smartqueryplan.functions.AssembleEntity;
 import com.braintribe.model.smartqueryplan.value.SmartValue;
+import com.braintribe.thread.api.ThreadContextScoping;
 
 public class BasicSmartQueryEvaluationContext extends BasicQueryEvaluationContext implements SmartQueryEvaluationContext {
 
@@ -55,6 +62,9 @@ public class BasicSmartQueryEvaluationContext extends BasicQueryEvaluationContex
 	private final Map<AssembleEntity, AssembleEntityContext> assembleEntityCtxs;
 	private final SmartValueResolver smartValueResolver;
 
+	private Executor delegateQueryExecutor;
+	private ThreadContextScoping threadContextScoping;
+
 	public BasicSmartQueryEvaluationContext(SmartQueryPlan queryPlan, PersistenceGmSession session,
 			Map<com.braintribe.model.accessdeployment.IncrementalAccess, com.braintribe.model.access.IncrementalAccess> accessMapping,
 			Map<EntityType<? extends QueryFunction>, QueryFunctionExpert<?>> queryFunctionExperts,
@@ -70,6 +80,20 @@ public class BasicSmartQueryEvaluationContext extends BasicQueryEvaluationContex
 		this.smartValueResolver = new SmartValueResolver(this, conversionExperts);
 	}
 
+	/**
+	 * Executor for running delegate queries asynchronously, which means independent delegate queries are run concurrently, and the next bulk of a
+	 * bulked delegate query is prefetched while the current one is being processed. If not set, all delegate queries are run sequentially on the
+	 * calling thread.
+	 */
+	public void setDelegateQueryExecutor(Executor delegateQueryExecutor) {
+		this.delegateQueryExecutor = delegateQueryExecutor;
+	}
+
+	/** Optional, binds the context of the calling thread (e.g. user session) to the delegate queries run by the {@link #setDelegateQueryExecutor executor}. */
+	public void setThreadContextScoping(ThreadContextScoping threadContextScoping) {
+		this.threadContextScoping = threadContextScoping;
+	}
+
 	@Override
 	public PersistenceGmSession getSession() {
 		return session;
@@ -90,6 +114,72 @@ public class BasicSmartQueryEvaluationContext extends BasicQueryEvaluationContex
 		}
 	}
 
+	@Override
+	public SubmittedQuery submitQuery(com.braintribe.model.accessdeployment.IncrementalAccess accessDenotation, SelectQuery query) {
+		if (delegateQueryExecutor == null)
+			return SmartQueryEvaluationContext.super.submitQuery(accessDenotation, query);
+
+		Callable<SelectQueryResult> callable = () -> runQuery(accessDenotation, query);
+		if (threadContextScoping != null)
+			callable = threadContextScoping.bindContext(callable);
+
+		DelegateQueryTask task = new DelegateQueryTask(callable);
+		try {
+			delegateQueryExecutor.execute(task);
+		} catch (RejectedExecutionException e) {
+			// the task is run on the calling thread when awaited
+		}
+
+		return task;
+	}
+
+	private static class DelegateQueryTask extends FutureTask<SelectQueryResult> implements SubmittedQuery {
+		private volatile long doneAt;
+
+		public DelegateQueryTask(Callable<SelectQueryResult> callable) {
+			super(callable);
+		}
+
+		@Override
+		protected void done() {
+			doneAt = System.nanoTime();
+		}
+
+		@Override
+		public long doneAt() {
+			return doneAt;
+		}
+
+		/**
+		 * If the executor hasn't started the task yet, it is run on the calling thread, so a saturated executor never blocks the evaluation
+		 * (which could otherwise even deadlock, if the delegate is itself a SmartAccess using the same executor).
+		 */
+		@Override
+		public SelectQueryResult get() {
+			run();
+
+			try {
+				return super.get();
+
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeQueryEvaluationException("Interrupted while waiting for the result of a delegate query.", e);
+
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+
+				throw new RuntimeQueryEvaluationException("Error while running delegate query.", cause);
+			}
+		}
+	}
+
+	@Override
+	public boolean supportsAsyncQueries() {
+		return delegateQueryExecutor != null;
+	}
+
 	@Override
 	public AssembleEntityContext acquireAssembleEntityContext(AssembleEntity assembleEntityFunction) {
 		AssembleEntityContext result = assembleEntityCtxs.get(assembleEntityFunction);
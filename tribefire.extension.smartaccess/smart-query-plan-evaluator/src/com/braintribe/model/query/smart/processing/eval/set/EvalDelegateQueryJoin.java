@@ -16,6 +16,7 @@ import static com.braintribe.model.processing.query.eval.tools.QueryEvaluationTo
 import static com.braintribe.model.query.smart.processing.eval.set.DelegateQuerySetAdapter.adaptQuerySet;
 import static com.braintribe.utils.lcd.CollectionTools2.acquireList;
 import static com.braintribe.utils.lcd.CollectionTools2.newList;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 import java.util.Collection;
 import java.util.Iterator;
@@ -38,10 +39,19 @@ import com.braintribe.model.smartqueryplan.set.OperandRestriction;
 import com.braintribe.model.smartqueryplan.value.ConvertedValue;
 
 /**
- * 
+ * Joins the materialized set with the results of the delegate query, which is run for bulks of {@link #bulkSize} materialized tuples.
+ * <p>
+ * If the context {@link SmartQueryEvaluationContext#supportsAsyncQueries() supports async queries}, the delegate query for the next bulk is
+ * submitted while the current bulk is being processed, and the bulk size is adapted to the latency of the delegate queries, i.e. the time
+ * between submitting a query and the delegate being done with it. The bulk size shrinks (down to {@value #MIN_ADAPTIVE_BULK_SIZE}) while a
+ * query takes longer than {@value #TARGET_BULK_LATENCY_MS}ms, and grows back (up to the configured {@link #setBulkSize(int) bulk size}) once it
+ * takes less than half of that.
  */
 public class EvalDelegateQueryJoin extends TransientGeneratorEvalTupleSet implements HasMoreAwareSet {
 
+	private static final int MIN_ADAPTIVE_BULK_SIZE = 10;
+	private static final long TARGET_BULK_LATENCY_MS = 200;
+
 	protected int bulkSize = 100;
 
 	protected final SmartQueryEvaluationContext smartContext;
@@ -83,6 +93,11 @@ public class EvalDelegateQueryJoin extends TransientGeneratorEvalTupleSet implem
 
 		private boolean useNullForNextJoinedValue;
 
+		/** Next bulk, whose delegate query is already running while the current one is processed. Only used with async queries. */
+		private CorrelatedBulk nextBulk;
+		/** Current bulk size, which is only adapted with async queries, see {@link EvalDelegateQueryJoin}. */
+		private int currentBulkSize = bulkSize;
+
 		public DelegateQueryJoinIterator() {
 			correlationMap = SmartQueryEvaluationTools.tupleCorrelationMap(findCorrelationPositions());
 			materializedIterator = materializedTupleSet.iterator();
@@ -150,19 +165,30 @@ public class EvalDelegateQueryJoin extends TransientGeneratorEvalTupleSet implem
 		}
 
 		private void ensureNextBulked_M_Tuple() {
-			while (!prepareNextBulked_M_Tuple() && materializedIterator.hasNext()) {
+			while (!prepareNextBulked_M_Tuple() && (nextBulk != null || materializedIterator.hasNext())) {
 				loadNext_M_BulkAndEnsureCorrelatedTuples();
 			}
 		}
 
 		private void loadNext_M_BulkAndEnsureCorrelatedTuples() {
+			CorrelatedBulk bulk = nextBulk != null ? nextBulk : submitNext_M_Bulk();
+			nextBulk = null;
+
+			bulk.ensureCorrelatedTuples();
+			bulked_M_TuplesIterator = bulk.allBulk_M_Tuples.iterator();
+
+			if (smartContext.supportsAsyncQueries() && materializedIterator.hasNext())
+				nextBulk = submitNext_M_Bulk();
+		}
+
+		private CorrelatedBulk submitNext_M_Bulk() {
 			/* all materialized Tuples for current bulk */
 			List<Tuple> allBulk_M_Tuples = newList();
 			/* materialized Tuples for current bulk which do not have their correlation tuples determined yet */
 			List<Tuple> newBulk_M_Tuples = newList();
 
 			int currBulk = 0;
-			while ((currBulk < bulkSize) && materializedIterator.hasNext()) {
+			while ((currBulk < currentBulkSize) && materializedIterator.hasNext()) {
 				Tuple mTuple = materializedIterator.next().detachedCopy();
 
 				allBulk_M_Tuples.add(mTuple);
@@ -173,25 +199,55 @@ public class EvalDelegateQueryJoin extends TransientGeneratorEvalTupleSet implem
 				}
 			}
 
-			findCorrelatedTuplesFor(newBulk_M_Tuples);
-			bulked_M_TuplesIterator = allBulk_M_Tuples.iterator();
+			long submittedAt = System.nanoTime();
+
+			return new CorrelatedBulk(allBulk_M_Tuples, submitCorrelatedQueryFor(newBulk_M_Tuples), submittedAt);
 		}
 
-		private void findCorrelatedTuplesFor(Collection<Tuple> mTuples) {
+		/** Resolves the delegate query set for given tuples, which (unless bulked itself) submits the delegate query right away. */
+		private EvalTupleSet submitCorrelatedQueryFor(Collection<Tuple> mTuples) {
 			if (mTuples.isEmpty())
-				return;
+				return null;
 
 			DelegateQuerySet adaptedQuerySet = adaptQuerySet(delegateQueryJoin, mTuples, smartContext);
 			if (adaptedQuerySet == null)
 				// This can happen if none of the mTuples has a valid set of correlated values, i.e. there is always some null
-				return;
-			
-			EvalTupleSet bulkedDelegateQuerySet = smartContext.resolveTupleSet(adaptedQuerySet);
+				return null;
 
-			for (Tuple bulkedResult: bulkedDelegateQuerySet) {
-				Tuple detached = bulkedResult.detachedCopy();
-				acquireList(correlationMap, detached).add(detached);
+			return smartContext.resolveTupleSet(adaptedQuerySet);
+		}
+
+		private class CorrelatedBulk {
+			final List<Tuple> allBulk_M_Tuples;
+			final EvalTupleSet bulkedDelegateQuerySet;
+			final long submittedAt;
+
+			CorrelatedBulk(List<Tuple> allBulk_M_Tuples, EvalTupleSet bulkedDelegateQuerySet, long submittedAt) {
+				this.allBulk_M_Tuples = allBulk_M_Tuples;
+				this.bulkedDelegateQuerySet = bulkedDelegateQuerySet;
+				this.submittedAt = submittedAt;
 			}
+
+			void ensureCorrelatedTuples() {
+				if (bulkedDelegateQuerySet == null)
+					return;
+
+				for (Tuple bulkedResult: bulkedDelegateQuerySet) {
+					Tuple detached = bulkedResult.detachedCopy();
+					acquireList(correlationMap, detached).add(detached);
+				}
+
+				// the delegate query is done by now, but we measure until it was done, not until we got to process its result
+				if (smartContext.supportsAsyncQueries() && bulkedDelegateQuerySet instanceof EvalDelegateQuerySet)
+					adaptBulkSize(NANOSECONDS.toMillis(((EvalDelegateQuerySet) bulkedDelegateQuerySet).getQueryDoneAt() - submittedAt));
+			}
+		}
+
+		private void adaptBulkSize(long bulkLatencyMs) {
+			if (bulkLatencyMs < TARGET_BULK_LATENCY_MS / 2)
+				currentBulkSize = Math.min(currentBulkSize * 2, bulkSize);
+			else if (bulkLatencyMs > TARGET_BULK_LATENCY_MS)
+				currentBulkSize = Math.max(currentBulkSize / 2, Math.min(MIN_ADAPTIVE_BULK_SIZE, bulkSize));
 		}
 
 		/**
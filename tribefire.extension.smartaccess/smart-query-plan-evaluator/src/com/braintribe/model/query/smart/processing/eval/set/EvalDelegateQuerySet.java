@@ -27,6 +27,7 @@ import com.braintribe.model.processing.query.eval.set.HasMoreAwareSet;
 import com.braintribe.model.processing.query.eval.set.base.TransientGeneratorEvalTupleSet;
 import com.braintribe.model.processing.query.eval.tuple.OneDimensionalTuple;
 import com.braintribe.model.processing.smartquery.eval.api.SmartQueryEvaluationContext;
+import com.braintribe.model.processing.smartquery.eval.api.SubmittedQuery;
 import com.braintribe.model.query.Paging;
 import com.braintribe.model.query.Restriction;
 import com.braintribe.model.query.SelectQuery;
@@ -40,10 +41,18 @@ import com.braintribe.model.smartqueryplan.set.DelegateQuerySet;
 public class EvalDelegateQuerySet extends TransientGeneratorEvalTupleSet implements HasMoreAwareSet {
 
 	protected final DelegateQuerySet delegateQuerySet;
-	protected final List<Tuple> result;
 	protected final SmartQueryEvaluationContext smartContext;
 
+	/**
+	 * Result of the delegate query, if not bulked. The query is submitted right away, so in case the context
+	 * {@link SmartQueryEvaluationContext#supportsAsyncQueries() supports async queries}, it runs concurrently with the
+	 * queries of other sets resolved for the same query plan, and we only wait for it once the result is needed.
+	 */
+	private SubmittedQuery pendingResult;
+	private List<Tuple> result;
+
 	protected boolean hasMore;
+	protected long queryDoneAt;
 
 	public EvalDelegateQuerySet(DelegateQuerySet delegateQuerySet, SmartQueryEvaluationContext context) {
 		super(context);
@@ -52,7 +61,7 @@ public class EvalDelegateQuerySet extends TransientGeneratorEvalTupleSet impleme
 		this.smartContext = context;
 
 		this.hasMore = false;
-		this.result = getResultIfNotBulked();
+		this.pendingResult = submitQueryIfNotBulked();
 	}
 
 	@Override
@@ -60,18 +69,35 @@ public class EvalDelegateQuerySet extends TransientGeneratorEvalTupleSet impleme
 		/* The only way for this to be true is that our delegate query returned 'hasMore'; In all other cases this set
 		 * returns all the results there are, so even if there is pagination on top of this, it has to handle the
 		 * hasMore by itself. */
+		if (!isBulked())
+			result();
+
 		return hasMore;
 	}
 
-	private List<Tuple> getResultIfNotBulked() {
+	private SubmittedQuery submitQueryIfNotBulked() {
 		if (isBulked())
-			return emptyList();
+			return null;
 		else
-			return runQuery(delegateQuerySet.getDelegateQuery());
+			return submitQuery(delegateQuerySet.getDelegateQuery());
+	}
+
+	private List<Tuple> result() {
+		if (result == null) {
+			result = isBulked() ? emptyList() : toTupleList(pendingResult);
+			pendingResult = null;
+		}
+
+		return result;
+	}
+
+	private SubmittedQuery submitQuery(SelectQuery query) {
+		return smartContext.submitQuery(delegateQuerySet.getDelegateAccess(), query);
 	}
 
-	private List<Tuple> runQuery(SelectQuery query) {
-		SelectQueryResult queryResult = smartContext.runQuery(delegateQuerySet.getDelegateAccess(), query);
+	private List<Tuple> toTupleList(SubmittedQuery submittedQuery) {
+		SelectQueryResult queryResult = submittedQuery.get();
+		queryDoneAt = submittedQuery.doneAt();
 		hasMore = queryResult.getHasMore();
 
 		return asTupleList(queryResult.getResults());
@@ -97,6 +123,14 @@ public class EvalDelegateQuerySet extends TransientGeneratorEvalTupleSet impleme
 		return wrappedResult;
 	}
 
+	/**
+	 * @return the {@link System#nanoTime()} at which the delegate query whose result was retrieved last was done, i.e. this is only valid once
+	 *         the iteration has started
+	 */
+	public long getQueryDoneAt() {
+		return queryDoneAt;
+	}
+
 	@Override
 	public Iterator<Tuple> iterator() {
 		return isBulked() ? new BulkedDelegateQueryIterator() : new DelegateQueryIterator();
@@ -120,7 +154,7 @@ public class EvalDelegateQuerySet extends TransientGeneratorEvalTupleSet impleme
 
 	protected class DelegateQueryIterator extends AbstractDelegateQueryIterator {
 		public DelegateQueryIterator() {
-			delegateIterator = result.iterator();
+			delegateIterator = result().iterator();
 			prepareNextValue();
 		}
 
@@ -138,6 +172,8 @@ public class EvalDelegateQuerySet extends TransientGeneratorEvalTupleSet impleme
 		protected int nextOffset = 0;
 		protected boolean finished = false;
 		protected boolean thisBulkIsDefinitelyLast = false;
+		/** Next bulk, submitted while the current one is being processed, if the context supports async queries. */
+		protected SubmittedQuery nextBulk;
 
 		public BulkedDelegateQueryIterator() {
 			this.query = copyAndEnsurePagination(delegateQuerySet.getDelegateQuery());
@@ -189,9 +225,10 @@ public class EvalDelegateQuerySet extends TransientGeneratorEvalTupleSet impleme
 		}
 
 		protected void loadNextBulk() {
-			query.getRestriction().getPaging().setStartIndex(nextOffset++ * batchSize());
+			SubmittedQuery currentBulk = nextBulk != null ? nextBulk : submitNextBulk();
+			nextBulk = null;
 
-			List<Tuple> queryResult = runQuery(query);
+			List<Tuple> queryResult = toTupleList(currentBulk);
 
 			if (queryResult.isEmpty()) {
 				finished = true;
@@ -199,8 +236,19 @@ public class EvalDelegateQuerySet extends TransientGeneratorEvalTupleSet impleme
 			} else {
 				delegateIterator = queryResult.iterator();
 				thisBulkIsDefinitelyLast = queryResult.size() < batchSize();
+
+				if (!thisBulkIsDefinitelyLast && smartContext.supportsAsyncQueries())
+					nextBulk = submitNextBulk();
 			}
 		}
+
+		private SubmittedQuery submitNextBulk() {
+			// with async queries the previous bulk's query might still be running, so we cannot modify its paging
+			SelectQuery bulkQuery = smartContext.supportsAsyncQueries() ? copy(query) : query;
+			bulkQuery.getRestriction().getPaging().setStartIndex(nextOffset++ * batchSize());
+
+			return submitQuery(bulkQuery);
+		}
 	}
 
 	private boolean isBulked() {
@@ -16,6 +16,7 @@ import javax.sql.DataSource;
 import com.braintribe.codec.marshaller.json.JsonStreamMarshaller;
 import com.braintribe.gm.jdbc.api.GmDb;
 import com.braintribe.logging.Logger;
+import com.braintribe.model.access.collaboration.distributed.api.DcsaOperationsNotifier;
 import com.braintribe.model.access.collaboration.distributed.api.JdbcDcsaStorage;
 import com.braintribe.model.deployment.database.pool.DatabaseConnectionPool;
 import com.braintribe.model.deployment.database.pool.HikariCpConnectionPool;
@@ -91,6 +92,8 @@ public class JdbcDcsaStorageModuleSpace implements TribefireModuleContract {
 		bean.setDataSource(dataSourceInfo.dataSource);
 		bean.setJdbcStorage(jdbcDcsaSharedStorage(context));
 		bean.setGmDbStorage(gmDbDcsaSharedStorage(context));
+		bean.setProjectId(context.getDeployable().getProject());
+		bean.setOperationsNotifier(operationsNotifier(context));
 
 		// Temporary dirty hack to inject shared storage to the request processor
 		if (sharedStorage == null)
@@ -110,6 +113,7 @@ public class JdbcDcsaStorageModuleSpace implements TribefireModuleContract {
 		bean.setGmDb(gmDb(context));
 		bean.setLockManager(dataSourceInfo.lockManager);
 		bean.setAutoUpdateSchema(false);
+		bean.setOperationsNotifier(operationsNotifier(context));
 
 		return bean;
 	}
@@ -142,10 +146,20 @@ public class JdbcDcsaStorageModuleSpace implements TribefireModuleContract {
 		storage.setMarshaller(new com.braintribe.codec.marshaller.json.JsonStreamMarshaller());
 		storage.setParallelFetchThreads(getParallelFetchThreads(deployable));
 		storage.setAutoUpdateSchema(false);
+		storage.setOperationsNotifier(operationsNotifier(context));
 
 		return storage;
 	}
 
+	@Managed
+	private DcsaOperationsNotifier operationsNotifier(@SuppressWarnings("unused") ExpertContext<JdbcDcsaSharedStorage> context) {
+		DcsaOperationsNotifier bean = new DcsaOperationsNotifier();
+		bean.setMessagingSessionProvider(tfPlatform.messaging().sessionProvider()::provideMessagingSession);
+		bean.setTopicName(tfPlatform.messaging().destinations().prefixName(DcsaOperationsNotifier.DEFAULT_TOPIC_NAME));
+
+		return bean;
+	}
+
 	protected int getParallelFetchThreads(JdbcDcsaSharedStorage dss) {
 		// this runtime property is just an experimental feature, which has been used for some performance tests.
 		// if we want to make this official, it should be renamed and properly documented.
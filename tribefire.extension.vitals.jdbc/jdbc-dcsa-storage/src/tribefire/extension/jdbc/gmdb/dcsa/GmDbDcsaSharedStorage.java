@@ -53,6 +53,7 @@ import com.braintribe.gm.jdbc.api.GmTable;
 import com.braintribe.gm.jdbc.impl.column.ResourceColumn;
 import com.braintribe.logging.Logger;
 import com.braintribe.model.access.collaboration.distributed.api.DcsaIterable;
+import com.braintribe.model.access.collaboration.distributed.api.DcsaOperationsNotifier;
 import com.braintribe.model.access.collaboration.distributed.api.DcsaSharedStorage;
 import com.braintribe.model.access.collaboration.distributed.api.model.CsaOperation;
 import com.braintribe.model.access.collaboration.distributed.api.model.CsaOperationType;
@@ -108,6 +109,7 @@ public class GmDbDcsaSharedStorage implements DcsaSharedStorage, LifecycleAware
 	private boolean createdExecutor = false;
 	private int executorThreads = DEFAULT_EXECUTOR_THREADS;
 	private int batchSize = DEFAULT_BATCH_SIZE;
+	private DcsaOperationsNotifier operationsNotifier;
 
 	private final LazyInitialized<TableDriver> tableDriver = new LazyInitialized<>(TableDriver::new);
 
@@ -136,6 +138,8 @@ public class GmDbDcsaSharedStorage implements DcsaSharedStorage, LifecycleAware
 	 * This is related to loading LOBs, see {@link GmSelectBuilder#rowsInBatchesOf(int)}.
 	 */
 	@Configurable public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+	/** Optional notifier used to broadcast new operations to the other nodes, thus supporting {@link #addOperationsListener(String, Runnable)}. */
+	@Configurable public void setOperationsNotifier(DcsaOperationsNotifier operationsNotifier) { this.operationsNotifier = operationsNotifier; }
 	// @formatter:on
 
 	@Override
@@ -185,13 +189,35 @@ public class GmDbDcsaSharedStorage implements DcsaSharedStorage, LifecycleAware
 	public String storeOperation(String accessId, CsaOperation csaOperation) {
 		nonNull(accessId, "accessId");
 		nonNull(csaOperation, "csaOperation");
-		return tableDriver().insert(accessId, csaOperation);
+		String result = tableDriver().insert(accessId, csaOperation);
+		notifyOperationStored(accessId);
+
+		return result;
 	}
 
 	public void storeOperations(String accessId, List<CsaOperation> csaOperations) {
 		nonNull(accessId, "accessId");
 		nonNull(csaOperations, "csaOperations");
 		tableDriver().insertMany(accessId, csaOperations);
+		notifyOperationStored(accessId);
+	}
+
+	private void notifyOperationStored(String accessId) {
+		if (operationsNotifier != null)
+			operationsNotifier.notifyOperationStored(projectId, accessId);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean addOperationsListener(String accessId, Runnable listener) {
+		return operationsNotifier != null && operationsNotifier.addListener(projectId, accessId, listener);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void removeOperationsListener(String accessId, Runnable listener) {
+		if (operationsNotifier != null)
+			operationsNotifier.removeListener(projectId, accessId, listener);
 	}
 
 	/** {@inheritDoc} */
@@ -24,6 +24,7 @@ import javax.sql.DataSource;
 
 import com.braintribe.logging.Logger;
 import com.braintribe.model.access.collaboration.distributed.api.DcsaIterable;
+import com.braintribe.model.access.collaboration.distributed.api.DcsaOperationsNotifier;
 import com.braintribe.model.access.collaboration.distributed.api.DcsaSharedStorage;
 import com.braintribe.model.access.collaboration.distributed.api.JdbcDcsaStorage;
 import com.braintribe.model.access.collaboration.distributed.api.model.CsaOperation;
@@ -45,6 +46,8 @@ public class TemporaryJdbc2GmDbSharedStorage implements DcsaSharedStorage {
 	public DataSource dataSource;
 	public JdbcDcsaStorage jdbcStorage;
 	public GmDbDcsaSharedStorage gmDbStorage;
+	private String projectId;
+	private DcsaOperationsNotifier operationsNotifier;
 	private ReentrantLock upgradeLock = new ReentrantLock();
 
 	private Boolean isUpgraded;
@@ -53,6 +56,12 @@ public class TemporaryJdbc2GmDbSharedStorage implements DcsaSharedStorage {
 	public void setDataSource(DataSource dataSource) { this.dataSource = dataSource; }
 	public void setJdbcStorage(JdbcDcsaStorage jdbcStorage) { this.jdbcStorage = jdbcStorage; }
 	public void setGmDbStorage(GmDbDcsaSharedStorage gmDbStorage) { this.gmDbStorage = gmDbStorage; }
+	public void setProjectId(String projectId) { this.projectId = projectId; }
+	/**
+	 * The notifier used by both the underlying storages. Listeners are registered with it directly, rather than with the current storage, so that
+	 * they are notified about the operations stored by either implementation.
+	 */
+	public void setOperationsNotifier(DcsaOperationsNotifier operationsNotifier) { this.operationsNotifier = operationsNotifier; }
 	// @formatter:on
 
 	@Override
@@ -75,6 +84,17 @@ public class TemporaryJdbc2GmDbSharedStorage implements DcsaSharedStorage {
 		return storage().readResource(accessId, storedResourcesPaths);
 	}
 
+	@Override
+	public boolean addOperationsListener(String accessId, Runnable listener) {
+		return operationsNotifier != null && operationsNotifier.addListener(projectId, accessId, listener);
+	}
+
+	@Override
+	public void removeOperationsListener(String accessId, Runnable listener) {
+		if (operationsNotifier != null)
+			operationsNotifier.removeListener(projectId, accessId, listener);
+	}
+
 	private DcsaSharedStorage storage() {
 		return isUpgraded() ? gmDbStorage : jdbcStorage;
 	}
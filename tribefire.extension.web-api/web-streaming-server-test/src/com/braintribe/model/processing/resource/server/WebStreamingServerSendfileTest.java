@@ -0,0 +1,255 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.resource.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.braintribe.model.processing.resource.server.request.ResourceDownloadRequest;
+import com.braintribe.model.processing.resource.server.stream.SendfileOutputStream;
+import com.braintribe.model.processing.resource.streaming.AbstractFsBasedBinaryRetriever;
+import com.braintribe.model.processing.resource.streaming.access.BasicResourceAccess;
+import com.braintribe.model.processing.resource.streaming.access.BasicResourceAccessFactory;
+import com.braintribe.model.processing.service.api.ServiceRequestContext;
+import com.braintribe.model.processing.service.common.ConfigurableDispatchingServiceProcessor;
+import com.braintribe.model.processing.service.common.eval.ConfigurableServiceRequestEvaluator;
+import com.braintribe.model.processing.session.impl.persistence.BasicPersistenceGmSession;
+import com.braintribe.model.processing.smood.Smood;
+import com.braintribe.model.resource.Resource;
+import com.braintribe.model.resourceapi.persistence.DeleteBinary;
+import com.braintribe.model.resourceapi.persistence.DeleteBinaryResponse;
+import com.braintribe.model.resourceapi.persistence.StoreBinary;
+import com.braintribe.model.resourceapi.persistence.StoreBinaryResponse;
+import com.braintribe.model.resourceapi.stream.BinaryRetrievalRequest;
+import com.braintribe.model.resourceapi.stream.StreamBinary;
+import com.braintribe.model.resourceapi.stream.StreamResource;
+import com.braintribe.utils.stream.api.StreamPipes;
+
+/**
+ * Streams a file system binary through {@link WebStreamingServer} with the same stream wrapping as in production, i.e. via
+ * {@link BasicResourceAccess}, and checks the file is handed over to the container via {@link SendfileOutputStream}.
+ */
+public class WebStreamingServerSendfileTest {
+
+	private static final byte[] CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz".getBytes();
+
+	private Path file;
+	private BasicPersistenceGmSession gmSession;
+	private Resource resource;
+
+	private final Map<String, Object> requestAttributes = new HashMap<>();
+	private final Map<String, String> responseHeaders = new HashMap<>();
+	private final ByteArrayOutputStream responseBody = new ByteArrayOutputStream();
+
+	@Before
+	public void setup() throws IOException {
+		file = Files.createTempFile("sendfile-test", ".bin");
+		Files.write(file, CONTENT);
+
+		gmSession = newGmSession(new TestFsBinaryRetriever(file));
+
+		resource = Resource.T.create();
+		resource.setId("sendfile-test-resource");
+		resource.setName("sendfile-test.bin");
+		resource.setMimeType("application/octet-stream");
+		resource.setFileSize((long) CONTENT.length);
+	}
+
+	@After
+	public void cleanup() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	public void fileIsHandedOverToContainer() throws Exception {
+		requestAttributes.put(SendfileOutputStream.SENDFILE_SUPPORT_ATTRIBUTE, Boolean.TRUE);
+
+		stream(new WebStreamingServer(), -1, -1);
+
+		assertThat(requestAttributes.get(SendfileOutputStream.SENDFILE_FILENAME_ATTRIBUTE)).isEqualTo(file.toAbsolutePath().toString());
+		assertThat(requestAttributes.get(SendfileOutputStream.SENDFILE_START_ATTRIBUTE)).isEqualTo(0L);
+		assertThat(requestAttributes.get(SendfileOutputStream.SENDFILE_END_ATTRIBUTE)).isEqualTo((long) CONTENT.length);
+		assertThat(responseHeaders.get("Content-Length")).isEqualTo(String.valueOf(CONTENT.length));
+		assertThat(responseBody.toByteArray()).isEmpty();
+	}
+
+	@Test
+	public void rangeIsHandedOverToContainer() throws Exception {
+		requestAttributes.put(SendfileOutputStream.SENDFILE_SUPPORT_ATTRIBUTE, Boolean.TRUE);
+
+		stream(new WebStreamingServer(), 10, 19);
+
+		assertThat(requestAttributes.get(SendfileOutputStream.SENDFILE_START_ATTRIBUTE)).isEqualTo(10L);
+		assertThat(requestAttributes.get(SendfileOutputStream.SENDFILE_END_ATTRIBUTE)).isEqualTo(20L);
+		assertThat(responseHeaders.get("Content-Length")).isEqualTo("10");
+		assertThat(responseBody.toByteArray()).isEmpty();
+	}
+
+	@Test
+	public void contentIsWrittenWithoutContainerSupport() throws Exception {
+		stream(new WebStreamingServer(), -1, -1);
+
+		assertThat(requestAttributes.get(SendfileOutputStream.SENDFILE_FILENAME_ATTRIBUTE)).isNull();
+		assertThat(responseBody.toString()).isEqualTo(new String(CONTENT));
+	}
+
+	@Test
+	public void contentIsWrittenWhenSendfileIsDisabled() throws Exception {
+		requestAttributes.put(SendfileOutputStream.SENDFILE_SUPPORT_ATTRIBUTE, Boolean.TRUE);
+
+		WebStreamingServer server = new WebStreamingServer();
+		server.setUseSendfile(false);
+		stream(server, -1, -1);
+
+		assertThat(requestAttributes.get(SendfileOutputStream.SENDFILE_FILENAME_ATTRIBUTE)).isNull();
+		assertThat(responseBody.toString()).isEqualTo(new String(CONTENT));
+	}
+
+	private void stream(WebStreamingServer server, long rangeStart, long rangeEnd) throws Exception {
+		ResourceDownloadRequest downloadRequest = new ResourceDownloadRequest();
+		downloadRequest.setResourceId(resource.getId());
+		downloadRequest.setRangeStart(rangeStart);
+		downloadRequest.setRangeEnd(rangeEnd);
+
+		server.stream(downloadRequest, httpRequest(), httpResponse(), gmSession, resource);
+	}
+
+	// ###############################################
+	// ## . . . . . . . . . Setup . . . . . . . . . ##
+	// ###############################################
+
+	private static BasicPersistenceGmSession newGmSession(AbstractFsBasedBinaryRetriever retriever) {
+		// like the platform's resource processor, which delegates StreamResource to the binary processor as StreamBinary with the same capture
+		ConfigurableDispatchingServiceProcessor dispatcher = new ConfigurableDispatchingServiceProcessor();
+		dispatcher.register(StreamResource.T, (ServiceRequestContext context, StreamResource request) -> {
+			StreamBinary streamBinary = StreamBinary.T.create();
+			streamBinary.setResource(request.getResource());
+			streamBinary.setCapture(request.getCapture());
+			streamBinary.setCondition(request.getCondition());
+			streamBinary.setRange(request.getRange());
+
+			return retriever.stream(context, streamBinary);
+		});
+
+		ConfigurableServiceRequestEvaluator evaluator = new ConfigurableServiceRequestEvaluator();
+		evaluator.setExecutorService(Executors.newCachedThreadPool());
+		evaluator.setServiceProcessor(dispatcher);
+
+		BasicResourceAccessFactory resourceAccessFactory = new BasicResourceAccessFactory();
+		resourceAccessFactory.setStreamPipeFactory(StreamPipes.simpleFactory());
+		resourceAccessFactory.setShallowifyRequestResource(false);
+
+		Smood access = new Smood(new ReentrantReadWriteLock());
+		access.setAccessId("sendfile-test-access");
+
+		BasicPersistenceGmSession result = new BasicPersistenceGmSession();
+		result.setIncrementalAccess(access);
+		result.setRequestEvaluator(evaluator);
+		result.setResourcesAccessFactory(resourceAccessFactory);
+
+		return result;
+	}
+
+	private HttpServletRequest httpRequest() {
+		return proxy(HttpServletRequest.class, (method, args) -> {
+			switch (method) {
+				case "getAttribute":
+					return requestAttributes.get(args[0]);
+				case "setAttribute":
+					requestAttributes.put((String) args[0], args[1]);
+					return null;
+				default:
+					return null;
+			}
+		});
+	}
+
+	private HttpServletResponse httpResponse() {
+		ServletOutputStream out = new ServletOutputStream() {
+			// @formatter:off
+			@Override public void write(int b) { responseBody.write(b); }
+			// @formatter:on
+		};
+
+		return proxy(HttpServletResponse.class, (method, args) -> {
+			switch (method) {
+				case "setHeader":
+					responseHeaders.put((String) args[0], (String) args[1]);
+					return null;
+				case "getOutputStream":
+					return out;
+				case "isCommitted":
+					return Boolean.FALSE;
+				default:
+					return null;
+			}
+		});
+	}
+
+	@FunctionalInterface
+	private interface MethodHandler {
+		Object handle(String methodName, Object[] args);
+	}
+
+	private static <T> T proxy(Class<T> type, MethodHandler handler) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (p, m, args) -> {
+			Object result = handler.handle(m.getName(), args);
+			if (result != null || !m.getReturnType().isPrimitive() || m.getReturnType() == void.class)
+				return result;
+
+			// default value of the primitive type
+			return Array.get(Array.newInstance(m.getReturnType(), 1), 0);
+		}));
+	}
+
+	private static class TestFsBinaryRetriever extends AbstractFsBasedBinaryRetriever {
+		private final Path path;
+
+		public TestFsBinaryRetriever(Path path) {
+			this.path = path;
+		}
+
+		@Override
+		protected Path resolvePathForRetrieval(BinaryRetrievalRequest request) {
+			return path;
+		}
+
+		@Override
+		protected StoreBinaryResponse store(ServiceRequestContext context, StoreBinary request) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected DeleteBinaryResponse delete(ServiceRequestContext context, DeleteBinary originalRequest) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+}
@@ -28,6 +28,7 @@ import java.util.Set;
 import java.util.function.Function;
 
 import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -58,6 +59,7 @@ import com.braintribe.model.processing.resource.server.stream.InvalidRangeExcept
 import com.braintribe.model.processing.resource.server.stream.OnDemandSuppliedOutputStream;
 import com.braintribe.model.processing.resource.server.stream.ReopenableInputStreamProviders;
 import com.braintribe.model.processing.resource.server.stream.ReopenableInputStreamProviders.ReopenableInputStreamProvider;
+import com.braintribe.model.processing.resource.server.stream.SendfileOutputStream;
 import com.braintribe.model.processing.resource.streaming.ResourceStreamException;
 import com.braintribe.model.processing.rpc.commons.impl.client.GmRpcExceptionContextualizer;
 import com.braintribe.model.processing.rpc.commons.impl.logging.RpcServiceRequestSummaryLogger;
@@ -117,6 +119,7 @@ public class WebStreamingServer extends HttpServlet {
 	
 	private MarshallerRegistry marshallerRegistry;
 	private String defaultUploadResponseType;
+	private boolean useSendfile = true;
 
 	private Set<String> systemAccessIds = Collections.singleton("cortex");
 	
@@ -174,6 +177,18 @@ public class WebStreamingServer extends HttpServlet {
 		this.defaultUploadResponseType = defaultUploadResponseType;
 	}
 
+	/**
+	 * <p>
+	 * Determines whether binaries which are stored as files are handed over to the servlet container's "sendfile" support (if the container
+	 * offers it), rather than being written to the response by this servlet. Default is {@code true}.
+	 * 
+	 * @see SendfileOutputStream
+	 */
+	@Configurable
+	public void setUseSendfile(boolean useSendfile) {
+		this.useSendfile = useSendfile;
+	}
+
 	/**
 	 * <p>
 	 * Processes resource streaming requests.
@@ -233,7 +248,7 @@ public class WebStreamingServer extends HttpServlet {
 			// Streaming the binary data
 			summaryLogger.startTimer(logStepStream);
 			try {
-				stream(streamingRequest, response, gmSession, resource);
+				stream(streamingRequest, request, response, gmSession, resource);
 			} finally {
 				summaryLogger.stopTimer(logStepStream);
 			}
@@ -789,12 +804,12 @@ public class WebStreamingServer extends HttpServlet {
 	
 	
 
-	protected void stream(ResourceDownloadRequest streamingRequest, HttpServletResponse response, PersistenceGmSession gmSession, Resource resource)
-			throws ResourceStreamException {
+	protected void stream(ResourceDownloadRequest streamingRequest, HttpServletRequest request, HttpServletResponse response,
+			PersistenceGmSession gmSession, Resource resource) throws ResourceStreamException {
 
 		try {
 
-			OutputStream outputStream = new OnDemandSuppliedOutputStream(forWriting -> {
+			Function<Boolean, ServletOutputStream> servletOutputStreamSupplier = forWriting -> {
 
 				// if (forWriting) {
 				// // Setting body related headers only when there is a body
@@ -807,7 +822,11 @@ public class WebStreamingServer extends HttpServlet {
 					throw new UncheckedIOException(e);
 				}
 
-			});
+			};
+
+			OutputStream outputStream = useSendfile //
+					? new SendfileOutputStream(request, response, servletOutputStreamSupplier)
+					: new OnDemandSuppliedOutputStream(servletOutputStreamSupplier);
 
 			StreamCondition condition = streamCondition(streamingRequest);
 			StreamRange range = streamRange(streamingRequest);
@@ -0,0 +1,78 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.resource.server.stream;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Function;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.braintribe.model.processing.resource.streaming.FileTransferTarget;
+
+/**
+ * {@link OnDemandSuppliedOutputStream} which hands files over to the servlet container's "sendfile" support, if the container offers it (e.g.
+ * Tomcat's NIO connector), so that the content is copied by the operating system directly from the file to the socket, after the servlet returns.
+ * <p>
+ * If the container does not support it, or the response is already committed, the {@link #transferFile(Path, long, long) transfer} is declined
+ * and the data is simply written to this stream.
+ */
+public class SendfileOutputStream extends OnDemandSuppliedOutputStream implements FileTransferTarget {
+
+	public static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+	public static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+	public static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+	public static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+	private final HttpServletRequest request;
+	private final HttpServletResponse response;
+	private boolean transferred;
+
+	public SendfileOutputStream(HttpServletRequest request, HttpServletResponse response,
+			Function<Boolean, ServletOutputStream> outputStreamSupplier) {
+		super(outputStreamSupplier);
+		this.request = request;
+		this.response = response;
+	}
+
+	@Override
+	public boolean transferFile(Path path, long start, long end) {
+		if (transferred || response.isCommitted() || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE)))
+			return false;
+
+		response.setHeader("Content-Length", String.valueOf(Math.max(end - start, 0)));
+
+		request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, path.toAbsolutePath().toString());
+		request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+		request.setAttribute(SENDFILE_END_ATTRIBUTE, end);
+
+		transferred = true;
+		return true;
+	}
+
+	// The container takes care of the response once the file was handed over, committing it here would break the transfer.
+
+	@Override
+	public void flush() throws IOException {
+		if (!transferred)
+			super.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!transferred)
+			super.close();
+	}
+
+}
@@ -15,6 +15,7 @@ import com.braintribe.model.generic.GMF;
 import com.braintribe.model.generic.GenericEntity;
 import com.braintribe.model.generic.reflection.EntityType;
 import com.braintribe.model.generic.reflection.GenericModelTypeReflection;
+import com.braintribe.model.processing.meta.cmd.index.AdmissionCacheMap;
 
 // ###################################
 // ## . . . . . EMMULATION . . . . .##
@@ -28,8 +29,8 @@ public class CmdGwtUtils {
 		return new HashMap<K, V>();
 	}
 
-	public static <K, V> Map<K, V> newWeakCacheMap(int maxSize) {
-		return new HashMap<K, V>();
+	public static <K, V> AdmissionCacheMap<K, V> newWeakCacheMap(int maxSize) {
+		return new AdmissionCacheMap<K, V>(maxSize);
 	}
 
 	public static boolean isInstanceOf(Class<?> clazz, Object o) {
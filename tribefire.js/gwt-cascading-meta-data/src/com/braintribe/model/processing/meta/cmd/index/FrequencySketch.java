@@ -0,0 +1,120 @@
+// ============================================================================
+// Copyright BRAINTRIBE TECHNOLOGY GMBH, Austria, 2002-2022
+// 
+// This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+// 
+// This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+// 
+// You should have received a copy of the GNU Lesser General Public License along with this library; See http://www.gnu.org/licenses/.
+// ============================================================================
+package com.braintribe.model.processing.meta.cmd.index;
+
+/**
+ * Count-Min sketch with 4-bit counters, which estimates how often a key was accessed recently. This is the "TinyLFU" part of
+ * {@link AdmissionCacheMap}.
+ * <p>
+ * Sixteen counters are packed into one long and every key is mapped to four of them (one per "row"), the estimate is the minimum of those.
+ * Once the number of increments reaches ten times the size of the cache, all the counters are halved, so that the frequencies represent the
+ * recent history rather than the entire lifetime of the cache.
+ * <p>
+ * This implementation is NOT thread-safe.
+ */
+/* package */ final class FrequencySketch {
+
+	private static final int[] SEEDS = { 0x97cb3127, 0xc3a5c85c, 0xb492b66f, 0x9ae16a3b };
+	private static final long RESET_MASK = 0x7777777777777777L;
+	private static final long ONE_MASK = 0x1111111111111111L;
+
+	public static final int MAX_FREQUENCY = 15;
+
+	private final long[] table;
+	private final int tableMask;
+	private final int sampleSize;
+	private int additions;
+
+	public FrequencySketch(int maxSize) {
+		int size = ceilingPowerOfTwo(Math.max(maxSize, 8));
+
+		this.table = new long[size];
+		this.tableMask = size - 1;
+		this.sampleSize = 10 * Math.max(maxSize, 1);
+	}
+
+	/** @return the estimated number of recent accesses of given key, a value between 0 and {@value #MAX_FREQUENCY} */
+	public int frequency(Object key) {
+		int hash = spread(key.hashCode());
+		int start = (hash & 3) << 2;
+
+		int result = MAX_FREQUENCY;
+		for (int i = 0; i < 4; i++) {
+			int index = indexOf(hash, i);
+			int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+			result = Math.min(result, count);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Increments the frequency of given key, unless it is already at {@value #MAX_FREQUENCY}.
+	 * 
+	 * @return <tt>true</tt> iff this increment triggered the halving of all the counters
+	 */
+	public boolean increment(Object key) {
+		int hash = spread(key.hashCode());
+		int start = (hash & 3) << 2;
+
+		boolean added = false;
+		for (int i = 0; i < 4; i++)
+			added |= incrementAt(indexOf(hash, i), start + i);
+
+		if (!added || ++additions < sampleSize)
+			return false;
+
+		reset();
+		return true;
+	}
+
+	private boolean incrementAt(int index, int counter) {
+		int offset = counter << 2;
+		long mask = 0xfL << offset;
+		if ((table[index] & mask) == mask)
+			return false;
+
+		table[index] += 1L << offset;
+		return true;
+	}
+
+	/** Halves all the counters. */
+	private void reset() {
+		int odd = 0;
+		for (int i = 0; i < table.length; i++) {
+			odd += Long.bitCount(table[i] & ONE_MASK);
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+
+		additions = (additions - (odd >>> 2)) >>> 1;
+	}
+
+	private int indexOf(int hash, int row) {
+		int h = (hash + SEEDS[row]) * SEEDS[row];
+		h ^= h >>> 16;
+		return h & tableMask;
+	}
+
+	private static int spread(int hash) {
+		int h = hash * 0x9e3779b9;
+		return h ^ (h >>> 16);
+	}
+
+	private static int ceilingPowerOfTwo(int value) {
+		int result = 1;
+		while (result < value)
+			result <<= 1;
+
+		return result;
+	}
+
+}
@@ -14,7 +14,7 @@ package com.braintribe.model.processing.meta.cmd.tools;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
-import com.braintribe.model.processing.meta.cmd.index.LRUMap;
+import com.braintribe.model.processing.meta.cmd.index.AdmissionCacheMap;
 
 /** Utility class for all code that would not work in GWT (must be emulated). */
 public class CmdGwtUtils {
@@ -23,8 +23,8 @@ public class CmdGwtUtils {
 		return new ConcurrentHashMap<K, V>();
 	}
 
-	public static <K, V> Map<K, V> newWeakCacheMap(int maxSize) {
-		return new LRUMap<K, V>(maxSize);
+	public static <K, V> AdmissionCacheMap<K, V> newWeakCacheMap(int maxSize) {
+		return new AdmissionCacheMap<K, V>(maxSize, Runtime.getRuntime().availableProcessors());
 	}
 
 	/**